@@ -0,0 +1,58 @@
+package com.linkedin.metadata.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.fge.jackson.jsonpointer.JsonPointer;
+import com.github.fge.jackson.jsonpointer.JsonPointerException;
+import com.github.fge.jsonpatch.AddOperation;
+import com.github.fge.jsonpatch.JsonPatch;
+import com.github.fge.jsonpatch.JsonPatchException;
+import com.linkedin.common.GlobalTags;
+import com.linkedin.common.urn.TagUrn;
+import com.linkedin.data.template.RecordTemplate;
+import com.linkedin.metadata.aspect.patch.template.AspectTemplateEngine;
+import com.linkedin.metadata.models.AspectSpec;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Applying a single tag patch to an aspect that already holds tagCount tags. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class AspectTemplateEngineBenchmark {
+
+  @Param({"10", "100", "1000"})
+  public int tagCount;
+
+  private AspectTemplateEngine templateEngine;
+  private AspectSpec aspectSpec;
+  private GlobalTags globalTags;
+  private JsonPatch patch;
+
+  @Setup
+  public void setup() throws JsonPointerException {
+    templateEngine = BenchmarkFixtures.ENTITY_REGISTRY.getAspectTemplateEngine();
+    aspectSpec = BenchmarkFixtures.aspectSpec("dataset", "globalTags");
+    globalTags = BenchmarkFixtures.globalTags(tagCount);
+
+    TagUrn newTag = BenchmarkFixtures.tagUrn(tagCount);
+    ObjectNode value = JsonNodeFactory.instance.objectNode();
+    value.put("tag", newTag.toString());
+    patch =
+        new JsonPatch(List.of(new AddOperation(new JsonPointer("/tags/" + newTag), value)));
+  }
+
+  @Benchmark
+  public RecordTemplate applyPatch() throws JsonProcessingException, JsonPatchException {
+    return templateEngine.applyPatch(globalTags, patch, aspectSpec);
+  }
+}
@@ -0,0 +1,127 @@
+package com.linkedin.metadata.benchmark;
+
+import com.linkedin.common.AuditStamp;
+import com.linkedin.common.FabricType;
+import com.linkedin.common.GlobalTags;
+import com.linkedin.common.GlossaryTermAssociation;
+import com.linkedin.common.GlossaryTermAssociationArray;
+import com.linkedin.common.GlossaryTerms;
+import com.linkedin.common.TagAssociation;
+import com.linkedin.common.TagAssociationArray;
+import com.linkedin.common.urn.DataPlatformUrn;
+import com.linkedin.common.urn.DatasetUrn;
+import com.linkedin.common.urn.GlossaryTermUrn;
+import com.linkedin.common.urn.TagUrn;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.common.urn.UrnUtils;
+import com.linkedin.events.metadata.ChangeType;
+import com.linkedin.metadata.models.AspectSpec;
+import com.linkedin.metadata.models.registry.EntityRegistry;
+import com.linkedin.metadata.models.registry.SnapshotEntityRegistry;
+import com.linkedin.metadata.utils.GenericRecordUtils;
+import com.linkedin.mxe.MetadataChangeLog;
+import com.linkedin.mxe.SystemMetadata;
+import com.linkedin.schema.OtherSchema;
+import com.linkedin.schema.SchemaField;
+import com.linkedin.schema.SchemaFieldArray;
+import com.linkedin.schema.SchemaFieldDataType;
+import com.linkedin.schema.SchemaMetadata;
+import com.linkedin.schema.StringType;
+import java.util.List;
+import javax.annotation.Nonnull;
+
+/**
+ * Builds the records the benchmarks run against. Aspect specs come from the same entity registry
+ * GMS serves, so searchable annotations, patch templates and lineage edges match production.
+ */
+public class BenchmarkFixtures {
+
+  public static final EntityRegistry ENTITY_REGISTRY = SnapshotEntityRegistry.getInstance();
+
+  public static final Urn ACTOR = UrnUtils.getUrn("urn:li:corpuser:datahub");
+
+  private BenchmarkFixtures() {}
+
+  @Nonnull
+  public static AspectSpec aspectSpec(@Nonnull String entityName, @Nonnull String aspectName) {
+    return ENTITY_REGISTRY.getEntitySpec(entityName).getAspectSpec(aspectName);
+  }
+
+  @Nonnull
+  public static DatasetUrn datasetUrn(int index) {
+    return new DatasetUrn(
+        new DataPlatformUrn("snowflake"), "analytics.public.table_" + index, FabricType.PROD);
+  }
+
+  @Nonnull
+  public static TagUrn tagUrn(int index) {
+    return new TagUrn("tag_" + index);
+  }
+
+  /** A global tags aspect holding the given number of tags. */
+  @Nonnull
+  public static GlobalTags globalTags(int tagCount) {
+    TagAssociationArray tags = new TagAssociationArray();
+    for (int i = 0; i < tagCount; i++) {
+      tags.add(new TagAssociation().setTag(tagUrn(i)));
+    }
+    return new GlobalTags().setTags(tags);
+  }
+
+  /**
+   * A schema with the given number of nested fields, each carrying a description, a tag and a
+   * glossary term, which is representative of what warehouse sources emit.
+   */
+  @Nonnull
+  public static SchemaMetadata schemaMetadata(int fieldCount) {
+    SchemaFieldArray fields = new SchemaFieldArray();
+    for (int i = 0; i < fieldCount; i++) {
+      fields.add(
+          new SchemaField()
+              .setFieldPath("customer.address_" + (i % 10) + ".line_" + i)
+              .setNativeDataType("VARCHAR(256)")
+              .setType(
+                  new SchemaFieldDataType()
+                      .setType(SchemaFieldDataType.Type.create(new StringType())))
+              .setDescription("Free text column " + i + " populated by the nightly customer load")
+              .setNullable(true)
+              .setGlobalTags(globalTags(1))
+              .setGlossaryTerms(
+                  new GlossaryTerms()
+                      .setTerms(
+                          new GlossaryTermAssociationArray(
+                              List.of(
+                                  new GlossaryTermAssociation()
+                                      .setUrn(new GlossaryTermUrn("Classification.Sensitive")))))
+                      .setAuditStamp(auditStamp())));
+    }
+    return new SchemaMetadata()
+        .setSchemaName("analytics.public.customers")
+        .setPlatform(new DataPlatformUrn("snowflake"))
+        .setVersion(0L)
+        .setHash("")
+        .setPlatformSchema(
+            SchemaMetadata.PlatformSchema.create(new OtherSchema().setRawSchema("")))
+        .setFields(fields);
+  }
+
+  /** The change log GMS emits after a schemaMetadata upsert on a dataset. */
+  @Nonnull
+  public static MetadataChangeLog schemaMetadataChangeLog(int fieldCount) {
+    return new MetadataChangeLog()
+        .setEntityType("dataset")
+        .setEntityUrn(datasetUrn(0))
+        .setChangeType(ChangeType.UPSERT)
+        .setAspectName("schemaMetadata")
+        .setAspect(GenericRecordUtils.serializeAspect(schemaMetadata(fieldCount)))
+        .setPreviousAspectValue(GenericRecordUtils.serializeAspect(schemaMetadata(fieldCount)))
+        .setSystemMetadata(
+            new SystemMetadata().setRunId("benchmark").setLastObserved(1700000000000L))
+        .setCreated(auditStamp());
+  }
+
+  @Nonnull
+  public static AuditStamp auditStamp() {
+    return new AuditStamp().setActor(ACTOR).setTime(1700000000000L);
+  }
+}
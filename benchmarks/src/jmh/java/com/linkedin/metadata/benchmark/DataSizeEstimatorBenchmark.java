@@ -0,0 +1,43 @@
+package com.linkedin.metadata.benchmark;
+
+import com.linkedin.data.DataMap;
+import com.linkedin.data.codec.JacksonDataCodec;
+import com.linkedin.metadata.utils.DataSizeEstimator;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Client cache weighing, estimated structurally versus by serializing the value. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class DataSizeEstimatorBenchmark {
+
+  @Param({"10", "100", "1000"})
+  public int fieldCount;
+
+  private final JacksonDataCodec codec = new JacksonDataCodec();
+  private DataMap data;
+
+  @Setup
+  public void setup() {
+    data = BenchmarkFixtures.schemaMetadata(fieldCount).data();
+  }
+
+  @Benchmark
+  public long estimateSize() {
+    return DataSizeEstimator.estimateSize(data);
+  }
+
+  @Benchmark
+  public int serializedSize() throws IOException {
+    return codec.mapToBytes(data).length;
+  }
+}
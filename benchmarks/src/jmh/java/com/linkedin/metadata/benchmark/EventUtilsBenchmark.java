@@ -0,0 +1,44 @@
+package com.linkedin.metadata.benchmark;
+
+import com.linkedin.metadata.EventUtils;
+import com.linkedin.mxe.MetadataChangeLog;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.apache.avro.generic.GenericRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Pegasus to Avro conversion of change logs, paid once per MCL produced and once per consumed. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class EventUtilsBenchmark {
+
+  @Param({"10", "100", "1000"})
+  public int fieldCount;
+
+  private MetadataChangeLog changeLog;
+  private GenericRecord record;
+
+  @Setup
+  public void setup() throws IOException {
+    changeLog = BenchmarkFixtures.schemaMetadataChangeLog(fieldCount);
+    record = EventUtils.pegasusToAvroMCL(changeLog);
+  }
+
+  @Benchmark
+  public GenericRecord pegasusToAvroMCL() throws IOException {
+    return EventUtils.pegasusToAvroMCL(changeLog);
+  }
+
+  @Benchmark
+  public MetadataChangeLog avroToPegasusMCL() throws IOException {
+    return EventUtils.avroToPegasusMCL(record);
+  }
+}
@@ -0,0 +1,95 @@
+package com.linkedin.metadata.benchmark;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.linkedin.common.UrnArrayArray;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.metadata.graph.LineageDirection;
+import com.linkedin.metadata.graph.LineageRelationship;
+import com.linkedin.metadata.graph.elastic.ESGraphQueryDAO;
+import com.linkedin.metadata.models.registry.LineageRegistry;
+import com.linkedin.metadata.models.registry.LineageRegistry.EdgeInfo;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.tuple.Pair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.opensearch.action.search.SearchResponse;
+import org.opensearch.search.SearchHit;
+import org.opensearch.search.SearchHits;
+
+/**
+ * Turning one hop of lineage edge documents into relationships, for a dataset with edgeCount
+ * upstreams. Hits are mocked with their source already decoded, so this measures the edge
+ * filtering and path bookkeeping rather than the search client's json parsing.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ExtractRelationshipsBenchmark {
+
+  @Param({"100", "1000", "10000"})
+  public int edgeCount;
+
+  private Set<Urn> entityUrns;
+  private SearchResponse searchResponse;
+  private Set<Pair<String, EdgeInfo>> validEdges;
+
+  @Setup
+  public void setup() {
+    Urn downstream = BenchmarkFixtures.datasetUrn(0);
+    entityUrns = Set.of(downstream);
+
+    SearchHit[] hits = new SearchHit[edgeCount];
+    for (int i = 0; i < edgeCount; i++) {
+      Map<String, Object> document = new HashMap<>();
+      document.put("source", Map.of("urn", downstream.toString(), "entityType", "dataset"));
+      document.put(
+          "destination",
+          Map.of("urn", BenchmarkFixtures.datasetUrn(i + 1).toString(), "entityType", "dataset"));
+      document.put("relationshipType", "DownstreamOf");
+      document.put("createdOn", 1700000000000L);
+      document.put("createdActor", BenchmarkFixtures.ACTOR.toString());
+      document.put("properties", Map.of("source", "UI"));
+      hits[i] = mock(SearchHit.class);
+      when(hits[i].getSourceAsMap()).thenReturn(document);
+    }
+    SearchHits searchHits = mock(SearchHits.class);
+    when(searchHits.getHits()).thenReturn(hits);
+    searchResponse = mock(SearchResponse.class);
+    when(searchResponse.getHits()).thenReturn(searchHits);
+
+    LineageRegistry lineageRegistry = new LineageRegistry(BenchmarkFixtures.ENTITY_REGISTRY);
+    validEdges =
+        lineageRegistry.getLineageRelationships("dataset", LineageDirection.UPSTREAM).stream()
+            .map(edgeInfo -> Pair.of("dataset", edgeInfo))
+            .collect(Collectors.toSet());
+  }
+
+  @Benchmark
+  public List<LineageRelationship> extractRelationships() {
+    Map<Urn, UrnArrayArray> existingPaths = new HashMap<>();
+    return ESGraphQueryDAO.extractRelationships(
+        entityUrns,
+        searchResponse,
+        validEdges,
+        new HashSet<>(entityUrns),
+        new HashSet<>(),
+        1,
+        2,
+        existingPaths,
+        false);
+  }
+}
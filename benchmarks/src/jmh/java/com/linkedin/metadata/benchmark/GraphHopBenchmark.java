@@ -0,0 +1,191 @@
+package com.linkedin.metadata.benchmark;
+
+import static com.linkedin.metadata.graph.elastic.ElasticSearchGraphService.DESTINATION_ROUTED_INDEX_NAME;
+import static com.linkedin.metadata.graph.elastic.ElasticSearchGraphService.INDEX_NAME;
+import static com.linkedin.metadata.graph.elastic.ElasticSearchGraphService.SOURCE_ROUTED_INDEX_NAME;
+import static com.linkedin.metadata.graph.elastic.ElasticSearchGraphService.toRouting;
+
+import com.linkedin.common.urn.Urn;
+import com.linkedin.metadata.config.search.GraphQueryConfiguration;
+import com.linkedin.metadata.graph.GraphFilters;
+import com.linkedin.metadata.graph.LineageDirection;
+import com.linkedin.metadata.graph.LineagePathFinder;
+import com.linkedin.metadata.graph.elastic.ESGraphQueryDAO;
+import com.linkedin.metadata.graph.elastic.GraphRelationshipMappingsBuilder;
+import com.linkedin.metadata.models.registry.LineageRegistry;
+import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
+import com.linkedin.metadata.utils.elasticsearch.IndexConventionImpl;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.http.HttpHost;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.opensearch.action.admin.indices.delete.DeleteIndexRequest;
+import org.opensearch.action.admin.indices.refresh.RefreshRequest;
+import org.opensearch.action.bulk.BulkRequest;
+import org.opensearch.action.index.IndexRequest;
+import org.opensearch.action.support.IndicesOptions;
+import org.opensearch.client.RequestOptions;
+import org.opensearch.client.RestClient;
+import org.opensearch.client.RestHighLevelClient;
+import org.opensearch.client.indices.CreateIndexRequest;
+import org.opensearch.common.settings.Settings;
+
+/**
+ * One lineage hop from a single dataset against a search cluster, with the edges in the single
+ * graph index or in the indices routed by source and destination urn, to compare tail latency as
+ * the shard count grows. Unlike the other suites this one needs a running Elasticsearch or
+ * OpenSearch, reached through ELASTICSEARCH_HOST and ELASTICSEARCH_PORT like the integration tests.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class GraphHopBenchmark {
+
+  private static final int DATASET_COUNT = 20000;
+  private static final int UPSTREAMS_PER_DATASET = 4;
+  private static final int BULK_SIZE = 5000;
+  private static final long HOP_TIMEOUT_MILLIS = 10000;
+
+  @Param({"1", "4", "16"})
+  public int shards;
+
+  @Param({"false", "true"})
+  public boolean routed;
+
+  @Param({"UPSTREAM", "DOWNSTREAM"})
+  public LineageDirection direction;
+
+  private RestHighLevelClient client;
+  private List<String> indexNames;
+  private ESGraphQueryDAO graphQueryDAO;
+  private GraphFilters graphFilters;
+  private int next = 0;
+
+  @Setup
+  public void setup() throws IOException {
+    final int port =
+        Integer.parseInt(Optional.ofNullable(System.getenv("ELASTICSEARCH_PORT")).orElse("9200"));
+    client =
+        new RestHighLevelClient(
+            RestClient.builder(
+                new HttpHost(
+                    Optional.ofNullable(System.getenv("ELASTICSEARCH_HOST")).orElse("localhost"),
+                    port)));
+    final IndexConvention indexConvention =
+        new IndexConventionImpl("benchmark_graph_hop_" + shards);
+    indexNames =
+        routed
+            ? List.of(
+                indexConvention.getIndexName(SOURCE_ROUTED_INDEX_NAME),
+                indexConvention.getIndexName(DESTINATION_ROUTED_INDEX_NAME))
+            : List.of(indexConvention.getIndexName(INDEX_NAME));
+
+    deleteIndices();
+    for (String indexName : indexNames) {
+      client
+          .indices()
+          .create(
+              new CreateIndexRequest(indexName)
+                  .settings(
+                      Settings.builder()
+                          .put("index.number_of_shards", shards)
+                          .put("index.number_of_replicas", 0))
+                  .mapping(
+                      routed
+                          ? GraphRelationshipMappingsBuilder.getRoutedMappings()
+                          : GraphRelationshipMappingsBuilder.getMappings()),
+              RequestOptions.DEFAULT);
+    }
+    loadEdges();
+
+    graphQueryDAO =
+        new ESGraphQueryDAO(
+            client,
+            new LineageRegistry(BenchmarkFixtures.ENTITY_REGISTRY),
+            indexConvention,
+            GraphQueryConfiguration.testDefaults);
+    graphQueryDAO.setRoutedIndices(routed);
+    graphFilters = new GraphFilters(List.of("dataset"));
+  }
+
+  // Every dataset is downstream of a few others picked at random, the same ones on every run
+  private void loadEdges() throws IOException {
+    final Random random = new Random(42);
+    BulkRequest bulkRequest = new BulkRequest();
+    for (int i = 0; i < DATASET_COUNT; i++) {
+      final Urn downstream = BenchmarkFixtures.datasetUrn(i);
+      for (int j = 0; j < UPSTREAMS_PER_DATASET; j++) {
+        final Urn upstream = BenchmarkFixtures.datasetUrn(random.nextInt(DATASET_COUNT));
+        final Map<String, Object> document =
+            Map.of(
+                "source",
+                Map.of("urn", downstream.toString(), "entityType", "dataset"),
+                "destination",
+                Map.of("urn", upstream.toString(), "entityType", "dataset"),
+                "relationshipType",
+                "DownstreamOf");
+        final String docId = i + "-" + j;
+        if (routed) {
+          bulkRequest.add(
+              new IndexRequest(indexNames.get(0))
+                  .id(docId)
+                  .routing(toRouting(downstream.toString()))
+                  .source(document));
+          bulkRequest.add(
+              new IndexRequest(indexNames.get(1))
+                  .id(docId)
+                  .routing(toRouting(upstream.toString()))
+                  .source(document));
+        } else {
+          bulkRequest.add(new IndexRequest(indexNames.get(0)).id(docId).source(document));
+        }
+        if (bulkRequest.numberOfActions() >= BULK_SIZE) {
+          client.bulk(bulkRequest, RequestOptions.DEFAULT);
+          bulkRequest = new BulkRequest();
+        }
+      }
+    }
+    if (bulkRequest.numberOfActions() > 0) {
+      client.bulk(bulkRequest, RequestOptions.DEFAULT);
+    }
+    client
+        .indices()
+        .refresh(new RefreshRequest(indexNames.toArray(new String[0])), RequestOptions.DEFAULT);
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    deleteIndices();
+    client.close();
+  }
+
+  private void deleteIndices() throws IOException {
+    client
+        .indices()
+        .delete(
+            new DeleteIndexRequest(indexNames.toArray(new String[0]))
+                .indicesOptions(IndicesOptions.lenientExpandOpen()),
+            RequestOptions.DEFAULT);
+  }
+
+  @Benchmark
+  public LineagePathFinder.Hops hop() {
+    final Urn urn = BenchmarkFixtures.datasetUrn(next);
+    next = (next + 1) % DATASET_COUNT;
+    return graphQueryDAO.getLineageHopsInBatches(
+        new ArrayList<>(List.of(urn)), direction, graphFilters, HOP_TIMEOUT_MILLIS, null, null);
+  }
+}
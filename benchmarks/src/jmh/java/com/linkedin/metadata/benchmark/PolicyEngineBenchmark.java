@@ -0,0 +1,129 @@
+package com.linkedin.metadata.benchmark;
+
+import com.datahub.authorization.EntityFieldType;
+import com.datahub.authorization.EntitySpec;
+import com.datahub.authorization.FieldResolver;
+import com.datahub.authorization.FilterUtils;
+import com.datahub.authorization.PolicyEngine;
+import com.datahub.authorization.ResolvedEntitySpec;
+import com.linkedin.common.UrnArray;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.common.urn.UrnUtils;
+import com.linkedin.data.template.StringArray;
+import com.linkedin.metadata.authorization.PoliciesConfig;
+import com.linkedin.policy.DataHubActorFilter;
+import com.linkedin.policy.DataHubPolicyInfo;
+import com.linkedin.policy.DataHubResourceFilter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Evaluating one privilege check against every cached policy, the way the authorizer does per
+ * request. Policies match on users, groups, resource type and resource urn only, since owner and
+ * role checks go through the entity client.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class PolicyEngineBenchmark {
+
+  private static final String PRIVILEGE = "EDIT_ENTITY_TAGS";
+  private static final int GROUP_COUNT = 20;
+  private static final int URNS_PER_POLICY = 10;
+
+  @Param({"10", "100", "1000"})
+  public int policyCount;
+
+  private final PolicyEngine policyEngine = new PolicyEngine(null, null);
+  private final List<DataHubPolicyInfo> policies = new ArrayList<>();
+  private ResolvedEntitySpec actor;
+  private Optional<ResolvedEntitySpec> resource;
+
+  @Setup
+  public void setup() {
+    for (int i = 0; i < policyCount; i++) {
+      UrnArray urns = new UrnArray();
+      List<String> resourceUrns = new ArrayList<>();
+      for (int j = 0; j < URNS_PER_POLICY; j++) {
+        resourceUrns.add(BenchmarkFixtures.datasetUrn(i * URNS_PER_POLICY + j).toString());
+      }
+      urns.add(UrnUtils.getUrn("urn:li:corpuser:user_" + i));
+      policies.add(
+          new DataHubPolicyInfo()
+              .setDisplayName("Policy " + i)
+              .setType(PoliciesConfig.METADATA_POLICY_TYPE)
+              .setState(PoliciesConfig.ACTIVE_POLICY_STATE)
+              .setEditable(true)
+              .setPrivileges(new StringArray(List.of(PRIVILEGE, "EDIT_ENTITY_OWNERS")))
+              .setActors(
+                  new DataHubActorFilter()
+                      .setUsers(urns)
+                      .setGroups(new UrnArray(List.of(groupUrn(i % GROUP_COUNT))))
+                      .setResourceOwners(false)
+                      .setAllUsers(false)
+                      .setAllGroups(false))
+              .setResources(
+                  new DataHubResourceFilter()
+                      .setFilter(
+                          FilterUtils.newFilter(
+                              Map.of(
+                                  EntityFieldType.TYPE,
+                                  List.of("dataset"),
+                                  EntityFieldType.URN,
+                                  resourceUrns)))));
+    }
+
+    actor =
+        resolvedSpec(
+            "corpuser",
+            "urn:li:corpuser:benchmark",
+            Collections.singleton(groupUrn(0).toString()));
+    // Matches the last policy on its resource, so every policy gets evaluated in full
+    resource =
+        Optional.of(
+            resolvedSpec(
+                "dataset",
+                BenchmarkFixtures.datasetUrn((policyCount - 1) * URNS_PER_POLICY).toString(),
+                Collections.emptySet()));
+  }
+
+  @Benchmark
+  public int evaluatePolicies() {
+    int granted = 0;
+    for (DataHubPolicyInfo policy : policies) {
+      if (policyEngine.evaluatePolicy(policy, actor, PRIVILEGE, resource).isGranted()) {
+        granted++;
+      }
+    }
+    return granted;
+  }
+
+  private static Urn groupUrn(int index) {
+    return UrnUtils.getUrn("urn:li:corpGroup:group_" + index);
+  }
+
+  private static ResolvedEntitySpec resolvedSpec(String type, String urn, Set<String> groups) {
+    return new ResolvedEntitySpec(
+        new EntitySpec(type, urn),
+        Map.of(
+            EntityFieldType.TYPE,
+            FieldResolver.getResolverFromValues(Collections.singleton(type)),
+            EntityFieldType.URN,
+            FieldResolver.getResolverFromValues(Collections.singleton(urn)),
+            EntityFieldType.GROUP_MEMBERSHIP,
+            FieldResolver.getResolverFromValues(groups)));
+  }
+}
@@ -0,0 +1,42 @@
+package com.linkedin.metadata.benchmark;
+
+import com.datahub.util.RecordUtils;
+import com.linkedin.schema.SchemaMetadata;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Json encoding and decoding of record templates, which backs every aspect row read or written. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class RecordUtilsBenchmark {
+
+  @Param({"10", "100", "1000"})
+  public int fieldCount;
+
+  private SchemaMetadata schemaMetadata;
+  private String json;
+
+  @Setup
+  public void setup() {
+    schemaMetadata = BenchmarkFixtures.schemaMetadata(fieldCount);
+    json = RecordUtils.toJsonString(schemaMetadata);
+  }
+
+  @Benchmark
+  public SchemaMetadata toRecordTemplate() {
+    return RecordUtils.toRecordTemplate(SchemaMetadata.class, json);
+  }
+
+  @Benchmark
+  public String toJsonString() {
+    return RecordUtils.toJsonString(schemaMetadata);
+  }
+}
@@ -0,0 +1,47 @@
+package com.linkedin.metadata.benchmark;
+
+import com.linkedin.common.urn.Urn;
+import com.linkedin.metadata.models.AspectSpec;
+import com.linkedin.metadata.search.transformer.SearchDocumentTransformer;
+import com.linkedin.r2.RemoteInvocationException;
+import com.linkedin.schema.SchemaMetadata;
+import java.net.URISyntaxException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Search document extraction, run for every searchable aspect written. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class SearchDocumentTransformerBenchmark {
+
+  @Param({"10", "100", "1000"})
+  public int fieldCount;
+
+  private final SearchDocumentTransformer transformer =
+      new SearchDocumentTransformer(1000, 1000, 1000);
+  private Urn urn;
+  private SchemaMetadata schemaMetadata;
+  private AspectSpec aspectSpec;
+
+  @Setup
+  public void setup() {
+    urn = BenchmarkFixtures.datasetUrn(0);
+    schemaMetadata = BenchmarkFixtures.schemaMetadata(fieldCount);
+    aspectSpec = BenchmarkFixtures.aspectSpec("dataset", "schemaMetadata");
+  }
+
+  @Benchmark
+  public Optional<String> transformSchemaMetadata()
+      throws RemoteInvocationException, URISyntaxException {
+    return transformer.transformAspect(urn, schemaMetadata, aspectSpec, false);
+  }
+}
@@ -0,0 +1,38 @@
+package com.linkedin.metadata.benchmark;
+
+import com.linkedin.common.urn.Urn;
+import com.linkedin.common.urn.UrnUtils;
+import java.net.URISyntaxException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/** Urn parsing, paid for every urn read off the wire, out of a row or out of a document. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class UrnBenchmark {
+
+  @Param({
+    "urn:li:corpuser:datahub",
+    "urn:li:dataset:(urn:li:dataPlatform:snowflake,analytics.public.customers,PROD)",
+    "urn:li:schemaField:(urn:li:dataset:(urn:li:dataPlatform:snowflake,analytics.public.customers,"
+        + "PROD),customer.address.city)"
+  })
+  public String urn;
+
+  @Benchmark
+  public Urn createFromString() throws URISyntaxException {
+    return Urn.createFromString(urn);
+  }
+
+  @Benchmark
+  public Urn getUrn() {
+    return UrnUtils.getUrn(urn);
+  }
+}
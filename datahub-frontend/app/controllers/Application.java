@@ -6,10 +6,14 @@ import static auth.AuthUtils.SESSION_COOKIE_GMS_TOKEN_NAME;
 import akka.actor.ActorSystem;
 import akka.stream.ActorMaterializer;
 import akka.stream.Materializer;
+import akka.stream.javadsl.Source;
 import akka.util.ByteString;
 import auth.Authenticator;
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Timer;
 import com.datahub.authentication.AuthenticationConstants;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.linkedin.metadata.utils.metrics.MetricUtils;
 import com.linkedin.util.Pair;
 import com.typesafe.config.Config;
 import java.io.InputStream;
@@ -20,6 +24,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -28,10 +33,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import play.Environment;
 import play.http.HttpEntity;
+import play.libs.F;
 import play.libs.Json;
-import play.libs.ws.InMemoryBodyWritable;
+import play.libs.streams.Accumulator;
+import play.libs.ws.SourceBodyWritable;
 import play.libs.ws.StandaloneWSClient;
+import play.libs.ws.StandaloneWSRequest;
 import play.libs.ws.ahc.StandaloneAhcWSClient;
+import play.mvc.BodyParser;
 import play.mvc.Controller;
 import play.mvc.Http;
 import play.mvc.ResponseHeader;
@@ -48,14 +57,52 @@ public class Application extends Controller {
   private final Config _config;
   private final StandaloneWSClient _ws;
   private final Environment _environment;
+  private final boolean _compressionPassthrough;
+  private final Duration _proxyRequestTimeout;
+
+  private final Timer _proxyLatency = MetricUtils.timer(Application.class, "proxyLatency");
+  private final Timer _proxyTimeToFirstByte =
+      MetricUtils.timer(Application.class, "proxyTimeToFirstByte");
+  private final Counter _proxyInFlight = MetricUtils.counter(Application.class, "proxyInFlight");
 
   @Inject
   public Application(Environment environment, @Nonnull Config config) {
     _config = config;
+    _compressionPassthrough =
+        ConfigUtil.getBoolean(
+            _config,
+            ConfigUtil.METADATA_SERVICE_PROXY_COMPRESSION_PASSTHROUGH_CONFIG_PATH,
+            ConfigUtil.DEFAULT_METADATA_SERVICE_PROXY_COMPRESSION_PASSTHROUGH);
+    _proxyRequestTimeout =
+        Duration.ofMillis(
+            ConfigUtil.getInt(
+                _config,
+                ConfigUtil.METADATA_SERVICE_PROXY_REQUEST_TIMEOUT_MS_CONFIG_PATH,
+                ConfigUtil.DEFAULT_METADATA_SERVICE_PROXY_REQUEST_TIMEOUT_MS));
     _ws = createWsClient();
     _environment = environment;
   }
 
+  /**
+   * Hands the request body to the action as a stream instead of buffering it, so proxied
+   * payloads flow straight through to the Metadata Service.
+   */
+  public static class StreamedBodyParser implements BodyParser<Source<ByteString, ?>> {
+    private final Executor _executor;
+
+    @Inject
+    public StreamedBodyParser(Executor executor) {
+      _executor = executor;
+    }
+
+    @Override
+    public Accumulator<ByteString, F.Either<Result, Source<ByteString, ?>>> apply(
+        Http.RequestHeader request) {
+      return Accumulator.<ByteString>source()
+          .map(source -> F.Either.<Result, Source<ByteString, ?>>Right(source), _executor);
+    }
+  }
+
   /**
    * Serves the build output index.html for any given path
    *
@@ -92,9 +139,13 @@ public class Application extends Controller {
   /**
    * Proxies requests to the Metadata Service
    *
+   * <p>Request and response bodies are streamed end to end rather than held in memory, so the
+   * client starts receiving the response as soon as the Metadata Service starts sending it.
+   *
    * <p>TODO: Investigate using mutual SSL authentication to call Metadata Service.
    */
   @Security.Authenticated(Authenticator.class)
+  @BodyParser.Of(StreamedBodyParser.class)
   public CompletableFuture<Result> proxy(String path, Http.Request request)
       throws ExecutionException, InterruptedException {
     final String authorizationHeaderValue = getAuthorizationHeaderValueToProxy(request);
@@ -132,34 +183,65 @@ public class Application extends Controller {
       headers.put(Http.HeaderNames.X_FORWARDED_PROTO, List.of(schema));
     }
 
-    return _ws.url(
-            String.format(
-                "%s://%s:%s%s", protocol, metadataServiceHost, metadataServicePort, resolvedUri))
-        .setMethod(request.method())
-        .setHeaders(
-            headers.entrySet().stream()
-                // Remove X-DataHub-Actor to prevent malicious delegation.
-                .filter(
-                    entry ->
-                        !AuthenticationConstants.LEGACY_X_DATAHUB_ACTOR_HEADER.equalsIgnoreCase(
-                            entry.getKey()))
-                .filter(entry -> !Http.HeaderNames.CONTENT_LENGTH.equalsIgnoreCase(entry.getKey()))
-                .filter(entry -> !Http.HeaderNames.CONTENT_TYPE.equalsIgnoreCase(entry.getKey()))
-                .filter(entry -> !Http.HeaderNames.AUTHORIZATION.equalsIgnoreCase(entry.getKey()))
-                // Remove Host s.th. service meshes do not route to wrong host
-                .filter(entry -> !Http.HeaderNames.HOST.equalsIgnoreCase(entry.getKey()))
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)))
-        .addHeader(Http.HeaderNames.AUTHORIZATION, authorizationHeaderValue)
-        .addHeader(
-            AuthenticationConstants.LEGACY_X_DATAHUB_ACTOR_HEADER, getDataHubActorHeader(request))
-        .setBody(
-            new InMemoryBodyWritable(
-                ByteString.fromByteBuffer(request.body().asBytes().asByteBuffer()),
-                "application/json"))
-        .setRequestTimeout(Duration.ofSeconds(120))
-        .execute()
+    final String proxyUrl =
+        String.format(
+            "%s://%s:%s%s", protocol, metadataServiceHost, metadataServicePort, resolvedUri);
+    StandaloneWSRequest proxyRequest =
+        _ws.url(proxyUrl)
+            .setMethod(request.method())
+            .setHeaders(
+                headers.entrySet().stream()
+                    // Remove X-DataHub-Actor to prevent malicious delegation.
+                    .filter(
+                        entry ->
+                            !AuthenticationConstants.LEGACY_X_DATAHUB_ACTOR_HEADER
+                                .equalsIgnoreCase(entry.getKey()))
+                    .filter(
+                        entry -> !Http.HeaderNames.CONTENT_LENGTH.equalsIgnoreCase(entry.getKey()))
+                    .filter(
+                        entry -> !Http.HeaderNames.CONTENT_TYPE.equalsIgnoreCase(entry.getKey()))
+                    .filter(
+                        entry -> !Http.HeaderNames.AUTHORIZATION.equalsIgnoreCase(entry.getKey()))
+                    // Remove Host s.th. service meshes do not route to wrong host
+                    .filter(entry -> !Http.HeaderNames.HOST.equalsIgnoreCase(entry.getKey()))
+                    .filter(
+                        entry ->
+                            _compressionPassthrough
+                                || !Http.HeaderNames.ACCEPT_ENCODING.equalsIgnoreCase(
+                                    entry.getKey()))
+                    .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)))
+            .addHeader(Http.HeaderNames.AUTHORIZATION, authorizationHeaderValue)
+            .addHeader(
+                AuthenticationConstants.LEGACY_X_DATAHUB_ACTOR_HEADER,
+                getDataHubActorHeader(request))
+            .setRequestTimeout(_proxyRequestTimeout);
+
+    if (request.hasBody()) {
+      @SuppressWarnings("unchecked")
+      final Source<ByteString, ?> requestBody = request.body().as(Source.class);
+      proxyRequest =
+          proxyRequest
+              .addHeader(
+                  Http.HeaderNames.CONTENT_TYPE,
+                  request.header(Http.HeaderNames.CONTENT_TYPE).orElse("application/json"))
+              .setBody(new SourceBodyWritable(requestBody));
+    }
+
+    final Timer.Context latencyTimer = _proxyLatency.time();
+    final Timer.Context timeToFirstByteTimer = _proxyTimeToFirstByte.time();
+    _proxyInFlight.inc();
+
+    return proxyRequest
+        .stream()
         .thenApply(
             apiResponse -> {
+              timeToFirstByteTimer.stop();
+              // Content-Length is only accurate if the body is relayed exactly as it was sent
+              final boolean bodyUnmodified =
+                  _compressionPassthrough
+                      || !apiResponse
+                          .getSingleHeader(Http.HeaderNames.CONTENT_ENCODING)
+                          .isPresent();
               final ResponseHeader header =
                   new ResponseHeader(
                       apiResponse.getStatus(),
@@ -170,14 +252,50 @@ public class Application extends Controller {
                           .filter(
                               entry ->
                                   !Http.HeaderNames.CONTENT_TYPE.equalsIgnoreCase(entry.getKey()))
+                          .filter(
+                              entry ->
+                                  _compressionPassthrough
+                                      || !Http.HeaderNames.CONTENT_ENCODING.equalsIgnoreCase(
+                                          entry.getKey()))
                           .map(entry -> Pair.of(entry.getKey(), String.join(";", entry.getValue())))
                           .collect(Collectors.toMap(Pair::getFirst, Pair::getSecond)));
+              final Optional<Long> contentLength =
+                  bodyUnmodified && !"HEAD".equalsIgnoreCase(request.method())
+                      ? apiResponse
+                          .getSingleHeader(Http.HeaderNames.CONTENT_LENGTH)
+                          .map(Long::valueOf)
+                      : Optional.empty();
+              final Source<ByteString, ?> responseBody =
+                  apiResponse
+                      .getBodyAsSource()
+                      .watchTermination(
+                          (mat, done) -> {
+                            done.whenComplete(
+                                (result, throwable) -> {
+                                  latencyTimer.stop();
+                                  _proxyInFlight.dec();
+                                  if (throwable != null) {
+                                    MetricUtils.exceptionCounter(
+                                        Application.class, "proxyStreamFailed", throwable);
+                                  }
+                                });
+                            return mat;
+                          });
               final HttpEntity body =
-                  new HttpEntity.Strict(
-                      apiResponse.getBodyAsBytes(),
+                  new HttpEntity.Streamed(
+                      responseBody,
+                      contentLength,
                       Optional.ofNullable(apiResponse.getContentType()));
               return new Result(header, body);
             })
+        .whenComplete(
+            (result, throwable) -> {
+              if (throwable != null) {
+                latencyTimer.stop();
+                _proxyInFlight.dec();
+                MetricUtils.exceptionCounter(Application.class, "proxyFailed", throwable);
+              }
+            })
         .toCompletableFuture();
   }
 
@@ -290,6 +408,28 @@ public class Application extends Controller {
             .setMaxRequestRetry(0)
             .setShutdownQuietPeriod(0)
             .setShutdownTimeout(0)
+            .setMaxConnections(
+                ConfigUtil.getInt(
+                    _config,
+                    ConfigUtil.METADATA_SERVICE_PROXY_MAX_CONNECTIONS_CONFIG_PATH,
+                    ConfigUtil.DEFAULT_METADATA_SERVICE_PROXY_MAX_CONNECTIONS))
+            .setMaxConnectionsPerHost(
+                ConfigUtil.getInt(
+                    _config,
+                    ConfigUtil.METADATA_SERVICE_PROXY_MAX_CONNECTIONS_PER_HOST_CONFIG_PATH,
+                    ConfigUtil.DEFAULT_METADATA_SERVICE_PROXY_MAX_CONNECTIONS_PER_HOST))
+            .setConnectTimeout(
+                ConfigUtil.getInt(
+                    _config,
+                    ConfigUtil.METADATA_SERVICE_PROXY_CONNECT_TIMEOUT_MS_CONFIG_PATH,
+                    ConfigUtil.DEFAULT_METADATA_SERVICE_PROXY_CONNECT_TIMEOUT_MS))
+            .setPooledConnectionIdleTimeout(
+                ConfigUtil.getInt(
+                    _config,
+                    ConfigUtil.METADATA_SERVICE_PROXY_POOLED_CONNECTION_IDLE_TIMEOUT_MS_CONFIG_PATH,
+                    ConfigUtil.DEFAULT_METADATA_SERVICE_PROXY_POOLED_CONNECTION_IDLE_TIMEOUT_MS))
+            // Leave compressed bodies as they are so they can be relayed to the client untouched
+            .setEnableAutomaticDecompression(!_compressionPassthrough)
             .build();
     AsyncHttpClient asyncHttpClient = new DefaultAsyncHttpClient(asyncHttpClientConfig);
     return new StandaloneAhcWSClient(asyncHttpClient, materializer);
@@ -13,6 +13,18 @@ public class ConfigUtil {
   public static final String METADATA_SERVICE_USE_SSL_CONFIG_PATH = "metadataService.useSsl";
   public static final String METADATA_SERVICE_SSL_PROTOCOL_CONFIG_PATH =
       "metadataService.sslProtocol";
+  public static final String METADATA_SERVICE_PROXY_MAX_CONNECTIONS_CONFIG_PATH =
+      "metadataService.proxy.maxConnections";
+  public static final String METADATA_SERVICE_PROXY_MAX_CONNECTIONS_PER_HOST_CONFIG_PATH =
+      "metadataService.proxy.maxConnectionsPerHost";
+  public static final String METADATA_SERVICE_PROXY_CONNECT_TIMEOUT_MS_CONFIG_PATH =
+      "metadataService.proxy.connectTimeoutMs";
+  public static final String METADATA_SERVICE_PROXY_REQUEST_TIMEOUT_MS_CONFIG_PATH =
+      "metadataService.proxy.requestTimeoutMs";
+  public static final String METADATA_SERVICE_PROXY_POOLED_CONNECTION_IDLE_TIMEOUT_MS_CONFIG_PATH =
+      "metadataService.proxy.pooledConnectionIdleTimeoutMs";
+  public static final String METADATA_SERVICE_PROXY_COMPRESSION_PASSTHROUGH_CONFIG_PATH =
+      "metadataService.proxy.compressionPassthrough";
 
   // Legacy env-var based config values, for backwards compatibility:
   public static final String GMS_HOST_ENV_VAR = "DATAHUB_GMS_HOST";
@@ -33,6 +45,12 @@ public class ConfigUtil {
       Boolean.parseBoolean(Configuration.getEnvironmentVariable(GMS_USE_SSL_ENV_VAR, "False"));
   public static final String DEFAULT_METADATA_SERVICE_SSL_PROTOCOL =
       Configuration.getEnvironmentVariable(GMS_SSL_PROTOCOL_VAR);
+  public static final int DEFAULT_METADATA_SERVICE_PROXY_MAX_CONNECTIONS = -1;
+  public static final int DEFAULT_METADATA_SERVICE_PROXY_MAX_CONNECTIONS_PER_HOST = -1;
+  public static final int DEFAULT_METADATA_SERVICE_PROXY_CONNECT_TIMEOUT_MS = 5000;
+  public static final int DEFAULT_METADATA_SERVICE_PROXY_REQUEST_TIMEOUT_MS = 120000;
+  public static final int DEFAULT_METADATA_SERVICE_PROXY_POOLED_CONNECTION_IDLE_TIMEOUT_MS = 60000;
+  public static final boolean DEFAULT_METADATA_SERVICE_PROXY_COMPRESSION_PASSTHROUGH = true;
 
   public static boolean getBoolean(Config config, String key) {
     return config.hasPath(key) && config.getBoolean(key);
@@ -0,0 +1,71 @@
+package com.linkedin.datahub.graphql.resolvers.lineage;
+
+import static com.linkedin.datahub.graphql.resolvers.ResolverUtils.bindArgument;
+
+import com.linkedin.common.urn.UrnUtils;
+import com.linkedin.datahub.graphql.QueryContext;
+import com.linkedin.datahub.graphql.generated.LineagePath;
+import com.linkedin.datahub.graphql.generated.LineagePathsInput;
+import com.linkedin.datahub.graphql.generated.LineagePathsResult;
+import com.linkedin.datahub.graphql.types.common.mappers.UrnToEntityMapper;
+import com.linkedin.metadata.graph.GraphClient;
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * GraphQL Resolver responsible for finding the shortest lineage paths leading from an upstream
+ * entity down to a downstream entity
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class LineagePathsResolver implements DataFetcher<CompletableFuture<LineagePathsResult>> {
+
+  private static final int DEFAULT_MAX_HOPS = 10;
+  private static final int DEFAULT_COUNT = 10;
+  private static final int MAX_COUNT = 100;
+
+  private final GraphClient _graphClient;
+
+  @Override
+  public CompletableFuture<LineagePathsResult> get(DataFetchingEnvironment environment) {
+    final QueryContext context = environment.getContext();
+    final LineagePathsInput input =
+        bindArgument(environment.getArgument("input"), LineagePathsInput.class);
+    final int maxHops = input.getMaxHops() != null ? input.getMaxHops() : DEFAULT_MAX_HOPS;
+    final int count =
+        Math.max(
+            1, Math.min(MAX_COUNT, input.getCount() != null ? input.getCount() : DEFAULT_COUNT));
+
+    return CompletableFuture.supplyAsync(
+        () -> {
+          final com.linkedin.metadata.graph.LineagePathsResult paths =
+              _graphClient.getLineagePaths(
+                  input.getUpstreamUrn(),
+                  input.getDownstreamUrn(),
+                  maxHops,
+                  count,
+                  input.getStartTimeMillis(),
+                  input.getEndTimeMillis(),
+                  context.getActorUrn());
+          final LineagePathsResult result = new LineagePathsResult();
+          result.setComplete(paths.isComplete());
+          result.setPaths(
+              paths.getPaths().stream()
+                  .map(
+                      path -> {
+                        final LineagePath lineagePath = new LineagePath();
+                        lineagePath.setPath(
+                            path.stream()
+                                .map(urn -> UrnToEntityMapper.map(UrnUtils.getUrn(urn)))
+                                .collect(Collectors.toList()));
+                        return lineagePath;
+                      })
+                  .collect(Collectors.toList()));
+          return result;
+        });
+  }
+}
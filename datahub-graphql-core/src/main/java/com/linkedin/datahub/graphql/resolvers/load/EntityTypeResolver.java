@@ -2,10 +2,16 @@ package com.linkedin.datahub.graphql.resolvers.load;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
+import com.linkedin.datahub.graphql.QueryContext;
 import com.linkedin.datahub.graphql.generated.Entity;
+import com.linkedin.datahub.graphql.util.DataLoaderUtil;
 import graphql.schema.DataFetcher;
 import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.SelectedField;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -19,6 +25,7 @@ import org.dataloader.DataLoader;
 public class EntityTypeResolver implements DataFetcher<CompletableFuture<Entity>> {
 
   private static final List<String> IDENTITY_FIELDS = ImmutableList.of("__typename", "urn", "type");
+  private static final String PROJECTED_LOADER_DELIMITER = "#";
   private final List<com.linkedin.datahub.graphql.types.EntityType<?, ?>> _entityTypes;
   private final Function<DataFetchingEnvironment, Entity> _entityProvider;
 
@@ -60,10 +67,46 @@ public class EntityTypeResolver implements DataFetcher<CompletableFuture<Entity>
             _entityTypes.stream()
                 .filter(entity -> javaObject.getClass().isAssignableFrom(entity.objectClass()))
                 .collect(Collectors.toList()));
+    final Optional<Set<String>> requiredAspects =
+        filteredEntity.getRequiredAspects(getSelectedFields(environment, filteredEntity));
     final DataLoader loader =
-        environment.getDataLoaderRegistry().getDataLoader(filteredEntity.name());
+        requiredAspects.isPresent()
+            ? getProjectedLoader(environment, filteredEntity, requiredAspects.get())
+            : environment.getDataLoaderRegistry().getDataLoader(filteredEntity.name());
     final Object key = filteredEntity.getKeyProvider().apply(resolvedEntity);
 
     return loader.load(key);
   }
+
+  /** Returns the names of the fields the query selects on the resolved type. */
+  private Set<String> getSelectedFields(
+      DataFetchingEnvironment environment,
+      com.linkedin.datahub.graphql.types.EntityType<?, ?> entityType) {
+    final String typeName = entityType.objectClass().getSimpleName();
+    return environment.getSelectionSet().getImmediateFields().stream()
+        .filter(field -> field.getObjectTypeNames().contains(typeName))
+        .map(SelectedField::getName)
+        .collect(Collectors.toSet());
+  }
+
+  /**
+   * Returns a loader that only fetches the given aspects. Loaders are shared for the duration of
+   * the request by every selection that needs the same aspects, so those entities still load in a
+   * single batch.
+   */
+  private DataLoader getProjectedLoader(
+      DataFetchingEnvironment environment,
+      com.linkedin.datahub.graphql.types.EntityType<?, ?> entityType,
+      Set<String> aspectNames) {
+    final QueryContext context = environment.getContext();
+    final String loaderName =
+        entityType.name()
+            + PROJECTED_LOADER_DELIMITER
+            + String.join(",", new TreeSet<>(aspectNames));
+    return environment
+        .getDataLoaderRegistry()
+        .computeIfAbsent(
+            loaderName,
+            name -> DataLoaderUtil.createDataLoader(entityType, context, aspectNames));
+  }
 }
@@ -3,6 +3,8 @@ package com.linkedin.datahub.graphql.resolvers.load;
 import static com.linkedin.datahub.graphql.resolvers.ResolverUtils.*;
 
 import com.datahub.authorization.EntitySpec;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.common.urn.UrnUtils;
 import com.linkedin.datahub.graphql.QueryContext;
 import com.linkedin.datahub.graphql.authorization.AuthorizationUtils;
 import com.linkedin.datahub.graphql.generated.Entity;
@@ -22,12 +24,14 @@ import graphql.schema.DataFetcher;
 import graphql.schema.DataFetchingEnvironment;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import lombok.extern.slf4j.Slf4j;
+import org.dataloader.DataLoader;
 
 /**
  * Generic GraphQL resolver responsible for resolving a list of TimeSeries Aspect Types. The purpose
@@ -40,11 +44,19 @@ import lombok.extern.slf4j.Slf4j;
  * <p>On creation of a TimeSeriesAspectResolver, it is expected that a mapper capable of mapping a
  * generic {@link EnvelopedAspect} to a GraphQL {@link TimeSeriesAspect} is provided. This wil be
  * invoked for each {@link EnvelopedAspect} received from the GMS getTimeSeriesAspectValues API.
+ *
+ * <p>Requests for the latest few values of an entity, which is what search cards and lineage
+ * nodes ask for, are batched through a {@link DataLoader} so that a page of entities is served by
+ * a single getLatestTimeseriesAspectValues call.
  */
 @Slf4j
 public class TimeSeriesAspectResolver
     implements DataFetcher<CompletableFuture<List<TimeSeriesAspect>>> {
 
+  // Collapsed queries return at most this many values per entity, bigger limits are not batched
+  private static final int MAX_BATCHED_LIMIT = 100;
+  private static final String LOADER_DELIMITER = "#";
+
   private final EntityClient _client;
   private final String _entityName;
   private final String _aspectName;
@@ -86,28 +98,39 @@ public class TimeSeriesAspectResolver
 
   @Override
   public CompletableFuture<List<TimeSeriesAspect>> get(DataFetchingEnvironment environment) {
-    return CompletableFuture.supplyAsync(
-        () -> {
-          final QueryContext context = environment.getContext();
-          // Fetch the urn, assuming the parent has an urn field.
-          // todo: what if the parent urn isn't projected?
-          final String urn = ((Entity) environment.getSource()).getUrn();
+    final QueryContext context = environment.getContext();
+    // Fetch the urn, assuming the parent has an urn field.
+    // todo: what if the parent urn isn't projected?
+    final String urn = ((Entity) environment.getSource()).getUrn();
 
-          if (!isAuthorized(context, urn)) {
-            return Collections.emptyList();
-          }
+    if (!isAuthorized(context, urn)) {
+      return CompletableFuture.completedFuture(Collections.emptyList());
+    }
 
-          final Long maybeStartTimeMillis =
-              environment.getArgumentOrDefault("startTimeMillis", null);
-          final Long maybeEndTimeMillis = environment.getArgumentOrDefault("endTimeMillis", null);
-          // Max number of aspects to return.
-          final Integer maybeLimit = environment.getArgumentOrDefault("limit", null);
-          final FilterInput maybeFilters =
-              environment.getArgument("filter") != null
-                  ? bindArgument(environment.getArgument("filter"), FilterInput.class)
-                  : null;
-          final SortCriterion maybeSort = _sort;
+    final Long maybeStartTimeMillis = environment.getArgumentOrDefault("startTimeMillis", null);
+    final Long maybeEndTimeMillis = environment.getArgumentOrDefault("endTimeMillis", null);
+    // Max number of aspects to return.
+    final Integer maybeLimit = environment.getArgumentOrDefault("limit", null);
+    final FilterInput maybeFilters =
+        environment.getArgument("filter") != null
+            ? bindArgument(environment.getArgument("filter"), FilterInput.class)
+            : null;
+    final SortCriterion maybeSort = _sort;
 
+    // The latest few values can be fetched for every entity of the page at once
+    if (maybeFilters == null
+        && maybeLimit != null
+        && maybeLimit > 0
+        && maybeLimit <= MAX_BATCHED_LIMIT
+        && environment.getDataLoaderRegistry() != null) {
+      return getLatestValuesLoader(
+              environment, maybeStartTimeMillis, maybeEndTimeMillis, maybeLimit)
+          .load(urn)
+          .thenApply(aspects -> aspects.stream().map(_aspectMapper).collect(Collectors.toList()));
+    }
+
+    return CompletableFuture.supplyAsync(
+        () -> {
           try {
             // Step 1: Get aspects.
             List<EnvelopedAspect> aspects =
@@ -130,6 +153,62 @@ public class TimeSeriesAspectResolver
         });
   }
 
+  /**
+   * Returns the loader batching latest value lookups of this aspect for the current request. One
+   * loader is kept per time window and limit, as every key of a batch shares them.
+   */
+  private DataLoader<String, List<EnvelopedAspect>> getLatestValuesLoader(
+      final DataFetchingEnvironment environment,
+      @Nullable final Long startTimeMillis,
+      @Nullable final Long endTimeMillis,
+      final int limit) {
+    final QueryContext context = environment.getContext();
+    final String loaderName =
+        String.join(
+            LOADER_DELIMITER,
+            TimeSeriesAspect.class.getSimpleName(),
+            _entityName,
+            _aspectName,
+            String.valueOf(startTimeMillis),
+            String.valueOf(endTimeMillis),
+            String.valueOf(limit),
+            _sort != null ? _sort.getField() + " " + _sort.getOrder() : "");
+    return environment
+        .getDataLoaderRegistry()
+        .computeIfAbsent(
+            loaderName,
+            name ->
+                DataLoader.newDataLoader(
+                    (List<String> urns) ->
+                        CompletableFuture.supplyAsync(
+                            () -> {
+                              try {
+                                final Map<Urn, List<EnvelopedAspect>> values =
+                                    _client.getLatestTimeseriesAspectValues(
+                                        urns.stream()
+                                            .map(UrnUtils::getUrn)
+                                            .collect(Collectors.toSet()),
+                                        _entityName,
+                                        _aspectName,
+                                        startTimeMillis,
+                                        endTimeMillis,
+                                        limit,
+                                        null,
+                                        _sort,
+                                        context.getAuthentication());
+                                return urns.stream()
+                                    .map(
+                                        urn ->
+                                            values.getOrDefault(
+                                                UrnUtils.getUrn(urn), Collections.emptyList()))
+                                    .collect(Collectors.toList());
+                              } catch (RemoteInvocationException e) {
+                                throw new RuntimeException(
+                                    "Failed to retrieve aspects from GMS", e);
+                              }
+                            })));
+  }
+
   private Filter buildFilters(@Nullable FilterInput maybeFilters) {
     if (maybeFilters == null) {
       return null;
@@ -0,0 +1,52 @@
+package com.linkedin.datahub.graphql.types;
+
+import com.google.common.collect.ImmutableSet;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import javax.annotation.Nonnull;
+
+/**
+ * Maps the GraphQL fields of an entity type to the aspects they are mapped from, so that a query
+ * selecting a few fields of an entity, like a search result card, only loads the aspects behind
+ * them.
+ */
+public class AspectProjection {
+
+  private static final Set<String> IDENTITY_FIELDS = ImmutableSet.of("__typename", "urn", "type");
+
+  private final Set<String> _baseAspects;
+  private final Map<String, Set<String>> _fieldAspects;
+  private final Set<String> _urnOnlyFields;
+
+  /**
+   * @param baseAspects aspects always loaded, typically the key aspect
+   * @param fieldAspects the aspects each field is mapped from
+   * @param urnOnlyFields fields resolved by their own resolver from the urn alone
+   */
+  public AspectProjection(
+      @Nonnull final Set<String> baseAspects,
+      @Nonnull final Map<String, Set<String>> fieldAspects,
+      @Nonnull final Set<String> urnOnlyFields) {
+    _baseAspects = baseAspects;
+    _fieldAspects = fieldAspects;
+    _urnOnlyFields = urnOnlyFields;
+  }
+
+  /**
+   * Returns the aspects needed to resolve the given fields, or empty if any of them is not known
+   * to this projection, in which case the caller should load every aspect.
+   */
+  public Optional<Set<String>> getRequiredAspects(@Nonnull final Set<String> fieldNames) {
+    final Set<String> aspects = new HashSet<>(_baseAspects);
+    for (String fieldName : fieldNames) {
+      if (_fieldAspects.containsKey(fieldName)) {
+        aspects.addAll(_fieldAspects.get(fieldName));
+      } else if (!_urnOnlyFields.contains(fieldName) && !IDENTITY_FIELDS.contains(fieldName)) {
+        return Optional.empty();
+      }
+    }
+    return Optional.of(aspects);
+  }
+}
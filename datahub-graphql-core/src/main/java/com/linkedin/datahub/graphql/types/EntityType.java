@@ -1,7 +1,12 @@
 package com.linkedin.datahub.graphql.types;
 
+import com.linkedin.datahub.graphql.QueryContext;
 import com.linkedin.datahub.graphql.generated.Entity;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
+import javax.annotation.Nonnull;
 
 /**
  * GQL graph type representing a top-level GMS entity (eg. Dataset, User, DataPlatform, Chart,
@@ -19,4 +24,12 @@ public interface EntityType<T extends Entity, K> extends LoadableType<T, K> {
   com.linkedin.datahub.graphql.generated.EntityType type();
 
   Function<Entity, K> getKeyProvider();
+
+  /**
+   * Returns the aspects needed to resolve the given fields of the type, or empty if they cannot be
+   * resolved from a subset of the aspects loaded by {@link #batchLoad(List, QueryContext)}.
+   */
+  default Optional<Set<String>> getRequiredAspects(@Nonnull Set<String> fieldNames) {
+    return Optional.empty();
+  }
 }
@@ -4,6 +4,7 @@ import com.google.common.collect.ImmutableList;
 import com.linkedin.datahub.graphql.QueryContext;
 import graphql.execution.DataFetcherResult;
 import java.util.List;
+import java.util.Set;
 import javax.annotation.Nonnull;
 
 /**
@@ -48,4 +49,20 @@ public interface LoadableType<T, K> {
    */
   List<DataFetcherResult<T>> batchLoad(
       @Nonnull final List<K> keys, @Nonnull final QueryContext context) throws Exception;
+
+  /**
+   * Retrieves a list of entities given a list of keys, loading only the given aspects. Types that
+   * cannot load a subset of their aspects load everything instead.
+   *
+   * @param keys to retrieve
+   * @param context the {@link QueryContext} corresponding to the request.
+   * @param aspectNames the aspects needed to resolve the fields selected by the query
+   */
+  default List<DataFetcherResult<T>> batchLoad(
+      @Nonnull final List<K> keys,
+      @Nonnull final QueryContext context,
+      @Nonnull final Set<String> aspectNames)
+      throws Exception {
+    return batchLoad(keys, context);
+  }
 }
@@ -6,6 +6,7 @@ import static com.linkedin.metadata.Constants.*;
 import com.datahub.authorization.ConjunctivePrivilegeGroup;
 import com.datahub.authorization.DisjunctivePrivilegeGroup;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.linkedin.common.urn.CorpuserUrn;
 import com.linkedin.common.urn.Urn;
@@ -25,6 +26,7 @@ import com.linkedin.datahub.graphql.generated.EntityType;
 import com.linkedin.datahub.graphql.generated.FacetFilterInput;
 import com.linkedin.datahub.graphql.generated.SearchResults;
 import com.linkedin.datahub.graphql.resolvers.ResolverUtils;
+import com.linkedin.datahub.graphql.types.AspectProjection;
 import com.linkedin.datahub.graphql.types.BatchMutableType;
 import com.linkedin.datahub.graphql.types.BrowsableEntityType;
 import com.linkedin.datahub.graphql.types.SearchableEntityType;
@@ -52,6 +54,7 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -92,6 +95,63 @@ public class DatasetType
           FORMS_ASPECT_NAME,
           SUB_TYPES_ASPECT_NAME);
 
+  private static final AspectProjection ASPECT_PROJECTION =
+      new AspectProjection(
+          ImmutableSet.of(DATASET_KEY_ASPECT_NAME),
+          ImmutableMap.<String, Set<String>>builder()
+              .put("properties", ImmutableSet.of(DATASET_PROPERTIES_ASPECT_NAME))
+              .put("description", ImmutableSet.of(DATASET_PROPERTIES_ASPECT_NAME))
+              .put("externalUrl", ImmutableSet.of(DATASET_PROPERTIES_ASPECT_NAME))
+              .put("uri", ImmutableSet.of(DATASET_PROPERTIES_ASPECT_NAME))
+              .put("editableProperties", ImmutableSet.of(EDITABLE_DATASET_PROPERTIES_ASPECT_NAME))
+              .put(
+                  "deprecation",
+                  ImmutableSet.of(DATASET_DEPRECATION_ASPECT_NAME, DEPRECATION_ASPECT_NAME))
+              .put("fineGrainedLineages", ImmutableSet.of(UPSTREAM_LINEAGE_ASPECT_NAME))
+              .put("schema", ImmutableSet.of(SCHEMA_METADATA_ASPECT_NAME))
+              .put(
+                  "editableSchemaMetadata", ImmutableSet.of(EDITABLE_SCHEMA_METADATA_ASPECT_NAME))
+              .put("viewProperties", ImmutableSet.of(VIEW_PROPERTIES_ASPECT_NAME))
+              .put("ownership", ImmutableSet.of(OWNERSHIP_ASPECT_NAME))
+              .put("institutionalMemory", ImmutableSet.of(INSTITUTIONAL_MEMORY_ASPECT_NAME))
+              .put("tags", ImmutableSet.of(GLOBAL_TAGS_ASPECT_NAME))
+              .put("globalTags", ImmutableSet.of(GLOBAL_TAGS_ASPECT_NAME))
+              .put("glossaryTerms", ImmutableSet.of(GLOSSARY_TERMS_ASPECT_NAME))
+              .put("status", ImmutableSet.of(STATUS_ASPECT_NAME))
+              .put("container", ImmutableSet.of(CONTAINER_ASPECT_NAME))
+              .put("domain", ImmutableSet.of(DOMAINS_ASPECT_NAME))
+              .put("dataPlatformInstance", ImmutableSet.of(DATA_PLATFORM_INSTANCE_ASPECT_NAME))
+              .put("siblings", ImmutableSet.of(SIBLINGS_ASPECT_NAME))
+              .put("embed", ImmutableSet.of(EMBED_ASPECT_NAME))
+              .put("browsePathV2", ImmutableSet.of(BROWSE_PATHS_V2_ASPECT_NAME))
+              .put("access", ImmutableSet.of(ACCESS_DATASET_ASPECT_NAME))
+              .put("structuredProperties", ImmutableSet.of(STRUCTURED_PROPERTIES_ASPECT_NAME))
+              .put("forms", ImmutableSet.of(FORMS_ASPECT_NAME))
+              .put("subTypes", ImmutableSet.of(SUB_TYPES_ASPECT_NAME))
+              .build(),
+          ImmutableSet.of(
+              "name",
+              "origin",
+              "platform",
+              "platformNativeType",
+              "parentContainers",
+              "schemaMetadata",
+              "usageStats",
+              "statsSummary",
+              "datasetProfiles",
+              "operations",
+              "assertions",
+              "relationships",
+              "lineage",
+              "browsePaths",
+              "health",
+              "aspects",
+              "runs",
+              "privileges",
+              "exists",
+              "testResults",
+              "incidents"));
+
   private static final Set<String> FACET_FIELDS = ImmutableSet.of("origin", "platform");
   private static final String ENTITY_NAME = "dataset";
 
@@ -126,9 +186,22 @@ public class DatasetType
     return Entity::getUrn;
   }
 
+  @Override
+  public Optional<Set<String>> getRequiredAspects(@Nonnull final Set<String> fieldNames) {
+    return ASPECT_PROJECTION.getRequiredAspects(fieldNames);
+  }
+
   @Override
   public List<DataFetcherResult<Dataset>> batchLoad(
       @Nonnull final List<String> urnStrs, @Nonnull final QueryContext context) {
+    return batchLoad(urnStrs, context, ASPECTS_TO_RESOLVE);
+  }
+
+  @Override
+  public List<DataFetcherResult<Dataset>> batchLoad(
+      @Nonnull final List<String> urnStrs,
+      @Nonnull final QueryContext context,
+      @Nonnull final Set<String> aspectNames) {
     try {
       final List<Urn> urns = urnStrs.stream().map(UrnUtils::getUrn).collect(Collectors.toList());
 
@@ -136,7 +209,7 @@ public class DatasetType
           _entityClient.batchGetV2(
               Constants.DATASET_ENTITY_NAME,
               new HashSet<>(urns),
-              ASPECTS_TO_RESOLVE,
+              aspectNames,
               context.getAuthentication());
 
       final List<EntityResponse> gmsResults = new ArrayList<>();
@@ -5,6 +5,7 @@ import static com.linkedin.metadata.utils.SearchUtil.*;
 
 import com.linkedin.common.urn.Urn;
 import com.linkedin.datahub.graphql.generated.AggregationMetadata;
+import com.linkedin.datahub.graphql.generated.ExtraProperty;
 import com.linkedin.datahub.graphql.generated.FacetMetadata;
 import com.linkedin.datahub.graphql.generated.MatchedField;
 import com.linkedin.datahub.graphql.generated.SearchResult;
@@ -26,10 +27,19 @@ public class MapperUtils {
   private MapperUtils() {}
 
   public static SearchResult mapResult(SearchEntity searchEntity) {
-    return new SearchResult(
-        UrnToEntityMapper.map(searchEntity.getEntity()),
-        getInsightsFromFeatures(searchEntity.getFeatures()),
-        getMatchedFieldEntry(searchEntity.getMatchedFields()));
+    final SearchResult result =
+        new SearchResult(
+            UrnToEntityMapper.map(searchEntity.getEntity()),
+            getInsightsFromFeatures(searchEntity.getFeatures()),
+            getMatchedFieldEntry(searchEntity.getMatchedFields()),
+            null);
+    if (searchEntity.getExtraFields() != null) {
+      result.setExtraProperties(
+          searchEntity.getExtraFields().entrySet().stream()
+              .map(entry -> new ExtraProperty(entry.getKey(), entry.getValue()))
+              .collect(Collectors.toList()));
+    }
+    return result;
   }
 
   public static FacetMetadata mapFacet(
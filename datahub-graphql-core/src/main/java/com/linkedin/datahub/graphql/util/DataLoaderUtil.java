@@ -0,0 +1,63 @@
+package com.linkedin.datahub.graphql.util;
+
+import com.linkedin.datahub.graphql.QueryContext;
+import com.linkedin.datahub.graphql.types.LoadableType;
+import graphql.execution.DataFetcherResult;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+import org.dataloader.BatchLoaderContextProvider;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderOptions;
+
+@Slf4j
+public class DataLoaderUtil {
+
+  /** Creates a {@link DataLoader} batch loading entities of the given type. */
+  public static <T, K> DataLoader<K, DataFetcherResult<T>> createDataLoader(
+      @Nonnull final LoadableType<T, K> graphType, @Nonnull final QueryContext queryContext) {
+    return createDataLoader(graphType, queryContext, null);
+  }
+
+  /**
+   * Creates a {@link DataLoader} batch loading entities of the given type, with only the given
+   * aspects when they are not null.
+   */
+  public static <T, K> DataLoader<K, DataFetcherResult<T>> createDataLoader(
+      @Nonnull final LoadableType<T, K> graphType,
+      @Nonnull final QueryContext queryContext,
+      @Nullable final Set<String> aspectNames) {
+    BatchLoaderContextProvider contextProvider = () -> queryContext;
+    DataLoaderOptions loaderOptions =
+        DataLoaderOptions.newOptions().setBatchLoaderContextProvider(contextProvider);
+    return DataLoader.newDataLoader(
+        (keys, context) ->
+            CompletableFuture.supplyAsync(
+                () -> {
+                  try {
+                    log.debug(
+                        String.format(
+                            "Batch loading entities of type: %s, keys: %s, aspects: %s",
+                            graphType.name(), keys, aspectNames));
+                    return aspectNames != null
+                        ? graphType.batchLoad(keys, context.getContext(), aspectNames)
+                        : graphType.batchLoad(keys, context.getContext());
+                  } catch (Exception e) {
+                    log.error(
+                        String.format(
+                                "Failed to load Entities of type: %s, keys: %s",
+                                graphType.name(), keys)
+                            + " "
+                            + e.getMessage());
+                    throw new RuntimeException(
+                        String.format("Failed to retrieve entities of type %s", graphType.name()),
+                        e);
+                  }
+                }),
+        loaderOptions);
+  }
+
+  private DataLoaderUtil() {}
+}
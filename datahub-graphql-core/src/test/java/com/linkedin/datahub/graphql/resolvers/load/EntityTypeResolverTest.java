@@ -0,0 +1,137 @@
+package com.linkedin.datahub.graphql.resolvers.load;
+
+import static com.linkedin.metadata.Constants.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+import com.datahub.authentication.Authentication;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.common.urn.UrnUtils;
+import com.linkedin.datahub.graphql.QueryContext;
+import com.linkedin.datahub.graphql.generated.Dataset;
+import com.linkedin.datahub.graphql.generated.Entity;
+import com.linkedin.datahub.graphql.types.dataset.DatasetType;
+import com.linkedin.entity.client.EntityClient;
+import graphql.language.Field;
+import graphql.language.SelectionSet;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.DataFetchingFieldSelectionSet;
+import graphql.schema.SelectedField;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderRegistry;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class EntityTypeResolverTest {
+
+  private static final Urn TEST_DATASET_URN_1 =
+      UrnUtils.getUrn("urn:li:dataset:(urn:li:dataPlatform:hive,table1,PROD)");
+  private static final Urn TEST_DATASET_URN_2 =
+      UrnUtils.getUrn("urn:li:dataset:(urn:li:dataPlatform:hive,table2,PROD)");
+
+  private EntityClient _entityClient;
+  private Authentication _authentication;
+  private QueryContext _queryContext;
+  private DataLoaderRegistry _dataLoaderRegistry;
+  private EntityTypeResolver _resolver;
+
+  @BeforeMethod
+  public void setupTest() {
+    _entityClient = mock(EntityClient.class);
+    _authentication = mock(Authentication.class);
+    _queryContext = mock(QueryContext.class);
+    when(_queryContext.getAuthentication()).thenReturn(_authentication);
+    _dataLoaderRegistry = new DataLoaderRegistry();
+    _resolver =
+        new EntityTypeResolver(
+            ImmutableList.of(new DatasetType(_entityClient)),
+            environment -> environment.getSource());
+  }
+
+  private DataFetchingEnvironment environment(Urn urn, String... fieldNames) {
+    final Dataset dataset = new Dataset();
+    dataset.setUrn(urn.toString());
+
+    final List<SelectedField> selectedFields =
+        ImmutableList.copyOf(fieldNames).stream()
+            .map(
+                fieldName -> {
+                  SelectedField selectedField = mock(SelectedField.class);
+                  when(selectedField.getName()).thenReturn(fieldName);
+                  when(selectedField.getObjectTypeNames()).thenReturn(List.of("Dataset"));
+                  return selectedField;
+                })
+            .collect(Collectors.toList());
+    final DataFetchingFieldSelectionSet selectionSet = mock(DataFetchingFieldSelectionSet.class);
+    when(selectionSet.getImmediateFields()).thenReturn(selectedFields);
+
+    final DataFetchingEnvironment environment = mock(DataFetchingEnvironment.class);
+    when(environment.getSource()).thenReturn(dataset);
+    when(environment.getContext()).thenReturn(_queryContext);
+    when(environment.getDataLoaderRegistry()).thenReturn(_dataLoaderRegistry);
+    when(environment.getSelectionSet()).thenReturn(selectionSet);
+    when(environment.getField())
+        .thenReturn(
+            Field.newField("entity")
+                .selectionSet(
+                    SelectionSet.newSelectionSet()
+                        .selections(
+                            ImmutableList.copyOf(fieldNames).stream()
+                                .map(fieldName -> Field.newField(fieldName).build())
+                                .collect(Collectors.toList()))
+                        .build())
+                .build());
+    return environment;
+  }
+
+  @Test
+  public void testLoadsSelectedAspectsInOneBatch() throws Exception {
+    when(_entityClient.batchGetV2(any(), any(), any(), any())).thenReturn(Map.of());
+
+    CompletableFuture<Entity> first =
+        _resolver.get(environment(TEST_DATASET_URN_1, "urn", "properties"));
+    CompletableFuture<Entity> second =
+        _resolver.get(environment(TEST_DATASET_URN_2, "properties", "lineage"));
+    _dataLoaderRegistry.dispatchAll();
+    first.join();
+    second.join();
+
+    assertEquals(_dataLoaderRegistry.getKeys(), Set.of("Dataset#datasetKey,datasetProperties"));
+    verify(_entityClient, times(1))
+        .batchGetV2(
+            eq(DATASET_ENTITY_NAME),
+            eq(ImmutableSet.of(TEST_DATASET_URN_1, TEST_DATASET_URN_2)),
+            eq(ImmutableSet.of(DATASET_KEY_ASPECT_NAME, DATASET_PROPERTIES_ASPECT_NAME)),
+            eq(_authentication));
+  }
+
+  @Test
+  public void testUnknownFieldUsesFullLoader() {
+    DataLoader fullLoader = mock(DataLoader.class);
+    when(fullLoader.load(any())).thenReturn(CompletableFuture.completedFuture(null));
+    _dataLoaderRegistry.register("Dataset", fullLoader);
+
+    _resolver.get(environment(TEST_DATASET_URN_1, "properties", "unknownField")).join();
+
+    verify(fullLoader, times(1)).load(TEST_DATASET_URN_1.toString());
+    assertEquals(_dataLoaderRegistry.getKeys(), Set.of("Dataset"));
+    verifyNoInteractions(_entityClient);
+  }
+
+  @Test
+  public void testIdentityFieldsSkipLoading() {
+    Object entity = _resolver.get(environment(TEST_DATASET_URN_1, "__typename", "urn")).join();
+
+    assertEquals(((Entity) entity).getUrn(), TEST_DATASET_URN_1.toString());
+    assertTrue(_dataLoaderRegistry.getKeys().isEmpty());
+    verifyNoInteractions(_entityClient);
+  }
+}
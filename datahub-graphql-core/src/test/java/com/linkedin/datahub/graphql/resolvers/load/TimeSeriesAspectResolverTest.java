@@ -0,0 +1,117 @@
+package com.linkedin.datahub.graphql.resolvers.load;
+
+import static com.linkedin.datahub.graphql.TestUtils.getMockAllowContext;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+
+import com.datahub.authentication.Authentication;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.common.urn.UrnUtils;
+import com.linkedin.datahub.graphql.QueryContext;
+import com.linkedin.datahub.graphql.generated.Dataset;
+import com.linkedin.datahub.graphql.generated.TimeSeriesAspect;
+import com.linkedin.entity.client.EntityClient;
+import com.linkedin.metadata.aspect.EnvelopedAspect;
+import graphql.schema.DataFetchingEnvironment;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import org.dataloader.DataLoaderRegistry;
+import org.testng.annotations.Test;
+
+public class TimeSeriesAspectResolverTest {
+
+  private static final Urn DATASET_1 =
+      UrnUtils.getUrn("urn:li:dataset:(urn:li:dataPlatform:hive,db.table1,PROD)");
+  private static final Urn DATASET_2 =
+      UrnUtils.getUrn("urn:li:dataset:(urn:li:dataPlatform:hive,db.table2,PROD)");
+
+  private static DataFetchingEnvironment mockEnv(
+      QueryContext context, DataLoaderRegistry registry, Urn urn, Integer limit) {
+    Dataset dataset = new Dataset();
+    dataset.setUrn(urn.toString());
+    DataFetchingEnvironment env = mock(DataFetchingEnvironment.class);
+    when(env.getContext()).thenReturn(context);
+    when(env.getSource()).thenReturn(dataset);
+    when(env.getDataLoaderRegistry()).thenReturn(registry);
+    when(env.getArgumentOrDefault(eq("limit"), eq(null))).thenReturn(limit);
+    return env;
+  }
+
+  @Test
+  public void testLatestValuesAreBatched() throws Exception {
+    EntityClient client = mock(EntityClient.class);
+    EnvelopedAspect operation = new EnvelopedAspect();
+    when(client.getLatestTimeseriesAspectValues(
+            eq(Set.of(DATASET_1, DATASET_2)),
+            eq("dataset"),
+            eq("operation"),
+            eq(null),
+            eq(null),
+            eq(1),
+            eq(null),
+            eq(null),
+            any(Authentication.class)))
+        .thenReturn(Map.of(DATASET_1, List.of(operation)));
+    TimeSeriesAspect mapped = mock(TimeSeriesAspect.class);
+    TimeSeriesAspectResolver resolver =
+        new TimeSeriesAspectResolver(client, "dataset", "operation", aspect -> mapped);
+
+    QueryContext context = getMockAllowContext();
+    DataLoaderRegistry registry = new DataLoaderRegistry();
+    CompletableFuture<List<TimeSeriesAspect>> first =
+        resolver.get(mockEnv(context, registry, DATASET_1, 1));
+    CompletableFuture<List<TimeSeriesAspect>> second =
+        resolver.get(mockEnv(context, registry, DATASET_2, 1));
+    registry.dispatchAll();
+
+    assertEquals(first.get(), List.of(mapped));
+    assertEquals(second.get(), List.of());
+    verify(client, times(1))
+        .getLatestTimeseriesAspectValues(
+            any(), any(), any(), any(), any(), eq(1), any(), any(), any(Authentication.class));
+    verify(client, never())
+        .getTimeseriesAspectValues(
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(Authentication.class));
+  }
+
+  @Test
+  public void testUnboundedLimitIsNotBatched() throws Exception {
+    EntityClient client = mock(EntityClient.class);
+    when(client.getTimeseriesAspectValues(
+            eq(DATASET_1.toString()),
+            eq("dataset"),
+            eq("operation"),
+            eq(null),
+            eq(null),
+            eq(null),
+            eq(null),
+            eq(null),
+            any(Authentication.class)))
+        .thenReturn(List.of(new EnvelopedAspect()));
+    TimeSeriesAspectResolver resolver =
+        new TimeSeriesAspectResolver(
+            client, "dataset", "operation", aspect -> mock(TimeSeriesAspect.class));
+
+    DataFetchingEnvironment env =
+        mockEnv(getMockAllowContext(), new DataLoaderRegistry(), DATASET_1, null);
+    List<TimeSeriesAspect> result = resolver.get(env).get();
+
+    assertEquals(result.size(), 1);
+  }
+}
@@ -0,0 +1,44 @@
+package com.linkedin.datahub.graphql.types;
+
+import static org.testng.Assert.*;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.util.Optional;
+import java.util.Set;
+import org.testng.annotations.Test;
+
+public class AspectProjectionTest {
+
+  private static final AspectProjection PROJECTION =
+      new AspectProjection(
+          ImmutableSet.of("datasetKey"),
+          ImmutableMap.of(
+              "properties", ImmutableSet.of("datasetProperties"),
+              "deprecation", ImmutableSet.of("datasetDeprecation", "deprecation")),
+          ImmutableSet.of("lineage"));
+
+  @Test
+  public void testRequiredAspectsOfSelectedFields() {
+    assertEquals(
+        PROJECTION.getRequiredAspects(ImmutableSet.of("urn", "properties", "deprecation")),
+        Optional.of(
+            ImmutableSet.of(
+                "datasetKey", "datasetProperties", "datasetDeprecation", "deprecation")));
+  }
+
+  @Test
+  public void testIdentityAndUrnOnlyFieldsOnlyNeedBaseAspects() {
+    assertEquals(
+        PROJECTION.getRequiredAspects(ImmutableSet.of("__typename", "urn", "type", "lineage")),
+        Optional.of(ImmutableSet.of("datasetKey")));
+    assertEquals(PROJECTION.getRequiredAspects(Set.of()), Optional.of(Set.of("datasetKey")));
+  }
+
+  @Test
+  public void testUnknownFieldLoadsEverything() {
+    assertEquals(
+        PROJECTION.getRequiredAspects(ImmutableSet.of("properties", "unknownField")),
+        Optional.empty());
+  }
+}
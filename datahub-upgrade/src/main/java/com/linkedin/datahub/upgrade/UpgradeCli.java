@@ -9,10 +9,12 @@ import com.linkedin.datahub.upgrade.restoreindices.RestoreIndices;
 import com.linkedin.datahub.upgrade.system.SystemUpdate;
 import com.linkedin.datahub.upgrade.system.elasticsearch.BuildIndices;
 import com.linkedin.datahub.upgrade.system.elasticsearch.CleanIndices;
+import java.nio.file.Paths;
 import java.util.List;
 import javax.inject.Inject;
 import javax.inject.Named;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 import picocli.CommandLine;
@@ -29,7 +31,11 @@ public class UpgradeCli implements CommandLineRunner {
     List<String> args;
   }
 
-  private final UpgradeManager _upgradeManager = new DefaultUpgradeManager();
+  @Value("${systemUpdate.stepParallelism:2}")
+  private int stepParallelism;
+
+  @Value("${systemUpdate.stateFile:}")
+  private String stateFile;
 
   @Inject
   @Named("noCodeUpgrade")
@@ -65,18 +71,21 @@ public class UpgradeCli implements CommandLineRunner {
 
   @Override
   public void run(String... cmdLineArgs) {
-    _upgradeManager.register(noCodeUpgrade);
-    _upgradeManager.register(noCodeCleanup);
-    _upgradeManager.register(restoreIndices);
-    _upgradeManager.register(restoreBackup);
-    _upgradeManager.register(removeUnknownAspects);
-    _upgradeManager.register(buildIndices);
-    _upgradeManager.register(cleanIndices);
-    _upgradeManager.register(systemUpdate);
+    final UpgradeManager upgradeManager =
+        new DefaultUpgradeManager(
+            stepParallelism, stateFile.isEmpty() ? null : Paths.get(stateFile));
+    upgradeManager.register(noCodeUpgrade);
+    upgradeManager.register(noCodeCleanup);
+    upgradeManager.register(restoreIndices);
+    upgradeManager.register(restoreBackup);
+    upgradeManager.register(removeUnknownAspects);
+    upgradeManager.register(buildIndices);
+    upgradeManager.register(cleanIndices);
+    upgradeManager.register(systemUpdate);
 
     final Args args = new Args();
     new CommandLine(args).setCaseInsensitiveEnumValuesAllowed(true).parseArgs(cmdLineArgs);
-    UpgradeResult result = _upgradeManager.execute(args.upgradeId.trim(), args.args);
+    UpgradeResult result = upgradeManager.execute(args.upgradeId.trim(), args.args);
 
     if (UpgradeResult.Result.FAILED.equals(result.result())) {
       System.exit(1);
@@ -13,4 +13,12 @@ public interface UpgradeReport {
 
   /** Retrieves the lines in the report. */
   List<String> lines();
+
+  /** Records that a step processed {@code count} more items, used to report its throughput. */
+  default void addProcessed(String stepId, long count) {}
+
+  /** Returns the number of items a step reported as processed. */
+  default long processed(String stepId) {
+    return 0;
+  }
 }
@@ -1,10 +1,22 @@
 package com.linkedin.datahub.upgrade;
 
+import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
 
 /** Represents a single executable step in an {@link Upgrade}. */
 public interface UpgradeStep {
 
+  /** The backing store a step mostly loads. */
+  enum Resource {
+    /** No store in particular, may run alongside any other step. */
+    NONE,
+    /** Heavy on the SQL database. */
+    SQL,
+    /** Heavy on Elasticsearch. */
+    ELASTICSEARCH
+  }
+
   /** Returns an identifier for the upgrade step. */
   String id();
 
@@ -28,4 +40,21 @@ public interface UpgradeStep {
   default boolean skip(UpgradeContext context) {
     return false;
   }
+
+  /**
+   * Returns the ids of the steps that must be completed before this step starts. Ids of steps that
+   * are not part of the running upgrade are ignored. By default a step depends on every step
+   * declared before it, so the steps run in order.
+   */
+  default Optional<Set<String>> dependsOn() {
+    return Optional.empty();
+  }
+
+  /**
+   * Returns the store this step mostly loads. Steps with the same resource other than {@link
+   * Resource#NONE} never run concurrently.
+   */
+  default Resource resource() {
+    return Resource.NONE;
+  }
 }
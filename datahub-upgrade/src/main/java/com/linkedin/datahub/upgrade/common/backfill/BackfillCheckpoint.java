@@ -0,0 +1,94 @@
+package com.linkedin.datahub.upgrade.common.backfill;
+
+import com.linkedin.common.urn.Urn;
+import com.linkedin.data.template.StringMap;
+import com.linkedin.events.metadata.ChangeType;
+import com.linkedin.metadata.Constants;
+import com.linkedin.metadata.boot.BootstrapStep;
+import com.linkedin.metadata.entity.EntityService;
+import com.linkedin.metadata.utils.AuditStampUtils;
+import com.linkedin.metadata.utils.GenericRecordUtils;
+import com.linkedin.mxe.MetadataChangeProposal;
+import com.linkedin.upgrade.DataHubUpgradeResult;
+import java.util.HashMap;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Cursors of the partitions of a backfill, persisted as the result of a dedicated upgrade entity
+ * so that a failed or interrupted backfill continues where it stopped.
+ */
+public class BackfillCheckpoint {
+  private static final String CHECKPOINT_SUFFIX = "-checkpoint";
+  private static final String COMPLETED = "__completed__";
+
+  private final EntityService<?> entityService;
+  private final Urn urn;
+  private final Map<String, String> cursors;
+
+  private BackfillCheckpoint(EntityService<?> entityService, Urn urn, Map<String, String> cursors) {
+    this.entityService = entityService;
+    this.urn = urn;
+    this.cursors = cursors;
+  }
+
+  /** Loads the checkpoint of an upgrade, empty if the upgrade never ran or last completed. */
+  public static BackfillCheckpoint load(
+      @Nonnull EntityService<?> entityService, @Nonnull String upgradeId) {
+    final Urn urn = BootstrapStep.getUpgradeUrn(upgradeId + CHECKPOINT_SUFFIX);
+    final DataHubUpgradeResult result =
+        (DataHubUpgradeResult)
+            entityService.getLatestAspect(urn, Constants.DATA_HUB_UPGRADE_RESULT_ASPECT_NAME);
+    final Map<String, String> cursors = new HashMap<>();
+    if (result != null && result.hasResult()) {
+      cursors.putAll(result.getResult());
+    }
+    return new BackfillCheckpoint(entityService, urn, cursors);
+  }
+
+  public synchronized boolean isEmpty() {
+    return cursors.isEmpty();
+  }
+
+  public synchronized boolean isCompleted(@Nonnull String partition) {
+    return COMPLETED.equals(cursors.get(partition));
+  }
+
+  /** Cursor to resume the partition from, null to start from the beginning. */
+  @Nullable
+  public synchronized String cursor(@Nonnull String partition) {
+    final String cursor = cursors.get(partition);
+    return COMPLETED.equals(cursor) ? null : cursor;
+  }
+
+  /**
+   * Records that every page before the cursor was processed.
+   *
+   * @param cursor the next cursor of the partition, null once the partition is exhausted
+   */
+  public synchronized void save(@Nonnull String partition, @Nullable String cursor) {
+    cursors.put(partition, cursor == null ? COMPLETED : cursor);
+    write();
+  }
+
+  /** Forgets every cursor, the next run starts from the beginning. */
+  public synchronized void clear() {
+    cursors.clear();
+    write();
+  }
+
+  private void write() {
+    final DataHubUpgradeResult result =
+        new DataHubUpgradeResult()
+            .setTimestampMs(System.currentTimeMillis())
+            .setResult(new StringMap(cursors));
+    final MetadataChangeProposal proposal = new MetadataChangeProposal();
+    proposal.setEntityUrn(urn);
+    proposal.setEntityType(Constants.DATA_HUB_UPGRADE_ENTITY_NAME);
+    proposal.setAspectName(Constants.DATA_HUB_UPGRADE_RESULT_ASPECT_NAME);
+    proposal.setAspect(GenericRecordUtils.serializeAspect(result));
+    proposal.setChangeType(ChangeType.UPSERT);
+    entityService.ingestProposal(proposal, AuditStampUtils.createDefaultAuditStamp(), false);
+  }
+}
@@ -0,0 +1,15 @@
+package com.linkedin.datahub.upgrade.common.backfill;
+
+import java.util.List;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.Value;
+
+/** A page read from a {@link BackfillPartition}. */
+@Value
+public class BackfillPage<T> {
+  @Nonnull List<T> items;
+
+  /** Cursor to read the following page from, null once the partition is exhausted. */
+  @Nullable String nextCursor;
+}
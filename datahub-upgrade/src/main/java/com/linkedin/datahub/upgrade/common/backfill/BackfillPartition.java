@@ -0,0 +1,23 @@
+package com.linkedin.datahub.upgrade.common.backfill;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * An independent slice of the data a backfill walks through, read page by page using keyset
+ * cursors so a backfill can resume from the last processed page.
+ */
+public interface BackfillPartition<T> {
+
+  /** Stable identifier of the partition, used as the checkpoint key. */
+  @Nonnull
+  String id();
+
+  /**
+   * Reads the page following the cursor.
+   *
+   * @param cursor cursor returned with the previous page, null for the first page
+   */
+  @Nonnull
+  BackfillPage<T> read(@Nullable String cursor) throws Exception;
+}
@@ -0,0 +1,16 @@
+package com.linkedin.datahub.upgrade.common.backfill;
+
+import java.util.List;
+import javax.annotation.Nonnull;
+
+/** Applies a backfill to one page of items. */
+@FunctionalInterface
+public interface BackfillProcessor<T> {
+
+  /**
+   * Processes a page of items.
+   *
+   * @return the number of items written, reported as the step's throughput and rate limited
+   */
+  int process(@Nonnull List<T> items) throws Exception;
+}
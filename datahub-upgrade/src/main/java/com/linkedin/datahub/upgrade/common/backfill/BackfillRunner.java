@@ -0,0 +1,132 @@
+package com.linkedin.datahub.upgrade.common.backfill;
+
+import com.google.common.util.concurrent.RateLimiter;
+import com.linkedin.datahub.upgrade.UpgradeContext;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Walks the partitions of a backfill on a pool of workers. Each worker reads a page of its
+ * partition, processes it and checkpoints the next cursor before reading on, so a backfill that
+ * fails resumes after the last processed page of every partition. Writes across all workers are
+ * limited to {@code maxItemsPerSecond}.
+ */
+@Slf4j
+public class BackfillRunner {
+  private final int workers;
+  private final double maxItemsPerSecond;
+
+  /**
+   * @param workers number of partitions processed concurrently
+   * @param maxItemsPerSecond limit on the items written per second, 0 for no limit
+   */
+  public BackfillRunner(int workers, double maxItemsPerSecond) {
+    if (workers < 1) {
+      throw new IllegalArgumentException("Backfill workers must be at least 1");
+    }
+    this.workers = workers;
+    this.maxItemsPerSecond = maxItemsPerSecond;
+  }
+
+  /**
+   * Runs the backfill until every partition is exhausted. The checkpoint is cleared once all
+   * partitions complete, so running the backfill again starts over.
+   *
+   * @return whether every partition completed
+   */
+  public <T> boolean run(
+      @Nonnull UpgradeContext context,
+      @Nonnull String stepId,
+      @Nonnull BackfillCheckpoint checkpoint,
+      @Nonnull List<? extends BackfillPartition<T>> partitions,
+      @Nonnull BackfillProcessor<T> processor) {
+    if (!checkpoint.isEmpty()) {
+      context.report().addLine(String.format("Resuming %s from its last checkpoint", stepId));
+    }
+    final RateLimiter rateLimiter =
+        maxItemsPerSecond > 0 ? RateLimiter.create(maxItemsPerSecond) : null;
+    final ExecutorService executor =
+        Executors.newFixedThreadPool(Math.max(1, Math.min(workers, partitions.size())));
+    final List<Future<?>> futures = new ArrayList<>();
+    boolean succeeded = true;
+    try {
+      for (BackfillPartition<T> partition : partitions) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  runPartition(context, stepId, checkpoint, partition, processor, rateLimiter);
+                  return null;
+                }));
+      }
+      for (int i = 0; i < futures.size(); i++) {
+        try {
+          futures.get(i).get();
+        } catch (ExecutionException e) {
+          succeeded = false;
+          context
+              .report()
+              .addLine(
+                  String.format(
+                      "Failed to backfill partition %s of %s", partitions.get(i).id(), stepId),
+                  e.getCause());
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      context.report().addLine(String.format("Interrupted %s", stepId), e);
+      return false;
+    } finally {
+      executor.shutdownNow();
+    }
+
+    if (succeeded) {
+      checkpoint.clear();
+    }
+    return succeeded;
+  }
+
+  private <T> void runPartition(
+      UpgradeContext context,
+      String stepId,
+      BackfillCheckpoint checkpoint,
+      BackfillPartition<T> partition,
+      BackfillProcessor<T> processor,
+      @Nullable RateLimiter rateLimiter)
+      throws Exception {
+    if (checkpoint.isCompleted(partition.id())) {
+      context
+          .report()
+          .addLine(String.format("Partition %s was completed by a previous run", partition.id()));
+      return;
+    }
+    String cursor = checkpoint.cursor(partition.id());
+    long processed = 0;
+    do {
+      if (Thread.currentThread().isInterrupted()) {
+        throw new InterruptedException();
+      }
+      final BackfillPage<T> page = partition.read(cursor);
+      if (!page.getItems().isEmpty()) {
+        final int written = processor.process(page.getItems());
+        processed += written;
+        context.report().addProcessed(stepId, written);
+        if (rateLimiter != null && written > 0) {
+          rateLimiter.acquire(written);
+        }
+      }
+      cursor = page.getNextCursor();
+      checkpoint.save(partition.id(), cursor);
+      log.info("Backfilled {} items of partition {} for {}", processed, partition.id(), stepId);
+    } while (cursor != null);
+    context
+        .report()
+        .addLine(String.format("Partition %s completed, %s items", partition.id(), processed));
+  }
+}
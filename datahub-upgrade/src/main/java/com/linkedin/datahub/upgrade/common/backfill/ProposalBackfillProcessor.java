@@ -0,0 +1,80 @@
+package com.linkedin.datahub.upgrade.common.backfill;
+
+import com.linkedin.common.AuditStamp;
+import com.linkedin.metadata.entity.EntityService;
+import com.linkedin.metadata.entity.ebean.batch.AspectsBatchImpl;
+import com.linkedin.mxe.MetadataChangeProposal;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Builds a proposal for every item of a page and ingests them as a single batch. Items whose
+ * proposal cannot be built are skipped, and a batch that fails is retried item by item so one bad
+ * item does not hold back the rest of the page.
+ */
+@Slf4j
+public class ProposalBackfillProcessor<T> implements BackfillProcessor<T> {
+
+  /** Builds the proposal to ingest for an item, or null to leave it unchanged. */
+  @FunctionalInterface
+  public interface ProposalBuilder<T> {
+    @Nullable
+    MetadataChangeProposal build(@Nonnull T item) throws Exception;
+  }
+
+  private final EntityService<?> entityService;
+  private final AuditStamp auditStamp;
+  private final ProposalBuilder<T> proposalBuilder;
+  private final boolean async;
+
+  public ProposalBackfillProcessor(
+      @Nonnull EntityService<?> entityService,
+      @Nonnull AuditStamp auditStamp,
+      @Nonnull ProposalBuilder<T> proposalBuilder,
+      boolean async) {
+    this.entityService = entityService;
+    this.auditStamp = auditStamp;
+    this.proposalBuilder = proposalBuilder;
+    this.async = async;
+  }
+
+  @Override
+  public int process(@Nonnull List<T> items) {
+    final List<MetadataChangeProposal> proposals = new ArrayList<>(items.size());
+    for (T item : items) {
+      try {
+        final MetadataChangeProposal proposal = proposalBuilder.build(item);
+        if (proposal != null) {
+          proposals.add(proposal);
+        }
+      } catch (Exception e) {
+        log.error("Failed to build backfill proposal for {}", item, e);
+      }
+    }
+    if (proposals.isEmpty()) {
+      return 0;
+    }
+
+    try {
+      entityService.ingestProposal(
+          AspectsBatchImpl.builder().mcps(proposals, auditStamp, entityService).build(), async);
+      return proposals.size();
+    } catch (Exception e) {
+      log.warn(
+          "Failed to ingest a batch of {} proposals, ingesting one by one", proposals.size(), e);
+    }
+    int ingested = 0;
+    for (MetadataChangeProposal proposal : proposals) {
+      try {
+        entityService.ingestProposal(proposal, auditStamp, async);
+        ingested++;
+      } catch (Exception e) {
+        log.error("Failed to ingest backfill proposal for {}", proposal.getEntityUrn(), e);
+      }
+    }
+    return ingested;
+  }
+}
@@ -0,0 +1,63 @@
+package com.linkedin.datahub.upgrade.common.backfill;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.linkedin.metadata.entity.EntityService;
+import com.linkedin.metadata.entity.restoreindices.RestoreIndicesArgs;
+import com.linkedin.metadata.entity.restoreindices.RestoreIndicesResult;
+import java.util.List;
+import java.util.function.Consumer;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Latest aspect rows replayed to the indices, paged by (urn, aspect) so every page is an index
+ * range scan whatever the offset. Each page is replayed while it is read, the page holds the
+ * result of the replay.
+ */
+public class RestoreIndicesPartition implements BackfillPartition<RestoreIndicesResult> {
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  private final EntityService<?> entityService;
+  private final String id;
+  private final RestoreIndicesArgs args;
+  private final Consumer<String> logger;
+
+  public RestoreIndicesPartition(
+      @Nonnull EntityService<?> entityService,
+      @Nonnull String id,
+      @Nonnull RestoreIndicesArgs args,
+      @Nonnull Consumer<String> logger) {
+    this.entityService = entityService;
+    this.id = id;
+    this.args = args;
+    this.logger = logger;
+  }
+
+  @Nonnull
+  @Override
+  public String id() {
+    return id;
+  }
+
+  @Nonnull
+  @Override
+  public BackfillPage<RestoreIndicesResult> read(@Nullable String cursor) throws Exception {
+    final RestoreIndicesArgs pageArgs = args.clone().setUrnBasedPagination(true);
+    if (cursor != null) {
+      final String[] last = OBJECT_MAPPER.readValue(cursor, String[].class);
+      pageArgs.lastUrn = last[0];
+      pageArgs.lastAspect = last[1];
+    }
+    final RestoreIndicesResult result = entityService.restoreIndices(pageArgs, logger);
+    final boolean exhausted =
+        result.rowsMigrated + result.ignored < pageArgs.batchSize
+            || result.lastUrn == null
+            || result.lastUrn.isEmpty();
+    return new BackfillPage<>(List.of(result), exhausted ? null : cursor(result));
+  }
+
+  private static String cursor(RestoreIndicesResult result) throws JsonProcessingException {
+    return OBJECT_MAPPER.writeValueAsString(new String[] {result.lastUrn, result.lastAspect});
+  }
+}
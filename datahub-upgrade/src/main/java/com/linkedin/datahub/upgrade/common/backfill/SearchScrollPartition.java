@@ -0,0 +1,74 @@
+package com.linkedin.datahub.upgrade.common.backfill;
+
+import com.linkedin.common.urn.Urn;
+import com.linkedin.metadata.query.SearchFlags;
+import com.linkedin.metadata.query.filter.Filter;
+import com.linkedin.metadata.search.ScrollResult;
+import com.linkedin.metadata.search.SearchEntity;
+import com.linkedin.metadata.search.SearchService;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * The urns of one entity type matching a filter, read with search_after over a point in time when
+ * the search backend supports it. Scroll ids carry the sort values of the last hit, so a checkpoint
+ * stays valid after the point in time expires.
+ */
+public class SearchScrollPartition implements BackfillPartition<Urn> {
+  private final SearchService searchService;
+  private final String id;
+  private final String entityType;
+  private final Filter filter;
+  private final int batchSize;
+  private final String keepAlive;
+
+  public SearchScrollPartition(
+      @Nonnull SearchService searchService,
+      @Nonnull String id,
+      @Nonnull String entityType,
+      @Nullable Filter filter,
+      int batchSize,
+      @Nullable String keepAlive) {
+    this.searchService = searchService;
+    this.id = id;
+    this.entityType = entityType;
+    this.filter = filter;
+    this.batchSize = batchSize;
+    this.keepAlive = keepAlive;
+  }
+
+  @Nonnull
+  @Override
+  public String id() {
+    return id;
+  }
+
+  @Nonnull
+  @Override
+  public BackfillPage<Urn> read(@Nullable String cursor) {
+    final ScrollResult scrollResult =
+        searchService.scrollAcrossEntities(
+            List.of(entityType),
+            "*",
+            filter,
+            null,
+            cursor,
+            keepAlive,
+            batchSize,
+            new SearchFlags()
+                .setFulltext(true)
+                .setSkipCache(true)
+                .setSkipHighlighting(true)
+                .setSkipAggregates(true));
+    if (scrollResult.getNumEntities() == 0 || scrollResult.getEntities().isEmpty()) {
+      return new BackfillPage<>(List.of(), null);
+    }
+    return new BackfillPage<>(
+        scrollResult.getEntities().stream()
+            .map(SearchEntity::getEntity)
+            .collect(Collectors.toList()),
+        scrollResult.getScrollId());
+  }
+}
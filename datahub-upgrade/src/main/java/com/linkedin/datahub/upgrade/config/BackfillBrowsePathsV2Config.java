@@ -1,5 +1,6 @@
 package com.linkedin.datahub.upgrade.config;
 
+import com.linkedin.datahub.upgrade.common.backfill.BackfillRunner;
 import com.linkedin.datahub.upgrade.system.entity.steps.BackfillBrowsePathsV2;
 import com.linkedin.metadata.entity.EntityService;
 import com.linkedin.metadata.search.SearchService;
@@ -14,10 +15,11 @@ public class BackfillBrowsePathsV2Config {
   public BackfillBrowsePathsV2 backfillBrowsePathsV2(
       EntityService<?> entityService,
       SearchService searchService,
+      BackfillRunner backfillRunner,
       @Value("${systemUpdate.browsePathsV2.enabled}") final boolean enabled,
       @Value("${systemUpdate.browsePathsV2.reprocess.enabled}") final boolean reprocessEnabled,
       @Value("${systemUpdate.browsePathsV2.batchSize}") final Integer batchSize) {
     return new BackfillBrowsePathsV2(
-        entityService, searchService, enabled, reprocessEnabled, batchSize);
+        entityService, searchService, backfillRunner, enabled, reprocessEnabled, batchSize);
   }
 }
@@ -0,0 +1,17 @@
+package com.linkedin.datahub.upgrade.config;
+
+import com.linkedin.datahub.upgrade.common.backfill.BackfillRunner;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class BackfillConfig {
+
+  @Bean
+  public BackfillRunner backfillRunner(
+      @Value("${systemUpdate.backfill.workers}") final int workers,
+      @Value("${systemUpdate.backfill.maxItemsPerSecond}") final double maxItemsPerSecond) {
+    return new BackfillRunner(workers, maxItemsPerSecond);
+  }
+}
@@ -1,5 +1,6 @@
 package com.linkedin.datahub.upgrade.config;
 
+import com.linkedin.datahub.upgrade.common.backfill.BackfillRunner;
 import com.linkedin.datahub.upgrade.system.via.ReindexDataJobViaNodesCLL;
 import com.linkedin.metadata.entity.EntityService;
 import org.springframework.beans.factory.annotation.Value;
@@ -12,8 +13,9 @@ public class ReindexDataJobViaNodesCLLConfig {
   @Bean
   public ReindexDataJobViaNodesCLL _reindexDataJobViaNodesCLL(
       EntityService<?> entityService,
+      BackfillRunner backfillRunner,
       @Value("${systemUpdate.dataJobNodeCLL.enabled}") final boolean enabled,
       @Value("${systemUpdate.dataJobNodeCLL.batchSize}") final Integer batchSize) {
-    return new ReindexDataJobViaNodesCLL(entityService, enabled, batchSize);
+    return new ReindexDataJobViaNodesCLL(entityService, backfillRunner, enabled, batchSize);
   }
 }
@@ -2,6 +2,10 @@ package com.linkedin.datahub.upgrade.impl;
 
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.linkedin.datahub.upgrade.Upgrade;
 import com.linkedin.datahub.upgrade.UpgradeCleanupStep;
 import com.linkedin.datahub.upgrade.UpgradeContext;
@@ -11,17 +15,62 @@ import com.linkedin.datahub.upgrade.UpgradeResult;
 import com.linkedin.datahub.upgrade.UpgradeStep;
 import com.linkedin.datahub.upgrade.UpgradeStepResult;
 import com.linkedin.metadata.utils.metrics.MetricUtils;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Runs the steps of an upgrade, up to {@code parallelism} at a time.
+ *
+ * <p>A step starts once the steps it depends on have completed and no running step loads the same
+ * {@link UpgradeStep.Resource}. Steps depend on all previously declared steps by default, so
+ * upgrades that do not declare dependencies run exactly as before. When a state file is given, the
+ * ids of completed steps are written to it and a later run of the same upgrade with the same
+ * arguments skips them. The file is removed once the upgrade succeeds.
+ */
 @Slf4j
 public class DefaultUpgradeManager implements UpgradeManager {
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+  private static final String STATE_UPGRADE_ID = "upgradeId";
+  private static final String STATE_ARGS = "args";
+  private static final String STATE_COMPLETED_STEPS = "completedSteps";
 
   private final Map<String, Upgrade> _upgrades = new HashMap<>();
+  private final int _parallelism;
+  @Nullable private final Path _stateFile;
+
+  public DefaultUpgradeManager() {
+    this(1, null);
+  }
+
+  public DefaultUpgradeManager(int parallelism, @Nullable Path stateFile) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("Upgrade step parallelism must be at least 1");
+    }
+    _parallelism = parallelism;
+    _stateFile = stateFile;
+  }
 
   @Override
   public void register(@Nonnull Upgrade upgrade) {
@@ -40,7 +89,8 @@ public class DefaultUpgradeManager implements UpgradeManager {
   private UpgradeResult executeInternal(Upgrade upgrade, List<String> args) {
     final UpgradeReport upgradeReport = new DefaultUpgradeReport();
     final UpgradeContext context =
-        new DefaultUpgradeContext(upgrade, upgradeReport, new ArrayList<>(), args);
+        new DefaultUpgradeContext(
+            upgrade, upgradeReport, Collections.synchronizedList(new ArrayList<>()), args);
     upgradeReport.addLine(String.format("Starting upgrade with id %s...", upgrade.id()));
     UpgradeResult result = executeInternal(context);
     upgradeReport.addLine(
@@ -57,62 +107,271 @@ public class DefaultUpgradeManager implements UpgradeManager {
     final List<UpgradeStepResult> stepResults = context.stepResults();
     final UpgradeReport upgradeReport = context.report();
 
-    for (int i = 0; i < steps.size(); i++) {
-      final UpgradeStep step = steps.get(i);
+    final Map<String, Set<String>> dependencies = dependencies(steps);
+    final Set<String> completedSteps = loadCompletedSteps(context);
+    final Set<String> finished = new HashSet<>();
+    final Set<UpgradeStep.Resource> busy = EnumSet.noneOf(UpgradeStep.Resource.class);
+    final List<Integer> pending =
+        IntStream.range(0, steps.size()).boxed().collect(Collectors.toList());
+    final Map<Future<UpgradeStepResult>, Integer> running = new HashMap<>();
+    final Map<String, Long> durations = new HashMap<>();
 
-      if (step.skip(context)) {
-        upgradeReport.addLine(
-            String.format(
-                String.format("Skipping Step %s/%s: %s...", i + 1, steps.size(), step.id()),
-                upgrade.id()));
-        continue;
-      }
+    final ExecutorService executorService = Executors.newFixedThreadPool(_parallelism);
+    final CompletionService<UpgradeStepResult> completionService =
+        new ExecutorCompletionService<>(executorService);
+    UpgradeResult.Result outcome = null;
+    try {
+      while (!running.isEmpty() || (outcome == null && !pending.isEmpty())) {
+        boolean progressed = false;
+        // Start every ready step, in declaration order
+        for (Iterator<Integer> it = pending.iterator();
+            outcome == null && it.hasNext() && running.size() < _parallelism; ) {
+          final int i = it.next();
+          final UpgradeStep step = steps.get(i);
+          if (!finished.containsAll(dependencies.get(step.id()))
+              || busy.contains(step.resource())) {
+            continue;
+          }
+          it.remove();
+          progressed = true;
 
-      upgradeReport.addLine(
-          String.format(
-              String.format("Executing Step %s/%s: %s...", i + 1, steps.size(), step.id()),
-              upgrade.id()));
+          if (completedSteps.contains(step.id())) {
+            upgradeReport.addLine(
+                String.format(
+                    "Skipping Step %s/%s: %s, completed by a previous run...",
+                    i + 1, steps.size(), step.id()));
+            finished.add(step.id());
+            continue;
+          }
 
-      final UpgradeStepResult stepResult = executeStepInternal(context, step);
-      stepResults.add(stepResult);
+          if (step.skip(context)) {
+            upgradeReport.addLine(
+                String.format(
+                    String.format("Skipping Step %s/%s: %s...", i + 1, steps.size(), step.id()),
+                    upgrade.id()));
+            finished.add(step.id());
+            continue;
+          }
 
-      // Apply Actions
-      if (UpgradeStepResult.Action.ABORT.equals(stepResult.action())) {
-        upgradeReport.addLine(
-            String.format(
-                "Step with id %s requested an abort of the in-progress update. Aborting the upgrade...",
-                step.id()));
-        return new DefaultUpgradeResult(UpgradeResult.Result.ABORTED, upgradeReport);
-      }
+          upgradeReport.addLine(
+              String.format(
+                  String.format("Executing Step %s/%s: %s...", i + 1, steps.size(), step.id()),
+                  upgrade.id()));
+          if (step.resource() != UpgradeStep.Resource.NONE) {
+            busy.add(step.resource());
+          }
+          final long startTime = System.currentTimeMillis();
+          running.put(
+              completionService.submit(
+                  () -> {
+                    try {
+                      return executeStepInternal(context, step);
+                    } finally {
+                      synchronized (durations) {
+                        durations.put(step.id(), System.currentTimeMillis() - startTime);
+                      }
+                    }
+                  }),
+              i);
+        }
 
-      // Handle Results
-      if (UpgradeStepResult.Result.FAILED.equals(stepResult.result())) {
-        if (step.isOptional()) {
+        if (running.isEmpty()) {
+          if (outcome == null && !pending.isEmpty() && !progressed) {
+            upgradeReport.addLine(
+                String.format(
+                    "Steps %s depend on steps that can never complete. Exiting upgrade %s with"
+                        + " failure.",
+                    pending.stream().map(i -> steps.get(i).id()).collect(Collectors.toList()),
+                    upgrade.id()));
+            outcome = UpgradeResult.Result.FAILED;
+          }
+          continue;
+        }
+
+        final Future<UpgradeStepResult> done = completionService.take();
+        final int i = running.remove(done);
+        final UpgradeStep step = steps.get(i);
+        busy.remove(step.resource());
+        final UpgradeStepResult stepResult = getResult(done, step);
+        stepResults.add(stepResult);
+
+        // Apply Actions
+        if (UpgradeStepResult.Action.ABORT.equals(stepResult.action())) {
+          upgradeReport.addLine(
+              String.format(
+                  "Step with id %s requested an abort of the in-progress update. Aborting the upgrade...",
+                  step.id()));
+          outcome = outcome == null ? UpgradeResult.Result.ABORTED : outcome;
+          continue;
+        }
+
+        // Handle Results
+        if (UpgradeStepResult.Result.FAILED.equals(stepResult.result())) {
+          if (step.isOptional()) {
+            upgradeReport.addLine(
+                String.format(
+                    "Failed Step %s/%s: %s. Step marked as optional. Proceeding with upgrade...",
+                    i + 1, steps.size(), step.id()));
+            finished.add(step.id());
+            continue;
+          }
+
+          // Required step failed. Fail the entire upgrade process.
           upgradeReport.addLine(
               String.format(
-                  "Failed Step %s/%s: %s. Step marked as optional. Proceeding with upgrade...",
-                  i + 1, steps.size(), step.id()));
+                  "Failed Step %s/%s: %s. Failed after %s retries.",
+                  i + 1, steps.size(), step.id(), step.retryCount()));
+          if (outcome == null) {
+            upgradeReport.addLine(
+                String.format("Exiting upgrade %s with failure.", upgrade.id()));
+            outcome = UpgradeResult.Result.FAILED;
+          }
           continue;
         }
 
-        // Required step failed. Fail the entire upgrade process.
+        finished.add(step.id());
+        completedSteps.add(step.id());
+        saveCompletedSteps(context, completedSteps);
         upgradeReport.addLine(
             String.format(
-                "Failed Step %s/%s: %s. Failed after %s retries.",
-                i + 1, steps.size(), step.id(), step.retryCount()));
-        upgradeReport.addLine(String.format("Exiting upgrade %s with failure.", upgrade.id()));
-        return new DefaultUpgradeResult(UpgradeResult.Result.FAILED, upgradeReport);
+                "Completed Step %s/%s: %s successfully.", i + 1, steps.size(), step.id()));
       }
-
-      upgradeReport.addLine(
-          String.format("Completed Step %s/%s: %s successfully.", i + 1, steps.size(), step.id()));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      upgradeReport.addLine(String.format("Interrupted upgrade %s", upgrade.id()), e);
+      outcome = UpgradeResult.Result.FAILED;
+    } finally {
+      executorService.shutdownNow();
+      reportTimings(upgradeReport, steps, durations);
     }
 
+    if (outcome != null) {
+      return new DefaultUpgradeResult(outcome, upgradeReport);
+    }
+    deleteState();
     upgradeReport.addLine(
         String.format("Success! Completed upgrade with id %s successfully.", upgrade.id()));
     return new DefaultUpgradeResult(UpgradeResult.Result.SUCCEEDED, upgradeReport);
   }
 
+  private UpgradeStepResult getResult(Future<UpgradeStepResult> done, UpgradeStep step)
+      throws InterruptedException {
+    try {
+      return done.get();
+    } catch (ExecutionException e) {
+      log.error("Step with id {} did not produce a result", step.id(), e);
+      return new DefaultUpgradeStepResult(step.id(), UpgradeStepResult.Result.FAILED);
+    }
+  }
+
+  /** Resolve the steps each step waits for, limited to the steps of this upgrade. */
+  private static Map<String, Set<String>> dependencies(List<UpgradeStep> steps) {
+    final Set<String> ids = steps.stream().map(UpgradeStep::id).collect(Collectors.toSet());
+    final Map<String, Set<String>> dependencies = new HashMap<>();
+    final Set<String> previous = new HashSet<>();
+    for (UpgradeStep step : steps) {
+      dependencies.put(
+          step.id(),
+          step.dependsOn()
+              .map(
+                  dependsOn ->
+                      dependsOn.stream().filter(ids::contains).collect(Collectors.toSet()))
+              .orElseGet(() -> new HashSet<>(previous)));
+      previous.add(step.id());
+    }
+    return dependencies;
+  }
+
+  private static void reportTimings(
+      UpgradeReport upgradeReport, List<UpgradeStep> steps, Map<String, Long> durations) {
+    synchronized (durations) {
+      for (UpgradeStep step : steps) {
+        final Long duration = durations.get(step.id());
+        if (duration == null) {
+          continue;
+        }
+        final long processed = upgradeReport.processed(step.id());
+        upgradeReport.addLine(
+            processed > 0
+                ? String.format(
+                    "Step %s took %.1fs, processed %s items (%.1f/s)",
+                    step.id(),
+                    duration / 1000.0,
+                    processed,
+                    processed * 1000.0 / Math.max(duration, 1))
+                : String.format("Step %s took %.1fs", step.id(), duration / 1000.0));
+      }
+    }
+  }
+
+  private Set<String> loadCompletedSteps(UpgradeContext context) {
+    final Set<String> completedSteps = new HashSet<>();
+    if (_stateFile == null || !Files.exists(_stateFile)) {
+      return completedSteps;
+    }
+    try {
+      final JsonNode state = OBJECT_MAPPER.readTree(_stateFile.toFile());
+      if (!context.upgrade().id().equals(state.path(STATE_UPGRADE_ID).asText())
+          || !argsNode(context).equals(state.path(STATE_ARGS))) {
+        context
+            .report()
+            .addLine(
+                String.format(
+                    "Ignoring state file %s written by a different upgrade or arguments",
+                    _stateFile));
+        return completedSteps;
+      }
+      state.path(STATE_COMPLETED_STEPS).forEach(step -> completedSteps.add(step.asText()));
+      context
+          .report()
+          .addLine(
+              String.format(
+                  "Resuming upgrade %s, steps %s were completed by a previous run",
+                  context.upgrade().id(), completedSteps));
+    } catch (IOException e) {
+      context.report().addLine(String.format("Failed to read state file %s", _stateFile), e);
+    }
+    return completedSteps;
+  }
+
+  private void saveCompletedSteps(UpgradeContext context, Set<String> completedSteps) {
+    if (_stateFile == null) {
+      return;
+    }
+    final ObjectNode state = OBJECT_MAPPER.createObjectNode();
+    state.put(STATE_UPGRADE_ID, context.upgrade().id());
+    state.set(STATE_ARGS, argsNode(context));
+    final ArrayNode steps = state.putArray(STATE_COMPLETED_STEPS);
+    completedSteps.forEach(steps::add);
+    try {
+      // Write then move so a crash never leaves a truncated state file
+      final Path tmp = _stateFile.resolveSibling(_stateFile.getFileName() + ".tmp");
+      OBJECT_MAPPER.writeValue(tmp.toFile(), state);
+      Files.move(tmp, _stateFile, StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      context.report().addLine(String.format("Failed to write state file %s", _stateFile), e);
+    }
+  }
+
+  private static JsonNode argsNode(UpgradeContext context) {
+    final ArrayNode args = OBJECT_MAPPER.createArrayNode();
+    if (context.args() != null) {
+      context.args().forEach(args::add);
+    }
+    return args;
+  }
+
+  private void deleteState() {
+    if (_stateFile == null) {
+      return;
+    }
+    try {
+      Files.deleteIfExists(_stateFile);
+    } catch (IOException e) {
+      log.warn("Failed to delete upgrade state file {}", _stateFile, e);
+    }
+  }
+
   private UpgradeStepResult executeStepInternal(UpgradeContext context, UpgradeStep step) {
     int retryCount = step.retryCount();
     UpgradeStepResult result = null;
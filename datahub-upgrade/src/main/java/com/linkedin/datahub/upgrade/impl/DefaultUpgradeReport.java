@@ -2,13 +2,19 @@ package com.linkedin.datahub.upgrade.impl;
 
 import com.linkedin.datahub.upgrade.UpgradeReport;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 public class DefaultUpgradeReport implements UpgradeReport {
 
-  private final List<String> reportLines = new ArrayList<>();
+  // Steps may run concurrently and report from their own threads
+  private final List<String> reportLines = Collections.synchronizedList(new ArrayList<>());
+  private final Map<String, LongAdder> processed = new ConcurrentHashMap<>();
 
   @Override
   public void addLine(String line) {
@@ -26,4 +32,15 @@ public class DefaultUpgradeReport implements UpgradeReport {
   public List<String> lines() {
     return reportLines;
   }
+
+  @Override
+  public void addProcessed(String stepId, long count) {
+    processed.computeIfAbsent(stepId, id -> new LongAdder()).add(count);
+  }
+
+  @Override
+  public long processed(String stepId) {
+    LongAdder count = processed.get(stepId);
+    return count == null ? 0 : count.sum();
+  }
 }
@@ -9,6 +9,8 @@ import com.linkedin.metadata.config.search.ElasticSearchConfiguration;
 import com.linkedin.metadata.search.elasticsearch.indexbuilder.ESIndexBuilder;
 import com.linkedin.metadata.shared.ElasticSearchIndexed;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
 import lombok.extern.slf4j.Slf4j;
 import org.opensearch.client.RestHighLevelClient;
@@ -38,6 +40,17 @@ public class CleanIndicesStep implements UpgradeStep {
     return 0;
   }
 
+  /** Old indices are only unused once the new version has started. */
+  @Override
+  public Optional<Set<String>> dependsOn() {
+    return Optional.of(Set.of(DataHubStartupStep.STEP_ID));
+  }
+
+  @Override
+  public Resource resource() {
+    return Resource.ELASTICSEARCH;
+  }
+
   @Override
   public Function<UpgradeContext, UpgradeStepResult> executable() {
     return (context) -> {
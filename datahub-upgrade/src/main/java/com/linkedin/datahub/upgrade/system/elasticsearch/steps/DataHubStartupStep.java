@@ -13,12 +13,14 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 @Slf4j
 public class DataHubStartupStep implements UpgradeStep {
+  public static final String STEP_ID = "DataHubStartupStep";
+
   private final KafkaEventProducer _kafkaEventProducer;
   private final String _version;
 
   @Override
   public String id() {
-    return "DataHubStartupStep";
+    return STEP_ID;
   }
 
   @Override
@@ -3,6 +3,7 @@ package com.linkedin.datahub.upgrade.system.entity.steps;
 import com.google.common.collect.ImmutableList;
 import com.linkedin.datahub.upgrade.Upgrade;
 import com.linkedin.datahub.upgrade.UpgradeStep;
+import com.linkedin.datahub.upgrade.common.backfill.BackfillRunner;
 import com.linkedin.metadata.entity.EntityService;
 import com.linkedin.metadata.search.SearchService;
 import java.util.List;
@@ -14,6 +15,7 @@ public class BackfillBrowsePathsV2 implements Upgrade {
   public BackfillBrowsePathsV2(
       EntityService<?> entityService,
       SearchService searchService,
+      BackfillRunner backfillRunner,
       boolean enabled,
       boolean reprocessEnabled,
       Integer batchSize) {
@@ -21,7 +23,7 @@ public class BackfillBrowsePathsV2 implements Upgrade {
       _steps =
           ImmutableList.of(
               new BackfillBrowsePathsV2Step(
-                  entityService, searchService, reprocessEnabled, batchSize));
+                  entityService, searchService, backfillRunner, reprocessEnabled, batchSize));
     } else {
       _steps = ImmutableList.of();
     }
@@ -2,7 +2,6 @@ package com.linkedin.datahub.upgrade.system.entity.steps;
 
 import static com.linkedin.metadata.Constants.*;
 
-import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.linkedin.common.AuditStamp;
 import com.linkedin.common.BrowsePathsV2;
@@ -12,27 +11,32 @@ import com.linkedin.data.template.StringArray;
 import com.linkedin.datahub.upgrade.UpgradeContext;
 import com.linkedin.datahub.upgrade.UpgradeStep;
 import com.linkedin.datahub.upgrade.UpgradeStepResult;
+import com.linkedin.datahub.upgrade.common.backfill.BackfillCheckpoint;
+import com.linkedin.datahub.upgrade.common.backfill.BackfillRunner;
+import com.linkedin.datahub.upgrade.common.backfill.ProposalBackfillProcessor;
+import com.linkedin.datahub.upgrade.common.backfill.SearchScrollPartition;
 import com.linkedin.datahub.upgrade.impl.DefaultUpgradeStepResult;
+import com.linkedin.datahub.upgrade.system.elasticsearch.steps.DataHubStartupStep;
 import com.linkedin.events.metadata.ChangeType;
 import com.linkedin.metadata.Constants;
 import com.linkedin.metadata.aspect.utils.DefaultAspectsUtil;
 import com.linkedin.metadata.boot.BootstrapStep;
 import com.linkedin.metadata.entity.EntityService;
-import com.linkedin.metadata.query.SearchFlags;
 import com.linkedin.metadata.query.filter.Condition;
 import com.linkedin.metadata.query.filter.ConjunctiveCriterion;
 import com.linkedin.metadata.query.filter.ConjunctiveCriterionArray;
 import com.linkedin.metadata.query.filter.Criterion;
 import com.linkedin.metadata.query.filter.CriterionArray;
 import com.linkedin.metadata.query.filter.Filter;
-import com.linkedin.metadata.search.ScrollResult;
-import com.linkedin.metadata.search.SearchEntity;
 import com.linkedin.metadata.search.SearchService;
 import com.linkedin.metadata.utils.GenericRecordUtils;
 import com.linkedin.mxe.MetadataChangeProposal;
 import com.linkedin.mxe.SystemMetadata;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
@@ -41,6 +45,7 @@ public class BackfillBrowsePathsV2Step implements UpgradeStep {
   private static final String UPGRADE_ID = "BackfillBrowsePathsV2Step";
   private static final Urn UPGRADE_ID_URN = BootstrapStep.getUpgradeUrn(UPGRADE_ID);
   public static final String DEFAULT_BROWSE_PATH_V2 = "␟Default";
+  private static final String SCROLL_KEEP_ALIVE = "5m";
 
   private static final Set<String> ENTITY_TYPES_TO_MIGRATE =
       ImmutableSet.of(
@@ -57,16 +62,20 @@ public class BackfillBrowsePathsV2Step implements UpgradeStep {
   private final EntityService<?> entityService;
   private final SearchService searchService;
 
+  private final BackfillRunner backfillRunner;
+
   private final boolean reprocessEnabled;
   private final Integer batchSize;
 
   public BackfillBrowsePathsV2Step(
       EntityService<?> entityService,
       SearchService searchService,
+      BackfillRunner backfillRunner,
       boolean reprocessEnabled,
       Integer batchSize) {
     this.searchService = searchService;
     this.entityService = entityService;
+    this.backfillRunner = backfillRunner;
     this.reprocessEnabled = reprocessEnabled;
     this.batchSize = batchSize;
   }
@@ -79,17 +88,33 @@ public class BackfillBrowsePathsV2Step implements UpgradeStep {
               .setActor(UrnUtils.getUrn(Constants.SYSTEM_ACTOR))
               .setTime(System.currentTimeMillis());
 
-      String scrollId = null;
-      for (String entityType : ENTITY_TYPES_TO_MIGRATE) {
-        int migratedCount = 0;
-        do {
-          log.info(
-              String.format(
-                  "Upgrading batch %s-%s of browse paths for entity type %s",
-                  migratedCount, migratedCount + batchSize, entityType));
-          scrollId = backfillBrowsePathsV2(entityType, auditStamp, scrollId);
-          migratedCount += batchSize;
-        } while (scrollId != null);
+      final Filter filter =
+          reprocessEnabled ? backfillDefaultBrowsePathsV2Filter() : backfillBrowsePathsV2Filter();
+      // Reprocessing walks a different set of entities, keep its checkpoints apart
+      final String mode = reprocessEnabled ? "reprocess" : "missing";
+      final List<SearchScrollPartition> partitions =
+          ENTITY_TYPES_TO_MIGRATE.stream()
+              .map(
+                  entityType ->
+                      new SearchScrollPartition(
+                          searchService,
+                          mode + ":" + entityType,
+                          entityType,
+                          filter,
+                          batchSize,
+                          SCROLL_KEEP_ALIVE))
+              .collect(Collectors.toList());
+
+      final boolean completed =
+          backfillRunner.run(
+              context,
+              id(),
+              BackfillCheckpoint.load(entityService, UPGRADE_ID),
+              partitions,
+              new ProposalBackfillProcessor<>(
+                  entityService, auditStamp, this::browsePathsV2Proposal, true));
+      if (!completed) {
+        return new DefaultUpgradeStepResult(id(), UpgradeStepResult.Result.FAILED);
       }
 
       BootstrapStep.setUpgradeResult(UPGRADE_ID_URN, entityService);
@@ -98,51 +123,6 @@ public class BackfillBrowsePathsV2Step implements UpgradeStep {
     };
   }
 
-  private String backfillBrowsePathsV2(String entityType, AuditStamp auditStamp, String scrollId) {
-
-    final Filter filter;
-
-    if (reprocessEnabled) {
-      filter = backfillDefaultBrowsePathsV2Filter();
-    } else {
-      filter = backfillBrowsePathsV2Filter();
-    }
-
-    final ScrollResult scrollResult =
-        searchService.scrollAcrossEntities(
-            ImmutableList.of(entityType),
-            "*",
-            filter,
-            null,
-            scrollId,
-            null,
-            batchSize,
-            new SearchFlags()
-                .setFulltext(true)
-                .setSkipCache(true)
-                .setSkipHighlighting(true)
-                .setSkipAggregates(true));
-
-    if (scrollResult.getNumEntities() == 0 || scrollResult.getEntities().size() == 0) {
-      return null;
-    }
-
-    for (SearchEntity searchEntity : scrollResult.getEntities()) {
-      try {
-        ingestBrowsePathsV2(searchEntity.getEntity(), auditStamp);
-      } catch (Exception e) {
-        // don't stop the whole step because of one bad urn or one bad ingestion
-        log.error(
-            String.format(
-                "Error ingesting default browsePathsV2 aspect for urn %s",
-                searchEntity.getEntity()),
-            e);
-      }
-    }
-
-    return scrollResult.getScrollId();
-  }
-
   private Filter backfillBrowsePathsV2Filter() {
     // Condition: has `browsePaths` AND does NOT have `browsePathV2`
     Criterion missingBrowsePathV2 = new Criterion();
@@ -192,7 +172,7 @@ public class BackfillBrowsePathsV2Step implements UpgradeStep {
     return filter;
   }
 
-  private void ingestBrowsePathsV2(Urn urn, AuditStamp auditStamp) throws Exception {
+  private MetadataChangeProposal browsePathsV2Proposal(Urn urn) throws Exception {
     BrowsePathsV2 browsePathsV2 =
         DefaultAspectsUtil.buildDefaultBrowsePathV2(urn, true, entityService);
     log.debug(String.format("Adding browse path v2 for urn %s with value %s", urn, browsePathsV2));
@@ -204,7 +184,7 @@ public class BackfillBrowsePathsV2Step implements UpgradeStep {
     proposal.setSystemMetadata(
         new SystemMetadata().setRunId(DEFAULT_RUN_ID).setLastObserved(System.currentTimeMillis()));
     proposal.setAspect(GenericRecordUtils.serializeAspect(browsePathsV2));
-    entityService.ingestProposal(proposal, auditStamp, true);
+    return proposal;
   }
 
   @Override
@@ -212,6 +192,16 @@ public class BackfillBrowsePathsV2Step implements UpgradeStep {
     return UPGRADE_ID;
   }
 
+  @Override
+  public Optional<Set<String>> dependsOn() {
+    return Optional.of(Set.of(DataHubStartupStep.STEP_ID));
+  }
+
+  @Override
+  public Resource resource() {
+    return Resource.ELASTICSEARCH;
+  }
+
   /**
    * Returns whether the upgrade should proceed if the step fails after exceeding the maximum
    * retries.
@@ -5,6 +5,7 @@ import static com.linkedin.metadata.Constants.*;
 import com.google.common.collect.ImmutableList;
 import com.linkedin.datahub.upgrade.Upgrade;
 import com.linkedin.datahub.upgrade.UpgradeStep;
+import com.linkedin.datahub.upgrade.common.backfill.BackfillRunner;
 import com.linkedin.metadata.entity.EntityService;
 import java.util.List;
 import lombok.extern.slf4j.Slf4j;
@@ -19,9 +20,14 @@ public class ReindexDataJobViaNodesCLL implements Upgrade {
   private final List<UpgradeStep> _steps;
 
   public ReindexDataJobViaNodesCLL(
-      EntityService<?> entityService, boolean enabled, Integer batchSize) {
+      EntityService<?> entityService,
+      BackfillRunner backfillRunner,
+      boolean enabled,
+      Integer batchSize) {
     if (enabled) {
-      _steps = ImmutableList.of(new ReindexDataJobViaNodesCLLStep(entityService, batchSize));
+      _steps =
+          ImmutableList.of(
+              new ReindexDataJobViaNodesCLLStep(entityService, backfillRunner, batchSize));
     } else {
       _steps = ImmutableList.of();
     }
@@ -6,11 +6,18 @@ import com.linkedin.common.urn.Urn;
 import com.linkedin.datahub.upgrade.UpgradeContext;
 import com.linkedin.datahub.upgrade.UpgradeStep;
 import com.linkedin.datahub.upgrade.UpgradeStepResult;
+import com.linkedin.datahub.upgrade.common.backfill.BackfillCheckpoint;
+import com.linkedin.datahub.upgrade.common.backfill.BackfillRunner;
+import com.linkedin.datahub.upgrade.common.backfill.RestoreIndicesPartition;
 import com.linkedin.datahub.upgrade.impl.DefaultUpgradeStepResult;
+import com.linkedin.datahub.upgrade.system.elasticsearch.steps.DataHubStartupStep;
 import com.linkedin.metadata.boot.BootstrapStep;
 import com.linkedin.metadata.entity.EntityService;
 import com.linkedin.metadata.entity.restoreindices.RestoreIndicesArgs;
 import com.linkedin.metadata.entity.restoreindices.RestoreIndicesResult;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
 import lombok.extern.slf4j.Slf4j;
 
@@ -21,10 +28,13 @@ public class ReindexDataJobViaNodesCLLStep implements UpgradeStep {
   private static final Urn UPGRADE_ID_URN = BootstrapStep.getUpgradeUrn(UPGRADE_ID);
 
   private final EntityService<?> entityService;
+  private final BackfillRunner backfillRunner;
   private final Integer batchSize;
 
-  public ReindexDataJobViaNodesCLLStep(EntityService<?> entityService, Integer batchSize) {
+  public ReindexDataJobViaNodesCLLStep(
+      EntityService<?> entityService, BackfillRunner backfillRunner, Integer batchSize) {
     this.entityService = entityService;
+    this.backfillRunner = backfillRunner;
     this.batchSize = batchSize;
   }
 
@@ -36,10 +46,31 @@ public class ReindexDataJobViaNodesCLLStep implements UpgradeStep {
               .setAspectName(DATA_JOB_INPUT_OUTPUT_ASPECT_NAME)
               .setUrnLike("urn:li:" + DATA_JOB_ENTITY_NAME + ":%")
               .setBatchSize(batchSize);
-      RestoreIndicesResult result =
-          entityService.restoreIndices(args, x -> context.report().addLine((String) x));
+      RestoreIndicesResult result = new RestoreIndicesResult();
+      boolean completed =
+          backfillRunner.run(
+              context,
+              id(),
+              BackfillCheckpoint.load(entityService, UPGRADE_ID),
+              List.of(
+                  new RestoreIndicesPartition(
+                      entityService,
+                      DATA_JOB_INPUT_OUTPUT_ASPECT_NAME,
+                      args,
+                      x -> context.report().addLine(x))),
+              pages -> {
+                pages.forEach(
+                    page -> {
+                      result.rowsMigrated += page.rowsMigrated;
+                      result.ignored += page.ignored;
+                    });
+                return pages.stream().mapToInt(page -> page.rowsMigrated).sum();
+              });
       context.report().addLine("Rows migrated: " + result.rowsMigrated);
       context.report().addLine("Rows ignored: " + result.ignored);
+      if (!completed) {
+        return new DefaultUpgradeStepResult(id(), UpgradeStepResult.Result.FAILED);
+      }
 
       BootstrapStep.setUpgradeResult(UPGRADE_ID_URN, entityService);
       context.report().addLine("State updated: " + UPGRADE_ID_URN);
@@ -53,6 +84,17 @@ public class ReindexDataJobViaNodesCLLStep implements UpgradeStep {
     return UPGRADE_ID;
   }
 
+  /** Replays SQL rows only, it can run alongside the Elasticsearch heavy post startup steps. */
+  @Override
+  public Optional<Set<String>> dependsOn() {
+    return Optional.of(Set.of(DataHubStartupStep.STEP_ID));
+  }
+
+  @Override
+  public Resource resource() {
+    return Resource.SQL;
+  }
+
   /**
    * Returns whether the upgrade should proceed if the step fails after exceeding the maximum
    * retries.
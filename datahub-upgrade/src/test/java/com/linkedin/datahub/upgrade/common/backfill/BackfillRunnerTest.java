@@ -0,0 +1,150 @@
+package com.linkedin.datahub.upgrade.common.backfill;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import com.linkedin.common.urn.Urn;
+import com.linkedin.data.template.StringMap;
+import com.linkedin.datahub.upgrade.UpgradeContext;
+import com.linkedin.datahub.upgrade.UpgradeReport;
+import com.linkedin.datahub.upgrade.impl.DefaultUpgradeReport;
+import com.linkedin.metadata.Constants;
+import com.linkedin.metadata.entity.EntityService;
+import com.linkedin.upgrade.DataHubUpgradeResult;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.testng.annotations.Test;
+
+public class BackfillRunnerTest {
+
+  /** Pages of two integers, cursors are the index of the next page. */
+  private static class ListPartition implements BackfillPartition<Integer> {
+    private final String id;
+    private final List<Integer> values;
+    private final List<String> cursors = Collections.synchronizedList(new ArrayList<>());
+
+    ListPartition(String id, List<Integer> values) {
+      this.id = id;
+      this.values = values;
+    }
+
+    @Nonnull
+    @Override
+    public String id() {
+      return id;
+    }
+
+    @Nonnull
+    @Override
+    public BackfillPage<Integer> read(@Nullable String cursor) {
+      cursors.add(cursor);
+      int from = cursor == null ? 0 : Integer.parseInt(cursor);
+      int to = Math.min(from + 2, values.size());
+      return new BackfillPage<>(
+          values.subList(from, to), to < values.size() ? String.valueOf(to) : null);
+    }
+  }
+
+  private static UpgradeContext context() {
+    UpgradeContext context = mock(UpgradeContext.class);
+    UpgradeReport report = new DefaultUpgradeReport();
+    when(context.report()).thenReturn(report);
+    return context;
+  }
+
+  private static EntityService<?> entityService(@Nullable Map<String, String> cursors) {
+    EntityService<?> entityService = mock(EntityService.class);
+    if (cursors != null) {
+      when(entityService.getLatestAspect(
+              any(Urn.class), eq(Constants.DATA_HUB_UPGRADE_RESULT_ASPECT_NAME)))
+          .thenReturn(
+              new DataHubUpgradeResult().setTimestampMs(0L).setResult(new StringMap(cursors)));
+    }
+    return entityService;
+  }
+
+  @Test
+  public void testProcessesEveryPartition() {
+    UpgradeContext context = context();
+    EntityService<?> entityService = entityService(null);
+    List<Integer> processed = Collections.synchronizedList(new ArrayList<>());
+    BackfillCheckpoint checkpoint = BackfillCheckpoint.load(entityService, "test");
+
+    boolean completed =
+        new BackfillRunner(2, 0)
+            .run(
+                context,
+                "step",
+                checkpoint,
+                List.of(
+                    new ListPartition("a", List.of(1, 2, 3)),
+                    new ListPartition("b", List.of(4, 5, 6, 7))),
+                items -> {
+                  processed.addAll(items);
+                  return items.size();
+                });
+
+    assertTrue(completed);
+    assertEquals(processed.stream().sorted().toArray(), new Integer[] {1, 2, 3, 4, 5, 6, 7});
+    assertEquals(context.report().processed("step"), 7L);
+    assertTrue(checkpoint.isEmpty());
+  }
+
+  @Test
+  public void testResumesFromCheckpoint() {
+    EntityService<?> entityService =
+        entityService(Map.of("a", "__completed__", "b", String.valueOf(2)));
+    ListPartition a = new ListPartition("a", List.of(1, 2, 3));
+    ListPartition b = new ListPartition("b", List.of(4, 5, 6, 7));
+    List<Integer> processed = Collections.synchronizedList(new ArrayList<>());
+
+    boolean completed =
+        new BackfillRunner(1, 0)
+            .run(
+                context(),
+                "step",
+                BackfillCheckpoint.load(entityService, "test"),
+                List.of(a, b),
+                items -> {
+                  processed.addAll(items);
+                  return items.size();
+                });
+
+    assertTrue(completed);
+    assertTrue(a.cursors.isEmpty());
+    assertEquals(b.cursors, List.of("2"));
+    assertEquals(processed, List.of(6, 7));
+  }
+
+  @Test
+  public void testFailedPartitionKeepsCheckpoint() {
+    EntityService<?> entityService = entityService(null);
+    BackfillCheckpoint checkpoint = BackfillCheckpoint.load(entityService, "test");
+
+    boolean completed =
+        new BackfillRunner(1, 0)
+            .run(
+                context(),
+                "step",
+                checkpoint,
+                List.of(new ListPartition("a", List.of(1, 2, 3))),
+                items -> {
+                  if (items.contains(3)) {
+                    throw new IllegalStateException("boom");
+                  }
+                  return items.size();
+                });
+
+    assertFalse(completed);
+    assertEquals(checkpoint.cursor("a"), "2");
+  }
+}
@@ -0,0 +1,146 @@
+package com.linkedin.datahub.upgrade.impl;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import com.linkedin.datahub.upgrade.Upgrade;
+import com.linkedin.datahub.upgrade.UpgradeContext;
+import com.linkedin.datahub.upgrade.UpgradeResult;
+import com.linkedin.datahub.upgrade.UpgradeStep;
+import com.linkedin.datahub.upgrade.UpgradeStepResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.testng.annotations.Test;
+
+public class DefaultUpgradeManagerTest {
+
+  private static UpgradeStep step(
+      String id,
+      Optional<Set<String>> dependsOn,
+      UpgradeStep.Resource resource,
+      Function<UpgradeContext, UpgradeStepResult.Result> body) {
+    return new UpgradeStep() {
+      @Override
+      public String id() {
+        return id;
+      }
+
+      @Override
+      public Function<UpgradeContext, UpgradeStepResult> executable() {
+        return context -> new DefaultUpgradeStepResult(id, body.apply(context));
+      }
+
+      @Override
+      public Optional<Set<String>> dependsOn() {
+        return dependsOn;
+      }
+
+      @Override
+      public UpgradeStep.Resource resource() {
+        return resource;
+      }
+    };
+  }
+
+  private static UpgradeStep recording(String id, List<String> executed) {
+    return step(
+        id,
+        Optional.empty(),
+        UpgradeStep.Resource.NONE,
+        context -> {
+          executed.add(id);
+          return UpgradeStepResult.Result.SUCCEEDED;
+        });
+  }
+
+  private static Upgrade upgrade(UpgradeStep... steps) {
+    return new Upgrade() {
+      @Override
+      public String id() {
+        return "TestUpgrade";
+      }
+
+      @Override
+      public List<UpgradeStep> steps() {
+        return List.of(steps);
+      }
+    };
+  }
+
+  @Test
+  public void testStepsRunInOrderByDefault() {
+    List<String> executed = Collections.synchronizedList(new ArrayList<>());
+    DefaultUpgradeManager manager = new DefaultUpgradeManager(4, null);
+    manager.register(
+        upgrade(recording("a", executed), recording("b", executed), recording("c", executed)));
+
+    UpgradeResult result = manager.execute("TestUpgrade", List.of());
+
+    assertEquals(result.result(), UpgradeResult.Result.SUCCEEDED);
+    assertEquals(executed, List.of("a", "b", "c"));
+  }
+
+  @Test
+  public void testIndependentStepsRunConcurrently() {
+    CountDownLatch bothStarted = new CountDownLatch(2);
+    Function<UpgradeContext, UpgradeStepResult.Result> waitForOther =
+        context -> {
+          bothStarted.countDown();
+          try {
+            return bothStarted.await(10, TimeUnit.SECONDS)
+                ? UpgradeStepResult.Result.SUCCEEDED
+                : UpgradeStepResult.Result.FAILED;
+          } catch (InterruptedException e) {
+            return UpgradeStepResult.Result.FAILED;
+          }
+        };
+    DefaultUpgradeManager manager = new DefaultUpgradeManager(2, null);
+    manager.register(
+        upgrade(
+            step("a", Optional.of(Set.of()), UpgradeStep.Resource.SQL, waitForOther),
+            step("b", Optional.of(Set.of()), UpgradeStep.Resource.ELASTICSEARCH, waitForOther)));
+
+    UpgradeResult result = manager.execute("TestUpgrade", List.of());
+
+    assertEquals(result.result(), UpgradeResult.Result.SUCCEEDED);
+  }
+
+  @Test
+  public void testStateFileSkipsCompletedSteps() throws Exception {
+    Path stateFile = Files.createTempDirectory("upgrade").resolve("state.json");
+    List<String> executed = Collections.synchronizedList(new ArrayList<>());
+    boolean[] failB = {true};
+    UpgradeStep b =
+        step(
+            "b",
+            Optional.empty(),
+            UpgradeStep.Resource.NONE,
+            context -> {
+              executed.add("b");
+              return failB[0]
+                  ? UpgradeStepResult.Result.FAILED
+                  : UpgradeStepResult.Result.SUCCEEDED;
+            });
+    DefaultUpgradeManager manager = new DefaultUpgradeManager(1, stateFile);
+    manager.register(upgrade(recording("a", executed), b));
+
+    assertEquals(
+        manager.execute("TestUpgrade", List.of("x")).result(), UpgradeResult.Result.FAILED);
+    assertTrue(Files.exists(stateFile));
+
+    failB[0] = false;
+    assertEquals(
+        manager.execute("TestUpgrade", List.of("x")).result(), UpgradeResult.Result.SUCCEEDED);
+    assertEquals(executed, List.of("a", "b", "b"));
+    assertFalse(Files.exists(stateFile));
+  }
+}
@@ -137,6 +137,33 @@ public class LineageRegistry {
     return spec.getDownstreamEdges();
   }
 
+  /** Every entity type that has lineage to some entity type. */
+  public Set<String> getEntitiesWithLineage() {
+    return _entityRegistry.getEntitySpecs().values().stream()
+        .map(EntitySpec::getName)
+        .filter(
+            entityName ->
+                !getLineageRelationships(entityName, LineageDirection.UPSTREAM).isEmpty()
+                    || !getLineageRelationships(entityName, LineageDirection.DOWNSTREAM).isEmpty())
+        .collect(Collectors.toSet());
+  }
+
+  /** Every relationship type that is a lineage edge between some entity types. */
+  public Set<String> getLineageRelationshipTypes() {
+    Set<String> types =
+        _lineageSpecMap.values().stream()
+            .flatMap(
+                spec ->
+                    Streams.concat(
+                        spec.getUpstreamEdges().stream(), spec.getDownstreamEdges().stream()))
+            .map(EdgeInfo::getType)
+            .collect(Collectors.toCollection(HashSet::new));
+    getSchemaFieldRelationships(LineageDirection.UPSTREAM).stream()
+        .map(EdgeInfo::getType)
+        .forEach(types::add);
+    return types;
+  }
+
   private List<EdgeInfo> getSchemaFieldRelationships(LineageDirection direction) {
     List<EdgeInfo> schemaFieldEdges = new ArrayList<>();
     if (direction == LineageDirection.UPSTREAM) {
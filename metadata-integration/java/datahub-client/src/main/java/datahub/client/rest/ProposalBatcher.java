@@ -0,0 +1,275 @@
+package datahub.client.rest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import datahub.client.Callback;
+import datahub.client.MetadataWriteResponse;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.HttpResponse;
+import org.apache.http.concurrent.FutureCallback;
+
+/**
+ * Coalesces serialized proposals into batchIngestProposal requests. A batch is sent once it holds
+ * maxBatchSize proposals, once it exceeds maxBatchBytes, or once the first proposal in it has
+ * waited lingerMs. At most maxInFlightRequests batches are outstanding at a time, callers adding
+ * beyond that block until a slot frees up.
+ */
+@ThreadSafe
+@Slf4j
+class ProposalBatcher implements Closeable {
+
+  private static final String PAYLOAD_PREFIX = "{\"proposals\":[";
+  private static final String PAYLOAD_SUFFIX = "]}";
+
+  /** Sends a batch payload and reports the http outcome to the given callback. */
+  @FunctionalInterface
+  interface BatchSender {
+    void send(String payloadJson, FutureCallback<HttpResponse> callback) throws IOException;
+  }
+
+  @Value
+  private static class PendingProposal {
+    String serializedProposal;
+    Callback callback;
+    CompletableFuture<MetadataWriteResponse> future;
+  }
+
+  private final int maxBatchSize;
+  private final long maxBatchBytes;
+  private final long lingerMs;
+  private final int maxInFlightRequests;
+  private final Semaphore inFlight;
+  private final BatchSender sender;
+  private final ObjectMapper objectMapper;
+  private final ScheduledExecutorService lingerExecutor;
+
+  private List<PendingProposal> pending = new ArrayList<>();
+  private long pendingBytes = 0;
+  private ScheduledFuture<?> lingerFlush;
+  private boolean closed = false;
+
+  ProposalBatcher(
+      @Nonnull RestEmitterConfig config,
+      @Nonnull ObjectMapper objectMapper,
+      @Nonnull BatchSender sender) {
+    this.maxBatchSize = config.getMaxBatchSize();
+    this.maxBatchBytes = config.getMaxBatchBytes();
+    this.lingerMs = config.getBatchLingerMs();
+    this.maxInFlightRequests = Math.max(1, config.getMaxInFlightRequests());
+    this.inFlight = new Semaphore(this.maxInFlightRequests, true);
+    this.objectMapper = objectMapper;
+    this.sender = sender;
+    this.lingerExecutor =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "datahub-rest-emitter-linger");
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  /**
+   * Queues a serialized proposal for the next batch.
+   *
+   * @return a future completed with this proposal's own result once its batch is acknowledged
+   */
+  Future<MetadataWriteResponse> add(@Nonnull String serializedProposal, @Nullable Callback callback)
+      throws IOException {
+    PendingProposal proposal =
+        new PendingProposal(serializedProposal, callback, new CompletableFuture<>());
+    long size = serializedProposal.getBytes(StandardCharsets.UTF_8).length;
+    synchronized (this) {
+      if (closed) {
+        throw new IOException("Cannot emit, the emitter has been closed");
+      }
+      if (!pending.isEmpty() && pendingBytes + size > maxBatchBytes) {
+        send(drain());
+      }
+      pending.add(proposal);
+      pendingBytes += size;
+      if (pending.size() >= maxBatchSize || pendingBytes >= maxBatchBytes) {
+        send(drain());
+      } else if (lingerFlush == null) {
+        lingerFlush = lingerExecutor.schedule(this::lingerExpired, lingerMs, TimeUnit.MILLISECONDS);
+      }
+    }
+    return proposal.getFuture();
+  }
+
+  /** Sends whatever is pending without waiting for the batch to fill up. */
+  synchronized void flush() throws IOException {
+    if (!pending.isEmpty()) {
+      send(drain());
+    }
+  }
+
+  /** Flushes pending proposals and waits for every in flight batch to be acknowledged. */
+  @Override
+  public void close() throws IOException {
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      flush();
+      closed = true;
+    }
+    lingerExecutor.shutdownNow();
+    inFlight.acquireUninterruptibly(maxInFlightRequests);
+    inFlight.release(maxInFlightRequests);
+  }
+
+  private void lingerExpired() {
+    try {
+      flush();
+    } catch (IOException e) {
+      log.error("Failed to send batch after linger expired.", e);
+    }
+  }
+
+  private List<PendingProposal> drain() {
+    List<PendingProposal> batch = pending;
+    pending = new ArrayList<>();
+    pendingBytes = 0;
+    if (lingerFlush != null) {
+      lingerFlush.cancel(false);
+      lingerFlush = null;
+    }
+    return batch;
+  }
+
+  // Always called while holding the monitor so batches go out in the order they were filled
+  private void send(List<PendingProposal> batch) throws IOException {
+    try {
+      inFlight.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      InterruptedIOException interrupted =
+          new InterruptedIOException("Interrupted waiting for an in flight batch to complete");
+      fail(batch, interrupted);
+      throw interrupted;
+    }
+
+    StringBuilder payload = new StringBuilder(PAYLOAD_PREFIX);
+    for (int i = 0; i < batch.size(); i++) {
+      if (i > 0) {
+        payload.append(',');
+      }
+      payload.append(batch.get(i).getSerializedProposal());
+    }
+    payload.append(PAYLOAD_SUFFIX);
+    log.debug("Sending batch of {} proposals", batch.size());
+
+    try {
+      sender.send(
+          payload.toString(),
+          new FutureCallback<HttpResponse>() {
+            @Override
+            public void completed(HttpResponse response) {
+              inFlight.release();
+              complete(batch, response);
+            }
+
+            @Override
+            public void failed(Exception ex) {
+              inFlight.release();
+              fail(batch, ex);
+            }
+
+            @Override
+            public void cancelled() {
+              inFlight.release();
+              fail(batch, new RuntimeException("Cancelled"));
+            }
+          });
+    } catch (IOException | RuntimeException e) {
+      inFlight.release();
+      fail(batch, e);
+      throw e;
+    }
+  }
+
+  private void complete(List<PendingProposal> batch, HttpResponse response) {
+    MetadataWriteResponse batchResponse;
+    try {
+      batchResponse = RestEmitter.mapResponse(response);
+    } catch (Exception e) {
+      fail(batch, e);
+      return;
+    }
+    List<MetadataWriteResponse> itemResponses = splitResponse(batchResponse, batch.size());
+    for (int i = 0; i < batch.size(); i++) {
+      PendingProposal proposal = batch.get(i);
+      MetadataWriteResponse itemResponse = itemResponses.get(i);
+      proposal.getFuture().complete(itemResponse);
+      if (proposal.getCallback() != null) {
+        try {
+          proposal.getCallback().onCompletion(itemResponse);
+        } catch (Exception e) {
+          log.error("Error executing user callback on completion.", e);
+        }
+      }
+    }
+  }
+
+  /**
+   * Maps the urn array returned by batchIngestProposal back onto each proposal, in the same shape
+   * as a single ingestProposal response. Falls back to the shared batch response if the server
+   * reply cannot be split.
+   */
+  private List<MetadataWriteResponse> splitResponse(
+      MetadataWriteResponse batchResponse, int batchSize) {
+    if (batchResponse.isSuccess() && batchResponse.getResponseContent() != null) {
+      try {
+        JsonNode urns = objectMapper.readTree(batchResponse.getResponseContent()).get("value");
+        if (urns != null && urns.isArray() && urns.size() == batchSize) {
+          List<MetadataWriteResponse> responses = new ArrayList<>(batchSize);
+          for (JsonNode urn : urns) {
+            responses.add(
+                MetadataWriteResponse.builder()
+                    .success(true)
+                    .responseContent(
+                        objectMapper.writeValueAsString(
+                            Collections.singletonMap("value", urn.asText())))
+                    .underlyingResponse(batchResponse.getUnderlyingResponse())
+                    .build());
+          }
+          return responses;
+        }
+      } catch (IOException e) {
+        log.warn("Wasn't able to split batch response into per proposal responses", e);
+      }
+    }
+    return Collections.nCopies(batchSize, batchResponse);
+  }
+
+  private static void fail(List<PendingProposal> batch, Throwable throwable) {
+    for (PendingProposal proposal : batch) {
+      proposal.getFuture().completeExceptionally(throwable);
+      if (proposal.getCallback() != null) {
+        try {
+          proposal.getCallback().onFailure(throwable);
+        } catch (Exception e) {
+          log.error("Error executing user callback on failure.", e);
+        }
+      }
+    }
+  }
+}
@@ -19,6 +19,7 @@ import datahub.event.UpsertAspectRequest;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.security.KeyManagementException;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
@@ -28,6 +29,7 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
 import javax.annotation.concurrent.ThreadSafe;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.http.HttpResponse;
@@ -38,6 +40,8 @@ import org.apache.http.client.methods.HttpPost;
 import org.apache.http.concurrent.FutureCallback;
 import org.apache.http.conn.ssl.NoopHostnameVerifier;
 import org.apache.http.conn.ssl.TrustAllStrategy;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
 import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
@@ -59,11 +63,17 @@ import org.apache.http.ssl.SSLContextBuilder;
  * RestEmitter emitter = RestEmitter.create(b :: b .server("http://localhost:8080")
  * .extraHeaders(Collections.singletonMap("Custom-Header", "custom-val") .customizeHttpAsyncClient(c
  * :: c.setConnectionTimeToLive(30, TimeUnit.SECONDS)) );
+ *
+ * <p>Setting `maxBatchSize` above 1 switches {@link MetadataChangeProposal} emission to batching
+ * mode: proposals are coalesced by count, bytes and linger time and sent to the
+ * batchIngestProposal action, while each returned future and callback still reports the result of
+ * its own proposal. Call #flush to send a partially filled batch right away.
  */
 public class RestEmitter implements Emitter {
 
   private final RestEmitterConfig config;
   private final String ingestProposalUrl;
+  private final String batchIngestProposalUrl;
   private final String ingestOpenApiUrl;
   private final String configUrl;
 
@@ -71,6 +81,7 @@ public class RestEmitter implements Emitter {
   private final JacksonDataTemplateCodec dataTemplateCodec;
   private final CloseableHttpAsyncClient httpClient;
   private final EventFormatter eventFormatter;
+  private final ProposalBatcher batcher;
 
   /**
    * The default constructor, prefer using the `create` factory method.
@@ -113,12 +124,17 @@ public class RestEmitter implements Emitter {
     this.httpClient = this.config.getAsyncHttpClientBuilder().build();
     this.httpClient.start();
     this.ingestProposalUrl = this.config.getServer() + "/aspects?action=ingestProposal";
+    this.batchIngestProposalUrl = this.config.getServer() + "/aspects?action=batchIngestProposal";
     this.ingestOpenApiUrl = config.getServer() + "/openapi/entities/v1/";
     this.configUrl = this.config.getServer() + "/config";
     this.eventFormatter = this.config.getEventFormatter();
+    this.batcher =
+        this.config.getMaxBatchSize() > 1
+            ? new ProposalBatcher(this.config, objectMapper, this::postBatch)
+            : null;
   }
 
-  private static MetadataWriteResponse mapResponse(HttpResponse response) {
+  static MetadataWriteResponse mapResponse(HttpResponse response) {
     MetadataWriteResponse.MetadataWriteResponseBuilder builder =
         MetadataWriteResponse.builder().underlyingResponse(response);
     if ((response != null)
@@ -188,6 +204,9 @@ public class RestEmitter implements Emitter {
   @Override
   public Future<MetadataWriteResponse> emit(MetadataChangeProposal mcp, Callback callback)
       throws IOException {
+    if (batcher != null) {
+      return batcher.add(dataTemplateCodec.mapToString(mcp.data()), callback);
+    }
     DataMap map = new DataMap();
     map.put("proposal", mcp.data());
     String serializedMCP = dataTemplateCodec.mapToString(map);
@@ -256,6 +275,30 @@ public class RestEmitter implements Emitter {
     return new MetadataResponseFuture(requestFuture, responseAtomicReference, responseLatch);
   }
 
+  private void postBatch(String payloadJson, FutureCallback<HttpResponse> httpCallback)
+      throws IOException {
+    log.debug("Emit batch: URL: {}, Payload: {}\n", this.batchIngestProposalUrl, payloadJson);
+    HttpPost httpPost = new HttpPost(this.batchIngestProposalUrl);
+    httpPost.setHeader("Content-Type", "application/json");
+    httpPost.setHeader("X-RestLi-Protocol-Version", "2.0.0");
+    httpPost.setHeader("Accept", "application/json");
+    this.config.getExtraHeaders().forEach((k, v) -> httpPost.setHeader(k, v));
+    if (this.config.getToken() != null) {
+      httpPost.setHeader("Authorization", "Bearer " + this.config.getToken());
+    }
+    byte[] payloadBytes = payloadJson.getBytes(StandardCharsets.UTF_8);
+    if (this.config.isCompressBatches()) {
+      ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+      try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+        gzip.write(payloadBytes);
+      }
+      httpPost.setHeader("Content-Encoding", "gzip");
+      payloadBytes = compressed.toByteArray();
+    }
+    httpPost.setEntity(new ByteArrayEntity(payloadBytes, ContentType.APPLICATION_JSON));
+    httpClient.execute(httpPost, httpCallback);
+  }
+
   private Future<MetadataWriteResponse> getGeneric(String urlStr) throws IOException {
     HttpGet httpGet = new HttpGet(urlStr);
     httpGet.setHeader("Content-Type", "application/json");
@@ -270,8 +313,22 @@ public class RestEmitter implements Emitter {
     return this.getGeneric(this.configUrl).get().isSuccess();
   }
 
+  /**
+   * Sends any proposals waiting in a partially filled batch. A no-op when batching is disabled.
+   *
+   * @throws IOException
+   */
+  public void flush() throws IOException {
+    if (batcher != null) {
+      batcher.flush();
+    }
+  }
+
   @Override
   public void close() throws IOException {
+    if (batcher != null) {
+      batcher.close();
+    }
     this.httpClient.close();
   }
 
@@ -22,6 +22,10 @@ public class RestEmitterConfig {
   public static final int DEFAULT_READ_TIMEOUT_SEC = 10;
   public static final String DEFAULT_AUTH_TOKEN = null;
   public static final String CLIENT_VERSION_PROPERTY = "clientVersion";
+  public static final int DEFAULT_MAX_BATCH_SIZE = 1;
+  public static final long DEFAULT_MAX_BATCH_BYTES = 5 * 1024 * 1024;
+  public static final long DEFAULT_BATCH_LINGER_MS = 100;
+  public static final int DEFAULT_MAX_IN_FLIGHT_REQUESTS = 4;
 
   @Builder.Default private final String server = "http://localhost:8080";
 
@@ -34,6 +38,24 @@ public class RestEmitterConfig {
 
   private final HttpAsyncClientBuilder asyncHttpClientBuilder;
 
+  /**
+   * Max number of proposals coalesced into a single batchIngestProposal request. The default of 1
+   * disables batching and sends every proposal to ingestProposal on its own.
+   */
+  @Builder.Default private final int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+
+  /** A pending batch is sent as soon as its serialized proposals exceed this many bytes. */
+  @Builder.Default private final long maxBatchBytes = DEFAULT_MAX_BATCH_BYTES;
+
+  /** How long a partially filled batch waits for more proposals before being sent. */
+  @Builder.Default private final long batchLingerMs = DEFAULT_BATCH_LINGER_MS;
+
+  /** Max number of batch requests outstanding at once, callers block on emit beyond this. */
+  @Builder.Default private final int maxInFlightRequests = DEFAULT_MAX_IN_FLIGHT_REQUESTS;
+
+  /** Gzip batch request bodies, requires a GMS that accepts Content-Encoding: gzip. */
+  @Builder.Default private final boolean compressBatches = false;
+
   @Builder.Default
   private final EventFormatter eventFormatter =
       new EventFormatter(EventFormatter.Format.PEGASUS_JSON);
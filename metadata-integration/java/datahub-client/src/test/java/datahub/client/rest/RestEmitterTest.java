@@ -33,11 +33,16 @@ import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import javax.net.ssl.SSLHandshakeException;
 import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
 import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.message.BasicStatusLine;
+import org.apache.http.util.EntityUtils;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -145,6 +150,64 @@ public class RestEmitterTest {
     Assert.assertEquals("Test-Value", testPost.getFirstHeader("Test-Header").getValue());
   }
 
+  @Test
+  public void testBatchPost() throws Exception {
+    RestEmitter emitter =
+        RestEmitter.create(
+            b ->
+                b.asyncHttpClientBuilder(mockHttpClientFactory)
+                    .maxBatchSize(2)
+                    .batchLingerMs(60000));
+    Future<MetadataWriteResponse> first =
+        emitter.emit(getMetadataChangeProposalWrapper("First", "urn:li:dataset:foo"), null);
+    Mockito.verify(mockClient, Mockito.never()).execute(Mockito.any(), Mockito.any());
+    Future<MetadataWriteResponse> second =
+        emitter.emit(getMetadataChangeProposalWrapper("Second", "urn:li:dataset:bar"), null);
+
+    Mockito.verify(mockClient).execute(postArgumentCaptor.capture(), callbackCaptor.capture());
+    HttpPost testPost = postArgumentCaptor.getValue();
+    Assert.assertEquals(
+        "/aspects?action=batchIngestProposal",
+        testPost.getURI().getPath() + "?" + testPost.getURI().getQuery());
+    String contentString = EntityUtils.toString(testPost.getEntity(), StandardCharsets.UTF_8);
+    Assert.assertTrue(contentString.startsWith("{\"proposals\":[{"));
+    Assert.assertTrue(
+        contentString.indexOf("urn:li:dataset:foo") < contentString.indexOf("urn:li:dataset:bar"));
+
+    BasicHttpResponse response =
+        new BasicHttpResponse(new BasicStatusLine(HttpVersion.HTTP_1_1, 200, "OK"));
+    response.setEntity(
+        new StringEntity("{\"value\":[\"urn:li:dataset:foo\",\"urn:li:dataset:bar\"]}"));
+    callbackCaptor.getValue().completed(response);
+
+    Assert.assertTrue(first.get().isSuccess());
+    Assert.assertEquals("{\"value\":\"urn:li:dataset:foo\"}", first.get().getResponseContent());
+    Assert.assertEquals("{\"value\":\"urn:li:dataset:bar\"}", second.get().getResponseContent());
+  }
+
+  @Test
+  public void testBatchFlush() throws Exception {
+    RestEmitter emitter =
+        RestEmitter.create(
+            b ->
+                b.asyncHttpClientBuilder(mockHttpClientFactory)
+                    .maxBatchSize(100)
+                    .batchLingerMs(60000));
+    MetadataChangeProposalWrapper mcpw =
+        getMetadataChangeProposalWrapper("Test Dataset", "urn:li:dataset:foo");
+    Future<MetadataWriteResponse> future = emitter.emit(mcpw, null);
+    emitter.flush();
+
+    Mockito.verify(mockClient).execute(postArgumentCaptor.capture(), callbackCaptor.capture());
+    callbackCaptor.getValue().failed(new IOException("Test failure"));
+    try {
+      future.get();
+      Assert.fail("should not be here");
+    } catch (ExecutionException e) {
+      Assert.assertEquals("Test failure", e.getCause().getMessage());
+    }
+  }
+
   @Test
   public void mockServerTest() throws InterruptedException, ExecutionException, IOException {
     TestDataHubServer testDataHubServer = new TestDataHubServer();
@@ -705,6 +705,23 @@ public class JavaEntityClient implements EntityClient {
     return response.getValues();
   }
 
+  @Nonnull
+  @Override
+  public Map<Urn, List<EnvelopedAspect>> getLatestTimeseriesAspectValues(
+      @Nonnull Set<Urn> urns,
+      @Nonnull String entity,
+      @Nonnull String aspect,
+      @Nullable Long startTimeMillis,
+      @Nullable Long endTimeMillis,
+      int limit,
+      @Nullable Filter filter,
+      @Nullable SortCriterion sort,
+      @Nonnull final Authentication authentication)
+      throws RemoteInvocationException {
+    return timeseriesAspectService.getLatestAspectValues(
+        urns, entity, aspect, startTimeMillis, endTimeMillis, limit, filter, sort);
+  }
+
   // TODO: Factor out ingest logic into a util that can be accessed by the java client and the
   // resource
   @Override
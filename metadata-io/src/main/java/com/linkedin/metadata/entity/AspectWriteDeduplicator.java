@@ -0,0 +1,215 @@
+package com.linkedin.metadata.entity;
+
+import static com.linkedin.metadata.Constants.FORCE_INDEXING_KEY;
+
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.data.template.GetMode;
+import com.linkedin.data.template.RecordTemplate;
+import com.linkedin.events.metadata.ChangeType;
+import com.linkedin.metadata.aspect.batch.BatchItem;
+import com.linkedin.metadata.utils.metrics.MetricUtils;
+import com.linkedin.mxe.SystemMetadata;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.Getter;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Recognizes aspect writes that do not change the stored value.
+ *
+ * <p>Re-emitting an unchanged aspect, which ingestion sources do repeatedly, can be answered
+ * without opening a transaction: no row is written and no change log is produced. Whether a write
+ * is unchanged is decided against the latest row of its aspect, which must hold the same value,
+ * have been written or observed by the same ingestion run and have been observed at most {@code
+ * ttlSeconds} before, so the last observed time of a skipped aspect lags by at most that long and
+ * every run refreshes it. A hash of the last value written by this instance for each (urn, aspect)
+ * is kept in memory for as long, only to pick the writes worth checking against the row. Forced
+ * writes and aspects that always produce a change log are never skipped.
+ *
+ * <p>Independently of skipping, counts unchanged and changed writes per ingestion run id and
+ * reports the unchanged percentage of each run once the run has been idle for a while.
+ */
+@Slf4j
+public class AspectWriteDeduplicator {
+  private static final String NO_RUN_ID = "no-run-id";
+
+  @Getter private final boolean enabled;
+  private final long ttlMillis;
+  // By urn, then by aspect name
+  private final Cache<Urn, Map<String, StoredHash>> hashes;
+  private final Cache<String, RunStats> runs;
+
+  /**
+   * Writes of an aspect can be recorded out of order, the one with the highest order wins. The
+   * order is the version the aspect's history would take next, a write that changed the value
+   * ranks above an unchanged write that read the same version.
+   */
+  @Value
+  private static class StoredHash {
+    HashCode hash;
+    long order;
+  }
+
+  private static class RunStats {
+    private final LongAdder unchanged = new LongAdder();
+    private final LongAdder total = new LongAdder();
+  }
+
+  public AspectWriteDeduplicator(
+      boolean enabled, long maxEntries, long ttlSeconds, long runIdleSeconds) {
+    this.enabled = enabled;
+    this.ttlMillis = TimeUnit.SECONDS.toMillis(ttlSeconds);
+    this.hashes =
+        CacheBuilder.newBuilder()
+            .maximumSize(maxEntries)
+            .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+            .build();
+    this.runs =
+        CacheBuilder.newBuilder()
+            .maximumSize(10000)
+            .expireAfterAccess(runIdleSeconds, TimeUnit.SECONDS)
+            .removalListener(AspectWriteDeduplicator::reportRun)
+            .build();
+  }
+
+  /**
+   * Whether the item would write the same value as the last write of its aspect by this instance,
+   * which makes it worth checking against the latest row with {@link #isStored}. Only plain upserts
+   * are considered, patches need the stored value to be applied.
+   *
+   * @param emitsChangeLog whether the aspect produces a change log even when unchanged
+   */
+  public boolean isLikelyUnchanged(@Nonnull BatchItem item, boolean emitsChangeLog) {
+    if (!enabled
+        || emitsChangeLog
+        || item.getChangeType() != ChangeType.UPSERT
+        || item.getRecordTemplate() == null
+        || isForced(item.getSystemMetadata())) {
+      return false;
+    }
+    final Map<String, StoredHash> aspects = hashes.getIfPresent(item.getUrn());
+    final StoredHash previous = aspects == null ? null : aspects.get(item.getAspectName());
+    return previous != null && previous.getHash().equals(hash(item.getRecordTemplate()));
+  }
+
+  /**
+   * Whether the latest row of the item's aspect already holds its value, written or observed by the
+   * same ingestion run recently enough for the write to be skipped.
+   */
+  public boolean isStored(@Nonnull BatchItem item, @Nullable EntityAspect latest) {
+    if (latest == null || latest.getMetadata() == null || item.getRecordTemplate() == null) {
+      return false;
+    }
+    final SystemMetadata stored = EntityUtils.parseSystemMetadata(latest.getSystemMetadata());
+    final SystemMetadata provided = item.getSystemMetadata();
+    if (stored == null || provided == null || provided.getRunId(GetMode.NULL) == null) {
+      return false;
+    }
+    final String storedRunId =
+        stored.hasLastRunId() ? stored.getLastRunId() : stored.getRunId(GetMode.NULL);
+    return provided.getRunId().equals(storedRunId)
+        && stored.hasLastObserved()
+        && provided.hasLastObserved()
+        && provided.getLastObserved() - stored.getLastObserved() <= ttlMillis
+        && hash(latest.getMetadata()).equals(hash(item.getRecordTemplate()));
+  }
+
+  /**
+   * Remembers the value stored for an aspect by a committed write.
+   *
+   * @param nextVersion the version the write read as the next version of the aspect's history
+   * @param changed whether the write changed the stored value
+   */
+  public void recordStored(
+      @Nonnull Urn urn,
+      @Nonnull String aspectName,
+      @Nonnull RecordTemplate value,
+      long nextVersion,
+      boolean changed) {
+    if (!enabled) {
+      return;
+    }
+    final StoredHash stored = new StoredHash(hash(value), 2 * nextVersion + (changed ? 1 : 0));
+    hashes
+        .asMap()
+        .computeIfAbsent(urn, key -> new ConcurrentHashMap<>())
+        .merge(
+            aspectName,
+            stored,
+            (previous, current) -> current.getOrder() >= previous.getOrder() ? current : previous);
+  }
+
+  /** Forgets every aspect of an urn, after deletes and rollbacks. */
+  public void invalidate(@Nonnull Urn urn) {
+    if (!enabled) {
+      return;
+    }
+    hashes.invalidate(urn);
+  }
+
+  /** Counts the outcome of a write towards its ingestion run. */
+  public void recordOutcome(@Nullable SystemMetadata systemMetadata, boolean unchanged) {
+    MetricUtils.counter(this.getClass(), unchanged ? "unchangedWrites" : "changedWrites").inc();
+    final String runId =
+        systemMetadata != null && systemMetadata.getRunId() != null
+            ? systemMetadata.getRunId()
+            : NO_RUN_ID;
+    final RunStats stats = runs.asMap().computeIfAbsent(runId, id -> new RunStats());
+    stats.total.increment();
+    if (unchanged) {
+      stats.unchanged.increment();
+    }
+  }
+
+  /** Reports every run without waiting for it to go idle. */
+  @VisibleForTesting
+  void flushRuns() {
+    runs.invalidateAll();
+    runs.cleanUp();
+  }
+
+  private static boolean isForced(@Nullable SystemMetadata systemMetadata) {
+    return systemMetadata != null
+        && systemMetadata.getProperties() != null
+        && Boolean.parseBoolean(systemMetadata.getProperties().get(FORCE_INDEXING_KEY));
+  }
+
+  private static void reportRun(RemovalNotification<String, RunStats> notification) {
+    final RunStats stats = notification.getValue();
+    final long total = stats == null ? 0 : stats.total.sum();
+    if (total == 0) {
+      return;
+    }
+    final long unchanged = stats.unchanged.sum();
+    final long percent = unchanged * 100 / total;
+    MetricUtils.get()
+        .histogram(MetricRegistry.name(AspectWriteDeduplicator.class, "unchangedWritePercent"))
+        .update(percent);
+    log.info(
+        "Ingestion run {} wrote {} aspects, {} ({}%) were unchanged",
+        notification.getKey(), total, unchanged, percent);
+  }
+
+  @VisibleForTesting
+  static HashCode hash(@Nonnull RecordTemplate value) {
+    return hash(EntityUtils.toJsonAspect(value));
+  }
+
+  // Of a value as serialized into its row
+  private static HashCode hash(@Nonnull String json) {
+    return Hashing.murmur3_128().hashString(json, StandardCharsets.UTF_8);
+  }
+}
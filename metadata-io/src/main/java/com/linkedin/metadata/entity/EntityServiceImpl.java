@@ -150,6 +150,7 @@ public class EntityServiceImpl implements EntityService<ChangeItemImpl> {
   private final Map<String, Set<String>> entityToValidAspects;
   private RetentionService<ChangeItemImpl> retentionService;
   private final Boolean alwaysEmitChangeLog;
+  @Nullable private AspectWriteDeduplicator writeDeduplicator;
   @Nullable @Getter private SearchIndicesService updateIndicesService;
   private final PreProcessHooks preProcessHooks;
   protected static final int MAX_KEYS_PER_QUERY = 500;
@@ -625,20 +626,120 @@ public class EntityServiceImpl implements EntityService<ChangeItemImpl> {
   @Override
   public List<UpdateAspectResult> ingestAspects(
       @Nonnull final AspectsBatch aspectsBatch, boolean emitMCL, boolean overwrite) {
-    Set<BatchItem> items = new HashSet<>(aspectsBatch.getItems());
+    // Writes identical to the latest row of their aspect need neither a transaction nor a MCL
+    final List<UpdateAspectResult> unchangedResults = new ArrayList<>();
+    final AspectsBatch toWrite;
+    // Skipping one of several writes of an aspect in a batch could change which one is stored last
+    if (writeDeduplicator != null
+        && writeDeduplicator.isEnabled()
+        && overwrite
+        && !aspectsBatch.containsDuplicateAspects()) {
+      final List<BatchItem> candidates =
+          aspectsBatch.getItems().stream()
+              .filter(
+                  item ->
+                      item instanceof ChangeMCP
+                          && writeDeduplicator.isLikelyUnchanged(
+                              item,
+                              alwaysEmitChangeLog
+                                  || shouldAspectEmitChangeLog(item.getAspectSpec())))
+              .collect(Collectors.toList());
+      final Set<BatchItem> skipped = new HashSet<>();
+      if (!candidates.isEmpty()) {
+        // Outside of a transaction, a write racing with this read is ordered after the skip
+        final Map<String, Map<String, EntityAspect>> latestAspects =
+            aspectDao.getLatestAspects(
+                candidates.stream()
+                    .collect(
+                        Collectors.groupingBy(
+                            item -> item.getUrn().toString(),
+                            Collectors.mapping(BatchItem::getAspectName, Collectors.toSet()))));
+        for (BatchItem item : candidates) {
+          final EntityAspect latest =
+              latestAspects
+                  .getOrDefault(item.getUrn().toString(), Map.of())
+                  .get(item.getAspectName());
+          if (writeDeduplicator.isStored(item, latest)) {
+            skipped.add(item);
+            unchangedResults.add(unchangedResult((ChangeMCP) item, latest));
+          }
+        }
+      }
+      final List<BatchItem> remaining =
+          aspectsBatch.getItems().stream()
+              .filter(item -> !skipped.contains(item))
+              .collect(Collectors.toList());
+      MetricUtils.counter(this.getClass(), "skippedUnchangedWrites").inc(unchangedResults.size());
+      if (remaining.isEmpty()) {
+        recordWriteOutcomes(List.of(), unchangedResults);
+        return unchangedResults;
+      }
+      toWrite = AspectsBatchImpl.builder().aspectRetriever(this).items(remaining).build();
+    } else {
+      toWrite = aspectsBatch;
+    }
+
+    Set<BatchItem> items = new HashSet<>(toWrite.getItems());
 
     // Generate additional items as needed
-    items.addAll(DefaultAspectsUtil.getAdditionalChanges(aspectsBatch, this, enableBrowseV2));
+    items.addAll(DefaultAspectsUtil.getAdditionalChanges(toWrite, this, enableBrowseV2));
     AspectsBatch withDefaults =
         AspectsBatchImpl.builder().aspectRetriever(this).items(items).build();
 
     Timer.Context ingestToLocalDBTimer =
         MetricUtils.timer(this.getClass(), "ingestAspectsToLocalDB").time();
     List<UpdateAspectResult> ingestResults = ingestAspectsToLocalDB(withDefaults, overwrite);
+    recordWriteOutcomes(ingestResults, unchangedResults);
     List<UpdateAspectResult> mclResults = emitMCL(ingestResults, emitMCL);
     ingestToLocalDBTimer.stop();
 
-    return mclResults;
+    if (unchangedResults.isEmpty()) {
+      return mclResults;
+    }
+    List<UpdateAspectResult> results = new ArrayList<>(mclResults);
+    results.addAll(unchangedResults);
+    return results;
+  }
+
+  /** The result of a write skipped because its latest row already stores its value. */
+  private static UpdateAspectResult unchangedResult(ChangeMCP item, EntityAspect latest) {
+    final RecordTemplate value = item.getRecordTemplate();
+    final SystemMetadata systemMetadata =
+        EntityUtils.parseSystemMetadata(latest.getSystemMetadata());
+    return UpdateAspectResult.builder()
+        .urn(item.getUrn())
+        .request(item)
+        .oldValue(value)
+        .newValue(value)
+        .oldSystemMetadata(systemMetadata)
+        .newSystemMetadata(systemMetadata)
+        .operation(MetadataAuditOperation.UPDATE)
+        .auditStamp(item.getAuditStamp())
+        .maxVersion(0)
+        .build();
+  }
+
+  private void recordWriteOutcomes(
+      List<UpdateAspectResult> writtenResults, List<UpdateAspectResult> unchangedResults) {
+    if (writeDeduplicator == null) {
+      return;
+    }
+    for (UpdateAspectResult result : writtenResults) {
+      // No-op writes return the stored value itself as the new value
+      final boolean changed = result.getOldValue() != result.getNewValue();
+      if (result.getNewValue() != null) {
+        writeDeduplicator.recordStored(
+            result.getUrn(),
+            result.getRequest().getAspectName(),
+            result.getNewValue(),
+            result.getRequest().getNextAspectVersion(),
+            changed);
+      }
+      writeDeduplicator.recordOutcome(result.getRequest().getSystemMetadata(), !changed);
+    }
+    for (UpdateAspectResult result : unchangedResults) {
+      writeDeduplicator.recordOutcome(result.getRequest().getSystemMetadata(), true);
+    }
   }
 
   /**
@@ -1643,6 +1744,10 @@ public class EntityServiceImpl implements EntityService<ChangeItemImpl> {
     this.retentionService = retentionService;
   }
 
+  public void setWriteDeduplicator(@Nullable AspectWriteDeduplicator writeDeduplicator) {
+    this.writeDeduplicator = writeDeduplicator;
+  }
+
   protected Set<String> getEntityAspectNames(final Urn entityUrn) {
     return getEntityAspectNames(urnToEntityName(entityUrn));
   }
@@ -2017,6 +2122,9 @@ public class EntityServiceImpl implements EntityService<ChangeItemImpl> {
             },
             DEFAULT_MAX_TRANSACTION_RETRY);
 
+    if (writeDeduplicator != null) {
+      writeDeduplicator.invalidate(entityUrn);
+    }
     return result;
   }
 
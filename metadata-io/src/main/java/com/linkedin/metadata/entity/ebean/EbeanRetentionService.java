@@ -120,20 +120,88 @@ public class EbeanRetentionService<U extends ChangeMCP> extends RetentionService
     }
   }
 
-  private long getMaxVersion(@Nonnull final String urn, @Nonnull final String aspectName) {
-    List<EbeanAspectV2> result =
+  @Override
+  @WithSpan
+  public long compactRetention(@Nonnull RetentionContext retentionContext, int limit) {
+    Optional<Expression> retentionExpression =
+        retentionContext
+            .getRetentionPolicy()
+            .flatMap(
+                retention ->
+                    getRetentionQuery(
+                        retentionContext.getUrn(),
+                        retentionContext.getAspectName(),
+                        retention,
+                        retentionContext.getMaxVersion()));
+    if (retentionExpression.isEmpty()) {
+      return 0;
+    }
+    final String urn = retentionContext.getUrn().toString();
+    final String aspectName = retentionContext.getAspectName();
+
+    // Find the next batch of eligible versions walking the primary key, then delete that key
+    // range so the delete only locks the rows of a single bounded index range
+    List<EbeanAspectV2.PrimaryKey> keys =
         _server
             .find(EbeanAspectV2.class)
             .where()
-            .eq("urn", urn)
-            .eq("aspect", aspectName)
+            .eq(EbeanAspectV2.URN_COLUMN, urn)
+            .eq(EbeanAspectV2.ASPECT_COLUMN, aspectName)
+            .gt(EbeanAspectV2.VERSION_COLUMN, Constants.ASPECT_LATEST_VERSION)
+            .add(retentionExpression.get())
             .orderBy()
-            .desc("version")
-            .findList();
-    if (result.size() == 0) {
-      return -1;
+            .asc(EbeanAspectV2.VERSION_COLUMN)
+            .setMaxRows(limit)
+            .findIds();
+    if (keys.isEmpty()) {
+      return 0;
     }
-    return result.get(0).getKey().getVersion();
+
+    return _server
+        .find(EbeanAspectV2.class)
+        .where()
+        .eq(EbeanAspectV2.URN_COLUMN, urn)
+        .eq(EbeanAspectV2.ASPECT_COLUMN, aspectName)
+        .between(
+            EbeanAspectV2.VERSION_COLUMN,
+            keys.get(0).getVersion(),
+            keys.get(keys.size() - 1).getVersion())
+        .add(retentionExpression.get())
+        .delete();
+  }
+
+  private Optional<Expression> getRetentionQuery(
+      @Nonnull Urn urn,
+      @Nonnull String aspectName,
+      @Nonnull Retention retention,
+      @Nonnull Optional<Long> maxVersionFromUpdate) {
+    Optional<Expression> versionExpression =
+        retention.hasVersion()
+            ? getVersionBasedRetentionQuery(
+                urn, aspectName, retention.getVersion(), maxVersionFromUpdate)
+            : Optional.empty();
+    Optional<Expression> timeExpression =
+        retention.hasTime()
+            ? Optional.of(getTimeBasedRetentionQuery(retention.getTime()))
+            : Optional.empty();
+    if (versionExpression.isPresent() && timeExpression.isPresent()) {
+      return Optional.of(_server.expr().or(versionExpression.get(), timeExpression.get()));
+    }
+    return versionExpression.isPresent() ? versionExpression : timeExpression;
+  }
+
+  private long getMaxVersion(@Nonnull final String urn, @Nonnull final String aspectName) {
+    List<EbeanAspectV2.PrimaryKey> result =
+        _server
+            .find(EbeanAspectV2.class)
+            .where()
+            .eq(EbeanAspectV2.URN_COLUMN, urn)
+            .eq(EbeanAspectV2.ASPECT_COLUMN, aspectName)
+            .orderBy()
+            .desc(EbeanAspectV2.VERSION_COLUMN)
+            .setMaxRows(1)
+            .findIds();
+    return result.isEmpty() ? -1 : result.get(0).getVersion();
   }
 
   private Optional<Expression> getVersionBasedRetentionQuery(
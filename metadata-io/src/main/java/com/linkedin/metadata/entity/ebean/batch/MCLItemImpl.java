@@ -47,7 +47,26 @@ public class MCLItemImpl implements MCLItem {
       return MCLItemImpl.builder().metadataChangeLog(metadataChangeLog).build(aspectRetriever);
     }
 
+    /**
+     * Builds the item from aspects the caller has already deserialized from the change log, instead
+     * of decoding them again.
+     */
+    public MCLItemImpl build(
+        MetadataChangeLog metadataChangeLog,
+        @Nullable RecordTemplate aspect,
+        @Nullable RecordTemplate previousAspect,
+        AspectRetriever aspectRetriever) {
+      return MCLItemImpl.builder()
+          .metadataChangeLog(metadataChangeLog)
+          .build(aspectRetriever, Pair.of(aspect, previousAspect));
+    }
+
     public MCLItemImpl build(AspectRetriever aspectRetriever) {
+      return build(aspectRetriever, null);
+    }
+
+    private MCLItemImpl build(
+        AspectRetriever aspectRetriever, @Nullable Pair<RecordTemplate, RecordTemplate> decoded) {
       EntityRegistry entityRegistry = aspectRetriever.getEntityRegistry();
 
       log.debug("entity type = {}", this.metadataChangeLog.getEntityType());
@@ -73,7 +92,13 @@ public class MCLItemImpl implements MCLItem {
       log.debug("aspect spec = {}", this.aspectSpec);
 
       Pair<RecordTemplate, RecordTemplate> aspects =
-          convertToRecordTemplate(this.metadataChangeLog, aspectSpec);
+          decoded != null ? decoded : convertToRecordTemplate(this.metadataChangeLog, aspectSpec);
+      if (aspects.getFirst() != null) {
+        ValidationUtils.validateOrThrow(aspects.getFirst());
+      }
+      if (aspects.getSecond() != null) {
+        ValidationUtils.validateOrThrow(aspects.getSecond());
+      }
 
       // validate new
       ValidationUtils.validateRecordTemplate(
@@ -107,7 +132,6 @@ public class MCLItemImpl implements MCLItem {
           aspect =
               GenericRecordUtils.deserializeAspect(
                   mcl.getAspect().getValue(), mcl.getAspect().getContentType(), aspectSpec);
-          ValidationUtils.validateOrThrow(aspect);
         } else {
           aspect = null;
         }
@@ -118,7 +142,6 @@ public class MCLItemImpl implements MCLItem {
                   mcl.getPreviousAspectValue().getValue(),
                   mcl.getPreviousAspectValue().getContentType(),
                   aspectSpec);
-          ValidationUtils.validateOrThrow(prevAspect);
         } else {
           prevAspect = null;
         }
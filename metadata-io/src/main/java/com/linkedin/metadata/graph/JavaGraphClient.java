@@ -98,4 +98,27 @@ public class JavaGraphClient implements GraphClient {
         count != null ? count : 100,
         maxHops);
   }
+
+  /**
+   * Returns the shortest lineage paths leading from an upstream entity down to a downstream entity
+   * in the DataHub graph
+   */
+  @Nonnull
+  @Override
+  public LineagePathsResult getLineagePaths(
+      String rawUpstreamUrn,
+      String rawDownstreamUrn,
+      int maxHops,
+      int maxPaths,
+      @Nullable Long startTimeMillis,
+      @Nullable Long endTimeMillis,
+      String actor) {
+    return _graphService.findLineagePaths(
+        UrnUtils.getUrn(rawUpstreamUrn),
+        UrnUtils.getUrn(rawDownstreamUrn),
+        maxHops,
+        maxPaths,
+        startTimeMillis,
+        endTimeMillis);
+  }
 }
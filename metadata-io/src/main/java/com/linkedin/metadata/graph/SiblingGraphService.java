@@ -2,7 +2,8 @@ package com.linkedin.metadata.graph;
 
 import static com.linkedin.metadata.Constants.*;
 
-import com.google.common.collect.ImmutableList;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableSet;
 import com.linkedin.common.Siblings;
 import com.linkedin.common.UrnArray;
@@ -10,24 +11,70 @@ import com.linkedin.common.urn.Urn;
 import com.linkedin.data.template.RecordTemplate;
 import com.linkedin.metadata.entity.EntityService;
 import com.linkedin.metadata.shared.ValidationUtils;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.concurrent.TimeUnit;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Merges the lineage of an entity with the lineage of its siblings, so that a sibling group is
+ * presented as a single node.
+ *
+ * <p>The siblings aspects a request needs are read in one batched call per level of the sibling
+ * group and per merge step, and are remembered for the rest of the request. When a cache size is
+ * given they are also kept between requests for up to {@code cacheTtlSeconds}, change logs of the
+ * siblings aspect evict them through {@link #invalidateSiblings(Urn)}. Only the instance consuming
+ * the change log evicts, other instances keep serving the old aspect until it expires.
+ */
 @Slf4j
-@RequiredArgsConstructor
 public class SiblingGraphService {
 
+  /** Stands in for an entity without a siblings aspect, caches cannot hold null. */
+  private static final Siblings NO_SIBLINGS = new Siblings();
+
   private final EntityService _entityService;
   private final GraphService _graphService;
+  @Nullable private final Cache<Urn, Siblings> _siblingsCache;
+
+  public SiblingGraphService(
+      @Nonnull EntityService entityService, @Nonnull GraphService graphService) {
+    this(entityService, graphService, 0, 0);
+  }
+
+  /**
+   * @param cacheMaxSize number of siblings aspects kept between requests, 0 disables the cache
+   * @param cacheTtlSeconds how long a cached siblings aspect is trusted
+   */
+  public SiblingGraphService(
+      @Nonnull EntityService entityService,
+      @Nonnull GraphService graphService,
+      long cacheMaxSize,
+      long cacheTtlSeconds) {
+    _entityService = entityService;
+    _graphService = graphService;
+    _siblingsCache =
+        cacheMaxSize > 0 && cacheTtlSeconds > 0
+            ? CacheBuilder.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(cacheTtlSeconds, TimeUnit.SECONDS)
+                .build()
+            : null;
+  }
+
+  /** Forgets the cached siblings aspect of an entity, called when the aspect changes. */
+  public void invalidateSiblings(@Nonnull Urn urn) {
+    if (_siblingsCache != null) {
+      _siblingsCache.invalidate(urn);
+    }
+  }
 
   @Nonnull
   public EntityLineageResult getLineage(
@@ -60,6 +107,31 @@ public class SiblingGraphService {
       @Nonnull Set<Urn> visitedUrns,
       @Nullable Long startTimeMillis,
       @Nullable Long endTimeMillis) {
+    return getLineage(
+        entityUrn,
+        direction,
+        offset,
+        count,
+        maxHops,
+        separateSiblings,
+        visitedUrns,
+        startTimeMillis,
+        endTimeMillis,
+        new HashMap<>());
+  }
+
+  @Nonnull
+  private EntityLineageResult getLineage(
+      @Nonnull Urn entityUrn,
+      @Nonnull LineageDirection direction,
+      int offset,
+      int count,
+      int maxHops,
+      boolean separateSiblings,
+      @Nonnull Set<Urn> visitedUrns,
+      @Nullable Long startTimeMillis,
+      @Nullable Long endTimeMillis,
+      @Nonnull Map<Urn, Siblings> siblingsByUrn) {
     if (separateSiblings) {
       return ValidationUtils.validateEntityLineageResult(
           _graphService.getLineage(
@@ -77,18 +149,20 @@ public class SiblingGraphService {
         _graphService.getLineage(
             entityUrn, direction, offset, count, maxHops, startTimeMillis, endTimeMillis);
 
-    Siblings siblingAspectOfEntity =
-        (Siblings) _entityService.getLatestAspect(entityUrn, SIBLINGS_ASPECT_NAME);
+    // the whole group is resolved up front, the recursion over siblings finds it in memory
+    resolveSiblingGroup(entityUrn, siblingsByUrn);
+    Siblings siblingAspectOfEntity = siblingsByUrn.get(entityUrn);
 
     // if you have siblings, we want to fetch their lineage too and merge it in
-    if (siblingAspectOfEntity != null && siblingAspectOfEntity.hasSiblings()) {
+    if (siblingAspectOfEntity != NO_SIBLINGS && siblingAspectOfEntity.hasSiblings()) {
       UrnArray siblingUrns = siblingAspectOfEntity.getSiblings();
-      Set<Urn> allSiblingsInGroup = siblingUrns.stream().collect(Collectors.toSet());
+      Set<Urn> allSiblingsInGroup = new HashSet<>(siblingUrns);
       allSiblingsInGroup.add(entityUrn);
 
       // remove your siblings from your lineage
       entityLineage =
-          filterLineageResultFromSiblings(entityUrn, allSiblingsInGroup, entityLineage, null);
+          filterLineageResultFromSiblings(
+              entityUrn, allSiblingsInGroup, entityLineage, null, siblingsByUrn);
 
       // Update offset and count to fetch the correct number of edges from the next sibling node
       offset = Math.max(0, offset - entityLineage.getTotal());
@@ -115,8 +189,10 @@ public class SiblingGraphService {
                     false,
                     visitedUrns,
                     startTimeMillis,
-                    endTimeMillis),
-                entityLineage);
+                    endTimeMillis,
+                    siblingsByUrn),
+                entityLineage,
+                siblingsByUrn);
 
         // Update offset and count to fetch the correct number of edges from the next sibling node
         offset = Math.max(0, offset - nextEntityLineage.getTotal());
@@ -125,12 +201,69 @@ public class SiblingGraphService {
         entityLineage.setFiltered(getFiltered(entityLineage) + getFiltered(nextEntityLineage));
         entityLineage = nextEntityLineage;
       }
-      ;
     }
 
     return ValidationUtils.validateEntityLineageResult(entityLineage, _entityService);
   }
 
+  /** Reads the siblings aspects of the entity's sibling group, one batched read per level. */
+  private void resolveSiblingGroup(@Nonnull Urn urn, @Nonnull Map<Urn, Siblings> siblingsByUrn) {
+    Set<Urn> level = Collections.singleton(urn);
+    while (!level.isEmpty()) {
+      loadSiblings(level, siblingsByUrn);
+      final Set<Urn> nextLevel = new HashSet<>();
+      for (Urn levelUrn : level) {
+        final Siblings siblings = siblingsByUrn.get(levelUrn);
+        if (siblings != NO_SIBLINGS && siblings.hasSiblings()) {
+          for (Urn siblingUrn : siblings.getSiblings()) {
+            if (!siblingsByUrn.containsKey(siblingUrn)) {
+              nextLevel.add(siblingUrn);
+            }
+          }
+        }
+      }
+      level = nextLevel;
+    }
+  }
+
+  /**
+   * Adds the siblings aspects of the given entities to {@code siblingsByUrn}, reading the ones
+   * neither known to this request nor cached in a single batch.
+   */
+  private void loadSiblings(
+      @Nonnull Collection<Urn> urns, @Nonnull Map<Urn, Siblings> siblingsByUrn) {
+    final Set<Urn> missing = new HashSet<>();
+    for (Urn urn : urns) {
+      if (siblingsByUrn.containsKey(urn)) {
+        continue;
+      }
+      final Siblings cached = _siblingsCache != null ? _siblingsCache.getIfPresent(urn) : null;
+      if (cached != null) {
+        siblingsByUrn.put(urn, cached);
+      } else {
+        missing.add(urn);
+      }
+    }
+    if (missing.isEmpty()) {
+      return;
+    }
+
+    final Map<Urn, List<RecordTemplate>> aspects =
+        _entityService.getLatestAspects(missing, ImmutableSet.of(SIBLINGS_ASPECT_NAME));
+    for (Urn urn : missing) {
+      final Siblings siblings =
+          aspects.getOrDefault(urn, Collections.emptyList()).stream()
+              .filter(aspect -> aspect instanceof Siblings)
+              .map(aspect -> (Siblings) aspect)
+              .findAny()
+              .orElse(NO_SIBLINGS);
+      siblingsByUrn.put(urn, siblings);
+      if (_siblingsCache != null) {
+        _siblingsCache.put(urn, siblings);
+      }
+    }
+  }
+
   private int getFiltered(@Nullable EntityLineageResult entityLineageResult) {
     return (entityLineageResult != null && entityLineageResult.getFiltered() != null
         ? entityLineageResult.getFiltered()
@@ -143,87 +276,53 @@ public class SiblingGraphService {
       @Nonnull final Urn urn,
       @Nonnull final Set<Urn> allSiblingsInGroup,
       @Nonnull final EntityLineageResult entityLineageResult,
-      @Nullable final EntityLineageResult existingResult) {
+      @Nullable final EntityLineageResult existingResult,
+      @Nonnull final Map<Urn, Siblings> siblingsByUrn) {
     int numFiltered = 0;
 
-    // 1) remove the source entities siblings from this entity's downstreams
-    final Map<Boolean, List<LineageRelationship>> partitionedFilteredRelationships =
-        entityLineageResult.getRelationships().stream()
-            .collect(
-                Collectors.partitioningBy(
-                    lineageRelationship ->
-                        !allSiblingsInGroup.contains(lineageRelationship.getEntity())
-                            || lineageRelationship.getEntity().equals(urn)));
-    numFiltered += partitionedFilteredRelationships.get(Boolean.FALSE).size();
-
-    final List<LineageRelationship> filteredRelationships =
-        partitionedFilteredRelationships.get(Boolean.TRUE);
-
-    // 2) filter out existing lineage to avoid duplicates in our combined result
-    final Set<Urn> existingUrns =
-        existingResult != null
-            ? existingResult.getRelationships().stream()
-                .map(LineageRelationship::getEntity)
-                .collect(Collectors.toSet())
-            : new HashSet<>();
-
-    Map<Boolean, List<LineageRelationship>> partitionedUniqueFilteredRelationships =
-        filteredRelationships.stream()
-            .collect(
-                Collectors.partitioningBy(
-                    lineageRelationship ->
-                        !existingUrns.contains(lineageRelationship.getEntity())));
-    numFiltered += partitionedUniqueFilteredRelationships.get(Boolean.FALSE).size();
-
-    List<LineageRelationship> uniqueFilteredRelationships =
-        partitionedUniqueFilteredRelationships.get(Boolean.TRUE);
+    final Set<Urn> existingUrns = new HashSet<>();
+    if (existingResult != null) {
+      existingResult
+          .getRelationships()
+          .forEach(relationship -> existingUrns.add(relationship.getEntity()));
+    }
+
+    // 1) remove the source entities siblings from this entity's downstreams and 2) filter out
+    // existing lineage to avoid duplicates in our combined result
+    final List<LineageRelationship> combinedResults = new ArrayList<>();
+    for (LineageRelationship lineageRelationship : entityLineageResult.getRelationships()) {
+      final Urn entity = lineageRelationship.getEntity();
+      if ((allSiblingsInGroup.contains(entity) && !entity.equals(urn))
+          || existingUrns.contains(entity)) {
+        numFiltered++;
+      } else {
+        combinedResults.add(lineageRelationship);
+      }
+    }
 
     // 3) combine this entity's lineage with the lineage we've already seen
-    final List<LineageRelationship> combinedResults =
-        Stream.concat(
-                uniqueFilteredRelationships.stream(),
-                existingResult != null
-                    ? existingResult.getRelationships().stream()
-                    : ImmutableList.<LineageRelationship>of().stream())
-            .collect(Collectors.toList());
+    if (existingResult != null) {
+      combinedResults.addAll(existingResult.getRelationships());
+    }
 
     // 4) fetch the siblings of each lineage result
-    final Set<Urn> combinedResultUrns =
-        combinedResults.stream().map(LineageRelationship::getEntity).collect(Collectors.toSet());
-
-    final Map<Urn, List<RecordTemplate>> siblingAspects =
-        _entityService.getLatestAspects(combinedResultUrns, ImmutableSet.of(SIBLINGS_ASPECT_NAME));
+    final Set<Urn> combinedResultUrns = new HashSet<>();
+    combinedResults.forEach(relationship -> combinedResultUrns.add(relationship.getEntity()));
+    loadSiblings(combinedResultUrns, siblingsByUrn);
 
     // 5) if you are not primary & your sibling is in the results, filter yourself out of the return
     // set
-    Map<Boolean, List<LineageRelationship>> partitionedFilteredSiblings =
-        combinedResults.stream()
-            .collect(
-                Collectors.partitioningBy(
-                    result -> {
-                      Optional<RecordTemplate> optionalSiblingsAspect =
-                          siblingAspects.get(result.getEntity()).stream()
-                              .filter(aspect -> aspect instanceof Siblings)
-                              .findAny();
-
-                      if (optionalSiblingsAspect.isEmpty()) {
-                        return true;
-                      }
-
-                      final Siblings siblingsAspect = (Siblings) optionalSiblingsAspect.get();
-
-                      if (siblingsAspect.isPrimary()) {
-                        return true;
-                      }
-
-                      // if you are not primary and your sibling exists in the result set, filter
-                      // yourself out
-                      return siblingsAspect.getSiblings().stream()
-                          .noneMatch(combinedResultUrns::contains);
-                    }));
-
-    numFiltered += partitionedFilteredSiblings.get(Boolean.FALSE).size();
-    uniqueFilteredRelationships = partitionedFilteredSiblings.get(Boolean.TRUE);
+    final List<LineageRelationship> uniqueFilteredRelationships = new ArrayList<>();
+    for (LineageRelationship result : combinedResults) {
+      final Siblings siblingsAspect = siblingsByUrn.get(result.getEntity());
+      if (siblingsAspect == NO_SIBLINGS
+          || siblingsAspect.isPrimary()
+          || siblingsAspect.getSiblings().stream().noneMatch(combinedResultUrns::contains)) {
+        uniqueFilteredRelationships.add(result);
+      } else {
+        numFiltered++;
+      }
+    }
 
     EntityLineageResult combinedLineageResult = new EntityLineageResult();
     combinedLineageResult.setStart(entityLineageResult.getStart());
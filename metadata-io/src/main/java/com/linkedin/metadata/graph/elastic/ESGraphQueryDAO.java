@@ -14,8 +14,13 @@ import com.linkedin.common.urn.Urn;
 import com.linkedin.common.urn.UrnUtils;
 import com.linkedin.data.template.IntegerArray;
 import com.linkedin.metadata.config.search.GraphQueryConfiguration;
+import com.linkedin.metadata.graph.Edge;
 import com.linkedin.metadata.graph.GraphFilters;
+import com.linkedin.metadata.graph.GraphService.LineageExportResult;
+import com.linkedin.metadata.graph.GraphService.LineageHopConsumer;
 import com.linkedin.metadata.graph.LineageDirection;
+import com.linkedin.metadata.graph.LineagePathFinder;
+import com.linkedin.metadata.graph.LineagePathsResult;
 import com.linkedin.metadata.graph.LineageRelationship;
 import com.linkedin.metadata.models.registry.LineageRegistry;
 import com.linkedin.metadata.models.registry.LineageRegistry.EdgeInfo;
@@ -32,7 +37,10 @@ import com.linkedin.metadata.utils.ConcurrencyUtils;
 import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
 import com.linkedin.metadata.utils.metrics.MetricUtils;
 import io.opentelemetry.extension.annotations.WithSpan;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -43,11 +51,14 @@ import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.tuple.Pair;
@@ -60,6 +71,7 @@ import org.opensearch.index.query.QueryBuilder;
 import org.opensearch.index.query.QueryBuilders;
 import org.opensearch.search.SearchHit;
 import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.search.sort.SortOrder;
 
 /** A search DAO for Elasticsearch backend. */
 @Slf4j
@@ -72,6 +84,12 @@ public class ESGraphQueryDAO {
 
   private final GraphQueryConfiguration graphQueryConfiguration;
 
+  // Answers lineage hops in memory once loaded, the graph index is searched until then
+  @Setter @Nullable private LineageGraphIndex lineageGraphIndex;
+
+  // Searches the indices routed by source and destination urn instead of the single graph index
+  @Setter private boolean routedIndices = false;
+
   static final String SOURCE = "source";
   static final String DESTINATION = "destination";
   static final String RELATIONSHIP_TYPE = "relationshipType";
@@ -119,8 +137,12 @@ public class ESGraphQueryDAO {
 
     searchRequest.source(searchSourceBuilder);
 
-    searchRequest.indices(indexConvention.getIndexName(INDEX_NAME));
+    searchRequest.indices(getEdgesIndexName());
+
+    return executeSearchRequest(searchRequest);
+  }
 
+  private SearchResponse executeSearchRequest(@Nonnull SearchRequest searchRequest) {
     try (Timer.Context ignored = MetricUtils.timer(this.getClass(), "esQuery").time()) {
       MetricUtils.counter(this.getClass(), SEARCH_EXECUTIONS_METRIC).inc();
       return client.search(searchRequest, RequestOptions.DEFAULT);
@@ -130,6 +152,11 @@ public class ESGraphQueryDAO {
     }
   }
 
+  // Every edge is in the single graph index or, with routed indices, in the one routed by source
+  private String getEdgesIndexName() {
+    return indexConvention.getIndexName(routedIndices ? SOURCE_ROUTED_INDEX_NAME : INDEX_NAME);
+  }
+
   private SearchResponse executeSearchQuery(
       @Nonnull final QueryBuilder query,
       @Nullable Object[] sort,
@@ -145,7 +172,7 @@ public class ESGraphQueryDAO {
     searchSourceBuilder.query(query);
 
     searchRequest.source(searchSourceBuilder);
-    searchRequest.indices(indexConvention.getIndexName(INDEX_NAME));
+    searchRequest.indices(getEdgesIndexName());
 
     try (Timer.Context ignored = MetricUtils.timer(this.getClass(), "esQuery").time()) {
       MetricUtils.counter(this.getClass(), SEARCH_EXECUTIONS_METRIC).inc();
@@ -381,6 +408,21 @@ public class ESGraphQueryDAO {
       @Nullable Long startTimeMillis,
       @Nullable Long endTimeMillis,
       boolean exploreMultiplePaths) {
+    if (isLineageGraphIndexReady()) {
+      // A hop on the in-memory graph is cheap enough to not split or bound
+      return getLineageRelationships(
+          entityUrns,
+          direction,
+          graphFilters,
+          visitedEntities,
+          viaEntities,
+          numHops,
+          remainingHops,
+          existingPaths,
+          startTimeMillis,
+          endTimeMillis,
+          exploreMultiplePaths);
+    }
     List<List<Urn>> batches = Lists.partition(entityUrns, graphQueryConfiguration.getBatchSize());
     return ConcurrencyUtils.getAllCompleted(
             batches.stream()
@@ -422,31 +464,15 @@ public class ESGraphQueryDAO {
       @Nullable Long startTimeMillis,
       @Nullable Long endTimeMillis,
       boolean exploreMultiplePaths) {
-    Map<String, List<Urn>> urnsPerEntityType =
-        entityUrns.stream().collect(Collectors.groupingBy(Urn::getEntityType));
-    Map<String, List<EdgeInfo>> edgesPerEntityType =
-        urnsPerEntityType.keySet().stream()
-            .collect(
-                Collectors.toMap(
-                    Function.identity(),
-                    entityType -> lineageRegistry.getLineageRelationships(entityType, direction)));
-
-    QueryBuilder finalQuery =
-        getLineageQuery(
-            urnsPerEntityType, edgesPerEntityType, graphFilters, startTimeMillis, endTimeMillis);
-    SearchResponse response =
-        executeSearchQuery(finalQuery, 0, graphQueryConfiguration.getMaxResult());
     Set<Urn> entityUrnSet = new HashSet<>(entityUrns);
     // Get all valid edges given the set of urns to hop from
-    Set<Pair<String, EdgeInfo>> validEdges =
-        edgesPerEntityType.entrySet().stream()
-            .flatMap(
-                entry ->
-                    entry.getValue().stream().map(edgeInfo -> Pair.of(entry.getKey(), edgeInfo)))
-            .collect(Collectors.toSet());
+    Set<Pair<String, EdgeInfo>> validEdges = getValidEdges(entityUrnSet, direction);
+    List<Edge> edges =
+        getLineageEdges(
+            entityUrns, validEdges, direction, graphFilters, startTimeMillis, endTimeMillis);
     return extractRelationships(
         entityUrnSet,
-        response,
+        edges,
         validEdges,
         visitedEntities,
         viaEntities,
@@ -456,6 +482,398 @@ public class ESGraphQueryDAO {
         exploreMultiplePaths);
   }
 
+  private Set<Pair<String, EdgeInfo>> getValidEdges(
+      @Nonnull Set<Urn> entityUrns, @Nonnull LineageDirection direction) {
+    return entityUrns.stream()
+        .map(Urn::getEntityType)
+        .distinct()
+        .flatMap(
+            entityType ->
+                lineageRegistry.getLineageRelationships(entityType, direction).stream()
+                    .map(edgeInfo -> Pair.of(entityType, edgeInfo)))
+        .collect(Collectors.toSet());
+  }
+
+  // Get the lineage edges of the given urns in the given direction
+  private List<Edge> getLineageEdges(
+      @Nonnull List<Urn> entityUrns,
+      @Nonnull Set<Pair<String, EdgeInfo>> validEdges,
+      @Nonnull LineageDirection direction,
+      GraphFilters graphFilters,
+      @Nullable Long startTimeMillis,
+      @Nullable Long endTimeMillis) {
+    return getLineageEdges(
+        entityUrns,
+        validEdges,
+        direction,
+        graphFilters,
+        startTimeMillis,
+        endTimeMillis,
+        new AtomicBoolean(false));
+  }
+
+  // Same, truncated is set when a search returned as many edges as it may, leaving others out
+  private List<Edge> getLineageEdges(
+      @Nonnull List<Urn> entityUrns,
+      @Nonnull Set<Pair<String, EdgeInfo>> validEdges,
+      @Nonnull LineageDirection direction,
+      GraphFilters graphFilters,
+      @Nullable Long startTimeMillis,
+      @Nullable Long endTimeMillis,
+      @Nonnull AtomicBoolean truncated) {
+    if (isLineageGraphIndexReady()) {
+      return lineageGraphIndex.getEdges(
+          new HashSet<>(entityUrns),
+          validEdges,
+          graphFilters.getAllowedEntityTypes(),
+          startTimeMillis,
+          endTimeMillis);
+    }
+    final List<Edge> edges = new ArrayList<>();
+    for (SearchRequest searchRequest :
+        getLineageEdgesRequests(
+            entityUrns, direction, graphFilters, startTimeMillis, endTimeMillis)) {
+      searchRequest.source().from(0).size(graphQueryConfiguration.getMaxResult());
+      SearchResponse response = executeSearchRequest(searchRequest);
+      if (response.getHits().getHits().length >= graphQueryConfiguration.getMaxResult()) {
+        truncated.set(true);
+      }
+      edges.addAll(toEdges(response));
+    }
+    return edges;
+  }
+
+  private List<SearchRequest> getLineageEdgesRequests(
+      @Nonnull List<Urn> entityUrns,
+      @Nonnull LineageDirection direction,
+      GraphFilters graphFilters,
+      @Nullable Long startTimeMillis,
+      @Nullable Long endTimeMillis) {
+    Map<String, List<Urn>> urnsPerEntityType =
+        entityUrns.stream().collect(Collectors.groupingBy(Urn::getEntityType));
+    Map<String, List<EdgeInfo>> edgesPerEntityType =
+        urnsPerEntityType.keySet().stream()
+            .collect(
+                Collectors.toMap(
+                    Function.identity(),
+                    entityType -> lineageRegistry.getLineageRelationships(entityType, direction)));
+    if (!routedIndices) {
+      return List.of(
+          new SearchRequest(indexConvention.getIndexName(INDEX_NAME))
+              .source(
+                  new SearchSourceBuilder()
+                      .query(
+                          getLineageQuery(
+                              urnsPerEntityType,
+                              edgesPerEntityType,
+                              graphFilters,
+                              startTimeMillis,
+                              endTimeMillis))));
+    }
+
+    // Outgoing edges are read from the copy routed by source and incoming edges from the copy
+    // routed by destination, so each search only reaches the shards the urns are routed to
+    final String[] routing =
+        entityUrns.stream().map(urn -> toRouting(urn.toString())).distinct().toArray(String[]::new);
+    final List<SearchRequest> searchRequests = new ArrayList<>();
+    for (RelationshipDirection edgeDirection :
+        List.of(RelationshipDirection.OUTGOING, RelationshipDirection.INCOMING)) {
+      Map<String, List<EdgeInfo>> directedEdgesPerEntityType =
+          edgesPerEntityType.entrySet().stream()
+              .collect(
+                  Collectors.toMap(
+                      Map.Entry::getKey,
+                      entry ->
+                          entry.getValue().stream()
+                              .filter(edgeInfo -> edgeInfo.getDirection() == edgeDirection)
+                              .collect(Collectors.toList())));
+      // Without any edge to follow the query would match every edge
+      if (directedEdgesPerEntityType.values().stream().allMatch(List::isEmpty)) {
+        continue;
+      }
+      searchRequests.add(
+          new SearchRequest(
+                  indexConvention.getIndexName(
+                      edgeDirection == RelationshipDirection.OUTGOING
+                          ? SOURCE_ROUTED_INDEX_NAME
+                          : DESTINATION_ROUTED_INDEX_NAME))
+              .routing(routing)
+              .source(
+                  new SearchSourceBuilder()
+                      .query(
+                          getLineageQuery(
+                              urnsPerEntityType,
+                              directedEdgesPerEntityType,
+                              graphFilters,
+                              startTimeMillis,
+                              endTimeMillis))));
+    }
+    return searchRequests;
+  }
+
+  /**
+   * Finds the shortest lineage paths from upstreamUrn to downstreamUrn, expanding each frontier of
+   * the search a level at a time in batches like {@link #getLineage} does.
+   */
+  @WithSpan
+  public LineagePathsResult findLineagePaths(
+      @Nonnull Urn upstreamUrn,
+      @Nonnull Urn downstreamUrn,
+      int maxHops,
+      int maxPaths,
+      @Nullable Long startTimeMillis,
+      @Nullable Long endTimeMillis) {
+    final GraphFilters graphFilters =
+        new GraphFilters(new ArrayList<>(lineageRegistry.getEntitiesWithLineage()));
+    return LineagePathFinder.findPaths(
+        upstreamUrn,
+        downstreamUrn,
+        maxHops,
+        maxPaths,
+        graphQueryConfiguration.getTimeoutSeconds() * 1000,
+        (frontier, direction, remainingMillis) ->
+            getLineageHopsInBatches(
+                frontier,
+                direction,
+                graphFilters,
+                remainingMillis,
+                startTimeMillis,
+                endTimeMillis));
+  }
+
+  /**
+   * One hop of lineage from each of the given urns, fetched in batches with a timeout. Unlike
+   * {@link #getLineageRelationshipsInBatches} no paths are tracked.
+   *
+   * @return the urns one hop away, by the urn they were reached from, truncated when a batch
+   *     failed, timed out or read as many edges as a search returns at most
+   */
+  @WithSpan
+  public LineagePathFinder.Hops getLineageHopsInBatches(
+      @Nonnull List<Urn> entityUrns,
+      @Nonnull LineageDirection direction,
+      GraphFilters graphFilters,
+      long remainingTime,
+      @Nullable Long startTimeMillis,
+      @Nullable Long endTimeMillis) {
+    List<List<Urn>> batches =
+        isLineageGraphIndexReady()
+            ? List.of(entityUrns)
+            : Lists.partition(entityUrns, graphQueryConfiguration.getBatchSize());
+    List<LineagePathFinder.Hops> batchHops =
+        ConcurrencyUtils.getAllCompleted(
+            batches.stream()
+                .map(
+                    batchUrns ->
+                        CompletableFuture.supplyAsync(
+                            () ->
+                                getLineageHops(
+                                    batchUrns,
+                                    direction,
+                                    graphFilters,
+                                    startTimeMillis,
+                                    endTimeMillis)))
+                .collect(Collectors.toList()),
+            remainingTime,
+            TimeUnit.MILLISECONDS);
+    // Batches that failed or timed out are left out
+    boolean truncated = batchHops.size() < batches.size();
+    Map<Urn, Set<Urn>> hops = new HashMap<>();
+    for (LineagePathFinder.Hops batch : batchHops) {
+      truncated |= batch.isTruncated();
+      for (Map.Entry<Urn, Set<Urn>> entry : batch.getHops().entrySet()) {
+        hops.computeIfAbsent(entry.getKey(), key -> new HashSet<>()).addAll(entry.getValue());
+      }
+    }
+    return new LineagePathFinder.Hops(hops, truncated);
+  }
+
+  private LineagePathFinder.Hops getLineageHops(
+      @Nonnull List<Urn> entityUrns,
+      @Nonnull LineageDirection direction,
+      GraphFilters graphFilters,
+      @Nullable Long startTimeMillis,
+      @Nullable Long endTimeMillis) {
+    Set<Urn> entityUrnSet = new HashSet<>(entityUrns);
+    Set<Pair<String, EdgeInfo>> validEdges = getValidEdges(entityUrnSet, direction);
+    AtomicBoolean truncated = new AtomicBoolean(false);
+    Map<Urn, Set<Urn>> hops =
+        extractHops(
+            entityUrnSet,
+            getLineageEdges(
+                entityUrns,
+                validEdges,
+                direction,
+                graphFilters,
+                startTimeMillis,
+                endTimeMillis,
+                truncated),
+            validEdges);
+    return new LineagePathFinder.Hops(hops, truncated.get());
+  }
+
+  /**
+   * Walks the lineage of an entity level by level and hands every lineage edge to the consumer as
+   * soon as it is read, instead of collecting the whole lineage first like {@link #getLineage}
+   * does. Levels are read in batches and each batch a page at a time, one request after the
+   * other, so a consumer that blocks, such as a write to a slow client, holds the walk back. Apart
+   * from the page at hand, only the fingerprints of the visited entities and the next level are
+   * kept.
+   */
+  @WithSpan
+  public LineageExportResult exportLineage(
+      @Nonnull Urn entityUrn,
+      @Nonnull LineageDirection direction,
+      int maxHops,
+      @Nullable Long startTimeMillis,
+      @Nullable Long endTimeMillis,
+      @Nonnull LineageHopConsumer consumer)
+      throws IOException {
+    final GraphFilters graphFilters =
+        new GraphFilters(new ArrayList<>(lineageRegistry.getEntitiesWithLineage()));
+    final LineageExport export =
+        new LineageExport(consumer, graphQueryConfiguration.getExportMaxEntities());
+    export.visited.add(entityUrn);
+    List<Urn> currentLevel = List.of(entityUrn);
+
+    for (int degree = 1; degree <= maxHops && !currentLevel.isEmpty(); degree++) {
+      export.degree = degree;
+      export.nextLevel = new ArrayList<>();
+      for (List<Urn> batchUrns :
+          Lists.partition(currentLevel, graphQueryConfiguration.getBatchSize())) {
+        final Set<Urn> batchUrnSet = new HashSet<>(batchUrns);
+        final Set<Pair<String, EdgeInfo>> validEdges = getValidEdges(batchUrnSet, direction);
+        if (isLineageGraphIndexReady()) {
+          if (!export.accept(
+              batchUrnSet,
+              lineageGraphIndex.getEdges(
+                  batchUrnSet,
+                  validEdges,
+                  graphFilters.getAllowedEntityTypes(),
+                  startTimeMillis,
+                  endTimeMillis),
+              validEdges)) {
+            return new LineageExportResult(export.visited.size(), true);
+          }
+          continue;
+        }
+        final int pageSize = graphQueryConfiguration.getMaxResult();
+        for (SearchRequest searchRequest :
+            getLineageEdgesRequests(
+                batchUrns, direction, graphFilters, startTimeMillis, endTimeMillis)) {
+          Object[] sort = null;
+          SearchHit[] hits;
+          do {
+            hits = searchEdgePage(searchRequest, sort, pageSize, "esExportLineage");
+            final List<Edge> edges =
+                Arrays.stream(hits)
+                    .map(hit -> toEdge(hit.getSourceAsMap()))
+                    .collect(Collectors.toList());
+            if (!export.accept(batchUrnSet, edges, validEdges)) {
+              return new LineageExportResult(export.visited.size(), true);
+            }
+            if (hits.length > 0) {
+              sort = hits[hits.length - 1].getSortValues();
+            }
+          } while (hits.length == pageSize);
+        }
+      }
+      currentLevel = export.nextLevel;
+    }
+    return new LineageExportResult(export.visited.size(), false);
+  }
+
+  /** State of a lineage export across the pages of edges it reads. */
+  @RequiredArgsConstructor
+  private static class LineageExport {
+    private final LineageHopConsumer consumer;
+    private final int maxEntities;
+    private final UrnFingerprintSet visited = new UrnFingerprintSet();
+    private int degree;
+    private List<Urn> nextLevel;
+
+    // Hands the hops through the given edges to the consumer, false once too many were visited
+    private boolean accept(
+        @Nonnull Set<Urn> fromUrns,
+        @Nonnull List<Edge> edges,
+        @Nonnull Set<Pair<String, EdgeInfo>> validEdges)
+        throws IOException {
+      for (Pair<Urn, Edge> hop : extractHopEdges(fromUrns, edges, validEdges)) {
+        final Urn toUrn = hop.getLeft();
+        final Edge edge = hop.getRight();
+        if (!visited.contains(toUrn)) {
+          if (visited.size() >= maxEntities) {
+            return false;
+          }
+          visited.add(toUrn);
+          nextLevel.add(toUrn);
+        }
+        consumer.accept(
+            degree,
+            edge.getSource().equals(toUrn) ? edge.getDestination() : edge.getSource(),
+            toUrn,
+            edge);
+      }
+      return true;
+    }
+  }
+
+  // Given set of edges, the urns each of the input entityUrns reaches through a valid edge, read
+  // the same way as extractRelationships
+  @VisibleForTesting
+  static Map<Urn, Set<Urn>> extractHops(
+      @Nonnull Set<Urn> entityUrns,
+      @Nonnull List<Edge> edges,
+      @Nonnull Set<Pair<String, EdgeInfo>> validEdges) {
+    Map<Urn, Set<Urn>> hops = new HashMap<>();
+    for (Pair<Urn, Edge> hop : extractHopEdges(entityUrns, edges, validEdges)) {
+      final Urn reachedUrn = hop.getLeft();
+      final Edge edge = hop.getRight();
+      final Urn fromUrn =
+          edge.getSource().equals(reachedUrn) ? edge.getDestination() : edge.getSource();
+      hops.computeIfAbsent(fromUrn, key -> new HashSet<>()).add(reachedUrn);
+    }
+    return hops;
+  }
+
+  // Given set of edges, the valid edges leading away from the input entityUrns, each with the urn
+  // it reaches
+  private static List<Pair<Urn, Edge>> extractHopEdges(
+      @Nonnull Set<Urn> entityUrns,
+      @Nonnull List<Edge> edges,
+      @Nonnull Set<Pair<String, EdgeInfo>> validEdges) {
+    List<Pair<Urn, Edge>> hops = new ArrayList<>();
+    for (Edge edge : edges) {
+      final Urn sourceUrn = edge.getSource();
+      final Urn destinationUrn = edge.getDestination();
+      final String type = edge.getRelationshipType();
+      if (sourceUrn.equals(destinationUrn)) {
+        continue;
+      }
+      if (entityUrns.contains(sourceUrn)
+          && validEdges.contains(
+              Pair.of(
+                  sourceUrn.getEntityType(),
+                  new EdgeInfo(
+                      type,
+                      RelationshipDirection.OUTGOING,
+                      destinationUrn.getEntityType().toLowerCase())))) {
+        hops.add(Pair.of(destinationUrn, edge));
+      }
+      if (entityUrns.contains(destinationUrn)
+          && validEdges.contains(
+              Pair.of(
+                  destinationUrn.getEntityType(),
+                  new EdgeInfo(
+                      type,
+                      RelationshipDirection.INCOMING,
+                      sourceUrn.getEntityType().toLowerCase())))) {
+        hops.add(Pair.of(sourceUrn, edge));
+      }
+    }
+    return hops;
+  }
+
   @VisibleForTesting
   public static QueryBuilder getLineageQuery(
       @Nonnull Map<String, List<Urn>> urnsPerEntityType,
@@ -614,8 +1032,9 @@ public class ESGraphQueryDAO {
 
   // Given set of edges and the search response, extract all valid edges that originate from the
   // input entityUrns
+  @VisibleForTesting
   @WithSpan
-  private static List<LineageRelationship> extractRelationships(
+  public static List<LineageRelationship> extractRelationships(
       @Nonnull Set<Urn> entityUrns,
       @Nonnull SearchResponse searchResponse,
       Set<Pair<String, EdgeInfo>> validEdges,
@@ -625,52 +1044,50 @@ public class ESGraphQueryDAO {
       int remainingHops,
       Map<Urn, UrnArrayArray> existingPaths,
       boolean exploreMultiplePaths) {
+    return extractRelationships(
+        entityUrns,
+        toEdges(searchResponse),
+        validEdges,
+        visitedEntities,
+        viaEntities,
+        numHops,
+        remainingHops,
+        existingPaths,
+        exploreMultiplePaths);
+  }
+
+  // Given set of edges, extract all valid edges that originate from the input entityUrns
+  @WithSpan
+  public static List<LineageRelationship> extractRelationships(
+      @Nonnull Set<Urn> entityUrns,
+      @Nonnull List<Edge> edges,
+      Set<Pair<String, EdgeInfo>> validEdges,
+      Set<Urn> visitedEntities,
+      Set<Urn> viaEntities,
+      int numHops,
+      int remainingHops,
+      Map<Urn, UrnArrayArray> existingPaths,
+      boolean exploreMultiplePaths) {
     try {
       Map<Urn, LineageRelationship> lineageRelationshipMap = new HashMap<>();
-      final SearchHit[] hits = searchResponse.getHits().getHits();
-      log.debug("numHits: {}, numHops {}, remainingHops {}", hits.length, numHops, remainingHops);
+      log.debug("numHits: {}, numHops {}, remainingHops {}", edges.size(), numHops, remainingHops);
       int index = -1;
-      for (SearchHit hit : hits) {
+      for (Edge edge : edges) {
         index++;
-        final Map<String, Object> document = hit.getSourceAsMap();
-        final Urn sourceUrn =
-            UrnUtils.getUrn(((Map<String, Object>) document.get(SOURCE)).get("urn").toString());
-        final Urn destinationUrn =
-            UrnUtils.getUrn(
-                ((Map<String, Object>) document.get(DESTINATION)).get("urn").toString());
-        final String type = document.get(RELATIONSHIP_TYPE).toString();
+        final Urn sourceUrn = edge.getSource();
+        final Urn destinationUrn = edge.getDestination();
+        final String type = edge.getRelationshipType();
         if (sourceUrn.equals(destinationUrn)) {
           log.debug("Skipping a self-edge of type {} on {}", type, sourceUrn);
           continue;
         }
-        final Number createdOnNumber = (Number) document.getOrDefault(CREATED_ON, null);
-        final Long createdOn = createdOnNumber != null ? createdOnNumber.longValue() : null;
-        final Number updatedOnNumber = (Number) document.getOrDefault(UPDATED_ON, null);
-        final Long updatedOn = updatedOnNumber != null ? updatedOnNumber.longValue() : null;
-        final String createdActorString = (String) document.getOrDefault(CREATED_ACTOR, null);
-        final Urn createdActor =
-            createdActorString == null ? null : UrnUtils.getUrn(createdActorString);
-        final String updatedActorString = (String) document.getOrDefault(UPDATED_ACTOR, null);
-        final Urn updatedActor =
-            updatedActorString == null ? null : UrnUtils.getUrn(updatedActorString);
-        final Map<String, Object> properties;
-        if (document.containsKey(PROPERTIES) && document.get(PROPERTIES) instanceof Map) {
-          properties = (Map<String, Object>) document.get(PROPERTIES);
-        } else {
-          properties = Collections.emptyMap();
-        }
-        boolean isManual = properties.containsKey(SOURCE) && properties.get(SOURCE).equals("UI");
-        Urn viaEntity = null;
-        String viaContent = (String) document.getOrDefault(EDGE_FIELD_VIA, null);
-        if (viaContent != null) {
-          try {
-            viaEntity = Urn.createFromString(viaContent);
-          } catch (Exception e) {
-            log.warn(
-                "Failed to parse urn from via entity {}, will swallow exception and continue...",
-                viaContent);
-          }
-        }
+        final Long createdOn = edge.getCreatedOn();
+        final Urn createdActor = edge.getCreatedActor();
+        final Long updatedOn = edge.getUpdatedOn();
+        final Urn updatedActor = edge.getUpdatedActor();
+        final Map<String, Object> properties = edge.getProperties();
+        boolean isManual = properties != null && UI.equals(properties.get(SOURCE));
+        final Urn viaEntity = edge.getVia();
         log.debug("{}: viaEntity {}", index, viaEntity);
 
         // Potential outgoing edge
@@ -794,6 +1211,63 @@ public class ESGraphQueryDAO {
     }
   }
 
+  private static List<Edge> toEdges(@Nonnull SearchResponse searchResponse) {
+    return Arrays.stream(searchResponse.getHits().getHits())
+        .map(hit -> toEdge(hit.getSourceAsMap()))
+        .collect(Collectors.toList());
+  }
+
+  /** Reads an edge from its document in the graph index. */
+  static Edge toEdge(@Nonnull Map<String, Object> document) {
+    final Urn sourceUrn =
+        UrnUtils.getUrn(((Map<String, Object>) document.get(SOURCE)).get("urn").toString());
+    final Urn destinationUrn =
+        UrnUtils.getUrn(((Map<String, Object>) document.get(DESTINATION)).get("urn").toString());
+    final String type = document.get(RELATIONSHIP_TYPE).toString();
+    final Number createdOnNumber = (Number) document.getOrDefault(CREATED_ON, null);
+    final Long createdOn = createdOnNumber != null ? createdOnNumber.longValue() : null;
+    final Number updatedOnNumber = (Number) document.getOrDefault(UPDATED_ON, null);
+    final Long updatedOn = updatedOnNumber != null ? updatedOnNumber.longValue() : null;
+    final String createdActorString = (String) document.getOrDefault(CREATED_ACTOR, null);
+    final Urn createdActor =
+        createdActorString == null ? null : UrnUtils.getUrn(createdActorString);
+    final String updatedActorString = (String) document.getOrDefault(UPDATED_ACTOR, null);
+    final Urn updatedActor =
+        updatedActorString == null ? null : UrnUtils.getUrn(updatedActorString);
+    final Map<String, Object> properties;
+    if (document.containsKey(PROPERTIES) && document.get(PROPERTIES) instanceof Map) {
+      properties = (Map<String, Object>) document.get(PROPERTIES);
+    } else {
+      properties = Collections.emptyMap();
+    }
+    final String lifecycleOwnerString =
+        (String) document.getOrDefault(EDGE_FIELD_LIFECYCLE_OWNER, null);
+    final Urn lifecycleOwner =
+        lifecycleOwnerString == null ? null : UrnUtils.getUrn(lifecycleOwnerString);
+    Urn viaEntity = null;
+    String viaContent = (String) document.getOrDefault(EDGE_FIELD_VIA, null);
+    if (viaContent != null) {
+      try {
+        viaEntity = Urn.createFromString(viaContent);
+      } catch (Exception e) {
+        log.warn(
+            "Failed to parse urn from via entity {}, will swallow exception and continue...",
+            viaContent);
+      }
+    }
+    return new Edge(
+        sourceUrn,
+        destinationUrn,
+        type,
+        createdOn,
+        createdActor,
+        updatedOn,
+        updatedActor,
+        properties,
+        lifecycleOwner,
+        viaEntity);
+  }
+
   private static UrnArrayArray getViaPaths(
       Map<Urn, UrnArrayArray> existingPaths, Urn destinationUrn, Urn viaEntity) {
     UrnArrayArray destinationPaths =
@@ -897,6 +1371,62 @@ public class ESGraphQueryDAO {
     List<LineageRelationship> lineageRelationships;
   }
 
+  private boolean isLineageGraphIndexReady() {
+    return lineageGraphIndex != null && lineageGraphIndex.isReady();
+  }
+
+  /**
+   * Reads every edge of the given relationship types, a page at a time, in the order of their
+   * source, type and destination.
+   */
+  public void scanEdges(
+      @Nonnull Collection<String> relationshipTypes,
+      int pageSize,
+      @Nonnull Consumer<Edge> consumer) {
+    final SearchRequest searchRequest =
+        new SearchRequest(getEdgesIndexName())
+            .source(
+                new SearchSourceBuilder()
+                    .query(QueryBuilders.termsQuery(RELATIONSHIP_TYPE, relationshipTypes)));
+    Object[] sort = null;
+    SearchHit[] hits;
+    do {
+      hits = searchEdgePage(searchRequest, sort, pageSize, "esScanEdges");
+      for (SearchHit hit : hits) {
+        consumer.accept(toEdge(hit.getSourceAsMap()));
+      }
+      if (hits.length > 0) {
+        sort = hits[hits.length - 1].getSortValues();
+      }
+    } while (hits.length == pageSize);
+  }
+
+  // One page of the edges matching the query of the request, in a total order to page through with
+  // search_after
+  private SearchHit[] searchEdgePage(
+      @Nonnull SearchRequest searchRequest,
+      @Nullable Object[] sort,
+      int pageSize,
+      @Nonnull String metric) {
+    SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder();
+    searchSourceBuilder.size(pageSize);
+    searchSourceBuilder.query(searchRequest.source().query());
+    searchSourceBuilder.sort(SOURCE + ".urn", SortOrder.ASC);
+    searchSourceBuilder.sort(RELATIONSHIP_TYPE, SortOrder.ASC);
+    searchSourceBuilder.sort(DESTINATION + ".urn", SortOrder.ASC);
+    searchSourceBuilder.sort(EDGE_FIELD_VIA, SortOrder.ASC);
+    ESUtils.setSearchAfter(searchSourceBuilder, sort, null, null);
+
+    searchRequest.source(searchSourceBuilder);
+    try (Timer.Context ignored = MetricUtils.timer(this.getClass(), metric).time()) {
+      MetricUtils.counter(this.getClass(), SEARCH_EXECUTIONS_METRIC).inc();
+      return client.search(searchRequest, RequestOptions.DEFAULT).getHits().getHits();
+    } catch (Exception e) {
+      log.error("Search query failed", e);
+      throw new ESQueryException("Search query failed:", e);
+    }
+  }
+
   public SearchResponse getSearchResponse(
       @Nullable final List<String> sourceTypes,
       @Nullable final Filter sourceEntityFilter,
@@ -942,7 +1472,7 @@ public class ESGraphQueryDAO {
     searchRequest.source(searchSourceBuilder);
     ESUtils.setSearchAfter(searchSourceBuilder, sort, null, null);
 
-    searchRequest.indices(indexConvention.getIndexName(INDEX_NAME));
+    searchRequest.indices(getEdgesIndexName());
 
     try (Timer.Context ignored = MetricUtils.timer(this.getClass(), "esQuery").time()) {
       MetricUtils.counter(this.getClass(), SEARCH_EXECUTIONS_METRIC).inc();
@@ -1,22 +1,48 @@
 package com.linkedin.metadata.graph.elastic;
 
 import static com.linkedin.metadata.graph.elastic.ESGraphQueryDAO.buildQuery;
+import static com.linkedin.metadata.graph.elastic.ElasticSearchGraphService.DESTINATION_ROUTED_INDEX_NAME;
 import static com.linkedin.metadata.graph.elastic.ElasticSearchGraphService.INDEX_NAME;
+import static com.linkedin.metadata.graph.elastic.ElasticSearchGraphService.SOURCE_ROUTED_INDEX_NAME;
+import static com.linkedin.metadata.graph.elastic.ElasticSearchGraphService.toRouting;
 
+import com.codahale.metrics.Gauge;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Striped;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.metadata.query.filter.Condition;
+import com.linkedin.metadata.query.filter.ConjunctiveCriterion;
+import com.linkedin.metadata.query.filter.Criterion;
 import com.linkedin.metadata.query.filter.Filter;
+import com.linkedin.metadata.query.filter.RelationshipDirection;
 import com.linkedin.metadata.query.filter.RelationshipFilter;
 import com.linkedin.metadata.search.elasticsearch.update.ESBulkProcessor;
 import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
+import com.linkedin.metadata.utils.metrics.MetricUtils;
+import com.linkedin.util.Pair;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 import org.opensearch.action.delete.DeleteRequest;
 import org.opensearch.action.update.UpdateRequest;
 import org.opensearch.common.xcontent.XContentType;
 import org.opensearch.index.query.BoolQueryBuilder;
+import org.opensearch.index.query.QueryBuilders;
 import org.opensearch.index.reindex.BulkByScrollResponse;
 
 @Slf4j
@@ -26,33 +52,74 @@ public class ESGraphWriteDAO {
   private final ESBulkProcessor bulkProcessor;
   private final int numRetries;
 
+  // Whether edges are stored twice, routed by source and by destination urn
+  @Setter private boolean routedIndices;
+
+  // Background deletes waiting for the cleanup worker, by the edges they match
+  private final Map<CleanupKey, Collection<String>> pendingCleanups = new ConcurrentHashMap<>();
+  private final Striped<Lock> cleanupLocks = Striped.lock(CLEANUP_LOCK_STRIPES);
+  private volatile ScheduledExecutorService cleanupExecutor;
+  private int cleanupBatchSize;
+  private int maxPendingCleanups;
+
   private static final String ES_WRITES_METRIC = "num_elasticSearch_writes";
+  private static final int CLEANUP_LOCK_STRIPES = 64;
 
   /**
    * Updates or inserts the given search document.
    *
    * @param document the document to update / insert
    * @param docId the ID of the document
+   * @param sourceUrn the source of the edge, routes its source routed copy
+   * @param destinationUrn the destination of the edge, routes its destination routed copy
    */
-  public void upsertDocument(@Nonnull String docId, @Nonnull String document) {
-    final UpdateRequest updateRequest =
-        new UpdateRequest(indexConvention.getIndexName(INDEX_NAME), docId)
-            .detectNoop(false)
-            .docAsUpsert(true)
-            .doc(document, XContentType.JSON)
-            .retryOnConflict(numRetries);
-    bulkProcessor.add(updateRequest);
+  public void upsertDocument(
+      @Nonnull String docId,
+      @Nonnull String document,
+      @Nonnull Urn sourceUrn,
+      @Nonnull Urn destinationUrn) {
+    if (!routedIndices) {
+      bulkProcessor.add(upsertRequest(indexConvention.getIndexName(INDEX_NAME), docId, document));
+      return;
+    }
+    bulkProcessor.add(
+        upsertRequest(indexConvention.getIndexName(SOURCE_ROUTED_INDEX_NAME), docId, document)
+            .routing(toRouting(sourceUrn.toString())));
+    bulkProcessor.add(
+        upsertRequest(indexConvention.getIndexName(DESTINATION_ROUTED_INDEX_NAME), docId, document)
+            .routing(toRouting(destinationUrn.toString())));
+  }
+
+  private UpdateRequest upsertRequest(
+      @Nonnull String indexName, @Nonnull String docId, @Nonnull String document) {
+    return new UpdateRequest(indexName, docId)
+        .detectNoop(false)
+        .docAsUpsert(true)
+        .doc(document, XContentType.JSON)
+        .retryOnConflict(numRetries);
   }
 
   /**
    * Deletes the given search document.
    *
    * @param docId the ID of the document
+   * @param sourceUrn the source of the edge, routes its source routed copy
+   * @param destinationUrn the destination of the edge, routes its destination routed copy
    */
-  public void deleteDocument(@Nonnull String docId) {
-    final DeleteRequest deleteRequest =
-        new DeleteRequest(indexConvention.getIndexName(INDEX_NAME)).id(docId);
-    bulkProcessor.add(deleteRequest);
+  public void deleteDocument(
+      @Nonnull String docId, @Nonnull Urn sourceUrn, @Nonnull Urn destinationUrn) {
+    if (!routedIndices) {
+      bulkProcessor.add(new DeleteRequest(indexConvention.getIndexName(INDEX_NAME)).id(docId));
+      return;
+    }
+    bulkProcessor.add(
+        new DeleteRequest(indexConvention.getIndexName(SOURCE_ROUTED_INDEX_NAME))
+            .id(docId)
+            .routing(toRouting(sourceUrn.toString())));
+    bulkProcessor.add(
+        new DeleteRequest(indexConvention.getIndexName(DESTINATION_ROUTED_INDEX_NAME))
+            .id(docId)
+            .routing(toRouting(destinationUrn.toString())));
   }
 
   public BulkByScrollResponse deleteByQuery(
@@ -71,9 +138,8 @@ public class ESGraphWriteDAO {
             relationshipTypes,
             relationshipFilter);
 
-    return bulkProcessor
-        .deleteByQuery(finalQuery, indexConvention.getIndexName(INDEX_NAME))
-        .orElse(null);
+    return deleteByQuery(
+        finalQuery, sourceEntityFilter, destinationEntityFilter, relationshipFilter);
   }
 
   public BulkByScrollResponse deleteByQuery(
@@ -94,8 +160,245 @@ public class ESGraphWriteDAO {
             relationshipFilter,
             lifecycleOwner);
 
-    return bulkProcessor
-        .deleteByQuery(finalQuery, indexConvention.getIndexName(INDEX_NAME))
-        .orElse(null);
+    return deleteByQuery(
+        finalQuery, sourceEntityFilter, destinationEntityFilter, relationshipFilter);
+  }
+
+  private BulkByScrollResponse deleteByQuery(
+      @Nonnull final BoolQueryBuilder finalQuery,
+      @Nonnull final Filter sourceEntityFilter,
+      @Nonnull final Filter destinationEntityFilter,
+      @Nonnull final RelationshipFilter relationshipFilter) {
+    if (!routedIndices) {
+      return bulkProcessor
+          .deleteByQuery(finalQuery, indexConvention.getIndexName(INDEX_NAME))
+          .orElse(null);
+    }
+
+    final Pair<String, String> routing =
+        getRouting(sourceEntityFilter, destinationEntityFilter, relationshipFilter);
+    final BulkByScrollResponse response =
+        bulkProcessor
+            .deleteByQuery(
+                finalQuery,
+                routing.getFirst(),
+                true,
+                indexConvention.getIndexName(SOURCE_ROUTED_INDEX_NAME))
+            .orElse(null);
+    bulkProcessor.deleteByQuery(
+        finalQuery,
+        routing.getSecond(),
+        true,
+        indexConvention.getIndexName(DESTINATION_ROUTED_INDEX_NAME));
+    return response;
+  }
+
+  /**
+   * Deletes the edges matching the filters, except for the excluded documents, in the background.
+   * Neither pending writes nor the deletion itself are waited for, so this is only meant for edges
+   * whose document ids are unknown, with the documents being written excluded. It must be called
+   * before those documents are written.
+   *
+   * <p>Once {@link #startCleanup} ran, deletes are queued and run in batches by a single worker. A
+   * newer delete of the same edges replaces the queued one. A delete of edges the worker is
+   * currently deleting waits for it, so the documents written after it are never matched by the
+   * older delete. When the queue is full the delete runs right away, as it does before the worker
+   * is started.
+   */
+  public void deleteByQueryAsync(
+      @Nonnull final Filter sourceEntityFilter,
+      @Nonnull final Filter destinationEntityFilter,
+      @Nonnull final List<String> relationshipTypes,
+      @Nonnull final RelationshipFilter relationshipFilter,
+      @Nullable final String lifecycleOwner,
+      @Nonnull final Collection<String> excludedDocIds) {
+    final CleanupKey key =
+        new CleanupKey(
+            sourceEntityFilter,
+            destinationEntityFilter,
+            ImmutableList.copyOf(relationshipTypes),
+            relationshipFilter,
+            lifecycleOwner);
+    if (cleanupExecutor == null) {
+      deleteBatch(ImmutableList.of(Pair.of(key, excludedDocIds)));
+      return;
+    }
+    final Lock lock = cleanupLocks.get(key);
+    lock.lock();
+    try {
+      if (pendingCleanups.size() >= maxPendingCleanups && !pendingCleanups.containsKey(key)) {
+        MetricUtils.counter(this.getClass(), "synchronousCleanups").inc();
+        deleteBatch(ImmutableList.of(Pair.of(key, excludedDocIds)));
+        return;
+      }
+      pendingCleanups.put(key, excludedDocIds);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Runs the queued deletes of {@link #deleteByQueryAsync} every interval, up to {@code batchSize}
+   * of them in one delete by query, and bounds the queue to {@code maxPending} deletes.
+   */
+  public synchronized void startCleanup(long intervalMillis, int batchSize, int maxPending) {
+    if (cleanupExecutor != null) {
+      return;
+    }
+    cleanupBatchSize = batchSize;
+    maxPendingCleanups = maxPending;
+    MetricUtils.gauge(
+        this.getClass(), "pendingCleanups", () -> (Gauge<Integer>) pendingCleanups::size);
+    cleanupExecutor = Executors.newSingleThreadScheduledExecutor();
+    cleanupExecutor.scheduleWithFixedDelay(
+        this::processCleanups, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+  }
+
+  @VisibleForTesting
+  public void processCleanups() {
+    try {
+      final List<CleanupKey> keys = new ArrayList<>(pendingCleanups.keySet());
+      for (int start = 0; start < keys.size(); start += cleanupBatchSize) {
+        processCleanups(keys.subList(start, Math.min(start + cleanupBatchSize, keys.size())));
+      }
+    } catch (RuntimeException e) {
+      log.error("Failed to clean up graph edges", e);
+    }
+  }
+
+  // Holds the locks of the keys until their deletes completed, newer deletes of the same edges
+  // wait for them in deleteByQueryAsync
+  private void processCleanups(@Nonnull final List<CleanupKey> keys) {
+    final List<Lock> locks = ImmutableList.copyOf(cleanupLocks.bulkGet(keys));
+    locks.forEach(Lock::lock);
+    try {
+      final List<Pair<CleanupKey, Collection<String>>> batch = new ArrayList<>();
+      for (CleanupKey key : keys) {
+        final Collection<String> excludedDocIds = pendingCleanups.remove(key);
+        if (excludedDocIds != null) {
+          batch.add(Pair.of(key, excludedDocIds));
+        }
+      }
+      if (!batch.isEmpty()) {
+        deleteBatch(batch);
+      }
+    } finally {
+      locks.forEach(Lock::unlock);
+    }
+  }
+
+  @VisibleForTesting
+  public int getPendingCleanups() {
+    return pendingCleanups.size();
+  }
+
+  // One delete by query per index for the whole batch. The routing is the union of the routing of
+  // the deletes, or none when one of them is not routed
+  private void deleteBatch(@Nonnull final List<Pair<CleanupKey, Collection<String>>> batch) {
+    final BoolQueryBuilder finalQuery = QueryBuilders.boolQuery().minimumShouldMatch(1);
+    final Set<String> sourceRouting = new TreeSet<>();
+    final Set<String> destinationRouting = new TreeSet<>();
+    boolean unroutedSource = false;
+    boolean unroutedDestination = false;
+    for (Pair<CleanupKey, Collection<String>> cleanup : batch) {
+      final CleanupKey key = cleanup.getFirst();
+      final BoolQueryBuilder query =
+          buildQuery(
+              ImmutableList.of(),
+              key.getSourceEntityFilter(),
+              ImmutableList.of(),
+              key.getDestinationEntityFilter(),
+              key.getRelationshipTypes(),
+              key.getRelationshipFilter(),
+              key.getLifecycleOwner());
+      if (!cleanup.getSecond().isEmpty()) {
+        query.mustNot(QueryBuilders.idsQuery().addIds(cleanup.getSecond().toArray(new String[0])));
+      }
+      finalQuery.should(query);
+
+      final Pair<String, String> routing =
+          getRouting(
+              key.getSourceEntityFilter(),
+              key.getDestinationEntityFilter(),
+              key.getRelationshipFilter());
+      if (routing.getFirst() == null) {
+        unroutedSource = true;
+      } else {
+        sourceRouting.add(routing.getFirst());
+      }
+      if (routing.getSecond() == null) {
+        unroutedDestination = true;
+      } else {
+        destinationRouting.add(routing.getSecond());
+      }
+    }
+
+    if (!routedIndices) {
+      bulkProcessor.deleteByQueryIgnoringConflicts(
+          finalQuery, null, indexConvention.getIndexName(INDEX_NAME));
+      return;
+    }
+    bulkProcessor.deleteByQueryIgnoringConflicts(
+        finalQuery,
+        unroutedSource ? null : String.join(",", sourceRouting),
+        indexConvention.getIndexName(SOURCE_ROUTED_INDEX_NAME));
+    bulkProcessor.deleteByQueryIgnoringConflicts(
+        finalQuery,
+        unroutedDestination ? null : String.join(",", destinationRouting),
+        indexConvention.getIndexName(DESTINATION_ROUTED_INDEX_NAME));
+  }
+
+  // The edges a background delete matches, apart from the documents it excludes
+  @Value
+  private static class CleanupKey {
+    Filter sourceEntityFilter;
+    Filter destinationEntityFilter;
+    List<String> relationshipTypes;
+    RelationshipFilter relationshipFilter;
+    @Nullable String lifecycleOwner;
+  }
+
+  // Routing of a delete in the source and in the destination routed index. Same swap of the
+  // filters as buildQuery, a delete of the edges of one urn is then routed to the shard holding
+  // them. Deletes without a direction are not routed, the edges they match can be on any shard
+  private static Pair<String, String> getRouting(
+      @Nonnull final Filter sourceEntityFilter,
+      @Nonnull final Filter destinationEntityFilter,
+      @Nonnull final RelationshipFilter relationshipFilter) {
+    final RelationshipDirection direction = relationshipFilter.getDirection();
+    if (direction != RelationshipDirection.OUTGOING
+        && direction != RelationshipDirection.INCOMING) {
+      return new Pair<>(null, null);
+    }
+    final boolean outgoing = direction == RelationshipDirection.OUTGOING;
+    final String sourceUrn = getSingleUrn(outgoing ? sourceEntityFilter : destinationEntityFilter);
+    final String destinationUrn =
+        getSingleUrn(outgoing ? destinationEntityFilter : sourceEntityFilter);
+    return new Pair<>(
+        sourceUrn != null ? toRouting(sourceUrn) : null,
+        destinationUrn != null ? toRouting(destinationUrn) : null);
+  }
+
+  // The urn a filter matches when it matches exactly one
+  @Nullable
+  private static String getSingleUrn(@Nullable final Filter filter) {
+    if (filter == null || filter.getOr() == null || filter.getOr().size() != 1) {
+      return null;
+    }
+    final ConjunctiveCriterion conjunction = filter.getOr().get(0);
+    if (conjunction.getAnd() == null) {
+      return null;
+    }
+    for (Criterion criterion : conjunction.getAnd()) {
+      if ("urn".equals(criterion.getField())
+          && criterion.getCondition() == Condition.EQUAL
+          && !criterion.isNegated()
+          && criterion.getValues().size() <= 1) {
+        return criterion.getValues().isEmpty()
+            ? criterion.getValue()
+            : criterion.getValues().get(0);
+      }
+    }
+    return null;
   }
 }
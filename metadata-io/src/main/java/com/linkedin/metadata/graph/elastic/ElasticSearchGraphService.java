@@ -2,6 +2,8 @@ package com.linkedin.metadata.graph.elastic;
 
 import static com.linkedin.metadata.graph.elastic.GraphRelationshipMappingsBuilder.*;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.annotations.VisibleForTesting;
@@ -12,6 +14,7 @@ import com.linkedin.metadata.graph.EntityLineageResult;
 import com.linkedin.metadata.graph.GraphFilters;
 import com.linkedin.metadata.graph.GraphService;
 import com.linkedin.metadata.graph.LineageDirection;
+import com.linkedin.metadata.graph.LineagePathsResult;
 import com.linkedin.metadata.graph.LineageRelationshipArray;
 import com.linkedin.metadata.graph.RelatedEntities;
 import com.linkedin.metadata.graph.RelatedEntitiesResult;
@@ -54,7 +57,14 @@ import javax.annotation.Nullable;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.opensearch.action.search.SearchResponse;
+import org.opensearch.client.Request;
+import org.opensearch.client.RequestOptions;
+import org.opensearch.client.RestHighLevelClient;
+import org.opensearch.client.indices.GetIndexRequest;
+import org.opensearch.client.indices.GetMappingsRequest;
+import org.opensearch.client.indices.PutMappingRequest;
 import org.opensearch.index.query.QueryBuilders;
+import org.opensearch.script.Script;
 import org.opensearch.search.SearchHit;
 
 @Slf4j
@@ -68,9 +78,24 @@ public class ElasticSearchGraphService implements GraphService, ElasticSearchInd
   private final ESGraphQueryDAO _graphReadDAO;
   private final ESIndexBuilder _indexBuilder;
 
+  @Nullable private LineageGraphIndex _lineageGraphIndex;
+  private boolean _routedIndices = false;
+
   private static final String DOC_DELIMETER = "--";
   public static final String INDEX_NAME = "graph_service_v1";
+  // Copies of the edges routed to a shard by the urn of their source and of their destination, so a
+  // lineage hop from a set of urns only searches the shards those urns live on
+  public static final String SOURCE_ROUTED_INDEX_NAME = "graph_service_v1_source";
+  public static final String DESTINATION_ROUTED_INDEX_NAME = "graph_service_v1_destination";
+  // Must stay in line with toRouting, search routing values can't hold the commas of some urns
+  private static final String ROUTING_SCRIPT =
+      "ctx._routing = Integer.toString(ctx._source.%s.urn.hashCode())";
   private static final Map<String, Object> EMPTY_HASH = new HashMap<>();
+  // Set in the mappings of a routed index before and after the edges of the single graph index
+  // are copied to it
+  private static final String COPY_STARTED_META = "copyFromGraphIndexStartedAt";
+  private static final String COPIED_META = "copiedFromGraphIndex";
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
   private String toDocument(@Nonnull final Edge edge) {
     final ObjectNode searchDocument = JsonNodeFactory.instance.objectNode();
@@ -123,6 +148,12 @@ public class ElasticSearchGraphService implements GraphService, ElasticSearchInd
     return searchDocument.toString();
   }
 
+  /** Routing value of the edges routed by the given urn. */
+  @Nonnull
+  public static String toRouting(@Nonnull String urn) {
+    return Integer.toString(urn.hashCode());
+  }
+
   private String toDocId(@Nonnull final Edge edge) {
     String rawDocId =
         edge.getSource().toString()
@@ -147,11 +178,31 @@ public class ElasticSearchGraphService implements GraphService, ElasticSearchInd
     return _lineageRegistry;
   }
 
+  /** Keeps the lineage graph index current with the writes of this service and queries it. */
+  public void setLineageGraphIndex(@Nullable LineageGraphIndex lineageGraphIndex) {
+    _lineageGraphIndex = lineageGraphIndex;
+    _graphReadDAO.setLineageGraphIndex(lineageGraphIndex);
+  }
+
+  /**
+   * Stores the edges in the indices routed by source and destination urn instead of the single
+   * graph index. Indices routed this way are filled once from the single graph index, which is no
+   * longer written to from then on.
+   */
+  public void setRoutedIndices(boolean routedIndices) {
+    _routedIndices = routedIndices;
+    _graphWriteDAO.setRoutedIndices(routedIndices);
+    _graphReadDAO.setRoutedIndices(routedIndices);
+  }
+
   @Override
   public void addEdge(@Nonnull final Edge edge) {
     String docId = toDocId(edge);
     String edgeDocument = toDocument(edge);
-    _graphWriteDAO.upsertDocument(docId, edgeDocument);
+    _graphWriteDAO.upsertDocument(docId, edgeDocument, edge.getSource(), edge.getDestination());
+    if (_lineageGraphIndex != null) {
+      _lineageGraphIndex.upsertEdge(edge);
+    }
   }
 
   @Override
@@ -162,7 +213,10 @@ public class ElasticSearchGraphService implements GraphService, ElasticSearchInd
   @Override
   public void removeEdge(@Nonnull final Edge edge) {
     String docId = toDocId(edge);
-    _graphWriteDAO.deleteDocument(docId);
+    _graphWriteDAO.deleteDocument(docId, edge.getSource(), edge.getDestination());
+    if (_lineageGraphIndex != null) {
+      _lineageGraphIndex.removeEdge(edge);
+    }
   }
 
   @Nonnull
@@ -255,6 +309,42 @@ public class ElasticSearchGraphService implements GraphService, ElasticSearchInd
         .setTotal(lineageResponse.getTotal());
   }
 
+  @Nonnull
+  @WithSpan
+  @Override
+  public LineagePathsResult findLineagePaths(
+      @Nonnull Urn upstreamUrn,
+      @Nonnull Urn downstreamUrn,
+      int maxHops,
+      int maxPaths,
+      @Nullable Long startTimeMillis,
+      @Nullable Long endTimeMillis) {
+    return _graphReadDAO.findLineagePaths(
+        upstreamUrn, downstreamUrn, maxHops, maxPaths, startTimeMillis, endTimeMillis);
+  }
+
+  @Override
+  public boolean supportsLineageExport() {
+    return true;
+  }
+
+  /**
+   * Streams the lineage of an entity to the consumer while it is walked, see {@link
+   * ESGraphQueryDAO#exportLineage}.
+   */
+  @Override
+  public LineageExportResult exportLineage(
+      @Nonnull Urn entityUrn,
+      @Nonnull LineageDirection direction,
+      int maxHops,
+      @Nullable Long startTimeMillis,
+      @Nullable Long endTimeMillis,
+      @Nonnull LineageHopConsumer consumer)
+      throws IOException {
+    return _graphReadDAO.exportLineage(
+        entityUrn, direction, maxHops, startTimeMillis, endTimeMillis, consumer);
+  }
+
   private Filter createUrnFilter(@Nonnull final Urn urn) {
     Filter filter = new Filter();
     CriterionArray criterionArray = new CriterionArray();
@@ -290,6 +380,9 @@ public class ElasticSearchGraphService implements GraphService, ElasticSearchInd
     _graphWriteDAO.deleteByQuery(
         null, emptyFilter, null, emptyFilter, relationshipTypes, incomingFilter, urn.toString());
 
+    if (_lineageGraphIndex != null) {
+      _lineageGraphIndex.removeNode(urn);
+    }
     return;
   }
 
@@ -303,6 +396,35 @@ public class ElasticSearchGraphService implements GraphService, ElasticSearchInd
 
     _graphWriteDAO.deleteByQuery(
         null, urnFilter, null, emptyFilter, relationshipTypes, relationshipFilter);
+    if (_lineageGraphIndex != null) {
+      _lineageGraphIndex.removeEdgesFromNode(
+          urn, relationshipTypes, relationshipFilter.getDirection());
+    }
+  }
+
+  @Override
+  public void removeEdgesFromNodeAsync(
+      @Nonnull final Urn urn,
+      @Nonnull final List<String> relationshipTypes,
+      @Nonnull final RelationshipFilter relationshipFilter,
+      @Nonnull final Collection<Edge> keptEdges) {
+    if (relationshipTypes.isEmpty()) {
+      return;
+    }
+    Filter urnFilter = createUrnFilter(urn);
+    Filter emptyFilter = new Filter().setOr(new ConjunctiveCriterionArray());
+
+    _graphWriteDAO.deleteByQueryAsync(
+        urnFilter,
+        emptyFilter,
+        relationshipTypes,
+        relationshipFilter,
+        null,
+        keptEdges.stream().map(this::toDocId).collect(Collectors.toSet()));
+    if (_lineageGraphIndex != null) {
+      _lineageGraphIndex.removeEdgesFromNode(
+          urn, relationshipTypes, relationshipFilter.getDirection());
+    }
   }
 
   @Override
@@ -311,14 +433,131 @@ public class ElasticSearchGraphService implements GraphService, ElasticSearchInd
     try {
       for (ReindexConfig config : buildReindexConfigs()) {
         _indexBuilder.buildIndex(config);
+        if (_routedIndices) {
+          final Map<?, ?> meta = getRoutedMeta(config.name());
+          if (meta.containsKey(COPY_STARTED_META) && !isCopiedMeta(meta)) {
+            log.error(
+                "The copy of the single graph index to {} started at {} did not complete, delete {}"
+                    + " to copy it again",
+                config.name(),
+                meta.get(COPY_STARTED_META),
+                config.name());
+          } else if (!isCopiedMeta(meta)) {
+            copyToRoutedIndex(config.name());
+          }
+        }
       }
     } catch (IOException e) {
       throw new RuntimeException(e);
     }
   }
 
+  /**
+   * Fills a routed index with the edges of the single graph index it does not have yet, in a single
+   * pass marked in the routed index before it starts. The single graph index is not written to
+   * once routed indices are used, so an edge deleted from the routed index after the cutover would
+   * be copied back by any later pass. A copy that did not complete is therefore not run again, the
+   * routed index has to be deleted to start over. Writes made to the single graph index during the
+   * copy, by instances not using the routed indices yet, may be missing from it.
+   */
+  private void copyToRoutedIndex(@Nonnull String routedIndexName) throws IOException {
+    final String indexName = _indexConvention.getIndexName(INDEX_NAME);
+    final RestHighLevelClient searchClient = _indexBuilder.getSearchClient();
+    final long startedAt = System.currentTimeMillis();
+    if (searchClient.indices().exists(new GetIndexRequest(indexName), RequestOptions.DEFAULT)) {
+      putRoutedMeta(routedIndexName, Map.of(COPY_STARTED_META, startedAt));
+      final String routingField =
+          routedIndexName.equals(_indexConvention.getIndexName(SOURCE_ROUTED_INDEX_NAME))
+              ? EDGE_FIELD_SOURCE
+              : EDGE_FIELD_DESTINATION;
+      final long writes = getWriteCount(indexName);
+      _indexBuilder.copyIndex(
+          indexName, routedIndexName, new Script(String.format(ROUTING_SCRIPT, routingField)));
+      final long writesDuringCopy = getWriteCount(indexName) - writes;
+      if (writesDuringCopy > 0) {
+        log.warn(
+            "{} changes were made to {} while it was copied, they may be missing from {}",
+            writesDuringCopy,
+            indexName,
+            routedIndexName);
+      }
+    }
+    putRoutedMeta(routedIndexName, Map.of(COPY_STARTED_META, startedAt, COPIED_META, true));
+    log.info("Copied the edges of {} to {}", indexName, routedIndexName);
+  }
+
+  private void putRoutedMeta(@Nonnull String routedIndexName, @Nonnull Map<String, Object> meta)
+      throws IOException {
+    _indexBuilder
+        .getSearchClient()
+        .indices()
+        .putMapping(
+            new PutMappingRequest(routedIndexName).source(Map.of("_meta", meta)),
+            RequestOptions.DEFAULT);
+  }
+
+  // The copy marks of a routed index, empty when it does not exist
+  @Nonnull
+  private Map<?, ?> getRoutedMeta(@Nonnull String routedIndexName) throws IOException {
+    final RestHighLevelClient searchClient = _indexBuilder.getSearchClient();
+    if (!searchClient
+        .indices()
+        .exists(new GetIndexRequest(routedIndexName), RequestOptions.DEFAULT)) {
+      return Collections.emptyMap();
+    }
+    return searchClient
+        .indices()
+        .getMapping(new GetMappingsRequest().indices(routedIndexName), RequestOptions.DEFAULT)
+        .mappings()
+        .values()
+        .stream()
+        .map(mapping -> mapping.sourceAsMap().get("_meta"))
+        .filter(meta -> meta instanceof Map)
+        .<Map<?, ?>>map(meta -> (Map<?, ?>) meta)
+        .findFirst()
+        .orElse(Collections.emptyMap());
+  }
+
+  private static boolean isCopiedMeta(@Nonnull Map<?, ?> meta) {
+    return Boolean.TRUE.equals(meta.get(COPIED_META));
+  }
+
+  // Documents indexed and deleted on the primaries of an index
+  private long getWriteCount(@Nonnull String indexName) throws IOException {
+    final JsonNode indexing =
+        OBJECT_MAPPER
+            .readTree(
+                _indexBuilder
+                    .getSearchClient()
+                    .getLowLevelClient()
+                    .performRequest(new Request("GET", "/" + indexName + "/_stats/indexing"))
+                    .getEntity()
+                    .getContent())
+            .path("_all")
+            .path("primaries")
+            .path("indexing");
+    return indexing.path("index_total").asLong() + indexing.path("delete_total").asLong();
+  }
+
+  // A routed index rebuilt for a mappings change keeps the marks of its copy
+  private ReindexConfig buildRoutedReindexState(@Nonnull String name) throws IOException {
+    final String indexName = _indexConvention.getIndexName(name);
+    final Map<String, Object> mappings =
+        new HashMap<>(GraphRelationshipMappingsBuilder.getRoutedMappings());
+    final Map<?, ?> meta = getRoutedMeta(indexName);
+    if (!meta.isEmpty()) {
+      mappings.put("_meta", meta);
+    }
+    return _indexBuilder.buildReindexState(indexName, mappings, Collections.emptyMap());
+  }
+
   @Override
   public List<ReindexConfig> buildReindexConfigs() throws IOException {
+    if (_routedIndices) {
+      return List.of(
+          buildRoutedReindexState(SOURCE_ROUTED_INDEX_NAME),
+          buildRoutedReindexState(DESTINATION_ROUTED_INDEX_NAME));
+    }
     return List.of(
         _indexBuilder.buildReindexState(
             _indexConvention.getIndexName(INDEX_NAME),
@@ -340,8 +579,19 @@ public class ElasticSearchGraphService implements GraphService, ElasticSearchInd
   @VisibleForTesting
   @Override
   public void clear() {
-    _esBulkProcessor.deleteByQuery(
-        QueryBuilders.matchAllQuery(), true, _indexConvention.getIndexName(INDEX_NAME));
+    if (_routedIndices) {
+      _esBulkProcessor.deleteByQuery(
+          QueryBuilders.matchAllQuery(),
+          true,
+          _indexConvention.getIndexName(SOURCE_ROUTED_INDEX_NAME),
+          _indexConvention.getIndexName(DESTINATION_ROUTED_INDEX_NAME));
+    } else {
+      _esBulkProcessor.deleteByQuery(
+          QueryBuilders.matchAllQuery(), true, _indexConvention.getIndexName(INDEX_NAME));
+    }
+    if (_lineageGraphIndex != null) {
+      _lineageGraphIndex.clear();
+    }
   }
 
   @Override
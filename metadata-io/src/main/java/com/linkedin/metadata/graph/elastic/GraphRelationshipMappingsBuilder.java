@@ -27,6 +27,14 @@ public class GraphRelationshipMappingsBuilder {
     return ImmutableMap.of("properties", mappings);
   }
 
+  /** Mappings of the graph indices whose edges are routed by the urn of one of their ends. */
+  public static Map<String, Object> getRoutedMappings() {
+    return ImmutableMap.<String, Object>builder()
+        .putAll(getMappings())
+        .put("_routing", ImmutableMap.of("required", true))
+        .build();
+  }
+
   private static Map<String, Object> getMappingsForKeyword() {
     return ImmutableMap.<String, Object>builder().put("type", "keyword").build();
   }
@@ -0,0 +1,648 @@
+package com.linkedin.metadata.graph.elastic;
+
+import com.codahale.metrics.Gauge;
+import com.google.common.annotations.VisibleForTesting;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.common.urn.UrnUtils;
+import com.linkedin.metadata.graph.Edge;
+import com.linkedin.metadata.models.registry.LineageRegistry.EdgeInfo;
+import com.linkedin.metadata.query.filter.RelationshipDirection;
+import com.linkedin.metadata.utils.metrics.MetricUtils;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.tuple.Pair;
+
+/**
+ * In-memory copy of the lineage edges of the graph index, answering a lineage hop without a search.
+ *
+ * <p>Urns, entity types and relationship types are interned to int ids and edge attributes are
+ * kept in parallel primitive arrays. The edges of a node are found through compressed sparse row
+ * adjacency arrays, one indexed by source and one by destination. Edges written since the arrays
+ * were built sit in small per-node delta lists and removed edges are tombstoned, both are folded
+ * into new arrays once they exceed a fraction of the graph. Node ids are never reclaimed.
+ *
+ * <p>The index is loaded by scanning the graph index once and kept current by the writes of the
+ * graph service of this instance. It does not see writes applied by other instances, so it must
+ * only be enabled where the graph service also applies the change log.
+ */
+@Slf4j
+public class LineageGraphIndex {
+  private static final int NONE = -1;
+  private static final long MISSING = Long.MIN_VALUE;
+  private static final byte ALIVE = 1;
+  private static final byte MANUAL = 2;
+  private static final int MIN_COMPACTION_EDGES = 1024;
+  private static final long BOOTSTRAP_RETRY_SECONDS = 60;
+  private static final Map<String, Object> MANUAL_PROPERTIES =
+      Map.of(ESGraphQueryDAO.SOURCE, ESGraphQueryDAO.UI);
+
+  private final Set<String> lineageTypes;
+  private final Set<String> lineageTypesLowerCase;
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  private volatile boolean ready;
+
+  private final Map<String, Integer> nodeIds = new HashMap<>();
+  private final List<String> nodeUrns = new ArrayList<>();
+  private int[] nodeTypes = new int[1024];
+  private long urnChars;
+  private final Interner entityTypes = new Interner();
+  private final Interner relationshipTypes = new Interner();
+
+  private int edgeCount;
+  private int deadEdges;
+  private int[] sources = new int[0];
+  private int[] destinations = new int[0];
+  private int[] types = new int[0];
+  private int[] vias = new int[0];
+  private int[] owners = new int[0];
+  private int[] createdActors = new int[0];
+  private int[] updatedActors = new int[0];
+  private long[] createdOns = new long[0];
+  private long[] updatedOns = new long[0];
+  private byte[] flags = new byte[0];
+
+  // Adjacency arrays: the edges of node n are edges[offsets[n]] until edges[offsets[n + 1]]
+  private int adjacencyNodes;
+  private int[] outOffsets = new int[1];
+  private int[] outEdges = new int[0];
+  private int[] inOffsets = new int[1];
+  private int[] inEdges = new int[0];
+  private final Map<Integer, IntList> outDelta = new HashMap<>();
+  private final Map<Integer, IntList> inDelta = new HashMap<>();
+  private final Map<Integer, IntList> ownedEdges = new HashMap<>();
+  private int deltaEdges;
+
+  // Edges and nodes written while the graph index is scanned, the scan must not overwrite them
+  @Nullable private Set<String> writtenDuringBootstrap;
+
+  public LineageGraphIndex(@Nonnull Set<String> lineageRelationshipTypes) {
+    this.lineageTypes = lineageRelationshipTypes;
+    this.lineageTypesLowerCase =
+        lineageRelationshipTypes.stream().map(String::toLowerCase).collect(Collectors.toSet());
+    MetricUtils.gauge(LineageGraphIndex.class, "nodes", () -> (Gauge<Integer>) this::nodeCount);
+    MetricUtils.gauge(LineageGraphIndex.class, "edges", () -> (Gauge<Integer>) this::liveEdgeCount);
+    MetricUtils.gauge(
+        LineageGraphIndex.class, "estimatedBytes", () -> (Gauge<Long>) this::estimatedBytes);
+    MetricUtils.gauge(LineageGraphIndex.class, "ready", () -> (Gauge<Integer>) () -> ready ? 1 : 0);
+  }
+
+  /** Whether the graph index was loaded, lineage is read from the graph index until then. */
+  public boolean isReady() {
+    return ready;
+  }
+
+  /** Loads the graph index in the background, retrying until it succeeds. */
+  public void bootstrapAsync(@Nonnull ESGraphQueryDAO graphQueryDAO, int pageSize) {
+    final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+    executor.scheduleWithFixedDelay(
+        () -> {
+          try {
+            bootstrap(graphQueryDAO, pageSize);
+            executor.shutdown();
+          } catch (Exception e) {
+            log.error(
+                "Failed to load the lineage graph, retrying in {} seconds",
+                BOOTSTRAP_RETRY_SECONDS,
+                e);
+          }
+        },
+        0,
+        BOOTSTRAP_RETRY_SECONDS,
+        TimeUnit.SECONDS);
+  }
+
+  /** Loads every lineage edge of the graph index. */
+  public void bootstrap(@Nonnull ESGraphQueryDAO graphQueryDAO, int pageSize) {
+    final long start = System.currentTimeMillis();
+    lock.writeLock().lock();
+    try {
+      writtenDuringBootstrap = new HashSet<>();
+    } finally {
+      lock.writeLock().unlock();
+    }
+    try {
+      graphQueryDAO.scanEdges(lineageTypes, pageSize, this::addScannedEdge);
+    } finally {
+      lock.writeLock().lock();
+      try {
+        writtenDuringBootstrap = null;
+      } finally {
+        lock.writeLock().unlock();
+      }
+    }
+    ready = true;
+    log.info(
+        "Loaded {} lineage edges between {} nodes in {} ms, about {} bytes",
+        liveEdgeCount(),
+        nodeCount(),
+        System.currentTimeMillis() - start,
+        estimatedBytes());
+  }
+
+  public void upsertEdge(@Nonnull Edge edge) {
+    if (!isLineageType(edge.getRelationshipType())) {
+      return;
+    }
+    lock.writeLock().lock();
+    try {
+      if (writtenDuringBootstrap != null) {
+        writtenDuringBootstrap.add(edgeKey(edge));
+      }
+      upsert(edge);
+      compactIfNeeded();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public void removeEdge(@Nonnull Edge edge) {
+    if (!isLineageType(edge.getRelationshipType())) {
+      return;
+    }
+    lock.writeLock().lock();
+    try {
+      if (writtenDuringBootstrap != null) {
+        writtenDuringBootstrap.add(edgeKey(edge));
+      }
+      final Integer source = nodeIds.get(edge.getSource().toString());
+      final Integer destination = nodeIds.get(edge.getDestination().toString());
+      final Integer type = relationshipTypes.get(edge.getRelationshipType());
+      if (source != null && destination != null && type != null) {
+        remove(findEdge(source, type, destination));
+      }
+      compactIfNeeded();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /** Removes the edges from and to a node, and the edges whose lifecycle it owns. */
+  public void removeNode(@Nonnull Urn urn) {
+    lock.writeLock().lock();
+    try {
+      if (writtenDuringBootstrap != null) {
+        writtenDuringBootstrap.add("N|" + urn);
+      }
+      final Integer node = nodeIds.get(urn.toString());
+      if (node != null) {
+        forEachEdge(node, true, this::remove);
+        forEachEdge(node, false, this::remove);
+        final IntList owned = ownedEdges.remove(node);
+        if (owned != null) {
+          for (int i = 0; i < owned.size; i++) {
+            if (owners[owned.values[i]] == node) {
+              remove(owned.values[i]);
+            }
+          }
+        }
+      }
+      compactIfNeeded();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Removes the edges of the given types from a node, every type when none is given.
+   *
+   * @param direction OUTGOING for the edges the node is the source of, UNDIRECTED for the edges
+   *     it is either end of, the edges it is the destination of otherwise
+   */
+  public void removeEdgesFromNode(
+      @Nonnull Urn urn,
+      @Nonnull List<String> relationshipTypeNames,
+      @Nullable RelationshipDirection direction) {
+    final List<Boolean> sides =
+        direction == RelationshipDirection.UNDIRECTED
+            ? List.of(true, false)
+            : List.of(direction == RelationshipDirection.OUTGOING);
+    lock.writeLock().lock();
+    try {
+      for (boolean outgoing : sides) {
+        removeEdgesFromNode(urn, relationshipTypeNames, outgoing);
+      }
+      compactIfNeeded();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private void removeEdgesFromNode(
+      @Nonnull Urn urn, @Nonnull List<String> relationshipTypeNames, boolean outgoing) {
+    if (writtenDuringBootstrap != null) {
+      if (relationshipTypeNames.isEmpty()) {
+        writtenDuringBootstrap.add(directionKey(outgoing, urn.toString(), "*"));
+      }
+      relationshipTypeNames.forEach(
+          type -> writtenDuringBootstrap.add(directionKey(outgoing, urn.toString(), type)));
+    }
+    final Integer node = nodeIds.get(urn.toString());
+    if (node != null) {
+      final Set<Integer> typeIds =
+          relationshipTypeNames.stream()
+              .map(relationshipTypes::get)
+              .filter(Objects::nonNull)
+              .collect(Collectors.toSet());
+      if (relationshipTypeNames.isEmpty() || !typeIds.isEmpty()) {
+        forEachEdge(
+            node,
+            outgoing,
+            edge -> {
+              if (relationshipTypeNames.isEmpty() || typeIds.contains(types[edge])) {
+                remove(edge);
+              }
+            });
+      }
+    }
+  }
+
+  public void clear() {
+    lock.writeLock().lock();
+    try {
+      nodeIds.clear();
+      nodeUrns.clear();
+      urnChars = 0;
+      edgeCount = 0;
+      deadEdges = 0;
+      compact();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Edges one hop away from the given urns, with the same semantics as the lineage query of the
+   * graph index: the edge must be valid for the entity type it is reached from, both of its ends
+   * must be of an allowed entity type and, when a time range is given, it must have been created
+   * or updated in the range, have no timestamps at all or have been added manually.
+   */
+  @Nonnull
+  public List<Edge> getEdges(
+      @Nonnull Collection<Urn> urns,
+      @Nonnull Set<Pair<String, EdgeInfo>> validEdges,
+      @Nonnull List<String> allowedEntityTypes,
+      @Nullable Long startTimeMillis,
+      @Nullable Long endTimeMillis) {
+    final boolean filterTime = startTimeMillis != null && endTimeMillis != null;
+    final List<Edge> result = new ArrayList<>();
+    lock.readLock().lock();
+    try {
+      final Set<Integer> allowedTypes =
+          allowedEntityTypes.stream()
+              .map(entityTypes::get)
+              .filter(Objects::nonNull)
+              .collect(Collectors.toSet());
+      final Set<Integer> seen = new HashSet<>();
+      for (Urn urn : urns) {
+        final Integer node = nodeIds.get(urn.toString());
+        if (node == null) {
+          continue;
+        }
+        for (boolean outgoing : new boolean[] {true, false}) {
+          forEachEdge(
+              node,
+              outgoing,
+              edge -> {
+                final int other = outgoing ? destinations[edge] : sources[edge];
+                if (!seen.contains(edge)
+                    && allowedTypes.contains(nodeTypes[sources[edge]])
+                    && allowedTypes.contains(nodeTypes[destinations[edge]])
+                    && (!filterTime || inTimeRange(edge, startTimeMillis, endTimeMillis))
+                    && validEdges.contains(
+                        Pair.of(
+                            urn.getEntityType(),
+                            new EdgeInfo(
+                                relationshipTypes.name(types[edge]),
+                                outgoing
+                                    ? RelationshipDirection.OUTGOING
+                                    : RelationshipDirection.INCOMING,
+                                entityTypes.name(nodeTypes[other]).toLowerCase())))) {
+                  seen.add(edge);
+                  result.add(toEdge(edge));
+                }
+              });
+        }
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    return result;
+  }
+
+  public int nodeCount() {
+    lock.readLock().lock();
+    try {
+      return nodeUrns.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public int liveEdgeCount() {
+    lock.readLock().lock();
+    try {
+      return edgeCount - deadEdges;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /** Rough size of the index on the heap. */
+  public long estimatedBytes() {
+    lock.readLock().lock();
+    try {
+      // Urn strings, their map entries and boxed ids
+      final long nodeBytes = 2 * urnChars + 112L * nodeUrns.size() + 4L * nodeTypes.length;
+      // Nine int or long columns and the flags of each edge slot
+      final long edgeBytes = 45L * sources.length;
+      final long adjacencyBytes =
+          4L * (outOffsets.length + outEdges.length + inOffsets.length + inEdges.length)
+              + 64L * deltaEdges;
+      return nodeBytes + edgeBytes + adjacencyBytes;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private boolean isLineageType(@Nonnull String relationshipType) {
+    return lineageTypesLowerCase.contains(relationshipType.toLowerCase());
+  }
+
+  private void addScannedEdge(@Nonnull Edge edge) {
+    lock.writeLock().lock();
+    try {
+      if (writtenDuringBootstrap != null
+          && (writtenDuringBootstrap.contains(edgeKey(edge))
+              || writtenDuringBootstrap.contains("N|" + edge.getSource())
+              || writtenDuringBootstrap.contains("N|" + edge.getDestination())
+              || (edge.getLifecycleOwner() != null
+                  && writtenDuringBootstrap.contains("N|" + edge.getLifecycleOwner()))
+              || writtenDuringBootstrap.contains(
+                  directionKey(true, edge.getSource().toString(), edge.getRelationshipType()))
+              || writtenDuringBootstrap.contains(
+                  directionKey(true, edge.getSource().toString(), "*"))
+              || writtenDuringBootstrap.contains(
+                  directionKey(false, edge.getDestination().toString(), edge.getRelationshipType()))
+              || writtenDuringBootstrap.contains(
+                  directionKey(false, edge.getDestination().toString(), "*")))) {
+        return;
+      }
+      upsert(edge);
+      compactIfNeeded();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private void upsert(@Nonnull Edge edge) {
+    final int source = nodeId(edge.getSource());
+    final int destination = nodeId(edge.getDestination());
+    final int type = relationshipTypes.intern(edge.getRelationshipType());
+    int id = findEdge(source, type, destination);
+    final boolean isNew = id == NONE;
+    if (isNew) {
+      id = edgeCount++;
+      ensureEdgeCapacity(edgeCount);
+      sources[id] = source;
+      destinations[id] = destination;
+      types[id] = type;
+      outDelta.computeIfAbsent(source, key -> new IntList()).add(id);
+      inDelta.computeIfAbsent(destination, key -> new IntList()).add(id);
+      deltaEdges++;
+    }
+    final int previousOwner = isNew ? NONE : owners[id];
+    vias[id] = edge.getVia() == null ? NONE : nodeId(edge.getVia());
+    owners[id] = edge.getLifecycleOwner() == null ? NONE : nodeId(edge.getLifecycleOwner());
+    if (owners[id] != NONE && owners[id] != previousOwner) {
+      ownedEdges.computeIfAbsent(owners[id], key -> new IntList()).add(id);
+    }
+    createdActors[id] = edge.getCreatedActor() == null ? NONE : nodeId(edge.getCreatedActor());
+    updatedActors[id] = edge.getUpdatedActor() == null ? NONE : nodeId(edge.getUpdatedActor());
+    createdOns[id] = edge.getCreatedOn() == null ? MISSING : edge.getCreatedOn();
+    updatedOns[id] = edge.getUpdatedOn() == null ? MISSING : edge.getUpdatedOn();
+    final boolean manual =
+        edge.getProperties() != null
+            && ESGraphQueryDAO.UI.equals(edge.getProperties().get(ESGraphQueryDAO.SOURCE));
+    flags[id] = (byte) (ALIVE | (manual ? MANUAL : 0));
+  }
+
+  private void remove(int edge) {
+    if (edge != NONE && (flags[edge] & ALIVE) != 0) {
+      flags[edge] = 0;
+      deadEdges++;
+    }
+  }
+
+  private int findEdge(int source, int type, int destination) {
+    final int[] found = {NONE};
+    forEachEdge(
+        source,
+        true,
+        edge -> {
+          if (types[edge] == type && destinations[edge] == destination) {
+            found[0] = edge;
+          }
+        });
+    return found[0];
+  }
+
+  /** Calls the consumer for each live edge leaving (outgoing) or entering a node. */
+  private void forEachEdge(int node, boolean outgoing, @Nonnull IntConsumer consumer) {
+    final int[] offsets = outgoing ? outOffsets : inOffsets;
+    final int[] edges = outgoing ? outEdges : inEdges;
+    if (node < adjacencyNodes) {
+      for (int i = offsets[node]; i < offsets[node + 1]; i++) {
+        if ((flags[edges[i]] & ALIVE) != 0) {
+          consumer.accept(edges[i]);
+        }
+      }
+    }
+    final IntList delta = (outgoing ? outDelta : inDelta).get(node);
+    if (delta != null) {
+      for (int i = 0; i < delta.size; i++) {
+        if ((flags[delta.values[i]] & ALIVE) != 0) {
+          consumer.accept(delta.values[i]);
+        }
+      }
+    }
+  }
+
+  private boolean inTimeRange(int edge, long startTimeMillis, long endTimeMillis) {
+    final long createdOn = createdOns[edge];
+    final long updatedOn = updatedOns[edge];
+    return (flags[edge] & MANUAL) != 0
+        || (createdOn != MISSING && createdOn >= startTimeMillis && createdOn <= endTimeMillis)
+        || (updatedOn != MISSING && updatedOn >= startTimeMillis && updatedOn <= endTimeMillis)
+        || ((createdOn == MISSING || createdOn == 0) && (updatedOn == MISSING || updatedOn == 0));
+  }
+
+  private Edge toEdge(int edge) {
+    return new Edge(
+        urn(sources[edge]),
+        urn(destinations[edge]),
+        relationshipTypes.name(types[edge]),
+        createdOns[edge] == MISSING ? null : createdOns[edge],
+        urn(createdActors[edge]),
+        updatedOns[edge] == MISSING ? null : updatedOns[edge],
+        urn(updatedActors[edge]),
+        (flags[edge] & MANUAL) != 0 ? MANUAL_PROPERTIES : null,
+        urn(owners[edge]),
+        urn(vias[edge]));
+  }
+
+  @Nullable
+  private Urn urn(int node) {
+    return node == NONE ? null : UrnUtils.getUrn(nodeUrns.get(node));
+  }
+
+  private int nodeId(@Nonnull Urn urn) {
+    final String key = urn.toString();
+    Integer id = nodeIds.get(key);
+    if (id == null) {
+      id = nodeUrns.size();
+      nodeIds.put(key, id);
+      nodeUrns.add(key);
+      urnChars += key.length();
+      if (id >= nodeTypes.length) {
+        nodeTypes = Arrays.copyOf(nodeTypes, nodeTypes.length * 2);
+      }
+      nodeTypes[id] = entityTypes.intern(urn.getEntityType());
+    }
+    return id;
+  }
+
+  private void ensureEdgeCapacity(int capacity) {
+    if (capacity <= sources.length) {
+      return;
+    }
+    final int size = Math.max(capacity, Math.max(1024, sources.length * 2));
+    sources = Arrays.copyOf(sources, size);
+    destinations = Arrays.copyOf(destinations, size);
+    types = Arrays.copyOf(types, size);
+    vias = Arrays.copyOf(vias, size);
+    owners = Arrays.copyOf(owners, size);
+    createdActors = Arrays.copyOf(createdActors, size);
+    updatedActors = Arrays.copyOf(updatedActors, size);
+    createdOns = Arrays.copyOf(createdOns, size);
+    updatedOns = Arrays.copyOf(updatedOns, size);
+    flags = Arrays.copyOf(flags, size);
+  }
+
+  private void compactIfNeeded() {
+    final int threshold = Math.max(MIN_COMPACTION_EDGES, (edgeCount - deadEdges) / 8);
+    if (deltaEdges > threshold || deadEdges > threshold) {
+      compact();
+    }
+  }
+
+  /** Drops removed edges and rebuilds the adjacency arrays from every live edge. */
+  @VisibleForTesting
+  void compact() {
+    int live = 0;
+    for (int edge = 0; edge < edgeCount; edge++) {
+      if ((flags[edge] & ALIVE) != 0) {
+        sources[live] = sources[edge];
+        destinations[live] = destinations[edge];
+        types[live] = types[edge];
+        vias[live] = vias[edge];
+        owners[live] = owners[edge];
+        createdActors[live] = createdActors[edge];
+        updatedActors[live] = updatedActors[edge];
+        createdOns[live] = createdOns[edge];
+        updatedOns[live] = updatedOns[edge];
+        flags[live] = flags[edge];
+        live++;
+      }
+    }
+    Arrays.fill(flags, live, edgeCount, (byte) 0);
+    edgeCount = live;
+    deadEdges = 0;
+
+    adjacencyNodes = nodeUrns.size();
+    outOffsets = new int[adjacencyNodes + 1];
+    inOffsets = new int[adjacencyNodes + 1];
+    for (int edge = 0; edge < edgeCount; edge++) {
+      outOffsets[sources[edge] + 1]++;
+      inOffsets[destinations[edge] + 1]++;
+    }
+    for (int node = 0; node < adjacencyNodes; node++) {
+      outOffsets[node + 1] += outOffsets[node];
+      inOffsets[node + 1] += inOffsets[node];
+    }
+    outEdges = new int[edgeCount];
+    inEdges = new int[edgeCount];
+    final int[] outFill = Arrays.copyOf(outOffsets, adjacencyNodes);
+    final int[] inFill = Arrays.copyOf(inOffsets, adjacencyNodes);
+    ownedEdges.clear();
+    for (int edge = 0; edge < edgeCount; edge++) {
+      outEdges[outFill[sources[edge]]++] = edge;
+      inEdges[inFill[destinations[edge]]++] = edge;
+      if (owners[edge] != NONE) {
+        ownedEdges.computeIfAbsent(owners[edge], key -> new IntList()).add(edge);
+      }
+    }
+    outDelta.clear();
+    inDelta.clear();
+    deltaEdges = 0;
+  }
+
+  private static String edgeKey(@Nonnull Edge edge) {
+    return "E|" + edge.getSource() + "|" + edge.getRelationshipType() + "|" + edge.getDestination();
+  }
+
+  private static String directionKey(boolean outgoing, String urn, String relationshipType) {
+    return (outgoing ? "O|" : "I|") + urn + "|" + relationshipType;
+  }
+
+  private static class IntList {
+    private int[] values = new int[2];
+    private int size;
+
+    void add(int value) {
+      if (size == values.length) {
+        values = Arrays.copyOf(values, size * 2);
+      }
+      values[size++] = value;
+    }
+  }
+
+  /** Assigns consecutive ids to a small set of names. */
+  private static class Interner {
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+
+    int intern(@Nonnull String name) {
+      return ids.computeIfAbsent(
+          name,
+          key -> {
+            names.add(key);
+            return names.size() - 1;
+          });
+    }
+
+    @Nullable
+    Integer get(@Nonnull String name) {
+      return ids.get(name);
+    }
+
+    String name(int id) {
+      return names.get(id);
+    }
+  }
+}
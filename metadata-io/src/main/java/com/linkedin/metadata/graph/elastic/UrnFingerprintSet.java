@@ -0,0 +1,94 @@
+package com.linkedin.metadata.graph.elastic;
+
+import com.google.common.hash.Hashing;
+import com.linkedin.common.urn.Urn;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.charset.StandardCharsets;
+import javax.annotation.Nonnull;
+
+/**
+ * Set of urns kept as 64 bit fingerprints in an open addressing table allocated off-heap, so a walk
+ * over a very large lineage graph remembers the entities it visited at 16 to 32 bytes each and
+ * without growing the heap. Two urns with the same fingerprint are taken to be the same urn, which
+ * at a few million urns happens with a probability in the order of 10^-7.
+ */
+public class UrnFingerprintSet {
+  private static final int INITIAL_CAPACITY = 1 << 10;
+  // Marks a free slot, fingerprints that happen to be zero are stored as one
+  private static final long EMPTY = 0L;
+
+  private LongBuffer table;
+  private int size = 0;
+
+  public UrnFingerprintSet() {
+    this.table = allocate(INITIAL_CAPACITY);
+  }
+
+  /**
+   * @return whether the urn was not in the set yet
+   */
+  public boolean add(@Nonnull Urn urn) {
+    if ((size + 1) * 2 > table.capacity()) {
+      resize();
+    }
+    if (insert(table, fingerprint(urn))) {
+      size++;
+      return true;
+    }
+    return false;
+  }
+
+  public boolean contains(@Nonnull Urn urn) {
+    final long fingerprint = fingerprint(urn);
+    final int mask = table.capacity() - 1;
+    for (int slot = (int) fingerprint & mask; ; slot = (slot + 1) & mask) {
+      final long current = table.get(slot);
+      if (current == EMPTY) {
+        return false;
+      }
+      if (current == fingerprint) {
+        return true;
+      }
+    }
+  }
+
+  public int size() {
+    return size;
+  }
+
+  private static long fingerprint(@Nonnull Urn urn) {
+    final long fingerprint =
+        Hashing.murmur3_128().hashString(urn.toString(), StandardCharsets.UTF_8).asLong();
+    return fingerprint == EMPTY ? 1L : fingerprint;
+  }
+
+  private static boolean insert(@Nonnull LongBuffer table, long fingerprint) {
+    final int mask = table.capacity() - 1;
+    for (int slot = (int) fingerprint & mask; ; slot = (slot + 1) & mask) {
+      final long current = table.get(slot);
+      if (current == fingerprint) {
+        return false;
+      }
+      if (current == EMPTY) {
+        table.put(slot, fingerprint);
+        return true;
+      }
+    }
+  }
+
+  private void resize() {
+    final LongBuffer resized = allocate(table.capacity() * 2);
+    for (int slot = 0; slot < table.capacity(); slot++) {
+      final long fingerprint = table.get(slot);
+      if (fingerprint != EMPTY) {
+        insert(resized, fingerprint);
+      }
+    }
+    table = resized;
+  }
+
+  private static LongBuffer allocate(int capacity) {
+    return ByteBuffer.allocateDirect(capacity * Long.BYTES).asLongBuffer();
+  }
+}
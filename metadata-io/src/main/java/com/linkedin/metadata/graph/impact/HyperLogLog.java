@@ -0,0 +1,112 @@
+package com.linkedin.metadata.graph.impact;
+
+import com.google.common.hash.Hashing;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import javax.annotation.Nonnull;
+
+/**
+ * HyperLogLog sketch estimating the number of distinct elements added to it. Sketches of two sets
+ * merge into the sketch of their union, which is what makes them cheap to propagate along lineage
+ * edges. The relative error is about {@code 1.04 / sqrt(2^precision)}.
+ */
+public class HyperLogLog {
+  private final int precision;
+  private final byte[] registers;
+
+  public HyperLogLog(int precision) {
+    if (precision < 4 || precision > 16) {
+      throw new IllegalArgumentException("HyperLogLog precision must be between 4 and 16");
+    }
+    this.precision = precision;
+    this.registers = new byte[1 << precision];
+  }
+
+  private HyperLogLog(int precision, byte[] registers) {
+    this.precision = precision;
+    this.registers = registers;
+  }
+
+  /** Hash of an element, to be passed to {@link #add(long)}. */
+  public static long hash(@Nonnull String element) {
+    return Hashing.murmur3_128().hashString(element, StandardCharsets.UTF_8).asLong();
+  }
+
+  /**
+   * Adds the element with the given hash.
+   *
+   * @return whether the sketch changed
+   */
+  public boolean add(long hash) {
+    final int index = (int) (hash >>> (Long.SIZE - precision));
+    // The sentinel bit caps the rank at the number of hash bits left after the index
+    final byte rank =
+        (byte) (Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1);
+    if (rank > registers[index]) {
+      registers[index] = rank;
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Adds every element of another sketch of the same precision.
+   *
+   * @return whether the sketch changed
+   */
+  public boolean merge(@Nonnull HyperLogLog other) {
+    if (other.precision != precision) {
+      throw new IllegalArgumentException(
+          "Cannot merge HyperLogLog sketches of different precision");
+    }
+    boolean changed = false;
+    for (int i = 0; i < registers.length; i++) {
+      if (other.registers[i] > registers[i]) {
+        registers[i] = other.registers[i];
+        changed = true;
+      }
+    }
+    return changed;
+  }
+
+  /** Estimated number of distinct elements added. */
+  public long estimate() {
+    final int m = registers.length;
+    double sum = 0;
+    int zeros = 0;
+    for (byte register : registers) {
+      sum += 1.0 / (1L << register);
+      if (register == 0) {
+        zeros++;
+      }
+    }
+    final double estimate = alpha(m) * m * m / sum;
+    if (estimate <= 2.5 * m && zeros > 0) {
+      // Small range correction, linear counting of the empty registers
+      return Math.round(m * Math.log((double) m / zeros));
+    }
+    return Math.round(estimate);
+  }
+
+  @Nonnull
+  public HyperLogLog copy() {
+    return new HyperLogLog(precision, Arrays.copyOf(registers, registers.length));
+  }
+
+  public int sizeInBytes() {
+    return registers.length;
+  }
+
+  private static double alpha(int m) {
+    switch (m) {
+      case 16:
+        return 0.673;
+      case 32:
+        return 0.697;
+      case 64:
+        return 0.709;
+      default:
+        return 0.7213 / (1 + 1.079 / m);
+    }
+  }
+}
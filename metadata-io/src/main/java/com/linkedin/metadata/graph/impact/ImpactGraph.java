@@ -0,0 +1,391 @@
+package com.linkedin.metadata.graph.impact;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Lineage graph over int node ids with the impact counts of every node. Each node has six counts,
+ * the number of upstreams at one hop, three hops and any depth followed by the same for
+ * downstreams. Not thread safe.
+ */
+class ImpactGraph {
+  static final int COUNTS = 6;
+  static final int UPSTREAM = 0;
+  static final int DOWNSTREAM = 3;
+  static final int ONE_HOP = 0;
+  static final int THREE_HOPS = 1;
+  static final int ALL = 2;
+  private static final int NOT_WRITTEN = -1;
+
+  private final int precision;
+  private final Map<String, Integer> nodeIds = new HashMap<>();
+  private final List<String> urns = new ArrayList<>();
+  private long[] hashes = new long[16];
+  // upstreams of node n are the nodes n is directly downstream of, and the other way around
+  private final Adjacency upstreams = new Adjacency();
+  private final Adjacency downstreams = new Adjacency();
+  // Sketches of the nodes reachable from each node, the node included
+  private HyperLogLog[] upstreamSketches = new HyperLogLog[16];
+  private HyperLogLog[] downstreamSketches = new HyperLogLog[16];
+  private int[] counts = new int[16 * COUNTS];
+  private int[] written = new int[16 * COUNTS];
+
+  // Edges staged by a full load, upstream node in the high bits
+  private long[] staged = new long[16];
+  private int stagedSize;
+
+  ImpactGraph(int precision) {
+    this.precision = precision;
+    Arrays.fill(written, NOT_WRITTEN);
+  }
+
+  int nodeCount() {
+    return urns.size();
+  }
+
+  @Nonnull
+  String urn(int node) {
+    return urns.get(node);
+  }
+
+  @Nullable
+  Integer nodeId(@Nonnull String urn) {
+    return nodeIds.get(urn);
+  }
+
+  int intern(@Nonnull String urn) {
+    final Integer existing = nodeIds.get(urn);
+    if (existing != null) {
+      return existing;
+    }
+    final int node = urns.size();
+    if (node == hashes.length) {
+      final int capacity = node * 2;
+      hashes = Arrays.copyOf(hashes, capacity);
+      upstreamSketches = Arrays.copyOf(upstreamSketches, capacity);
+      downstreamSketches = Arrays.copyOf(downstreamSketches, capacity);
+      counts = Arrays.copyOf(counts, capacity * COUNTS);
+      written = Arrays.copyOf(written, capacity * COUNTS);
+      Arrays.fill(written, node * COUNTS, written.length, NOT_WRITTEN);
+    }
+    nodeIds.put(urn, node);
+    urns.add(urn);
+    hashes[node] = HyperLogLog.hash(urn);
+    upstreamSketches[node] = selfSketch(node);
+    downstreamSketches[node] = selfSketch(node);
+    upstreams.grow(node + 1);
+    downstreams.grow(node + 1);
+    return node;
+  }
+
+  /** Stages an edge of a full load, duplicates are dropped by {@link #computeAll()}. */
+  void stageEdge(int upstream, int downstream) {
+    if (stagedSize == staged.length) {
+      staged = Arrays.copyOf(staged, stagedSize * 2);
+    }
+    staged[stagedSize++] = ((long) upstream << 32) | downstream;
+  }
+
+  /** Adds the staged edges and computes the counts of every node. */
+  void computeAll() {
+    Arrays.sort(staged, 0, stagedSize);
+    for (int i = 0; i < stagedSize; i++) {
+      if (i > 0 && staged[i] == staged[i - 1]) {
+        continue;
+      }
+      final int upstream = (int) (staged[i] >>> 32);
+      final int downstream = (int) staged[i];
+      downstreams.append(upstream, downstream);
+      upstreams.append(downstream, upstream);
+    }
+    staged = new long[16];
+    stagedSize = 0;
+
+    upstreamSketches = propagate(upstreams, UPSTREAM);
+    downstreamSketches = propagate(downstreams, DOWNSTREAM);
+  }
+
+  /**
+   * Adds an edge, spreading the sketches of its ends to the nodes that can now reach them.
+   *
+   * @param touched receives the nodes whose counts were recomputed
+   * @return false if more than {@code maxAffected} sketches needed spreading, the rest are left
+   *     stale
+   */
+  boolean addEdge(int upstream, int downstream, int maxAffected, @Nonnull Set<Integer> touched) {
+    if (!downstreams.add(upstream, downstream)) {
+      return true;
+    }
+    upstreams.add(downstream, upstream);
+    final Set<Integer> affected = new HashSet<>();
+    boolean complete =
+        spread(downstreamSketches, upstreams, upstream, downstream, maxAffected, affected);
+    complete &= spread(upstreamSketches, downstreams, downstream, upstream, maxAffected, affected);
+    affected.addAll(neighbourhood(upstream, upstreams, 2));
+    affected.addAll(neighbourhood(downstream, downstreams, 2));
+    affected.forEach(this::recount);
+    touched.addAll(affected);
+    return complete;
+  }
+
+  /**
+   * Removes an edge. The one and three hop counts of the nodes within reach are recomputed, the
+   * counts at any depth only drop on the next full load.
+   *
+   * @param touched receives the nodes whose counts were recomputed
+   */
+  void removeEdge(int upstream, int downstream, @Nonnull Set<Integer> touched) {
+    if (!downstreams.remove(upstream, downstream)) {
+      return;
+    }
+    upstreams.remove(downstream, upstream);
+    final Set<Integer> affected = new HashSet<>();
+    affected.addAll(neighbourhood(upstream, upstreams, 2));
+    affected.addAll(neighbourhood(downstream, downstreams, 2));
+    affected.forEach(this::recount);
+    touched.addAll(affected);
+  }
+
+  /** Removes every edge of a node. */
+  void removeNode(int node, @Nonnull Set<Integer> touched) {
+    for (int downstream : downstreams.copy(node)) {
+      removeEdge(node, downstream, touched);
+    }
+    for (int upstream : upstreams.copy(node)) {
+      removeEdge(upstream, node, touched);
+    }
+  }
+
+  int count(int node, int direction, int depth) {
+    return counts[node * COUNTS + direction + depth];
+  }
+
+  /**
+   * The counts of a node if they changed since they were last taken, null otherwise.
+   *
+   * @return the counts, in the order of {@link LineageImpactService#COUNT_FIELDS}
+   */
+  @Nullable
+  int[] takeChangedCounts(int node) {
+    final int from = node * COUNTS;
+    final int to = from + COUNTS;
+    if (Arrays.equals(counts, from, to, written, from, to)) {
+      return null;
+    }
+    System.arraycopy(counts, from, written, from, COUNTS);
+    return Arrays.copyOfRange(counts, from, to);
+  }
+
+  /** Whether a count other than zero was taken by {@link #takeChangedCounts} for the node. */
+  boolean hasWrittenCounts(int node) {
+    for (int i = node * COUNTS; i < (node + 1) * COUNTS; i++) {
+      if (written[i] > 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  long estimatedBytes() {
+    return 2L * nodeCount() * ((1 << precision) + 16)
+        + hashes.length * 8L
+        + (counts.length + written.length) * 4L
+        + upstreams.estimatedBytes()
+        + downstreams.estimatedBytes();
+  }
+
+  private HyperLogLog selfSketch(int node) {
+    final HyperLogLog sketch = new HyperLogLog(precision);
+    sketch.add(hashes[node]);
+    return sketch;
+  }
+
+  /**
+   * HyperANF over one direction of the graph: three rounds of merging the sketches of neighbours
+   * give the three hop counts, merging in place until no sketch changes gives the counts at any
+   * depth.
+   */
+  private HyperLogLog[] propagate(Adjacency adjacency, int direction) {
+    final int nodes = nodeCount();
+    HyperLogLog[] sketches = new HyperLogLog[hashes.length];
+    for (int node = 0; node < nodes; node++) {
+      sketches[node] = selfSketch(node);
+    }
+    for (int round = 0; round < 3; round++) {
+      final HyperLogLog[] next = new HyperLogLog[sketches.length];
+      for (int node = 0; node < nodes; node++) {
+        next[node] = sketches[node].copy();
+        for (int i = 0; i < adjacency.size(node); i++) {
+          next[node].merge(sketches[adjacency.get(node, i)]);
+        }
+      }
+      sketches = next;
+    }
+    for (int node = 0; node < nodes; node++) {
+      final int oneHop = adjacency.size(node);
+      counts[node * COUNTS + direction + ONE_HOP] = oneHop;
+      counts[node * COUNTS + direction + THREE_HOPS] =
+          (int) Math.max(oneHop, sketches[node].estimate() - 1);
+    }
+    boolean changed = true;
+    while (changed) {
+      changed = false;
+      for (int node = 0; node < nodes; node++) {
+        for (int i = 0; i < adjacency.size(node); i++) {
+          changed |= sketches[node].merge(sketches[adjacency.get(node, i)]);
+        }
+      }
+    }
+    for (int node = 0; node < nodes; node++) {
+      counts[node * COUNTS + direction + ALL] =
+          (int)
+              Math.max(
+                  counts[node * COUNTS + direction + THREE_HOPS], sketches[node].estimate() - 1);
+    }
+    return sketches;
+  }
+
+  /**
+   * Merges the sketch of {@code to} into the sketch of {@code from}, then on into the nodes that
+   * reach {@code from} through {@code reverse} for as long as their sketches change.
+   */
+  private static boolean spread(
+      HyperLogLog[] sketches,
+      Adjacency reverse,
+      int from,
+      int to,
+      int maxAffected,
+      Set<Integer> affected) {
+    final Queue<Integer> queue = new ArrayDeque<>();
+    if (sketches[from].merge(sketches[to])) {
+      queue.add(from);
+    }
+    while (!queue.isEmpty()) {
+      if (affected.size() >= maxAffected) {
+        return false;
+      }
+      final int node = queue.poll();
+      affected.add(node);
+      for (int i = 0; i < reverse.size(node); i++) {
+        final int next = reverse.get(node, i);
+        if (sketches[next].merge(sketches[node])) {
+          queue.add(next);
+        }
+      }
+    }
+    return true;
+  }
+
+  /** The node and the nodes within {@code hops} of it through {@code adjacency}. */
+  private static Set<Integer> neighbourhood(int node, Adjacency adjacency, int hops) {
+    final Set<Integer> visited = new HashSet<>();
+    visited.add(node);
+    List<Integer> frontier = List.of(node);
+    for (int hop = 0; hop < hops && !frontier.isEmpty(); hop++) {
+      final List<Integer> next = new ArrayList<>();
+      for (int current : frontier) {
+        for (int i = 0; i < adjacency.size(current); i++) {
+          if (visited.add(adjacency.get(current, i))) {
+            next.add(adjacency.get(current, i));
+          }
+        }
+      }
+      frontier = next;
+    }
+    return visited;
+  }
+
+  /** Recomputes the counts of a node, exactly up to three hops. */
+  private void recount(int node) {
+    recount(node, upstreams, upstreamSketches, UPSTREAM);
+    recount(node, downstreams, downstreamSketches, DOWNSTREAM);
+  }
+
+  private void recount(int node, Adjacency adjacency, HyperLogLog[] sketches, int direction) {
+    final int base = node * COUNTS + direction;
+    counts[base + ONE_HOP] = adjacency.size(node);
+    counts[base + THREE_HOPS] = neighbourhood(node, adjacency, 3).size() - 1;
+    counts[base + ALL] = (int) Math.max(counts[base + THREE_HOPS], sketches[node].estimate() - 1);
+  }
+
+  /** Neighbour lists per node, in no particular order. */
+  private static class Adjacency {
+    private static final int[] EMPTY = new int[0];
+    private int[][] neighbours = new int[16][];
+    private int[] sizes = new int[16];
+
+    void grow(int nodes) {
+      if (nodes > neighbours.length) {
+        final int capacity = Math.max(nodes, neighbours.length * 2);
+        neighbours = Arrays.copyOf(neighbours, capacity);
+        sizes = Arrays.copyOf(sizes, capacity);
+      }
+    }
+
+    int size(int node) {
+      return sizes[node];
+    }
+
+    int get(int node, int i) {
+      return neighbours[node][i];
+    }
+
+    void append(int node, int neighbour) {
+      int[] list = neighbours[node];
+      if (list == null) {
+        list = new int[2];
+      } else if (sizes[node] == list.length) {
+        list = Arrays.copyOf(list, list.length * 2);
+      }
+      list[sizes[node]++] = neighbour;
+      neighbours[node] = list;
+    }
+
+    boolean add(int node, int neighbour) {
+      if (indexOf(node, neighbour) >= 0) {
+        return false;
+      }
+      append(node, neighbour);
+      return true;
+    }
+
+    boolean remove(int node, int neighbour) {
+      final int index = indexOf(node, neighbour);
+      if (index < 0) {
+        return false;
+      }
+      neighbours[node][index] = neighbours[node][--sizes[node]];
+      return true;
+    }
+
+    int[] copy(int node) {
+      return sizes[node] == 0 ? EMPTY : Arrays.copyOf(neighbours[node], sizes[node]);
+    }
+
+    long estimatedBytes() {
+      long bytes = neighbours.length * 8L + sizes.length * 4L;
+      for (int[] list : neighbours) {
+        bytes += list == null ? 0 : 16 + list.length * 4L;
+      }
+      return bytes;
+    }
+
+    private int indexOf(int node, int neighbour) {
+      for (int i = 0; i < sizes[node]; i++) {
+        if (neighbours[node][i] == neighbour) {
+          return i;
+        }
+      }
+      return -1;
+    }
+  }
+}
@@ -0,0 +1,372 @@
+package com.linkedin.metadata.graph.impact;
+
+import static com.linkedin.metadata.utils.SearchUtil.sortBy;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Timer;
+import com.google.common.annotations.VisibleForTesting;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.common.urn.UrnUtils;
+import com.linkedin.metadata.graph.Edge;
+import com.linkedin.metadata.graph.GraphService;
+import com.linkedin.metadata.graph.LineageDirection;
+import com.linkedin.metadata.graph.RelatedEntities;
+import com.linkedin.metadata.graph.RelatedEntitiesScrollResult;
+import com.linkedin.metadata.models.registry.LineageRegistry;
+import com.linkedin.metadata.models.registry.LineageRegistry.EdgeInfo;
+import com.linkedin.metadata.query.filter.RelationshipDirection;
+import com.linkedin.metadata.query.filter.RelationshipFilter;
+import com.linkedin.metadata.query.filter.SortCriterion;
+import com.linkedin.metadata.query.filter.SortOrder;
+import com.linkedin.metadata.search.EntitySearchService;
+import com.linkedin.metadata.utils.metrics.MetricUtils;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.Getter;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Maintains the number of upstream and downstream entities of every entity with lineage, at one
+ * hop, three hops and any depth, as sortable fields of the entity's search document so that impact
+ * badges and sorting by impact do not walk the lineage graph at query time.
+ *
+ * <p>A full rebuild scrolls every lineage edge of the graph service into int adjacency lists. One
+ * hop counts are exact. Deeper counts are estimated from HyperLogLog sketches of the entities
+ * reachable from each entity: three rounds of merging every sketch with the sketches of its
+ * neighbours cover three hops, merging until no sketch changes covers any depth.
+ *
+ * <p>Between rebuilds, the lineage edges applied from the change log are queued and folded in
+ * periodically. An added edge spreads the sketches across it and on through every entity whose
+ * sketch changes, and the one and three hop counts of the entities within reach are recomputed
+ * exactly. Sketches cannot forget, so a removed edge lowers the one and three hop counts right
+ * away but the counts at any depth only at the next rebuild. Counts are only written to search
+ * documents that exist, entities whose document is created later get them at the next rebuild.
+ * The service must run where the change log is applied to the graph.
+ */
+@Slf4j
+public class LineageImpactService implements AutoCloseable {
+  public static final String UPSTREAM_COUNT = "upstreamCount";
+  public static final String UPSTREAM_COUNT_3_HOPS = "upstreamCount3Hops";
+  public static final String UPSTREAM_COUNT_ALL = "upstreamCountAll";
+  public static final String DOWNSTREAM_COUNT = "downstreamCount";
+  public static final String DOWNSTREAM_COUNT_3_HOPS = "downstreamCount3Hops";
+  public static final String DOWNSTREAM_COUNT_ALL = "downstreamCountAll";
+
+  /** Search document fields holding the counts. */
+  public static final List<String> COUNT_FIELDS =
+      List.of(
+          UPSTREAM_COUNT,
+          UPSTREAM_COUNT_3_HOPS,
+          UPSTREAM_COUNT_ALL,
+          DOWNSTREAM_COUNT,
+          DOWNSTREAM_COUNT_3_HOPS,
+          DOWNSTREAM_COUNT_ALL);
+
+  private static final List<SortCriterion> EDGE_SORT_CRITERION =
+      List.of(
+          sortBy("source.urn", SortOrder.ASCENDING),
+          sortBy("destination.urn", SortOrder.ASCENDING),
+          sortBy("relationshipType", SortOrder.ASCENDING));
+
+  private enum ChangeType {
+    ADD_EDGE,
+    REMOVE_EDGE,
+    REMOVE_NODE
+  }
+
+  @Value
+  private static class Change {
+    ChangeType type;
+    String source;
+    @Nullable String destination;
+    @Nullable String relationshipType;
+  }
+
+  private final GraphService graphService;
+  private final EntitySearchService entitySearchService;
+  @Getter private final boolean enabled;
+  private final int precision;
+  private final int batchSize;
+  private final int maxAffected;
+  private final int maxPendingChanges;
+  private final List<String> lineageTypes;
+  private final Set<String> lineageTypesLowerCase;
+  private final Map<String, Optional<Boolean>> upstreamEdges = new ConcurrentHashMap<>();
+  private final Queue<Change> pending = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger pendingCount = new AtomicInteger();
+  private final ScheduledExecutorService executorService =
+      Executors.newSingleThreadScheduledExecutor();
+
+  // Only changed from the executor, null until the first rebuild
+  @Nullable private volatile ImpactGraph graph;
+
+  public LineageImpactService(
+      @Nonnull GraphService graphService,
+      @Nonnull EntitySearchService entitySearchService,
+      boolean enabled,
+      int precision,
+      int batchSize,
+      int maxAffected,
+      int maxPendingChanges) {
+    this.graphService = graphService;
+    this.entitySearchService = entitySearchService;
+    this.enabled = enabled;
+    this.precision = precision;
+    this.batchSize = batchSize;
+    this.maxAffected = maxAffected;
+    this.maxPendingChanges = maxPendingChanges;
+    this.lineageTypes =
+        new ArrayList<>(graphService.getLineageRegistry().getLineageRelationshipTypes());
+    this.lineageTypesLowerCase =
+        lineageTypes.stream().map(String::toLowerCase).collect(Collectors.toSet());
+    MetricUtils.gauge(
+        LineageImpactService.class, "pendingChanges", () -> (Gauge<Integer>) pendingCount::get);
+    MetricUtils.gauge(
+        LineageImpactService.class,
+        "nodes",
+        () -> (Gauge<Integer>) () -> graph == null ? 0 : graph.nodeCount());
+    MetricUtils.gauge(
+        LineageImpactService.class,
+        "estimatedBytes",
+        () -> (Gauge<Long>) () -> graph == null ? 0L : graph.estimatedBytes());
+  }
+
+  /** Rebuild the counts now and every {@code rebuildIntervalHours}, fold in changes in between. */
+  public void start(long flushIntervalSeconds, long rebuildIntervalHours) {
+    if (enabled) {
+      executorService.scheduleWithFixedDelay(
+          this::rebuild, 0, rebuildIntervalHours, TimeUnit.HOURS);
+      executorService.scheduleWithFixedDelay(
+          this::flush, flushIntervalSeconds, flushIntervalSeconds, TimeUnit.SECONDS);
+    }
+  }
+
+  /** Record lineage edges added and removed by the change log. Other edges are ignored. */
+  public void onEdgesChanged(@Nonnull Collection<Edge> added, @Nonnull Collection<Edge> removed) {
+    if (!enabled) {
+      return;
+    }
+    added.forEach(edge -> enqueue(ChangeType.ADD_EDGE, edge));
+    removed.forEach(edge -> enqueue(ChangeType.REMOVE_EDGE, edge));
+  }
+
+  /** Record that an entity and every edge of it were deleted. */
+  public void onEntityDeleted(@Nonnull Urn urn) {
+    if (enabled) {
+      enqueue(new Change(ChangeType.REMOVE_NODE, urn.toString(), null, null));
+    }
+  }
+
+  /** Recompute every count from the lineage edges of the graph and write them. */
+  @VisibleForTesting
+  void rebuild() {
+    try (Timer.Context ignored = MetricUtils.timer(LineageImpactService.class, "rebuild").time()) {
+      final ImpactGraph rebuilt = new ImpactGraph(precision);
+      String scrollId = null;
+      do {
+        final RelatedEntitiesScrollResult result =
+            graphService.scrollRelatedEntities(
+                null,
+                null,
+                null,
+                null,
+                lineageTypes,
+                new RelationshipFilter().setDirection(RelationshipDirection.UNDIRECTED),
+                EDGE_SORT_CRITERION,
+                scrollId,
+                batchSize,
+                null,
+                null);
+        for (RelatedEntities edge : result.getEntities()) {
+          final Boolean upstream =
+              isUpstreamEdge(
+                  edge.getSourceUrn(), edge.getRelationshipType(), edge.getDestinationUrn());
+          if (upstream != null) {
+            final int source = rebuilt.intern(edge.getSourceUrn());
+            final int destination = rebuilt.intern(edge.getDestinationUrn());
+            if (upstream) {
+              rebuilt.stageEdge(destination, source);
+            } else {
+              rebuilt.stageEdge(source, destination);
+            }
+          }
+        }
+        scrollId = result.getScrollId();
+      } while (scrollId != null);
+      rebuilt.computeAll();
+      final ImpactGraph previous = graph;
+      graph = rebuilt;
+
+      int written = 0;
+      for (int node = 0; node < rebuilt.nodeCount(); node++) {
+        written += write(rebuilt, node) ? 1 : 0;
+      }
+      // Entities without lineage edges anymore would keep the counts last written for them
+      if (previous != null) {
+        for (int node = 0; node < previous.nodeCount(); node++) {
+          final String urn = previous.urn(node);
+          if (rebuilt.nodeId(urn) == null && previous.hasWrittenCounts(node)) {
+            written += write(urn, new int[ImpactGraph.COUNTS]) ? 1 : 0;
+          }
+        }
+      }
+      log.info("Rebuilt lineage impact counts of {} entities", written);
+    } catch (Exception e) {
+      MetricUtils.exceptionCounter(LineageImpactService.class, "rebuild", e);
+      log.error("Failed to rebuild lineage impact counts", e);
+    }
+  }
+
+  /** Fold the queued changes into the counts and write the counts that changed. */
+  @VisibleForTesting
+  void flush() {
+    final ImpactGraph current = graph;
+    if (current == null) {
+      return;
+    }
+    try (Timer.Context ignored = MetricUtils.timer(LineageImpactService.class, "flush").time()) {
+      final Set<Integer> touched = new HashSet<>();
+      Change change;
+      while ((change = pending.poll()) != null) {
+        pendingCount.decrementAndGet();
+        apply(current, change, touched);
+      }
+      int written = 0;
+      for (int node : touched) {
+        written += write(current, node) ? 1 : 0;
+      }
+      MetricUtils.counter(LineageImpactService.class, "writes").inc(written);
+    } catch (Exception e) {
+      MetricUtils.exceptionCounter(LineageImpactService.class, "flush", e);
+      log.error("Failed to update lineage impact counts", e);
+    }
+  }
+
+  @Override
+  public void close() {
+    executorService.shutdownNow();
+  }
+
+  private void enqueue(ChangeType type, Edge edge) {
+    if (lineageTypesLowerCase.contains(edge.getRelationshipType().toLowerCase())) {
+      enqueue(
+          new Change(
+              type,
+              edge.getSource().toString(),
+              edge.getDestination().toString(),
+              edge.getRelationshipType()));
+    }
+  }
+
+  private void enqueue(Change change) {
+    if (pendingCount.get() >= maxPendingChanges) {
+      // Picked up by the next rebuild
+      MetricUtils.counter(LineageImpactService.class, "droppedChanges").inc();
+      return;
+    }
+    pendingCount.incrementAndGet();
+    pending.add(change);
+  }
+
+  private void apply(ImpactGraph current, Change change, Set<Integer> touched) {
+    if (change.getType() == ChangeType.REMOVE_NODE) {
+      final Integer node = current.nodeId(change.getSource());
+      if (node != null) {
+        current.removeNode(node, touched);
+      }
+      return;
+    }
+    final Boolean upstream =
+        isUpstreamEdge(change.getSource(), change.getRelationshipType(), change.getDestination());
+    if (upstream == null) {
+      return;
+    }
+    final String upstreamUrn = upstream ? change.getDestination() : change.getSource();
+    final String downstreamUrn = upstream ? change.getSource() : change.getDestination();
+    if (change.getType() == ChangeType.ADD_EDGE) {
+      final boolean complete =
+          current.addEdge(
+              current.intern(upstreamUrn), current.intern(downstreamUrn), maxAffected, touched);
+      if (!complete) {
+        // Left for the next rebuild
+        MetricUtils.counter(LineageImpactService.class, "truncatedChanges").inc();
+      }
+    } else {
+      final Integer upstreamNode = current.nodeId(upstreamUrn);
+      final Integer downstreamNode = current.nodeId(downstreamUrn);
+      if (upstreamNode != null && downstreamNode != null) {
+        current.removeEdge(upstreamNode, downstreamNode, touched);
+      }
+    }
+  }
+
+  /**
+   * Whether the destination of an edge is upstream of its source, or downstream for false. Null
+   * when the edge is not lineage between the entity types of its ends.
+   */
+  @Nullable
+  private Boolean isUpstreamEdge(String source, String relationshipType, String destination) {
+    final String sourceType = UrnUtils.getUrn(source).getEntityType();
+    final String destinationType = UrnUtils.getUrn(destination).getEntityType();
+    return upstreamEdges
+        .computeIfAbsent(
+            sourceType + "|" + relationshipType + "|" + destinationType,
+            key -> {
+              final LineageRegistry lineageRegistry = graphService.getLineageRegistry();
+              final EdgeInfo edge =
+                  new EdgeInfo(relationshipType, RelationshipDirection.OUTGOING, destinationType);
+              if (lineageRegistry
+                  .getLineageRelationships(sourceType, LineageDirection.UPSTREAM)
+                  .contains(edge)) {
+                return Optional.of(true);
+              }
+              if (lineageRegistry
+                  .getLineageRelationships(sourceType, LineageDirection.DOWNSTREAM)
+                  .contains(edge)) {
+                return Optional.of(false);
+              }
+              return Optional.empty();
+            })
+        .orElse(null);
+  }
+
+  private boolean write(ImpactGraph current, int node) {
+    final int[] counts = current.takeChangedCounts(node);
+    if (counts == null) {
+      return false;
+    }
+    return write(current.urn(node), counts);
+  }
+
+  private boolean write(String entityUrn, int[] counts) {
+    final Map<String, Object> fields = new HashMap<>();
+    for (int i = 0; i < counts.length; i++) {
+      fields.put(COUNT_FIELDS.get(i), counts[i]);
+    }
+    final Urn urn = UrnUtils.getUrn(entityUrn);
+    try {
+      entitySearchService.updateFieldsIfExists(urn.getEntityType(), urn, fields);
+      return true;
+    } catch (RuntimeException e) {
+      log.warn("Failed to write lineage impact counts of {}", urn, e);
+      return false;
+    }
+  }
+}
@@ -7,6 +7,7 @@ import com.linkedin.common.urn.Urn;
 import com.linkedin.metadata.Constants;
 import com.linkedin.metadata.datahubusage.DataHubUsageEventConstants;
 import com.linkedin.metadata.datahubusage.DataHubUsageEventType;
+import com.linkedin.metadata.datahubusage.RecentActivityStore;
 import com.linkedin.metadata.entity.EntityService;
 import com.linkedin.metadata.recommendation.RecommendationContent;
 import com.linkedin.metadata.recommendation.RecommendationRenderType;
@@ -16,8 +17,8 @@ import com.linkedin.metadata.search.utils.ESUtils;
 import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
 import com.linkedin.metadata.utils.metrics.MetricUtils;
 import io.opentelemetry.extension.annotations.WithSpan;
-import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
@@ -27,7 +28,6 @@ import org.opensearch.action.search.SearchRequest;
 import org.opensearch.action.search.SearchResponse;
 import org.opensearch.client.RequestOptions;
 import org.opensearch.client.RestHighLevelClient;
-import org.opensearch.client.indices.GetIndexRequest;
 import org.opensearch.index.query.BoolQueryBuilder;
 import org.opensearch.index.query.QueryBuilders;
 import org.opensearch.search.aggregations.AggregationBuilder;
@@ -57,6 +57,7 @@ public class RecentlyEditedSource implements EntityRecommendationSource {
   private final RestHighLevelClient _searchClient;
   private final IndexConvention _indexConvention;
   private final EntityService<?> _entityService;
+  private final RecentActivityStore _recentActivityStore;
 
   private static final String DATAHUB_USAGE_INDEX = "datahub_usage_event";
   private static final String ENTITY_AGG_NAME = "entity";
@@ -80,17 +81,7 @@ public class RecentlyEditedSource implements EntityRecommendationSource {
   @Override
   public boolean isEligible(
       @Nonnull Urn userUrn, @Nonnull RecommendationRequestContext requestContext) {
-    boolean analyticsEnabled = false;
-    try {
-      analyticsEnabled =
-          _searchClient
-              .indices()
-              .exists(
-                  new GetIndexRequest(_indexConvention.getIndexName(DATAHUB_USAGE_INDEX)),
-                  RequestOptions.DEFAULT);
-    } catch (IOException e) {
-      log.error("Failed to check whether DataHub usage index exists");
-    }
+    boolean analyticsEnabled = _recentActivityStore.isUsageIndexPresent();
     return requestContext.getScenario() == ScenarioType.HOME && analyticsEnabled;
   }
 
@@ -98,12 +89,20 @@ public class RecentlyEditedSource implements EntityRecommendationSource {
   @WithSpan
   public List<RecommendationContent> getRecommendations(
       @Nonnull Urn userUrn, @Nonnull RecommendationRequestContext requestContext) {
+    Optional<List<String>> precomputed =
+        _recentActivityStore.getTopValues(RecentActivityStore.Activity.RECENTLY_EDITED, userUrn);
+    if (precomputed.isPresent()) {
+      return buildContent(precomputed.get(), _entityService)
+          .limit(MAX_CONTENT)
+          .collect(Collectors.toList());
+    }
     SearchRequest searchRequest = buildSearchRequest(userUrn);
     try (Timer.Context ignored = MetricUtils.timer(this.getClass(), "getRecentlyEdited").time()) {
       final SearchResponse searchResponse =
           _searchClient.search(searchRequest, RequestOptions.DEFAULT);
       // extract results
       ParsedTerms parsedTerms = searchResponse.getAggregations().get(ENTITY_AGG_NAME);
+      _recentActivityStore.seed(RecentActivityStore.Activity.RECENTLY_EDITED, userUrn, parsedTerms);
       List<String> bucketUrns =
           parsedTerms.getBuckets().stream()
               .map(MultiBucketsAggregation.Bucket::getKeyAsString)
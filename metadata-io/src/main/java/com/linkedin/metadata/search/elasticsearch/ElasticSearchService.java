@@ -13,6 +13,8 @@ import com.linkedin.metadata.search.ScrollResult;
 import com.linkedin.metadata.search.SearchResult;
 import com.linkedin.metadata.search.elasticsearch.indexbuilder.EntityIndexBuilders;
 import com.linkedin.metadata.search.elasticsearch.indexbuilder.ReindexConfig;
+import com.linkedin.metadata.search.elasticsearch.query.AutocompleteIndex;
+import com.linkedin.metadata.search.elasticsearch.query.BrowseTreeIndex;
 import com.linkedin.metadata.search.elasticsearch.query.ESBrowseDAO;
 import com.linkedin.metadata.search.elasticsearch.query.ESSearchDAO;
 import com.linkedin.metadata.search.elasticsearch.update.ESWriteDAO;
@@ -21,13 +23,16 @@ import com.linkedin.metadata.search.utils.SearchUtils;
 import com.linkedin.metadata.shared.ElasticSearchIndexed;
 import com.linkedin.structured.StructuredPropertyDefinition;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.opensearch.action.explain.ExplainResponse;
 import org.opensearch.action.search.SearchResponse;
@@ -41,6 +46,10 @@ public class ElasticSearchService implements EntitySearchService, ElasticSearchI
   private final ESSearchDAO esSearchDAO;
   private final ESBrowseDAO esBrowseDAO;
   private final ESWriteDAO esWriteDAO;
+  // Answers unfiltered autocomplete requests from memory when set
+  @Setter @Nullable private AutocompleteIndex autocompleteIndex;
+  // Index of the materialized browse tree, built with the entity indices when set
+  @Setter @Nullable private BrowseTreeIndex browseTreeIndex;
 
   @Override
   public ElasticSearchService postConstruct(AspectRetriever aspectRetriever) {
@@ -52,11 +61,31 @@ public class ElasticSearchService implements EntitySearchService, ElasticSearchI
   @Override
   public void configure() {
     indexBuilders.reindexAll();
+    if (browseTreeIndex != null) {
+      indexBuilders.getIndexBuilder().buildIndices(List.of(buildBrowseTreeReindexConfig()));
+    }
   }
 
   @Override
   public List<ReindexConfig> buildReindexConfigs() {
-    return indexBuilders.buildReindexConfigs();
+    final List<ReindexConfig> configs = new ArrayList<>(indexBuilders.buildReindexConfigs());
+    if (browseTreeIndex != null) {
+      configs.add(buildBrowseTreeReindexConfig());
+    }
+    return configs;
+  }
+
+  private ReindexConfig buildBrowseTreeReindexConfig() {
+    try {
+      return indexBuilders
+          .getIndexBuilder()
+          .buildReindexState(
+              browseTreeIndex.getIndexName(),
+              BrowseTreeIndex.getMappings(),
+              Collections.emptyMap());
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
   }
 
   @Override
@@ -73,6 +102,12 @@ public class ElasticSearchService implements EntitySearchService, ElasticSearchI
   @Override
   public void clear() {
     esWriteDAO.clear();
+    if (autocompleteIndex != null) {
+      autocompleteIndex.clear();
+    }
+    if (browseTreeIndex != null) {
+      browseTreeIndex.clear();
+    }
   }
 
   @Override
@@ -88,6 +123,9 @@ public class ElasticSearchService implements EntitySearchService, ElasticSearchI
             "Upserting Search document entityName: %s, document: %s, docId: %s",
             entityName, document, docId));
     esWriteDAO.upsertDocument(entityName, document, docId);
+    if (autocompleteIndex != null) {
+      autocompleteIndex.upsertDocument(entityName, document);
+    }
   }
 
   @Override
@@ -95,6 +133,21 @@ public class ElasticSearchService implements EntitySearchService, ElasticSearchI
     log.debug(
         String.format("Deleting Search document entityName: %s, docId: %s", entityName, docId));
     esWriteDAO.deleteDocument(entityName, docId);
+    if (autocompleteIndex != null) {
+      autocompleteIndex.deleteDocument(entityName, docId);
+    }
+  }
+
+  @Override
+  public void updateFieldsIfExists(
+      @Nonnull String entityName, @Nonnull Urn urn, @Nonnull Map<String, Object> fields) {
+    final Optional<String> maybeDocId = SearchUtils.getDocId(urn);
+    if (!maybeDocId.isPresent()) {
+      log.warn(
+          String.format("Failed to update fields, could not generate a doc id for urn %s", urn));
+      return;
+    }
+    esWriteDAO.updateFieldsIfExists(entityName, maybeDocId.get(), fields);
   }
 
   @Override
@@ -182,6 +235,13 @@ public class ElasticSearchService implements EntitySearchService, ElasticSearchI
         String.format(
             "Autocompleting query entityName: %s, query: %s, field: %s, requestParams: %s, limit: %s",
             entityName, query, field, requestParams, limit));
+    if (autocompleteIndex != null) {
+      final Optional<AutoCompleteResult> result =
+          autocompleteIndex.autoComplete(entityName, query, field, requestParams, limit);
+      if (result.isPresent()) {
+        return result.get();
+      }
+    }
     return esSearchDAO.autoComplete(entityName, query, field, requestParams, limit);
   }
 
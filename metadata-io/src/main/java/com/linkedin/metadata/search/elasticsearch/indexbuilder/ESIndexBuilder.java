@@ -3,7 +3,10 @@ package com.linkedin.metadata.search.elasticsearch.indexbuilder;
 import static com.linkedin.metadata.Constants.*;
 import static com.linkedin.metadata.search.elasticsearch.indexbuilder.MappingsBuilder.PROPERTIES;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableMap;
+import com.linkedin.metadata.config.search.BuildIndicesConfiguration;
 import com.linkedin.metadata.config.search.ElasticSearchConfiguration;
 import com.linkedin.metadata.search.utils.ESUtils;
 import com.linkedin.metadata.timeseries.BatchWriteOperationsOptions;
@@ -26,6 +29,11 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -38,12 +46,15 @@ import org.opensearch.action.admin.indices.alias.IndicesAliasesRequest;
 import org.opensearch.action.admin.indices.alias.IndicesAliasesRequest.AliasActions;
 import org.opensearch.action.admin.indices.alias.get.GetAliasesRequest;
 import org.opensearch.action.admin.indices.delete.DeleteIndexRequest;
+import org.opensearch.action.admin.indices.refresh.RefreshRequest;
 import org.opensearch.action.admin.indices.settings.get.GetSettingsRequest;
 import org.opensearch.action.admin.indices.settings.put.UpdateSettingsRequest;
 import org.opensearch.action.search.SearchRequest;
 import org.opensearch.action.search.SearchResponse;
 import org.opensearch.client.GetAliasesResponse;
+import org.opensearch.client.Request;
 import org.opensearch.client.RequestOptions;
+import org.opensearch.client.ResponseException;
 import org.opensearch.client.RestHighLevelClient;
 import org.opensearch.client.core.CountRequest;
 import org.opensearch.client.indices.CreateIndexRequest;
@@ -56,7 +67,9 @@ import org.opensearch.common.settings.Settings;
 import org.opensearch.common.unit.TimeValue;
 import org.opensearch.index.query.QueryBuilder;
 import org.opensearch.index.query.QueryBuilders;
+import org.opensearch.index.reindex.AbstractBulkByScrollRequest;
 import org.opensearch.index.reindex.ReindexRequest;
+import org.opensearch.script.Script;
 import org.opensearch.search.SearchHit;
 import org.opensearch.search.builder.SearchSourceBuilder;
 import org.opensearch.search.sort.SortBuilders;
@@ -85,6 +98,8 @@ public class ESIndexBuilder {
 
   @Getter private final GitVersion gitVersion;
 
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
   private static final RequestOptions REQUEST_OPTIONS =
       RequestOptions.DEFAULT.toBuilder()
           .setRequestConfig(RequestConfig.custom().setSocketTimeout(180 * 1000).build())
@@ -126,6 +141,11 @@ public class ESIndexBuilder {
     this.retryRegistry = RetryRegistry.of(config);
   }
 
+  /** The client used to manage indices, for builders that lay out indices of their own. */
+  public RestHighLevelClient getSearchClient() {
+    return _searchClient;
+  }
+
   public ReindexConfig buildReindexState(
       String indexName, Map<String, Object> mappings, Map<String, Object> settings)
       throws IOException {
@@ -138,12 +158,23 @@ public class ESIndexBuilder {
       Map<String, Object> settings,
       boolean copyStructuredPropertyMappings)
       throws IOException {
+    return buildReindexState(indexName, mappings, settings, copyStructuredPropertyMappings, null);
+  }
+
+  public ReindexConfig buildReindexState(
+      String indexName,
+      Map<String, Object> mappings,
+      Map<String, Object> settings,
+      boolean copyStructuredPropertyMappings,
+      @Nullable ReindexCatchUp catchUp)
+      throws IOException {
     ReindexConfig.ReindexConfigBuilder builder =
         ReindexConfig.builder()
             .name(indexName)
             .enableIndexSettingsReindex(enableIndexSettingsReindex)
             .enableIndexMappingsReindex(enableIndexMappingsReindex)
-            .version(gitVersion.getVersion());
+            .version(gitVersion.getVersion())
+            .catchUp(catchUp);
 
     Map<String, Object> baseSettings = new HashMap<>(settings);
     baseSettings.put("number_of_shards", numShards);
@@ -284,6 +315,52 @@ public class ESIndexBuilder {
     }
   }
 
+  /**
+   * Build a set of independent indices, up to {@code reindexParallelism} of them at the same time.
+   *
+   * @param indexStates the state of each index
+   */
+  public void buildIndices(Collection<ReindexConfig> indexStates) {
+    int parallelism =
+        Math.min(
+            Math.max(1, getBuildIndicesConfiguration().getReindexParallelism()),
+            indexStates.size());
+    if (parallelism <= 1) {
+      for (ReindexConfig indexState : indexStates) {
+        try {
+          buildIndex(indexState);
+        } catch (IOException e) {
+          throw new RuntimeException(e);
+        }
+      }
+      return;
+    }
+
+    ExecutorService executorService = Executors.newFixedThreadPool(parallelism);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (ReindexConfig indexState : indexStates) {
+        futures.add(
+            executorService.submit(
+                () -> {
+                  buildIndex(indexState);
+                  return null;
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } catch (ExecutionException e) {
+      throw new RuntimeException(e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    } finally {
+      // On failure this interrupts the remaining reindex loops, which clean up their temp index
+      executorService.shutdownNow();
+    }
+  }
+
   /**
    * Apply mappings changes if reindex is not required
    *
@@ -332,7 +409,32 @@ public class ESIndexBuilder {
         nextIndexName,
         options.getBatchSize(),
         TimeValue.timeValueSeconds(options.getTimeoutSeconds()),
-        filterQuery);
+        filterQuery,
+        null,
+        false);
+  }
+
+  /**
+   * Copies the documents of an index that another existing index does not have yet, running a
+   * painless script on each of them on the way, and waits for the copy to complete. Documents the
+   * destination already has are kept as they are.
+   */
+  public void copyIndex(String sourceIndex, String destinationIndex, @Nullable Script script)
+      throws IOException {
+    // Same bound as a reindex
+    final long timeoutAt = System.currentTimeMillis() + TimeUnit.HOURS.toMillis(8);
+    String taskId =
+        submitReindex(
+            new String[] {sourceIndex},
+            destinationIndex,
+            getBuildIndicesConfiguration().getReindexBatchSize(),
+            null,
+            null,
+            script,
+            true);
+    log.info("Task: {} - Copying {} to {}", taskId, sourceIndex, destinationIndex);
+    waitForTask(taskId, timeoutAt);
+    log.info("Task: {} - Copied {} to {}", taskId, sourceIndex, destinationIndex);
   }
 
   private static String getNextIndexName(String base, long startTime) {
@@ -348,6 +450,8 @@ public class ESIndexBuilder {
     final long timeoutAt = startTime + (1000 * 60 * 60 * maxReindexHours);
 
     String tempIndexName = getNextIndexName(indexState.name(), startTime);
+    // Writes after this point may be missing from the copy and are replayed by the catch-up
+    long copyStartTime = startTime;
 
     try {
       Optional<TaskInfo> previousTaskInfo = getTaskInfoByHeader(indexState.name());
@@ -362,9 +466,11 @@ public class ESIndexBuilder {
         tempIndexName =
             ESUtils.extractTargetIndex(
                 previousTaskInfo.get().getHeaders().get(ESUtils.OPAQUE_ID_HEADER));
+        copyStartTime = previousTaskInfo.get().getStartTime();
       } else {
         // Create new index
         createIndex(tempIndexName, indexState);
+        optimizeForReindex(tempIndexName);
 
         parentTaskId = submitReindex(indexState.name(), tempIndexName);
       }
@@ -453,6 +559,9 @@ public class ESIndexBuilder {
                   documentCounts.getSecond()));
         }
       }
+
+      catchUp(indexState, tempIndexName, copyStartTime, timeoutAt);
+      restoreSettings(indexState, tempIndexName);
     } catch (Throwable e) {
       log.error(
           "Failed to reindex {} to {}: Exception {}",
@@ -471,6 +580,108 @@ public class ESIndexBuilder {
     log.info("Finished setting up {}", indexState.name());
   }
 
+  /** Skip refreshes and replica writes while the destination is only being bulk loaded. */
+  private void optimizeForReindex(String indexName) throws IOException {
+    if (!getBuildIndicesConfiguration().isReindexOptimizationEnabled()) {
+      return;
+    }
+    _searchClient
+        .indices()
+        .putSettings(
+            new UpdateSettingsRequest(indexName)
+                .settings(Map.of("index.refresh_interval", "-1", "index.number_of_replicas", 0)),
+            RequestOptions.DEFAULT);
+    log.info("Disabled refresh and replicas on {} for the reindex", indexName);
+  }
+
+  /** Put back the refresh interval and replicas {@link #optimizeForReindex} turned off. */
+  private void restoreSettings(ReindexConfig indexState, String indexName) throws IOException {
+    if (!getBuildIndicesConfiguration().isReindexOptimizationEnabled()) {
+      return;
+    }
+    Map<String, Object> targetSettings =
+        (Map<String, Object>) indexState.targetSettings().get("index");
+    Map<String, Object> restored = new HashMap<>();
+    restored.put("index.refresh_interval", targetSettings.get("refresh_interval"));
+    restored.put("index.number_of_replicas", targetSettings.get("number_of_replicas"));
+    _searchClient
+        .indices()
+        .putSettings(
+            new UpdateSettingsRequest(indexName).settings(restored), RequestOptions.DEFAULT);
+    log.info("Restored settings {} on {}", restored, indexName);
+  }
+
+  /**
+   * Copy the documents written to the source index while it was being copied. The alias still
+   * points at the source during the copy, so without this those writes would be lost at the swap.
+   */
+  private void catchUp(
+      ReindexConfig indexState, String tempIndexName, long copyStartTime, long timeoutAt)
+      throws Exception {
+    BuildIndicesConfiguration config = getBuildIndicesConfiguration();
+    if (indexState.catchUp() == null || !config.isReindexCatchUpEnabled()) {
+      return;
+    }
+    long since = copyStartTime - TimeUnit.SECONDS.toMillis(config.getReindexCatchUpMarginSeconds());
+    Optional<QueryBuilder> changed = indexState.catchUp().changedSince(since);
+    if (changed.isEmpty()) {
+      log.info("No documents of {} changed during the reindex", indexState.name());
+      return;
+    }
+
+    log.info(
+        "Copying documents of {} changed since {} to {}", indexState.name(), since, tempIndexName);
+    String taskId =
+        submitReindex(
+            new String[] {indexState.name()},
+            tempIndexName,
+            config.getReindexBatchSize(),
+            null,
+            changed.get(),
+            null,
+            false);
+    waitForTask(taskId, timeoutAt);
+    log.info("Task: {} - Caught up {} to {}", taskId, indexState.name(), tempIndexName);
+  }
+
+  /**
+   * Waits for a reindex task and fails if it ended with an error or with failed documents, which
+   * the task API only reports in the stored task result.
+   */
+  private void waitForTask(String taskId, long timeoutAt) throws IOException {
+    Request request = new Request("GET", "/_tasks/" + taskId);
+    request.addParameter("wait_for_completion", "true");
+    request.addParameter("timeout", "1m");
+    request.setOptions(REQUEST_OPTIONS);
+    while (System.currentTimeMillis() < timeoutAt) {
+      JsonNode task;
+      try {
+        task =
+            OBJECT_MAPPER.readTree(
+                _searchClient.getLowLevelClient().performRequest(request).getEntity().getContent());
+      } catch (ResponseException e) {
+        if (e.getResponse().getStatusLine().getStatusCode() == 404) {
+          throw new IllegalStateException(String.format("Task %s not found", taskId), e);
+        }
+        // The task API answers with a timeout while the task is still running
+        log.debug("Task: {} - still running", taskId, e);
+        continue;
+      }
+      if (task.path("completed").asBoolean(false)) {
+        JsonNode failures = task.path("response").path("failures");
+        if (task.hasNonNull("error") || failures.size() > 0) {
+          throw new IllegalStateException(
+              String.format(
+                  "Task %s failed: %s",
+                  taskId,
+                  task.hasNonNull("error") ? task.get("error") : failures));
+        }
+        return;
+      }
+    }
+    throw new IllegalStateException(String.format("Task %s did not complete in time", taskId));
+  }
+
   public static void renameReindexedIndices(
       RestHighLevelClient searchClient,
       String originalName,
@@ -512,7 +723,9 @@ public class ESIndexBuilder {
       String destinationIndex,
       int batchSize,
       @Nullable TimeValue timeout,
-      @Nullable QueryBuilder sourceFilterQuery)
+      @Nullable QueryBuilder sourceFilterQuery,
+      @Nullable Script script,
+      boolean createOnly)
       throws IOException {
     ReindexRequest reindexRequest =
         new ReindexRequest()
@@ -520,13 +733,24 @@ public class ESIndexBuilder {
             .setDestIndex(destinationIndex)
             .setMaxRetries(numRetries)
             .setAbortOnVersionConflict(false)
-            .setSourceBatchSize(batchSize);
+            .setSourceBatchSize(batchSize)
+            .setSlices(
+                Math.max(
+                    AbstractBulkByScrollRequest.AUTO_SLICES,
+                    getBuildIndicesConfiguration().getReindexSlices()));
     if (timeout != null) {
       reindexRequest.setTimeout(timeout);
     }
     if (sourceFilterQuery != null) {
       reindexRequest.setSourceQuery(sourceFilterQuery);
     }
+    if (script != null) {
+      reindexRequest.setScript(script);
+    }
+    if (createOnly) {
+      // Existing documents are version conflicts, which do not abort the copy
+      reindexRequest.setDestOpType("create");
+    }
 
     RequestOptions requestOptions =
         ESUtils.buildReindexTaskRequestOptions(
@@ -537,7 +761,20 @@ public class ESIndexBuilder {
   }
 
   private String submitReindex(String sourceIndex, String destinationIndex) throws IOException {
-    return submitReindex(new String[] {sourceIndex}, destinationIndex, 2500, null, null);
+    return submitReindex(
+        new String[] {sourceIndex},
+        destinationIndex,
+        getBuildIndicesConfiguration().getReindexBatchSize(),
+        null,
+        null,
+        null,
+        false);
+  }
+
+  private BuildIndicesConfiguration getBuildIndicesConfiguration() {
+    return elasticSearchConfiguration.getBuildIndices() != null
+        ? elasticSearchConfiguration.getBuildIndices()
+        : new BuildIndicesConfiguration();
   }
 
   private Pair<Long, Long> getDocumentCounts(String sourceIndex, String destinationIndex)
@@ -548,6 +785,8 @@ public class ESIndexBuilder {
     long originalCount = 0;
     long reindexedCount = 0;
     for (int i = 0; i < this.numRetries; i++) {
+      // The destination may have refresh disabled while it is loaded
+      _searchClient.indices().refresh(new RefreshRequest(destinationIndex), RequestOptions.DEFAULT);
       // Check if reindex succeeded by comparing document counts
       originalCount =
           retryRegistry
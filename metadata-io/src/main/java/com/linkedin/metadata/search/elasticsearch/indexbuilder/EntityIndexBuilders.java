@@ -1,7 +1,9 @@
 package com.linkedin.metadata.search.elasticsearch.indexbuilder;
 
+import com.linkedin.metadata.models.EntitySpec;
 import com.linkedin.metadata.models.registry.EntityRegistry;
 import com.linkedin.metadata.shared.ElasticSearchIndexed;
+import com.linkedin.metadata.systemmetadata.ElasticSearchSystemMetadataService;
 import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
 import com.linkedin.structured.StructuredPropertyDefinition;
 import java.io.IOException;
@@ -9,13 +11,25 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.opensearch.action.search.SearchRequest;
+import org.opensearch.action.search.SearchResponse;
+import org.opensearch.client.RequestOptions;
+import org.opensearch.index.query.QueryBuilders;
+import org.opensearch.search.aggregations.AggregationBuilders;
+import org.opensearch.search.aggregations.bucket.terms.Terms;
+import org.opensearch.search.builder.SearchSourceBuilder;
 
 @RequiredArgsConstructor
 @Slf4j
 public class EntityIndexBuilders implements ElasticSearchIndexed {
+  // Above this many changed urns the catch-up after a reindex copies the whole index again
+  private static final int MAX_CATCH_UP_URNS = 10000;
+  private static final String CHANGED_URNS = "changedUrns";
+
   private final ESIndexBuilder indexBuilder;
   private final EntityRegistry entityRegistry;
   private final IndexConvention indexConvention;
@@ -27,13 +41,7 @@ public class EntityIndexBuilders implements ElasticSearchIndexed {
 
   @Override
   public void reindexAll() {
-    for (ReindexConfig config : buildReindexConfigs()) {
-      try {
-        indexBuilder.buildIndex(config);
-      } catch (IOException e) {
-        throw new RuntimeException(e);
-      }
-    }
+    indexBuilder.buildIndices(buildReindexConfigs());
   }
 
   @Override
@@ -45,7 +53,11 @@ public class EntityIndexBuilders implements ElasticSearchIndexed {
               try {
                 Map<String, Object> mappings = MappingsBuilder.getMappings(entitySpec);
                 return indexBuilder.buildReindexState(
-                    indexConvention.getIndexName(entitySpec), mappings, settings, true);
+                    indexConvention.getIndexName(entitySpec),
+                    mappings,
+                    settings,
+                    true,
+                    changedEntities(entitySpec));
               } catch (IOException e) {
                 throw new RuntimeException(e);
               }
@@ -97,4 +109,49 @@ public class EntityIndexBuilders implements ElasticSearchIndexed {
         .filter(ReindexConfig::hasNewStructuredProperty)
         .collect(Collectors.toList());
   }
+
+  /**
+   * Entity documents carry no write timestamp, so the urns written during a reindex are looked up
+   * in the system metadata index, which records when each aspect was last written.
+   */
+  private ReindexCatchUp changedEntities(EntitySpec entitySpec) {
+    String urnPrefix = String.format("urn:li:%s:", entitySpec.getName());
+    return since -> {
+      SearchSourceBuilder source =
+          new SearchSourceBuilder()
+              .size(0)
+              .query(
+                  QueryBuilders.boolQuery()
+                      .filter(QueryBuilders.prefixQuery("urn", urnPrefix))
+                      .filter(QueryBuilders.rangeQuery("lastUpdated").gte(since)))
+              .aggregation(
+                  AggregationBuilders.terms(CHANGED_URNS).field("urn").size(MAX_CATCH_UP_URNS));
+      SearchResponse response =
+          indexBuilder
+              .getSearchClient()
+              .search(
+                  new SearchRequest(
+                          indexConvention.getIndexName(
+                              ElasticSearchSystemMetadataService.INDEX_NAME))
+                      .source(source),
+                  RequestOptions.DEFAULT);
+      Terms changed = response.getAggregations().get(CHANGED_URNS);
+      if (changed.getBuckets().isEmpty()) {
+        return Optional.empty();
+      }
+      if (changed.getSumOfOtherDocCounts() > 0) {
+        log.warn(
+            "More than {} {} entities changed during the reindex, copying all of them again",
+            MAX_CATCH_UP_URNS,
+            entitySpec.getName());
+        return Optional.of(QueryBuilders.matchAllQuery());
+      }
+      return Optional.of(
+          QueryBuilders.termsQuery(
+              "urn",
+              changed.getBuckets().stream()
+                  .map(Terms.Bucket::getKeyAsString)
+                  .collect(Collectors.toList())));
+    };
+  }
 }
@@ -7,6 +7,7 @@ import static com.linkedin.metadata.search.elasticsearch.indexbuilder.SettingsBu
 
 import com.google.common.collect.ImmutableMap;
 import com.linkedin.common.urn.Urn;
+import com.linkedin.metadata.graph.impact.LineageImpactService;
 import com.linkedin.metadata.models.EntitySpec;
 import com.linkedin.metadata.models.LogicalValueType;
 import com.linkedin.metadata.models.SearchScoreFieldSpec;
@@ -118,6 +119,8 @@ public class MappingsBuilder {
     // Fixed fields
     mappings.put("urn", getMappingsForUrn());
     mappings.put("runId", getMappingsForRunId());
+    LineageImpactService.COUNT_FIELDS.forEach(
+        fieldName -> mappings.put(fieldName, ImmutableMap.of(TYPE, ESUtils.LONG_FIELD_TYPE)));
 
     return ImmutableMap.of(PROPERTIES, mappings);
   }
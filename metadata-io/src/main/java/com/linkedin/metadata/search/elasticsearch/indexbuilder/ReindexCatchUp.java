@@ -0,0 +1,20 @@
+package com.linkedin.metadata.search.elasticsearch.indexbuilder;
+
+import java.io.IOException;
+import java.util.Optional;
+import org.opensearch.index.query.QueryBuilder;
+
+/**
+ * Selects the documents of an index that were written while it was being copied to a new index, so
+ * they can be copied again before the alias is moved.
+ */
+@FunctionalInterface
+public interface ReindexCatchUp {
+
+  /**
+   * @param timestampMillis start of the copy, minus a safety margin
+   * @return query over the source index matching every document that may have changed since the
+   *     timestamp, or empty if no document changed
+   */
+  Optional<QueryBuilder> changedSince(long timestampMillis) throws IOException;
+}
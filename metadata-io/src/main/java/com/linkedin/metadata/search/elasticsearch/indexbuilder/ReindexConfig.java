@@ -59,6 +59,8 @@ public class ReindexConfig {
   private final boolean enableIndexMappingsReindex;
   private final boolean enableIndexSettingsReindex;
   private final String version;
+  // Optional, replays writes that landed in the source index during a reindex
+  private final ReindexCatchUp catchUp;
 
   /* Calculated */
   private final boolean requiresReindex;
@@ -0,0 +1,799 @@
+package com.linkedin.metadata.search.elasticsearch.query;
+
+import com.codahale.metrics.Gauge;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.common.urn.UrnUtils;
+import com.linkedin.data.template.StringArray;
+import com.linkedin.metadata.models.EntitySpec;
+import com.linkedin.metadata.models.SearchScoreFieldSpec;
+import com.linkedin.metadata.models.SearchableFieldSpec;
+import com.linkedin.metadata.models.annotation.SearchScoreAnnotation;
+import com.linkedin.metadata.models.annotation.SearchableAnnotation;
+import com.linkedin.metadata.models.registry.EntityRegistry;
+import com.linkedin.metadata.query.AutoCompleteEntity;
+import com.linkedin.metadata.query.AutoCompleteEntityArray;
+import com.linkedin.metadata.query.AutoCompleteResult;
+import com.linkedin.metadata.query.filter.ConjunctiveCriterion;
+import com.linkedin.metadata.query.filter.Filter;
+import com.linkedin.metadata.utils.metrics.MetricUtils;
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.IntBinaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.util.ArrayUtil;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.IntroSorter;
+import org.apache.lucene.util.IntsRef;
+import org.apache.lucene.util.IntsRefBuilder;
+import org.apache.lucene.util.fst.FST;
+import org.apache.lucene.util.fst.FSTCompiler;
+import org.apache.lucene.util.fst.PositiveIntOutputs;
+import org.apache.lucene.util.fst.Util;
+
+/**
+ * In-memory prefix index of the autocomplete fields of the search documents, answering unfiltered
+ * autocomplete requests without a search.
+ *
+ * <p>Per entity type, the values of the fields marked for autocomplete are normalized to lower case
+ * words and compiled into a Lucene FST, once from the start of the value and once from each of its
+ * next few words, so the prefix of any word of a name finds it. Every key ends with the ordinal of
+ * its value and is weighted with the popularity of its entity, computed from the search score
+ * fields of the document, so the best completions of a prefix are the cheapest paths below it.
+ *
+ * <p>The FSTs are rebuilt from the search indices periodically. Documents written in between are
+ * kept in a per entity type delta, which hides the FST values of the same urn and field and keeps
+ * the keys of its values sorted, so a prefix only visits the written values it matches. The delta
+ * only holds the writes of this instance, other writes show up at the next rebuild. An entity type
+ * whose delta outgrows {@code maxDeltaSize} documents is dropped and answered by searches until
+ * the next rebuild.
+ */
+@Slf4j
+public class AutocompleteIndex {
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+  private static final TypeReference<Map<String, Object>> DOCUMENT_TYPE = new TypeReference<>() {};
+  private static final String URN_FIELD = "urn";
+  private static final String REMOVED_FIELD = "removed";
+  private static final int MAX_KEYS_PER_VALUE = 8;
+  private static final int MAX_KEY_LENGTH = 128;
+  private static final int ORDINAL_BYTES = 4;
+  private static final int MAX_CANDIDATES = 1024;
+  private static final double WEIGHT_SCALE = 1000;
+  // Writes this recent may not have been searchable yet when an index was scanned, so they stay in
+  // the delta after the rebuild
+  private static final long DELTA_GRACE_MILLIS = 60000;
+  // Ends a key of the delta before the urn it was written for, keys hold no control characters
+  private static final char URN_SEPARATOR = '\u0000';
+  private static final Delta EMPTY_DELTA = new Delta();
+
+  private final Map<String, EntityFields> entityFields;
+  private final int maxDeltaSize;
+  private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+  private final Map<String, Delta> deltas = new ConcurrentHashMap<>();
+  private final ScheduledExecutorService executorService =
+      Executors.newSingleThreadScheduledExecutor(
+          runnable -> {
+            final Thread thread = new Thread(runnable, "autocomplete-index-rebuild");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  public AutocompleteIndex(@Nonnull EntityRegistry entityRegistry, int maxDeltaSize) {
+    this.maxDeltaSize = maxDeltaSize;
+    entityFields =
+        entityRegistry.getEntitySpecs().values().stream()
+            .map(EntityFields::new)
+            .filter(fields -> !fields.getAutocompleteFields().isEmpty())
+            .collect(
+                Collectors.toMap(fields -> fields.getEntitySpec().getName(), fields -> fields));
+    MetricUtils.gauge(AutocompleteIndex.class, "values", () -> (Gauge<Integer>) this::valueCount);
+    MetricUtils.gauge(AutocompleteIndex.class, "delta", () -> (Gauge<Integer>) this::deltaCount);
+    MetricUtils.gauge(
+        AutocompleteIndex.class, "estimatedBytes", () -> (Gauge<Long>) this::estimatedBytes);
+  }
+
+  /** Rebuilds every entity type now and then every interval, in the background. */
+  public void rebuildPeriodically(
+      @Nonnull ESSearchDAO searchDAO, int pageSize, long intervalSeconds) {
+    executorService.scheduleWithFixedDelay(
+        () -> rebuild(searchDAO, pageSize), 0, intervalSeconds, TimeUnit.SECONDS);
+  }
+
+  /** Rebuilds every entity type from its search index. */
+  public void rebuild(@Nonnull ESSearchDAO searchDAO, int pageSize) {
+    for (EntityFields fields : entityFields.values()) {
+      try {
+        rebuild(
+            fields.getEntitySpec().getName(),
+            consumer ->
+                searchDAO.scanDocuments(
+                    fields.getEntitySpec(), fields.getSourceFields(), pageSize, consumer));
+      } catch (Exception e) {
+        log.error(
+            "Failed to rebuild the autocomplete index of {}", fields.getEntitySpec().getName(), e);
+      }
+    }
+  }
+
+  /**
+   * Rebuilds an entity type.
+   *
+   * @param scan passes every search document of the entity type that is not soft deleted to the
+   *     consumer it is given
+   */
+  public void rebuild(
+      @Nonnull String entityName, @Nonnull Consumer<Consumer<Map<String, Object>>> scan) {
+    final EntityFields fields = entityFields.get(entityName);
+    if (fields == null) {
+      return;
+    }
+    final long start = System.currentTimeMillis();
+    final SnapshotBuilder builder = new SnapshotBuilder(fields);
+    scan.accept(builder::add);
+    final Snapshot snapshot = builder.build();
+    snapshots.put(entityName, snapshot);
+    final Delta delta = deltas.get(entityName);
+    if (delta != null) {
+      delta.removeWrittenBefore(start - DELTA_GRACE_MILLIS);
+    }
+    log.info(
+        "Built the autocomplete index of {} with {} values in {} ms, about {} bytes",
+        entityName,
+        snapshot.size(),
+        System.currentTimeMillis() - start,
+        snapshot.estimatedBytes());
+  }
+
+  public void upsertDocument(@Nonnull String entityName, @Nonnull String document) {
+    final EntityFields fields = entityFields.get(entityName);
+    if (fields == null) {
+      return;
+    }
+    final Map<String, Object> source;
+    try {
+      source = OBJECT_MAPPER.readValue(document, DOCUMENT_TYPE);
+    } catch (IOException e) {
+      log.warn("Failed to read the search document of a {} for autocomplete", entityName, e);
+      return;
+    }
+    final Object urn = source.get(URN_FIELD);
+    final Map<String, List<String>> values = new HashMap<>();
+    for (String field : fields.getAutocompleteFields()) {
+      if (source.containsKey(field)) {
+        values.put(field, toStrings(source.get(field)));
+      }
+    }
+    final Boolean removed = (Boolean) source.get(REMOVED_FIELD);
+    final Integer weight = fields.hasScoreFields(source) ? fields.weight(source) : null;
+    if (urn == null || (values.isEmpty() && removed == null && weight == null)) {
+      return;
+    }
+    write(entityName, UrnUtils.getUrn(urn.toString()), values, removed, weight);
+  }
+
+  /**
+   * @param docId the id of the search document, its url encoded urn
+   */
+  public void deleteDocument(@Nonnull String entityName, @Nonnull String docId) {
+    if (entityFields.containsKey(entityName)) {
+      write(
+          entityName,
+          UrnUtils.getUrn(URLDecoder.decode(docId, StandardCharsets.UTF_8)),
+          Map.of(),
+          true,
+          null);
+    }
+  }
+
+  private void write(
+      @Nonnull String entityName,
+      @Nonnull Urn urn,
+      @Nonnull Map<String, List<String>> values,
+      @Nullable Boolean removed,
+      @Nullable Integer weight) {
+    final Delta delta = deltas.computeIfAbsent(entityName, key -> new Delta());
+    delta.write(urn, values, removed, weight);
+    if (delta.size() > maxDeltaSize && deltas.remove(entityName, delta)) {
+      // Searched until the next rebuild rather than holding every write until then
+      snapshots.remove(entityName);
+      MetricUtils.counter(AutocompleteIndex.class, "deltaOverflows").inc();
+      log.warn(
+          "More than {} {} documents were written since the last autocomplete rebuild, completing"
+              + " them by search until the next one",
+          maxDeltaSize,
+          entityName);
+    }
+  }
+
+  public void clear() {
+    snapshots.clear();
+    deltas.clear();
+  }
+
+  /**
+   * Completes a prefix from memory.
+   *
+   * @return the completions, or empty when the request has to be answered by a search: the entity
+   *     type is not loaded yet, the request has filters or an unknown field, or nothing matched
+   */
+  @Nonnull
+  public Optional<AutoCompleteResult> autoComplete(
+      @Nonnull String entityName,
+      @Nonnull String query,
+      @Nullable String field,
+      @Nullable Filter filter,
+      int limit) {
+    final EntityFields fields = entityFields.get(entityName);
+    final Snapshot snapshot = snapshots.get(entityName);
+    final String prefix = truncate(normalize(query));
+    if (fields == null
+        || snapshot == null
+        || prefix.isEmpty()
+        || limit <= 0
+        || !isEmpty(filter)
+        || (field != null && !fields.getAutocompleteFields().contains(field))) {
+      return Optional.empty();
+    }
+    final Delta delta = deltas.getOrDefault(entityName, EMPTY_DELTA);
+
+    final List<Candidate> candidates = new ArrayList<>();
+    for (int topN = limit * 4; ; topN *= 2) {
+      candidates.clear();
+      final int paths = snapshot.complete(prefix, topN, candidates::add);
+      candidates.removeIf(
+          candidate ->
+              (field != null && !field.equals(candidate.getField()))
+                  || isShadowed(delta.get(candidate.getUrn()), candidate.getField()));
+      if (paths < topN
+          || topN >= MAX_CANDIDATES
+          || candidates.stream().map(Candidate::getUrn).distinct().count() >= limit) {
+        break;
+      }
+    }
+    for (Urn urn : delta.complete(prefix)) {
+      final Written written = delta.get(urn);
+      if (written != null && !written.isRemoved()) {
+        final int weight =
+            written.getWeight() != null ? written.getWeight() : snapshot.weight(urn.toString());
+        written.getValues().entrySet().stream()
+            .filter(entry -> field == null || field.equals(entry.getKey()))
+            .forEach(
+                entry ->
+                    entry.getValue().stream()
+                        .filter(value -> keys(value).anyMatch(key -> key.startsWith(prefix)))
+                        .forEach(
+                            value ->
+                                candidates.add(new Candidate(urn, entry.getKey(), value, weight))));
+      }
+    }
+    if (candidates.isEmpty()) {
+      return Optional.empty();
+    }
+
+    // Heaviest first, the snapshot candidates are already in that order
+    candidates.sort(Comparator.comparingInt(Candidate::getWeight).reversed());
+    final Map<Urn, String> completions = new LinkedHashMap<>();
+    for (Candidate candidate : candidates) {
+      if (completions.size() >= limit) {
+        break;
+      }
+      completions.putIfAbsent(candidate.getUrn(), candidate.getValue());
+    }
+    return Optional.of(
+        new AutoCompleteResult()
+            .setQuery(query)
+            .setSuggestions(new StringArray(new LinkedHashSet<>(completions.values())))
+            .setEntities(
+                new AutoCompleteEntityArray(
+                    completions.keySet().stream()
+                        .map(urn -> new AutoCompleteEntity().setUrn(urn))
+                        .collect(Collectors.toList()))));
+  }
+
+  private static boolean isShadowed(@Nullable Written written, @Nonnull String field) {
+    return written != null && (written.isRemoved() || written.getValues().containsKey(field));
+  }
+
+  private static boolean isEmpty(@Nullable Filter filter) {
+    return filter == null
+        || ((filter.getOr() == null
+                || filter.getOr().stream()
+                    .map(ConjunctiveCriterion::getAnd)
+                    .allMatch(criteria -> criteria == null || criteria.isEmpty()))
+            && (filter.getCriteria() == null || filter.getCriteria().isEmpty()));
+  }
+
+  /** Lower case letters and digits, with every run of other characters turned into one space. */
+  static String normalize(@Nonnull String value) {
+    final StringBuilder normalized = new StringBuilder(value.length());
+    boolean separated = false;
+    for (int i = 0; i < value.length(); ) {
+      final int codePoint = value.codePointAt(i);
+      if (Character.isLetterOrDigit(codePoint)) {
+        if (separated && normalized.length() > 0) {
+          normalized.append(' ');
+        }
+        normalized.appendCodePoint(Character.toLowerCase(codePoint));
+        separated = false;
+      } else {
+        separated = true;
+      }
+      i += Character.charCount(codePoint);
+    }
+    return normalized.toString();
+  }
+
+  // The normalized value from its start and from each of its next few words
+  private static Stream<String> keys(@Nonnull String value) {
+    final String normalized = normalize(value);
+    final Set<String> keys = new LinkedHashSet<>();
+    if (!normalized.isEmpty()) {
+      keys.add(truncate(normalized));
+    }
+    for (int i = normalized.indexOf(' ');
+        i >= 0 && keys.size() < MAX_KEYS_PER_VALUE;
+        i = normalized.indexOf(' ', i + 1)) {
+      keys.add(truncate(normalized.substring(i + 1)));
+    }
+    return keys.stream();
+  }
+
+  private static String truncate(@Nonnull String key) {
+    return key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key;
+  }
+
+  @Nonnull
+  private static List<String> toStrings(@Nullable Object value) {
+    if (value instanceof Collection) {
+      return ((Collection<?>) value)
+          .stream().filter(item -> item != null).map(Object::toString).collect(Collectors.toList());
+    }
+    return value != null ? List.of(value.toString()) : List.of();
+  }
+
+  private int valueCount() {
+    return snapshots.values().stream().mapToInt(Snapshot::size).sum();
+  }
+
+  private int deltaCount() {
+    return deltas.values().stream().mapToInt(Delta::size).sum();
+  }
+
+  private long estimatedBytes() {
+    return snapshots.values().stream().mapToLong(Snapshot::estimatedBytes).sum();
+  }
+
+  /** The autocomplete and search score fields of an entity type. */
+  @Value
+  private static class EntityFields {
+    EntitySpec entitySpec;
+    List<String> autocompleteFields;
+    List<SearchScoreAnnotation> scoreAnnotations;
+    String[] sourceFields;
+
+    EntityFields(@Nonnull EntitySpec entitySpec) {
+      this.entitySpec = entitySpec;
+      this.autocompleteFields =
+          entitySpec.getSearchableFieldSpecs().stream()
+              .map(SearchableFieldSpec::getSearchableAnnotation)
+              .filter(SearchableAnnotation::isEnableAutocomplete)
+              .map(SearchableAnnotation::getFieldName)
+              .distinct()
+              .collect(Collectors.toList());
+      this.scoreAnnotations =
+          entitySpec.getSearchScoreFieldSpecs().stream()
+              .map(SearchScoreFieldSpec::getSearchScoreAnnotation)
+              .collect(Collectors.toList());
+      this.sourceFields =
+          Stream.concat(
+                  Stream.of(URN_FIELD),
+                  Stream.concat(
+                      autocompleteFields.stream(),
+                      scoreAnnotations.stream().map(SearchScoreAnnotation::getFieldName)))
+              .distinct()
+              .toArray(String[]::new);
+    }
+
+    boolean hasScoreFields(@Nonnull Map<String, Object> source) {
+      return scoreAnnotations.stream()
+          .anyMatch(annotation -> source.containsKey(annotation.getFieldName()));
+    }
+
+    // The search score functions of the entity type summed, in thousandths
+    int weight(@Nonnull Map<String, Object> source) {
+      double score = 0;
+      for (SearchScoreAnnotation annotation : scoreAnnotations) {
+        final Object value = source.get(annotation.getFieldName());
+        final double fieldValue =
+            value instanceof Number ? ((Number) value).doubleValue() : annotation.getDefaultValue();
+        score += annotation.getWeight() * modify(fieldValue, annotation);
+      }
+      return (int) Math.max(0, Math.min(Integer.MAX_VALUE, Math.round(score * WEIGHT_SCALE)));
+    }
+
+    private static double modify(double value, @Nonnull SearchScoreAnnotation annotation) {
+      if (annotation.getModifier().isEmpty()) {
+        return value;
+      }
+      switch (annotation.getModifier().get()) {
+        case LOG:
+          return Math.log10(value + 1);
+        case LN:
+          return Math.log(value + 1);
+        case SQRT:
+          return Math.sqrt(value);
+        case SQUARE:
+          return value * value;
+        case RECIPROCAL:
+          return value != 0 ? 1 / value : 0;
+        default:
+          return value;
+      }
+    }
+  }
+
+  /** A value of a document written since the last rebuild, or one found in the FST. */
+  @Value
+  private static class Candidate {
+    Urn urn;
+    String field;
+    String value;
+    int weight;
+  }
+
+  /** The documents of an entity type written since the last rebuild, with the keys of values. */
+  private static class Delta {
+    private final Map<Urn, Written> written = new ConcurrentHashMap<>();
+    // Every key of a written value followed by its urn, sorted so the keys of a prefix are a range
+    private final NavigableSet<String> keys = new ConcurrentSkipListSet<>();
+
+    @Nullable
+    Written get(@Nonnull Urn urn) {
+      return written.get(urn);
+    }
+
+    int size() {
+      return written.size();
+    }
+
+    void write(
+        @Nonnull Urn urn,
+        @Nonnull Map<String, List<String>> values,
+        @Nullable Boolean removed,
+        @Nullable Integer weight) {
+      written.compute(
+          urn,
+          (key, previous) -> {
+            final Map<String, List<String>> mergedValues =
+                previous != null ? new HashMap<>(previous.getValues()) : new HashMap<>();
+            mergedValues.putAll(values);
+            final Written next =
+                new Written(
+                    mergedValues,
+                    removed != null ? removed : previous != null && previous.isRemoved(),
+                    weight != null ? weight : previous != null ? previous.getWeight() : null,
+                    System.currentTimeMillis());
+            if (previous != null) {
+              urnKeys(urn, previous).forEach(keys::remove);
+            }
+            urnKeys(urn, next).forEach(keys::add);
+            return next;
+          });
+    }
+
+    void removeWrittenBefore(long writtenAt) {
+      for (Urn urn : written.keySet()) {
+        written.computeIfPresent(
+            urn,
+            (key, previous) -> {
+              if (previous.getWrittenAt() >= writtenAt) {
+                return previous;
+              }
+              urnKeys(urn, previous).forEach(keys::remove);
+              return null;
+            });
+      }
+    }
+
+    /** The urns with a written value having a key that starts with the prefix. */
+    @Nonnull
+    Set<Urn> complete(@Nonnull String prefix) {
+      final Set<Urn> urns = new LinkedHashSet<>();
+      for (String key : keys.tailSet(prefix)) {
+        if (!key.startsWith(prefix)) {
+          break;
+        }
+        urns.add(UrnUtils.getUrn(key.substring(key.indexOf(URN_SEPARATOR) + 1)));
+      }
+      return urns;
+    }
+
+    private static Set<String> urnKeys(@Nonnull Urn urn, @Nonnull Written written) {
+      return written.getValues().values().stream()
+          .flatMap(List::stream)
+          .flatMap(AutocompleteIndex::keys)
+          .map(key -> key + URN_SEPARATOR + urn)
+          .collect(Collectors.toSet());
+    }
+  }
+
+  /** The autocomplete values of a document written since the last rebuild. */
+  @Value
+  private static class Written {
+    Map<String, List<String>> values;
+    boolean removed;
+    // Null until a write carries the search score fields, the weight of the snapshot applies then
+    @Nullable Integer weight;
+    long writtenAt;
+  }
+
+  /**
+   * Collects the values of the scanned documents of an entity type and compiles their keys. Keys
+   * are kept back to back in one array and sorted by their position, so the heap taken by a rebuild
+   * grows with the bytes of the keys rather than with their number.
+   */
+  private static class SnapshotBuilder {
+    private final EntityFields fields;
+    // Per document
+    private final List<String> urns = new ArrayList<>();
+    private int[] weights = new int[16];
+    // Per value ordinal
+    private final List<String> values = new ArrayList<>();
+    private int[] valueDocs = new int[16];
+    private byte[] valueFields = new byte[16];
+    // Key k spans keyBytes from keyStarts[k] to keyStarts[k + 1]
+    private byte[] keyBytes = new byte[1024];
+    private int[] keyStarts = new int[16];
+    private int keyCount;
+
+    SnapshotBuilder(@Nonnull EntityFields fields) {
+      this.fields = fields;
+    }
+
+    void add(@Nonnull Map<String, Object> source) {
+      final Object urn = source.get(URN_FIELD);
+      if (urn == null) {
+        return;
+      }
+      final int doc = urns.size();
+      boolean added = false;
+      for (int field = 0; field < fields.getAutocompleteFields().size(); field++) {
+        for (String value : toStrings(source.get(fields.getAutocompleteFields().get(field)))) {
+          final int ordinal = values.size();
+          final int keysBefore = keyCount;
+          keys(value).forEach(key -> addKey(key, ordinal));
+          if (keyCount == keysBefore) {
+            continue;
+          }
+          values.add(value);
+          valueDocs = ArrayUtil.grow(valueDocs, ordinal + 1);
+          valueDocs[ordinal] = doc;
+          valueFields = ArrayUtil.grow(valueFields, ordinal + 1);
+          valueFields[ordinal] = (byte) field;
+          added = true;
+        }
+      }
+      if (added) {
+        urns.add(urn.toString());
+        weights = ArrayUtil.grow(weights, doc + 1);
+        weights[doc] = fields.weight(source);
+      }
+    }
+
+    // The key bytes followed by a zero byte and the ordinal, which keeps equal keys apart
+    private void addKey(@Nonnull String key, int ordinal) {
+      final byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+      final int start = keyStarts[keyCount];
+      final int end = start + bytes.length + 1 + ORDINAL_BYTES;
+      keyBytes = ArrayUtil.grow(keyBytes, end);
+      System.arraycopy(bytes, 0, keyBytes, start, bytes.length);
+      keyBytes[start + bytes.length] = 0;
+      for (int i = 0; i < ORDINAL_BYTES; i++) {
+        keyBytes[end - 1 - i] = (byte) (ordinal >>> (8 * i));
+      }
+      keyStarts = ArrayUtil.grow(keyStarts, keyCount + 2);
+      keyStarts[++keyCount] = end;
+    }
+
+    @Nonnull
+    Snapshot build() {
+      final int[] keyOrder =
+          sorted(
+              keyCount,
+              (i, j) ->
+                  Arrays.compareUnsigned(
+                      keyBytes,
+                      keyStarts[i],
+                      keyStarts[i + 1],
+                      keyBytes,
+                      keyStarts[j],
+                      keyStarts[j + 1]));
+      FST<Long> fst = null;
+      try {
+        final FSTCompiler<Long> compiler =
+            new FSTCompiler<>(FST.INPUT_TYPE.BYTE1, PositiveIntOutputs.getSingleton());
+        final IntsRefBuilder scratch = new IntsRefBuilder();
+        final BytesRef key = new BytesRef(keyBytes);
+        for (int k : keyOrder) {
+          key.offset = keyStarts[k];
+          key.length = keyStarts[k + 1] - keyStarts[k];
+          final IntsRef input = Util.toIntsRef(key, scratch);
+          compiler.add(
+              input, (long) Integer.MAX_VALUE - weights[valueDocs[Snapshot.ordinal(input)]]);
+        }
+        fst = compiler.compile();
+      } catch (IOException e) {
+        throw new IllegalStateException("Failed to compile the autocomplete index", e);
+      }
+      final String[] urnArray = urns.toArray(new String[0]);
+      return new Snapshot(
+          fst,
+          fields.getAutocompleteFields(),
+          urnArray,
+          Arrays.copyOf(weights, urnArray.length),
+          sorted(urnArray.length, (i, j) -> urnArray[i].compareTo(urnArray[j])),
+          values.toArray(new String[0]),
+          Arrays.copyOf(valueDocs, values.size()),
+          Arrays.copyOf(valueFields, values.size()));
+    }
+
+    // The indices from 0 to size in the order of the comparator, without boxing them
+    private static int[] sorted(int size, @Nonnull IntBinaryOperator comparator) {
+      final int[] order = new int[size];
+      for (int i = 0; i < size; i++) {
+        order[i] = i;
+      }
+      new IntroSorter() {
+        private int pivot;
+
+        @Override
+        protected void setPivot(int i) {
+          pivot = order[i];
+        }
+
+        @Override
+        protected int comparePivot(int j) {
+          return comparator.applyAsInt(pivot, order[j]);
+        }
+
+        @Override
+        protected int compare(int i, int j) {
+          return comparator.applyAsInt(order[i], order[j]);
+        }
+
+        @Override
+        protected void swap(int i, int j) {
+          final int swapped = order[i];
+          order[i] = order[j];
+          order[j] = swapped;
+        }
+      }.sort(0, size);
+      return order;
+    }
+  }
+
+  /** The compiled keys of an entity type, with the field and value per ordinal. */
+  @Value
+  private static class Snapshot {
+    // Null when there were no values
+    @Nullable FST<Long> fst;
+    List<String> fields;
+    // Per document, and the documents in urn order
+    String[] urns;
+    int[] weights;
+    int[] docsByUrn;
+    // Per value ordinal
+    String[] values;
+    int[] valueDocs;
+    byte[] valueFields;
+
+    int size() {
+      return values.length;
+    }
+
+    long estimatedBytes() {
+      long bytes = (fst != null ? fst.ramBytesUsed() : 0) + 5L * values.length + 8L * urns.length;
+      for (String value : values) {
+        bytes += 40 + 2L * value.length();
+      }
+      for (String urn : urns) {
+        bytes += 40 + 2L * urn.length();
+      }
+      return bytes;
+    }
+
+    /** The weight of a document, 0 when the snapshot does not have it. */
+    int weight(@Nonnull String urn) {
+      int low = 0;
+      int high = docsByUrn.length - 1;
+      while (low <= high) {
+        final int middle = (low + high) >>> 1;
+        final int comparison = urns[docsByUrn[middle]].compareTo(urn);
+        if (comparison == 0) {
+          return weights[docsByUrn[middle]];
+        }
+        if (comparison < 0) {
+          low = middle + 1;
+        } else {
+          high = middle - 1;
+        }
+      }
+      return 0;
+    }
+
+    static int ordinal(@Nonnull IntsRef input) {
+      int ordinal = 0;
+      for (int i = input.offset + input.length - ORDINAL_BYTES;
+          i < input.offset + input.length;
+          i++) {
+        ordinal = (ordinal << 8) | input.ints[i];
+      }
+      return ordinal;
+    }
+
+    /**
+     * Passes the values of the cheapest keys starting with the prefix to the consumer, heaviest
+     * first.
+     *
+     * @return the number of keys found, fewer than topN when there are no more
+     */
+    int complete(@Nonnull String prefix, int topN, @Nonnull Consumer<Candidate> consumer) {
+      if (fst == null) {
+        return 0;
+      }
+      try {
+        final FST.BytesReader reader = fst.getBytesReader();
+        final FST.Arc<Long> arc = fst.getFirstArc(new FST.Arc<>());
+        Long output = fst.outputs.getNoOutput();
+        for (byte label : prefix.getBytes(StandardCharsets.UTF_8)) {
+          if (fst.findTargetArc(label & 0xFF, arc, arc, reader) == null) {
+            return 0;
+          }
+          output = fst.outputs.add(output, arc.output());
+        }
+        final Util.TopResults<Long> paths =
+            Util.shortestPaths(fst, arc, output, Comparator.naturalOrder(), topN, false);
+        int count = 0;
+        for (Util.Result<Long> path : paths) {
+          final int ordinal = ordinal(path.input);
+          final int doc = valueDocs[ordinal];
+          consumer.accept(
+              new Candidate(
+                  UrnUtils.getUrn(urns[doc]),
+                  fields.get(valueFields[ordinal]),
+                  values[ordinal],
+                  weights[doc]));
+          count++;
+        }
+        return count;
+      } catch (IOException e) {
+        throw new IllegalStateException("Failed to read the autocomplete index", e);
+      }
+    }
+  }
+}
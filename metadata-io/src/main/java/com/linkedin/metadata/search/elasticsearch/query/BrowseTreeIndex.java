@@ -0,0 +1,971 @@
+package com.linkedin.metadata.search.elasticsearch.query;
+
+import static com.linkedin.metadata.Constants.BROWSE_PATHS_V2_ASPECT_NAME;
+import static com.linkedin.metadata.Constants.STATUS_ASPECT_NAME;
+
+import com.codahale.metrics.Timer;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Sets;
+import com.google.common.hash.Hashing;
+import com.linkedin.common.BrowsePathEntry;
+import com.linkedin.common.BrowsePathsV2;
+import com.linkedin.common.Status;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.common.urn.UrnUtils;
+import com.linkedin.data.template.RecordTemplate;
+import com.linkedin.metadata.browse.BrowseResultGroupV2;
+import com.linkedin.metadata.browse.BrowseResultGroupV2Array;
+import com.linkedin.metadata.browse.BrowseResultMetadata;
+import com.linkedin.metadata.browse.BrowseResultV2;
+import com.linkedin.metadata.models.EntitySpec;
+import com.linkedin.metadata.models.annotation.SearchableAnnotation;
+import com.linkedin.metadata.models.registry.EntityRegistry;
+import com.linkedin.metadata.query.filter.Condition;
+import com.linkedin.metadata.query.filter.ConjunctiveCriterion;
+import com.linkedin.metadata.query.filter.Criterion;
+import com.linkedin.metadata.query.filter.Filter;
+import com.linkedin.metadata.search.elasticsearch.update.ESBulkProcessor;
+import com.linkedin.metadata.search.utils.SearchUtils;
+import com.linkedin.metadata.utils.DataPlatformInstanceUtils;
+import com.linkedin.metadata.utils.EntityKeyUtils;
+import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
+import com.linkedin.metadata.utils.metrics.MetricUtils;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.Getter;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.opensearch.OpenSearchStatusException;
+import org.opensearch.action.DocWriteRequest;
+import org.opensearch.action.bulk.BulkRequest;
+import org.opensearch.action.bulk.BulkResponse;
+import org.opensearch.action.delete.DeleteRequest;
+import org.opensearch.action.get.GetRequest;
+import org.opensearch.action.get.GetResponse;
+import org.opensearch.action.index.IndexRequest;
+import org.opensearch.action.index.IndexResponse;
+import org.opensearch.action.search.SearchRequest;
+import org.opensearch.action.update.UpdateRequest;
+import org.opensearch.client.RequestOptions;
+import org.opensearch.client.RestHighLevelClient;
+import org.opensearch.index.query.BoolQueryBuilder;
+import org.opensearch.index.query.QueryBuilders;
+import org.opensearch.rest.RestStatus;
+import org.opensearch.script.Script;
+import org.opensearch.script.ScriptType;
+import org.opensearch.search.SearchHit;
+import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.search.fetch.subphase.FetchSourceContext;
+
+/**
+ * Materialized browse tree answering browse requests without a query from stored counts instead of
+ * terms aggregations over the browse paths of the entity indices.
+ *
+ * <p>Every prefix of a browse path is a node of the tree, kept per entity type and platform as a
+ * document of a small index holding the number of entities at or below it and the number of
+ * entities whose path ends at it. The children of a path are the nodes whose parent it is, and a
+ * child has sub groups when some of its entities go deeper. Entities that are soft deleted are
+ * left out, like a browse search leaves them out by default.
+ *
+ * <p>The tree is counted from the entity indices by a periodic rebuild, run by one instance at a
+ * time under a lease document of the tree index. In between, changes of the browse path or status
+ * of an entity applied from the change log move it in the tree as scripted +1 and -1 updates of the
+ * nodes of its old and new path. The browse path, status and platform last applied for an entity
+ * are kept in a state document of the tree index, written synchronously and conditionally on its
+ * sequence number before the nodes are updated. A change is only applied while the state still
+ * holds the value it changes from, so one delivered again is not counted twice, and one that finds
+ * the state out of date is left for the next rebuild. The search document of the entity, which is
+ * written in the background and may be behind, is only read for an entity without a state yet.
+ * Changes applied while the tree is being counted may be lost or counted twice until the next
+ * rebuild, and nothing is served or updated before the first rebuild has finished.
+ */
+@Slf4j
+public class BrowseTreeIndex {
+  public static final String INDEX_NAME = "browse_tree_v1";
+
+  private static final String ENTITY_TYPE = "entityType";
+  private static final String PLATFORM = "platform";
+  private static final String PATH = "path";
+  private static final String PARENT_PATH = "parentPath";
+  private static final String COUNT = "count";
+  private static final String LEAF_COUNT = "leafCount";
+  private static final String REBUILT_AT = "rebuiltAt";
+  private static final String BROWSE_PATH_V2 = "browsePathV2";
+  private static final String REMOVED = "removed";
+  private static final String URN = "urn";
+  private static final String DELIMITER = "␟";
+  // Nodes of entities without a known platform, a platform filter cannot be answered for them
+  private static final String NO_PLATFORM = "";
+  private static final String READY_DOC_ID = "_ready";
+  private static final String REBUILD_LEASE_DOC_ID = "_rebuildLease";
+  private static final String LEASE_OWNER = "owner";
+  private static final String LEASE_UNTIL = "leaseUntil";
+  private static final Set<String> PLATFORM_FILTER_FIELDS = Set.of(PLATFORM, PLATFORM + ".keyword");
+  private static final String[] SOURCE_FIELDS = {BROWSE_PATH_V2, PLATFORM};
+  private static final String[] DOCUMENT_FIELDS = {BROWSE_PATH_V2, PLATFORM, REMOVED};
+  // Same cap on the groups of a path as the terms aggregation of a browse search
+  private static final int MAX_GROUPS = 2000;
+  // Nodes read for a path across entity types and platforms, with more the search is used
+  private static final int MAX_NODES = 10000;
+  private static final long READY_CHECK_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+  private static final long REBUILD_CHECK_INTERVAL_MINUTES = 10;
+  // Renewed while the rebuild runs, taken over by another instance once it expires
+  private static final long REBUILD_LEASE_MILLIS = TimeUnit.MINUTES.toMillis(30);
+  private static final int REBUILD_BULK_SIZE = 1000;
+  private static final String UPDATE_COUNTS_SCRIPT =
+      "ctx._source.count += params.count; ctx._source.leafCount += params.leafCount; "
+          + "if (ctx._source.count == 0 && ctx._source.leafCount == 0) "
+          + "{ ctx.op = ctx.op == 'create' ? 'none' : 'delete' }";
+
+  @Value
+  private static class Group {
+    String path;
+    long count;
+    boolean hasSubGroups;
+  }
+
+  @Value
+  private static class Children {
+    List<Group> groups;
+    long totalNumEntities;
+  }
+
+  /** The browse path, status and platform of an entity as last applied to the tree. */
+  @Value
+  private static class EntityState {
+    @Nullable String path;
+    boolean removed;
+    String platform;
+    // Of the state document, null when the entity has none yet
+    @Nullable Long seqNo;
+    @Nullable Long primaryTerm;
+
+    boolean exists() {
+      return seqNo != null;
+    }
+  }
+
+  /**
+   * Lease document letting one instance at a time rebuild the tree, written conditionally on the
+   * sequence number it was read or last written with.
+   */
+  private class RebuildLease {
+    private long seqNo;
+    private long primaryTerm;
+    private long renewAt;
+
+    /** Extends the lease once half of it has run out, fails if it was taken over meanwhile. */
+    void renewIfDue() {
+      if (System.currentTimeMillis() < renewAt) {
+        return;
+      }
+      try {
+        if (!write(leaseRequest().setIfSeqNo(seqNo).setIfPrimaryTerm(primaryTerm))) {
+          throw new IllegalStateException("The browse tree rebuild lease was taken over");
+        }
+      } catch (IOException e) {
+        throw new IllegalStateException("Failed to renew the browse tree rebuild lease", e);
+      }
+    }
+
+    void release() {
+      try {
+        client.delete(
+            new DeleteRequest(getIndexName(), REBUILD_LEASE_DOC_ID)
+                .setIfSeqNo(seqNo)
+                .setIfPrimaryTerm(primaryTerm),
+            RequestOptions.DEFAULT);
+      } catch (IOException | OpenSearchStatusException e) {
+        // Expires on its own
+        log.warn("Failed to release the browse tree rebuild lease: {}", e.getMessage());
+      }
+    }
+
+    /** Writes the lease, false when it was changed by another instance since it was read. */
+    boolean write(@Nonnull IndexRequest request) throws IOException {
+      try {
+        final IndexResponse response = client.index(request, RequestOptions.DEFAULT);
+        seqNo = response.getSeqNo();
+        primaryTerm = response.getPrimaryTerm();
+        renewAt = System.currentTimeMillis() + REBUILD_LEASE_MILLIS / 2;
+        return true;
+      } catch (OpenSearchStatusException e) {
+        if (e.status() == RestStatus.CONFLICT) {
+          return false;
+        }
+        throw e;
+      }
+    }
+  }
+
+  private final RestHighLevelClient client;
+  private final IndexConvention indexConvention;
+  private final ESBulkProcessor bulkProcessor;
+  private final EntityRegistry entityRegistry;
+  @Getter private final boolean enabled;
+  private final int numRetries;
+  @Nullable private final Cache<String, Optional<Children>> childrenCache;
+  private final ScheduledExecutorService executorService =
+      Executors.newSingleThreadScheduledExecutor();
+  private final String instanceId = UUID.randomUUID().toString();
+
+  private volatile boolean ready;
+  private volatile long readyCheckedAt;
+
+  public BrowseTreeIndex(
+      @Nonnull RestHighLevelClient client,
+      @Nonnull IndexConvention indexConvention,
+      @Nonnull ESBulkProcessor bulkProcessor,
+      @Nonnull EntityRegistry entityRegistry,
+      boolean enabled,
+      int numRetries,
+      int cacheMaxSize,
+      long cacheTtlSeconds) {
+    this.client = client;
+    this.indexConvention = indexConvention;
+    this.bulkProcessor = bulkProcessor;
+    this.entityRegistry = entityRegistry;
+    this.enabled = enabled;
+    this.numRetries = numRetries;
+    this.childrenCache =
+        cacheMaxSize > 0 && cacheTtlSeconds > 0
+            ? CacheBuilder.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(cacheTtlSeconds, TimeUnit.SECONDS)
+                .build()
+            : null;
+  }
+
+  public String getIndexName() {
+    return indexConvention.getIndexName(INDEX_NAME);
+  }
+
+  /** Takes the rebuild lease unless another instance holds it and it has not expired. */
+  private Optional<RebuildLease> acquireRebuildLease() throws IOException {
+    final GetResponse current =
+        client.get(new GetRequest(getIndexName(), REBUILD_LEASE_DOC_ID), RequestOptions.DEFAULT);
+    final IndexRequest request = leaseRequest();
+    if (!current.isExists()) {
+      request.opType(DocWriteRequest.OpType.CREATE);
+    } else {
+      final Object leaseUntil = current.getSourceAsMap().get(LEASE_UNTIL);
+      if (leaseUntil instanceof Number
+          && ((Number) leaseUntil).longValue() > System.currentTimeMillis()
+          && !instanceId.equals(current.getSourceAsMap().get(LEASE_OWNER))) {
+        return Optional.empty();
+      }
+      request.setIfSeqNo(current.getSeqNo()).setIfPrimaryTerm(current.getPrimaryTerm());
+    }
+    final RebuildLease lease = new RebuildLease();
+    return lease.write(request) ? Optional.of(lease) : Optional.empty();
+  }
+
+  private IndexRequest leaseRequest() {
+    return new IndexRequest(getIndexName())
+        .id(REBUILD_LEASE_DOC_ID)
+        .source(
+            Map.of(
+                LEASE_OWNER,
+                instanceId,
+                LEASE_UNTIL,
+                System.currentTimeMillis() + REBUILD_LEASE_MILLIS));
+  }
+
+  public static Map<String, Object> getMappings() {
+    final Map<String, Object> keyword = Map.of("type", "keyword");
+    final Map<String, Object> number = Map.of("type", "long");
+    final Map<String, Object> mappings = new HashMap<>();
+    mappings.put(ENTITY_TYPE, keyword);
+    mappings.put(PLATFORM, keyword);
+    mappings.put(PATH, keyword);
+    mappings.put(PARENT_PATH, keyword);
+    mappings.put(COUNT, number);
+    mappings.put(LEAF_COUNT, number);
+    mappings.put(REBUILT_AT, number);
+    mappings.put(URN, keyword);
+    mappings.put(BROWSE_PATH_V2, keyword);
+    mappings.put(REMOVED, Map.of("type", "boolean"));
+    return Map.of("properties", mappings);
+  }
+
+  /**
+   * Count the tree if it was never built and again once the last count is {@code
+   * rebuildIntervalHours} old, checked every few minutes by every instance and run by the one that
+   * takes the rebuild lease.
+   */
+  public void start(@Nonnull ESSearchDAO searchDAO, int batchSize, long rebuildIntervalHours) {
+    if (!enabled) {
+      return;
+    }
+    executorService.scheduleWithFixedDelay(
+        () -> rebuildIfDue(searchDAO, batchSize, rebuildIntervalHours),
+        0,
+        REBUILD_CHECK_INTERVAL_MINUTES,
+        TimeUnit.MINUTES);
+  }
+
+  /** Whether the tree has been counted once, rechecked at most once a minute until it has. */
+  public boolean isReady() {
+    if (!enabled) {
+      return false;
+    }
+    final long now = System.currentTimeMillis();
+    if (!ready && now - readyCheckedAt > READY_CHECK_INTERVAL_MILLIS) {
+      readyCheckedAt = now;
+      try {
+        ready =
+            client
+                .get(new GetRequest(getIndexName(), READY_DOC_ID), RequestOptions.DEFAULT)
+                .isExists();
+      } catch (Exception e) {
+        log.warn("Failed to check whether the browse tree has been built: {}", e.getMessage());
+      }
+    }
+    return ready;
+  }
+
+  /**
+   * Browses the tree like a browse search without a query over the given entity types. Empty when
+   * the search is needed instead: the filter is on more than platforms, the tree is not built yet,
+   * or platforms are filtered and some entities below the path have no known platform.
+   */
+  @Nonnull
+  public Optional<BrowseResultV2> browse(
+      @Nonnull List<String> entityTypes,
+      @Nonnull String path,
+      @Nullable Filter filter,
+      int from,
+      int size) {
+    final Optional<Set<String>> platforms = getPlatformFilter(filter);
+    if (!platforms.isPresent() || !isReady()) {
+      return Optional.empty();
+    }
+    final Optional<Children> children;
+    try {
+      if (childrenCache == null) {
+        children = readChildren(entityTypes, path, platforms.get());
+      } else {
+        final String cacheKey =
+            String.join(",", new TreeSet<>(entityTypes))
+                + "\n"
+                + String.join(",", new TreeSet<>(platforms.get()))
+                + "\n"
+                + path;
+        children =
+            childrenCache.get(cacheKey, () -> readChildren(entityTypes, path, platforms.get()));
+      }
+    } catch (Exception e) {
+      log.warn("Failed to read the browse tree, falling back to a browse search", e);
+      return Optional.empty();
+    }
+    return children.map(
+        found -> {
+          final List<Group> groups = found.getGroups();
+          final List<BrowseResultGroupV2> page =
+              groups.size() <= from
+                  ? Collections.emptyList()
+                  : groups.subList(from, Math.min(from + size, groups.size())).stream()
+                      .map(BrowseTreeIndex::toBrowseResultGroup)
+                      .collect(Collectors.toList());
+          return new BrowseResultV2()
+              .setMetadata(
+                  new BrowseResultMetadata()
+                      .setTotalNumEntities(found.getTotalNumEntities())
+                      .setPath(path))
+              .setGroups(new BrowseResultGroupV2Array(page))
+              .setNumGroups(groups.size())
+              .setFrom(from)
+              .setPageSize(size);
+        });
+  }
+
+  /**
+   * Moves an entity in the tree after its browse path or status changed, from the values before and
+   * after the change. Other aspects are ignored. The change is skipped unless the state of the
+   * entity still holds the value before it. An entity without a state yet takes the value of the
+   * other aspect from its search document.
+   *
+   * @param previousAspect the aspect before the change, null when it did not exist
+   * @param aspect the aspect after the change, null when it was deleted
+   */
+  public void onAspectChanged(
+      @Nonnull Urn urn,
+      @Nonnull String aspectName,
+      @Nullable RecordTemplate previousAspect,
+      @Nullable RecordTemplate aspect) {
+    if ((!BROWSE_PATHS_V2_ASPECT_NAME.equals(aspectName) && !STATUS_ASPECT_NAME.equals(aspectName))
+        || !isReady()) {
+      return;
+    }
+    try {
+      for (int attempt = 0; attempt <= numRetries; attempt++) {
+        final EntityState state = getState(urn);
+        if (BROWSE_PATHS_V2_ASPECT_NAME.equals(aspectName)) {
+          final String oldPath = toPath(previousAspect);
+          final String newPath = toPath(aspect);
+          if (state.exists() && !Objects.equals(state.getPath(), oldPath)) {
+            MetricUtils.counter(BrowseTreeIndex.class, "skippedChanges").inc();
+            return;
+          }
+          if (Objects.equals(oldPath, newPath)) {
+            return;
+          }
+          if (writeState(urn, state, newPath, state.isRemoved())) {
+            if (!state.isRemoved()) {
+              move(urn.getEntityType(), state.getPlatform(), oldPath, newPath);
+            }
+            return;
+          }
+        } else {
+          final boolean oldRemoved = isRemoved(previousAspect);
+          final boolean newRemoved = isRemoved(aspect);
+          if (state.exists() && state.isRemoved() != oldRemoved) {
+            MetricUtils.counter(BrowseTreeIndex.class, "skippedChanges").inc();
+            return;
+          }
+          if (oldRemoved == newRemoved) {
+            return;
+          }
+          if (writeState(urn, state, state.getPath(), newRemoved)) {
+            if (newRemoved) {
+              move(urn.getEntityType(), state.getPlatform(), state.getPath(), null);
+            } else {
+              move(urn.getEntityType(), state.getPlatform(), null, state.getPath());
+            }
+            return;
+          }
+        }
+      }
+      MetricUtils.counter(BrowseTreeIndex.class, "conflictedChanges").inc();
+    } catch (Exception e) {
+      log.error("Failed to update the browse tree for {}", urn, e);
+    }
+  }
+
+  /**
+   * Takes a hard deleted entity out of the tree. Its aspects are gone, so its browse path and
+   * platform are taken from its state, or from its search document, which must not have been
+   * deleted yet, when it has none. The state is kept without a browse path, so a delete delivered
+   * again finds the entity out of the tree already.
+   */
+  public void onEntityDeleted(@Nonnull Urn urn) {
+    if (!isReady()) {
+      return;
+    }
+    try {
+      for (int attempt = 0; attempt <= numRetries; attempt++) {
+        final EntityState state = getState(urn);
+        if (state.getPath() == null) {
+          return;
+        }
+        if (writeState(urn, state, null, false)) {
+          if (!state.isRemoved()) {
+            move(urn.getEntityType(), state.getPlatform(), state.getPath(), null);
+          }
+          return;
+        }
+      }
+      MetricUtils.counter(BrowseTreeIndex.class, "conflictedChanges").inc();
+    } catch (Exception e) {
+      log.error("Failed to remove {} from the browse tree", urn, e);
+    }
+  }
+
+  /** Drops every node, the tree is served again after the next rebuild. */
+  public void clear() {
+    if (enabled) {
+      ready = false;
+      readyCheckedAt = System.currentTimeMillis();
+      bulkProcessor.deleteByQuery(QueryBuilders.matchAllQuery(), getIndexName());
+    }
+  }
+
+  /**
+   * Recounts the tree when it was never counted or its last count is older than the interval, a
+   * zero interval only counting it once. Nothing is done while another instance holds the lease.
+   */
+  public void rebuildIfDue(
+      @Nonnull ESSearchDAO searchDAO, int batchSize, long rebuildIntervalHours) {
+    try {
+      if (!isRebuildDue(rebuildIntervalHours)) {
+        return;
+      }
+      final Optional<RebuildLease> lease = acquireRebuildLease();
+      if (!lease.isPresent()) {
+        log.info("The browse tree is being rebuilt by another instance");
+        return;
+      }
+      try {
+        // Another instance may have finished a rebuild since the first check
+        if (isRebuildDue(rebuildIntervalHours)) {
+          rebuild(searchDAO, batchSize, lease.get());
+        }
+      } finally {
+        lease.get().release();
+      }
+    } catch (Exception e) {
+      MetricUtils.exceptionCounter(BrowseTreeIndex.class, "rebuild", e);
+      log.error("Failed to rebuild the browse tree", e);
+    }
+  }
+
+  private boolean isRebuildDue(long rebuildIntervalHours) throws IOException {
+    final GetResponse response =
+        client.get(new GetRequest(getIndexName(), READY_DOC_ID), RequestOptions.DEFAULT);
+    if (!response.isExists()) {
+      return true;
+    }
+    final Object rebuiltAt = response.getSourceAsMap().get(REBUILT_AT);
+    return rebuildIntervalHours > 0
+        && (!(rebuiltAt instanceof Number)
+            || ((Number) rebuiltAt).longValue()
+                < System.currentTimeMillis() - TimeUnit.HOURS.toMillis(rebuildIntervalHours));
+  }
+
+  /** Recounts every entity type with browse paths from its search index. */
+  private void rebuild(@Nonnull ESSearchDAO searchDAO, int batchSize, @Nonnull RebuildLease lease)
+      throws IOException {
+    try (Timer.Context ignored = MetricUtils.timer(BrowseTreeIndex.class, "rebuild").time()) {
+      for (EntitySpec entitySpec : entityRegistry.getEntitySpecs().values()) {
+        if (entitySpec.getSearchableFieldSpecs().stream()
+            .anyMatch(
+                fieldSpec ->
+                    fieldSpec.getSearchableAnnotation().getFieldType()
+                        == SearchableAnnotation.FieldType.BROWSE_PATH_V2)) {
+          rebuild(
+              entitySpec.getName(),
+              consumer ->
+                  searchDAO.scanDocuments(
+                      entitySpec,
+                      SOURCE_FIELDS,
+                      batchSize,
+                      document -> {
+                        lease.renewIfDue();
+                        consumer.accept(document);
+                      }));
+        }
+      }
+      lease.renewIfDue();
+      // Written once every node is, so that no instance serves the tree before it is complete
+      client.index(
+          new IndexRequest(getIndexName())
+              .id(READY_DOC_ID)
+              .source(Map.of(REBUILT_AT, System.currentTimeMillis())),
+          RequestOptions.DEFAULT);
+      ready = true;
+      if (childrenCache != null) {
+        childrenCache.invalidateAll();
+      }
+    }
+  }
+
+  /**
+   * Recounts an entity type and drops the nodes no entity is below anymore.
+   *
+   * @param scan passes every search document of the entity type that is not soft deleted to the
+   *     consumer it is given
+   */
+  public void rebuild(
+      @Nonnull String entityType, @Nonnull Consumer<Consumer<Map<String, Object>>> scan)
+      throws IOException {
+    final long rebuiltAt = System.currentTimeMillis();
+    final Map<List<String>, long[]> nodes = new HashMap<>();
+    scan.accept(
+        document -> {
+          final String platform = getPlatform(document);
+          forEachNode(
+              getPath(document),
+              (path, leaf) -> {
+                final long[] counts =
+                    nodes.computeIfAbsent(List.of(platform, path), key -> new long[2]);
+                counts[0]++;
+                if (leaf) {
+                  counts[1]++;
+                }
+              });
+        });
+    // Written synchronously, the nodes not rewritten are dropped right after
+    BulkRequest bulkRequest = new BulkRequest();
+    for (Map.Entry<List<String>, long[]> node : nodes.entrySet()) {
+      final List<String> key = node.getKey();
+      bulkRequest.add(
+          new IndexRequest(getIndexName())
+              .id(toDocId(entityType, key.get(0), key.get(1)))
+              .source(
+                  toNode(
+                      entityType,
+                      key.get(0),
+                      key.get(1),
+                      node.getValue()[0],
+                      node.getValue()[1],
+                      rebuiltAt)));
+      if (bulkRequest.numberOfActions() >= REBUILD_BULK_SIZE) {
+        writeNodes(bulkRequest);
+        bulkRequest = new BulkRequest();
+      }
+    }
+    if (bulkRequest.numberOfActions() > 0) {
+      writeNodes(bulkRequest);
+    }
+    bulkProcessor.deleteByQuery(
+        QueryBuilders.boolQuery()
+            .filter(QueryBuilders.termQuery(ENTITY_TYPE, entityType))
+            .filter(QueryBuilders.rangeQuery(REBUILT_AT).lt(rebuiltAt)),
+        getIndexName());
+    log.info("Counted {} browse tree nodes of {}", nodes.size(), entityType);
+  }
+
+  private void writeNodes(@Nonnull BulkRequest bulkRequest) throws IOException {
+    final BulkResponse response = client.bulk(bulkRequest, RequestOptions.DEFAULT);
+    if (response.hasFailures()) {
+      throw new IOException("Failed to write browse tree nodes: " + response.buildFailureMessage());
+    }
+  }
+
+  /** Moves an entity from one browse path to another, either of which is null if there is none. */
+  @VisibleForTesting
+  void move(
+      @Nonnull String entityType,
+      @Nonnull String platform,
+      @Nullable String oldPath,
+      @Nullable String newPath) {
+    if (Objects.equals(oldPath, newPath)) {
+      return;
+    }
+    // The nodes the two paths share cancel out
+    final Map<String, long[]> deltas = new LinkedHashMap<>();
+    forEachNode(
+        oldPath,
+        (path, leaf) -> {
+          final long[] delta = deltas.computeIfAbsent(path, key -> new long[2]);
+          delta[0]--;
+          if (leaf) {
+            delta[1]--;
+          }
+        });
+    forEachNode(
+        newPath,
+        (path, leaf) -> {
+          final long[] delta = deltas.computeIfAbsent(path, key -> new long[2]);
+          delta[0]++;
+          if (leaf) {
+            delta[1]++;
+          }
+        });
+    deltas.forEach(
+        (path, delta) -> {
+          if (delta[0] != 0 || delta[1] != 0) {
+            bulkProcessor.add(
+                new UpdateRequest(getIndexName(), toDocId(entityType, platform, path))
+                    .detectNoop(false)
+                    .scriptedUpsert(true)
+                    // Created after the start of a running rebuild, so it is not dropped by it
+                    .upsert(toNode(entityType, platform, path, 0, 0, System.currentTimeMillis()))
+                    .retryOnConflict(numRetries)
+                    .script(
+                        new Script(
+                            ScriptType.INLINE,
+                            Script.DEFAULT_SCRIPT_LANG,
+                            UPDATE_COUNTS_SCRIPT,
+                            Map.of(COUNT, delta[0], LEAF_COUNT, delta[1]))));
+          }
+        });
+  }
+
+  @Nonnull
+  private Optional<Children> readChildren(
+      @Nonnull List<String> entityTypes, @Nonnull String path, @Nonnull Set<String> platforms)
+      throws IOException {
+    final BoolQueryBuilder query =
+        QueryBuilders.boolQuery()
+            .filter(QueryBuilders.termsQuery(ENTITY_TYPE, entityTypes))
+            .filter(QueryBuilders.termQuery(PARENT_PATH, path))
+            .filter(QueryBuilders.rangeQuery(COUNT).gt(0));
+    if (!platforms.isEmpty()) {
+      // Nodes without a platform are read too, to find out whether the filter can be answered
+      query.filter(
+          QueryBuilders.termsQuery(PLATFORM, Sets.union(platforms, Set.of(NO_PLATFORM))));
+    }
+    final SearchHit[] hits;
+    try (Timer.Context ignored = MetricUtils.timer(BrowseTreeIndex.class, "readChildren").time()) {
+      hits =
+          client
+              .search(
+                  new SearchRequest(getIndexName())
+                      .source(new SearchSourceBuilder().query(query).size(MAX_NODES)),
+                  RequestOptions.DEFAULT)
+              .getHits()
+              .getHits();
+    }
+    if (hits.length >= MAX_NODES) {
+      return Optional.empty();
+    }
+    final Map<String, long[]> counts = new HashMap<>();
+    for (SearchHit hit : hits) {
+      final Map<String, Object> node = hit.getSourceAsMap();
+      if (!platforms.isEmpty() && NO_PLATFORM.equals(node.get(PLATFORM))) {
+        return Optional.empty();
+      }
+      final long[] childCounts =
+          counts.computeIfAbsent((String) node.get(PATH), key -> new long[2]);
+      childCounts[0] += ((Number) node.get(COUNT)).longValue();
+      childCounts[1] += ((Number) node.get(LEAF_COUNT)).longValue();
+    }
+    // Ordered like the buckets of a terms aggregation, by count and then by key
+    final List<Group> groups =
+        counts.entrySet().stream()
+            .map(
+                entry ->
+                    new Group(
+                        entry.getKey(),
+                        entry.getValue()[0],
+                        entry.getValue()[0] > entry.getValue()[1]))
+            .sorted(
+                Comparator.comparingLong(Group::getCount)
+                    .reversed()
+                    .thenComparing(Group::getPath))
+            .limit(MAX_GROUPS)
+            .collect(Collectors.toList());
+    final long totalNumEntities = counts.values().stream().mapToLong(count -> count[0]).sum();
+    return Optional.of(new Children(groups, totalNumEntities));
+  }
+
+  /**
+   * The platforms a filter is on, none for no filter. Empty when the filter has other criteria.
+   */
+  @Nonnull
+  private static Optional<Set<String>> getPlatformFilter(@Nullable Filter filter) {
+    if (filter == null) {
+      return Optional.of(Collections.emptySet());
+    }
+    if (filter.hasCriteria() && !filter.getCriteria().isEmpty()) {
+      return Optional.empty();
+    }
+    if (!filter.hasOr()) {
+      return Optional.of(Collections.emptySet());
+    }
+    final Set<String> platforms = new HashSet<>();
+    for (ConjunctiveCriterion conjunction : filter.getOr()) {
+      if (conjunction.getAnd().isEmpty()) {
+        // Matches every entity, so does the whole filter
+        return Optional.of(Collections.emptySet());
+      }
+      if (conjunction.getAnd().size() > 1) {
+        return Optional.empty();
+      }
+      final Criterion criterion = conjunction.getAnd().get(0);
+      if (!PLATFORM_FILTER_FIELDS.contains(criterion.getField())
+          || criterion.getCondition() != Condition.EQUAL
+          || Boolean.TRUE.equals(criterion.isNegated())) {
+        return Optional.empty();
+      }
+      if (criterion.hasValues() && !criterion.getValues().isEmpty()) {
+        platforms.addAll(criterion.getValues());
+      } else if (criterion.hasValue()) {
+        platforms.add(criterion.getValue());
+      }
+    }
+    return Optional.of(platforms);
+  }
+
+  /** The browse path of a browsePathsV2 aspect the way it is stored in the search document. */
+  @Nullable
+  @VisibleForTesting
+  static String toPath(@Nullable RecordTemplate aspect) {
+    if (aspect == null) {
+      return null;
+    }
+    final List<String> ids =
+        new BrowsePathsV2(aspect.data())
+            .getPath().stream().map(BrowsePathEntry::getId).collect(Collectors.toList());
+    return ids.isEmpty() ? null : DELIMITER + String.join(DELIMITER, ids);
+  }
+
+  private static boolean isRemoved(@Nullable RecordTemplate status) {
+    return status != null && Boolean.TRUE.equals(new Status(status.data()).isRemoved());
+  }
+
+  /** The browse path, platform and status of an entity in its search document, if it has one. */
+  @Nonnull
+  private Optional<Map<String, Object>> getDocument(@Nonnull Urn urn) throws IOException {
+    final Optional<String> docId = SearchUtils.getDocId(urn);
+    if (!docId.isPresent()) {
+      return Optional.empty();
+    }
+    final GetResponse response =
+        client.get(
+            new GetRequest(indexConvention.getEntityIndexName(urn.getEntityType()), docId.get())
+                .fetchSourceContext(new FetchSourceContext(true, DOCUMENT_FIELDS, null)),
+            RequestOptions.DEFAULT);
+    return response.isExists() ? Optional.of(response.getSourceAsMap()) : Optional.empty();
+  }
+
+  /** The state of an entity, or the one its search document gives when it has none yet. */
+  @Nonnull
+  private EntityState getState(@Nonnull Urn urn) throws IOException {
+    final GetResponse response =
+        client.get(new GetRequest(getIndexName(), toStateDocId(urn)), RequestOptions.DEFAULT);
+    if (response.isExists()) {
+      final Map<String, Object> source = response.getSourceAsMap();
+      return new EntityState(
+          getPath(source),
+          Boolean.TRUE.equals(source.get(REMOVED)),
+          getPlatform(source),
+          response.getSeqNo(),
+          response.getPrimaryTerm());
+    }
+    final Map<String, Object> document = getDocument(urn).orElse(Collections.emptyMap());
+    return new EntityState(
+        getPath(document),
+        Boolean.TRUE.equals(document.get(REMOVED)),
+        getPlatform(urn, document),
+        null,
+        null);
+  }
+
+  /**
+   * Writes the state of an entity, false when it was changed by another change since it was read.
+   */
+  private boolean writeState(
+      @Nonnull Urn urn, @Nonnull EntityState state, @Nullable String path, boolean removed)
+      throws IOException {
+    final Map<String, Object> source = new HashMap<>();
+    source.put(URN, urn.toString());
+    source.put(PLATFORM, state.getPlatform());
+    source.put(REMOVED, removed);
+    if (path != null) {
+      source.put(BROWSE_PATH_V2, path);
+    }
+    final IndexRequest request =
+        new IndexRequest(getIndexName()).id(toStateDocId(urn)).source(source);
+    if (state.exists()) {
+      request.setIfSeqNo(state.getSeqNo()).setIfPrimaryTerm(state.getPrimaryTerm());
+    } else {
+      request.opType(DocWriteRequest.OpType.CREATE);
+    }
+    try {
+      client.index(request, RequestOptions.DEFAULT);
+      return true;
+    } catch (OpenSearchStatusException e) {
+      if (e.status() == RestStatus.CONFLICT) {
+        return false;
+      }
+      throw e;
+    }
+  }
+
+  // The platform of the search document, or of the key before the document is written
+  @Nonnull
+  private String getPlatform(@Nonnull Urn urn, @Nonnull Map<String, Object> document) {
+    if (document.get(PLATFORM) instanceof String) {
+      return (String) document.get(PLATFORM);
+    }
+    final EntitySpec entitySpec = entityRegistry.getEntitySpec(urn.getEntityType());
+    return DataPlatformInstanceUtils.buildDataPlatformInstance(
+            urn.getEntityType(),
+            EntityKeyUtils.convertUrnToEntityKey(urn, entitySpec.getKeyAspectSpec()))
+        .map(instance -> instance.getPlatform().toString())
+        .orElse(NO_PLATFORM);
+  }
+
+  @Nonnull
+  private static String getPlatform(@Nonnull Map<String, Object> document) {
+    final Object platform = document.get(PLATFORM);
+    return platform instanceof String ? (String) platform : NO_PLATFORM;
+  }
+
+  @Nullable
+  private static String getPath(@Nonnull Map<String, Object> document) {
+    final Object path = document.get(BROWSE_PATH_V2);
+    return path instanceof String ? (String) path : null;
+  }
+
+  /** Passes every prefix of a browse path to the consumer, with whether it is the whole path. */
+  private static void forEachNode(
+      @Nullable String path, @Nonnull BiConsumer<String, Boolean> consumer) {
+    if (path == null || !path.startsWith(DELIMITER) || path.length() == DELIMITER.length()) {
+      return;
+    }
+    for (int end = path.indexOf(DELIMITER, DELIMITER.length());
+        end >= 0;
+        end = path.indexOf(DELIMITER, end + DELIMITER.length())) {
+      consumer.accept(path.substring(0, end), false);
+    }
+    consumer.accept(path, true);
+  }
+
+  private static String getParentPath(@Nonnull String path) {
+    return path.substring(0, path.lastIndexOf(DELIMITER));
+  }
+
+  private static String toDocId(
+      @Nonnull String entityType, @Nonnull String platform, @Nonnull String path) {
+    return Hashing.murmur3_128()
+        .hashString(entityType + "\n" + platform + "\n" + path, StandardCharsets.UTF_8)
+        .toString();
+  }
+
+  // State documents hash the urn alone, nodes hash three lines
+  private static String toStateDocId(@Nonnull Urn urn) {
+    return Hashing.murmur3_128().hashString(urn.toString(), StandardCharsets.UTF_8).toString();
+  }
+
+  private static Map<String, Object> toNode(
+      @Nonnull String entityType,
+      @Nonnull String platform,
+      @Nonnull String path,
+      long count,
+      long leafCount,
+      long rebuiltAt) {
+    return Map.of(
+        ENTITY_TYPE,
+        entityType,
+        PLATFORM,
+        platform,
+        PATH,
+        path,
+        PARENT_PATH,
+        getParentPath(path),
+        COUNT,
+        count,
+        LEAF_COUNT,
+        leafCount,
+        REBUILT_AT,
+        rebuiltAt);
+  }
+
+  private static BrowseResultGroupV2 toBrowseResultGroup(@Nonnull Group group) {
+    final String name = group.getPath().substring(group.getPath().lastIndexOf(DELIMITER) + 1);
+    final BrowseResultGroupV2 browseGroup =
+        new BrowseResultGroupV2()
+            .setName(name)
+            .setCount(group.getCount())
+            .setHasSubGroups(group.isHasSubGroups());
+    if (name.startsWith("urn:li:")) {
+      browseGroup.setUrn(UrnUtils.getUrn(name));
+    }
+    return browseGroup;
+  }
+}
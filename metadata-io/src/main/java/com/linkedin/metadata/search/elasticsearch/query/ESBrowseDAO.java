@@ -72,6 +72,8 @@ public class ESBrowseDAO {
   private final IndexConvention indexConvention;
   @Nonnull private final SearchConfiguration searchConfiguration;
   @Nullable private final CustomSearchConfiguration customSearchConfiguration;
+  // Answers browse requests without a query and filtered on platforms at most when set
+  @Setter @Nullable private BrowseTreeIndex browseTreeIndex;
 
   private static final String BROWSE_PATH = "browsePaths";
   private static final String BROWSE_PATH_DEPTH = "browsePaths.length";
@@ -408,6 +410,11 @@ public class ESBrowseDAO {
       int start,
       int count,
       @Nullable SearchFlags searchFlags) {
+    final Optional<BrowseResultV2> fromBrowseTree =
+        browseFromTree(List.of(entityName), path, filter, input, start, count);
+    if (fromBrowseTree.isPresent()) {
+      return fromBrowseTree.get();
+    }
     try {
       final SearchResponse groupsResponse;
       try (Timer.Context ignored = MetricUtils.timer(this.getClass(), "esGroupSearch").time()) {
@@ -445,6 +452,11 @@ public class ESBrowseDAO {
       int start,
       int count,
       @Nullable SearchFlags searchFlags) {
+    final Optional<BrowseResultV2> fromBrowseTree =
+        browseFromTree(entities, path, filter, input, start, count);
+    if (fromBrowseTree.isPresent()) {
+      return fromBrowseTree.get();
+    }
     try {
       final SearchResponse groupsResponse;
 
@@ -476,6 +488,24 @@ public class ESBrowseDAO {
     }
   }
 
+  @Nonnull
+  private Optional<BrowseResultV2> browseFromTree(
+      @Nonnull List<String> entities,
+      @Nonnull String path,
+      @Nullable Filter filter,
+      @Nonnull String input,
+      int start,
+      int count) {
+    if (browseTreeIndex == null || !(input.isEmpty() || input.equals("*"))) {
+      return Optional.empty();
+    }
+    final Optional<BrowseResultV2> result =
+        browseTreeIndex.browse(entities, path, filter, start, count);
+    MetricUtils.counter(this.getClass(), result.isPresent() ? "browseTreeHit" : "browseTreeMiss")
+        .inc();
+    return result;
+  }
+
   @Nonnull
   private SearchRequest constructGroupsSearchRequestV2(
       @Nonnull String entityName,
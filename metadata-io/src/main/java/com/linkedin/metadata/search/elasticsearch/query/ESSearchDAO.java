@@ -8,9 +8,12 @@ import com.codahale.metrics.Timer;
 import com.datahub.util.exception.ESQueryException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.linkedin.data.template.LongMap;
 import com.linkedin.metadata.aspect.AspectRetriever;
 import com.linkedin.metadata.config.search.SearchConfiguration;
+import com.linkedin.metadata.config.search.SearchExecutionConfiguration;
 import com.linkedin.metadata.config.search.custom.CustomSearchConfiguration;
 import com.linkedin.metadata.models.EntitySpec;
 import com.linkedin.metadata.query.AutoCompleteResult;
@@ -26,24 +29,32 @@ import com.linkedin.metadata.search.elasticsearch.query.request.AggregationQuery
 import com.linkedin.metadata.search.elasticsearch.query.request.AutocompleteRequestHandler;
 import com.linkedin.metadata.search.elasticsearch.query.request.SearchAfterWrapper;
 import com.linkedin.metadata.search.elasticsearch.query.request.SearchRequestHandler;
+import com.linkedin.metadata.search.utils.ESUtils;
 import com.linkedin.metadata.search.utils.QueryUtils;
 import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
 import com.linkedin.metadata.utils.metrics.MetricUtils;
 import io.opentelemetry.extension.annotations.WithSpan;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import lombok.AccessLevel;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import lombok.experimental.Accessors;
 import lombok.extern.slf4j.Slf4j;
+import org.opensearch.action.ActionListener;
 import org.opensearch.action.explain.ExplainRequest;
 import org.opensearch.action.explain.ExplainResponse;
 import org.opensearch.action.search.SearchRequest;
@@ -58,8 +69,11 @@ import org.opensearch.common.xcontent.LoggingDeprecationHandler;
 import org.opensearch.common.xcontent.XContentType;
 import org.opensearch.core.xcontent.NamedXContentRegistry;
 import org.opensearch.core.xcontent.XContentParser;
+import org.opensearch.index.query.QueryBuilders;
+import org.opensearch.search.SearchHit;
 import org.opensearch.search.SearchModule;
 import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.search.sort.SortOrder;
 
 /** A search DAO for Elasticsearch backend. */
 @Slf4j
@@ -81,6 +95,24 @@ public class ESSearchDAO {
   @Nonnull private final SearchConfiguration searchConfiguration;
   @Nullable private final CustomSearchConfiguration customSearchConfiguration;
 
+  // Facet responses by facet request, shared by the pages of the same search
+  @Getter(value = AccessLevel.PRIVATE, lazy = true)
+  @Nullable
+  private final Cache<String, SearchResponse> facetCache = buildFacetCache();
+
+  @Nullable
+  private Cache<String, SearchResponse> buildFacetCache() {
+    final SearchExecutionConfiguration execution = searchConfiguration.getExecution();
+    return execution != null
+            && execution.getFacetCacheMaxSize() > 0
+            && execution.getFacetCacheTtlSeconds() > 0
+        ? CacheBuilder.newBuilder()
+            .maximumSize(execution.getFacetCacheMaxSize())
+            .expireAfterWrite(execution.getFacetCacheTtlSeconds(), TimeUnit.SECONDS)
+            .build()
+        : null;
+  }
+
   public long docCount(@Nonnull String entityName) {
     EntitySpec entitySpec = aspectRetriever.getEntityRegistry().getEntitySpec(entityName);
     CountRequest countRequest =
@@ -104,16 +136,38 @@ public class ESSearchDAO {
       @Nullable Filter filter,
       int from,
       int size) {
+    return executeAndExtract(entitySpec, searchRequest, null, filter, from, size);
+  }
+
+  /**
+   * @param facetRequest request for the facets when they are not part of the search request, sent
+   *     alongside it unless its response is cached
+   */
+  @Nonnull
+  @WithSpan
+  private SearchResult executeAndExtract(
+      @Nonnull List<EntitySpec> entitySpec,
+      @Nonnull SearchRequest searchRequest,
+      @Nullable SearchRequest facetRequest,
+      @Nullable Filter filter,
+      int from,
+      int size) {
     long id = System.currentTimeMillis();
     try (Timer.Context ignored =
         MetricUtils.timer(this.getClass(), "executeAndExtract_search").time()) {
       log.debug("Executing request {}: {}", id, searchRequest);
+      final CompletableFuture<SearchResponse> facetResponse = searchFacets(facetRequest);
       final SearchResponse searchResponse = client.search(searchRequest, RequestOptions.DEFAULT);
       // extract results, validated against document model as well
       return transformIndexIntoEntityName(
           SearchRequestHandler.getBuilder(
                   entitySpec, searchConfiguration, customSearchConfiguration, aspectRetriever)
-              .extractResult(searchResponse, filter, from, size));
+              .extractResult(
+                  searchResponse,
+                  facetResponse != null ? facetResponse.join() : searchResponse,
+                  filter,
+                  from,
+                  size));
     } catch (Exception e) {
       log.error("Search query failed", e);
       throw new ESQueryException("Search query failed:", e);
@@ -122,6 +176,38 @@ public class ESSearchDAO {
     }
   }
 
+  /**
+   * Sends the facet request without waiting for it, or answers it from the facet cache.
+   *
+   * @return the pending facet response, null without a facet request
+   */
+  @Nullable
+  private CompletableFuture<SearchResponse> searchFacets(@Nullable SearchRequest facetRequest) {
+    if (facetRequest == null) {
+      return null;
+    }
+    final Cache<String, SearchResponse> cache = getFacetCache();
+    final String cacheKey = Arrays.toString(facetRequest.indices()) + facetRequest.source();
+    final SearchResponse cached = cache != null ? cache.getIfPresent(cacheKey) : null;
+    if (cached != null) {
+      MetricUtils.counter(this.getClass(), "facet_cache_hit").inc();
+      return CompletableFuture.completedFuture(cached);
+    }
+
+    final CompletableFuture<SearchResponse> facetResponse = new CompletableFuture<>();
+    client.searchAsync(
+        facetRequest,
+        RequestOptions.DEFAULT,
+        ActionListener.wrap(facetResponse::complete, facetResponse::completeExceptionally));
+    return cache != null
+        ? facetResponse.thenApply(
+            response -> {
+              cache.put(cacheKey, response);
+              return response;
+            })
+        : facetResponse;
+  }
+
   private String transformIndexToken(String name, int entityTypeIdx) {
     if (entityTypeIdx < 0) {
       return name;
@@ -237,17 +323,25 @@ public class ESSearchDAO {
             .map(name -> aspectRetriever.getEntityRegistry().getEntitySpec(name))
             .collect(Collectors.toList());
     Filter transformedFilters = transformFilterForEntities(postFilters, indexConvention);
-    // Step 1: construct the query
-    final SearchRequest searchRequest =
+    // Step 1: construct the query, and the facet query when the facets are fetched separately
+    final SearchRequestHandler searchRequestHandler =
         SearchRequestHandler.getBuilder(
-                entitySpecs, searchConfiguration, customSearchConfiguration, aspectRetriever)
-            .getSearchRequest(
-                finalInput, transformedFilters, sortCriterion, from, size, searchFlags, facets);
-    searchRequest.indices(
-        entityNames.stream().map(indexConvention::getEntityIndexName).toArray(String[]::new));
+            entitySpecs, searchConfiguration, customSearchConfiguration, aspectRetriever);
+    final SearchRequest searchRequest =
+        searchRequestHandler.getSearchRequest(
+            finalInput, transformedFilters, sortCriterion, from, size, searchFlags, facets);
+    final String[] indices =
+        entityNames.stream().map(indexConvention::getEntityIndexName).toArray(String[]::new);
+    searchRequest.indices(indices);
+    final SearchRequest facetRequest =
+        searchRequestHandler.getFacetRequest(finalInput, transformedFilters, searchFlags, facets);
+    if (facetRequest != null) {
+      facetRequest.indices(indices);
+    }
     searchRequestTimer.stop();
     // Step 2: execute the query and extract results, validated against document model as well
-    return executeAndExtract(entitySpecs, searchRequest, transformedFilters, from, size);
+    return executeAndExtract(
+        entitySpecs, searchRequest, facetRequest, transformedFilters, from, size);
   }
 
   /**
@@ -314,6 +408,42 @@ public class ESSearchDAO {
     }
   }
 
+  /**
+   * Reads the given source fields of every search document of an entity type that is not soft
+   * deleted, a page at a time in urn order.
+   */
+  public void scanDocuments(
+      @Nonnull EntitySpec entitySpec,
+      @Nonnull String[] fields,
+      int pageSize,
+      @Nonnull Consumer<Map<String, Object>> consumer) {
+    Object[] sort = null;
+    SearchHit[] hits;
+    do {
+      final SearchSourceBuilder searchSourceBuilder =
+          new SearchSourceBuilder()
+              .query(QueryBuilders.boolQuery().mustNot(QueryBuilders.matchQuery("removed", true)))
+              .fetchSource(fields, null)
+              .size(pageSize)
+              .sort("urn", SortOrder.ASC);
+      ESUtils.setSearchAfter(searchSourceBuilder, sort, null, null);
+      final SearchRequest searchRequest =
+          new SearchRequest(indexConvention.getIndexName(entitySpec)).source(searchSourceBuilder);
+      try (Timer.Context ignored = MetricUtils.timer(this.getClass(), "scanDocuments").time()) {
+        hits = client.search(searchRequest, RequestOptions.DEFAULT).getHits().getHits();
+      } catch (IOException e) {
+        log.error("Scan query failed", e);
+        throw new ESQueryException("Scan query failed:", e);
+      }
+      for (SearchHit hit : hits) {
+        consumer.accept(hit.getSourceAsMap());
+      }
+      if (hits.length > 0) {
+        sort = hits[hits.length - 1].getSortValues();
+      }
+    } while (hits.length == pageSize);
+  }
+
   /**
    * Returns number of documents per field value given the field and filters
    *
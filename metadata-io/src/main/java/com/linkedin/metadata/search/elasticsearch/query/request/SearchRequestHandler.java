@@ -4,13 +4,18 @@ import static com.linkedin.metadata.search.utils.ESUtils.NAME_SUGGESTION;
 import static com.linkedin.metadata.search.utils.SearchUtils.applyDefaultSearchFlags;
 import static com.linkedin.metadata.utils.SearchUtil.*;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.Hashing;
 import com.linkedin.common.urn.Urn;
 import com.linkedin.data.template.DoubleMap;
+import com.linkedin.data.template.StringMap;
 import com.linkedin.metadata.aspect.AspectRetriever;
 import com.linkedin.metadata.config.search.SearchConfiguration;
+import com.linkedin.metadata.config.search.SearchExecutionConfiguration;
 import com.linkedin.metadata.config.search.custom.CustomSearchConfiguration;
 import com.linkedin.metadata.models.EntitySpec;
 import com.linkedin.metadata.models.SearchableFieldSpec;
@@ -34,6 +39,7 @@ import com.linkedin.metadata.search.utils.ESUtils;
 import com.linkedin.util.Pair;
 import io.opentelemetry.extension.annotations.WithSpan;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -64,6 +70,8 @@ import org.opensearch.search.suggest.term.TermSuggestion;
 
 @Slf4j
 public class SearchRequestHandler {
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+  private static final String URN_FIELD = "urn";
   private static final SearchFlags DEFAULT_SERVICE_SEARCH_FLAGS =
       new SearchFlags()
           .setFulltext(false)
@@ -71,6 +79,8 @@ public class SearchRequestHandler {
           .setSkipCache(false)
           .setSkipAggregates(false)
           .setSkipHighlighting(false);
+  private static final SearchExecutionConfiguration DEFAULT_EXECUTION =
+      new SearchExecutionConfiguration();
   private static final Map<List<EntitySpec>, SearchRequestHandler> REQUEST_HANDLER_BY_ENTITY_NAME =
       new ConcurrentHashMap<>();
   private final List<EntitySpec> entitySpecs;
@@ -216,14 +226,11 @@ public class SearchRequestHandler {
 
     searchSourceBuilder.from(from);
     searchSourceBuilder.size(size);
-    searchSourceBuilder.fetchSource("urn", null);
+    searchSourceBuilder.fetchSource(getSourceIncludes(finalSearchFlags), null);
 
-    BoolQueryBuilder filterQuery = getFilterQuery(filter);
-    searchSourceBuilder.query(
-        QueryBuilders.boolQuery()
-            .must(getQuery(input, Boolean.TRUE.equals(finalSearchFlags.isFulltext())))
-            .filter(filterQuery));
-    if (Boolean.FALSE.equals(finalSearchFlags.isSkipAggregates())) {
+    searchSourceBuilder.query(getSearchQuery(input, filter, finalSearchFlags));
+    if (Boolean.FALSE.equals(finalSearchFlags.isSkipAggregates())
+        && !getExecution().isSplitAggregations()) {
       aggregationQueryBuilder.getAggregations(facets).forEach(searchSourceBuilder::aggregation);
     }
     if (Boolean.FALSE.equals(finalSearchFlags.isSkipHighlighting())) {
@@ -234,13 +241,55 @@ public class SearchRequestHandler {
     if (Boolean.TRUE.equals(finalSearchFlags.isGetSuggestions())) {
       ESUtils.buildNameSuggestions(searchSourceBuilder, input);
     }
+    if (getExecution().getTrackTotalHitsUpTo() > 0) {
+      searchSourceBuilder.trackTotalHitsUpTo(getExecution().getTrackTotalHitsUpTo());
+    }
 
     searchRequest.source(searchSourceBuilder);
+    setPreference(searchRequest);
     log.debug("Search request is: " + searchRequest);
 
     return searchRequest;
   }
 
+  /**
+   * Constructs the request for the facets of a search whose hits request left them out. It asks for
+   * no hits and no total, so the shard request cache can answer it again for every page of the same
+   * query and filter.
+   *
+   * @param input the search input text
+   * @param filter the search filter
+   * @param searchFlags Various flags controlling search query options
+   * @param facets list of facets we want aggregations for
+   * @return the facet request, or null when the facets are skipped or part of the hits request
+   */
+  @Nullable
+  public SearchRequest getFacetRequest(
+      @Nonnull String input,
+      @Nullable Filter filter,
+      @Nullable SearchFlags searchFlags,
+      @Nullable List<String> facets) {
+    SearchFlags finalSearchFlags =
+        applyDefaultSearchFlags(searchFlags, input, DEFAULT_SERVICE_SEARCH_FLAGS);
+    if (!getExecution().isSplitAggregations()
+        || !Boolean.FALSE.equals(finalSearchFlags.isSkipAggregates())) {
+      return null;
+    }
+
+    SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder();
+    searchSourceBuilder.size(0);
+    searchSourceBuilder.trackTotalHits(false);
+    searchSourceBuilder.query(getSearchQuery(input, filter, finalSearchFlags));
+    aggregationQueryBuilder.getAggregations(facets).forEach(searchSourceBuilder::aggregation);
+
+    SearchRequest searchRequest = new SearchRequest().source(searchSourceBuilder);
+    searchRequest.requestCache(true);
+    setPreference(searchRequest);
+    log.debug("Facet request is: " + searchRequest);
+
+    return searchRequest;
+  }
+
   /**
    * Constructs the search query based on the query request.
    *
@@ -273,7 +322,7 @@ public class SearchRequestHandler {
     ESUtils.setSearchAfter(searchSourceBuilder, sort, pitId, keepAlive);
 
     searchSourceBuilder.size(size);
-    searchSourceBuilder.fetchSource("urn", null);
+    searchSourceBuilder.fetchSource(getSourceIncludes(finalSearchFlags), null);
 
     BoolQueryBuilder filterQuery = getFilterQuery(filter);
     searchSourceBuilder.query(
@@ -347,6 +396,31 @@ public class SearchRequestHandler {
     return searchQueryBuilder.buildQuery(entitySpecs, query, fulltext);
   }
 
+  @Nonnull
+  private QueryBuilder getSearchQuery(
+      @Nonnull String input, @Nullable Filter filter, @Nonnull SearchFlags searchFlags) {
+    return QueryBuilders.boolQuery()
+        .must(getQuery(input, Boolean.TRUE.equals(searchFlags.isFulltext())))
+        .filter(getFilterQuery(filter));
+  }
+
+  @Nonnull
+  private SearchExecutionConfiguration getExecution() {
+    return configs.getExecution() != null ? configs.getExecution() : DEFAULT_EXECUTION;
+  }
+
+  // Every page of the same query and filter gets the same preference, so it is served by the same
+  // shard copies and finds their caches warm. The handler does not see the user, so the preference
+  // is shared by every user running the query and pins a popular query to the same copies.
+  private void setPreference(@Nonnull SearchRequest searchRequest) {
+    if (getExecution().isStickyPreference()) {
+      searchRequest.preference(
+          Hashing.murmur3_128()
+              .hashString(searchRequest.source().query().toString(), StandardCharsets.UTF_8)
+              .toString());
+    }
+  }
+
   @VisibleForTesting
   public HighlightBuilder getHighlights() {
     HighlightBuilder highlightBuilder = new HighlightBuilder();
@@ -367,9 +441,24 @@ public class SearchRequestHandler {
   @WithSpan
   public SearchResult extractResult(
       @Nonnull SearchResponse searchResponse, Filter filter, int from, int size) {
+    return extractResult(searchResponse, searchResponse, filter, from, size);
+  }
+
+  /**
+   * @param facetResponse the response holding the aggregations, which is the hits response unless
+   *     they were fetched with {@link #getFacetRequest}
+   */
+  @WithSpan
+  public SearchResult extractResult(
+      @Nonnull SearchResponse searchResponse,
+      @Nonnull SearchResponse facetResponse,
+      Filter filter,
+      int from,
+      int size) {
     int totalCount = (int) searchResponse.getHits().getTotalHits().value;
     List<SearchEntity> resultList = getResults(searchResponse);
-    SearchResultMetadata searchResultMetadata = extractSearchResultMetadata(searchResponse, filter);
+    SearchResultMetadata searchResultMetadata =
+        extractSearchResultMetadata(searchResponse, facetResponse, filter);
 
     return new SearchResult()
         .setEntities(new SearchEntityArray(resultList))
@@ -389,7 +478,8 @@ public class SearchRequestHandler {
       boolean supportsPointInTime) {
     int totalCount = (int) searchResponse.getHits().getTotalHits().value;
     List<SearchEntity> resultList = getResults(searchResponse);
-    SearchResultMetadata searchResultMetadata = extractSearchResultMetadata(searchResponse, filter);
+    SearchResultMetadata searchResultMetadata =
+        extractSearchResultMetadata(searchResponse, searchResponse, filter);
     SearchHit[] searchHits = searchResponse.getHits().getHits();
     // Only return next scroll ID if there are more results, indicated by full size results
     String nextScrollId = null;
@@ -470,11 +560,52 @@ public class SearchRequestHandler {
   }
 
   private SearchEntity getResult(@Nonnull SearchHit hit) {
-    return new SearchEntity()
-        .setEntity(getUrnFromSearchHit(hit))
-        .setMatchedFields(new MatchedFieldArray(extractMatchedFields(hit)))
-        .setScore(hit.getScore())
-        .setFeatures(new DoubleMap(extractFeatures(hit)));
+    SearchEntity searchEntity =
+        new SearchEntity()
+            .setEntity(getUrnFromSearchHit(hit))
+            .setMatchedFields(new MatchedFieldArray(extractMatchedFields(hit)))
+            .setScore(hit.getScore())
+            .setFeatures(new DoubleMap(extractFeatures(hit)));
+    Map<String, String> extraFields = extractExtraFields(hit);
+    if (!extraFields.isEmpty()) {
+      searchEntity.setExtraFields(new StringMap(extraFields));
+    }
+    return searchEntity;
+  }
+
+  /**
+   * Source fields to fetch for each hit. Only the urn is needed to hydrate a result, extra fields
+   * are added when the caller asks to render results from the index.
+   */
+  @Nonnull
+  private static String[] getSourceIncludes(@Nonnull SearchFlags searchFlags) {
+    if (searchFlags.getFetchExtraFields() == null || searchFlags.getFetchExtraFields().isEmpty()) {
+      return new String[] {URN_FIELD};
+    }
+    return Stream.concat(Stream.of(URN_FIELD), searchFlags.getFetchExtraFields().stream())
+        .distinct()
+        .toArray(String[]::new);
+  }
+
+  /** Every fetched source field besides the urn, with non string values json encoded. */
+  @Nonnull
+  private static Map<String, String> extractExtraFields(@Nonnull SearchHit hit) {
+    Map<String, String> extraFields = new HashMap<>();
+    for (Map.Entry<String, Object> entry : hit.getSourceAsMap().entrySet()) {
+      if (URN_FIELD.equals(entry.getKey()) || entry.getValue() == null) {
+        continue;
+      }
+      if (entry.getValue() instanceof String) {
+        extraFields.put(entry.getKey(), (String) entry.getValue());
+      } else {
+        try {
+          extraFields.put(entry.getKey(), OBJECT_MAPPER.writeValueAsString(entry.getValue()));
+        } catch (JsonProcessingException e) {
+          log.warn("Failed to serialize search document field {}", entry.getKey(), e);
+        }
+      }
+    }
+    return extraFields;
   }
 
   /**
@@ -493,7 +624,7 @@ public class SearchRequestHandler {
   @Nonnull
   private Urn getUrnFromSearchHit(@Nonnull SearchHit hit) {
     try {
-      return Urn.createFromString(hit.getSourceAsMap().get("urn").toString());
+      return Urn.createFromString(hit.getSourceAsMap().get(URN_FIELD).toString());
     } catch (URISyntaxException e) {
       throw new RuntimeException("Invalid urn in search document " + e);
     }
@@ -503,18 +634,21 @@ public class SearchRequestHandler {
    * Extracts SearchResultMetadata section.
    *
    * @param searchResponse the raw {@link SearchResponse} as obtained from the search engine
+   * @param facetResponse the {@link SearchResponse} holding the aggregations
    * @param filter the provided Filter to use with Elasticsearch
    * @return {@link SearchResultMetadata} with aggregation and list of urns obtained from {@link
    *     SearchResponse}
    */
   @Nonnull
   private SearchResultMetadata extractSearchResultMetadata(
-      @Nonnull SearchResponse searchResponse, @Nullable Filter filter) {
+      @Nonnull SearchResponse searchResponse,
+      @Nonnull SearchResponse facetResponse,
+      @Nullable Filter filter) {
     final SearchResultMetadata searchResultMetadata =
         new SearchResultMetadata().setAggregations(new AggregationMetadataArray());
 
     final List<AggregationMetadata> aggregationMetadataList =
-        aggregationQueryBuilder.extractAggregationMetadata(searchResponse, filter);
+        aggregationQueryBuilder.extractAggregationMetadata(facetResponse, filter);
     searchResultMetadata.setAggregations(new AggregationMetadataArray(aggregationMetadataList));
 
     final List<SearchSuggestion> searchSuggestions = extractSearchSuggestions(searchResponse);
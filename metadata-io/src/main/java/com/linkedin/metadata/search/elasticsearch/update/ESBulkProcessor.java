@@ -94,6 +94,35 @@ public class ESBulkProcessor implements Closeable {
 
   public Optional<BulkByScrollResponse> deleteByQuery(
       QueryBuilder queryBuilder, boolean refresh, int limit, TimeValue timeout, String... indices) {
+    return deleteByQuery(queryBuilder, null, refresh, false, limit, timeout, indices);
+  }
+
+  /** Delete by query limited to the shards the given routing value maps to, when there is one. */
+  public Optional<BulkByScrollResponse> deleteByQuery(
+      QueryBuilder queryBuilder, @Nullable String routing, boolean refresh, String... indices) {
+    return deleteByQuery(
+        queryBuilder, routing, refresh, false, bulkRequestsLimit, defaultTimeout, indices);
+  }
+
+  /**
+   * Delete by query limited to the shards the given routing value maps to, when there is one, that
+   * counts version conflicts instead of stopping at the first one. Only for queries that already
+   * exclude the documents being written.
+   */
+  public Optional<BulkByScrollResponse> deleteByQueryIgnoringConflicts(
+      QueryBuilder queryBuilder, @Nullable String routing, String... indices) {
+    return deleteByQuery(
+        queryBuilder, routing, false, true, bulkRequestsLimit, defaultTimeout, indices);
+  }
+
+  private Optional<BulkByScrollResponse> deleteByQuery(
+      QueryBuilder queryBuilder,
+      @Nullable String routing,
+      boolean refresh,
+      boolean ignoreConflicts,
+      int limit,
+      TimeValue timeout,
+      String... indices) {
     DeleteByQueryRequest deleteByQueryRequest =
         new DeleteByQueryRequest()
             .setQuery(queryBuilder)
@@ -103,6 +132,12 @@ public class ESBulkProcessor implements Closeable {
             .setTimeout(timeout)
             .setRefresh(refresh);
     deleteByQueryRequest.indices(indices);
+    if (routing != null) {
+      deleteByQueryRequest.setRouting(routing);
+    }
+    if (ignoreConflicts) {
+      deleteByQueryRequest.setConflicts("proceed");
+    }
 
     try {
       if (!batchDelete) {
@@ -141,9 +176,37 @@ public class ESBulkProcessor implements Closeable {
     // count the number of conflicts, but do not abort the operation
     deleteByQueryRequest.setConflicts("proceed");
     deleteByQueryRequest.indices(indices);
+    // flush pending writes
+    bulkProcessor.flush();
+    return submitDeleteByQueryTask(deleteByQueryRequest);
+  }
+
+  /**
+   * Submits a delete by query task limited to the shards the given routing value maps to, when
+   * there is one, without flushing pending writes first. Only for queries that already exclude the
+   * documents being written.
+   */
+  public Optional<TaskSubmissionResponse> deleteByQueryAsync(
+      QueryBuilder queryBuilder, @Nullable String routing, String... indices) {
+    DeleteByQueryRequest deleteByQueryRequest =
+        new DeleteByQueryRequest()
+            .setQuery(queryBuilder)
+            .setBatchSize(bulkRequestsLimit)
+            .setMaxRetries(numRetries)
+            .setRetryBackoffInitialTime(TimeValue.timeValueSeconds(retryInterval))
+            .setTimeout(defaultTimeout);
+    if (routing != null) {
+      deleteByQueryRequest.setRouting(routing);
+    }
+    // count the number of conflicts, but do not abort the operation
+    deleteByQueryRequest.setConflicts("proceed");
+    deleteByQueryRequest.indices(indices);
+    return submitDeleteByQueryTask(deleteByQueryRequest);
+  }
+
+  private Optional<TaskSubmissionResponse> submitDeleteByQueryTask(
+      DeleteByQueryRequest deleteByQueryRequest) {
     try {
-      // flush pending writes
-      bulkProcessor.flush();
       TaskSubmissionResponse resp =
           searchClient.submitDeleteByQueryTask(deleteByQueryRequest, RequestOptions.DEFAULT);
       MetricUtils.counter(this.getClass(), ES_BATCHES_METRIC).inc();
@@ -3,6 +3,7 @@ package com.linkedin.metadata.search.elasticsearch.update;
 import com.linkedin.metadata.models.registry.EntityRegistry;
 import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
 import java.io.IOException;
+import java.util.Map;
 import javax.annotation.Nonnull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -15,10 +16,14 @@ import org.opensearch.client.indices.GetIndexResponse;
 import org.opensearch.common.xcontent.XContentType;
 import org.opensearch.index.query.QueryBuilders;
 import org.opensearch.script.Script;
+import org.opensearch.script.ScriptType;
 
 @Slf4j
 @RequiredArgsConstructor
 public class ESWriteDAO {
+  // Runs on an empty upsert when the document is missing, which is then not created
+  private static final String UPDATE_IF_EXISTS_SCRIPT =
+      "if (ctx.op == 'create') { ctx.op = 'none' } else { ctx._source.putAll(params.fields) }";
 
   private final EntityRegistry entityRegistry;
   private final RestHighLevelClient searchClient;
@@ -70,6 +75,31 @@ public class ESWriteDAO {
     bulkProcessor.add(updateRequest);
   }
 
+  /**
+   * Sets fields of the document with the given document ID, if it exists. A missing document is
+   * left missing.
+   *
+   * @param entityName name of the entity
+   * @param docId the ID of the document
+   * @param fields the fields to set
+   */
+  public void updateFieldsIfExists(
+      @Nonnull String entityName, @Nonnull String docId, @Nonnull Map<String, Object> fields) {
+    final String indexName = indexConvention.getIndexName(entityRegistry.getEntitySpec(entityName));
+    UpdateRequest updateRequest =
+        new UpdateRequest(indexName, docId)
+            .scriptedUpsert(true)
+            .upsert(Map.of())
+            .retryOnConflict(numRetries)
+            .script(
+                new Script(
+                    ScriptType.INLINE,
+                    Script.DEFAULT_SCRIPT_LANG,
+                    UPDATE_IF_EXISTS_SCRIPT,
+                    Map.of("fields", fields)));
+    bulkProcessor.add(updateRequest);
+  }
+
   /** Clear all documents in all the indices */
   public void clear() {
     String[] indices = getIndices(indexConvention.getAllEntityIndicesPattern());
@@ -7,6 +7,7 @@ import static com.linkedin.metadata.search.utils.SearchUtils.isUrn;
 
 import com.google.common.collect.ImmutableList;
 import com.linkedin.metadata.aspect.AspectRetriever;
+import com.linkedin.metadata.graph.impact.LineageImpactService;
 import com.linkedin.metadata.models.EntitySpec;
 import com.linkedin.metadata.models.SearchableFieldSpec;
 import com.linkedin.metadata.models.StructuredPropertyUtils;
@@ -329,7 +330,8 @@ public class ESUtils {
             break;
           }
         }
-        if (fieldTypeForDefault.isEmpty()) {
+        if (fieldTypeForDefault.isEmpty()
+            && !LineageImpactService.COUNT_FIELDS.contains(sortCriteria.getField())) {
           log.warn(
               "Sort criterion field "
                   + sortCriteria.getField()
@@ -347,6 +349,10 @@ public class ESUtils {
             sortBuilder.unmappedType(esFieldtype);
           }
         }
+        if (LineageImpactService.COUNT_FIELDS.contains(sortCriteria.getField())) {
+          // Entities without lineage have no counts, and indices built before the counts none
+          sortBuilder.unmappedType(LONG_FIELD_TYPE).missing(0);
+        }
         searchSourceBuilder.sort(sortBuilder);
       }
     }
@@ -15,6 +15,7 @@ import com.linkedin.common.urn.Urn;
 import com.linkedin.common.urn.UrnUtils;
 import com.linkedin.data.template.RecordTemplate;
 import com.linkedin.datajob.DataJobInputOutput;
+import com.linkedin.dataset.DatasetUsageStatistics;
 import com.linkedin.dataset.FineGrainedLineage;
 import com.linkedin.dataset.FineGrainedLineageArray;
 import com.linkedin.dataset.UpstreamLineage;
@@ -28,7 +29,9 @@ import com.linkedin.metadata.entity.ebean.batch.MCLItemImpl;
 import com.linkedin.metadata.graph.Edge;
 import com.linkedin.metadata.graph.GraphIndexUtils;
 import com.linkedin.metadata.graph.GraphService;
+import com.linkedin.metadata.graph.SiblingGraphService;
 import com.linkedin.metadata.graph.dgraph.DgraphGraphService;
+import com.linkedin.metadata.graph.impact.LineageImpactService;
 import com.linkedin.metadata.key.SchemaFieldKey;
 import com.linkedin.metadata.models.AspectSpec;
 import com.linkedin.metadata.models.EntitySpec;
@@ -40,10 +43,12 @@ import com.linkedin.metadata.query.filter.Filter;
 import com.linkedin.metadata.query.filter.RelationshipDirection;
 import com.linkedin.metadata.search.EntitySearchService;
 import com.linkedin.metadata.search.elasticsearch.indexbuilder.EntityIndexBuilders;
+import com.linkedin.metadata.search.elasticsearch.query.BrowseTreeIndex;
 import com.linkedin.metadata.search.transformer.SearchDocumentTransformer;
 import com.linkedin.metadata.search.utils.SearchUtils;
 import com.linkedin.metadata.systemmetadata.SystemMetadataService;
 import com.linkedin.metadata.timeseries.TimeseriesAspectService;
+import com.linkedin.metadata.timeseries.elastic.rollup.UsageRollupService;
 import com.linkedin.metadata.timeseries.transformer.TimeseriesAspectTransformer;
 import com.linkedin.metadata.utils.EntityKeyUtils;
 import com.linkedin.mxe.MetadataChangeLog;
@@ -65,6 +70,7 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 
@@ -82,6 +88,11 @@ public class UpdateIndicesService implements SearchIndicesService {
   private AspectRetriever aspectRetriever;
   private EntityRegistry _entityRegistry;
 
+  @Setter @Nullable private UsageRollupService usageRollupService;
+  @Setter @Nullable private LineageImpactService lineageImpactService;
+  @Setter @Nullable private SiblingGraphService siblingGraphService;
+  @Setter @Nullable private BrowseTreeIndex browseTreeIndex;
+
   @Value("${featureFlags.graphServiceDiffModeEnabled:true}")
   private boolean _graphDiffMode;
 
@@ -124,9 +135,22 @@ public class UpdateIndicesService implements SearchIndicesService {
 
   @Override
   public void handleChangeEvent(@Nonnull final MetadataChangeLog event) {
-    try {
-      MCLItemImpl batch = MCLItemImpl.builder().build(event, aspectRetriever);
+    handleChangeEvent(MCLItemImpl.builder().build(event, aspectRetriever));
+  }
 
+  /**
+   * Same as {@link #handleChangeEvent(MetadataChangeLog)} for a change log whose aspects the caller
+   * has already deserialized, so they are not decoded a second time.
+   */
+  public void handleChangeEvent(
+      @Nonnull final MetadataChangeLog event,
+      @Nullable final RecordTemplate aspect,
+      @Nullable final RecordTemplate previousAspect) {
+    handleChangeEvent(MCLItemImpl.builder().build(event, aspect, previousAspect, aspectRetriever));
+  }
+
+  private void handleChangeEvent(@Nonnull final MCLItemImpl batch) {
+    try {
       Stream<MCLItem> sideEffects =
           AspectsBatch.applyMCLSideEffects(List.of(batch), aspectRetriever);
 
@@ -181,21 +205,39 @@ public class UpdateIndicesService implements SearchIndicesService {
     // Step 1. Handle StructuredProperties Index Mapping changes
     updateIndexMappings(entitySpec, aspectSpec, aspect, previousAspect);
 
-    // Step 2. For all aspects, attempt to update Search
+    // Step 2. Move the entity in the materialized browse tree, which reads the search document of
+    // an entity it has no state for, so before updating it. Restated and force indexed aspects did
+    // not change.
+    SystemMetadata systemMetadata = event.getSystemMetadata();
+    if (browseTreeIndex != null
+        && event.getMetadataChangeLog().getChangeType() != ChangeType.RESTATE
+        && !isForceIndexing(systemMetadata)) {
+      browseTreeIndex.onAspectChanged(urn, event.getAspectName(), previousAspect, aspect);
+    }
+
+    // Step 3. For all aspects, attempt to update Search
     updateSearchService(
         entitySpec.getName(), urn, aspectSpec, aspect, event.getSystemMetadata(), previousAspect);
 
-    // Step 3. For all aspects, attempt to update Graph
-    SystemMetadata systemMetadata = event.getSystemMetadata();
+    // Step 4. For all aspects, attempt to update Graph
     if (_graphDiffMode
         && !(_graphService instanceof DgraphGraphService)
-        && (systemMetadata == null
-            || systemMetadata.getProperties() == null
-            || !Boolean.parseBoolean(systemMetadata.getProperties().get(FORCE_INDEXING_KEY)))) {
+        && !isForceIndexing(systemMetadata)) {
       updateGraphServiceDiff(urn, aspectSpec, previousAspect, aspect, event.getMetadataChangeLog());
     } else {
-      updateGraphService(urn, aspectSpec, aspect, event.getMetadataChangeLog());
+      updateGraphService(urn, aspectSpec, previousAspect, aspect, event.getMetadataChangeLog());
     }
+
+    // Step 5. Drop the cached sibling group used by sibling lineage
+    if (siblingGraphService != null && SIBLINGS_ASPECT_NAME.equals(event.getAspectName())) {
+      siblingGraphService.invalidateSiblings(urn);
+    }
+  }
+
+  private static boolean isForceIndexing(@Nullable SystemMetadata systemMetadata) {
+    return systemMetadata != null
+        && systemMetadata.getProperties() != null
+        && Boolean.parseBoolean(systemMetadata.getProperties().get(FORCE_INDEXING_KEY));
   }
 
   public void updateIndexMappings(
@@ -215,8 +257,13 @@ public class UpdateIndicesService implements SearchIndicesService {
                       new StructuredPropertyDefinition(recordTemplate.data()).getEntityTypes())
               .orElse(new UrnArray());
 
-      StructuredPropertyDefinition newDefinition =
-          new StructuredPropertyDefinition(newValue.data());
+      // The new value may be shared with other consumers of the change, it is left untouched
+      StructuredPropertyDefinition newDefinition;
+      try {
+        newDefinition = new StructuredPropertyDefinition(newValue.data().copy());
+      } catch (CloneNotSupportedException e) {
+        throw new IllegalStateException(e);
+      }
       newDefinition.getEntityTypes().removeAll(oldEntityTypes);
 
       if (newDefinition.getEntityTypes().size() > 0) {
@@ -267,11 +314,25 @@ public class UpdateIndicesService implements SearchIndicesService {
     Boolean isDeletingKey = event.getAspectName().equals(entitySpec.getKeyAspectName());
 
     if (!aspectSpec.isTimeseries()) {
+      if (browseTreeIndex != null) {
+        // Reads the search document of an entity it has no state for, so before deleting it
+        if (isDeletingKey) {
+          browseTreeIndex.onEntityDeleted(urn);
+        } else {
+          browseTreeIndex.onAspectChanged(
+              urn, event.getAspectName(), event.getPreviousRecordTemplate(), null);
+        }
+      }
       deleteSystemMetadata(urn, aspectSpec, isDeletingKey);
       deleteGraphData(urn, aspectSpec, aspect, isDeletingKey, event.getMetadataChangeLog());
       deleteSearchData(
           _entitySearchService, urn, entitySpec.getName(), aspectSpec, aspect, isDeletingKey);
     }
+
+    if (siblingGraphService != null
+        && (isDeletingKey || SIBLINGS_ASPECT_NAME.equals(event.getAspectName()))) {
+      siblingGraphService.invalidateSiblings(urn);
+    }
   }
 
   // TODO: remove this method once we implement sourceOverride when creating graph edges
@@ -407,10 +468,14 @@ public class UpdateIndicesService implements SearchIndicesService {
     return Pair.of(edgesToAdd, urnToRelationshipTypesBeingAdded);
   }
 
-  /** Process snapshot and update graph index */
+  /**
+   * Process snapshot and update graph index. The edges of the previous version of the aspect are
+   * removed by id, edges left behind by earlier versions are cleaned up without waiting for it.
+   */
   private void updateGraphService(
       @Nonnull final Urn urn,
       @Nonnull final AspectSpec aspectSpec,
+      @Nullable final RecordTemplate oldAspect,
       @Nonnull final RecordTemplate aspect,
       @Nonnull final MetadataChangeLog event) {
     Pair<List<Edge>, HashMap<Urn, Set<String>>> edgeAndRelationTypes =
@@ -420,18 +485,38 @@ public class UpdateIndicesService implements SearchIndicesService {
     final HashMap<Urn, Set<String>> urnToRelationshipTypesBeingAdded =
         edgeAndRelationTypes.getSecond();
 
+    final Set<Edge> newEdgeSet = new HashSet<>(edgesToAdd);
+    final List<Edge> edgesToRemove =
+        oldAspect == null
+            ? Collections.emptyList()
+            : getEdgesAndRelationshipTypesFromAspect(urn, aspectSpec, oldAspect, event, false)
+                .getFirst()
+                .stream()
+                .filter(edge -> !newEdgeSet.contains(edge))
+                .collect(Collectors.toList());
+    if (!edgesToRemove.isEmpty()) {
+      log.debug("Removing edges: {}", edgesToRemove);
+      edgesToRemove.forEach(_graphService::removeEdge);
+    }
+
     log.debug("Here's the relationship types found {}", urnToRelationshipTypesBeingAdded);
     if (!urnToRelationshipTypesBeingAdded.isEmpty()) {
       for (Map.Entry<Urn, Set<String>> entry : urnToRelationshipTypesBeingAdded.entrySet()) {
-        _graphService.removeEdgesFromNode(
+        _graphService.removeEdgesFromNodeAsync(
             entry.getKey(),
             new ArrayList<>(entry.getValue()),
             newRelationshipFilter(
                 new Filter().setOr(new ConjunctiveCriterionArray()),
-                RelationshipDirection.OUTGOING));
+                RelationshipDirection.OUTGOING),
+            edgesToAdd);
       }
       edgesToAdd.forEach(_graphService::addEdge);
     }
+    if (lineageImpactService != null && (!edgesToAdd.isEmpty() || !edgesToRemove.isEmpty())) {
+      // Edges left behind by earlier versions are unknown, their removal is picked up by the next
+      // rebuild
+      lineageImpactService.onEdgesChanged(edgesToAdd, edgesToRemove);
+    }
   }
 
   private void updateGraphServiceDiff(
@@ -486,6 +571,10 @@ public class UpdateIndicesService implements SearchIndicesService {
       log.debug("Updating edges: {}", mergedEdges);
       mergedEdges.forEach(_graphService::upsertEdge);
     }
+
+    if (lineageImpactService != null) {
+      lineageImpactService.onEdgesChanged(additiveDifference, subtractiveDifference);
+    }
   }
 
   private static List<Edge> getMergedEdges(final Set<Edge> oldEdgeSet, final Set<Edge> newEdgeSet) {
@@ -538,10 +627,7 @@ public class UpdateIndicesService implements SearchIndicesService {
     }
 
     String searchDocumentValue = searchDocument.get();
-    if (_searchDiffMode
-        && (systemMetadata == null
-            || systemMetadata.getProperties() == null
-            || !Boolean.parseBoolean(systemMetadata.getProperties().get(FORCE_INDEXING_KEY)))) {
+    if (_searchDiffMode && !isForceIndexing(systemMetadata)) {
       if (previousAspect != null) {
         try {
           previousSearchDocument =
@@ -588,6 +674,9 @@ public class UpdateIndicesService implements SearchIndicesService {
               _timeseriesAspectService.upsertDocument(
                   entityType, aspectName, document.getKey(), document.getValue());
             });
+    if (usageRollupService != null && UsageRollupService.ASPECT_NAME.equals(aspectName)) {
+      usageRollupService.markDirty(urn, ((DatasetUsageStatistics) aspect).getTimestampMillis());
+    }
   }
 
   private void updateSystemMetadata(
@@ -621,7 +710,12 @@ public class UpdateIndicesService implements SearchIndicesService {
       @Nonnull final Boolean isKeyAspect,
       @Nonnull final MetadataChangeLog event) {
     if (isKeyAspect) {
+      // Synchronous, a delete still pending when the entity is created again would remove its new
+      // edges
       _graphService.removeNode(urn);
+      if (lineageImpactService != null) {
+        lineageImpactService.onEntityDeleted(urn);
+      }
       return;
     }
 
@@ -631,6 +725,9 @@ public class UpdateIndicesService implements SearchIndicesService {
     final HashMap<Urn, Set<String>> urnToRelationshipTypesBeingAdded =
         edgeAndRelationTypes.getSecond();
     if (urnToRelationshipTypesBeingAdded.size() > 0) {
+      // The edges of the deleted aspect are removed by id, any others it left behind right away,
+      // like the entity deletes above
+      edgeAndRelationTypes.getFirst().forEach(_graphService::removeEdge);
       for (Map.Entry<Urn, Set<String>> entry : urnToRelationshipTypesBeingAdded.entrySet()) {
         _graphService.removeEdgesFromNode(
             entry.getKey(),
@@ -639,6 +736,10 @@ public class UpdateIndicesService implements SearchIndicesService {
                 new Filter().setOr(new ConjunctiveCriterionArray()),
                 RelationshipDirection.OUTGOING));
       }
+      if (lineageImpactService != null) {
+        lineageImpactService.onEdgesChanged(
+            Collections.emptyList(), edgeAndRelationTypes.getFirst());
+      }
     }
   }
 
@@ -9,7 +9,9 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.StreamReadConstraints;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.annotations.VisibleForTesting;
 import com.linkedin.common.urn.Urn;
+import com.linkedin.common.urn.UrnUtils;
 import com.linkedin.data.ByteString;
 import com.linkedin.metadata.aspect.AspectRetriever;
 import com.linkedin.metadata.aspect.EnvelopedAspect;
@@ -50,6 +52,8 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -60,6 +64,7 @@ import javax.annotation.Nullable;
 import lombok.extern.slf4j.Slf4j;
 import org.opensearch.action.search.SearchRequest;
 import org.opensearch.action.search.SearchResponse;
+import org.opensearch.action.support.IndicesOptions;
 import org.opensearch.action.update.UpdateRequest;
 import org.opensearch.client.Request;
 import org.opensearch.client.RequestOptions;
@@ -71,11 +76,14 @@ import org.opensearch.client.tasks.TaskSubmissionResponse;
 import org.opensearch.common.unit.TimeValue;
 import org.opensearch.common.xcontent.XContentType;
 import org.opensearch.index.query.BoolQueryBuilder;
+import org.opensearch.index.query.InnerHitBuilder;
 import org.opensearch.index.query.QueryBuilder;
 import org.opensearch.index.query.QueryBuilders;
 import org.opensearch.search.SearchHit;
 import org.opensearch.search.SearchHits;
 import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.search.collapse.CollapseBuilder;
+import org.opensearch.search.sort.FieldSortBuilder;
 import org.opensearch.search.sort.SortBuilders;
 import org.opensearch.search.sort.SortOrder;
 
@@ -95,6 +103,7 @@ public class ElasticSearchTimeseriesAspectService
   }
 
   private static final Integer DEFAULT_LIMIT = 10000;
+  private static final String LATEST_VALUES_INNER_HITS = "latest";
 
   private final IndexConvention indexConvention;
   private final ESBulkProcessor bulkProcessor;
@@ -249,7 +258,7 @@ public class ElasticSearchTimeseriesAspectService
       @Nonnull String aspectName,
       @Nonnull String docId,
       @Nonnull JsonNode document) {
-    String indexName = indexConvention.getTimeseriesAspectIndexName(entityName, aspectName);
+    String indexName = indexBuilders.getWriteIndexName(entityName, aspectName, document);
     final UpdateRequest updateRequest =
         new UpdateRequest(indexName, docId)
             .detectNoop(false)
@@ -264,6 +273,10 @@ public class ElasticSearchTimeseriesAspectService
     List<TimeseriesIndexSizeResult> res = new ArrayList<>();
     try {
       String indicesPattern = indexConvention.getAllTimeseriesAspectIndicesPattern();
+      if (indexBuilders.isPartitioned()) {
+        // Sizes are reported per partition, each still resolves to its entity and aspect
+        indicesPattern = indicesPattern + "," + indicesPattern + "_p*";
+      }
       Response r =
           searchClient
               .getLowLevelClient()
@@ -298,7 +311,7 @@ public class ElasticSearchTimeseriesAspectService
       @Nonnull final String entityName,
       @Nonnull final String aspectName,
       @Nullable final Filter filter) {
-    final String indexName = indexConvention.getTimeseriesAspectIndexName(entityName, aspectName);
+    final String[] indexNames = getQueryIndexNames(entityName, aspectName, filter, null, null);
     final BoolQueryBuilder filterQueryBuilder =
         QueryBuilders.boolQuery()
             .must(
@@ -309,7 +322,8 @@ public class ElasticSearchTimeseriesAspectService
                     aspectRetriever));
     CountRequest countRequest = new CountRequest();
     countRequest.query(filterQueryBuilder);
-    countRequest.indices(indexName);
+    countRequest.indices(indexNames);
+    countRequest.indicesOptions(getIndicesOptions());
     try {
       CountResponse resp = searchClient.count(countRequest, RequestOptions.DEFAULT);
       return resp.getCount();
@@ -373,8 +387,9 @@ public class ElasticSearchTimeseriesAspectService
     final SearchRequest searchRequest = new SearchRequest();
     searchRequest.source(searchSourceBuilder);
 
-    String indexName = indexConvention.getTimeseriesAspectIndexName(entityName, aspectName);
-    searchRequest.indices(indexName);
+    searchRequest.indices(
+        getQueryIndexNames(entityName, aspectName, filter, startTimeMillis, endTimeMillis));
+    searchRequest.indicesOptions(getIndicesOptions());
 
     log.debug("Search request is: " + searchRequest);
     SearchHits hits;
@@ -392,6 +407,106 @@ public class ElasticSearchTimeseriesAspectService
         .collect(Collectors.toList());
   }
 
+  /**
+   * Collapses hits on the urn so one query returns the newest documents of every entity, instead
+   * of issuing {@link #getAspectValues} per entity.
+   */
+  @Nonnull
+  @Override
+  public Map<Urn, List<EnvelopedAspect>> getLatestAspectValues(
+      @Nonnull final Set<Urn> urns,
+      @Nonnull final String entityName,
+      @Nonnull final String aspectName,
+      @Nullable final Long startTimeMillis,
+      @Nullable final Long endTimeMillis,
+      final int limit,
+      @Nullable final Filter filter,
+      @Nullable final SortCriterion sort) {
+    if (urns.isEmpty() || limit <= 0) {
+      return Collections.emptyMap();
+    }
+    Map<String, Set<SearchableAnnotation.FieldType>> searchableFieldTypes =
+        entityRegistry.getEntitySpec(entityName).getSearchableFieldTypes();
+    final BoolQueryBuilder filterQueryBuilder =
+        QueryBuilders.boolQuery()
+            .filter(ESUtils.buildFilterQuery(filter, true, searchableFieldTypes, aspectRetriever));
+    filterQueryBuilder.filter(
+        QueryBuilders.termsQuery(
+            MappingsBuilder.URN_FIELD,
+            urns.stream().map(Urn::toString).collect(Collectors.toList())));
+    // NOTE: We are interested only in the un-exploded rows as only they carry the `event` payload.
+    filterQueryBuilder.mustNot(QueryBuilders.termQuery(MappingsBuilder.IS_EXPLODED_FIELD, true));
+    if (startTimeMillis != null) {
+      Criterion startTimeCriterion =
+          new Criterion()
+              .setField(MappingsBuilder.TIMESTAMP_MILLIS_FIELD)
+              .setCondition(Condition.GREATER_THAN_OR_EQUAL_TO)
+              .setValue(startTimeMillis.toString());
+      filterQueryBuilder.filter(
+          ESUtils.getQueryBuilderFromCriterion(startTimeCriterion, true, searchableFieldTypes));
+    }
+    if (endTimeMillis != null) {
+      Criterion endTimeCriterion =
+          new Criterion()
+              .setField(MappingsBuilder.TIMESTAMP_MILLIS_FIELD)
+              .setCondition(Condition.LESS_THAN_OR_EQUAL_TO)
+              .setValue(endTimeMillis.toString());
+      filterQueryBuilder.filter(
+          ESUtils.getQueryBuilderFromCriterion(endTimeCriterion, true, searchableFieldTypes));
+    }
+
+    final FieldSortBuilder sortBuilder =
+        sort != null
+            ? SortBuilders.fieldSort(sort.getField())
+                .order(
+                    sort.getOrder() == com.linkedin.metadata.query.filter.SortOrder.ASCENDING
+                        ? SortOrder.ASC
+                        : SortOrder.DESC)
+            : SortBuilders.fieldSort(MappingsBuilder.TIMESTAMP_FIELD).order(SortOrder.DESC);
+    // The top hit of each collapsed group is the latest value, further ones come as inner hits
+    final CollapseBuilder collapseBuilder = new CollapseBuilder(MappingsBuilder.URN_FIELD);
+    if (limit > 1) {
+      collapseBuilder.setInnerHits(
+          new InnerHitBuilder(LATEST_VALUES_INNER_HITS).setSize(limit).addSort(sortBuilder));
+    }
+    final SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder();
+    searchSourceBuilder.query(filterQueryBuilder);
+    searchSourceBuilder.size(urns.size());
+    searchSourceBuilder.sort(sortBuilder);
+    searchSourceBuilder.collapse(collapseBuilder);
+
+    final SearchRequest searchRequest = new SearchRequest();
+    searchRequest.source(searchSourceBuilder);
+    searchRequest.indices(
+        getQueryIndexNames(entityName, aspectName, filter, startTimeMillis, endTimeMillis));
+    searchRequest.indicesOptions(getIndicesOptions());
+
+    log.debug("Search request is: " + searchRequest);
+    SearchHits hits;
+    try (Timer.Context ignored =
+        MetricUtils.timer(this.getClass(), "getLatestAspectValues_search").time()) {
+      hits = searchClient.search(searchRequest, RequestOptions.DEFAULT).getHits();
+    } catch (Exception e) {
+      log.error("Search query failed:", e);
+      throw new ESQueryException("Search query failed:", e);
+    }
+
+    final Map<Urn, List<EnvelopedAspect>> results = new HashMap<>();
+    for (SearchHit hit : hits.getHits()) {
+      Urn urn = UrnUtils.getUrn((String) hit.getSourceAsMap().get(MappingsBuilder.URN_FIELD));
+      SearchHits latestHits =
+          hit.getInnerHits() != null ? hit.getInnerHits().get(LATEST_VALUES_INNER_HITS) : null;
+      results.put(
+          urn,
+          latestHits != null
+              ? Arrays.stream(latestHits.getHits())
+                  .map(ElasticSearchTimeseriesAspectService::parseDocument)
+                  .collect(Collectors.toList())
+              : List.of(parseDocument(hit)));
+    }
+    return results;
+  }
+
   @Override
   @Nonnull
   public GenericTable getAggregatedStats(
@@ -401,7 +516,13 @@ public class ElasticSearchTimeseriesAspectService
       @Nullable Filter filter,
       @Nullable GroupingBucket[] groupingBuckets) {
     return esAggregatedStatsDAO.getAggregatedStats(
-        entityName, aspectName, aggregationSpecs, filter, groupingBuckets);
+        entityName,
+        aspectName,
+        aggregationSpecs,
+        filter,
+        groupingBuckets,
+        getQueryIndexNames(entityName, aspectName, filter, null, null),
+        getIndicesOptions());
   }
 
   /**
@@ -420,7 +541,7 @@ public class ElasticSearchTimeseriesAspectService
   @Override
   public DeleteAspectValuesResult deleteAspectValues(
       @Nonnull String entityName, @Nonnull String aspectName, @Nonnull Filter filter) {
-    final String indexName = indexConvention.getTimeseriesAspectIndexName(entityName, aspectName);
+    final String[] indexNames = getExistingIndexNames(entityName, aspectName, filter);
     final BoolQueryBuilder filterQueryBuilder =
         ESUtils.buildFilterQuery(
             filter,
@@ -431,7 +552,11 @@ public class ElasticSearchTimeseriesAspectService
     final Optional<DeleteAspectValuesResult> result =
         bulkProcessor
             .deleteByQuery(
-                filterQueryBuilder, false, DEFAULT_LIMIT, TimeValue.timeValueMinutes(10), indexName)
+                filterQueryBuilder,
+                false,
+                DEFAULT_LIMIT,
+                TimeValue.timeValueMinutes(10),
+                indexNames)
             .map(
                 response ->
                     new DeleteAspectValuesResult().setNumDocsDeleted(response.getDeleted()));
@@ -451,7 +576,7 @@ public class ElasticSearchTimeseriesAspectService
       @Nonnull String aspectName,
       @Nonnull Filter filter,
       @Nonnull BatchWriteOperationsOptions options) {
-    final String indexName = indexConvention.getTimeseriesAspectIndexName(entityName, aspectName);
+    final String[] indexNames = getExistingIndexNames(entityName, aspectName, filter);
     final BoolQueryBuilder filterQueryBuilder =
         ESUtils.buildFilterQuery(
             filter,
@@ -464,7 +589,8 @@ public class ElasticSearchTimeseriesAspectService
             ? TimeValue.timeValueSeconds(options.getTimeoutSeconds())
             : null;
     final Optional<TaskSubmissionResponse> result =
-        bulkProcessor.deleteByQueryAsync(filterQueryBuilder, false, batchSize, timeout, indexName);
+        bulkProcessor.deleteByQueryAsync(
+            filterQueryBuilder, false, batchSize, timeout, indexNames);
 
     if (result.isPresent()) {
       return result.get().getTask();
@@ -562,7 +688,11 @@ public class ElasticSearchTimeseriesAspectService
 
     SearchResponse response =
         executeScrollSearchQuery(
-            entityName, aspectName, filterQueryBuilder, sortCriterion, scrollId, count);
+            getQueryIndexNames(entityName, aspectName, filter, startTimeMillis, endTimeMillis),
+            filterQueryBuilder,
+            sortCriterion,
+            scrollId,
+            count);
     int totalCount = (int) response.getHits().getTotalHits().value;
 
     List<Pair<EnvelopedAspect, GenericTimeseriesDocument>> resultPairs =
@@ -579,8 +709,7 @@ public class ElasticSearchTimeseriesAspectService
   }
 
   private SearchResponse executeScrollSearchQuery(
-      @Nonnull final String entityName,
-      @Nonnull final String aspectName,
+      @Nonnull final String[] indexNames,
       @Nonnull final QueryBuilder query,
       @Nonnull List<SortCriterion> sortCriterion,
       @Nullable String scrollId,
@@ -602,7 +731,8 @@ public class ElasticSearchTimeseriesAspectService
     searchRequest.source(searchSourceBuilder);
     ESUtils.setSearchAfter(searchSourceBuilder, sort, null, null);
 
-    searchRequest.indices(indexConvention.getTimeseriesAspectIndexName(entityName, aspectName));
+    searchRequest.indices(indexNames);
+    searchRequest.indicesOptions(getIndicesOptions());
 
     try (Timer.Context ignored =
         MetricUtils.timer(this.getClass(), "scrollAspects_search").time()) {
@@ -612,4 +742,118 @@ public class ElasticSearchTimeseriesAspectService
       throw new ESQueryException("Search query failed:", e);
     }
   }
+
+  /**
+   * Returns the indices holding documents in the time range implied by the filter and the given
+   * bounds. Only differs from the aspect index when it is partitioned by time.
+   */
+  private String[] getQueryIndexNames(
+      @Nonnull String entityName,
+      @Nonnull String aspectName,
+      @Nullable Filter filter,
+      @Nullable Long startTimeMillis,
+      @Nullable Long endTimeMillis) {
+    Pair<Long, Long> range = getTimeRange(filter);
+    return indexBuilders.getQueryIndexNames(
+        entityName,
+        aspectName,
+        latest(startTimeMillis, range.getFirst()),
+        earliest(endTimeMillis, range.getSecond()));
+  }
+
+  private String[] getExistingIndexNames(
+      @Nonnull String entityName, @Nonnull String aspectName, @Nullable Filter filter) {
+    Pair<Long, Long> range = getTimeRange(filter);
+    return indexBuilders.getExistingIndexNames(
+        entityName, aspectName, range.getFirst(), range.getSecond());
+  }
+
+  /** Partitions are only created on first write, so searches may name ones that do not exist. */
+  private IndicesOptions getIndicesOptions() {
+    return indexBuilders.isPartitioned()
+        ? IndicesOptions.lenientExpandOpen()
+        : SearchRequest.DEFAULT_INDICES_OPTIONS;
+  }
+
+  /**
+   * Returns the timestampMillis range every document matching the filter falls in, with null for
+   * a bound the filter leaves open. A bound only counts if every conjunction of the filter sets
+   * it, and negated criteria are ignored.
+   */
+  @VisibleForTesting
+  static Pair<Long, Long> getTimeRange(@Nullable Filter filter) {
+    List<List<Criterion>> conjunctions = new ArrayList<>();
+    if (filter != null && filter.hasOr()) {
+      filter.getOr().forEach(conjunction -> conjunctions.add(conjunction.getAnd()));
+    } else if (filter != null && filter.hasCriteria()) {
+      conjunctions.add(filter.getCriteria());
+    }
+    if (conjunctions.isEmpty()) {
+      return Pair.of(null, null);
+    }
+    Long start = null;
+    Long end = null;
+    boolean startBounded = true;
+    boolean endBounded = true;
+    for (List<Criterion> conjunction : conjunctions) {
+      Long conjunctionStart = null;
+      Long conjunctionEnd = null;
+      for (Criterion criterion : conjunction) {
+        if (!MappingsBuilder.TIMESTAMP_MILLIS_FIELD.equals(criterion.getField())
+            || criterion.isNegated()) {
+          continue;
+        }
+        Long value = parseTimestamp(criterion);
+        if (value == null) {
+          continue;
+        }
+        switch (criterion.getCondition()) {
+          case GREATER_THAN:
+          case GREATER_THAN_OR_EQUAL_TO:
+            conjunctionStart = latest(conjunctionStart, value);
+            break;
+          case LESS_THAN:
+          case LESS_THAN_OR_EQUAL_TO:
+            conjunctionEnd = earliest(conjunctionEnd, value);
+            break;
+          default:
+            break;
+        }
+      }
+      startBounded &= conjunctionStart != null;
+      endBounded &= conjunctionEnd != null;
+      start = startBounded ? earliest(start, conjunctionStart) : null;
+      end = endBounded ? latest(end, conjunctionEnd) : null;
+    }
+    return Pair.of(start, end);
+  }
+
+  @Nullable
+  private static Long parseTimestamp(@Nonnull Criterion criterion) {
+    String value =
+        criterion.hasValues() && criterion.getValues().size() == 1
+            ? criterion.getValues().get(0)
+            : criterion.getValue();
+    try {
+      return value != null ? Long.parseLong(value) : null;
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  @Nullable
+  private static Long latest(@Nullable Long first, @Nullable Long second) {
+    if (first == null || second == null) {
+      return first != null ? first : second;
+    }
+    return Math.max(first, second);
+  }
+
+  @Nullable
+  private static Long earliest(@Nullable Long first, @Nullable Long second) {
+    if (first == null || second == null) {
+      return first != null ? first : second;
+    }
+    return Math.min(first, second);
+  }
 }
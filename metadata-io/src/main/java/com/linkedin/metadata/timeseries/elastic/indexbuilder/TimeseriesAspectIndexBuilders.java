@@ -1,5 +1,9 @@
 package com.linkedin.metadata.timeseries.elastic.indexbuilder;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.linkedin.metadata.config.search.ElasticSearchConfiguration;
+import com.linkedin.metadata.config.search.TimeseriesPartitionConfiguration;
+import com.linkedin.metadata.models.AspectSpec;
 import com.linkedin.metadata.models.EntitySpec;
 import com.linkedin.metadata.models.registry.EntityRegistry;
 import com.linkedin.metadata.search.elasticsearch.indexbuilder.ESIndexBuilder;
@@ -10,35 +14,158 @@ import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
 import com.linkedin.structured.StructuredPropertyDefinition;
 import com.linkedin.util.Pair;
 import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.opensearch.index.query.QueryBuilder;
 
 @Slf4j
-@RequiredArgsConstructor
 public class TimeseriesAspectIndexBuilders implements ElasticSearchIndexed {
   @Nonnull private final ESIndexBuilder indexBuilder;
   @Nonnull private final EntityRegistry entityRegistry;
   @Nonnull private final IndexConvention indexConvention;
+  // Null unless timeseries indices are split into time partitions
+  @Nullable private final TimeseriesIndexPartitions partitions;
+
+  public TimeseriesAspectIndexBuilders(
+      @Nonnull ESIndexBuilder indexBuilder,
+      @Nonnull EntityRegistry entityRegistry,
+      @Nonnull IndexConvention indexConvention) {
+    this.indexBuilder = indexBuilder;
+    this.entityRegistry = entityRegistry;
+    this.indexConvention = indexConvention;
+    ElasticSearchConfiguration elasticSearchConfiguration =
+        indexBuilder.getElasticSearchConfiguration();
+    TimeseriesPartitionConfiguration partitionConfiguration =
+        elasticSearchConfiguration != null
+            ? elasticSearchConfiguration.getTimeseriesPartition()
+            : null;
+    this.partitions =
+        partitionConfiguration != null && partitionConfiguration.isEnabled()
+            ? new TimeseriesIndexPartitions(indexBuilder.getSearchClient(), partitionConfiguration)
+            : null;
+  }
+
+  public boolean isPartitioned() {
+    return partitions != null;
+  }
+
+  /** Returns the index a timeseries document is written to, based on its event time. */
+  @Nonnull
+  public String getWriteIndexName(
+      @Nonnull String entityName, @Nonnull String aspectName, @Nonnull JsonNode document) {
+    String indexName = indexConvention.getTimeseriesAspectIndexName(entityName, aspectName);
+    if (partitions == null) {
+      return indexName;
+    }
+    JsonNode timestamp = document.get(MappingsBuilder.TIMESTAMP_MILLIS_FIELD);
+    return partitions.getWriteIndexName(
+        indexName, timestamp != null && timestamp.isNumber() ? timestamp.asLong() : null);
+  }
+
+  /**
+   * Returns the indices to search for events in the given inclusive range, either bound being
+   * optional. Partitioned names may not exist yet so searches must ignore missing indices.
+   */
+  @Nonnull
+  public String[] getQueryIndexNames(
+      @Nonnull String entityName,
+      @Nonnull String aspectName,
+      @Nullable Long startTimeMillis,
+      @Nullable Long endTimeMillis) {
+    String indexName = indexConvention.getTimeseriesAspectIndexName(entityName, aspectName);
+    if (partitions == null) {
+      return new String[] {indexName};
+    }
+    return partitions.getQueryIndexNames(indexName, startTimeMillis, endTimeMillis);
+  }
+
+  /** Same as {@link #getQueryIndexNames} limited to indices that exist, bypassing any cache. */
+  @Nonnull
+  public String[] getExistingIndexNames(
+      @Nonnull String entityName,
+      @Nonnull String aspectName,
+      @Nullable Long startTimeMillis,
+      @Nullable Long endTimeMillis) {
+    String indexName = indexConvention.getTimeseriesAspectIndexName(entityName, aspectName);
+    if (partitions == null) {
+      return new String[] {indexName};
+    }
+    try {
+      List<String> indexNames =
+          partitions.getExistingIndexNames(indexName, startTimeMillis, endTimeMillis);
+      return indexNames.isEmpty() ? new String[] {indexName} : indexNames.toArray(new String[0]);
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
 
   @Override
   public void reindexAll() {
-    for (ReindexConfig config : buildReindexConfigs()) {
+    if (partitions != null) {
+      reindexAllPartitioned();
+      return;
+    }
+    indexBuilder.buildIndices(buildReindexConfigs());
+  }
+
+  private void reindexAllPartitioned() {
+    for (Pair<EntitySpec, AspectSpec> pair : getTimeseriesAspects()) {
+      String alias =
+          indexConvention.getTimeseriesAspectIndexName(
+              pair.getFirst().getName(), pair.getSecond().getName());
       try {
-        indexBuilder.buildIndex(config);
+        ReindexConfig template = buildPartitionReindexState(alias, alias, pair.getSecond());
+        partitions.migrateUnpartitioned(alias, template);
+        partitions.putTemplate(alias, template, true);
+        indexBuilder.buildIndices(buildPartitionReindexConfigs(alias, pair.getSecond()));
+        partitions.dropExpiredPartitions(alias);
       } catch (IOException e) {
         throw new RuntimeException(e);
       }
     }
   }
 
+  private List<ReindexConfig> buildPartitionReindexConfigs(String alias, AspectSpec aspectSpec)
+      throws IOException {
+    List<ReindexConfig> configs = new ArrayList<>();
+    for (LocalDate start : new TreeSet<>(partitions.listPartitions(alias).values())) {
+      configs.add(
+          buildPartitionReindexState(
+              TimeseriesIndexPartitions.getPartitionIndexName(alias, start), alias, aspectSpec));
+    }
+    return configs;
+  }
+
+  /** Partitions take their setting overrides from the alias they sit behind. */
+  private ReindexConfig buildPartitionReindexState(
+      String indexName, String alias, AspectSpec aspectSpec) throws IOException {
+    Map<String, Object> settings =
+        new HashMap<>(indexBuilder.getIndexSettingOverrides().getOrDefault(alias, Map.of()));
+    return indexBuilder.buildReindexState(
+        indexName, MappingsBuilder.getMappings(aspectSpec), settings);
+  }
+
+  private List<Pair<EntitySpec, AspectSpec>> getTimeseriesAspects() {
+    return entityRegistry.getEntitySpecs().values().stream()
+        .flatMap(
+            entitySpec ->
+                entitySpec.getAspectSpecs().stream()
+                    .map(aspectSpec -> Pair.of(entitySpec, aspectSpec)))
+        .filter(pair -> pair.getSecond().isTimeseries())
+        .collect(Collectors.toList());
+  }
+
   public String reindexAsync(
       String index, @Nullable QueryBuilder filterQuery, BatchWriteOperationsOptions options)
       throws Exception {
@@ -48,6 +175,14 @@ public class TimeseriesAspectIndexBuilders implements ElasticSearchIndexed {
     }
     String entityName = entityAndAspect.get().getFirst();
     String aspectName = entityAndAspect.get().getSecond();
+    if (partitions != null
+        && TimeseriesIndexPartitions.parsePartitionStart(
+                indexConvention.getTimeseriesAspectIndexName(entityName, aspectName), index)
+            .isEmpty()) {
+      throw new UnsupportedOperationException(
+          String.format(
+              "%s is partitioned by time, reindex its partitions individually instead", index));
+    }
     EntitySpec entitySpec = entityRegistry.getEntitySpec(entityName);
     for (String aspect : entitySpec.getAspectSpecMap().keySet()) {
       if (aspect.toLowerCase().equals(aspectName)) {
@@ -70,12 +205,22 @@ public class TimeseriesAspectIndexBuilders implements ElasticSearchIndexed {
 
   @Override
   public List<ReindexConfig> buildReindexConfigs() {
-    return entityRegistry.getEntitySpecs().values().stream()
-        .flatMap(
-            entitySpec ->
-                entitySpec.getAspectSpecs().stream()
-                    .map(aspectSpec -> Pair.of(entitySpec, aspectSpec)))
-        .filter(pair -> pair.getSecond().isTimeseries())
+    if (partitions != null) {
+      List<ReindexConfig> configs = new ArrayList<>();
+      for (Pair<EntitySpec, AspectSpec> pair : getTimeseriesAspects()) {
+        try {
+          configs.addAll(
+              buildPartitionReindexConfigs(
+                  indexConvention.getTimeseriesAspectIndexName(
+                      pair.getFirst().getName(), pair.getSecond().getName()),
+                  pair.getSecond()));
+        } catch (IOException e) {
+          throw new RuntimeException(e);
+        }
+      }
+      return configs;
+    }
+    return getTimeseriesAspects().stream()
         .map(
             pair -> {
               try {
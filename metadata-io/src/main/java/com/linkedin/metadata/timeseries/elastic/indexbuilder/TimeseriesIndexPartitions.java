@@ -0,0 +1,428 @@
+package com.linkedin.metadata.timeseries.elastic.indexbuilder;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.linkedin.metadata.config.search.TimeseriesPartitionConfiguration;
+import com.linkedin.metadata.search.elasticsearch.indexbuilder.ReindexConfig;
+import java.io.IOException;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.client.config.RequestConfig;
+import org.opensearch.action.admin.indices.delete.DeleteIndexRequest;
+import org.opensearch.action.admin.indices.settings.put.UpdateSettingsRequest;
+import org.opensearch.client.Request;
+import org.opensearch.client.RequestOptions;
+import org.opensearch.client.Response;
+import org.opensearch.client.RestHighLevelClient;
+import org.opensearch.client.indices.GetIndexRequest;
+import org.opensearch.common.settings.Settings;
+
+/**
+ * Lays a timeseries aspect index out as one backing index per span of event time, all behind an
+ * alias carrying the unpartitioned index name. Backing indices are named {@code
+ * <alias>_p<yyyyMMdd>} after the first day (UTC) of their span and are created on first write
+ * from an index template holding the aspect mappings and the alias, so writes never need to check
+ * whether they exist.
+ *
+ * <p>Queries bounded in time only hit the backing indices overlapping their range, and retention
+ * drops whole backing indices instead of deleting documents.
+ */
+@Slf4j
+public class TimeseriesIndexPartitions {
+  private static final String PARTITION_SEPARATOR = "_p";
+  private static final DateTimeFormatter PARTITION_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+  private static final int TEMPLATE_PRIORITY = 100;
+  private static final long MIGRATION_TIMEOUT_HOURS = 8;
+  private static final String MIGRATION_SCRIPT =
+      "if (ctx._source.timestampMillis != null) {"
+          + " long t = ((Number) ctx._source.timestampMillis).longValue();"
+          + " LocalDate d = Instant.ofEpochMilli(t).atZone(ZoneOffset.UTC).toLocalDate();"
+          + " if (params.interval == 'MONTHS') { d = d.withDayOfMonth(1); }"
+          + " else if (params.interval == 'WEEKS') {"
+          + " d = d.minusDays(d.getDayOfWeek().getValue() - 1); }"
+          + " ctx._index = params.alias + '_p' + d.format(DateTimeFormatter.BASIC_ISO_DATE); }";
+  // Waiting on a task is polled in short requests so the default socket timeout never trips
+  private static final String TASK_WAIT_TIMEOUT = "20s";
+  private static final RequestOptions REQUEST_OPTIONS =
+      RequestOptions.DEFAULT.toBuilder()
+          .setRequestConfig(RequestConfig.custom().setSocketTimeout(180 * 1000).build())
+          .build();
+
+  private final RestHighLevelClient searchClient;
+  @Getter private final ChronoUnit interval;
+  private final long retentionMillis;
+  @Nullable private final Cache<String, Set<LocalDate>> partitionCache;
+
+  public TimeseriesIndexPartitions(
+      @Nonnull RestHighLevelClient searchClient,
+      @Nonnull TimeseriesPartitionConfiguration configuration) {
+    this.searchClient = searchClient;
+    this.interval =
+        configuration.getInterval() == null
+            ? ChronoUnit.MONTHS
+            : ChronoUnit.valueOf(configuration.getInterval().toUpperCase());
+    if (interval != ChronoUnit.DAYS
+        && interval != ChronoUnit.WEEKS
+        && interval != ChronoUnit.MONTHS) {
+      throw new IllegalArgumentException(
+          "Timeseries partition interval must be DAYS, WEEKS or MONTHS, got " + interval);
+    }
+    this.retentionMillis =
+        configuration.getRetentionValue() > 0
+            ? TimeUnit.MILLISECONDS.convert(
+                configuration.getRetentionValue(),
+                TimeUnit.valueOf(
+                    Optional.ofNullable(configuration.getRetentionUnit())
+                        .orElse("DAYS")
+                        .toUpperCase()))
+            : 0;
+    this.partitionCache =
+        configuration.getListCacheSeconds() > 0
+            ? CacheBuilder.newBuilder()
+                .expireAfterWrite(configuration.getListCacheSeconds(), TimeUnit.SECONDS)
+                .build()
+            : null;
+  }
+
+  /** Returns the first day of the partition holding events at the given time. */
+  @Nonnull
+  public LocalDate getPartitionStart(long timestampMillis) {
+    LocalDate day = Instant.ofEpochMilli(timestampMillis).atZone(ZoneOffset.UTC).toLocalDate();
+    switch (interval) {
+      case WEEKS:
+        return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+      case MONTHS:
+        return day.withDayOfMonth(1);
+      default:
+        return day;
+    }
+  }
+
+  private long toMillis(@Nonnull LocalDate day) {
+    return day.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+  }
+
+  @Nonnull
+  public static String getPartitionIndexName(@Nonnull String alias, @Nonnull LocalDate start) {
+    return alias + PARTITION_SEPARATOR + PARTITION_FORMAT.format(start);
+  }
+
+  /**
+   * Returns the start of the partition an index backs, accepting both a freshly created backing
+   * index and one renamed by a reindex, which is suffixed with the time it was built at.
+   */
+  @Nonnull
+  public static Optional<LocalDate> parsePartitionStart(
+      @Nonnull String alias, @Nonnull String indexName) {
+    Matcher matcher =
+        Pattern.compile(Pattern.quote(alias) + PARTITION_SEPARATOR + "(\\d{8})(_\\d+)?")
+            .matcher(indexName);
+    if (!matcher.matches()) {
+      return Optional.empty();
+    }
+    return Optional.of(LocalDate.parse(matcher.group(1), PARTITION_FORMAT));
+  }
+
+  /** Returns the backing index a document with the given event time is written to. */
+  @Nonnull
+  public String getWriteIndexName(@Nonnull String alias, @Nullable Long timestampMillis) {
+    LocalDate start =
+        getPartitionStart(timestampMillis != null ? timestampMillis : System.currentTimeMillis());
+    addCachedPartition(alias, start);
+    return getPartitionIndexName(alias, start);
+  }
+
+  /**
+   * Returns the indices to query for events in the given inclusive range. The names may include
+   * the current partition before its first write, so requests must tolerate missing indices.
+   */
+  @Nonnull
+  public String[] getQueryIndexNames(
+      @Nonnull String alias, @Nullable Long startTimeMillis, @Nullable Long endTimeMillis) {
+    if (startTimeMillis == null && endTimeMillis == null) {
+      return new String[] {alias};
+    }
+    Optional<Set<LocalDate>> cached = getCachedPartitions(alias);
+    if (cached.isEmpty()) {
+      return new String[] {alias};
+    }
+    Set<LocalDate> partitions = new TreeSet<>(cached.get());
+    // The partition for the current time may have been created after the list was cached
+    partitions.add(getPartitionStart(System.currentTimeMillis()));
+    List<String> indexNames = selectPartitions(alias, partitions, startTimeMillis, endTimeMillis);
+    if (indexNames.isEmpty()) {
+      // Nothing overlaps the range, target a partition that does not exist to get no hits cheaply
+      return new String[] {
+        getPartitionIndexName(
+            alias,
+            getPartitionStart(startTimeMillis != null ? startTimeMillis : endTimeMillis))
+      };
+    }
+    return indexNames.toArray(new String[0]);
+  }
+
+  /**
+   * Returns the existing indices holding events in the given inclusive range, read without the
+   * cache, for operations such as deletes that must not miss a partition.
+   */
+  @Nonnull
+  public List<String> getExistingIndexNames(
+      @Nonnull String alias, @Nullable Long startTimeMillis, @Nullable Long endTimeMillis)
+      throws IOException {
+    return selectPartitions(alias, listPartitions(alias).values(), startTimeMillis, endTimeMillis);
+  }
+
+  @VisibleForTesting
+  @Nonnull
+  List<String> selectPartitions(
+      @Nonnull String alias,
+      @Nonnull Collection<LocalDate> partitions,
+      @Nullable Long startTimeMillis,
+      @Nullable Long endTimeMillis) {
+    return partitions.stream()
+        .distinct()
+        .sorted()
+        .filter(
+            start ->
+                (endTimeMillis == null || toMillis(start) <= endTimeMillis)
+                    && (startTimeMillis == null
+                        || toMillis(start.plus(1, interval)) > startTimeMillis))
+        .map(start -> getPartitionIndexName(alias, start))
+        .collect(Collectors.toList());
+  }
+
+  /** Returns the partition starts of the alias, empty when they cannot be listed. */
+  @Nonnull
+  private Optional<Set<LocalDate>> getCachedPartitions(@Nonnull String alias) {
+    try {
+      if (partitionCache == null) {
+        return Optional.of(Set.copyOf(listPartitions(alias).values()));
+      }
+      return Optional.of(
+          partitionCache.get(alias, () -> Set.copyOf(listPartitions(alias).values())));
+    } catch (Exception e) {
+      // Missing a partition would silently drop history, the whole alias is always complete
+      log.warn("Failed to list partitions of {}, querying the whole alias", alias, e);
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Adds the partition a write goes to, created by the write if it does not exist yet, to the
+   * cached list so queries see it before the list is read again.
+   */
+  private void addCachedPartition(@Nonnull String alias, @Nonnull LocalDate start) {
+    if (partitionCache != null) {
+      partitionCache
+          .asMap()
+          .computeIfPresent(
+              alias,
+              (key, cached) -> {
+                if (cached.contains(start)) {
+                  return cached;
+                }
+                Set<LocalDate> partitions = new TreeSet<>(cached);
+                partitions.add(start);
+                return Collections.unmodifiableSet(partitions);
+              });
+    }
+  }
+
+  /** Returns every concrete backing index of the alias along with the start of its partition. */
+  @Nonnull
+  public Map<String, LocalDate> listPartitions(@Nonnull String alias) throws IOException {
+    String[] indices =
+        searchClient
+            .indices()
+            .get(new GetIndexRequest(alias + PARTITION_SEPARATOR + "*"), RequestOptions.DEFAULT)
+            .getIndices();
+    Map<String, LocalDate> partitions = new TreeMap<>();
+    for (String index : indices) {
+      parsePartitionStart(alias, index).ifPresent(start -> partitions.put(index, start));
+    }
+    return partitions;
+  }
+
+  /**
+   * Creates or updates the index template new backing indices are created from. Mappings and
+   * settings come from the reindex config of the alias so partitions match what an unpartitioned
+   * index would be built with.
+   */
+  public void putTemplate(@Nonnull String alias, @Nonnull ReindexConfig config, boolean withAlias)
+      throws IOException {
+    Map<String, Object> template = new TreeMap<>();
+    template.put("settings", config.targetSettings());
+    template.put("mappings", config.targetMappings());
+    if (withAlias) {
+      template.put("aliases", Map.of(alias, Map.of()));
+    }
+    Map<String, Object> body =
+        Map.of(
+            "index_patterns",
+            List.of(alias + PARTITION_SEPARATOR + "*"),
+            "priority",
+            TEMPLATE_PRIORITY,
+            "template",
+            template);
+    Request request = new Request("PUT", "/_index_template/" + alias);
+    request.setJsonEntity(OBJECT_MAPPER.writeValueAsString(body));
+    searchClient.getLowLevelClient().performRequest(request);
+  }
+
+  /**
+   * Moves documents out of indices created before partitioning was enabled into backing indices,
+   * then removes them so the alias only covers partitions. Does nothing once migrated.
+   */
+  public void migrateUnpartitioned(@Nonnull String alias, @Nonnull ReindexConfig config)
+      throws IOException {
+    if (!searchClient.indices().exists(new GetIndexRequest(alias), RequestOptions.DEFAULT)) {
+      return;
+    }
+    String[] unpartitioned =
+        Arrays.stream(
+                searchClient
+                    .indices()
+                    .get(new GetIndexRequest(alias), RequestOptions.DEFAULT)
+                    .getIndices())
+            .filter(index -> parsePartitionStart(alias, index).isEmpty())
+            .toArray(String[]::new);
+    if (unpartitioned.length == 0) {
+      return;
+    }
+    log.info("Migrating {} into {} partitions", Arrays.toString(unpartitioned), interval);
+
+    // The alias cannot be added to backing indices while it still names a concrete index
+    putTemplate(alias, config, false);
+    searchClient
+        .indices()
+        .putSettings(
+            new UpdateSettingsRequest(unpartitioned)
+                .settings(Settings.builder().put("index.blocks.write", true).build()),
+            REQUEST_OPTIONS);
+
+    Map<String, Object> body =
+        Map.of(
+            "source",
+            Map.of("index", List.of(unpartitioned)),
+            "dest",
+            Map.of("index", getWriteIndexName(alias, null), "op_type", "index"),
+            "script",
+            Map.of(
+                "lang",
+                "painless",
+                "source",
+                MIGRATION_SCRIPT,
+                "params",
+                Map.of("alias", alias, "interval", interval.name())));
+    Request reindex = new Request("POST", "/_reindex");
+    reindex.addParameter("wait_for_completion", "false");
+    reindex.setJsonEntity(OBJECT_MAPPER.writeValueAsString(body));
+    String taskId =
+        (String) readBody(searchClient.getLowLevelClient().performRequest(reindex)).get("task");
+    waitForTask(taskId);
+
+    searchClient.indices().delete(new DeleteIndexRequest(unpartitioned), REQUEST_OPTIONS);
+    putTemplate(alias, config, true);
+    Request addAlias = new Request("POST", "/_aliases");
+    addAlias.setJsonEntity(
+        OBJECT_MAPPER.writeValueAsString(
+            Map.of(
+                "actions",
+                List.of(
+                    Map.of(
+                        "add",
+                        Map.of("index", alias + PARTITION_SEPARATOR + "*", "alias", alias))))));
+    searchClient.getLowLevelClient().performRequest(addAlias);
+    invalidate(alias);
+    log.info("Migrated {} into partitions", alias);
+  }
+
+  private void waitForTask(@Nonnull String taskId) throws IOException {
+    long deadline = System.currentTimeMillis() + TimeUnit.HOURS.toMillis(MIGRATION_TIMEOUT_HOURS);
+    while (System.currentTimeMillis() < deadline) {
+      Request request = new Request("GET", "/_tasks/" + taskId);
+      request.addParameter("wait_for_completion", "true");
+      request.addParameter("timeout", TASK_WAIT_TIMEOUT);
+      Map<String, Object> task;
+      try {
+        task = readBody(searchClient.getLowLevelClient().performRequest(request));
+      } catch (IOException e) {
+        // The task API answers with a timeout error while the task is still running
+        log.debug("Task {} still running", taskId, e);
+        continue;
+      }
+      if (Boolean.TRUE.equals(task.get("completed"))) {
+        Object error = task.get("error");
+        Object failures =
+            task.get("response") instanceof Map
+                ? ((Map<?, ?>) task.get("response")).get("failures")
+                : null;
+        if (error != null || (failures instanceof List && !((List<?>) failures).isEmpty())) {
+          throw new IllegalStateException(
+              String.format(
+                  "Migration task %s failed: %s", taskId, Objects.toString(error, "" + failures)));
+        }
+        return;
+      }
+    }
+    throw new IllegalStateException(
+        String.format(
+            "Migration task %s did not complete within %s hours", taskId, MIGRATION_TIMEOUT_HOURS));
+  }
+
+  /** Deletes backing indices whose whole span is older than the configured retention. */
+  public void dropExpiredPartitions(@Nonnull String alias) throws IOException {
+    if (retentionMillis <= 0) {
+      return;
+    }
+    long cutoff = System.currentTimeMillis() - retentionMillis;
+    String[] expired =
+        listPartitions(alias).entrySet().stream()
+            .filter(entry -> toMillis(entry.getValue().plus(1, interval)) <= cutoff)
+            .map(Map.Entry::getKey)
+            .toArray(String[]::new);
+    if (expired.length > 0) {
+      log.info("Dropping expired partitions {}", Arrays.toString(expired));
+      searchClient.indices().delete(new DeleteIndexRequest(expired), REQUEST_OPTIONS);
+      invalidate(alias);
+    }
+  }
+
+  private void invalidate(@Nonnull String alias) {
+    if (partitionCache != null) {
+      partitionCache.invalidate(alias);
+    }
+  }
+
+  @Nonnull
+  private static Map<String, Object> readBody(@Nonnull Response response) throws IOException {
+    return OBJECT_MAPPER.readValue(response.getEntity().getContent(), new TypeReference<>() {});
+  }
+}
@@ -34,6 +34,7 @@ import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.opensearch.action.search.SearchRequest;
 import org.opensearch.action.search.SearchResponse;
+import org.opensearch.action.support.IndicesOptions;
 import org.opensearch.client.RequestOptions;
 import org.opensearch.client.RestHighLevelClient;
 import org.opensearch.index.query.BoolQueryBuilder;
@@ -378,6 +379,30 @@ public class ESAggregatedStatsDAO {
       @Nonnull AggregationSpec[] aggregationSpecs,
       @Nullable Filter filter,
       @Nullable GroupingBucket[] groupingBuckets) {
+    return getAggregatedStats(
+        entityName,
+        aspectName,
+        aggregationSpecs,
+        filter,
+        groupingBuckets,
+        new String[] {indexConvention.getTimeseriesAspectIndexName(entityName, aspectName)},
+        SearchRequest.DEFAULT_INDICES_OPTIONS);
+  }
+
+  /**
+   * Same as {@link #getAggregatedStats(String, String, AggregationSpec[], Filter,
+   * GroupingBucket[])} run against the given indices, such as the time partitions overlapping the
+   * filter.
+   */
+  @Nonnull
+  public GenericTable getAggregatedStats(
+      @Nonnull String entityName,
+      @Nonnull String aspectName,
+      @Nonnull AggregationSpec[] aggregationSpecs,
+      @Nullable Filter filter,
+      @Nullable GroupingBucket[] groupingBuckets,
+      @Nonnull String[] indexNames,
+      @Nonnull IndicesOptions indicesOptions) {
 
     // Setup the filter query builder using the input filter provided.
     final BoolQueryBuilder filterQueryBuilder =
@@ -408,8 +433,8 @@ public class ESAggregatedStatsDAO {
     final SearchRequest searchRequest = new SearchRequest();
     searchRequest.source(searchSourceBuilder);
 
-    final String indexName = indexConvention.getTimeseriesAspectIndexName(entityName, aspectName);
-    searchRequest.indices(indexName);
+    searchRequest.indices(indexNames);
+    searchRequest.indicesOptions(indicesOptions);
 
     log.debug("Search request is: " + searchRequest);
 
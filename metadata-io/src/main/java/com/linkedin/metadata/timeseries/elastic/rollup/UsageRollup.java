@@ -0,0 +1,77 @@
+package com.linkedin.metadata.timeseries.elastic.rollup;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.util.HashMap;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.Getter;
+
+/** Per user and per field usage counts of a dataset over a time range. */
+@Getter
+public class UsageRollup {
+  private static final String USERS = "users";
+  private static final String USER = "user";
+  private static final String USER_EMAIL = "userEmail";
+  private static final String FIELDS = "fields";
+  private static final String FIELD_PATH = "fieldPath";
+  private static final String COUNT = "count";
+
+  private final Map<String, Long> userCounts = new HashMap<>();
+  private final Map<String, String> userEmails = new HashMap<>();
+  private final Map<String, Long> fieldCounts = new HashMap<>();
+
+  public void addUser(@Nonnull String user, long count, @Nullable String userEmail) {
+    userCounts.merge(user, count, Long::sum);
+    if (userEmail != null) {
+      userEmails.put(user, userEmail);
+    }
+  }
+
+  public void addField(@Nonnull String fieldPath, long count) {
+    fieldCounts.merge(fieldPath, count, Long::sum);
+  }
+
+  public void merge(@Nonnull UsageRollup other) {
+    other.userCounts.forEach((user, count) -> addUser(user, count, other.userEmails.get(user)));
+    other.fieldCounts.forEach(this::addField);
+  }
+
+  ObjectNode toJson() {
+    ObjectNode node = JsonNodeFactory.instance.objectNode();
+    ArrayNode users = node.putArray(USERS);
+    userCounts.forEach(
+        (user, count) -> {
+          ObjectNode userNode = users.addObject();
+          userNode.put(USER, user);
+          userNode.put(COUNT, count);
+          userNode.put(USER_EMAIL, userEmails.get(user));
+        });
+    ArrayNode fields = node.putArray(FIELDS);
+    fieldCounts.forEach(
+        (fieldPath, count) -> {
+          ObjectNode fieldNode = fields.addObject();
+          fieldNode.put(FIELD_PATH, fieldPath);
+          fieldNode.put(COUNT, count);
+        });
+    return node;
+  }
+
+  static UsageRollup fromJson(@Nonnull JsonNode node) {
+    UsageRollup rollup = new UsageRollup();
+    node.path(USERS)
+        .forEach(
+            user ->
+                rollup.addUser(
+                    user.get(USER).asText(),
+                    user.path(COUNT).asLong(),
+                    user.path(USER_EMAIL).asText(null)));
+    node.path(FIELDS)
+        .forEach(
+            field -> rollup.addField(field.get(FIELD_PATH).asText(), field.path(COUNT).asLong()));
+    return rollup;
+  }
+}
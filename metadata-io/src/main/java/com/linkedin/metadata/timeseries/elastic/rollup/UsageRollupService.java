@@ -0,0 +1,503 @@
+package com.linkedin.metadata.timeseries.elastic.rollup;
+
+import com.codahale.metrics.Timer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.annotations.VisibleForTesting;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.data.template.StringArray;
+import com.linkedin.metadata.query.filter.Condition;
+import com.linkedin.metadata.query.filter.ConjunctiveCriterion;
+import com.linkedin.metadata.query.filter.ConjunctiveCriterionArray;
+import com.linkedin.metadata.query.filter.Criterion;
+import com.linkedin.metadata.query.filter.CriterionArray;
+import com.linkedin.metadata.query.filter.Filter;
+import com.linkedin.metadata.search.elasticsearch.update.ESBulkProcessor;
+import com.linkedin.metadata.timeseries.TimeseriesAspectService;
+import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
+import com.linkedin.metadata.utils.metrics.MetricUtils;
+import com.linkedin.timeseries.AggregationSpec;
+import com.linkedin.timeseries.AggregationType;
+import com.linkedin.timeseries.GenericTable;
+import com.linkedin.timeseries.GroupingBucket;
+import com.linkedin.timeseries.GroupingBucketType;
+import java.io.IOException;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+import lombok.Getter;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.opensearch.OpenSearchStatusException;
+import org.opensearch.action.get.MultiGetItemResponse;
+import org.opensearch.action.get.MultiGetRequest;
+import org.opensearch.action.get.MultiGetResponse;
+import org.opensearch.action.index.IndexRequest;
+import org.opensearch.action.search.SearchRequest;
+import org.opensearch.action.search.SearchResponse;
+import org.opensearch.action.update.UpdateRequest;
+import org.opensearch.client.RequestOptions;
+import org.opensearch.client.RestHighLevelClient;
+import org.opensearch.client.indices.CreateIndexRequest;
+import org.opensearch.client.indices.GetIndexRequest;
+import org.opensearch.common.xcontent.XContentType;
+import org.opensearch.index.query.QueryBuilders;
+import org.opensearch.rest.RestStatus;
+import org.opensearch.search.SearchHit;
+import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.search.sort.SortOrder;
+
+/**
+ * Maintains day, week and month rollups of dataset usage so that long usage queries do not
+ * aggregate every raw {@code datasetUsageStatistics} bucket of the range.
+ *
+ * <p>Upserts of usage buckets mark the day, week and month they fall into as dirty, on the rollup
+ * document of each period, so that dirty periods survive restarts and dirty rollups are never
+ * served. A background worker recomputes every dirty period once it has ended and has not been
+ * marked for a settle delay, which leaves time for the raw buckets to be flushed and refreshed. It
+ * aggregates the raw buckets of that period only and replaces the rollup document, unless the
+ * period was marked again in the meantime. Recomputing instead of adding makes re-ingested buckets
+ * idempotent. Queries are served from the coarsest rollups that fit in the range, and the parts of
+ * the range that are not covered, such as the current day or periods that are dirty or were never
+ * rolled up, are aggregated from the raw buckets.
+ */
+@Slf4j
+public class UsageRollupService implements AutoCloseable {
+  public static final String ENTITY_NAME = "dataset";
+  public static final String ASPECT_NAME = "datasetUsageStatistics";
+  public static final String INDEX_NAME = "datahub_usage_rollup";
+  private static final String ES_FIELD_TIMESTAMP = "timestampMillis";
+  private static final String ES_NULL_VALUE = "NULL";
+  private static final String URN = "urn";
+  private static final String GRANULARITY = "granularity";
+  private static final String PERIOD_START = "periodStart";
+  private static final String PERIOD_END = "periodEnd";
+  private static final String DIRTY = "dirty";
+  private static final String DIRTY_AT = "dirtyAt";
+  private static final String UPDATED_AT = "updatedAt";
+  private static final int NUM_RETRIES = 3;
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  /** Rollup periods, from the coarsest. Weeks start on Monday and all periods are in UTC. */
+  public enum Granularity {
+    MONTH,
+    WEEK,
+    DAY;
+
+    long start(long timestampMillis) {
+      ZonedDateTime day =
+          Instant.ofEpochMilli(timestampMillis).atZone(ZoneOffset.UTC).truncatedTo(ChronoUnit.DAYS);
+      switch (this) {
+        case MONTH:
+          return day.withDayOfMonth(1).toInstant().toEpochMilli();
+        case WEEK:
+          return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+              .toInstant()
+              .toEpochMilli();
+        default:
+          return day.toInstant().toEpochMilli();
+      }
+    }
+
+    long end(long periodStart) {
+      ZonedDateTime start = Instant.ofEpochMilli(periodStart).atZone(ZoneOffset.UTC);
+      switch (this) {
+        case MONTH:
+          return start.plusMonths(1).toInstant().toEpochMilli();
+        case WEEK:
+          return start.plusWeeks(1).toInstant().toEpochMilli();
+        default:
+          return start.plusDays(1).toInstant().toEpochMilli();
+      }
+    }
+  }
+
+  @Value
+  static class Period {
+    String urn;
+    Granularity granularity;
+    long start;
+
+    long getEnd() {
+      return granularity.end(start);
+    }
+
+    String getId() {
+      return urn + "|" + granularity + "|" + start;
+    }
+  }
+
+  /** Rollup periods and raw ranges, {@code [from, to)}, that together cover a query range. */
+  @Value
+  static class Plan {
+    List<Period> periods;
+    List<long[]> rawRanges;
+  }
+
+  private final TimeseriesAspectService timeseriesAspectService;
+  private final RestHighLevelClient searchClient;
+  private final ESBulkProcessor bulkProcessor;
+  private final String indexName;
+  @Getter private final boolean enabled;
+  private final long settleMillis;
+  private final int batchSize;
+  private final ScheduledExecutorService executorService =
+      Executors.newSingleThreadScheduledExecutor();
+  private volatile boolean indexCreated = false;
+
+  public UsageRollupService(
+      @Nonnull TimeseriesAspectService timeseriesAspectService,
+      @Nonnull RestHighLevelClient searchClient,
+      @Nonnull ESBulkProcessor bulkProcessor,
+      @Nonnull IndexConvention indexConvention,
+      boolean enabled,
+      long settleSeconds,
+      int batchSize) {
+    this.timeseriesAspectService = timeseriesAspectService;
+    this.searchClient = searchClient;
+    this.bulkProcessor = bulkProcessor;
+    this.indexName = indexConvention.getIndexName(INDEX_NAME);
+    this.enabled = enabled;
+    this.settleMillis = TimeUnit.SECONDS.toMillis(settleSeconds);
+    this.batchSize = batchSize;
+  }
+
+  /** Periodically roll up the dirty periods that have ended. */
+  public void startRollups(long intervalSeconds) {
+    if (enabled) {
+      executorService.scheduleWithFixedDelay(
+          () -> rollup(System.currentTimeMillis()),
+          intervalSeconds,
+          intervalSeconds,
+          TimeUnit.SECONDS);
+    }
+  }
+
+  /** Record that the usage bucket of {@code urn} starting at {@code timestampMillis} changed. */
+  public void markDirty(@Nonnull Urn urn, long timestampMillis) {
+    if (!enabled) {
+      return;
+    }
+    try {
+      ensureIndex();
+    } catch (IOException | OpenSearchStatusException e) {
+      // The periods are served from the raw buckets until they are marked again
+      MetricUtils.exceptionCounter(UsageRollupService.class, "markDirty", e);
+      log.warn("Failed to mark usage of {} dirty", urn, e);
+      return;
+    }
+    long now = System.currentTimeMillis();
+    for (Granularity granularity : Granularity.values()) {
+      Period period = new Period(urn.toString(), granularity, granularity.start(timestampMillis));
+      Map<String, Object> marker =
+          Map.of(
+              URN, period.getUrn(),
+              GRANULARITY, granularity.name(),
+              PERIOD_START, period.getStart(),
+              PERIOD_END, period.getEnd(),
+              DIRTY, true,
+              DIRTY_AT, now);
+      bulkProcessor.add(
+          new UpdateRequest(indexName, period.getId())
+              .detectNoop(false)
+              .docAsUpsert(true)
+              .doc(marker)
+              .retryOnConflict(NUM_RETRIES));
+    }
+  }
+
+  /**
+   * Usage counts of a dataset between {@code startTime} and {@code endTime}, both inclusive, served
+   * from rollups where possible.
+   */
+  @Nonnull
+  public UsageRollup getUsage(@Nonnull Urn urn, long startTime, long endTime) {
+    try (Timer.Context ignored = MetricUtils.timer(UsageRollupService.class, "getUsage").time()) {
+      Plan plan =
+          plan(
+              urn.toString(),
+              startTime,
+              endTime + 1,
+              Granularity.DAY.start(System.currentTimeMillis()));
+      List<long[]> rawRanges = new ArrayList<>(plan.getRawRanges());
+      Map<Period, UsageRollup> rollups = getRollups(plan.getPeriods());
+
+      UsageRollup usage = new UsageRollup();
+      for (Period period : plan.getPeriods()) {
+        UsageRollup rollup = rollups.get(period);
+        if (rollup != null) {
+          usage.merge(rollup);
+        } else {
+          rawRanges.add(new long[] {period.getStart(), period.getEnd()});
+        }
+      }
+      for (long[] range : coalesce(rawRanges)) {
+        usage.merge(aggregateRaw(urn.toString(), range[0], range[1]));
+      }
+      MetricUtils.counter(UsageRollupService.class, "rollupHits").inc(rollups.size());
+      return usage;
+    }
+  }
+
+  /**
+   * Cover {@code [startTime, endTime)} with the coarsest periods that fit and have ended before
+   * {@code closedBefore}. Whatever cannot be covered is left to the raw buckets.
+   */
+  @VisibleForTesting
+  static Plan plan(String urn, long startTime, long endTime, long closedBefore) {
+    List<Period> periods = new ArrayList<>();
+    List<long[]> rawRanges = new ArrayList<>();
+    long cursor = startTime;
+    while (cursor < endTime) {
+      Period period = null;
+      for (Granularity granularity : Granularity.values()) {
+        long end = granularity.end(cursor);
+        if (granularity.start(cursor) == cursor && end <= endTime && end <= closedBefore) {
+          period = new Period(urn, granularity, cursor);
+          break;
+        }
+      }
+      if (period != null) {
+        periods.add(period);
+        cursor = period.getEnd();
+        continue;
+      }
+      // Either not on a day boundary, or no whole closed day is left in the range
+      long dayStart = Granularity.DAY.start(cursor);
+      long next = dayStart == cursor ? endTime : Math.min(Granularity.DAY.end(dayStart), endTime);
+      rawRanges.add(new long[] {cursor, next});
+      cursor = next;
+    }
+    return new Plan(periods, coalesce(rawRanges));
+  }
+
+  /**
+   * Recompute up to a batch of dirty periods that have ended and settled by {@code now}. Open and
+   * unsettled periods, and periods that fail, stay dirty for a later run.
+   */
+  @VisibleForTesting
+  void rollup(long now) {
+    long closedBefore = Granularity.DAY.start(now);
+    try (Timer.Context ignored = MetricUtils.timer(UsageRollupService.class, "rollup").time()) {
+      ensureIndex();
+      SearchSourceBuilder source =
+          new SearchSourceBuilder()
+              .query(
+                  QueryBuilders.boolQuery()
+                      .filter(QueryBuilders.termQuery(DIRTY, true))
+                      .filter(QueryBuilders.rangeQuery(DIRTY_AT).lte(now - settleMillis))
+                      .filter(QueryBuilders.rangeQuery(PERIOD_END).lte(closedBefore)))
+              .sort(DIRTY_AT, SortOrder.ASC)
+              .size(batchSize)
+              .seqNoAndPrimaryTerm(true);
+      SearchResponse response =
+          searchClient.search(new SearchRequest(indexName).source(source), RequestOptions.DEFAULT);
+      for (SearchHit hit : response.getHits().getHits()) {
+        Map<String, Object> marker = hit.getSourceAsMap();
+        Period period =
+            new Period(
+                (String) marker.get(URN),
+                Granularity.valueOf((String) marker.get(GRANULARITY)),
+                ((Number) marker.get(PERIOD_START)).longValue());
+        try {
+          write(
+              period,
+              aggregateRaw(period.getUrn(), period.getStart(), period.getEnd()),
+              hit.getSeqNo(),
+              hit.getPrimaryTerm());
+        } catch (OpenSearchStatusException e) {
+          if (e.status() != RestStatus.CONFLICT) {
+            MetricUtils.exceptionCounter(UsageRollupService.class, "rollup", e);
+            log.warn("Failed to roll up usage of {}", period.getId(), e);
+          }
+          // Marked again while aggregating, rolled up once it settles
+        } catch (Exception e) {
+          MetricUtils.exceptionCounter(UsageRollupService.class, "rollup", e);
+          log.warn("Failed to roll up usage of {}", period.getId(), e);
+        }
+      }
+    } catch (Exception e) {
+      MetricUtils.exceptionCounter(UsageRollupService.class, "rollup", e);
+      log.error("Failed to roll up usage", e);
+    }
+  }
+
+  @Override
+  public void close() {
+    executorService.shutdownNow();
+  }
+
+  private Map<Period, UsageRollup> getRollups(List<Period> periods) {
+    Map<Period, UsageRollup> rollups = new HashMap<>();
+    if (periods.isEmpty()) {
+      return rollups;
+    }
+    MultiGetRequest request = new MultiGetRequest();
+    periods.forEach(period -> request.add(indexName, period.getId()));
+    try {
+      MultiGetResponse response = searchClient.mget(request, RequestOptions.DEFAULT);
+      for (int i = 0; i < periods.size(); i++) {
+        MultiGetItemResponse item = response.getResponses()[i];
+        if (item.isFailed() || !item.getResponse().isExists()) {
+          continue;
+        }
+        JsonNode document = OBJECT_MAPPER.readTree(item.getResponse().getSourceAsString());
+        // Dirty rollups are stale, or only mark a period that was never rolled up
+        if (!document.path(DIRTY).asBoolean(false)) {
+          rollups.put(periods.get(i), UsageRollup.fromJson(document));
+        }
+      }
+    } catch (IOException | OpenSearchStatusException e) {
+      // Missing rollups are aggregated from the raw buckets
+      log.warn("Failed to fetch usage rollups, aggregating raw buckets", e);
+    }
+    return rollups;
+  }
+
+  /** Replace the marker read at {@code seqNo}, failing with a conflict if it was marked again. */
+  private void write(Period period, UsageRollup rollup, long seqNo, long primaryTerm)
+      throws IOException {
+    ObjectNode document = rollup.toJson();
+    document.put(URN, period.getUrn());
+    document.put(GRANULARITY, period.getGranularity().name());
+    document.put(PERIOD_START, period.getStart());
+    document.put(PERIOD_END, period.getEnd());
+    document.put(DIRTY, false);
+    document.put(UPDATED_AT, System.currentTimeMillis());
+    searchClient.index(
+        new IndexRequest(indexName)
+            .id(period.getId())
+            .source(OBJECT_MAPPER.writeValueAsString(document), XContentType.JSON)
+            .setIfSeqNo(seqNo)
+            .setIfPrimaryTerm(primaryTerm),
+        RequestOptions.DEFAULT);
+  }
+
+  private UsageRollup aggregateRaw(String urn, long startTime, long endTime) {
+    Filter filter = rangeFilter(urn, startTime, endTime);
+    UsageRollup rollup = new UsageRollup();
+
+    GenericTable users =
+        timeseriesAspectService.getAggregatedStats(
+            ENTITY_NAME,
+            ASPECT_NAME,
+            new AggregationSpec[] {
+              new AggregationSpec()
+                  .setAggregationType(AggregationType.SUM)
+                  .setFieldPath("userCounts.count"),
+              new AggregationSpec()
+                  .setAggregationType(AggregationType.LATEST)
+                  .setFieldPath("userCounts.userEmail")
+            },
+            filter,
+            new GroupingBucket[] {
+              new GroupingBucket()
+                  .setKey("userCounts.user")
+                  .setType(GroupingBucketType.STRING_GROUPING_BUCKET)
+            });
+    for (StringArray row : users.getRows()) {
+      rollup.addUser(
+          row.get(0),
+          ES_NULL_VALUE.equals(row.get(1)) ? 0 : Long.parseLong(row.get(1)),
+          ES_NULL_VALUE.equals(row.get(2)) ? null : row.get(2));
+    }
+
+    GenericTable fields =
+        timeseriesAspectService.getAggregatedStats(
+            ENTITY_NAME,
+            ASPECT_NAME,
+            new AggregationSpec[] {
+              new AggregationSpec()
+                  .setAggregationType(AggregationType.SUM)
+                  .setFieldPath("fieldCounts.count")
+            },
+            filter,
+            new GroupingBucket[] {
+              new GroupingBucket()
+                  .setKey("fieldCounts.fieldPath")
+                  .setType(GroupingBucketType.STRING_GROUPING_BUCKET)
+            });
+    for (StringArray row : fields.getRows()) {
+      rollup.addField(
+          row.get(0), ES_NULL_VALUE.equals(row.get(1)) ? 0 : Long.parseLong(row.get(1)));
+    }
+    return rollup;
+  }
+
+  @VisibleForTesting
+  static Filter rangeFilter(String urn, long startTime, long endTime) {
+    CriterionArray criteria =
+        new CriterionArray(
+            new Criterion().setField(URN).setCondition(Condition.EQUAL).setValue(urn),
+            new Criterion()
+                .setField(ES_FIELD_TIMESTAMP)
+                .setCondition(Condition.GREATER_THAN_OR_EQUAL_TO)
+                .setValue(String.valueOf(startTime)),
+            new Criterion()
+                .setField(ES_FIELD_TIMESTAMP)
+                .setCondition(Condition.LESS_THAN)
+                .setValue(String.valueOf(endTime)));
+    return new Filter()
+        .setOr(new ConjunctiveCriterionArray(new ConjunctiveCriterion().setAnd(criteria)));
+  }
+
+  private static List<long[]> coalesce(List<long[]> ranges) {
+    List<long[]> sorted = new ArrayList<>(ranges);
+    sorted.sort((a, b) -> Long.compare(a[0], b[0]));
+    List<long[]> coalesced = new ArrayList<>();
+    for (long[] range : sorted) {
+      long[] last = coalesced.isEmpty() ? null : coalesced.get(coalesced.size() - 1);
+      if (last != null && last[1] >= range[0]) {
+        last[1] = Math.max(last[1], range[1]);
+      } else {
+        coalesced.add(new long[] {range[0], range[1]});
+      }
+    }
+    return coalesced;
+  }
+
+  private void ensureIndex() throws IOException {
+    if (indexCreated
+        || searchClient.indices().exists(new GetIndexRequest(indexName), RequestOptions.DEFAULT)) {
+      indexCreated = true;
+      return;
+    }
+    // Rollups are only read back by id, keep the counts out of the mappings
+    Map<String, Object> mappings =
+        Map.of(
+            "dynamic",
+            false,
+            "properties",
+            Map.of(
+                URN, Map.of("type", "keyword"),
+                GRANULARITY, Map.of("type", "keyword"),
+                PERIOD_START, Map.of("type", "date"),
+                PERIOD_END, Map.of("type", "date"),
+                DIRTY, Map.of("type", "boolean"),
+                DIRTY_AT, Map.of("type", "date"),
+                UPDATED_AT, Map.of("type", "date")));
+    try {
+      searchClient
+          .indices()
+          .create(new CreateIndexRequest(indexName).mapping(mappings), RequestOptions.DEFAULT);
+    } catch (OpenSearchStatusException e) {
+      if (e.status() != RestStatus.BAD_REQUEST) {
+        throw e;
+      }
+      // Created concurrently by another consumer
+    }
+    indexCreated = true;
+  }
+}
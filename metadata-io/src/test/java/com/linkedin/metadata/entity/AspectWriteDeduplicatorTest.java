@@ -0,0 +1,117 @@
+package com.linkedin.metadata.entity;
+
+import static com.linkedin.metadata.Constants.FORCE_INDEXING_KEY;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import com.linkedin.common.Status;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.common.urn.UrnUtils;
+import com.linkedin.data.template.RecordTemplate;
+import com.linkedin.data.template.StringMap;
+import com.linkedin.events.metadata.ChangeType;
+import com.linkedin.metadata.aspect.batch.BatchItem;
+import com.linkedin.mxe.SystemMetadata;
+import java.util.Map;
+import org.testng.annotations.Test;
+
+public class AspectWriteDeduplicatorTest {
+  private static final Urn URN =
+      UrnUtils.getUrn("urn:li:dataset:(urn:li:dataPlatform:hive,db.table,PROD)");
+
+  private static BatchItem item(
+      RecordTemplate value, ChangeType changeType, SystemMetadata systemMetadata) {
+    BatchItem item = mock(BatchItem.class);
+    when(item.getUrn()).thenReturn(URN);
+    when(item.getAspectName()).thenReturn("status");
+    when(item.getRecordTemplate()).thenReturn(value);
+    when(item.getChangeType()).thenReturn(changeType);
+    when(item.getSystemMetadata()).thenReturn(systemMetadata);
+    return item;
+  }
+
+  private static BatchItem upsert(RecordTemplate value) {
+    return item(value, ChangeType.UPSERT, new SystemMetadata().setRunId("run"));
+  }
+
+  @Test
+  public void testRecognizesLastStoredValue() {
+    AspectWriteDeduplicator deduplicator = new AspectWriteDeduplicator(true, 100, 60, 60);
+    assertFalse(deduplicator.isLikelyUnchanged(upsert(new Status().setRemoved(false)), false));
+
+    deduplicator.recordStored(URN, "status", new Status().setRemoved(false), 1, true);
+
+    assertTrue(deduplicator.isLikelyUnchanged(upsert(new Status().setRemoved(false)), false));
+    assertFalse(deduplicator.isLikelyUnchanged(upsert(new Status().setRemoved(true)), false));
+    // Aspects producing a change log on every write are never skipped
+    assertFalse(deduplicator.isLikelyUnchanged(upsert(new Status().setRemoved(false)), true));
+    // Nor are patches and forced writes
+    assertFalse(
+        deduplicator.isLikelyUnchanged(
+            item(new Status().setRemoved(false), ChangeType.PATCH, null), false));
+    SystemMetadata forced =
+        new SystemMetadata().setProperties(new StringMap(Map.of(FORCE_INDEXING_KEY, "true")));
+    assertFalse(
+        deduplicator.isLikelyUnchanged(
+            item(new Status().setRemoved(false), ChangeType.UPSERT, forced), false));
+  }
+
+  @Test
+  public void testLaterWriteWinsWhenRecordedOutOfOrder() {
+    AspectWriteDeduplicator deduplicator = new AspectWriteDeduplicator(true, 100, 60, 60);
+    deduplicator.recordStored(URN, "status", new Status().setRemoved(true), 2, true);
+    // An older write recorded late must not replace the newer value
+    deduplicator.recordStored(URN, "status", new Status().setRemoved(false), 1, true);
+    // An unchanged write that read the same version as the change it raced with ranks below it
+    deduplicator.recordStored(URN, "status", new Status().setRemoved(false), 2, false);
+
+    assertTrue(deduplicator.isLikelyUnchanged(upsert(new Status().setRemoved(true)), false));
+    assertFalse(deduplicator.isLikelyUnchanged(upsert(new Status().setRemoved(false)), false));
+  }
+
+  private static EntityAspect row(RecordTemplate value, String runId, long lastObserved) {
+    EntityAspect row = new EntityAspect();
+    row.setMetadata(EntityUtils.toJsonAspect(value));
+    row.setSystemMetadata(
+        EntityUtils.toJsonAspect(
+            new SystemMetadata()
+                .setRunId("first-run")
+                .setLastRunId(runId)
+                .setLastObserved(lastObserved)));
+    return row;
+  }
+
+  @Test
+  public void testStoredOnlyWhenLatestRowMatches() {
+    AspectWriteDeduplicator deduplicator = new AspectWriteDeduplicator(true, 100, 60, 60);
+    BatchItem item =
+        item(
+            new Status().setRemoved(false),
+            ChangeType.UPSERT,
+            new SystemMetadata().setRunId("run").setLastObserved(100000L));
+
+    assertTrue(deduplicator.isStored(item, row(new Status().setRemoved(false), "run", 90000L)));
+    // Changed by another writer
+    assertFalse(deduplicator.isStored(item, row(new Status().setRemoved(true), "run", 90000L)));
+    assertFalse(deduplicator.isStored(item, null));
+    // Every run refreshes the run id and last observed time of the row
+    assertFalse(
+        deduplicator.isStored(item, row(new Status().setRemoved(false), "other-run", 90000L)));
+    // As does a write observed too long after the row
+    assertFalse(deduplicator.isStored(item, row(new Status().setRemoved(false), "run", 1000L)));
+  }
+
+  @Test
+  public void testInvalidateAndDisabled() {
+    AspectWriteDeduplicator deduplicator = new AspectWriteDeduplicator(true, 100, 60, 60);
+    deduplicator.recordStored(URN, "status", new Status().setRemoved(false), 1, true);
+    deduplicator.invalidate(URN);
+    assertFalse(deduplicator.isLikelyUnchanged(upsert(new Status().setRemoved(false)), false));
+
+    AspectWriteDeduplicator disabled = new AspectWriteDeduplicator(false, 100, 60, 60);
+    disabled.recordStored(URN, "status", new Status().setRemoved(false), 1, true);
+    assertFalse(disabled.isLikelyUnchanged(upsert(new Status().setRemoved(false)), false));
+  }
+}
@@ -544,6 +544,61 @@ public abstract class EntityServiceTest<T_AD extends AspectDao, T_RS extends Ret
     verifyNoMoreInteractions(_mockProducer);
   }
 
+  @Test
+  public void testSkipsUnchangedWrites() throws Exception {
+    AspectWriteDeduplicator deduplicator = new AspectWriteDeduplicator(true, 100, 60, 60);
+    _entityServiceImpl.setWriteDeduplicator(deduplicator);
+    Urn entityUrn = UrnUtils.getUrn("urn:li:corpuser:test");
+    CorpUserInfo writeAspect = AspectGenerationUtils.createCorpUserInfo("email@test.com");
+    String aspectName = AspectGenerationUtils.getAspectName(writeAspect);
+    List<Pair<String, RecordTemplate>> pairToIngest =
+        List.of(getAspectRecordPair(writeAspect, CorpUserInfo.class));
+
+    _entityServiceImpl.ingestAspects(
+        entityUrn,
+        pairToIngest,
+        TEST_AUDIT_STAMP,
+        AspectGenerationUtils.createSystemMetadata(1625792689, "run-123"));
+    clearInvocations(_mockProducer);
+
+    // Written again by the same run soon after, neither the row nor a MCL is written
+    _entityServiceImpl.ingestAspects(
+        entityUrn,
+        pairToIngest,
+        TEST_AUDIT_STAMP,
+        AspectGenerationUtils.createSystemMetadata(1625793689, "run-123"));
+    verifyNoInteractions(_mockProducer);
+    SystemMetadata stored =
+        EntityUtils.parseSystemMetadata(
+            _aspectDao.getLatestAspect(entityUrn.toString(), aspectName).getSystemMetadata());
+    assertEquals(stored.getLastObserved(), 1625792689L);
+
+    // Another run refreshes the run id and last observed time of the row
+    _entityServiceImpl.ingestAspects(
+        entityUrn,
+        pairToIngest,
+        TEST_AUDIT_STAMP,
+        AspectGenerationUtils.createSystemMetadata(1625794689, "run-456"));
+    stored =
+        EntityUtils.parseSystemMetadata(
+            _aspectDao.getLatestAspect(entityUrn.toString(), aspectName).getSystemMetadata());
+    assertEquals(stored.getLastObserved(), 1625794689L);
+    assertEquals(stored.getLastRunId(), "run-456");
+
+    // Deletes forget the values written for the urn
+    ChangeItemImpl item =
+        ChangeItemImpl.builder()
+            .urn(entityUrn)
+            .aspectName(aspectName)
+            .recordTemplate(writeAspect)
+            .systemMetadata(AspectGenerationUtils.createSystemMetadata(1625794689, "run-456"))
+            .auditStamp(TEST_AUDIT_STAMP)
+            .build(_entityServiceImpl);
+    assertTrue(deduplicator.isLikelyUnchanged(item, false));
+    _entityServiceImpl.deleteAspect(entityUrn.toString(), aspectName, Map.of(), true);
+    assertFalse(deduplicator.isLikelyUnchanged(item, false));
+  }
+
   @Test
   public void testReingestLineageAspect() throws Exception {
 
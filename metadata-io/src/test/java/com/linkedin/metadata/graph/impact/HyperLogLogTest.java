@@ -0,0 +1,40 @@
+package com.linkedin.metadata.graph.impact;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import org.testng.annotations.Test;
+
+public class HyperLogLogTest {
+
+  private static HyperLogLog sketch(int from, int to) {
+    HyperLogLog sketch = new HyperLogLog(10);
+    for (int i = from; i < to; i++) {
+      sketch.add(HyperLogLog.hash("urn:li:dataset:" + i));
+    }
+    return sketch;
+  }
+
+  @Test
+  public void testEstimate() {
+    assertEquals(new HyperLogLog(10).estimate(), 0);
+    // Small sets are counted almost exactly
+    assertEquals(sketch(0, 10).estimate(), 10);
+    long estimate = sketch(0, 100000).estimate();
+    assertTrue(Math.abs(estimate - 100000) < 10000, "Estimate was " + estimate);
+  }
+
+  @Test
+  public void testMergeIsUnion() {
+    HyperLogLog merged = sketch(0, 60000);
+    assertTrue(merged.merge(sketch(40000, 100000)));
+    long estimate = merged.estimate();
+    assertTrue(Math.abs(estimate - 100000) < 10000, "Estimate was " + estimate);
+
+    // Merging a subset or adding a known element changes nothing
+    assertFalse(merged.merge(sketch(0, 1000)));
+    assertFalse(merged.add(HyperLogLog.hash("urn:li:dataset:1")));
+    assertEquals(merged.copy().estimate(), estimate);
+  }
+}
@@ -0,0 +1,123 @@
+package com.linkedin.metadata.graph.impact;
+
+import static com.linkedin.metadata.graph.impact.ImpactGraph.ALL;
+import static com.linkedin.metadata.graph.impact.ImpactGraph.DOWNSTREAM;
+import static com.linkedin.metadata.graph.impact.ImpactGraph.ONE_HOP;
+import static com.linkedin.metadata.graph.impact.ImpactGraph.THREE_HOPS;
+import static com.linkedin.metadata.graph.impact.ImpactGraph.UPSTREAM;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+import org.testng.annotations.Test;
+
+public class ImpactGraphTest {
+
+  /** A chain n0 -> n1 -> ... -> n(length - 1), each node upstream of the next. */
+  private static ImpactGraph chain(int length) {
+    ImpactGraph graph = new ImpactGraph(10);
+    for (int i = 0; i < length; i++) {
+      graph.intern("n" + i);
+    }
+    for (int i = 0; i + 1 < length; i++) {
+      graph.stageEdge(i, i + 1);
+      // Duplicates are dropped
+      graph.stageEdge(i, i + 1);
+    }
+    graph.computeAll();
+    return graph;
+  }
+
+  @Test
+  public void testComputeAll() {
+    ImpactGraph graph = chain(6);
+
+    assertEquals(graph.count(0, DOWNSTREAM, ONE_HOP), 1);
+    assertEquals(graph.count(0, DOWNSTREAM, THREE_HOPS), 3);
+    assertEquals(graph.count(0, DOWNSTREAM, ALL), 5);
+    assertEquals(graph.count(0, UPSTREAM, ALL), 0);
+    assertEquals(graph.count(5, UPSTREAM, ONE_HOP), 1);
+    assertEquals(graph.count(5, UPSTREAM, THREE_HOPS), 3);
+    assertEquals(graph.count(5, UPSTREAM, ALL), 5);
+    assertEquals(graph.count(2, UPSTREAM, ALL), 2);
+    assertEquals(graph.count(2, DOWNSTREAM, ALL), 3);
+  }
+
+  @Test
+  public void testCycleConverges() {
+    ImpactGraph graph = chain(4);
+    graph.stageEdge(3, 0);
+    graph.computeAll();
+
+    for (int node = 0; node < 4; node++) {
+      assertEquals(graph.count(node, DOWNSTREAM, ALL), 3);
+      assertEquals(graph.count(node, UPSTREAM, ALL), 3);
+    }
+  }
+
+  @Test
+  public void testAddEdgeSpreadsToEveryAncestor() {
+    ImpactGraph graph = chain(5);
+    int tail = graph.intern("tail");
+    Set<Integer> touched = new HashSet<>();
+
+    assertTrue(graph.addEdge(4, tail, 100, touched));
+
+    assertEquals(graph.count(0, DOWNSTREAM, ALL), 5);
+    assertEquals(graph.count(2, DOWNSTREAM, THREE_HOPS), 3);
+    assertEquals(graph.count(3, DOWNSTREAM, THREE_HOPS), 2);
+    assertEquals(graph.count(tail, UPSTREAM, ALL), 5);
+    assertEquals(graph.count(tail, UPSTREAM, THREE_HOPS), 3);
+    assertTrue(touched.contains(0));
+    assertTrue(touched.contains(tail));
+  }
+
+  @Test
+  public void testRemoveEdge() {
+    ImpactGraph graph = chain(5);
+    Set<Integer> touched = new HashSet<>();
+
+    graph.removeEdge(1, 2, touched);
+
+    assertEquals(graph.count(0, DOWNSTREAM, ONE_HOP), 1);
+    assertEquals(graph.count(0, DOWNSTREAM, THREE_HOPS), 1);
+    assertEquals(graph.count(4, UPSTREAM, THREE_HOPS), 2);
+    // Counts at any depth are never lower than at three hops
+    assertTrue(graph.count(4, UPSTREAM, ALL) >= 2);
+
+    touched.clear();
+    graph.removeNode(graph.nodeId("n3"), touched);
+    assertEquals(graph.count(4, UPSTREAM, ONE_HOP), 0);
+    assertEquals(graph.count(2, DOWNSTREAM, ONE_HOP), 0);
+  }
+
+  @Test
+  public void testTakeChangedCounts() {
+    ImpactGraph graph = chain(3);
+    int[] counts = graph.takeChangedCounts(0);
+
+    assertNotNull(counts);
+    assertEquals(counts, new int[] {0, 0, 0, 1, 2, 2});
+    assertNull(graph.takeChangedCounts(0));
+
+    graph.addEdge(graph.intern("n3"), 0, 100, new HashSet<>());
+    assertEquals(graph.takeChangedCounts(0), new int[] {1, 1, 1, 1, 2, 2});
+  }
+
+  @Test
+  public void testHasWrittenCounts() {
+    ImpactGraph graph = chain(3);
+    assertFalse(graph.hasWrittenCounts(0));
+
+    graph.takeChangedCounts(0);
+    assertTrue(graph.hasWrittenCounts(0));
+    // Isolated node, only zeros written
+    int isolated = graph.intern("isolated");
+    graph.takeChangedCounts(isolated);
+    assertFalse(graph.hasWrittenCounts(isolated));
+  }
+}
@@ -0,0 +1,271 @@
+package com.linkedin.metadata.graph.search;
+
+import static com.linkedin.metadata.search.utils.QueryUtils.EMPTY_FILTER;
+import static com.linkedin.metadata.search.utils.QueryUtils.newFilter;
+import static com.linkedin.metadata.search.utils.QueryUtils.newRelationshipFilter;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import com.linkedin.common.urn.Urn;
+import com.linkedin.common.urn.UrnUtils;
+import com.linkedin.metadata.graph.elastic.ESGraphWriteDAO;
+import com.linkedin.metadata.graph.elastic.ElasticSearchGraphService;
+import com.linkedin.metadata.query.filter.RelationshipDirection;
+import com.linkedin.metadata.search.elasticsearch.update.ESBulkProcessor;
+import com.linkedin.metadata.utils.elasticsearch.IndexConventionImpl;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.opensearch.action.DocWriteRequest;
+import org.opensearch.index.query.QueryBuilder;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class ESGraphWriteDAOTest {
+
+  private static final Urn SOURCE =
+      UrnUtils.getUrn("urn:li:dataset:(urn:li:dataPlatform:hive,source,PROD)");
+  private static final Urn DESTINATION =
+      UrnUtils.getUrn("urn:li:dataset:(urn:li:dataPlatform:hive,destination,PROD)");
+
+  private ESBulkProcessor bulkProcessor;
+  private ESGraphWriteDAO graphWriteDAO;
+
+  @BeforeMethod
+  public void setup() {
+    bulkProcessor = mock(ESBulkProcessor.class);
+    graphWriteDAO = new ESGraphWriteDAO(new IndexConventionImpl(null), bulkProcessor, 1);
+  }
+
+  @Test
+  public void testUpsertDocument() {
+    graphWriteDAO.upsertDocument("docId", "{}", SOURCE, DESTINATION);
+
+    ArgumentCaptor<DocWriteRequest> captor = ArgumentCaptor.forClass(DocWriteRequest.class);
+    verify(bulkProcessor).add(captor.capture());
+    assertEquals(captor.getValue().index(), ElasticSearchGraphService.INDEX_NAME);
+    assertNull(captor.getValue().routing());
+  }
+
+  @Test
+  public void testRoutedUpsertDocument() {
+    graphWriteDAO.setRoutedIndices(true);
+    graphWriteDAO.upsertDocument("docId", "{}", SOURCE, DESTINATION);
+
+    ArgumentCaptor<DocWriteRequest> captor = ArgumentCaptor.forClass(DocWriteRequest.class);
+    verify(bulkProcessor, times(2)).add(captor.capture());
+    List<DocWriteRequest> requests = captor.getAllValues();
+    assertEquals(requests.get(0).index(), ElasticSearchGraphService.SOURCE_ROUTED_INDEX_NAME);
+    assertEquals(requests.get(0).routing(), ElasticSearchGraphService.toRouting(SOURCE.toString()));
+    assertEquals(requests.get(1).index(), ElasticSearchGraphService.DESTINATION_ROUTED_INDEX_NAME);
+    assertEquals(
+        requests.get(1).routing(), ElasticSearchGraphService.toRouting(DESTINATION.toString()));
+  }
+
+  @Test
+  public void testRoutedDeleteDocument() {
+    graphWriteDAO.setRoutedIndices(true);
+    graphWriteDAO.deleteDocument("docId", SOURCE, DESTINATION);
+
+    ArgumentCaptor<DocWriteRequest> captor = ArgumentCaptor.forClass(DocWriteRequest.class);
+    verify(bulkProcessor, times(2)).add(captor.capture());
+    List<DocWriteRequest> requests = captor.getAllValues();
+    assertEquals(requests.get(0).opType(), DocWriteRequest.OpType.DELETE);
+    assertEquals(requests.get(0).routing(), ElasticSearchGraphService.toRouting(SOURCE.toString()));
+    assertEquals(
+        requests.get(1).routing(), ElasticSearchGraphService.toRouting(DESTINATION.toString()));
+  }
+
+  @Test
+  public void testRoutedDeleteByQuery() {
+    graphWriteDAO.setRoutedIndices(true);
+
+    // The edges going out of an entity are on the shard its urn routes to in the source index
+    graphWriteDAO.deleteByQuery(
+        null,
+        newFilter("urn", SOURCE.toString()),
+        null,
+        EMPTY_FILTER,
+        List.of("DownstreamOf"),
+        newRelationshipFilter(EMPTY_FILTER, RelationshipDirection.OUTGOING));
+    verify(bulkProcessor)
+        .deleteByQuery(
+            any(QueryBuilder.class),
+            eq(ElasticSearchGraphService.toRouting(SOURCE.toString())),
+            eq(true),
+            eq(ElasticSearchGraphService.SOURCE_ROUTED_INDEX_NAME));
+    verify(bulkProcessor)
+        .deleteByQuery(
+            any(QueryBuilder.class),
+            ArgumentMatchers.<String>isNull(),
+            eq(true),
+            eq(ElasticSearchGraphService.DESTINATION_ROUTED_INDEX_NAME));
+
+    // For incoming edges the filtered entity is their destination
+    graphWriteDAO.deleteByQuery(
+        null,
+        newFilter("urn", DESTINATION.toString()),
+        null,
+        EMPTY_FILTER,
+        List.of("DownstreamOf"),
+        newRelationshipFilter(EMPTY_FILTER, RelationshipDirection.INCOMING));
+    verify(bulkProcessor)
+        .deleteByQuery(
+            any(QueryBuilder.class),
+            ArgumentMatchers.<String>isNull(),
+            eq(true),
+            eq(ElasticSearchGraphService.SOURCE_ROUTED_INDEX_NAME));
+    verify(bulkProcessor)
+        .deleteByQuery(
+            any(QueryBuilder.class),
+            eq(ElasticSearchGraphService.toRouting(DESTINATION.toString())),
+            eq(true),
+            eq(ElasticSearchGraphService.DESTINATION_ROUTED_INDEX_NAME));
+  }
+
+  @Test
+  public void testRoutedUndirectedDeleteByQuery() {
+    graphWriteDAO.setRoutedIndices(true);
+
+    // Either end of the matching edges may be the filtered entity, their copies are on any shard
+    graphWriteDAO.deleteByQuery(
+        null,
+        newFilter("urn", SOURCE.toString()),
+        null,
+        EMPTY_FILTER,
+        List.of("DownstreamOf"),
+        newRelationshipFilter(EMPTY_FILTER, RelationshipDirection.UNDIRECTED));
+    verify(bulkProcessor)
+        .deleteByQuery(
+            any(QueryBuilder.class),
+            ArgumentMatchers.<String>isNull(),
+            eq(true),
+            eq(ElasticSearchGraphService.SOURCE_ROUTED_INDEX_NAME));
+    verify(bulkProcessor)
+        .deleteByQuery(
+            any(QueryBuilder.class),
+            ArgumentMatchers.<String>isNull(),
+            eq(true),
+            eq(ElasticSearchGraphService.DESTINATION_ROUTED_INDEX_NAME));
+  }
+
+  @Test
+  public void testDeleteByQueryAsync() {
+    graphWriteDAO.deleteByQueryAsync(
+        newFilter("urn", SOURCE.toString()),
+        EMPTY_FILTER,
+        List.of("DownstreamOf"),
+        newRelationshipFilter(EMPTY_FILTER, RelationshipDirection.OUTGOING),
+        null,
+        List.of("keptDocId"));
+
+    ArgumentCaptor<QueryBuilder> captor = ArgumentCaptor.forClass(QueryBuilder.class);
+    verify(bulkProcessor)
+        .deleteByQueryIgnoringConflicts(
+            captor.capture(),
+            ArgumentMatchers.<String>isNull(),
+            eq(ElasticSearchGraphService.INDEX_NAME));
+    // The edges being kept are left out of the deletion
+    assertTrue(captor.getValue().toString().contains("keptDocId"));
+  }
+
+  @Test
+  public void testBatchedDeleteByQueryAsync() {
+    graphWriteDAO.setRoutedIndices(true);
+    graphWriteDAO.startCleanup(TimeUnit.HOURS.toMillis(1), 10, 2);
+
+    deleteOutgoingAsync(SOURCE, "keptDocId");
+    // A newer delete of the same edges replaces the queued one
+    deleteOutgoingAsync(SOURCE, "newKeptDocId");
+    deleteOutgoingAsync(DESTINATION, "otherKeptDocId");
+    assertEquals(graphWriteDAO.getPendingCleanups(), 2);
+    verify(bulkProcessor, never())
+        .deleteByQueryIgnoringConflicts(any(QueryBuilder.class), any(), any());
+
+    // Beyond the bound of the queue the delete runs right away rather than being dropped
+    Urn overflow = UrnUtils.getUrn("urn:li:corpuser:overflow");
+    deleteOutgoingAsync(overflow, "overflowDocId");
+    assertEquals(graphWriteDAO.getPendingCleanups(), 2);
+    ArgumentCaptor<QueryBuilder> overflowCaptor = ArgumentCaptor.forClass(QueryBuilder.class);
+    verify(bulkProcessor)
+        .deleteByQueryIgnoringConflicts(
+            overflowCaptor.capture(),
+            eq(ElasticSearchGraphService.toRouting(overflow.toString())),
+            eq(ElasticSearchGraphService.SOURCE_ROUTED_INDEX_NAME));
+    assertTrue(overflowCaptor.getValue().toString().contains("overflowDocId"));
+
+    graphWriteDAO.processCleanups();
+    assertEquals(graphWriteDAO.getPendingCleanups(), 0);
+
+    // One delete per index for the whole batch, routed to the shards of both urns
+    ArgumentCaptor<QueryBuilder> captor = ArgumentCaptor.forClass(QueryBuilder.class);
+    verify(bulkProcessor)
+        .deleteByQueryIgnoringConflicts(
+            captor.capture(),
+            eq(
+                String.join(
+                    ",",
+                    new TreeSet<>(
+                        List.of(
+                            ElasticSearchGraphService.toRouting(SOURCE.toString()),
+                            ElasticSearchGraphService.toRouting(DESTINATION.toString()))))),
+            eq(ElasticSearchGraphService.SOURCE_ROUTED_INDEX_NAME));
+    // The overflowing delete and the batch
+    verify(bulkProcessor, times(2))
+        .deleteByQueryIgnoringConflicts(
+            any(QueryBuilder.class),
+            ArgumentMatchers.<String>isNull(),
+            eq(ElasticSearchGraphService.DESTINATION_ROUTED_INDEX_NAME));
+    String query = captor.getValue().toString();
+    assertTrue(query.contains("newKeptDocId"));
+    assertTrue(query.contains("otherKeptDocId"));
+    assertFalse(query.contains("\"keptDocId\""));
+    assertFalse(query.contains("overflowDocId"));
+  }
+
+  @Test
+  public void testDeleteWaitsForRunningCleanup() throws Exception {
+    graphWriteDAO.startCleanup(TimeUnit.HOURS.toMillis(1), 10, 10);
+    deleteOutgoingAsync(SOURCE, "keptDocId");
+
+    AtomicReference<CompletableFuture<Void>> newer = new AtomicReference<>();
+    when(bulkProcessor.deleteByQueryIgnoringConflicts(any(QueryBuilder.class), any(), any()))
+        .thenAnswer(
+            invocation -> {
+              newer.set(
+                  CompletableFuture.runAsync(() -> deleteOutgoingAsync(SOURCE, "newKeptDocId")));
+              Thread.sleep(100);
+              // The edges written after the newer delete must not be matched by this one
+              assertFalse(newer.get().isDone());
+              return Optional.empty();
+            });
+    graphWriteDAO.processCleanups();
+
+    newer.get().get(10, TimeUnit.SECONDS);
+    assertEquals(graphWriteDAO.getPendingCleanups(), 1);
+  }
+
+  private void deleteOutgoingAsync(Urn urn, String keptDocId) {
+    graphWriteDAO.deleteByQueryAsync(
+        newFilter("urn", urn.toString()),
+        EMPTY_FILTER,
+        List.of("DownstreamOf"),
+        newRelationshipFilter(EMPTY_FILTER, RelationshipDirection.OUTGOING),
+        null,
+        List.of(keptDocId));
+  }
+}
@@ -0,0 +1,200 @@
+package com.linkedin.metadata.graph.search;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import com.linkedin.common.urn.Urn;
+import com.linkedin.common.urn.UrnUtils;
+import com.linkedin.metadata.graph.Edge;
+import com.linkedin.metadata.graph.elastic.ESGraphQueryDAO;
+import com.linkedin.metadata.graph.elastic.LineageGraphIndex;
+import com.linkedin.metadata.models.registry.LineageRegistry.EdgeInfo;
+import com.linkedin.metadata.query.filter.RelationshipDirection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.tuple.Pair;
+import org.testng.annotations.Test;
+
+public class LineageGraphIndexTest {
+  private static final String DOWNSTREAM_OF = "DownstreamOf";
+  private static final Set<Pair<String, EdgeInfo>> UPSTREAM_EDGES =
+      Set.of(
+          Pair.of(
+              "dataset", new EdgeInfo(DOWNSTREAM_OF, RelationshipDirection.OUTGOING, "dataset")));
+  private static final Set<Pair<String, EdgeInfo>> DOWNSTREAM_EDGES =
+      Set.of(
+          Pair.of(
+              "dataset", new EdgeInfo(DOWNSTREAM_OF, RelationshipDirection.INCOMING, "dataset")));
+  private static final List<String> ALL_TYPES = List.of("dataset", "dataJob");
+
+  private static Urn dataset(String name) {
+    return UrnUtils.getUrn("urn:li:dataset:(urn:li:dataPlatform:hive," + name + ",PROD)");
+  }
+
+  private static Edge downstreamOf(Urn downstream, Urn upstream) {
+    return new Edge(downstream, upstream, DOWNSTREAM_OF, null, null, null, null, null);
+  }
+
+  private static LineageGraphIndex bootstrapped(List<Edge> edges) {
+    LineageGraphIndex index = new LineageGraphIndex(Set.of(DOWNSTREAM_OF));
+    ESGraphQueryDAO graphQueryDAO = mock(ESGraphQueryDAO.class);
+    doAnswer(
+            invocation -> {
+              Consumer<Edge> consumer = invocation.getArgument(2);
+              edges.forEach(consumer);
+              return null;
+            })
+        .when(graphQueryDAO)
+        .scanEdges(any(), anyInt(), any());
+    index.bootstrap(graphQueryDAO, 100);
+    return index;
+  }
+
+  private static List<Urn> upstreams(LineageGraphIndex index, Urn urn) {
+    return index.getEdges(List.of(urn), UPSTREAM_EDGES, ALL_TYPES, null, null).stream()
+        .map(Edge::getDestination)
+        .sorted(Comparator.comparing(Urn::toString))
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  public void testHopsInBothDirections() {
+    Urn a = dataset("a");
+    Urn b = dataset("b");
+    Urn c = dataset("c");
+    LineageGraphIndex index = bootstrapped(List.of(downstreamOf(c, a), downstreamOf(c, b)));
+
+    assertTrue(index.isReady());
+    assertEquals(upstreams(index, c), List.of(a, b));
+    List<Edge> downstream = index.getEdges(List.of(a), DOWNSTREAM_EDGES, ALL_TYPES, null, null);
+    assertEquals(downstream.size(), 1);
+    assertEquals(downstream.get(0).getSource(), c);
+    // Both ends must be of an allowed entity type
+    assertTrue(
+        index.getEdges(List.of(c), UPSTREAM_EDGES, List.of("dataJob"), null, null).isEmpty());
+  }
+
+  @Test
+  public void testKeepsCurrentWithWrites() {
+    Urn a = dataset("a");
+    Urn b = dataset("b");
+    Urn c = dataset("c");
+    LineageGraphIndex index = bootstrapped(List.of(downstreamOf(c, a)));
+
+    index.upsertEdge(downstreamOf(c, b));
+    index.upsertEdge(downstreamOf(c, b));
+    assertEquals(upstreams(index, c), List.of(a, b));
+    assertEquals(index.liveEdgeCount(), 2);
+
+    index.removeEdge(downstreamOf(c, a));
+    assertEquals(upstreams(index, c), List.of(b));
+
+    index.removeEdgesFromNode(c, List.of(DOWNSTREAM_OF), RelationshipDirection.OUTGOING);
+    assertTrue(upstreams(index, c).isEmpty());
+
+    index.upsertEdge(downstreamOf(c, a));
+    index.removeNode(a);
+    assertTrue(upstreams(index, c).isEmpty());
+    assertEquals(index.liveEdgeCount(), 0);
+
+    // Edges of other relationship types are not kept
+    index.upsertEdge(new Edge(c, a, "OwnedBy", null, null, null, null, null));
+    assertEquals(index.liveEdgeCount(), 0);
+  }
+
+  @Test
+  public void testRemoveUndirectedEdgesFromNode() {
+    Urn a = dataset("a");
+    Urn b = dataset("b");
+    Urn c = dataset("c");
+    LineageGraphIndex index = bootstrapped(List.of(downstreamOf(b, a), downstreamOf(c, b)));
+
+    // The incoming edge only
+    index.removeEdgesFromNode(b, List.of(DOWNSTREAM_OF), RelationshipDirection.INCOMING);
+    assertEquals(upstreams(index, b), List.of(a));
+    assertTrue(upstreams(index, c).isEmpty());
+
+    // Both the edges b is the source of and those it is the destination of
+    index.upsertEdge(downstreamOf(c, b));
+    index.removeEdgesFromNode(b, List.of(), RelationshipDirection.UNDIRECTED);
+    assertTrue(upstreams(index, b).isEmpty());
+    assertTrue(upstreams(index, c).isEmpty());
+    assertEquals(index.liveEdgeCount(), 0);
+  }
+
+  @Test
+  public void testCompactionKeepsEdges() {
+    Urn hub = dataset("hub");
+    LineageGraphIndex index = bootstrapped(List.of());
+    for (int i = 0; i < 3000; i++) {
+      index.upsertEdge(downstreamOf(dataset("d" + i), hub));
+    }
+    for (int i = 0; i < 3000; i += 2) {
+      index.removeEdge(downstreamOf(dataset("d" + i), hub));
+    }
+
+    assertEquals(index.liveEdgeCount(), 1500);
+    assertEquals(
+        index.getEdges(List.of(hub), DOWNSTREAM_EDGES, ALL_TYPES, null, null).size(), 1500);
+    assertEquals(upstreams(index, dataset("d1")), List.of(hub));
+    assertTrue(upstreams(index, dataset("d2")).isEmpty());
+    assertTrue(index.estimatedBytes() > 0);
+  }
+
+  @Test
+  public void testTimeFilter() {
+    Urn a = dataset("a");
+    Urn b = dataset("b");
+    Urn c = dataset("c");
+    Urn d = dataset("d");
+    Urn x = dataset("x");
+    LineageGraphIndex index =
+        bootstrapped(
+            List.of(
+                new Edge(x, a, DOWNSTREAM_OF, 100L, null, 200L, null, null),
+                new Edge(x, b, DOWNSTREAM_OF, 500L, null, 600L, null, null),
+                new Edge(x, c, DOWNSTREAM_OF, null, null, null, null, null),
+                new Edge(x, d, DOWNSTREAM_OF, 500L, null, 600L, null, Map.of("source", "UI"))));
+
+    List<Urn> inRange =
+        index.getEdges(List.of(x), UPSTREAM_EDGES, ALL_TYPES, 150L, 300L).stream()
+            .map(Edge::getDestination)
+            .sorted(Comparator.comparing(Urn::toString))
+            .collect(Collectors.toList());
+    assertEquals(inRange, List.of(a, c, d));
+  }
+
+  @Test
+  public void testScanDoesNotOverwriteConcurrentWrites() {
+    Urn a = dataset("a");
+    Urn b = dataset("b");
+    Urn c = dataset("c");
+    LineageGraphIndex index = new LineageGraphIndex(Set.of(DOWNSTREAM_OF));
+    ESGraphQueryDAO graphQueryDAO = mock(ESGraphQueryDAO.class);
+    doAnswer(
+            invocation -> {
+              assertFalse(index.isReady());
+              // Removed after the scan read them
+              index.removeEdge(downstreamOf(c, a));
+              index.removeEdgesFromNode(b, List.of(), RelationshipDirection.OUTGOING);
+              Consumer<Edge> consumer = invocation.getArgument(2);
+              consumer.accept(downstreamOf(c, a));
+              consumer.accept(downstreamOf(b, a));
+              return null;
+            })
+        .when(graphQueryDAO)
+        .scanEdges(any(), anyInt(), any());
+    index.bootstrap(graphQueryDAO, 100);
+
+    assertEquals(index.liveEdgeCount(), 0);
+  }
+}
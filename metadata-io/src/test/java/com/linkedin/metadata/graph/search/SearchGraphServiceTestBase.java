@@ -3,6 +3,8 @@ package com.linkedin.metadata.graph.search;
 import static com.linkedin.metadata.graph.elastic.ElasticSearchGraphService.INDEX_NAME;
 import static com.linkedin.metadata.search.utils.QueryUtils.*;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
 
 import com.linkedin.common.FabricType;
 import com.linkedin.common.urn.DataPlatformUrn;
@@ -30,14 +32,20 @@ import com.linkedin.metadata.search.elasticsearch.update.ESBulkProcessor;
 import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
 import com.linkedin.metadata.utils.elasticsearch.IndexConventionImpl;
 import io.datahubproject.test.search.SearchTestUtils;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import javax.annotation.Nonnull;
 import org.junit.Assert;
+import org.opensearch.action.admin.indices.delete.DeleteIndexRequest;
+import org.opensearch.client.RequestOptions;
 import org.opensearch.client.RestHighLevelClient;
+import org.opensearch.client.indices.PutMappingRequest;
 import org.testng.SkipException;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.BeforeMethod;
@@ -285,6 +293,174 @@ public abstract class SearchGraphServiceTestBase extends GraphServiceTestBase {
     assertEquals(result.getTotal(), 0);
   }
 
+  @Test
+  public void testCopyToRoutedIndices() throws Exception {
+    DatasetUrn datasetUrn =
+        new DatasetUrn(new DataPlatformUrn("snowflake"), "routed", FabricType.TEST);
+    TagUrn tagUrn = new TagUrn("routedTag");
+    Edge edge = new Edge(datasetUrn, tagUrn, TAG_RELATIONSHIP, null, null, null, null, null);
+    getGraphService().addEdge(edge);
+    syncAfterWrite();
+
+    ElasticSearchGraphService routedService = buildService(_enableMultiPathSearch);
+    routedService.setRoutedIndices(true);
+    try {
+      routedService.configure();
+      syncAfterWrite();
+      assertEquals(countTags(routedService, datasetUrn), 1);
+
+      // Once the copy completed it is not repeated, so removed edges are not copied back
+      routedService.removeEdge(edge);
+      syncAfterWrite();
+      routedService.configure();
+      syncAfterWrite();
+      assertEquals(countTags(routedService, datasetUrn), 0);
+
+      // Nor is a copy that started and did not complete
+      for (String name :
+          List.of(
+              ElasticSearchGraphService.SOURCE_ROUTED_INDEX_NAME,
+              ElasticSearchGraphService.DESTINATION_ROUTED_INDEX_NAME)) {
+        getSearchClient()
+            .indices()
+            .putMapping(
+                new PutMappingRequest(_indexConvention.getIndexName(name))
+                    .source(Map.of("_meta", Map.of("copyFromGraphIndexStartedAt", 0L))),
+                RequestOptions.DEFAULT);
+      }
+      routedService.configure();
+      syncAfterWrite();
+      assertEquals(countTags(routedService, datasetUrn), 0);
+    } finally {
+      getSearchClient()
+          .indices()
+          .delete(
+              new DeleteIndexRequest(
+                  _indexConvention.getIndexName(ElasticSearchGraphService.SOURCE_ROUTED_INDEX_NAME)
+                      + "*",
+                  _indexConvention.getIndexName(
+                          ElasticSearchGraphService.DESTINATION_ROUTED_INDEX_NAME)
+                      + "*"),
+              RequestOptions.DEFAULT);
+    }
+  }
+
+  private static int countTags(GraphService graphService, Urn datasetUrn) {
+    return graphService
+        .findRelatedEntities(
+            Collections.singletonList(datasetType),
+            newFilter(Collections.singletonMap("urn", datasetUrn.toString())),
+            Collections.singletonList("tag"),
+            EMPTY_FILTER,
+            Collections.singletonList(TAG_RELATIONSHIP),
+            newRelationshipFilter(EMPTY_FILTER, RelationshipDirection.OUTGOING),
+            0,
+            100)
+        .getTotal();
+  }
+
+  @Test
+  public void testExportLineage() throws Exception {
+    Urn root = exportUrn("root");
+    List<Urn> children = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      children.add(exportUrn("child" + i));
+      getGraphService().addEdge(exportEdge(children.get(i), root));
+    }
+    Urn grandchild0 = exportUrn("grandchild0");
+    Urn grandchild1 = exportUrn("grandchild1");
+    getGraphService().addEdge(exportEdge(grandchild0, children.get(0)));
+    getGraphService().addEdge(exportEdge(grandchild1, children.get(0)));
+    // Reached from two children, visited once
+    getGraphService().addEdge(exportEdge(grandchild1, children.get(1)));
+    syncAfterWrite();
+
+    // Pages of two edges, the five children are read with search_after
+    List<String> hops = new ArrayList<>();
+    GraphService.LineageExportResult result =
+        buildExportDAO(2, 1000)
+            .exportLineage(
+                root,
+                LineageDirection.DOWNSTREAM,
+                1000,
+                null,
+                null,
+                (degree, fromUrn, toUrn, edge) -> hops.add(degree + " " + fromUrn + " " + toUrn));
+    assertEquals(result.getEntities(), 8);
+    assertFalse(result.isTruncated());
+    List<String> expectedHops = new ArrayList<>();
+    children.forEach(child -> expectedHops.add("1 " + root + " " + child));
+    expectedHops.add("2 " + children.get(0) + " " + grandchild0);
+    expectedHops.add("2 " + children.get(0) + " " + grandchild1);
+    expectedHops.add("2 " + children.get(1) + " " + grandchild1);
+    assertEquals(new HashSet<>(hops), new HashSet<>(expectedHops));
+    assertEquals(hops.size(), expectedHops.size());
+    // Every level is handed over before the next one
+    assertEquals(new HashSet<>(hops.subList(0, 5)), new HashSet<>(expectedHops.subList(0, 5)));
+
+    // Upstream of a grandchild
+    hops.clear();
+    result =
+        buildExportDAO(2, 1000)
+            .exportLineage(
+                grandchild1,
+                LineageDirection.UPSTREAM,
+                1,
+                null,
+                null,
+                (degree, fromUrn, toUrn, edge) -> hops.add(degree + " " + fromUrn + " " + toUrn));
+    assertEquals(result.getEntities(), 3);
+    assertFalse(result.isTruncated());
+    assertEquals(
+        new HashSet<>(hops),
+        Set.of(
+            "1 " + grandchild1 + " " + children.get(0),
+            "1 " + grandchild1 + " " + children.get(1)));
+
+    // The walk stops at the most entities an export may visit, the root included
+    hops.clear();
+    result =
+        buildExportDAO(2, 4)
+            .exportLineage(
+                root,
+                LineageDirection.DOWNSTREAM,
+                1000,
+                null,
+                null,
+                (degree, fromUrn, toUrn, edge) -> hops.add(degree + " " + fromUrn + " " + toUrn));
+    assertEquals(result.getEntities(), 4);
+    assertTrue(result.isTruncated());
+    assertEquals(hops.size(), 3);
+    assertTrue(expectedHops.subList(0, 5).containsAll(hops));
+  }
+
+  private static Urn exportUrn(String name) {
+    return new DatasetUrn(new DataPlatformUrn("snowflake"), "export." + name, FabricType.TEST);
+  }
+
+  private static Edge exportEdge(Urn downstream, Urn upstream) {
+    return new Edge(downstream, upstream, downstreamOf, null, null, null, null, null);
+  }
+
+  @Nonnull
+  private ESGraphQueryDAO buildExportDAO(int maxResult, int exportMaxEntities) {
+    GraphQueryConfiguration configuration = new GraphQueryConfiguration();
+    configuration.setTimeoutSeconds(GraphQueryConfiguration.testDefaults.getTimeoutSeconds());
+    configuration.setBatchSize(GraphQueryConfiguration.testDefaults.getBatchSize());
+    configuration.setMaxResult(maxResult);
+    configuration.setEnableMultiPathSearch(_enableMultiPathSearch);
+    configuration.setExportMaxEntities(exportMaxEntities);
+    configuration.setExportTimeoutSeconds(
+        GraphQueryConfiguration.testDefaults.getExportTimeoutSeconds());
+    configuration.setLineageIndex(GraphQueryConfiguration.testDefaults.getLineageIndex());
+    configuration.setEdgeCleanup(GraphQueryConfiguration.testDefaults.getEdgeCleanup());
+    return new ESGraphQueryDAO(
+        getSearchClient(),
+        new LineageRegistry(SnapshotEntityRegistry.getInstance()),
+        _indexConvention,
+        configuration);
+  }
+
   @Test
   @Override
   public void testConcurrentAddEdge() {
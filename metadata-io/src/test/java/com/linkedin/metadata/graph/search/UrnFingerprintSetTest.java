@@ -0,0 +1,44 @@
+package com.linkedin.metadata.graph.search;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import com.linkedin.common.urn.Urn;
+import com.linkedin.common.urn.UrnUtils;
+import com.linkedin.metadata.graph.elastic.UrnFingerprintSet;
+import org.testng.annotations.Test;
+
+public class UrnFingerprintSetTest {
+
+  private static Urn dataset(int i) {
+    return UrnUtils.getUrn("urn:li:dataset:(urn:li:dataPlatform:hive,table" + i + ",PROD)");
+  }
+
+  @Test
+  public void testAddAndContains() {
+    UrnFingerprintSet set = new UrnFingerprintSet();
+
+    assertFalse(set.contains(dataset(1)));
+    assertTrue(set.add(dataset(1)));
+    assertFalse(set.add(dataset(1)));
+    assertTrue(set.contains(dataset(1)));
+    assertFalse(set.contains(dataset(2)));
+    assertEquals(set.size(), 1);
+  }
+
+  @Test
+  public void testGrowsPastInitialCapacity() {
+    UrnFingerprintSet set = new UrnFingerprintSet();
+    for (int i = 0; i < 10000; i++) {
+      assertTrue(set.add(dataset(i)));
+    }
+
+    assertEquals(set.size(), 10000);
+    for (int i = 0; i < 10000; i++) {
+      assertTrue(set.contains(dataset(i)));
+      assertFalse(set.add(dataset(i)));
+    }
+    assertFalse(set.contains(dataset(10000)));
+  }
+}
@@ -104,7 +104,7 @@ public class SiblingGraphServiceTest {
     when(_graphService.getLineage(datasetFourUrn, LineageDirection.UPSTREAM, 0, 100, 1, null, null))
         .thenReturn(mockResult);
 
-    when(_mockEntityService.getLatestAspect(datasetFourUrn, SIBLINGS_ASPECT_NAME)).thenReturn(null);
+    when(_mockEntityService.getLatestAspects(any(), any())).thenReturn(Map.of());
 
     SiblingGraphService service = _client;
 
@@ -161,9 +161,6 @@ public class SiblingGraphServiceTest {
     noRelevantSiblingsResponse.setPrimary(true);
     noRelevantSiblingsResponse.setSiblings(new UrnArray(ImmutableList.of(datasetFiveUrn)));
 
-    when(_mockEntityService.getLatestAspect(datasetFourUrn, SIBLINGS_ASPECT_NAME))
-        .thenReturn(noRelevantSiblingsResponse);
-
     Siblings dataset1Siblings = new Siblings();
     dataset1Siblings.setPrimary(false);
     dataset1Siblings.setSiblings(new UrnArray(ImmutableList.of()));
@@ -180,7 +177,8 @@ public class SiblingGraphServiceTest {
         ImmutableMap.of(
             datasetOneUrn, ImmutableList.of(dataset1Siblings),
             datasetTwoUrn, ImmutableList.of(dataset2Siblings),
-            datasetThreeUrn, ImmutableList.of(dataset3Siblings));
+            datasetThreeUrn, ImmutableList.of(dataset3Siblings),
+            datasetFourUrn, ImmutableList.of(noRelevantSiblingsResponse));
 
     when(_mockEntityService.getLatestAspects(any(), any())).thenReturn(siblingsMap);
 
@@ -238,9 +236,6 @@ public class SiblingGraphServiceTest {
     siblingInSearchResult.setPrimary(true);
     siblingInSearchResult.setSiblings(new UrnArray(ImmutableList.of(datasetThreeUrn)));
 
-    when(_mockEntityService.getLatestAspect(datasetFourUrn, SIBLINGS_ASPECT_NAME))
-        .thenReturn(siblingInSearchResult);
-
     Siblings dataset1Siblings = new Siblings();
     dataset1Siblings.setPrimary(false);
     dataset1Siblings.setSiblings(new UrnArray(ImmutableList.of()));
@@ -257,7 +252,8 @@ public class SiblingGraphServiceTest {
         ImmutableMap.of(
             datasetOneUrn, ImmutableList.of(dataset1Siblings),
             datasetTwoUrn, ImmutableList.of(dataset2Siblings),
-            datasetThreeUrn, ImmutableList.of(dataset3Siblings));
+            datasetThreeUrn, ImmutableList.of(dataset3Siblings),
+            datasetFourUrn, ImmutableList.of(siblingInSearchResult));
 
     when(_mockEntityService.getLatestAspects(any(), any())).thenReturn(siblingsMap);
 
@@ -358,9 +354,6 @@ public class SiblingGraphServiceTest {
     siblingInSearchResult.setPrimary(true);
     siblingInSearchResult.setSiblings(new UrnArray(ImmutableList.of(datasetThreeUrn)));
 
-    when(_mockEntityService.getLatestAspect(datasetFourUrn, SIBLINGS_ASPECT_NAME))
-        .thenReturn(siblingInSearchResult);
-
     Siblings dataset1Siblings = new Siblings();
     dataset1Siblings.setPrimary(false);
     dataset1Siblings.setSiblings(new UrnArray(ImmutableList.of()));
@@ -378,7 +371,8 @@ public class SiblingGraphServiceTest {
             datasetOneUrn, ImmutableList.of(dataset1Siblings),
             datasetTwoUrn, ImmutableList.of(dataset2Siblings),
             datasetThreeUrn, ImmutableList.of(dataset3Siblings),
-            datasetFiveUrn, ImmutableList.of(dataset3Siblings));
+            datasetFiveUrn, ImmutableList.of(dataset3Siblings),
+            datasetFourUrn, ImmutableList.of(siblingInSearchResult));
 
     when(_mockEntityService.getLatestAspects(any(), any())).thenReturn(siblingsMap);
 
@@ -450,13 +444,6 @@ public class SiblingGraphServiceTest {
     when(_graphService.getLineage(datasetFourUrn, LineageDirection.UPSTREAM, 0, 100, 1, null, null))
         .thenReturn(mockResult);
 
-    Siblings siblingInSearchResult = new Siblings();
-    siblingInSearchResult.setPrimary(true);
-    siblingInSearchResult.setSiblings(new UrnArray(ImmutableList.of(datasetThreeUrn)));
-
-    when(_mockEntityService.getLatestAspect(datasetFourUrn, SIBLINGS_ASPECT_NAME))
-        .thenReturn(siblingInSearchResult);
-
     Siblings dataset1Siblings = new Siblings();
     dataset1Siblings.setPrimary(false);
     dataset1Siblings.setSiblings(new UrnArray(ImmutableList.of()));
@@ -502,13 +489,6 @@ public class SiblingGraphServiceTest {
     when(_graphService.getLineage(datasetFourUrn, LineageDirection.UPSTREAM, 0, 99, 1, null, null))
         .thenReturn(mockResult);
 
-    siblingInSearchResult = new Siblings();
-    siblingInSearchResult.setPrimary(false);
-    siblingInSearchResult.setSiblings(new UrnArray(ImmutableList.of(datasetFourUrn)));
-
-    when(_mockEntityService.getLatestAspect(datasetThreeUrn, SIBLINGS_ASPECT_NAME))
-        .thenReturn(siblingInSearchResult);
-
     upstreamLineage = service.getLineage(datasetThreeUrn, LineageDirection.UPSTREAM, 0, 100, 1);
 
     LineageRelationshipArray siblingExpectedRelationships = new LineageRelationshipArray();
@@ -593,30 +573,18 @@ public class SiblingGraphServiceTest {
     dataset1Siblings.setPrimary(true);
     dataset1Siblings.setSiblings(new UrnArray(ImmutableList.of(datasetTwoUrn)));
 
-    when(_mockEntityService.getLatestAspect(datasetOneUrn, SIBLINGS_ASPECT_NAME))
-        .thenReturn(dataset1Siblings);
-
     Siblings dataset2Siblings = new Siblings();
     dataset2Siblings.setPrimary(true);
     dataset2Siblings.setSiblings(new UrnArray(ImmutableList.of(datasetOneUrn, datasetThreeUrn)));
 
-    when(_mockEntityService.getLatestAspect(datasetTwoUrn, SIBLINGS_ASPECT_NAME))
-        .thenReturn(dataset2Siblings);
-
     Siblings dataset3Siblings = new Siblings();
     dataset3Siblings.setPrimary(true);
     dataset3Siblings.setSiblings(new UrnArray(ImmutableList.of(datasetTwoUrn)));
 
-    when(_mockEntityService.getLatestAspect(datasetThreeUrn, SIBLINGS_ASPECT_NAME))
-        .thenReturn(dataset3Siblings);
-
     Siblings dataset4Siblings = new Siblings();
     dataset4Siblings.setPrimary(true);
     dataset4Siblings.setSiblings(new UrnArray());
 
-    when(_mockEntityService.getLatestAspect(datasetFourUrn, SIBLINGS_ASPECT_NAME))
-        .thenReturn(dataset4Siblings);
-
     Map<Urn, List<RecordTemplate>> siblingsMap =
         ImmutableMap.of(
             datasetOneUrn, ImmutableList.of(dataset1Siblings),
@@ -711,20 +679,6 @@ public class SiblingGraphServiceTest {
             Mockito.eq(null)))
         .then(invocation -> mockResult.clone());
 
-    Siblings primarySibling = new Siblings();
-    primarySibling.setPrimary(true);
-    primarySibling.setSiblings(new UrnArray(ImmutableList.of(datasetThreeUrn)));
-
-    when(_mockEntityService.getLatestAspect(datasetFourUrn, SIBLINGS_ASPECT_NAME))
-        .thenReturn(primarySibling);
-
-    Siblings siblingInSearchResult = new Siblings();
-    siblingInSearchResult.setPrimary(false);
-    siblingInSearchResult.setSiblings(new UrnArray(ImmutableList.of(datasetFourUrn)));
-
-    when(_mockEntityService.getLatestAspect(datasetThreeUrn, SIBLINGS_ASPECT_NAME))
-        .thenReturn(siblingInSearchResult);
-
     Siblings dataset1Siblings = new Siblings();
     dataset1Siblings.setPrimary(false);
     dataset1Siblings.setSiblings(new UrnArray(ImmutableList.of()));
@@ -799,16 +753,10 @@ public class SiblingGraphServiceTest {
     primarySiblings.setPrimary(true);
     primarySiblings.setSiblings(new UrnArray(ImmutableList.of(alternateSiblingUrn)));
 
-    when(_mockEntityService.getLatestAspect(primarySiblingUrn, SIBLINGS_ASPECT_NAME))
-        .thenReturn(primarySiblings);
-
     Siblings secondarySiblings = new Siblings();
     secondarySiblings.setPrimary(false);
     secondarySiblings.setSiblings(new UrnArray(ImmutableList.of(primarySiblingUrn)));
 
-    when(_mockEntityService.getLatestAspect(alternateSiblingUrn, SIBLINGS_ASPECT_NAME))
-        .thenReturn(secondarySiblings);
-
     Map<Urn, List<RecordTemplate>> siblingsMap = new HashMap<>();
     siblingsMap.put(primarySiblingUrn, ImmutableList.of(primarySiblings));
     siblingsMap.put(alternateSiblingUrn, ImmutableList.of(secondarySiblings));
@@ -1056,6 +1004,52 @@ public class SiblingGraphServiceTest {
     assertEquals(secondarySiblingNonSeparatedUpstream, expectedResultPrimaryUpstreamNonSeparated);
   }
 
+  @Test
+  public void testCachedSiblingsAreInvalidated() {
+    EntityService<?> entityService = Mockito.mock(EntityService.class);
+    when(entityService.exists(any(Collection.class), any(Boolean.class)))
+        .thenAnswer(args -> new HashSet<>(args.getArgument(0)));
+    GraphService graphService = Mockito.mock(GraphService.class);
+
+    EntityLineageResult emptyResult = new EntityLineageResult();
+    emptyResult.setRelationships(new LineageRelationshipArray());
+    emptyResult.setStart(0);
+    emptyResult.setTotal(0);
+    emptyResult.setCount(0);
+    when(graphService.getLineage(any(), any(), anyInt(), anyInt(), anyInt(), any(), any()))
+        .then(invocation -> emptyResult.clone());
+
+    Siblings dataset4Siblings = new Siblings();
+    dataset4Siblings.setPrimary(true);
+    dataset4Siblings.setSiblings(new UrnArray(ImmutableList.of(datasetThreeUrn)));
+
+    Siblings dataset3Siblings = new Siblings();
+    dataset3Siblings.setPrimary(false);
+    dataset3Siblings.setSiblings(new UrnArray(ImmutableList.of(datasetFourUrn)));
+
+    when(entityService.getLatestAspects(any(), eq(Set.of(SIBLINGS_ASPECT_NAME))))
+        .thenReturn(
+            ImmutableMap.of(
+                datasetFourUrn, ImmutableList.of(dataset4Siblings),
+                datasetThreeUrn, ImmutableList.of(dataset3Siblings)));
+
+    SiblingGraphService service = new SiblingGraphService(entityService, graphService, 100, 300);
+
+    // one batched read per level of the sibling group
+    service.getLineage(datasetFourUrn, LineageDirection.UPSTREAM, 0, 100, 1);
+    verify(entityService, times(2)).getLatestAspects(any(), any());
+
+    // served from the cache
+    service.getLineage(datasetFourUrn, LineageDirection.UPSTREAM, 0, 100, 1);
+    verify(entityService, times(2)).getLatestAspects(any(), any());
+
+    // only the invalidated sibling is read again
+    service.invalidateSiblings(datasetThreeUrn);
+    service.getLineage(datasetFourUrn, LineageDirection.UPSTREAM, 0, 100, 1);
+    verify(entityService, times(3)).getLatestAspects(any(), any());
+    verify(entityService, times(2)).getLatestAspects(eq(Set.of(datasetThreeUrn)), any());
+  }
+
   static Urn createFromString(@Nonnull String rawUrn) {
     try {
       return Urn.createFromString(rawUrn);
@@ -0,0 +1,47 @@
+package com.linkedin.metadata.search.elasticsearch;
+
+import com.linkedin.metadata.search.elasticsearch.indexbuilder.ESIndexBuilder;
+import com.linkedin.metadata.search.elasticsearch.update.ESBulkProcessor;
+import com.linkedin.metadata.timeseries.elastic.rollup.UsageRollupServiceTestBase;
+import io.datahubproject.test.search.config.SearchTestContainerConfiguration;
+import org.jetbrains.annotations.NotNull;
+import org.opensearch.client.RestHighLevelClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Import;
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+
+@Import({ElasticSearchSuite.class, SearchTestContainerConfiguration.class})
+public class UsageRollupServiceElasticSearchTest extends UsageRollupServiceTestBase {
+
+  @Autowired private RestHighLevelClient _searchClient;
+  @Autowired private ESBulkProcessor _bulkProcessor;
+
+  @Autowired
+  @Qualifier("searchIndexBuilder")
+  private ESIndexBuilder _esIndexBuilder;
+
+  @NotNull
+  @Override
+  protected RestHighLevelClient getSearchClient() {
+    return _searchClient;
+  }
+
+  @NotNull
+  @Override
+  protected ESBulkProcessor getBulkProcessor() {
+    return _bulkProcessor;
+  }
+
+  @NotNull
+  @Override
+  protected ESIndexBuilder getIndexBuilder() {
+    return _esIndexBuilder;
+  }
+
+  @Test
+  public void initTest() {
+    AssertJUnit.assertNotNull(_searchClient);
+  }
+}
@@ -17,18 +17,23 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import org.opensearch.OpenSearchException;
 import org.opensearch.action.admin.indices.alias.get.GetAliasesRequest;
 import org.opensearch.action.admin.indices.delete.DeleteIndexRequest;
+import org.opensearch.action.index.IndexRequest;
+import org.opensearch.action.support.WriteRequest;
 import org.opensearch.client.IndicesClient;
 import org.opensearch.client.RequestOptions;
 import org.opensearch.client.RestHighLevelClient;
 import org.opensearch.client.indices.GetIndexRequest;
 import org.opensearch.client.indices.GetIndexResponse;
 import org.opensearch.cluster.metadata.AliasMetadata;
+import org.opensearch.index.query.QueryBuilders;
 import org.opensearch.rest.RestStatus;
+import org.opensearch.script.Script;
 import org.springframework.test.context.testng.AbstractTestNGSpringContextTests;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.BeforeMethod;
@@ -178,6 +183,82 @@ public abstract class IndexBuilderTestBase extends AbstractTestNGSpringContextTe
         "Expected reindex on *changing* mappings");
   }
 
+  @Test
+  public void testMappingReindexCatchUp() throws Exception {
+    GitVersion gitVersion = new GitVersion("0.0.0-test", "123456", Optional.empty());
+    ESIndexBuilder enabledMappingReindex =
+        new ESIndexBuilder(
+            getSearchClient(),
+            1,
+            0,
+            0,
+            0,
+            Map.of(),
+            false,
+            true,
+            new ElasticSearchConfiguration(),
+            gitVersion);
+    enabledMappingReindex.buildIndex(
+        TEST_INDEX_NAME, SystemMetadataMappingsBuilder.getMappings(), Map.of());
+
+    Map<String, Object> newProps =
+        new HashMap<>(
+            (Map<String, Object>) SystemMetadataMappingsBuilder.getMappings().get("properties"));
+    newProps.put("urn", ImmutableMap.<String, Object>builder().put("type", "text").build());
+    AtomicLong catchUpSince = new AtomicLong();
+    ReindexConfig reindexConfig =
+        enabledMappingReindex.buildReindexState(
+            TEST_INDEX_NAME,
+            Map.of("properties", newProps),
+            Map.of(),
+            false,
+            since -> {
+              catchUpSince.set(since);
+              return Optional.of(QueryBuilders.matchAllQuery());
+            });
+    enabledMappingReindex.buildIndex(reindexConfig);
+
+    assertTrue(catchUpSince.get() > 0, "Expected catch-up after the copy");
+    String newIndex =
+        getTestIndex().getAliases().entrySet().stream()
+            .filter(
+                e ->
+                    e.getValue().stream()
+                        .anyMatch(aliasMeta -> aliasMeta.alias().equals(TEST_INDEX_NAME)))
+            .findFirst()
+            .get()
+            .getKey();
+    assertEquals(getTestIndex().getSetting(newIndex, "index.refresh_interval"), "0s");
+    assertEquals(getTestIndex().getSetting(newIndex, "index.number_of_replicas"), "0");
+  }
+
+  @Test
+  public void testCopyIndexFailsOnTaskError() throws Exception {
+    String destinationIndex = TEST_INDEX_NAME + "_copy";
+    testDefaultBuilder.buildIndex(TEST_INDEX_NAME, Map.of(), Map.of());
+    testDefaultBuilder.buildIndex(destinationIndex, Map.of(), Map.of());
+    getSearchClient()
+        .index(
+            new IndexRequest(TEST_INDEX_NAME)
+                .id("1")
+                .source(Map.of("field", "value"))
+                .setRefreshPolicy(WriteRequest.RefreshPolicy.IMMEDIATE),
+            RequestOptions.DEFAULT);
+
+    try {
+      // The task completes, with the script error in its stored result
+      assertThrows(
+          IllegalStateException.class,
+          () ->
+              testDefaultBuilder.copyIndex(
+                  TEST_INDEX_NAME,
+                  destinationIndex,
+                  new Script("throw new IllegalArgumentException('rejected')")));
+    } finally {
+      _indexClient.delete(new DeleteIndexRequest(destinationIndex), RequestOptions.DEFAULT);
+    }
+  }
+
   @Test
   public void testSettingsNumberOfShardsReindex() throws Exception {
     // Set test defaults
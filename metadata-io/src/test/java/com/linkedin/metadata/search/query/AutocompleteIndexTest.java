@@ -0,0 +1,160 @@
+package com.linkedin.metadata.search.query;
+
+import static com.linkedin.metadata.search.utils.QueryUtils.newFilter;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+
+import com.linkedin.common.urn.Urn;
+import com.linkedin.common.urn.UrnUtils;
+import com.linkedin.metadata.TestEntitySpecBuilder;
+import com.linkedin.metadata.models.EntitySpec;
+import com.linkedin.metadata.models.registry.EntityRegistry;
+import com.linkedin.metadata.query.AutoCompleteEntity;
+import com.linkedin.metadata.query.AutoCompleteResult;
+import com.linkedin.metadata.search.elasticsearch.query.AutocompleteIndex;
+import com.linkedin.metadata.search.utils.SearchUtils;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class AutocompleteIndexTest {
+
+  private static final EntitySpec ENTITY_SPEC = TestEntitySpecBuilder.getSpec();
+  private static final String ENTITY_NAME = ENTITY_SPEC.getName();
+
+  private AutocompleteIndex autocompleteIndex;
+
+  @BeforeMethod
+  public void setup() {
+    EntityRegistry entityRegistry = mock(EntityRegistry.class);
+    when(entityRegistry.getEntitySpecs()).thenReturn(Map.of(ENTITY_NAME, ENTITY_SPEC));
+    autocompleteIndex = new AutocompleteIndex(entityRegistry, 3);
+  }
+
+  private static Urn urn(String name) {
+    return UrnUtils.getUrn("urn:li:" + ENTITY_NAME + ":" + name);
+  }
+
+  private static Map<String, Object> document(String name, int popularity) {
+    return Map.of("urn", urn(name).toString(), "keyPart1", name, "feature2", popularity);
+  }
+
+  @SafeVarargs
+  private void build(Map<String, Object>... documents) {
+    autocompleteIndex.rebuild(ENTITY_NAME, consumer -> List.of(documents).forEach(consumer));
+  }
+
+  private List<Urn> complete(String query, int limit) {
+    AutoCompleteResult result =
+        autocompleteIndex.autoComplete(ENTITY_NAME, query, null, null, limit).orElseThrow();
+    return result.getEntities().stream()
+        .map(AutoCompleteEntity::getUrn)
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  public void testCompletesWordPrefixesByPopularity() {
+    build(
+        document("customer_orders", 5),
+        document("orders_daily", 20),
+        document("Customer.Accounts", 1),
+        document("inventory", 100));
+
+    assertEquals(complete("ord", 10), List.of(urn("orders_daily"), urn("customer_orders")));
+    assertEquals(
+        complete("CUSTOMER", 10), List.of(urn("customer_orders"), urn("Customer.Accounts")));
+    assertEquals(complete("customer ord", 10), List.of(urn("customer_orders")));
+    assertEquals(complete("o", 1), List.of(urn("orders_daily")));
+    assertEquals(
+        autocompleteIndex
+            .autoComplete(ENTITY_NAME, "customer", null, null, 10)
+            .orElseThrow()
+            .getSuggestions(),
+        List.of("customer_orders", "Customer.Accounts"));
+  }
+
+  @Test
+  public void testFallsBackToSearch() {
+    // Not built yet
+    assertFalse(autocompleteIndex.autoComplete(ENTITY_NAME, "ord", null, null, 10).isPresent());
+
+    build(document("customer_orders", 5));
+    assertFalse(autocompleteIndex.autoComplete(ENTITY_NAME, "xyz", null, null, 10).isPresent());
+    assertFalse(
+        autocompleteIndex
+            .autoComplete(ENTITY_NAME, "ord", null, newFilter("platform", "hive"), 10)
+            .isPresent());
+    assertFalse(
+        autocompleteIndex.autoComplete(ENTITY_NAME, "ord", "description", null, 10).isPresent());
+    assertFalse(autocompleteIndex.autoComplete("dataset", "ord", null, null, 10).isPresent());
+  }
+
+  @Test
+  public void testAppliesWritesSinceRebuild() {
+    build(document("customer_orders", 5), document("orders_daily", 20));
+
+    autocompleteIndex.upsertDocument(
+        ENTITY_NAME,
+        "{\"urn\":\""
+            + urn("orders_weekly")
+            + "\",\"keyPart1\":\"orders_weekly\",\"feature2\":50}");
+    autocompleteIndex.upsertDocument(
+        ENTITY_NAME, "{\"urn\":\"" + urn("orders_daily") + "\",\"keyPart1\":\"sales_daily\"}");
+    autocompleteIndex.deleteDocument(
+        ENTITY_NAME, SearchUtils.getDocId(urn("customer_orders")).orElseThrow());
+
+    assertEquals(complete("ord", 10), List.of(urn("orders_weekly")));
+    assertEquals(complete("sales", 10), List.of(urn("orders_daily")));
+
+    // A rebuild keeps the recent writes until the index is sure to have them
+    build(document("customer_orders", 5), document("orders_daily", 20));
+    assertEquals(complete("ord", 10), List.of(urn("orders_weekly")));
+  }
+
+  private void upsert(String name, String value) {
+    autocompleteIndex.upsertDocument(
+        ENTITY_NAME, "{\"urn\":\"" + urn(name) + "\",\"keyPart1\":\"" + value + "\"}");
+  }
+
+  @Test
+  public void testRewrittenValuesLoseTheirKeys() {
+    build(document("customer_orders", 5));
+
+    upsert("orders_weekly", "orders_weekly");
+    upsert("orders_weekly", "revenue_weekly");
+
+    assertEquals(complete("ord", 10), List.of(urn("customer_orders")));
+    assertEquals(complete("week", 10), List.of(urn("orders_weekly")));
+  }
+
+  @Test
+  public void testDeltaOverflowFallsBackToSearch() {
+    build(document("customer_orders", 5));
+    upsert("orders_1", "orders_1");
+    upsert("orders_2", "orders_2");
+    upsert("orders_3", "orders_3");
+    assertEquals(complete("ord", 10).size(), 4);
+
+    // Past the maximum delta size the entity type is searched until the next rebuild
+    upsert("orders_4", "orders_4");
+    assertFalse(autocompleteIndex.autoComplete(ENTITY_NAME, "ord", null, null, 10).isPresent());
+
+    build(document("customer_orders", 5), document("orders_4", 1));
+    assertEquals(complete("ord", 10), List.of(urn("customer_orders"), urn("orders_4")));
+  }
+
+  @Test
+  public void testPartialWritesKeepTheSnapshotWeight() {
+    build(document("sales_weekly", 5), document("orders_daily", 20));
+
+    // No search score fields, the weight of the rebuild still ranks the document
+    autocompleteIndex.upsertDocument(
+        ENTITY_NAME, "{\"urn\":\"" + urn("orders_daily") + "\",\"keyPart1\":\"sales_daily\"}");
+
+    assertEquals(complete("sales", 10), List.of(urn("orders_daily"), urn("sales_weekly")));
+  }
+}
@@ -0,0 +1,414 @@
+package com.linkedin.metadata.search.query;
+
+import static com.linkedin.metadata.Constants.BROWSE_PATHS_V2_ASPECT_NAME;
+import static com.linkedin.metadata.Constants.STATUS_ASPECT_NAME;
+import static com.linkedin.metadata.search.utils.QueryUtils.newFilter;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import com.linkedin.common.BrowsePathEntry;
+import com.linkedin.common.BrowsePathEntryArray;
+import com.linkedin.common.BrowsePathsV2;
+import com.linkedin.common.Status;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.common.urn.UrnUtils;
+import com.linkedin.metadata.browse.BrowseResultGroupV2;
+import com.linkedin.metadata.browse.BrowseResultV2;
+import com.linkedin.metadata.models.registry.EntityRegistry;
+import com.linkedin.metadata.search.elasticsearch.query.BrowseTreeIndex;
+import com.linkedin.metadata.search.elasticsearch.query.ESSearchDAO;
+import com.linkedin.metadata.search.elasticsearch.update.ESBulkProcessor;
+import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
+import com.linkedin.metadata.utils.elasticsearch.IndexConventionImpl;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.mockito.ArgumentCaptor;
+import org.opensearch.OpenSearchStatusException;
+import org.opensearch.action.DocWriteRequest;
+import org.opensearch.action.bulk.BulkRequest;
+import org.opensearch.action.bulk.BulkResponse;
+import org.opensearch.action.delete.DeleteRequest;
+import org.opensearch.action.get.GetRequest;
+import org.opensearch.action.get.GetResponse;
+import org.opensearch.action.index.IndexRequest;
+import org.opensearch.action.index.IndexResponse;
+import org.opensearch.action.search.SearchRequest;
+import org.opensearch.action.search.SearchResponse;
+import org.opensearch.action.update.UpdateRequest;
+import org.opensearch.client.RequestOptions;
+import org.opensearch.client.RestHighLevelClient;
+import org.opensearch.rest.RestStatus;
+import org.opensearch.search.SearchHit;
+import org.opensearch.search.SearchHits;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class BrowseTreeIndexTest {
+
+  private static final Urn DATASET =
+      UrnUtils.getUrn("urn:li:dataset:(urn:li:dataPlatform:hive,db.table,PROD)");
+  private static final String HIVE = "urn:li:dataPlatform:hive";
+  private static final IndexConvention INDEX_CONVENTION =
+      new IndexConventionImpl("browse_tree_test");
+
+  private RestHighLevelClient client;
+  private ESBulkProcessor bulkProcessor;
+  private EntityRegistry entityRegistry;
+  private BrowseTreeIndex browseTreeIndex;
+  // State documents by id, with their sequence numbers
+  private Map<String, Map<String, Object>> states;
+  private Map<String, Long> stateSeqNos;
+
+  @BeforeMethod
+  public void setup() throws Exception {
+    client = mock(RestHighLevelClient.class);
+    bulkProcessor = mock(ESBulkProcessor.class);
+    entityRegistry = mock(EntityRegistry.class);
+    mockGet("_ready", Map.of("rebuiltAt", System.currentTimeMillis()));
+    mockStates();
+    browseTreeIndex =
+        new BrowseTreeIndex(client, INDEX_CONVENTION, bulkProcessor, entityRegistry, true, 3, 0, 0);
+  }
+
+  private void mockGet(String id, Map<String, Object> source) throws Exception {
+    GetResponse response = mock(GetResponse.class);
+    when(response.isExists()).thenReturn(source != null);
+    when(response.getSourceAsMap()).thenReturn(source);
+    when(client.get(argThat(request -> request != null && id.equals(request.id())), any()))
+        .thenReturn(response);
+  }
+
+  private static boolean isState(String id) {
+    return id != null && id.matches("[0-9a-f]{32}");
+  }
+
+  // Keeps state documents in memory, with the conflicts of conditional writes
+  private void mockStates() throws Exception {
+    states = new HashMap<>();
+    stateSeqNos = new HashMap<>();
+    when(client.get(argThat(request -> request != null && isState(request.id())), any()))
+        .thenAnswer(
+            invocation -> {
+              String id = ((GetRequest) invocation.getArgument(0)).id();
+              GetResponse response = mock(GetResponse.class);
+              when(response.isExists()).thenReturn(states.containsKey(id));
+              when(response.getSourceAsMap()).thenReturn(states.get(id));
+              when(response.getSeqNo()).thenReturn(stateSeqNos.getOrDefault(id, -2L));
+              when(response.getPrimaryTerm()).thenReturn(1L);
+              return response;
+            });
+    when(client.index(argThat(request -> request != null && isState(request.id())), any()))
+        .thenAnswer(
+            invocation -> {
+              IndexRequest request = invocation.getArgument(0);
+              boolean conflict =
+                  request.opType() == DocWriteRequest.OpType.CREATE
+                      ? states.containsKey(request.id())
+                      : !stateSeqNos.containsKey(request.id())
+                          || stateSeqNos.get(request.id()) != request.ifSeqNo();
+              if (conflict) {
+                throw new OpenSearchStatusException("conflict", RestStatus.CONFLICT);
+              }
+              states.put(request.id(), request.sourceAsMap());
+              stateSeqNos.merge(request.id(), 0L, (seqNo, ignored) -> seqNo + 1);
+              return mock(IndexResponse.class);
+            });
+  }
+
+  // The search document of the dataset, as it was before the change being applied
+  private void mockDocument(Map<String, Object> source) throws Exception {
+    GetResponse response = mock(GetResponse.class);
+    when(response.isExists()).thenReturn(true);
+    when(response.getSourceAsMap()).thenReturn(source);
+    when(client.get(
+            argThat(
+                request ->
+                    request != null
+                        && INDEX_CONVENTION.getEntityIndexName("dataset").equals(request.index())),
+            any()))
+        .thenReturn(response);
+  }
+
+  private static BrowsePathsV2 browsePaths(String... ids) {
+    BrowsePathEntryArray entries = new BrowsePathEntryArray();
+    for (String id : ids) {
+      entries.add(new BrowsePathEntry().setId(id));
+    }
+    return new BrowsePathsV2().setPath(entries);
+  }
+
+  private List<DocWriteRequest> captureWrites() {
+    ArgumentCaptor<DocWriteRequest> captor = ArgumentCaptor.forClass(DocWriteRequest.class);
+    verify(bulkProcessor, atLeast(0)).add(captor.capture());
+    return captor.getAllValues();
+  }
+
+  private List<Map<String, Object>> captureDeltas() {
+    return captureWrites().stream()
+        .map(BrowseTreeIndexTest::countDeltas)
+        .collect(Collectors.toList());
+  }
+
+  private static Map<String, Object> countDeltas(DocWriteRequest request) {
+    UpdateRequest update = (UpdateRequest) request;
+    String path = (String) update.upsertRequest().sourceAsMap().get("path");
+    return Map.of(
+        "path",
+        path,
+        "count",
+        update.script().getParams().get("count"),
+        "leafCount",
+        update.script().getParams().get("leafCount"));
+  }
+
+  @Test
+  public void testMovesEntityToNewPath() throws Exception {
+    mockDocument(Map.of("browsePathV2", "␟a␟b", "platform", HIVE));
+
+    browseTreeIndex.onAspectChanged(
+        DATASET, BROWSE_PATHS_V2_ASPECT_NAME, browsePaths("a", "b"), browsePaths("a", "c"));
+
+    // The shared parent is left alone, the old leaf goes down and the new one up
+    assertEquals(
+        captureDeltas(),
+        List.of(
+            Map.of("path", "␟a␟b", "count", -1L, "leafCount", -1L),
+            Map.of("path", "␟a␟c", "count", 1L, "leafCount", 1L)));
+  }
+
+  @Test
+  public void testSkipsChangeAlreadyApplied() throws Exception {
+    mockDocument(Map.of("browsePathV2", "␟a␟b", "platform", HIVE));
+    browseTreeIndex.onAspectChanged(
+        DATASET, BROWSE_PATHS_V2_ASPECT_NAME, browsePaths("a", "b"), browsePaths("a", "c"));
+    assertEquals(captureWrites().size(), 2);
+
+    // Delivered again, the state already holds the new path
+    browseTreeIndex.onAspectChanged(
+        DATASET, BROWSE_PATHS_V2_ASPECT_NAME, browsePaths("a", "b"), browsePaths("a", "c"));
+    assertEquals(captureWrites().size(), 2);
+
+    // Nor is one from a value the state no longer holds
+    browseTreeIndex.onAspectChanged(
+        DATASET, BROWSE_PATHS_V2_ASPECT_NAME, null, browsePaths("a", "c"));
+    assertEquals(captureWrites().size(), 2);
+  }
+
+  @Test
+  public void testSoftDeleteRemovesEntity() throws Exception {
+    mockDocument(Map.of("browsePathV2", "␟a␟b", "platform", HIVE, "removed", false));
+    browseTreeIndex.onAspectChanged(
+        DATASET, STATUS_ASPECT_NAME, new Status().setRemoved(false), new Status().setRemoved(true));
+    assertEquals(
+        captureDeltas(),
+        List.of(
+            Map.of("path", "␟a", "count", -1L, "leafCount", 0L),
+            Map.of("path", "␟a␟b", "count", -1L, "leafCount", -1L)));
+
+    // Browse path changes of a soft deleted entity are not counted
+    browseTreeIndex.onAspectChanged(
+        DATASET, BROWSE_PATHS_V2_ASPECT_NAME, browsePaths("a", "b"), browsePaths("a", "c"));
+    // Neither is it removed again
+    browseTreeIndex.onAspectChanged(
+        DATASET, STATUS_ASPECT_NAME, new Status().setRemoved(false), new Status().setRemoved(true));
+    assertEquals(captureWrites().size(), 2);
+
+    // Restored under the path it was given while removed
+    browseTreeIndex.onAspectChanged(
+        DATASET, STATUS_ASPECT_NAME, new Status().setRemoved(true), new Status().setRemoved(false));
+    assertEquals(
+        captureDeltas().subList(2, 4),
+        List.of(
+            Map.of("path", "␟a", "count", 1L, "leafCount", 0L),
+            Map.of("path", "␟a␟c", "count", 1L, "leafCount", 1L)));
+  }
+
+  @Test
+  public void testBackToBackChangesWithStaleDocument() throws Exception {
+    // The search document is not written again before the later changes
+    mockDocument(Map.of("browsePathV2", "␟a", "platform", HIVE));
+
+    browseTreeIndex.onAspectChanged(
+        DATASET, BROWSE_PATHS_V2_ASPECT_NAME, browsePaths("a"), browsePaths("b"));
+    browseTreeIndex.onAspectChanged(
+        DATASET, BROWSE_PATHS_V2_ASPECT_NAME, browsePaths("b"), browsePaths("c"));
+    browseTreeIndex.onAspectChanged(
+        DATASET, STATUS_ASPECT_NAME, new Status().setRemoved(false), new Status().setRemoved(true));
+    // Already out of the tree
+    browseTreeIndex.onEntityDeleted(DATASET);
+
+    assertEquals(
+        captureDeltas(),
+        List.of(
+            Map.of("path", "␟a", "count", -1L, "leafCount", -1L),
+            Map.of("path", "␟b", "count", 1L, "leafCount", 1L),
+            Map.of("path", "␟b", "count", -1L, "leafCount", -1L),
+            Map.of("path", "␟c", "count", 1L, "leafCount", 1L),
+            Map.of("path", "␟c", "count", -1L, "leafCount", -1L)));
+  }
+
+  @Test
+  public void testRetriesConflictingChange() throws Exception {
+    mockDocument(Map.of("browsePathV2", "␟a", "platform", HIVE));
+    browseTreeIndex.onAspectChanged(
+        DATASET, BROWSE_PATHS_V2_ASPECT_NAME, browsePaths("a"), browsePaths("b"));
+    // Another instance applies the next change between the read and the write of the state
+    String id = states.keySet().iterator().next();
+    when(client.get(argThat(request -> request != null && id.equals(request.id())), any()))
+        .thenAnswer(
+            invocation -> {
+              Map<String, Object> source = states.get(id);
+              long seqNo = stateSeqNos.get(id);
+              GetResponse response = mock(GetResponse.class);
+              when(response.isExists()).thenReturn(true);
+              when(response.getSourceAsMap()).thenReturn(source);
+              when(response.getSeqNo()).thenReturn(seqNo);
+              when(response.getPrimaryTerm()).thenReturn(1L);
+              if ("␟b".equals(source.get("browsePathV2"))) {
+                states.put(id, Map.of("browsePathV2", "␟c", "platform", HIVE, "removed", false));
+                stateSeqNos.put(id, seqNo + 1);
+              }
+              return response;
+            });
+
+    browseTreeIndex.onAspectChanged(
+        DATASET, BROWSE_PATHS_V2_ASPECT_NAME, browsePaths("b"), browsePaths("d"));
+
+    // Read again after the conflict, and skipped as the state moved on
+    assertEquals(captureWrites().size(), 2);
+    assertEquals(states.get(id).get("browsePathV2"), "␟c");
+  }
+
+  @Test
+  public void testRebuildCountsEveryPrefix() throws Exception {
+    BulkResponse bulkResponse = mock(BulkResponse.class);
+    when(client.bulk(any(BulkRequest.class), eq(RequestOptions.DEFAULT))).thenReturn(bulkResponse);
+
+    browseTreeIndex.rebuild(
+        "dataset",
+        consumer ->
+            List.of(
+                    Map.<String, Object>of("browsePathV2", "␟a␟b", "platform", HIVE),
+                    Map.<String, Object>of("browsePathV2", "␟a", "platform", HIVE),
+                    Map.<String, Object>of("urn", DATASET.toString()))
+                .forEach(consumer));
+
+    ArgumentCaptor<BulkRequest> captor = ArgumentCaptor.forClass(BulkRequest.class);
+    verify(client).bulk(captor.capture(), eq(RequestOptions.DEFAULT));
+    Map<String, Map<String, Object>> nodes =
+        captor.getValue().requests().stream()
+            .map(request -> ((IndexRequest) request).sourceAsMap())
+            .collect(Collectors.toMap(node -> (String) node.get("path"), node -> node));
+    assertEquals(nodes.keySet(), Set.of("␟a", "␟a␟b"));
+    assertEquals(((Number) nodes.get("␟a").get("count")).longValue(), 2L);
+    assertEquals(((Number) nodes.get("␟a").get("leafCount")).longValue(), 1L);
+    assertEquals(nodes.get("␟a").get("parentPath"), "");
+    assertEquals(((Number) nodes.get("␟a␟b").get("count")).longValue(), 1L);
+    assertEquals(nodes.get("␟a␟b").get("parentPath"), "␟a");
+  }
+
+  @Test
+  public void testRebuildUnderLease() throws Exception {
+    ESSearchDAO searchDAO = mock(ESSearchDAO.class);
+    when(entityRegistry.getEntitySpecs()).thenReturn(Map.of());
+    when(client.index(any(IndexRequest.class), eq(RequestOptions.DEFAULT)))
+        .thenReturn(mock(IndexResponse.class));
+
+    // Counted recently
+    browseTreeIndex.rebuildIfDue(searchDAO, 100, 24);
+    verify(client, never()).index(any(IndexRequest.class), any(RequestOptions.class));
+
+    // Due, but another instance is counting
+    mockGet("_ready", Map.of("rebuiltAt", 0L));
+    mockGet(
+        "_rebuildLease",
+        Map.of("owner", "other", "leaseUntil", System.currentTimeMillis() + 60000));
+    browseTreeIndex.rebuildIfDue(searchDAO, 100, 24);
+    verify(client, never()).index(any(IndexRequest.class), any(RequestOptions.class));
+
+    // Counted under a new lease, released after the tree is marked ready
+    mockGet("_rebuildLease", null);
+    browseTreeIndex.rebuildIfDue(searchDAO, 100, 24);
+    ArgumentCaptor<IndexRequest> captor = ArgumentCaptor.forClass(IndexRequest.class);
+    verify(client, atLeast(2)).index(captor.capture(), eq(RequestOptions.DEFAULT));
+    assertEquals(captor.getAllValues().get(0).id(), "_rebuildLease");
+    assertEquals(captor.getAllValues().get(0).opType(), DocWriteRequest.OpType.CREATE);
+    assertEquals(captor.getAllValues().get(1).id(), "_ready");
+    verify(client).delete(any(DeleteRequest.class), eq(RequestOptions.DEFAULT));
+  }
+
+  private void mockNodes(Map<String, Object>... nodes) throws Exception {
+    SearchHit[] hits = new SearchHit[nodes.length];
+    for (int i = 0; i < nodes.length; i++) {
+      hits[i] = mock(SearchHit.class);
+      when(hits[i].getSourceAsMap()).thenReturn(nodes[i]);
+    }
+    SearchHits searchHits = mock(SearchHits.class);
+    when(searchHits.getHits()).thenReturn(hits);
+    SearchResponse searchResponse = mock(SearchResponse.class);
+    when(searchResponse.getHits()).thenReturn(searchHits);
+    when(client.search(any(SearchRequest.class), eq(RequestOptions.DEFAULT)))
+        .thenReturn(searchResponse);
+  }
+
+  private static Map<String, Object> node(
+      String platform, String path, long count, long leafCount) {
+    return Map.of("platform", platform, "path", path, "count", count, "leafCount", leafCount);
+  }
+
+  @Test
+  public void testBrowseSumsChildrenAcrossPlatforms() throws Exception {
+    mockNodes(
+        node(HIVE, "␟a␟b", 3, 1),
+        node("urn:li:dataPlatform:snowflake", "␟a␟b", 2, 2),
+        node(HIVE, "␟a␟c", 4, 4),
+        node(HIVE, "␟a␟urn:li:container:x", 4, 3));
+
+    BrowseResultV2 result =
+        browseTreeIndex.browse(List.of("dataset"), "␟a", null, 0, 10).orElseThrow();
+
+    assertEquals(result.getMetadata().getTotalNumEntities(), 13L);
+    assertEquals(result.getNumGroups(), 3);
+    List<BrowseResultGroupV2> groups = result.getGroups();
+    assertEquals(
+        groups.stream().map(BrowseResultGroupV2::getName).collect(Collectors.toList()),
+        List.of("b", "c", "urn:li:container:x"));
+    assertEquals(groups.get(0).getCount(), 5L);
+    assertTrue(groups.get(0).isHasSubGroups());
+    assertFalse(groups.get(1).isHasSubGroups());
+    assertEquals(groups.get(2).getUrn(), UrnUtils.getUrn("urn:li:container:x"));
+
+    result = browseTreeIndex.browse(List.of("dataset"), "␟a", null, 2, 10).orElseThrow();
+    assertEquals(result.getGroups().size(), 1);
+  }
+
+  @Test
+  public void testBrowseFallsBack() throws Exception {
+    // Filters on other fields need the search
+    assertFalse(
+        browseTreeIndex
+            .browse(List.of("dataset"), "", newFilter("origin", "PROD"), 0, 10)
+            .isPresent());
+    verify(client, never()).search(any(SearchRequest.class), any(RequestOptions.class));
+
+    // So do platform filters when some entities have no known platform
+    mockNodes(node(HIVE, "␟a", 1, 1), node("", "␟b", 1, 1));
+    assertFalse(
+        browseTreeIndex
+            .browse(List.of("dataset"), "", newFilter("platform", HIVE), 0, 10)
+            .isPresent());
+    assertTrue(browseTreeIndex.browse(List.of("dataset"), "", null, 0, 10).isPresent());
+  }
+}
@@ -1,6 +1,8 @@
 package com.linkedin.metadata.search.query.request;
 
 import static com.linkedin.metadata.utils.SearchUtil.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 import static org.testng.Assert.*;
 
 import com.google.common.collect.ImmutableList;
@@ -10,6 +12,7 @@ import com.linkedin.metadata.aspect.AspectRetriever;
 import com.linkedin.metadata.config.search.ExactMatchConfiguration;
 import com.linkedin.metadata.config.search.PartialConfiguration;
 import com.linkedin.metadata.config.search.SearchConfiguration;
+import com.linkedin.metadata.config.search.SearchExecutionConfiguration;
 import com.linkedin.metadata.config.search.WordGramConfiguration;
 import com.linkedin.metadata.models.EntitySpec;
 import com.linkedin.metadata.query.SearchFlags;
@@ -19,6 +22,7 @@ import com.linkedin.metadata.query.filter.ConjunctiveCriterionArray;
 import com.linkedin.metadata.query.filter.Criterion;
 import com.linkedin.metadata.query.filter.CriterionArray;
 import com.linkedin.metadata.query.filter.Filter;
+import com.linkedin.metadata.search.SearchEntity;
 import com.linkedin.metadata.search.elasticsearch.query.request.SearchRequestHandler;
 import io.datahubproject.test.search.config.SearchCommonTestConfiguration;
 import java.util.ArrayList;
@@ -31,12 +35,16 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
+import org.apache.lucene.search.TotalHits;
 import org.opensearch.action.search.SearchRequest;
+import org.opensearch.action.search.SearchResponse;
 import org.opensearch.index.query.BoolQueryBuilder;
 import org.opensearch.index.query.ExistsQueryBuilder;
 import org.opensearch.index.query.MatchQueryBuilder;
 import org.opensearch.index.query.MultiMatchQueryBuilder;
 import org.opensearch.index.query.TermsQueryBuilder;
+import org.opensearch.search.SearchHit;
+import org.opensearch.search.SearchHits;
 import org.opensearch.search.aggregations.AggregationBuilder;
 import org.opensearch.search.aggregations.AggregationBuilders;
 import org.opensearch.search.aggregations.bucket.terms.TermsAggregationBuilder;
@@ -195,6 +203,54 @@ public class SearchRequestHandlerTest extends AbstractTestNGSpringContextTests {
         });
   }
 
+  @Test
+  public void testSplitAggregations() {
+    SearchRequestHandler requestHandler =
+        SearchRequestHandler.getBuilder(
+            TestEntitySpecBuilder.getSpec(), testQueryConfig, null, aspectRetriever);
+    assertNull(requestHandler.getFacetRequest("testQuery", null, new SearchFlags(), null));
+
+    SearchExecutionConfiguration execution = new SearchExecutionConfiguration();
+    execution.setSplitAggregations(true);
+    execution.setStickyPreference(true);
+    execution.setTrackTotalHitsUpTo(1000);
+    testQueryConfig.setExecution(execution);
+    try {
+      SearchRequest firstPage =
+          requestHandler.getSearchRequest(
+              "testQuery", null, null, 0, 10, new SearchFlags().setFulltext(false), null);
+      SearchRequest secondPage =
+          requestHandler.getSearchRequest(
+              "testQuery", null, null, 10, 10, new SearchFlags().setFulltext(false), null);
+      SearchRequest facetRequest =
+          requestHandler.getFacetRequest(
+              "testQuery", null, new SearchFlags().setFulltext(false), null);
+
+      // Hits are fetched without the facets, which come from a request the shard cache can keep
+      assertNull(firstPage.source().aggregations());
+      assertEquals(firstPage.source().trackTotalHitsUpTo(), Integer.valueOf(1000));
+      assertEquals(facetRequest.source().size(), 0);
+      assertEquals(facetRequest.source().aggregations().getAggregatorFactories().size(), 3);
+      assertEquals(facetRequest.source().query(), firstPage.source().query());
+      assertTrue(facetRequest.requestCache());
+
+      // Every page of the search is sent to the same shard copies
+      assertNotNull(firstPage.preference());
+      assertEquals(secondPage.preference(), firstPage.preference());
+      assertEquals(facetRequest.preference(), firstPage.preference());
+      SearchRequest otherQuery =
+          requestHandler.getSearchRequest(
+              "otherQuery", null, null, 0, 10, new SearchFlags().setFulltext(false), null);
+      assertNotEquals(otherQuery.preference(), firstPage.preference());
+
+      assertNull(
+          requestHandler.getFacetRequest(
+              "testQuery", null, new SearchFlags().setSkipAggregates(true), null));
+    } finally {
+      testQueryConfig.setExecution(null);
+    }
+  }
+
   @Test
   public void testAggregationsInSearch() {
     SearchRequestHandler requestHandler =
@@ -635,6 +691,53 @@ public class SearchRequestHandlerTest extends AbstractTestNGSpringContextTests {
     assertEquals(((ExistsQueryBuilder) mustHaveV1.must().get(0)).fieldName(), "browsePaths");
   }
 
+  @Test
+  public void testFetchExtraFields() {
+    SearchRequestHandler requestHandler =
+        SearchRequestHandler.getBuilder(
+            TestEntitySpecBuilder.getSpec(), testQueryConfig, null, aspectRetriever);
+
+    SearchRequest defaultRequest =
+        requestHandler.getSearchRequest(
+            "testQuery", null, null, 0, 10, new SearchFlags().setFulltext(false), null);
+    assertEquals(defaultRequest.source().fetchSource().includes(), new String[] {"urn"});
+
+    SearchRequest extraFieldsRequest =
+        requestHandler.getSearchRequest(
+            "testQuery",
+            null,
+            null,
+            0,
+            10,
+            new SearchFlags()
+                .setFulltext(false)
+                .setFetchExtraFields(
+                    new StringArray("textFieldOverride", "urn", "nestedArrayField")),
+            null);
+    assertEquals(
+        extraFieldsRequest.source().fetchSource().includes(),
+        new String[] {"urn", "textFieldOverride", "nestedArrayField"});
+
+    SearchHit hit = mock(SearchHit.class);
+    when(hit.getSourceAsMap())
+        .thenReturn(
+            Map.of(
+                "urn", "urn:li:dataset:(urn:li:dataPlatform:hive,test,PROD)",
+                "textFieldOverride", "override",
+                "nestedArrayField", List.of("a", "b")));
+    when(hit.getHighlightFields()).thenReturn(Collections.emptyMap());
+    when(hit.getMatchedQueries()).thenReturn(new String[0]);
+    SearchHits hits =
+        new SearchHits(new SearchHit[] {hit}, new TotalHits(1, TotalHits.Relation.EQUAL_TO), 1.0f);
+    SearchResponse response = mock(SearchResponse.class);
+    when(response.getHits()).thenReturn(hits);
+
+    SearchEntity entity = requestHandler.extractResult(response, null, 0, 10).getEntities().get(0);
+    assertEquals(entity.getExtraFields().get("textFieldOverride"), "override");
+    assertEquals(entity.getExtraFields().get("nestedArrayField"), "[\"a\",\"b\"]");
+    assertFalse(entity.getExtraFields().containsKey("urn"));
+  }
+
   private BoolQueryBuilder getQuery(final Criterion filterCriterion) {
     final Filter filter =
         new Filter()
@@ -0,0 +1,74 @@
+package com.linkedin.metadata.timeseries.elastic;
+
+import static com.linkedin.metadata.search.utils.QueryUtils.newCriterion;
+import static org.testng.Assert.assertEquals;
+
+import com.linkedin.metadata.query.filter.Condition;
+import com.linkedin.metadata.query.filter.ConjunctiveCriterion;
+import com.linkedin.metadata.query.filter.ConjunctiveCriterionArray;
+import com.linkedin.metadata.query.filter.Criterion;
+import com.linkedin.metadata.query.filter.CriterionArray;
+import com.linkedin.metadata.query.filter.Filter;
+import com.linkedin.util.Pair;
+import java.util.Arrays;
+import org.testng.annotations.Test;
+
+public class ElasticSearchTimeseriesAspectServiceTest {
+
+  private static Criterion timestamp(Condition condition, long value) {
+    return newCriterion("timestampMillis", String.valueOf(value), condition);
+  }
+
+  private static ConjunctiveCriterion and(Criterion... criteria) {
+    return new ConjunctiveCriterion().setAnd(new CriterionArray(Arrays.asList(criteria)));
+  }
+
+  private static Filter or(ConjunctiveCriterion... conjunctions) {
+    return new Filter().setOr(new ConjunctiveCriterionArray(Arrays.asList(conjunctions)));
+  }
+
+  @Test
+  public void testTimeRangeOfConjunction() {
+    Filter filter =
+        or(
+            and(
+                newCriterion("urn", "urn:li:dataset:(urn:li:dataPlatform:hive,table,PROD)"),
+                timestamp(Condition.GREATER_THAN_OR_EQUAL_TO, 100L),
+                timestamp(Condition.GREATER_THAN, 150L),
+                timestamp(Condition.LESS_THAN_OR_EQUAL_TO, 300L)));
+
+    // The tightest bound of a conjunction is the one that counts
+    assertEquals(ElasticSearchTimeseriesAspectService.getTimeRange(filter), Pair.of(150L, 300L));
+  }
+
+  @Test
+  public void testTimeRangeOfDisjunction() {
+    Filter filter =
+        or(
+            and(
+                timestamp(Condition.GREATER_THAN_OR_EQUAL_TO, 100L),
+                timestamp(Condition.LESS_THAN_OR_EQUAL_TO, 200L)),
+            and(timestamp(Condition.GREATER_THAN_OR_EQUAL_TO, 400L)));
+
+    // Covers every conjunction, which leaves the end open when one of them does
+    assertEquals(ElasticSearchTimeseriesAspectService.getTimeRange(filter), Pair.of(100L, null));
+  }
+
+  @Test
+  public void testTimeRangeIgnoresOtherCriteria() {
+    Criterion negated = timestamp(Condition.GREATER_THAN, 100L).setNegated(true);
+    Criterion notNumber = newCriterion("timestampMillis", "now", Condition.LESS_THAN);
+    Criterion equal = timestamp(Condition.EQUAL, 100L);
+
+    assertEquals(
+        ElasticSearchTimeseriesAspectService.getTimeRange(or(and(negated, notNumber, equal))),
+        Pair.of(null, null));
+    assertEquals(ElasticSearchTimeseriesAspectService.getTimeRange(null), Pair.of(null, null));
+    assertEquals(
+        ElasticSearchTimeseriesAspectService.getTimeRange(
+            new Filter()
+                .setCriteria(
+                    new CriterionArray(Arrays.asList(timestamp(Condition.LESS_THAN, 500L))))),
+        Pair.of(null, 500L));
+  }
+}
@@ -0,0 +1,146 @@
+package com.linkedin.metadata.timeseries.elastic.indexbuilder;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import com.linkedin.metadata.config.search.TimeseriesPartitionConfiguration;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import org.opensearch.client.IndicesClient;
+import org.opensearch.client.RequestOptions;
+import org.opensearch.client.RestHighLevelClient;
+import org.opensearch.client.indices.GetIndexRequest;
+import org.opensearch.client.indices.GetIndexResponse;
+import org.testng.annotations.Test;
+
+public class TimeseriesIndexPartitionsTest {
+
+  private static final String ALIAS = "dataset_datasetprofileaspect_v1";
+
+  private static TimeseriesIndexPartitions partitions(String interval) {
+    return partitions(mock(RestHighLevelClient.class), interval, 0);
+  }
+
+  private static TimeseriesIndexPartitions partitions(
+      RestHighLevelClient client, String interval, int listCacheSeconds) {
+    TimeseriesPartitionConfiguration configuration = new TimeseriesPartitionConfiguration();
+    configuration.setEnabled(true);
+    configuration.setInterval(interval);
+    configuration.setListCacheSeconds(listCacheSeconds);
+    return new TimeseriesIndexPartitions(client, configuration);
+  }
+
+  private static IndicesClient mockIndices(RestHighLevelClient client) {
+    IndicesClient indices = mock(IndicesClient.class);
+    when(client.indices()).thenReturn(indices);
+    return indices;
+  }
+
+  private static long millis(String instant) {
+    return Instant.parse(instant).toEpochMilli();
+  }
+
+  @Test
+  public void testPartitionStart() {
+    long timestamp = millis("2024-05-16T23:59:59Z");
+
+    assertEquals(partitions("DAYS").getPartitionStart(timestamp), LocalDate.of(2024, 5, 16));
+    assertEquals(partitions("WEEKS").getPartitionStart(timestamp), LocalDate.of(2024, 5, 13));
+    assertEquals(partitions("MONTHS").getPartitionStart(timestamp), LocalDate.of(2024, 5, 1));
+    assertEquals(partitions("months").getWriteIndexName(ALIAS, timestamp), ALIAS + "_p20240501");
+  }
+
+  @Test
+  public void testParsePartitionStart() {
+    assertEquals(
+        TimeseriesIndexPartitions.parsePartitionStart(ALIAS, ALIAS + "_p20240501"),
+        Optional.of(LocalDate.of(2024, 5, 1)));
+    assertEquals(
+        TimeseriesIndexPartitions.parsePartitionStart(ALIAS, ALIAS + "_p20240501_1715000000000"),
+        Optional.of(LocalDate.of(2024, 5, 1)));
+    assertTrue(TimeseriesIndexPartitions.parsePartitionStart(ALIAS, ALIAS).isEmpty());
+    assertTrue(
+        TimeseriesIndexPartitions.parsePartitionStart(ALIAS, ALIAS + "_1715000000000").isEmpty());
+    assertTrue(
+        TimeseriesIndexPartitions.parsePartitionStart(
+                ALIAS, ALIAS + "_p20240501_clone_1715000000000")
+            .isEmpty());
+  }
+
+  @Test
+  public void testSelectPartitionsOverlappingRange() {
+    TimeseriesIndexPartitions partitions = partitions("MONTHS");
+    List<LocalDate> existing =
+        List.of(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 4, 1), LocalDate.of(2024, 5, 1));
+
+    assertEquals(
+        partitions.selectPartitions(
+            ALIAS, existing, millis("2024-04-30T00:00:00Z"), millis("2024-05-01T00:00:00Z")),
+        List.of(ALIAS + "_p20240401", ALIAS + "_p20240501"));
+    assertEquals(
+        partitions.selectPartitions(ALIAS, existing, millis("2024-04-01T00:00:00Z"), null),
+        List.of(ALIAS + "_p20240401", ALIAS + "_p20240501"));
+    assertEquals(
+        partitions.selectPartitions(ALIAS, existing, null, millis("2024-03-31T23:59:59Z")),
+        List.of(ALIAS + "_p20240301"));
+    assertTrue(
+        partitions
+            .selectPartitions(
+                ALIAS, existing, millis("2024-06-01T00:00:00Z"), millis("2024-06-02T00:00:00Z"))
+            .isEmpty());
+  }
+
+  @Test
+  public void testQueriesWholeAliasWhenPartitionsCannotBeListed() throws Exception {
+    RestHighLevelClient client = mock(RestHighLevelClient.class);
+    IndicesClient indices = mockIndices(client);
+    when(indices.get(any(GetIndexRequest.class), any(RequestOptions.class)))
+        .thenThrow(new IOException("unavailable"));
+    long start = millis("2024-04-01T00:00:00Z");
+    long end = millis("2024-05-01T00:00:00Z");
+
+    assertEquals(
+        partitions(client, "MONTHS", 0).getQueryIndexNames(ALIAS, start, end),
+        new String[] {ALIAS});
+
+    // Failures of the cache loader come wrapped in an unchecked exception
+    doThrow(new IllegalStateException("unavailable"))
+        .when(indices)
+        .get(any(GetIndexRequest.class), any(RequestOptions.class));
+    assertEquals(
+        partitions(client, "MONTHS", 60).getQueryIndexNames(ALIAS, start, end),
+        new String[] {ALIAS});
+  }
+
+  @Test
+  public void testWrittenPartitionIsQueriedBeforeCacheExpires() throws Exception {
+    RestHighLevelClient client = mock(RestHighLevelClient.class);
+    IndicesClient indices = mockIndices(client);
+    GetIndexResponse response = mock(GetIndexResponse.class);
+    when(response.getIndices()).thenReturn(new String[] {ALIAS + "_p20240501"});
+    when(indices.get(any(GetIndexRequest.class), any(RequestOptions.class))).thenReturn(response);
+    TimeseriesIndexPartitions partitions = partitions(client, "MONTHS", 60);
+    long start = millis("2024-03-10T00:00:00Z");
+    long end = millis("2024-05-20T00:00:00Z");
+
+    assertEquals(
+        partitions.getQueryIndexNames(ALIAS, start, end), new String[] {ALIAS + "_p20240501"});
+
+    // A late event creates an older partition
+    assertEquals(
+        partitions.getWriteIndexName(ALIAS, millis("2024-03-15T00:00:00Z")), ALIAS + "_p20240301");
+    assertEquals(
+        partitions.getQueryIndexNames(ALIAS, start, end),
+        new String[] {ALIAS + "_p20240301", ALIAS + "_p20240501"});
+    verify(indices, times(1)).get(any(GetIndexRequest.class), any(RequestOptions.class));
+  }
+}
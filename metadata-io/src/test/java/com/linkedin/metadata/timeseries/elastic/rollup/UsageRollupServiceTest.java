@@ -0,0 +1,93 @@
+package com.linkedin.metadata.timeseries.elastic.rollup;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import com.linkedin.metadata.timeseries.elastic.rollup.UsageRollupService.Granularity;
+import com.linkedin.metadata.timeseries.elastic.rollup.UsageRollupService.Period;
+import com.linkedin.metadata.timeseries.elastic.rollup.UsageRollupService.Plan;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.testng.annotations.Test;
+
+public class UsageRollupServiceTest {
+
+  private static final String URN = "urn:li:dataset:(urn:li:dataPlatform:hive,db.table,PROD)";
+
+  private static long millis(String instant) {
+    return Instant.parse(instant).toEpochMilli();
+  }
+
+  private static List<String> describe(Plan plan) {
+    return plan.getPeriods().stream()
+        .map(period -> period.getGranularity() + " " + Instant.ofEpochMilli(period.getStart()))
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  public void testPlanUsesCoarsestClosedPeriods() {
+    Plan plan =
+        UsageRollupService.plan(
+            URN,
+            millis("2023-12-30T12:00:00Z"),
+            millis("2024-02-03T00:00:00Z"),
+            millis("2024-02-02T00:00:00Z"));
+
+    assertEquals(
+        describe(plan),
+        List.of(
+            "DAY 2023-12-31T00:00:00Z", "MONTH 2024-01-01T00:00:00Z", "DAY 2024-02-01T00:00:00Z"));
+    // The partial first day and the day that has not ended yet come from the raw buckets
+    assertEquals(plan.getRawRanges().size(), 2);
+    assertEquals(plan.getRawRanges().get(0)[0], millis("2023-12-30T12:00:00Z"));
+    assertEquals(plan.getRawRanges().get(0)[1], millis("2023-12-31T00:00:00Z"));
+    assertEquals(plan.getRawRanges().get(1)[0], millis("2024-02-02T00:00:00Z"));
+    assertEquals(plan.getRawRanges().get(1)[1], millis("2024-02-03T00:00:00Z"));
+  }
+
+  @Test
+  public void testPlanUsesWeeksStartingOnMonday() {
+    Plan plan =
+        UsageRollupService.plan(
+            URN,
+            millis("2024-02-05T00:00:00Z"),
+            millis("2024-02-20T00:00:00Z"),
+            millis("2024-03-01T00:00:00Z"));
+
+    assertEquals(
+        describe(plan),
+        List.of(
+            "WEEK 2024-02-05T00:00:00Z", "WEEK 2024-02-12T00:00:00Z", "DAY 2024-02-19T00:00:00Z"));
+    assertTrue(plan.getRawRanges().isEmpty());
+  }
+
+  @Test
+  public void testPeriodsOfTimestamp() {
+    long timestamp = millis("2024-02-07T13:45:00Z");
+    assertEquals(Granularity.DAY.start(timestamp), millis("2024-02-07T00:00:00Z"));
+    assertEquals(Granularity.WEEK.start(timestamp), millis("2024-02-05T00:00:00Z"));
+    assertEquals(Granularity.MONTH.start(timestamp), millis("2024-02-01T00:00:00Z"));
+    assertEquals(
+        new Period(URN, Granularity.MONTH, millis("2024-02-01T00:00:00Z")).getEnd(),
+        millis("2024-03-01T00:00:00Z"));
+  }
+
+  @Test
+  public void testRollupRoundTrip() {
+    UsageRollup first = new UsageRollup();
+    first.addUser("urn:li:corpuser:a", 3, "a@example.com");
+    first.addField("col1", 2);
+    UsageRollup second = new UsageRollup();
+    second.addUser("urn:li:corpuser:a", 4, null);
+    second.addUser("urn:li:corpuser:b", 1, null);
+    second.addField("col1", 5);
+
+    first.merge(UsageRollup.fromJson(second.toJson()));
+
+    assertEquals(first.getUserCounts().get("urn:li:corpuser:a").longValue(), 7L);
+    assertEquals(first.getUserCounts().get("urn:li:corpuser:b").longValue(), 1L);
+    assertEquals(first.getUserEmails().get("urn:li:corpuser:a"), "a@example.com");
+    assertEquals(first.getFieldCounts().get("col1").longValue(), 7L);
+  }
+}
@@ -0,0 +1,211 @@
+package com.linkedin.metadata.timeseries.elastic.rollup;
+
+import static io.datahubproject.test.search.SearchTestUtils.syncAfterWrite;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import com.linkedin.common.urn.Urn;
+import com.linkedin.common.urn.UrnUtils;
+import com.linkedin.data.template.StringArray;
+import com.linkedin.dataset.DatasetFieldUsageCounts;
+import com.linkedin.dataset.DatasetFieldUsageCountsArray;
+import com.linkedin.dataset.DatasetUsageStatistics;
+import com.linkedin.dataset.DatasetUserUsageCounts;
+import com.linkedin.dataset.DatasetUserUsageCountsArray;
+import com.linkedin.metadata.aspect.AspectRetriever;
+import com.linkedin.metadata.models.AspectSpec;
+import com.linkedin.metadata.models.registry.ConfigEntityRegistry;
+import com.linkedin.metadata.models.registry.EntityRegistry;
+import com.linkedin.metadata.search.elasticsearch.indexbuilder.ESIndexBuilder;
+import com.linkedin.metadata.search.elasticsearch.update.ESBulkProcessor;
+import com.linkedin.metadata.snapshot.Snapshot;
+import com.linkedin.metadata.timeseries.elastic.ElasticSearchTimeseriesAspectService;
+import com.linkedin.metadata.timeseries.elastic.indexbuilder.TimeseriesAspectIndexBuilders;
+import com.linkedin.metadata.timeseries.elastic.rollup.UsageRollupService.Granularity;
+import com.linkedin.metadata.timeseries.elastic.rollup.UsageRollupService.Period;
+import com.linkedin.metadata.timeseries.transformer.TimeseriesAspectTransformer;
+import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
+import com.linkedin.metadata.utils.elasticsearch.IndexConventionImpl;
+import com.linkedin.timeseries.AggregationSpec;
+import com.linkedin.timeseries.AggregationType;
+import com.linkedin.timeseries.CalendarInterval;
+import com.linkedin.timeseries.GenericTable;
+import com.linkedin.timeseries.GroupingBucket;
+import com.linkedin.timeseries.GroupingBucketType;
+import com.linkedin.timeseries.TimeWindowSize;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+import org.opensearch.action.get.GetRequest;
+import org.opensearch.client.RequestOptions;
+import org.opensearch.client.RestHighLevelClient;
+import org.springframework.test.context.testng.AbstractTestNGSpringContextTests;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+public abstract class UsageRollupServiceTestBase extends AbstractTestNGSpringContextTests {
+  private static final Urn DATASET_URN =
+      UrnUtils.getUrn("urn:li:dataset:(urn:li:dataPlatform:hive,usage_rollup_test,PROD)");
+  private static final long DAY = TimeUnit.DAYS.toMillis(1);
+  private static final long SETTLE_SECONDS = 300;
+
+  @Nonnull
+  protected abstract RestHighLevelClient getSearchClient();
+
+  @Nonnull
+  protected abstract ESBulkProcessor getBulkProcessor();
+
+  @Nonnull
+  protected abstract ESIndexBuilder getIndexBuilder();
+
+  private ElasticSearchTimeseriesAspectService timeseriesAspectService;
+  private UsageRollupService usageRollupService;
+  private AspectSpec aspectSpec;
+  private String rollupIndexName;
+  private long today;
+
+  @BeforeClass
+  public void setup() throws Exception {
+    EntityRegistry entityRegistry =
+        new ConfigEntityRegistry(
+            Snapshot.class.getClassLoader().getResourceAsStream("entity-registry.yml"));
+    AspectRetriever aspectRetriever = mock(AspectRetriever.class);
+    when(aspectRetriever.getEntityRegistry()).thenReturn(entityRegistry);
+    when(aspectRetriever.getLatestAspectObjects(any(), any())).thenReturn(Map.of());
+
+    IndexConvention indexConvention = new IndexConventionImpl("es_usage_rollup_service_test");
+    timeseriesAspectService =
+        new ElasticSearchTimeseriesAspectService(
+                getSearchClient(),
+                indexConvention,
+                new TimeseriesAspectIndexBuilders(
+                    getIndexBuilder(), entityRegistry, indexConvention),
+                entityRegistry,
+                getBulkProcessor(),
+                1)
+            .postConstruct(aspectRetriever);
+    timeseriesAspectService.configure();
+    usageRollupService =
+        new UsageRollupService(
+            timeseriesAspectService,
+            getSearchClient(),
+            getBulkProcessor(),
+            indexConvention,
+            true,
+            SETTLE_SECONDS,
+            1000);
+    aspectSpec =
+        entityRegistry
+            .getEntitySpec(UsageRollupService.ENTITY_NAME)
+            .getAspectSpec(UsageRollupService.ASPECT_NAME);
+    rollupIndexName = indexConvention.getIndexName(UsageRollupService.INDEX_NAME);
+    today = Granularity.DAY.start(System.currentTimeMillis());
+  }
+
+  private void ingest(long timestampMillis, String user, int count, String fieldPath)
+      throws Exception {
+    DatasetUsageStatistics usage =
+        new DatasetUsageStatistics()
+            .setTimestampMillis(timestampMillis)
+            .setEventGranularity(new TimeWindowSize().setUnit(CalendarInterval.DAY).setMultiple(1))
+            .setUserCounts(
+                new DatasetUserUsageCountsArray(
+                    new DatasetUserUsageCounts()
+                        .setUser(UrnUtils.getUrn(user))
+                        .setCount(count)))
+            .setFieldCounts(
+                new DatasetFieldUsageCountsArray(
+                    new DatasetFieldUsageCounts().setFieldPath(fieldPath).setCount(count)));
+    TimeseriesAspectTransformer.transform(DATASET_URN, usage, aspectSpec, null)
+        .forEach(
+            (id, document) ->
+                timeseriesAspectService.upsertDocument(
+                    UsageRollupService.ENTITY_NAME, UsageRollupService.ASPECT_NAME, id, document));
+    usageRollupService.markDirty(DATASET_URN, timestampMillis);
+  }
+
+  private Map<String, Long> aggregate(String countField, String groupField, long startTime) {
+    GenericTable table =
+        timeseriesAspectService.getAggregatedStats(
+            UsageRollupService.ENTITY_NAME,
+            UsageRollupService.ASPECT_NAME,
+            new AggregationSpec[] {
+              new AggregationSpec().setAggregationType(AggregationType.SUM).setFieldPath(countField)
+            },
+            UsageRollupService.rangeFilter(
+                DATASET_URN.toString(), startTime, System.currentTimeMillis() + 1),
+            new GroupingBucket[] {
+              new GroupingBucket()
+                  .setKey(groupField)
+                  .setType(GroupingBucketType.STRING_GROUPING_BUCKET)
+            });
+    Map<String, Long> counts = new HashMap<>();
+    for (StringArray row : table.getRows()) {
+      counts.put(row.get(0), Long.parseLong(row.get(1)));
+    }
+    return counts;
+  }
+
+  /** Usage served by the rollup service must match aggregating every raw bucket of the range. */
+  private void assertMatchesRawBuckets(long startTime) {
+    UsageRollup usage =
+        usageRollupService.getUsage(DATASET_URN, startTime, System.currentTimeMillis());
+    assertEquals(
+        usage.getUserCounts(), aggregate("userCounts.count", "userCounts.user", startTime));
+    assertEquals(
+        usage.getFieldCounts(), aggregate("fieldCounts.count", "fieldCounts.fieldPath", startTime));
+  }
+
+  private static long afterSettle() {
+    return System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(SETTLE_SECONDS) + 1;
+  }
+
+  private boolean isDirty(Granularity granularity, long timestampMillis) throws Exception {
+    Period period =
+        new Period(DATASET_URN.toString(), granularity, granularity.start(timestampMillis));
+    Map<String, Object> source =
+        getSearchClient()
+            .get(new GetRequest(rollupIndexName, period.getId()), RequestOptions.DEFAULT)
+            .getSourceAsMap();
+    return Boolean.TRUE.equals(source.get("dirty"));
+  }
+
+  @Test
+  public void testRollupsMatchRawBuckets() throws Exception {
+    ingest(today - 40 * DAY, "urn:li:corpuser:alice", 3, "col1");
+    ingest(today - 10 * DAY, "urn:li:corpuser:alice", 5, "col2");
+    ingest(today - 3 * DAY, "urn:li:corpuser:bob", 7, "col1");
+    ingest(today, "urn:li:corpuser:bob", 11, "col2");
+    syncAfterWrite(getBulkProcessor());
+
+    // Nothing has settled yet, every period is served from the raw buckets
+    usageRollupService.rollup(System.currentTimeMillis());
+    assertTrue(isDirty(Granularity.DAY, today - 3 * DAY));
+    assertMatchesRawBuckets(today - 45 * DAY);
+
+    usageRollupService.rollup(afterSettle());
+    assertFalse(isDirty(Granularity.DAY, today - 40 * DAY));
+    assertFalse(isDirty(Granularity.DAY, today - 3 * DAY));
+    assertMatchesRawBuckets(today - 45 * DAY);
+    assertMatchesRawBuckets(today - 10 * DAY);
+  }
+
+  @Test(dependsOnMethods = "testRollupsMatchRawBuckets")
+  public void testRemarkedRollupIsNotServed() throws Exception {
+    ingest(today - 3 * DAY, "urn:li:corpuser:carol", 13, "col3");
+    syncAfterWrite(getBulkProcessor());
+
+    // The stale rollup is skipped until the period is rolled up again
+    assertTrue(isDirty(Granularity.DAY, today - 3 * DAY));
+    assertMatchesRawBuckets(today - 45 * DAY);
+
+    usageRollupService.rollup(afterSettle());
+    assertFalse(isDirty(Granularity.DAY, today - 3 * DAY));
+    assertMatchesRawBuckets(today - 45 * DAY);
+  }
+}
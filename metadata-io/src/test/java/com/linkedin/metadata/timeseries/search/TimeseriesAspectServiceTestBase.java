@@ -63,6 +63,7 @@ import java.net.URISyntaxException;
 import java.util.Calendar;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -435,6 +436,24 @@ public abstract class TimeseriesAspectServiceTestBase extends AbstractTestNGSpri
     validateAspectValues(resultAspects, 0);
   }
 
+  @Test(
+      groups = {"getAspectValues"},
+      dependsOnGroups = {"upsert"})
+  public void testGetLatestAspectValuesForManyUrns() {
+    Urn nonExistingUrn = new TestEntityUrn("missing", "missing", "missing");
+    Map<Urn, List<EnvelopedAspect>> results =
+        elasticSearchTimeseriesAspectService.getLatestAspectValues(
+            Set.of(TEST_URN, nonExistingUrn), ENTITY_NAME, ASPECT_NAME, null, null, 3, null, null);
+    assertEquals(results.keySet(), Set.of(TEST_URN));
+    validateAspectValues(results.get(TEST_URN), 3);
+
+    TestEntityProfile latestProfile =
+        (TestEntityProfile)
+            GenericRecordUtils.deserializeAspect(
+                results.get(TEST_URN).get(0).getAspect().getValue(), CONTENT_TYPE, aspectSpec);
+    assertEquals((long) latestProfile.getStat(), 20 + (NUM_PROFILES - 1) * 10);
+  }
+
   /*
    * Tests for getAggregatedStats API
    */
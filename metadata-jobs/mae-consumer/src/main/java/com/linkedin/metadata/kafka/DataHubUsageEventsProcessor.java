@@ -5,6 +5,8 @@ import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
 import com.linkedin.events.metadata.ChangeType;
 import com.linkedin.gms.factory.kafka.SimpleKafkaConsumerFactory;
+import com.linkedin.gms.factory.recommendation.RecentActivityStoreFactory;
+import com.linkedin.metadata.datahubusage.RecentActivityStore;
 import com.linkedin.metadata.kafka.config.DataHubUsageEventsProcessorCondition;
 import com.linkedin.metadata.kafka.elasticsearch.ElasticsearchConnector;
 import com.linkedin.metadata.kafka.elasticsearch.JsonElasticEvent;
@@ -27,11 +29,12 @@ import org.springframework.stereotype.Component;
 @Component
 @EnableKafka
 @Conditional(DataHubUsageEventsProcessorCondition.class)
-@Import({SimpleKafkaConsumerFactory.class})
+@Import({SimpleKafkaConsumerFactory.class, RecentActivityStoreFactory.class})
 public class DataHubUsageEventsProcessor {
 
   private final ElasticsearchConnector elasticSearchConnector;
   private final DataHubUsageEventTransformer dataHubUsageEventTransformer;
+  private final RecentActivityStore recentActivityStore;
   private final String indexName;
 
   private final Histogram kafkaLagStats =
@@ -40,9 +43,11 @@ public class DataHubUsageEventsProcessor {
   public DataHubUsageEventsProcessor(
       ElasticsearchConnector elasticSearchConnector,
       DataHubUsageEventTransformer dataHubUsageEventTransformer,
-      IndexConvention indexConvention) {
+      IndexConvention indexConvention,
+      RecentActivityStore recentActivityStore) {
     this.elasticSearchConnector = elasticSearchConnector;
     this.dataHubUsageEventTransformer = dataHubUsageEventTransformer;
+    this.recentActivityStore = recentActivityStore;
     this.indexName = indexConvention.getIndexName("datahub_usage_event");
   }
 
@@ -67,6 +72,7 @@ public class DataHubUsageEventsProcessor {
       elasticEvent.setIndex(indexName);
       elasticEvent.setActionType(ChangeType.CREATE);
       elasticSearchConnector.feedElasticEvent(elasticEvent);
+      recentActivityStore.record(eventDocument.get().getDocument());
     }
   }
 
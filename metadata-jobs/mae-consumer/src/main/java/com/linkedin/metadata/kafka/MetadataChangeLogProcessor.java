@@ -3,9 +3,11 @@ package com.linkedin.metadata.kafka;
 import com.codahale.metrics.Histogram;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
+import com.linkedin.gms.factory.entityregistry.EntityRegistryFactory;
 import com.linkedin.gms.factory.kafka.KafkaEventConsumerFactory;
 import com.linkedin.metadata.EventUtils;
 import com.linkedin.metadata.kafka.config.MetadataChangeLogProcessorCondition;
+import com.linkedin.metadata.kafka.hook.MetadataChangeLogContext;
 import com.linkedin.metadata.kafka.hook.MetadataChangeLogHook;
 import com.linkedin.metadata.kafka.hook.UpdateIndicesHook;
 import com.linkedin.metadata.kafka.hook.event.EntityChangeEventGeneratorHook;
@@ -13,11 +15,13 @@ import com.linkedin.metadata.kafka.hook.form.FormAssignmentHook;
 import com.linkedin.metadata.kafka.hook.incident.IncidentsSummaryHook;
 import com.linkedin.metadata.kafka.hook.ingestion.IngestionSchedulerHook;
 import com.linkedin.metadata.kafka.hook.siblings.SiblingAssociationHook;
+import com.linkedin.metadata.models.registry.EntityRegistry;
 import com.linkedin.metadata.utils.metrics.MetricUtils;
 import com.linkedin.mxe.MetadataChangeLog;
 import com.linkedin.mxe.Topics;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -38,6 +42,7 @@ import org.springframework.stereotype.Component;
   IngestionSchedulerHook.class,
   EntityChangeEventGeneratorHook.class,
   KafkaEventConsumerFactory.class,
+  EntityRegistryFactory.class,
   SiblingAssociationHook.class,
   FormAssignmentHook.class,
   IncidentsSummaryHook.class,
@@ -46,11 +51,16 @@ import org.springframework.stereotype.Component;
 public class MetadataChangeLogProcessor {
 
   @Getter private final List<MetadataChangeLogHook> hooks;
+  private final EntityRegistry entityRegistry;
   private final Histogram kafkaLagStats =
       MetricUtils.get().histogram(MetricRegistry.name(this.getClass(), "kafkaLag"));
+  private final Histogram decodeTimeStats =
+      MetricUtils.get().histogram(MetricRegistry.name(this.getClass(), "aspectDecodeMicros"));
 
   @Autowired
-  public MetadataChangeLogProcessor(List<MetadataChangeLogHook> metadataChangeLogHooks) {
+  public MetadataChangeLogProcessor(
+      List<MetadataChangeLogHook> metadataChangeLogHooks, EntityRegistry entityRegistry) {
+    this.entityRegistry = entityRegistry;
     this.hooks =
         metadataChangeLogHooks.stream()
             .filter(MetadataChangeLogHook::isEnabled)
@@ -101,6 +111,9 @@ public class MetadataChangeLogProcessor {
           event.getEntityUrn(),
           event.getEntityKeyAspect());
 
+      // Aspects are decoded on first use and shared by all hooks
+      final MetadataChangeLogContext context = new MetadataChangeLogContext(event, entityRegistry);
+
       // Here - plug in additional "custom processor hooks"
       for (MetadataChangeLogHook hook : this.hooks) {
         if (!hook.isEnabled()) {
@@ -110,7 +123,7 @@ public class MetadataChangeLogProcessor {
         try (Timer.Context ignored =
             MetricUtils.timer(this.getClass(), hook.getClass().getSimpleName() + "_latency")
                 .time()) {
-          hook.invoke(event);
+          hook.invoke(context);
         } catch (Exception e) {
           // Just skip this hook and continue. - Note that this represents "at most once"//
           // processing.
@@ -119,6 +132,7 @@ public class MetadataChangeLogProcessor {
               "Failed to execute MCL hook with name {}", hook.getClass().getCanonicalName(), e);
         }
       }
+      decodeTimeStats.update(TimeUnit.NANOSECONDS.toMicros(context.getDecodeNanos()));
       // TODO: Manually commit kafka offsets after full processing.
       MetricUtils.counter(this.getClass(), "consumed_mcl_count").inc();
       log.debug(
@@ -0,0 +1,150 @@
+package com.linkedin.metadata.kafka.hook;
+
+import com.linkedin.common.urn.Urn;
+import com.linkedin.data.template.RecordTemplate;
+import com.linkedin.metadata.entity.validation.RecordTemplateValidator;
+import com.linkedin.metadata.models.AspectSpec;
+import com.linkedin.metadata.models.EntitySpec;
+import com.linkedin.metadata.models.registry.EntityRegistry;
+import com.linkedin.metadata.utils.GenericRecordUtils;
+import com.linkedin.metadata.utils.metrics.MetricUtils;
+import com.linkedin.mxe.GenericAspect;
+import com.linkedin.mxe.MetadataChangeLog;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A {@link MetadataChangeLog} along with the values hooks derive from it. The urn, specs and
+ * aspects are resolved the first time a hook asks for them and then reused by every other hook
+ * processing the same record, so a large aspect is only deserialized once.
+ *
+ * <p>Decoded aspects are coerced to their schema types, then shared between hooks and made read
+ * only, modifying one throws. Hooks that need to change an aspect should work on a copy.
+ */
+public class MetadataChangeLogContext {
+
+  private final MetadataChangeLog _metadataChangeLog;
+  private final EntityRegistry _entityRegistry;
+
+  private Urn _urn;
+  private EntitySpec _entitySpec;
+  private AspectSpec _aspectSpec;
+  private RecordTemplate _aspect;
+  private boolean _aspectDecoded;
+  private RecordTemplate _previousAspect;
+  private boolean _previousAspectDecoded;
+  private long _decodeNanos;
+
+  public MetadataChangeLogContext(
+      @Nonnull final MetadataChangeLog metadataChangeLog,
+      @Nonnull final EntityRegistry entityRegistry) {
+    _metadataChangeLog = Objects.requireNonNull(metadataChangeLog, "metadataChangeLog is required");
+    _entityRegistry = Objects.requireNonNull(entityRegistry, "entityRegistry is required");
+  }
+
+  @Nonnull
+  public MetadataChangeLog getMetadataChangeLog() {
+    return _metadataChangeLog;
+  }
+
+  /** Returns the urn of the changed entity, taken from either the entityUrn or the entityKey. */
+  @Nonnull
+  public synchronized Urn getUrn() {
+    if (_urn == null) {
+      _urn = HookUtils.getUrnFromEvent(_metadataChangeLog, _entityRegistry);
+    }
+    return _urn;
+  }
+
+  @Nonnull
+  public synchronized EntitySpec getEntitySpec() {
+    if (_entitySpec == null) {
+      _entitySpec = _entityRegistry.getEntitySpec(_metadataChangeLog.getEntityType());
+    }
+    return _entitySpec;
+  }
+
+  /** Returns the spec of the changed aspect, or null if the entity does not define it. */
+  @Nullable
+  public synchronized AspectSpec getAspectSpec() {
+    if (_aspectSpec == null) {
+      _aspectSpec = getEntitySpec().getAspectSpec(_metadataChangeLog.getAspectName());
+    }
+    return _aspectSpec;
+  }
+
+  /** Returns the new value of the aspect, or null if the change log does not carry one. */
+  @Nullable
+  public synchronized RecordTemplate getAspect() {
+    if (!_aspectDecoded) {
+      final GenericAspect aspect = _metadataChangeLog.getAspect();
+      _aspect = aspect != null ? decode(aspect, getDataTemplateClass()) : null;
+      _aspectDecoded = true;
+    }
+    return _aspect;
+  }
+
+  /** Returns the value of the aspect before the change, or null if there was none. */
+  @Nullable
+  public synchronized RecordTemplate getPreviousAspect() {
+    if (!_previousAspectDecoded) {
+      final GenericAspect previousAspect = _metadataChangeLog.getPreviousAspectValue();
+      _previousAspect =
+          previousAspect != null ? decode(previousAspect, getDataTemplateClass()) : null;
+      _previousAspectDecoded = true;
+    }
+    return _previousAspect;
+  }
+
+  /**
+   * Same as {@link #getAspect()} typed to the given class, for hooks that only handle a specific
+   * aspect and so do not need its spec to decode it.
+   */
+  @Nullable
+  public synchronized <T extends RecordTemplate> T getAspect(@Nonnull final Class<T> clazz) {
+    if (!_aspectDecoded) {
+      final GenericAspect aspect = _metadataChangeLog.getAspect();
+      _aspect = aspect != null ? decode(aspect, clazz) : null;
+      _aspectDecoded = true;
+    }
+    return clazz.cast(_aspect);
+  }
+
+  /** Total time spent deserializing aspects of this change log, across all hooks. */
+  public synchronized long getDecodeNanos() {
+    return _decodeNanos;
+  }
+
+  private Class<? extends RecordTemplate> getDataTemplateClass() {
+    final AspectSpec aspectSpec = getAspectSpec();
+    if (aspectSpec == null) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Unknown aspect %s for entity %s",
+              _metadataChangeLog.getAspectName(), _metadataChangeLog.getEntityType()));
+    }
+    return aspectSpec.getDataTemplateClass();
+  }
+
+  @Nonnull
+  private <T extends RecordTemplate> T decode(
+      @Nonnull final GenericAspect genericAspect, @Nonnull final Class<T> clazz) {
+    final long start = System.nanoTime();
+    try {
+      final T aspect =
+          GenericRecordUtils.deserializeAspect(
+              genericAspect.getValue(), genericAspect.getContentType(), clazz);
+      // Coerce the values to their schema types first, validation cannot fix them up once the map
+      // is read only. Invalid aspects are still rejected by the hooks that validate them.
+      RecordTemplateValidator.validate(aspect, result -> {});
+      aspect.data().makeReadOnly();
+      return aspect;
+    } finally {
+      final long elapsed = System.nanoTime() - start;
+      _decodeNanos += elapsed;
+      MetricUtils.timer(this.getClass(), "aspect_decode").update(elapsed, TimeUnit.NANOSECONDS);
+    }
+  }
+}
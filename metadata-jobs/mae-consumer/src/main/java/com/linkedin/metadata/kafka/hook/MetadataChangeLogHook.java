@@ -26,6 +26,14 @@ public interface MetadataChangeLogHook {
   /** Invoke the hook when a MetadataChangeLog is received */
   void invoke(@Nonnull MetadataChangeLog log) throws Exception;
 
+  /**
+   * Invoke the hook with a MetadataChangeLog whose decoded aspects are shared with the other hooks.
+   * Hooks that read the aspect should override this rather than deserialize it themselves.
+   */
+  default void invoke(@Nonnull MetadataChangeLogContext context) throws Exception {
+    invoke(context.getMetadataChangeLog());
+  }
+
   /**
    * Controls hook execution ordering
    *
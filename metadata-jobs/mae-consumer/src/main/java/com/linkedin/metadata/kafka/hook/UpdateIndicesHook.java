@@ -2,6 +2,7 @@ package com.linkedin.metadata.kafka.hook;
 
 import static com.linkedin.metadata.Constants.*;
 
+import com.linkedin.events.metadata.ChangeType;
 import com.linkedin.gms.factory.common.GraphServiceFactory;
 import com.linkedin.gms.factory.common.SystemMetadataServiceFactory;
 import com.linkedin.gms.factory.entityregistry.EntityRegistryFactory;
@@ -46,15 +47,34 @@ public class UpdateIndicesHook implements MetadataChangeLogHook {
 
   @Override
   public void invoke(@Nonnull final MetadataChangeLog event) {
+    if (isPreprocessed(event)) {
+      return;
+    }
+    _updateIndicesService.handleChangeEvent(event);
+  }
+
+  @Override
+  public void invoke(@Nonnull final MetadataChangeLogContext context) {
+    final MetadataChangeLog event = context.getMetadataChangeLog();
+    if (isPreprocessed(event)) {
+      return;
+    }
+    _updateIndicesService.handleChangeEvent(
+        event,
+        ChangeType.DELETE.equals(event.getChangeType()) ? null : context.getAspect(),
+        context.getPreviousAspect());
+  }
+
+  private static boolean isPreprocessed(@Nonnull final MetadataChangeLog event) {
     if (event.getSystemMetadata() != null) {
       if (event.getSystemMetadata().getProperties() != null) {
         if (UI_SOURCE.equals(event.getSystemMetadata().getProperties().get(APP_SOURCE))) {
           // If coming from the UI, we pre-process the Update Indices hook as a fast path to avoid
           // Kafka lag
-          return;
+          return true;
         }
       }
     }
-    _updateIndicesService.handleChangeEvent(event);
+    return false;
   }
 }
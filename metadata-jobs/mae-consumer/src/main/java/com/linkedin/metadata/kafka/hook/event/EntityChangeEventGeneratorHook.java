@@ -9,8 +9,8 @@ import com.linkedin.data.template.SetMode;
 import com.linkedin.entity.client.SystemEntityClient;
 import com.linkedin.gms.factory.entityregistry.EntityRegistryFactory;
 import com.linkedin.metadata.Constants;
+import com.linkedin.metadata.kafka.hook.MetadataChangeLogContext;
 import com.linkedin.metadata.kafka.hook.MetadataChangeLogHook;
-import com.linkedin.metadata.models.AspectSpec;
 import com.linkedin.metadata.models.registry.EntityRegistry;
 import com.linkedin.metadata.timeline.data.ChangeEvent;
 import com.linkedin.metadata.timeline.eventgenerator.Aspect;
@@ -102,33 +102,22 @@ public class EntityChangeEventGeneratorHook implements MetadataChangeLogHook {
 
   @Override
   public void invoke(@Nonnull final MetadataChangeLog logEvent) throws Exception {
+    invoke(new MetadataChangeLogContext(logEvent, _entityRegistry));
+  }
+
+  @Override
+  public void invoke(@Nonnull final MetadataChangeLogContext context) throws Exception {
+    final MetadataChangeLog logEvent = context.getMetadataChangeLog();
     if (isEligibleForProcessing(logEvent)) {
       // Steps:
-      // 1. Parse the old and new aspect.
+      // 1. Get the old and new aspect.
       // 2. Find and invoke a EntityChangeEventGenerator.
       // 3. Sink the output of the EntityChangeEventGenerator to a specific PDL change event.
-      final AspectSpec aspectSpec =
-          _entityRegistry
-              .getEntitySpec(logEvent.getEntityType())
-              .getAspectSpec(logEvent.getAspectName());
-
-      assert aspectSpec != null;
-
-      final RecordTemplate fromAspect =
-          logEvent.getPreviousAspectValue() != null
-              ? GenericRecordUtils.deserializeAspect(
-                  logEvent.getPreviousAspectValue().getValue(),
-                  logEvent.getPreviousAspectValue().getContentType(),
-                  aspectSpec)
-              : null;
-
-      final RecordTemplate toAspect =
-          logEvent.getAspect() != null
-              ? GenericRecordUtils.deserializeAspect(
-                  logEvent.getAspect().getValue(),
-                  logEvent.getAspect().getContentType(),
-                  aspectSpec)
-              : null;
+      assert context.getAspectSpec() != null;
+
+      // Generators sort the aspects they diff, so they get copies of the shared ones
+      final RecordTemplate fromAspect = copy(context.getPreviousAspect());
+      final RecordTemplate toAspect = copy(context.getAspect());
 
       final List<ChangeEvent> changeEvents =
           generateChangeEvents(
@@ -227,6 +216,12 @@ public class EntityChangeEventGeneratorHook implements MetadataChangeLogHook {
     }
   }
 
+  @Nullable
+  private static RecordTemplate copy(@Nullable final RecordTemplate aspect)
+      throws CloneNotSupportedException {
+    return aspect != null ? aspect.copy() : null;
+  }
+
   private Aspect createAspect(
       @Nullable final RecordTemplate value, @Nullable final SystemMetadata systemMetadata) {
     return new Aspect(value, systemMetadata);
@@ -7,6 +7,7 @@ import com.linkedin.events.metadata.ChangeType;
 import com.linkedin.form.DynamicFormAssignment;
 import com.linkedin.gms.factory.auth.SystemAuthenticationFactory;
 import com.linkedin.gms.factory.form.FormServiceFactory;
+import com.linkedin.metadata.kafka.hook.MetadataChangeLogContext;
 import com.linkedin.metadata.kafka.hook.MetadataChangeLogHook;
 import com.linkedin.metadata.service.FormService;
 import com.linkedin.metadata.utils.GenericRecordUtils;
@@ -79,21 +80,30 @@ public class FormAssignmentHook implements MetadataChangeLogHook {
   public void invoke(@Nonnull final MetadataChangeLog event) {
     if (_isEnabled && isEligibleForProcessing(event)) {
       if (isFormDynamicFilterUpdated(event)) {
-        handleFormFilterUpdated(event);
+        handleFormFilterUpdated(
+            event,
+            GenericRecordUtils.deserializeAspect(
+                event.getAspect().getValue(),
+                event.getAspect().getContentType(),
+                DynamicFormAssignment.class));
       }
     }
   }
 
-  /** Handle an form filter update by adding updating the targeting automation for it. */
-  private void handleFormFilterUpdated(@Nonnull final MetadataChangeLog event) {
-    // 1. Get the new form assignment
-    DynamicFormAssignment formFilters =
-        GenericRecordUtils.deserializeAspect(
-            event.getAspect().getValue(),
-            event.getAspect().getContentType(),
-            DynamicFormAssignment.class);
+  @Override
+  public void invoke(@Nonnull final MetadataChangeLogContext context) {
+    final MetadataChangeLog event = context.getMetadataChangeLog();
+    if (_isEnabled && isEligibleForProcessing(event)) {
+      if (isFormDynamicFilterUpdated(event)) {
+        handleFormFilterUpdated(event, context.getAspect(DynamicFormAssignment.class));
+      }
+    }
+  }
 
-    // 2. Register a automation to assign it.
+  /** Handle an form filter update by adding updating the targeting automation for it. */
+  private void handleFormFilterUpdated(
+      @Nonnull final MetadataChangeLog event, @Nonnull final DynamicFormAssignment formFilters) {
+    // Register a automation to assign the new form assignment.
     _formService.upsertFormAssignmentRunner(event.getEntityUrn(), formFilters);
   }
 
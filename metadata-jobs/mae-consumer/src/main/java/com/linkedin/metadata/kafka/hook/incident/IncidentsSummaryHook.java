@@ -16,12 +16,11 @@ import com.linkedin.incident.IncidentInfo;
 import com.linkedin.incident.IncidentState;
 import com.linkedin.incident.IncidentStatus;
 import com.linkedin.incident.IncidentType;
-import com.linkedin.metadata.kafka.hook.HookUtils;
+import com.linkedin.metadata.kafka.hook.MetadataChangeLogContext;
 import com.linkedin.metadata.kafka.hook.MetadataChangeLogHook;
 import com.linkedin.metadata.models.registry.EntityRegistry;
 import com.linkedin.metadata.service.IncidentService;
 import com.linkedin.metadata.service.IncidentsSummaryUtils;
-import com.linkedin.metadata.utils.GenericRecordUtils;
 import com.linkedin.mxe.MetadataChangeLog;
 import java.util.List;
 import java.util.Objects;
@@ -86,11 +85,17 @@ public class IncidentsSummaryHook implements MetadataChangeLogHook {
 
   @Override
   public void invoke(@Nonnull final MetadataChangeLog event) {
-    if (_isEnabled && isEligibleForProcessing(event)) {
+    invoke(new MetadataChangeLogContext(event, _entityRegistry));
+  }
+
+  @Override
+  public void invoke(@Nonnull final MetadataChangeLogContext context) {
+    final MetadataChangeLog event = context.getMetadataChangeLog();
+    if (_isEnabled && isEligibleForProcessing(context)) {
       log.debug("Urn {} received by Incident Summary Hook.", event.getEntityUrn());
-      final Urn urn = HookUtils.getUrnFromEvent(event, _entityRegistry);
+      final Urn urn = context.getUrn();
       // Handle the deletion case.
-      if (isIncidentSoftDeleted(event)) {
+      if (isIncidentSoftDeleted(context)) {
         handleIncidentSoftDeleted(urn);
       } else if (isIncidentUpdate(event)) {
         handleIncidentUpdated(urn);
@@ -225,22 +230,22 @@ public class IncidentsSummaryHook implements MetadataChangeLogHook {
    * Returns true if the event should be processed, which is only true if the change is on the
    * incident status aspect
    */
-  private boolean isEligibleForProcessing(@Nonnull final MetadataChangeLog event) {
-    return isIncidentSoftDeleted(event) || isIncidentUpdate(event);
+  private boolean isEligibleForProcessing(@Nonnull final MetadataChangeLogContext context) {
+    return isIncidentSoftDeleted(context) || isIncidentUpdate(context.getMetadataChangeLog());
   }
 
   /** Returns true if an incident is being soft-deleted. */
-  private boolean isIncidentSoftDeleted(@Nonnull final MetadataChangeLog event) {
+  private boolean isIncidentSoftDeleted(@Nonnull final MetadataChangeLogContext context) {
+    final MetadataChangeLog event = context.getMetadataChangeLog();
     return INCIDENT_ENTITY_NAME.equals(event.getEntityType())
         && SUPPORTED_UPDATE_TYPES.contains(event.getChangeType())
-        && isSoftDeletionEvent(event);
+        && isSoftDeletionEvent(context);
   }
 
-  private boolean isSoftDeletionEvent(@Nonnull final MetadataChangeLog event) {
+  private boolean isSoftDeletionEvent(@Nonnull final MetadataChangeLogContext context) {
+    final MetadataChangeLog event = context.getMetadataChangeLog();
     if (STATUS_ASPECT_NAME.equals(event.getAspectName()) && event.getAspect() != null) {
-      final Status status =
-          GenericRecordUtils.deserializeAspect(
-              event.getAspect().getValue(), event.getAspect().getContentType(), Status.class);
+      final Status status = context.getAspect(Status.class);
       return status.hasRemoved() && status.isRemoved();
     }
     return false;
@@ -20,8 +20,8 @@ import com.linkedin.gms.factory.entityclient.RestliEntityClientFactory;
 import com.linkedin.gms.factory.entityregistry.EntityRegistryFactory;
 import com.linkedin.gms.factory.search.EntitySearchServiceFactory;
 import com.linkedin.metadata.Constants;
+import com.linkedin.metadata.kafka.hook.MetadataChangeLogContext;
 import com.linkedin.metadata.kafka.hook.MetadataChangeLogHook;
-import com.linkedin.metadata.models.EntitySpec;
 import com.linkedin.metadata.models.registry.EntityRegistry;
 import com.linkedin.metadata.query.SearchFlags;
 import com.linkedin.metadata.query.filter.Condition;
@@ -32,7 +32,6 @@ import com.linkedin.metadata.query.filter.CriterionArray;
 import com.linkedin.metadata.query.filter.Filter;
 import com.linkedin.metadata.search.EntitySearchService;
 import com.linkedin.metadata.search.SearchResult;
-import com.linkedin.metadata.utils.EntityKeyUtils;
 import com.linkedin.metadata.utils.GenericRecordUtils;
 import com.linkedin.mxe.GenericAspect;
 import com.linkedin.mxe.MetadataChangeLog;
@@ -106,11 +105,17 @@ public class SiblingAssociationHook implements MetadataChangeLogHook {
 
   @Override
   public void invoke(@Nonnull MetadataChangeLog event) {
+    invoke(new MetadataChangeLogContext(event, _entityRegistry));
+  }
+
+  @Override
+  public void invoke(@Nonnull MetadataChangeLogContext context) {
+    final MetadataChangeLog event = context.getMetadataChangeLog();
     if (enabled && isEligibleForProcessing(event)) {
 
       log.info("Urn {} received by Sibling Hook.", event.getEntityUrn());
 
-      final Urn urn = getUrnFromEvent(event);
+      final Urn urn = context.getUrn();
 
       DatasetUrn datasetUrn = null;
       try {
@@ -125,9 +130,9 @@ public class SiblingAssociationHook implements MetadataChangeLogHook {
       if (event.getAspectName().equals(DATASET_KEY_ASPECT_NAME)) {
         handleEntityKeyEvent(datasetUrn);
       } else if (datasetUrn.getPlatformEntity().getPlatformNameEntity().equals(DBT_PLATFORM_NAME)) {
-        handleDbtDatasetEvent(event, datasetUrn);
+        handleDbtDatasetEvent(context, datasetUrn);
       } else {
-        handleSourceDatasetEvent(event, datasetUrn);
+        handleSourceDatasetEvent(context, datasetUrn);
       }
     }
   }
@@ -166,18 +171,19 @@ public class SiblingAssociationHook implements MetadataChangeLogHook {
 
   // If the upstream is a single source system node & subtype is source, then associate the upstream
   // as your sibling
-  private void handleDbtDatasetEvent(MetadataChangeLog event, DatasetUrn datasetUrn) {
+  private void handleDbtDatasetEvent(MetadataChangeLogContext context, DatasetUrn datasetUrn) {
+    final MetadataChangeLog event = context.getMetadataChangeLog();
     // we need both UpstreamLineage & Subtypes to determine whether to associate
     UpstreamLineage upstreamLineage = null;
     SubTypes subTypesAspectOfEntity = null;
 
     if (event.getAspectName().equals(UPSTREAM_LINEAGE_ASPECT_NAME)) {
-      upstreamLineage = getUpstreamLineageFromEvent(event);
+      upstreamLineage = getUpstreamLineageFromEvent(context);
       subTypesAspectOfEntity = getSubtypesFromEntityClient(datasetUrn);
     }
 
     if (event.getAspectName().equals(SUB_TYPES_ASPECT_NAME)) {
-      subTypesAspectOfEntity = getSubtypesFromEvent(event);
+      subTypesAspectOfEntity = getSubtypesFromEvent(context);
       upstreamLineage = getUpstreamLineageFromEntityClient(datasetUrn);
     }
 
@@ -202,9 +208,9 @@ public class SiblingAssociationHook implements MetadataChangeLogHook {
 
   // if the dataset is not dbt--- it may be produced by a dbt dataset. If so, associate them as
   // siblings
-  private void handleSourceDatasetEvent(MetadataChangeLog event, DatasetUrn sourceUrn) {
-    if (event.getAspectName().equals(UPSTREAM_LINEAGE_ASPECT_NAME)) {
-      UpstreamLineage upstreamLineage = getUpstreamLineageFromEvent(event);
+  private void handleSourceDatasetEvent(MetadataChangeLogContext context, DatasetUrn sourceUrn) {
+    if (context.getMetadataChangeLog().getAspectName().equals(UPSTREAM_LINEAGE_ASPECT_NAME)) {
+      UpstreamLineage upstreamLineage = getUpstreamLineageFromEvent(context);
       if (upstreamLineage != null && upstreamLineage.hasUpstreams()) {
         UpstreamArray upstreams = upstreamLineage.getUpstreams();
 
@@ -332,68 +338,25 @@ public class SiblingAssociationHook implements MetadataChangeLogHook {
   }
 
   /**
-   * Extracts and returns an {@link Urn} from a {@link MetadataChangeLog}. Extracts from either an
-   * entityUrn or entityKey field, depending on which is present.
-   */
-  private Urn getUrnFromEvent(final MetadataChangeLog event) {
-    EntitySpec entitySpec;
-    try {
-      entitySpec = _entityRegistry.getEntitySpec(event.getEntityType());
-    } catch (IllegalArgumentException e) {
-      log.error("Error while processing entity type {}: {}", event.getEntityType(), e.toString());
-      throw new RuntimeException(
-          "Failed to get urn from MetadataChangeLog event. Skipping processing.", e);
-    }
-    // Extract an URN from the Log Event.
-    return EntityKeyUtils.getUrnFromLog(event, entitySpec.getKeyAspectSpec());
-  }
-
-  /**
-   * Deserializes and returns an instance of {@link UpstreamLineage} extracted from a {@link
-   * MetadataChangeLog} event.
+   * Returns the {@link UpstreamLineage} carried by a {@link MetadataChangeLog} event, decoded once
+   * and shared with the other hooks.
    */
-  private UpstreamLineage getUpstreamLineageFromEvent(final MetadataChangeLog event) {
-    EntitySpec entitySpec;
-    if (!event.getAspectName().equals(UPSTREAM_LINEAGE_ASPECT_NAME)) {
+  private UpstreamLineage getUpstreamLineageFromEvent(final MetadataChangeLogContext context) {
+    if (!context.getMetadataChangeLog().getAspectName().equals(UPSTREAM_LINEAGE_ASPECT_NAME)) {
       return null;
     }
-
-    try {
-      entitySpec = _entityRegistry.getEntitySpec(event.getEntityType());
-    } catch (IllegalArgumentException e) {
-      log.error("Error while processing entity type {}: {}", event.getEntityType(), e.toString());
-      throw new RuntimeException(
-          "Failed to get UpstreamLineage from MetadataChangeLog event. Skipping processing.", e);
-    }
-    return (UpstreamLineage)
-        GenericRecordUtils.deserializeAspect(
-            event.getAspect().getValue(),
-            event.getAspect().getContentType(),
-            entitySpec.getAspectSpec(UPSTREAM_LINEAGE_ASPECT_NAME));
+    return context.getAspect(UpstreamLineage.class);
   }
 
   /**
-   * Deserializes and returns an instance of {@link SubTypes} extracted from a {@link
-   * MetadataChangeLog} event.
+   * Returns the {@link SubTypes} carried by a {@link MetadataChangeLog} event, decoded once and
+   * shared with the other hooks.
    */
-  private SubTypes getSubtypesFromEvent(final MetadataChangeLog event) {
-    EntitySpec entitySpec;
-    if (!event.getAspectName().equals(SUB_TYPES_ASPECT_NAME)) {
+  private SubTypes getSubtypesFromEvent(final MetadataChangeLogContext context) {
+    if (!context.getMetadataChangeLog().getAspectName().equals(SUB_TYPES_ASPECT_NAME)) {
       return null;
     }
-
-    try {
-      entitySpec = _entityRegistry.getEntitySpec(event.getEntityType());
-    } catch (IllegalArgumentException e) {
-      log.error("Error while processing entity type {}: {}", event.getEntityType(), e.toString());
-      throw new RuntimeException(
-          "Failed to get SubTypes from MetadataChangeLog event. Skipping processing.", e);
-    }
-    return (SubTypes)
-        GenericRecordUtils.deserializeAspect(
-            event.getAspect().getValue(),
-            event.getAspect().getContentType(),
-            entitySpec.getAspectSpec(SUB_TYPES_ASPECT_NAME));
+    return context.getAspect(SubTypes.class);
   }
 
   @SneakyThrows
@@ -0,0 +1,74 @@
+package com.linkedin.metadata.kafka.hook;
+
+import static com.linkedin.metadata.kafka.hook.EntityRegistryTestUtil.ENTITY_REGISTRY;
+import static com.linkedin.metadata.kafka.hook.MCLProcessingTestDataGenerator.*;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertThrows;
+import static org.testng.Assert.assertTrue;
+
+import com.linkedin.common.urn.UrnUtils;
+import com.linkedin.data.template.RecordTemplate;
+import com.linkedin.dataset.UpstreamLineage;
+import com.linkedin.events.metadata.ChangeType;
+import com.linkedin.mxe.MetadataChangeLog;
+import org.testng.annotations.Test;
+
+public class MetadataChangeLogContextTest {
+
+  @Test
+  public void testAspectsAreDecodedOnce() throws Exception {
+    MetadataChangeLog event = setPreviousData(createBaseChangeLog(), createBaseChangeLog());
+    MetadataChangeLogContext context = new MetadataChangeLogContext(event, ENTITY_REGISTRY);
+
+    assertEquals(context.getDecodeNanos(), 0L);
+
+    RecordTemplate aspect = context.getAspect();
+    assertEquals(aspect, createBaseLineageAspect());
+    assertSame(context.getAspect(), aspect);
+    assertSame(context.getAspect(UpstreamLineage.class), aspect);
+    long decodeNanos = context.getDecodeNanos();
+    assertTrue(decodeNanos > 0);
+
+    assertEquals(context.getPreviousAspect(), createBaseLineageAspect());
+    assertSame(context.getPreviousAspect(), context.getPreviousAspect());
+    assertTrue(context.getDecodeNanos() > decodeNanos);
+
+    assertEquals(context.getUrn(), UrnUtils.getUrn(UpdateIndicesHookTest.TEST_DATASET_URN));
+    assertEquals(context.getAspectSpec().getName(), event.getAspectName());
+  }
+
+  @Test
+  public void testTypedAspectSharedWithUntyped() throws Exception {
+    MetadataChangeLogContext context =
+        new MetadataChangeLogContext(createBaseChangeLog(), ENTITY_REGISTRY);
+
+    UpstreamLineage upstreamLineage = context.getAspect(UpstreamLineage.class);
+    assertEquals(upstreamLineage, createBaseLineageAspect());
+    assertSame(context.getAspect(), upstreamLineage);
+  }
+
+  @Test
+  public void testMissingAspects() throws Exception {
+    MetadataChangeLog event = createBaseChangeLog().setChangeType(ChangeType.DELETE);
+    event.removeAspect();
+    MetadataChangeLogContext context = new MetadataChangeLogContext(event, ENTITY_REGISTRY);
+
+    assertNull(context.getAspect());
+    assertNull(context.getPreviousAspect());
+    assertEquals(context.getDecodeNanos(), 0L);
+  }
+
+  @Test
+  public void testAspectsAreReadOnly() throws Exception {
+    MetadataChangeLog event = setPreviousData(createBaseChangeLog(), createBaseChangeLog());
+    MetadataChangeLogContext context = new MetadataChangeLogContext(event, ENTITY_REGISTRY);
+
+    UpstreamLineage upstreamLineage = context.getAspect(UpstreamLineage.class);
+    assertThrows(UnsupportedOperationException.class, () -> upstreamLineage.getUpstreams().clear());
+    assertThrows(
+        UnsupportedOperationException.class,
+        () -> ((UpstreamLineage) context.getPreviousAspect()).removeUpstreams());
+  }
+}
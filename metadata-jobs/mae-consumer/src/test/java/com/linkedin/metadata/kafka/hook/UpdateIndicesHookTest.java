@@ -66,7 +66,7 @@ import org.testng.annotations.Test;
 public class UpdateIndicesHookTest {
   //  going to want a test where we have an upstreamLineage aspect with finegrained, check that we
   // call _graphService.addEdge for each edge
-  //  as well as _graphService.removeEdgesFromNode for each field and their relationships
+  //  as well as _graphService.removeEdgesFromNodeAsync for each field and their relationships
 
   static final long EVENT_TIME = 123L;
   static final String TEST_DATASET_URN =
@@ -144,13 +144,14 @@ public class UpdateIndicesHookTest {
     Edge edge = new Edge(downstreamUrn, upstreamUrn, DOWNSTREAM_OF, null, null, null, null, null);
     Mockito.verify(_mockGraphService, Mockito.times(1)).addEdge(Mockito.eq(edge));
     Mockito.verify(_mockGraphService, Mockito.times(1))
-        .removeEdgesFromNode(
+        .removeEdgesFromNodeAsync(
             Mockito.eq(downstreamUrn),
             Mockito.eq(new ArrayList<>(Collections.singleton(DOWNSTREAM_OF))),
             Mockito.eq(
                 newRelationshipFilter(
                     new Filter().setOr(new ConjunctiveCriterionArray()),
-                    RelationshipDirection.OUTGOING)));
+                    RelationshipDirection.OUTGOING)),
+            Mockito.argThat(keptEdges -> keptEdges.contains(edge)));
   }
 
   @Test
@@ -169,13 +170,14 @@ public class UpdateIndicesHookTest {
     Edge edge = new Edge(downstreamUrn, upstreamUrn, DOWNSTREAM_OF, null, null, null, null, null);
     Mockito.verify(_mockGraphService, Mockito.times(1)).addEdge(Mockito.eq(edge));
     Mockito.verify(_mockGraphService, Mockito.times(1))
-        .removeEdgesFromNode(
+        .removeEdgesFromNodeAsync(
             Mockito.eq(downstreamUrn),
             Mockito.eq(new ArrayList<>(Collections.singleton(DOWNSTREAM_OF))),
             Mockito.eq(
                 newRelationshipFilter(
                     new Filter().setOr(new ConjunctiveCriterionArray()),
-                    RelationshipDirection.OUTGOING)));
+                    RelationshipDirection.OUTGOING)),
+            Mockito.argThat(keptEdges -> keptEdges.contains(edge)));
     Mockito.verify(_mockEntitySearchService, Mockito.times(1))
         .upsertDocument(
             Mockito.eq(DATASET_ENTITY_NAME),
@@ -186,6 +188,67 @@ public class UpdateIndicesHookTest {
                     StandardCharsets.UTF_8)));
   }
 
+  @Test
+  public void testPreviousEdgesAreRemovedById() throws Exception {
+    _updateIndicesService.setGraphDiffMode(false);
+    Urn previousUpstreamUrn =
+        UrnUtils.getUrn(
+            "urn:li:schemaField:(urn:li:dataset:(urn:li:dataPlatform:hdfs,SampleCypressHdfsDataset,PROD),bar_info)");
+    Urn upstreamUrn =
+        UrnUtils.getUrn(
+            "urn:li:schemaField:(urn:li:dataset:(urn:li:dataPlatform:hdfs,SampleCypressHdfsDataset,PROD),foo_info)");
+    Urn downstreamUrn =
+        UrnUtils.getUrn(
+            "urn:li:schemaField:(urn:li:dataset:(urn:li:dataPlatform:hive,SampleCypressHiveDataset,PROD),field_foo)");
+    MetadataChangeLog event = createUpstreamLineageMCL(upstreamUrn, downstreamUrn);
+    event.setPreviousAspectValue(
+        createUpstreamLineageMCL(previousUpstreamUrn, downstreamUrn).getAspect());
+    _updateIndicesHook.invoke(event);
+
+    Edge previousEdge =
+        new Edge(downstreamUrn, previousUpstreamUrn, DOWNSTREAM_OF, null, null, null, null, null);
+    Edge edge = new Edge(downstreamUrn, upstreamUrn, DOWNSTREAM_OF, null, null, null, null, null);
+    // Only the edge missing from the new version is removed, the others are written again
+    Mockito.verify(_mockGraphService, Mockito.times(1)).removeEdge(Mockito.any());
+    Mockito.verify(_mockGraphService, Mockito.times(1)).removeEdge(Mockito.eq(previousEdge));
+    Mockito.verify(_mockGraphService, Mockito.times(1)).addEdge(Mockito.eq(edge));
+    Mockito.verify(_mockGraphService, Mockito.never())
+        .removeEdgesFromNode(Mockito.any(), Mockito.any(), Mockito.any());
+  }
+
+  @Test
+  public void testContextAspectWithLongField() throws Exception {
+    _updateIndicesService.setGraphDiffMode(false);
+    Urn upstreamUrn =
+        UrnUtils.getUrn(
+            "urn:li:schemaField:(urn:li:dataset:(urn:li:dataPlatform:hdfs,SampleCypressHdfsDataset,PROD),foo_info)");
+    Urn downstreamUrn =
+        UrnUtils.getUrn(
+            "urn:li:schemaField:(urn:li:dataset:(urn:li:dataPlatform:hive,SampleCypressHiveDataset,PROD),field_foo)");
+    MetadataChangeLog event = createUpstreamLineageMCL(upstreamUrn, downstreamUrn);
+    UpstreamLineage upstreamLineage =
+        GenericRecordUtils.deserializeAspect(
+            event.getAspect().getValue(),
+            event.getAspect().getContentType(),
+            UpstreamLineage.class);
+    // The audit stamp time is a long, which the serialized change log hands back as an Integer
+    upstreamLineage
+        .getUpstreams()
+        .get(0)
+        .setAuditStamp(new AuditStamp().setTime(EVENT_TIME).setActor(_actorUrn));
+    event.setAspect(GenericRecordUtils.serializeAspect(upstreamLineage));
+
+    _updateIndicesHook.invoke(new MetadataChangeLogContext(event, ENTITY_REGISTRY));
+
+    Edge edge = new Edge(downstreamUrn, upstreamUrn, DOWNSTREAM_OF, null, null, null, null, null);
+    Mockito.verify(_mockGraphService, Mockito.times(1)).addEdge(Mockito.eq(edge));
+    Mockito.verify(_mockEntitySearchService, Mockito.times(1))
+        .upsertDocument(
+            Mockito.eq(DATASET_ENTITY_NAME),
+            Mockito.any(),
+            Mockito.eq(URLEncoder.encode(TEST_DATASET_URN, StandardCharsets.UTF_8)));
+  }
+
   @Test
   public void testInputFieldsEdgesAreAdded() throws Exception {
     Urn upstreamUrn =
@@ -215,13 +278,14 @@ public class UpdateIndicesHookTest {
     Edge edge = new Edge(downstreamUrn, upstreamUrn, DOWNSTREAM_OF, null, null, null, null, null);
     Mockito.verify(_mockGraphService, Mockito.times(1)).addEdge(Mockito.eq(edge));
     Mockito.verify(_mockGraphService, Mockito.times(1))
-        .removeEdgesFromNode(
+        .removeEdgesFromNodeAsync(
             Mockito.eq(downstreamUrn),
             Mockito.eq(new ArrayList<>(Collections.singleton(DOWNSTREAM_OF))),
             Mockito.eq(
                 newRelationshipFilter(
                     new Filter().setOr(new ConjunctiveCriterionArray()),
-                    RelationshipDirection.OUTGOING)));
+                    RelationshipDirection.OUTGOING)),
+            Mockito.argThat(keptEdges -> keptEdges.contains(edge)));
   }
 
   @Test
@@ -389,8 +453,10 @@ public class UpdateIndicesHookTest {
 
     _updateIndicesHook.invoke(changeLog);
 
-    // Forced removal of all edges
+    // Forced removal of all edges but the current ones, in the background
     Mockito.verify(_mockGraphService, Mockito.times(1))
+        .removeEdgesFromNodeAsync(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+    Mockito.verify(_mockGraphService, Mockito.never())
         .removeEdgesFromNode(Mockito.any(), Mockito.any(), Mockito.any());
     // Forced add of edges
     Mockito.verify(_mockGraphService, Mockito.times(2)).addEdge(Mockito.any());
@@ -0,0 +1,16 @@
+package com.linkedin.metadata.config.search;
+
+import lombok.Data;
+
+/** Keeps the autocomplete fields of the search documents in memory to complete prefixes. */
+@Data
+public class AutocompleteIndexConfiguration {
+
+  private boolean enabled;
+  // How often the in-memory prefix index is rebuilt from the search indices
+  private long rebuildIntervalSeconds;
+  // Search documents read per request while rebuilding the in-memory prefix index
+  private int batchSize;
+  // Documents of an entity type written between rebuilds before it is answered by searches
+  private int maxDeltaSize;
+}
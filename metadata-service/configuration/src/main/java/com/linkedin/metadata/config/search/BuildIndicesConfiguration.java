@@ -9,4 +9,22 @@ public class BuildIndicesConfiguration {
   private boolean allowDocCountMismatch;
   private String retentionUnit;
   private Long retentionValue;
+
+  /** Documents per scroll batch when copying an index. */
+  private int reindexBatchSize = 2500;
+
+  /** Number of slices a copy is split into, 0 lets the cluster use one slice per shard. */
+  private int reindexSlices = 0;
+
+  /** Disable refresh and replicas on the destination index while it is being copied. */
+  private boolean reindexOptimizationEnabled = true;
+
+  /** Number of indices of a service that are built at the same time. */
+  private int reindexParallelism = 1;
+
+  /** Copy documents written during the reindex again before moving the alias. */
+  private boolean reindexCatchUpEnabled = true;
+
+  /** How far before the start of the copy to look for changed documents. */
+  private long reindexCatchUpMarginSeconds = 300;
 }
@@ -0,0 +1,15 @@
+package com.linkedin.metadata.config.search;
+
+import lombok.Data;
+
+/** Deletes the edges a change log event no longer has in the background, in batches. */
+@Data
+public class EdgeCleanupConfiguration {
+
+  // Time between two runs of the queued deletes
+  private long intervalMillis;
+  // Queued deletes combined into one delete by query
+  private int batchSize;
+  // Queued deletes kept at most, later ones run right away until the queue drains
+  private int maxPending;
+}
@@ -8,4 +8,5 @@ public class ElasticSearchConfiguration {
   private BuildIndicesConfiguration buildIndices;
   public String implementation;
   private SearchConfiguration search;
+  private TimeseriesPartitionConfiguration timeseriesPartition;
 }
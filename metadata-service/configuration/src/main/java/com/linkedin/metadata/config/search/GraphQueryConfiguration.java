@@ -11,6 +11,14 @@ public class GraphQueryConfiguration {
   // When set to true, the graph walk (typically in search-across-lineage or scroll-across-lineage)
   // will return all paths between the source and destination nodes within the hops limit.
   private boolean enableMultiPathSearch;
+  // Most entities a streamed lineage export visits before it stops
+  private int exportMaxEntities;
+  // Time a streamed lineage export may take before its response is cut off
+  private long exportTimeoutSeconds;
+  // Store every edge routed by its source urn and again routed by its destination urn
+  private boolean routedIndices;
+  private LineageIndexConfiguration lineageIndex;
+  private EdgeCleanupConfiguration edgeCleanup;
 
   public static GraphQueryConfiguration testDefaults;
 
@@ -20,5 +28,9 @@ public class GraphQueryConfiguration {
     testDefaults.setTimeoutSeconds(10);
     testDefaults.setMaxResult(10000);
     testDefaults.setEnableMultiPathSearch(true);
+    testDefaults.setExportMaxEntities(1000000);
+    testDefaults.setExportTimeoutSeconds(600);
+    testDefaults.setLineageIndex(new LineageIndexConfiguration());
+    testDefaults.setEdgeCleanup(new EdgeCleanupConfiguration());
   }
 }
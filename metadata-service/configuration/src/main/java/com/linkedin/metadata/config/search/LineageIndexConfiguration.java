@@ -0,0 +1,12 @@
+package com.linkedin.metadata.config.search;
+
+import lombok.Data;
+
+/** Keeps the lineage edges of the graph index in memory to answer multi-hop lineage queries. */
+@Data
+public class LineageIndexConfiguration {
+
+  private boolean enabled;
+  // Edges read from the graph index per request while loading the in-memory lineage graph
+  private int bootstrapBatchSize;
+}
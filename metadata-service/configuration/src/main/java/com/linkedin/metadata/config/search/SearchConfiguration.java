@@ -11,4 +11,6 @@ public class SearchConfiguration {
   private CustomConfiguration custom;
   private GraphQueryConfiguration graph;
   private WordGramConfiguration wordGram;
+  private SearchExecutionConfiguration execution;
+  private AutocompleteIndexConfiguration autocompleteIndex;
 }
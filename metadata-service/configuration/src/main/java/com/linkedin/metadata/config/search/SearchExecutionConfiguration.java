@@ -0,0 +1,19 @@
+package com.linkedin.metadata.config.search;
+
+import lombok.Data;
+
+@Data
+public class SearchExecutionConfiguration {
+
+  // Fetch facets with a separate size 0 request the shard request cache can answer
+  private boolean splitAggregations;
+  // Send every page of the same query and filter to the same shard copies. The preference does not
+  // depend on the user, so a popular query always lands on the same copies and bypasses adaptive
+  // replica selection. Leave it off when a few queries dominate the traffic.
+  private boolean stickyPreference;
+  // Hits counted exactly before the total is reported as a lower bound, 0 keeps the engine default
+  private int trackTotalHitsUpTo;
+  // Facet responses kept in GMS between pages of a search, 0 disables the cache
+  private long facetCacheMaxSize;
+  private long facetCacheTtlSeconds;
+}
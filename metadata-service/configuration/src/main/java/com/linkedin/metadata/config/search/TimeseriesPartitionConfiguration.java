@@ -0,0 +1,20 @@
+package com.linkedin.metadata.config.search;
+
+import lombok.Data;
+
+/**
+ * Splits each timeseries aspect index into time bucketed backing indices behind an alias with the
+ * original index name.
+ */
+@Data
+public class TimeseriesPartitionConfiguration {
+
+  private boolean enabled;
+  // DAYS, WEEKS or MONTHS, the span of event time covered by each backing index
+  private String interval;
+  // Backing indices whose whole span is older than the retention are dropped, 0 keeps all of them
+  private long retentionValue;
+  private String retentionUnit;
+  // How long the list of backing indices used to prune queries is cached for
+  private int listCacheSeconds;
+}
@@ -3,9 +3,13 @@ package com.linkedin.gms.factory.common;
 import com.linkedin.gms.factory.config.ConfigurationProvider;
 import com.linkedin.gms.factory.entityregistry.EntityRegistryFactory;
 import com.linkedin.gms.factory.search.BaseElasticSearchComponentsFactory;
+import com.linkedin.metadata.config.search.EdgeCleanupConfiguration;
+import com.linkedin.metadata.config.search.GraphQueryConfiguration;
+import com.linkedin.metadata.config.search.LineageIndexConfiguration;
 import com.linkedin.metadata.graph.elastic.ESGraphQueryDAO;
 import com.linkedin.metadata.graph.elastic.ESGraphWriteDAO;
 import com.linkedin.metadata.graph.elastic.ElasticSearchGraphService;
+import com.linkedin.metadata.graph.elastic.LineageGraphIndex;
 import com.linkedin.metadata.models.registry.EntityRegistry;
 import com.linkedin.metadata.models.registry.LineageRegistry;
 import com.linkedin.metadata.spring.YamlPropertySourceFactory;
@@ -35,19 +39,44 @@ public class ElasticSearchGraphServiceFactory {
   @Nonnull
   protected ElasticSearchGraphService getInstance() {
     LineageRegistry lineageRegistry = new LineageRegistry(entityRegistry);
-    return new ElasticSearchGraphService(
-        lineageRegistry,
-        components.getBulkProcessor(),
-        components.getIndexConvention(),
+    GraphQueryConfiguration graphConfiguration =
+        configurationProvider.getElasticSearch().getSearch().getGraph();
+    ESGraphQueryDAO graphQueryDAO =
+        new ESGraphQueryDAO(
+            components.getSearchClient(),
+            lineageRegistry,
+            components.getIndexConvention(),
+            graphConfiguration);
+    ESGraphWriteDAO graphWriteDAO =
         new ESGraphWriteDAO(
             components.getIndexConvention(),
             components.getBulkProcessor(),
-            components.getNumRetries()),
-        new ESGraphQueryDAO(
-            components.getSearchClient(),
+            components.getNumRetries());
+    EdgeCleanupConfiguration edgeCleanupConfiguration = graphConfiguration.getEdgeCleanup();
+    if (edgeCleanupConfiguration != null && edgeCleanupConfiguration.getIntervalMillis() > 0) {
+      graphWriteDAO.startCleanup(
+          edgeCleanupConfiguration.getIntervalMillis(),
+          edgeCleanupConfiguration.getBatchSize(),
+          edgeCleanupConfiguration.getMaxPending());
+    }
+    ElasticSearchGraphService graphService =
+        new ElasticSearchGraphService(
             lineageRegistry,
+            components.getBulkProcessor(),
             components.getIndexConvention(),
-            configurationProvider.getElasticSearch().getSearch().getGraph()),
-        components.getIndexBuilder());
+            graphWriteDAO,
+            graphQueryDAO,
+            components.getIndexBuilder());
+    graphService.setRoutedIndices(graphConfiguration.isRoutedIndices());
+
+    LineageIndexConfiguration lineageIndexConfiguration = graphConfiguration.getLineageIndex();
+    if (lineageIndexConfiguration != null && lineageIndexConfiguration.isEnabled()) {
+      LineageGraphIndex lineageGraphIndex =
+          new LineageGraphIndex(lineageRegistry.getLineageRelationshipTypes());
+      graphService.setLineageGraphIndex(lineageGraphIndex);
+      lineageGraphIndex.bootstrapAsync(
+          graphQueryDAO, lineageIndexConfiguration.getBootstrapBatchSize());
+    }
+    return graphService;
   }
 }
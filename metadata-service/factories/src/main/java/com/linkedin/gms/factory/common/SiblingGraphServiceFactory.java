@@ -7,6 +7,7 @@ import com.linkedin.metadata.graph.SiblingGraphService;
 import javax.annotation.Nonnull;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
@@ -24,10 +25,16 @@ public class SiblingGraphServiceFactory {
   @Qualifier("graphService")
   private GraphService graphService;
 
+  @Value("${cache.siblings.maxSize:0}")
+  private long cacheMaxSize;
+
+  @Value("${cache.siblings.ttlSeconds:300}")
+  private long cacheTtlSeconds;
+
   @Bean(name = "siblingGraphService")
   @Primary
   @Nonnull
   protected SiblingGraphService getInstance() {
-    return new SiblingGraphService(_entityService, graphService);
+    return new SiblingGraphService(_entityService, graphService, cacheMaxSize, cacheTtlSeconds);
   }
 }
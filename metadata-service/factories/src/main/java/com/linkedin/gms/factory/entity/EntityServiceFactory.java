@@ -4,6 +4,7 @@ import com.linkedin.datahub.graphql.featureflags.FeatureFlags;
 import com.linkedin.gms.factory.config.ConfigurationProvider;
 import com.linkedin.metadata.dao.producer.KafkaEventProducer;
 import com.linkedin.metadata.entity.AspectDao;
+import com.linkedin.metadata.entity.AspectWriteDeduplicator;
 import com.linkedin.metadata.entity.EntityService;
 import com.linkedin.metadata.entity.EntityServiceImpl;
 import com.linkedin.metadata.entity.ebean.batch.ChangeItemImpl;
@@ -29,17 +30,29 @@ public class EntityServiceFactory {
       @Qualifier("entityAspectDao") AspectDao aspectDao,
       EntityRegistry entityRegistry,
       ConfigurationProvider configurationProvider,
-      @Value("${featureFlags.showBrowseV2}") final boolean enableBrowsePathV2) {
+      @Value("${featureFlags.showBrowseV2}") final boolean enableBrowsePathV2,
+      @Value("${entityService.writeDeduplication.enabled}") final boolean deduplicationEnabled,
+      @Value("${entityService.writeDeduplication.maxEntries}") final long deduplicationMaxEntries,
+      @Value("${entityService.writeDeduplication.ttlSeconds}") final long deduplicationTtlSeconds,
+      @Value("${entityService.writeDeduplication.runIdleSeconds}") final long runIdleSeconds) {
 
     FeatureFlags featureFlags = configurationProvider.getFeatureFlags();
 
-    return new EntityServiceImpl(
-        aspectDao,
-        eventProducer,
-        entityRegistry,
-        featureFlags.isAlwaysEmitChangeLog(),
-        featureFlags.getPreProcessHooks(),
-        _ebeanMaxTransactionRetry,
-        enableBrowsePathV2);
+    EntityServiceImpl entityService =
+        new EntityServiceImpl(
+            aspectDao,
+            eventProducer,
+            entityRegistry,
+            featureFlags.isAlwaysEmitChangeLog(),
+            featureFlags.getPreProcessHooks(),
+            _ebeanMaxTransactionRetry,
+            enableBrowsePathV2);
+    entityService.setWriteDeduplicator(
+        new AspectWriteDeduplicator(
+            deduplicationEnabled,
+            deduplicationMaxEntries,
+            deduplicationTtlSeconds,
+            runIdleSeconds));
+    return entityService;
   }
 }
@@ -6,6 +6,7 @@ import com.linkedin.metadata.entity.RetentionService;
 import com.linkedin.metadata.entity.cassandra.CassandraRetentionService;
 import com.linkedin.metadata.entity.ebean.EbeanRetentionService;
 import com.linkedin.metadata.entity.ebean.batch.ChangeItemImpl;
+import com.linkedin.metadata.entity.retention.RetentionCompactor;
 import com.linkedin.metadata.spring.YamlPropertySourceFactory;
 import io.ebean.Database;
 import javax.annotation.Nonnull;
@@ -29,6 +30,18 @@ public class RetentionServiceFactory {
   @Value("${RETENTION_APPLICATION_BATCH_SIZE:1000}")
   private Integer _batchSize;
 
+  @Value("${entityService.retention.compaction.batchSize}")
+  private Integer _compactionBatchSize;
+
+  @Value("${entityService.retention.compaction.maxPendingKeys}")
+  private Integer _compactionMaxPendingKeys;
+
+  @Value("${entityService.retention.compaction.rowsPerSecond}")
+  private Double _compactionRowsPerSecond;
+
+  @Value("${entityService.retention.compaction.intervalMillis}")
+  private Long _compactionIntervalMillis;
+
   @Bean(name = "retentionService")
   @DependsOn({"cassandraSession", "entityService"})
   @ConditionalOnProperty(name = "entityService.impl", havingValue = "cassandra")
@@ -50,4 +63,21 @@ public class RetentionServiceFactory {
     _entityService.setRetentionService(retentionService);
     return retentionService;
   }
+
+  @Bean(name = "retentionCompactor")
+  @DependsOn({"retentionService"})
+  @ConditionalOnProperty(name = "entityService.retention.compaction.enabled", havingValue = "true")
+  @Nonnull
+  protected RetentionCompactor createRetentionCompactor(
+      @Qualifier("retentionService") RetentionService<ChangeItemImpl> retentionService) {
+    RetentionCompactor retentionCompactor =
+        new RetentionCompactor(
+            retentionService,
+            _compactionBatchSize,
+            _compactionMaxPendingKeys,
+            _compactionRowsPerSecond,
+            _compactionIntervalMillis);
+    retentionService.setRetentionCompactor(retentionCompactor);
+    return retentionCompactor;
+  }
 }
@@ -1,15 +1,23 @@
 package com.linkedin.gms.factory.entity.update.indices;
 
+import com.linkedin.gms.factory.lineage.LineageImpactServiceFactory;
+import com.linkedin.gms.factory.search.BrowseTreeIndexFactory;
 import com.linkedin.gms.factory.search.EntityIndexBuildersFactory;
+import com.linkedin.gms.factory.timeseries.UsageRollupServiceFactory;
 import com.linkedin.metadata.aspect.CachingAspectRetriever;
 import com.linkedin.metadata.entity.EntityService;
 import com.linkedin.metadata.graph.GraphService;
+import com.linkedin.metadata.graph.SiblingGraphService;
+import com.linkedin.metadata.graph.impact.LineageImpactService;
 import com.linkedin.metadata.search.EntitySearchService;
 import com.linkedin.metadata.search.elasticsearch.indexbuilder.EntityIndexBuilders;
+import com.linkedin.metadata.search.elasticsearch.query.BrowseTreeIndex;
 import com.linkedin.metadata.search.transformer.SearchDocumentTransformer;
 import com.linkedin.metadata.service.UpdateIndicesService;
 import com.linkedin.metadata.systemmetadata.SystemMetadataService;
 import com.linkedin.metadata.timeseries.TimeseriesAspectService;
+import com.linkedin.metadata.timeseries.elastic.rollup.UsageRollupService;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
@@ -17,9 +25,19 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 
 @Configuration
-@Import(EntityIndexBuildersFactory.class)
+@Import({
+  EntityIndexBuildersFactory.class,
+  UsageRollupServiceFactory.class,
+  LineageImpactServiceFactory.class,
+  BrowseTreeIndexFactory.class
+})
 public class UpdateIndicesServiceFactory {
 
+  // Only created in GMS, a standalone MAE consumer leaves sibling caches to their TTL
+  @Autowired(required = false)
+  @Qualifier("siblingGraphService")
+  private SiblingGraphService siblingGraphService;
+
   /*
    When restli mode the EntityService is not available. Wire in an AspectRetriever here instead
    based on the entity client
@@ -33,7 +51,10 @@ public class UpdateIndicesServiceFactory {
       SystemMetadataService systemMetadataService,
       SearchDocumentTransformer searchDocumentTransformer,
       EntityIndexBuilders entityIndexBuilders,
-      @Qualifier("cachingAspectRetriever") final CachingAspectRetriever aspectRetriever) {
+      @Qualifier("cachingAspectRetriever") final CachingAspectRetriever aspectRetriever,
+      @Qualifier("usageRollupService") final UsageRollupService usageRollupService,
+      @Qualifier("lineageImpactService") final LineageImpactService lineageImpactService,
+      @Qualifier("browseTreeIndex") final BrowseTreeIndex browseTreeIndex) {
 
     UpdateIndicesService updateIndicesService =
         new UpdateIndicesService(
@@ -44,6 +65,12 @@ public class UpdateIndicesServiceFactory {
             searchDocumentTransformer,
             entityIndexBuilders);
     updateIndicesService.initializeAspectRetriever(aspectRetriever);
+    updateIndicesService.setUsageRollupService(usageRollupService);
+    updateIndicesService.setLineageImpactService(lineageImpactService);
+    updateIndicesService.setSiblingGraphService(siblingGraphService);
+    if (browseTreeIndex.isEnabled()) {
+      updateIndicesService.setBrowseTreeIndex(browseTreeIndex);
+    }
 
     return updateIndicesService;
   }
@@ -57,7 +84,10 @@ public class UpdateIndicesServiceFactory {
       final SystemMetadataService systemMetadataService,
       final SearchDocumentTransformer searchDocumentTransformer,
       final EntityIndexBuilders entityIndexBuilders,
-      final EntityService<?> entityService) {
+      final EntityService<?> entityService,
+      @Qualifier("usageRollupService") final UsageRollupService usageRollupService,
+      @Qualifier("lineageImpactService") final LineageImpactService lineageImpactService,
+      @Qualifier("browseTreeIndex") final BrowseTreeIndex browseTreeIndex) {
 
     UpdateIndicesService updateIndicesService =
         new UpdateIndicesService(
@@ -69,6 +99,12 @@ public class UpdateIndicesServiceFactory {
             entityIndexBuilders);
 
     updateIndicesService.initializeAspectRetriever(entityService);
+    updateIndicesService.setUsageRollupService(usageRollupService);
+    updateIndicesService.setLineageImpactService(lineageImpactService);
+    updateIndicesService.setSiblingGraphService(siblingGraphService);
+    if (browseTreeIndex.isEnabled()) {
+      updateIndicesService.setBrowseTreeIndex(browseTreeIndex);
+    }
     entityService.setUpdateIndicesService(updateIndicesService);
 
     return updateIndicesService;
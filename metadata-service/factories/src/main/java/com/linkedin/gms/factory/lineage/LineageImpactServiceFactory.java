@@ -0,0 +1,56 @@
+package com.linkedin.gms.factory.lineage;
+
+import com.linkedin.gms.factory.common.GraphServiceFactory;
+import com.linkedin.metadata.graph.GraphService;
+import com.linkedin.metadata.graph.impact.LineageImpactService;
+import com.linkedin.metadata.search.EntitySearchService;
+import com.linkedin.metadata.spring.YamlPropertySourceFactory;
+import javax.annotation.Nonnull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.PropertySource;
+
+@Configuration
+@PropertySource(value = "classpath:/application.yml", factory = YamlPropertySourceFactory.class)
+@Import({GraphServiceFactory.class})
+public class LineageImpactServiceFactory {
+  @Value("${elasticsearch.lineageImpact.enabled:false}")
+  private boolean enabled;
+
+  @Value("${elasticsearch.lineageImpact.precision:8}")
+  private int precision;
+
+  @Value("${elasticsearch.lineageImpact.batchSize:5000}")
+  private int batchSize;
+
+  @Value("${elasticsearch.lineageImpact.flushIntervalSeconds:60}")
+  private long flushIntervalSeconds;
+
+  @Value("${elasticsearch.lineageImpact.rebuildIntervalHours:24}")
+  private long rebuildIntervalHours;
+
+  @Value("${elasticsearch.lineageImpact.maxAffected:10000}")
+  private int maxAffected;
+
+  @Value("${elasticsearch.lineageImpact.maxPendingChanges:100000}")
+  private int maxPendingChanges;
+
+  @Bean(name = "lineageImpactService")
+  @Nonnull
+  protected LineageImpactService getInstance(
+      final GraphService graphService, final EntitySearchService entitySearchService) {
+    LineageImpactService lineageImpactService =
+        new LineageImpactService(
+            graphService,
+            entitySearchService,
+            enabled,
+            precision,
+            batchSize,
+            maxAffected,
+            maxPendingChanges);
+    lineageImpactService.start(flushIntervalSeconds, rebuildIntervalHours);
+    return lineageImpactService;
+  }
+}
@@ -0,0 +1,48 @@
+package com.linkedin.gms.factory.recommendation;
+
+import com.linkedin.gms.factory.common.IndexConventionFactory;
+import com.linkedin.gms.factory.common.RestHighLevelClientFactory;
+import com.linkedin.metadata.datahubusage.RecentActivityStore;
+import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
+import javax.annotation.Nonnull;
+import org.opensearch.client.RestHighLevelClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+@Configuration
+@Import({RestHighLevelClientFactory.class, IndexConventionFactory.class})
+public class RecentActivityStoreFactory {
+  @Autowired
+  @Qualifier("elasticSearchRestHighLevelClient")
+  private RestHighLevelClient searchClient;
+
+  @Autowired
+  @Qualifier(IndexConventionFactory.INDEX_CONVENTION_BEAN)
+  private IndexConvention indexConvention;
+
+  @Value("${platformAnalytics.recentActivity.enabled:false}")
+  private boolean enabled;
+
+  @Value("${platformAnalytics.recentActivity.maxEntries:20}")
+  private int maxEntries;
+
+  @Value("${platformAnalytics.recentActivity.popularCapacity:200}")
+  private int popularCapacity;
+
+  @Value("${platformAnalytics.recentActivity.flushIntervalSeconds:30}")
+  private long flushIntervalSeconds;
+
+  @Bean(name = "recentActivityStore")
+  @Nonnull
+  protected RecentActivityStore getInstance() {
+    RecentActivityStore store =
+        new RecentActivityStore(
+            searchClient, indexConvention, enabled, maxEntries, popularCapacity);
+    store.startFlushing(flushIntervalSeconds);
+    return store;
+  }
+}
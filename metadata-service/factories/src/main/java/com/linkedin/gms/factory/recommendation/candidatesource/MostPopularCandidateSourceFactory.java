@@ -3,6 +3,8 @@ package com.linkedin.gms.factory.recommendation.candidatesource;
 import com.linkedin.gms.factory.common.IndexConventionFactory;
 import com.linkedin.gms.factory.common.RestHighLevelClientFactory;
 import com.linkedin.gms.factory.entity.EntityServiceFactory;
+import com.linkedin.gms.factory.recommendation.RecentActivityStoreFactory;
+import com.linkedin.metadata.datahubusage.RecentActivityStore;
 import com.linkedin.metadata.entity.EntityService;
 import com.linkedin.metadata.recommendation.candidatesource.MostPopularSource;
 import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
@@ -18,7 +20,8 @@ import org.springframework.context.annotation.Import;
 @Import({
   RestHighLevelClientFactory.class,
   IndexConventionFactory.class,
-  EntityServiceFactory.class
+  EntityServiceFactory.class,
+  RecentActivityStoreFactory.class
 })
 public class MostPopularCandidateSourceFactory {
   @Autowired
@@ -33,9 +36,13 @@ public class MostPopularCandidateSourceFactory {
   @Qualifier("entityService")
   private EntityService<?> entityService;
 
+  @Autowired
+  @Qualifier("recentActivityStore")
+  private RecentActivityStore recentActivityStore;
+
   @Bean(name = "mostPopularCandidateSource")
   @Nonnull
   protected MostPopularSource getInstance() {
-    return new MostPopularSource(searchClient, indexConvention, entityService);
+    return new MostPopularSource(searchClient, indexConvention, entityService, recentActivityStore);
   }
 }
@@ -2,6 +2,8 @@ package com.linkedin.gms.factory.recommendation.candidatesource;
 
 import com.linkedin.gms.factory.common.IndexConventionFactory;
 import com.linkedin.gms.factory.common.RestHighLevelClientFactory;
+import com.linkedin.gms.factory.recommendation.RecentActivityStoreFactory;
+import com.linkedin.metadata.datahubusage.RecentActivityStore;
 import com.linkedin.metadata.recommendation.candidatesource.RecentlySearchedSource;
 import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
 import javax.annotation.Nonnull;
@@ -13,7 +15,11 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 
 @Configuration
-@Import({RestHighLevelClientFactory.class, IndexConventionFactory.class})
+@Import({
+  RestHighLevelClientFactory.class,
+  IndexConventionFactory.class,
+  RecentActivityStoreFactory.class
+})
 public class RecentlySearchedCandidateSourceFactory {
   @Autowired
   @Qualifier("elasticSearchRestHighLevelClient")
@@ -23,9 +29,13 @@ public class RecentlySearchedCandidateSourceFactory {
   @Qualifier(IndexConventionFactory.INDEX_CONVENTION_BEAN)
   private IndexConvention indexConvention;
 
+  @Autowired
+  @Qualifier("recentActivityStore")
+  private RecentActivityStore recentActivityStore;
+
   @Bean(name = "recentlySearchedCandidateSource")
   @Nonnull
   protected RecentlySearchedSource getInstance() {
-    return new RecentlySearchedSource(searchClient, indexConvention);
+    return new RecentlySearchedSource(searchClient, indexConvention, recentActivityStore);
   }
 }
@@ -0,0 +1,50 @@
+package com.linkedin.gms.factory.search;
+
+import com.linkedin.gms.factory.entityregistry.EntityRegistryFactory;
+import com.linkedin.metadata.models.registry.EntityRegistry;
+import com.linkedin.metadata.search.elasticsearch.query.BrowseTreeIndex;
+import com.linkedin.metadata.spring.YamlPropertySourceFactory;
+import javax.annotation.Nonnull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.PropertySource;
+
+@Configuration
+@PropertySource(value = "classpath:/application.yml", factory = YamlPropertySourceFactory.class)
+@Import({BaseElasticSearchComponentsFactory.class, EntityRegistryFactory.class})
+public class BrowseTreeIndexFactory {
+  @Autowired
+  @Qualifier("baseElasticSearchComponents")
+  private BaseElasticSearchComponentsFactory.BaseElasticSearchComponents components;
+
+  @Autowired
+  @Qualifier("entityRegistry")
+  private EntityRegistry entityRegistry;
+
+  @Value("${elasticsearch.browseTree.enabled:false}")
+  private boolean enabled;
+
+  @Value("${elasticsearch.browseTree.cacheMaxSize:10000}")
+  private int cacheMaxSize;
+
+  @Value("${elasticsearch.browseTree.cacheTtlSeconds:30}")
+  private long cacheTtlSeconds;
+
+  @Bean(name = "browseTreeIndex")
+  @Nonnull
+  protected BrowseTreeIndex getInstance() {
+    return new BrowseTreeIndex(
+        components.getSearchClient(),
+        components.getIndexConvention(),
+        components.getBulkProcessor(),
+        entityRegistry,
+        enabled,
+        components.getNumRetries(),
+        cacheMaxSize,
+        cacheTtlSeconds);
+  }
+}
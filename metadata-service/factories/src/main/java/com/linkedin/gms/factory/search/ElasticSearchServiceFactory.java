@@ -7,6 +7,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
 import com.linkedin.gms.factory.config.ConfigurationProvider;
 import com.linkedin.gms.factory.entityregistry.EntityRegistryFactory;
+import com.linkedin.metadata.config.search.AutocompleteIndexConfiguration;
 import com.linkedin.metadata.config.search.ElasticSearchConfiguration;
 import com.linkedin.metadata.config.search.SearchConfiguration;
 import com.linkedin.metadata.config.search.custom.CustomSearchConfiguration;
@@ -14,6 +15,8 @@ import com.linkedin.metadata.models.registry.EntityRegistry;
 import com.linkedin.metadata.search.elasticsearch.ElasticSearchService;
 import com.linkedin.metadata.search.elasticsearch.indexbuilder.EntityIndexBuilders;
 import com.linkedin.metadata.search.elasticsearch.indexbuilder.SettingsBuilder;
+import com.linkedin.metadata.search.elasticsearch.query.AutocompleteIndex;
+import com.linkedin.metadata.search.elasticsearch.query.BrowseTreeIndex;
 import com.linkedin.metadata.search.elasticsearch.query.ESBrowseDAO;
 import com.linkedin.metadata.search.elasticsearch.query.ESSearchDAO;
 import com.linkedin.metadata.search.elasticsearch.update.ESWriteDAO;
@@ -23,6 +26,7 @@ import javax.annotation.Nonnull;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
@@ -31,7 +35,7 @@ import org.springframework.context.annotation.PropertySource;
 @Slf4j
 @Configuration
 @PropertySource(value = "classpath:/application.yml", factory = YamlPropertySourceFactory.class)
-@Import({EntityRegistryFactory.class, SettingsBuilderFactory.class})
+@Import({EntityRegistryFactory.class, SettingsBuilderFactory.class, BrowseTreeIndexFactory.class})
 public class ElasticSearchServiceFactory {
   private static final ObjectMapper YAML_MAPPER = new YAMLMapper();
 
@@ -61,6 +65,16 @@ public class ElasticSearchServiceFactory {
 
   @Autowired private ConfigurationProvider configurationProvider;
 
+  @Autowired
+  @Qualifier("browseTreeIndex")
+  private BrowseTreeIndex browseTreeIndex;
+
+  @Value("${elasticsearch.browseTree.batchSize:5000}")
+  private int browseTreeBatchSize;
+
+  @Value("${elasticsearch.browseTree.rebuildIntervalHours:24}")
+  private long browseTreeRebuildIntervalHours;
+
   @Bean(name = "elasticSearchService")
   @Nonnull
   protected ElasticSearchService getInstance(final ConfigurationProvider configurationProvider)
@@ -83,19 +97,41 @@ public class ElasticSearchServiceFactory {
             elasticSearchConfiguration.getImplementation(),
             searchConfiguration,
             customSearchConfiguration);
-    return new ElasticSearchService(
-        entityIndexBuilders,
-        esSearchDAO,
+    ESBrowseDAO esBrowseDAO =
         new ESBrowseDAO(
             components.getSearchClient(),
             components.getIndexConvention(),
             searchConfiguration,
-            customSearchConfiguration),
-        new ESWriteDAO(
-            entityRegistry,
-            components.getSearchClient(),
-            components.getIndexConvention(),
-            components.getBulkProcessor(),
-            components.getNumRetries()));
+            customSearchConfiguration);
+    ElasticSearchService elasticSearchService =
+        new ElasticSearchService(
+            entityIndexBuilders,
+            esSearchDAO,
+            esBrowseDAO,
+            new ESWriteDAO(
+                entityRegistry,
+                components.getSearchClient(),
+                components.getIndexConvention(),
+                components.getBulkProcessor(),
+                components.getNumRetries()));
+
+    AutocompleteIndexConfiguration autocompleteIndexConfiguration =
+        searchConfiguration.getAutocompleteIndex();
+    if (autocompleteIndexConfiguration != null && autocompleteIndexConfiguration.isEnabled()) {
+      AutocompleteIndex autocompleteIndex =
+          new AutocompleteIndex(entityRegistry, autocompleteIndexConfiguration.getMaxDeltaSize());
+      elasticSearchService.setAutocompleteIndex(autocompleteIndex);
+      autocompleteIndex.rebuildPeriodically(
+          esSearchDAO,
+          autocompleteIndexConfiguration.getBatchSize(),
+          autocompleteIndexConfiguration.getRebuildIntervalSeconds());
+    }
+
+    if (browseTreeIndex.isEnabled()) {
+      esBrowseDAO.setBrowseTreeIndex(browseTreeIndex);
+      elasticSearchService.setBrowseTreeIndex(browseTreeIndex);
+      browseTreeIndex.start(esSearchDAO, browseTreeBatchSize, browseTreeRebuildIntervalHours);
+    }
+    return elasticSearchService;
   }
 }
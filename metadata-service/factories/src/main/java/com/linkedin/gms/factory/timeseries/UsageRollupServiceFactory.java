@@ -0,0 +1,51 @@
+package com.linkedin.gms.factory.timeseries;
+
+import com.linkedin.gms.factory.search.BaseElasticSearchComponentsFactory;
+import com.linkedin.metadata.spring.YamlPropertySourceFactory;
+import com.linkedin.metadata.timeseries.TimeseriesAspectService;
+import com.linkedin.metadata.timeseries.elastic.rollup.UsageRollupService;
+import javax.annotation.Nonnull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.PropertySource;
+
+@Configuration
+@PropertySource(value = "classpath:/application.yml", factory = YamlPropertySourceFactory.class)
+@Import({BaseElasticSearchComponentsFactory.class})
+public class UsageRollupServiceFactory {
+  @Autowired
+  @Qualifier("baseElasticSearchComponents")
+  private BaseElasticSearchComponentsFactory.BaseElasticSearchComponents components;
+
+  @Value("${elasticsearch.usageRollup.enabled:false}")
+  private boolean enabled;
+
+  @Value("${elasticsearch.usageRollup.intervalSeconds:60}")
+  private long intervalSeconds;
+
+  @Value("${elasticsearch.usageRollup.settleSeconds:300}")
+  private long settleSeconds;
+
+  @Value("${elasticsearch.usageRollup.batchSize:1000}")
+  private int batchSize;
+
+  @Bean(name = "usageRollupService")
+  @Nonnull
+  protected UsageRollupService getInstance(final TimeseriesAspectService timeseriesAspectService) {
+    UsageRollupService usageRollupService =
+        new UsageRollupService(
+            timeseriesAspectService,
+            components.getSearchClient(),
+            components.getBulkProcessor(),
+            components.getIndexConvention(),
+            enabled,
+            settleSeconds,
+            batchSize);
+    usageRollupService.startRollups(intervalSeconds);
+    return usageRollupService;
+  }
+}
@@ -8,6 +8,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import org.springdoc.core.models.GroupedOpenApi;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.format.FormatterRegistry;
@@ -16,6 +17,7 @@ import org.springframework.http.converter.FormHttpMessageConverter;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.StringHttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -40,6 +42,10 @@ public class SpringWebConfig implements WebMvcConfigurer {
     NONDEFAULT_OPENAPI_PACKAGES.addAll(SCHEMA_REGISTRY_PACKAGES);
   }
 
+  // Streamed responses, such as lineage exports, are served as async requests
+  @Value("${elasticsearch.search.graph.exportTimeoutSeconds:600}")
+  private long asyncRequestTimeoutSeconds;
+
   @Override
   public void configureMessageConverters(List<HttpMessageConverter<?>> messageConverters) {
     messageConverters.add(new StringHttpMessageConverter());
@@ -48,6 +54,11 @@ public class SpringWebConfig implements WebMvcConfigurer {
     messageConverters.add(new MappingJackson2HttpMessageConverter());
   }
 
+  @Override
+  public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+    configurer.setDefaultTimeout(asyncRequestTimeoutSeconds * 1000);
+  }
+
   @Override
   public void addFormatters(FormatterRegistry registry) {
     registry.addConverter(new StringToChangeCategoryConverter());
@@ -16,6 +16,7 @@ import com.linkedin.common.urn.Urn;
 import com.linkedin.common.urn.UrnUtils;
 import com.linkedin.metadata.authorization.PoliciesConfig;
 import com.linkedin.metadata.graph.GraphService;
+import com.linkedin.metadata.graph.LineagePathsResult;
 import com.linkedin.metadata.graph.RelatedEntitiesResult;
 import com.linkedin.metadata.search.utils.QueryUtils;
 import com.linkedin.metadata.utils.metrics.MetricUtils;
@@ -60,6 +61,9 @@ public class RelationshipsController {
   }
 
   private static final int MAX_DOWNSTREAM_CNT = 200;
+  private static final int DEFAULT_LINEAGE_PATH_HOPS = 10;
+  private static final int DEFAULT_LINEAGE_PATH_COUNT = 10;
+  private static final int MAX_LINEAGE_PATH_COUNT = 100;
   private final GraphService _graphService;
   private final AuthorizerChain _authorizerChain;
 
@@ -201,4 +205,89 @@ public class RelationshipsController {
       context.stop();
     }
   }
+
+  @GetMapping(value = "/lineagePaths", produces = MediaType.APPLICATION_JSON_VALUE)
+  @Operation(
+      responses = {
+        @ApiResponse(
+            responseCode = "0",
+            description = "",
+            content = @Content(schema = @Schema(implementation = LineagePathsResult.class)))
+      })
+  public ResponseEntity<LineagePathsResult> getLineagePaths(
+      @Parameter(
+              name = "upstreamUrn",
+              required = true,
+              description = "The urn of the entity the lineage paths start from")
+          @RequestParam("upstreamUrn")
+          @Nonnull
+          String upstreamUrn,
+      @Parameter(
+              name = "downstreamUrn",
+              required = true,
+              description = "The urn of the entity the lineage paths end at")
+          @RequestParam("downstreamUrn")
+          @Nonnull
+          String downstreamUrn,
+      @Parameter(name = "maxHops", description = "The length of the longest path considered")
+          @RequestParam(name = "maxHops", defaultValue = "10")
+          @Nullable
+          Integer maxHops,
+      @Parameter(
+              name = "count",
+              description = "The number of shortest paths returned at most, up to 100")
+          @RequestParam(name = "count", defaultValue = "10")
+          @Nullable
+          Integer count) {
+    Timer.Context context = MetricUtils.timer("getLineagePaths").time();
+    final Urn upstream = UrnUtils.getUrn(URLDecoder.decode(upstreamUrn, Charset.forName("UTF-8")));
+    final Urn downstream =
+        UrnUtils.getUrn(URLDecoder.decode(downstreamUrn, Charset.forName("UTF-8")));
+    log.debug("GET Lineage paths {} -> {}", upstream, downstream);
+    final int pathCount =
+        Math.max(
+            1,
+            Math.min(MAX_LINEAGE_PATH_COUNT, count == null ? DEFAULT_LINEAGE_PATH_COUNT : count));
+    Authentication authentication = AuthenticationContext.getAuthentication();
+    String actorUrnStr = authentication.getActor().toUrnStr();
+    DisjunctivePrivilegeGroup orGroup =
+        new DisjunctivePrivilegeGroup(
+            ImmutableList.of(
+                new ConjunctivePrivilegeGroup(
+                    ImmutableList.of(PoliciesConfig.GET_ENTITY_PRIVILEGE.getType()))));
+
+    List<Optional<EntitySpec>> resourceSpecs =
+        List.of(
+            Optional.of(new EntitySpec(upstream.getEntityType(), upstream.toString())),
+            Optional.of(new EntitySpec(downstream.getEntityType(), downstream.toString())));
+    if (restApiAuthorizationEnabled
+        && !AuthUtil.isAuthorizedForResources(
+            _authorizerChain, actorUrnStr, resourceSpecs, orGroup)) {
+      throw new UnauthorizedException(actorUrnStr + " is unauthorized to get lineage paths.");
+    }
+
+    Throwable exceptionally = null;
+    try {
+      return ResponseEntity.ok(
+          _graphService.findLineagePaths(
+              upstream,
+              downstream,
+              maxHops == null ? DEFAULT_LINEAGE_PATH_HOPS : maxHops,
+              pathCount,
+              null,
+              null));
+    } catch (Exception e) {
+      exceptionally = e;
+      throw new RuntimeException(
+          String.format("Failed to get lineage paths from %s to %s", upstreamUrn, downstreamUrn),
+          e);
+    } finally {
+      if (exceptionally != null) {
+        MetricUtils.counter(MetricRegistry.name("getLineagePaths", "failed")).inc();
+      } else {
+        MetricUtils.counter(MetricRegistry.name("getLineagePaths", "success")).inc();
+      }
+      context.stop();
+    }
+  }
 }
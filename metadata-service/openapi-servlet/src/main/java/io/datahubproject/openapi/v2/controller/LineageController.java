@@ -0,0 +1,144 @@
+package io.datahubproject.openapi.v2.controller;
+
+import static io.datahubproject.openapi.v2.utils.ControllerUtil.checkAuthorized;
+
+import com.datahub.authentication.Authentication;
+import com.datahub.authentication.AuthenticationContext;
+import com.datahub.authorization.AuthorizerChain;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.common.urn.UrnUtils;
+import com.linkedin.metadata.authorization.PoliciesConfig;
+import com.linkedin.metadata.graph.GraphService;
+import com.linkedin.metadata.graph.LineageDirection;
+import com.linkedin.metadata.models.EntitySpec;
+import com.linkedin.metadata.models.registry.EntityRegistry;
+import io.datahubproject.openapi.v2.models.GenericLineageRelationship;
+import io.datahubproject.openapi.v2.models.GenericRelationship;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/v2/lineage")
+@Slf4j
+@Tag(name = "Generic Lineage", description = "APIs for exporting the lineage of entities.")
+public class LineageController {
+
+  // Relationships are written through a buffer this large, a client reading slower than the
+  // lineage is walked blocks the walk once it is full
+  private static final int WRITE_BUFFER_BYTES = 64 * 1024;
+  private static final byte[] NEWLINE = {'\n'};
+
+  @Autowired private EntityRegistry entityRegistry;
+  @Autowired private GraphService graphService;
+  @Autowired private AuthorizerChain authorizationChain;
+  @Autowired private ObjectMapper objectMapper;
+
+  @Autowired private boolean restApiAuthorizationEnabled;
+
+  /**
+   * Streams the lineage of an entity as newline delimited JSON while it is walked, one line per
+   * lineage relationship followed by a last line with the number of entities reached and whether
+   * the export was truncated
+   *
+   * @param entityUrn the entity to export the lineage of
+   * @param direction UPSTREAM or DOWNSTREAM
+   * @param maxHops number of hops to walk at most
+   * @param startTimeMillis optional start of the time window the relationships were updated in
+   * @param endTimeMillis optional end of the time window the relationships were updated in
+   * @return the lineage relationships, a 400 for any other direction or a 501 when the graph
+   *     service cannot export lineage
+   */
+  @GetMapping(value = "/{entityUrn}/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  @Operation(summary = "Stream the lineage of an entity as newline delimited JSON.")
+  public ResponseEntity<StreamingResponseBody> exportLineage(
+      @PathVariable("entityUrn") String entityUrn,
+      @RequestParam(value = "direction", defaultValue = "DOWNSTREAM") String direction,
+      @RequestParam(value = "maxHops", defaultValue = "1000") Integer maxHops,
+      @RequestParam(value = "startTimeMillis", required = false) Long startTimeMillis,
+      @RequestParam(value = "endTimeMillis", required = false) Long endTimeMillis) {
+    if (!LineageDirection.UPSTREAM.name().equalsIgnoreCase(direction)
+        && !LineageDirection.DOWNSTREAM.name().equalsIgnoreCase(direction)) {
+      return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+    }
+    if (!graphService.supportsLineageExport()) {
+      return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).build();
+    }
+    final Urn urn = UrnUtils.getUrn(entityUrn);
+    final LineageDirection lineageDirection = LineageDirection.valueOf(direction.toUpperCase());
+    final boolean downstream = lineageDirection == LineageDirection.DOWNSTREAM;
+
+    if (restApiAuthorizationEnabled) {
+      Authentication authentication = AuthenticationContext.getAuthentication();
+      // Relationships are written before the entities they reach are known, so every entity
+      // type with lineage has to be readable
+      Set<EntitySpec> entitySpecs =
+          Stream.concat(
+                  Stream.of(urn.getEntityType()),
+                  graphService.getLineageRegistry().getEntitiesWithLineage().stream())
+              .map(entityRegistry::getEntitySpec)
+              .collect(Collectors.toSet());
+      checkAuthorized(
+          authorizationChain,
+          authentication.getActor(),
+          entitySpecs,
+          ImmutableList.of(PoliciesConfig.GET_ENTITY_PRIVILEGE.getType()));
+    }
+
+    StreamingResponseBody body =
+        outputStream -> {
+          final OutputStream out = new BufferedOutputStream(outputStream, WRITE_BUFFER_BYTES);
+          final GraphService.LineageExportResult result =
+              graphService.exportLineage(
+                  urn,
+                  lineageDirection,
+                  maxHops,
+                  startTimeMillis,
+                  endTimeMillis,
+                  (degree, fromUrn, toUrn, edge) -> {
+                    out.write(
+                        objectMapper.writeValueAsBytes(
+                            GenericLineageRelationship.builder()
+                                .degree(degree)
+                                .relationshipType(edge.getRelationshipType())
+                                .upstream(
+                                    GenericRelationship.GenericNode.fromUrn(
+                                        downstream ? fromUrn : toUrn))
+                                .downstream(
+                                    GenericRelationship.GenericNode.fromUrn(
+                                        downstream ? toUrn : fromUrn))
+                                .via(edge.getVia() != null ? edge.getVia().toString() : null)
+                                .createdOn(edge.getCreatedOn())
+                                .updatedOn(edge.getUpdatedOn())
+                                .build()));
+                    out.write(NEWLINE);
+                  });
+          out.write(
+              objectMapper.writeValueAsBytes(
+                  Map.of("entities", result.getEntities(), "truncated", result.isTruncated())));
+          out.write(NEWLINE);
+          out.flush();
+        };
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+  }
+}
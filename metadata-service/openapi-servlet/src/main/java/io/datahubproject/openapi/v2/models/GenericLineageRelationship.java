@@ -0,0 +1,21 @@
+package io.datahubproject.openapi.v2.models;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class GenericLineageRelationship {
+  // Hops between the exported entity and the entity this relationship reaches
+  private int degree;
+  @Nonnull private String relationshipType;
+  @Nonnull private GenericRelationship.GenericNode upstream;
+  @Nonnull private GenericRelationship.GenericNode downstream;
+  @Nullable private String via;
+  @Nullable private Long createdOn;
+  @Nullable private Long updatedOn;
+}
@@ -109,6 +109,22 @@ public class ClientCache<K, V, C extends ClientCacheConfig> {
 
       LoadingCache<K, V> cache = caffeine.build(loader);
 
+      // weights are estimated bytes, so the weighted size is the estimated footprint of the cache
+      MetricUtils.gauge(
+          metricClazz,
+          "weightedSizeBytes",
+          () ->
+              (Gauge<Long>)
+                  () ->
+                      cache
+                          .policy()
+                          .eviction()
+                          .map(eviction -> eviction.weightedSize().orElse(0))
+                          .orElse(0L));
+      MetricUtils.gauge(
+          metricClazz, "maxSizeBytes", () -> (Gauge<Long>) () -> (long) config.getMaxBytes());
+      MetricUtils.gauge(metricClazz, "estimatedSize", () -> (Gauge<Long>) cache::estimatedSize);
+
       if (config.isStatsEnabled()) {
         ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1);
         executor.scheduleAtFixedRate(
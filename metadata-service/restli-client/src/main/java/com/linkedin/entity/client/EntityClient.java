@@ -557,6 +557,25 @@ public interface EntityClient {
       @Nonnull Authentication authentication)
       throws RemoteInvocationException;
 
+  /**
+   * Retrieves the latest values of a timeseries aspect for each of the given urns in one request,
+   * rather than one {@link #getTimeseriesAspectValues} call per urn.
+   *
+   * @return the latest values of each urn, newest first, urns without values are absent
+   */
+  @Nonnull
+  Map<Urn, List<EnvelopedAspect>> getLatestTimeseriesAspectValues(
+      @Nonnull Set<Urn> urns,
+      @Nonnull String entity,
+      @Nonnull String aspect,
+      @Nullable Long startTimeMillis,
+      @Nullable Long endTimeMillis,
+      int limit,
+      @Nullable Filter filter,
+      @Nullable SortCriterion sort,
+      @Nonnull Authentication authentication)
+      throws RemoteInvocationException;
+
   @Deprecated
   default String ingestProposal(
       @Nonnull final MetadataChangeProposal metadataChangeProposal,
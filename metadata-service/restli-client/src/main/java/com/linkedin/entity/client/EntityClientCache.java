@@ -10,6 +10,7 @@ import com.linkedin.entity.EntityResponse;
 import com.linkedin.entity.EnvelopedAspect;
 import com.linkedin.entity.EnvelopedAspectMap;
 import com.linkedin.metadata.config.cache.client.EntityClientCacheConfig;
+import com.linkedin.metadata.utils.DataSizeEstimator;
 import com.linkedin.util.Pair;
 import java.util.Collection;
 import java.util.Map;
@@ -88,7 +89,7 @@ public class EntityClientCache {
     public EntityClientCache build(Class<?> metricClazz) {
       // estimate size
       Weigher<Key, EnvelopedAspect> weighByEstimatedSize =
-          (key, value) -> value.getValue().data().toString().getBytes().length;
+          (key, value) -> DataSizeEstimator.estimateWeight(value.getValue().data());
 
       // batch loads data from entity client (restli or java)
       Function<Iterable<? extends Key>, Map<Key, EnvelopedAspect>> loader =
@@ -11,6 +11,7 @@ import com.linkedin.common.urn.UrnUtils;
 import com.linkedin.data.DataMap;
 import com.linkedin.data.template.RecordTemplate;
 import com.linkedin.data.template.StringArray;
+import com.linkedin.entity.AspectsDoGetLatestTimeseriesAspectValuesRequestBuilder;
 import com.linkedin.entity.AspectsDoGetTimeseriesAspectValuesRequestBuilder;
 import com.linkedin.entity.AspectsDoIngestProposalRequestBuilder;
 import com.linkedin.entity.AspectsGetRequestBuilder;
@@ -77,6 +78,7 @@ import com.linkedin.restli.client.RestLiResponseException;
 import com.linkedin.restli.common.HttpStatus;
 import java.net.URISyntaxException;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -983,6 +985,69 @@ public class RestliEntityClient extends BaseClient implements EntityClient {
     return sendClientRequest(requestBuilder, authentication).getEntity().getValues();
   }
 
+  /**
+   * Retrieve the latest instances of a timeseries aspect for many entities in one request.
+   *
+   * @param urns urns of the entities, all of the given entity type.
+   * @param entity the name of the entity.
+   * @param aspect the name of the aspect.
+   * @param startTimeMillis the earliest desired event time of the aspect value in milliseconds.
+   * @param endTimeMillis the latest desired event time of the aspect value in milliseconds.
+   * @param limit the maximum number of desired aspect values per entity.
+   * @param sort the order defining the latest values, defaults to timestampMillis descending.
+   * @param authentication the actor associated with the request [internal]
+   * @return the latest EnvelopedAspect values of each entity that has any.
+   * @throws RemoteInvocationException on remote request error.
+   */
+  @Nonnull
+  @Override
+  public Map<Urn, List<EnvelopedAspect>> getLatestTimeseriesAspectValues(
+      @Nonnull Set<Urn> urns,
+      @Nonnull String entity,
+      @Nonnull String aspect,
+      @Nullable Long startTimeMillis,
+      @Nullable Long endTimeMillis,
+      int limit,
+      @Nullable Filter filter,
+      @Nullable SortCriterion sort,
+      @Nonnull final Authentication authentication)
+      throws RemoteInvocationException {
+    if (urns.isEmpty()) {
+      return Collections.emptyMap();
+    }
+    AspectsDoGetLatestTimeseriesAspectValuesRequestBuilder requestBuilder =
+        ASPECTS_REQUEST_BUILDERS
+            .actionGetLatestTimeseriesAspectValues()
+            .urnsParam(
+                new StringArray(urns.stream().map(Urn::toString).collect(Collectors.toList())))
+            .entityParam(entity)
+            .aspectParam(aspect)
+            .limitParam(limit);
+
+    if (startTimeMillis != null) {
+      requestBuilder.startTimeMillisParam(startTimeMillis);
+    }
+
+    if (endTimeMillis != null) {
+      requestBuilder.endTimeMillisParam(endTimeMillis);
+    }
+
+    if (filter != null) {
+      requestBuilder.filterParam(filter);
+    }
+
+    if (sort != null) {
+      requestBuilder.sortParam(sort);
+    }
+
+    final Map<Urn, List<EnvelopedAspect>> results = new HashMap<>();
+    sendClientRequest(requestBuilder, authentication)
+        .getEntity()
+        .getValues()
+        .forEach((urn, values) -> results.put(UrnUtils.getUrn(urn), values));
+    return results;
+  }
+
   /**
    * Ingest a MetadataChangeProposal event.
    *
@@ -4,6 +4,7 @@ import com.github.benmanes.caffeine.cache.LoadingCache;
 import com.github.benmanes.caffeine.cache.Weigher;
 import com.linkedin.common.client.ClientCache;
 import com.linkedin.metadata.config.cache.client.UsageClientCacheConfig;
+import com.linkedin.metadata.utils.DataSizeEstimator;
 import java.util.Map;
 import java.util.function.BiFunction;
 import java.util.function.Function;
@@ -37,7 +38,7 @@ public class UsageClientCache {
     public UsageClientCache build() {
       // estimate size
       Weigher<Key, UsageQueryResult> weighByEstimatedSize =
-          (key, value) -> value.data().toString().getBytes().length;
+          (key, value) -> DataSizeEstimator.estimateWeight(value.data());
 
       // batch loads data from usage client
       Function<Iterable<? extends Key>, Map<Key, UsageQueryResult>> loader =
@@ -12,11 +12,15 @@ import com.datahub.authorization.EntitySpec;
 import com.datahub.plugins.auth.authorization.Authorizer;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
+import com.linkedin.aspect.GetLatestTimeseriesAspectValuesResponse;
 import com.linkedin.aspect.GetTimeseriesAspectValuesResponse;
 import com.linkedin.common.AuditStamp;
 import com.linkedin.common.urn.Urn;
+import com.linkedin.data.template.StringArray;
 import com.linkedin.metadata.aspect.EnvelopedAspectArray;
+import com.linkedin.metadata.aspect.EnvelopedAspectArrayMap;
 import com.linkedin.metadata.aspect.VersionedAspect;
+import com.linkedin.metadata.aspect.batch.BatchItem;
 import com.linkedin.metadata.authorization.PoliciesConfig;
 import com.linkedin.metadata.entity.EntityService;
 import com.linkedin.metadata.entity.IngestResult;
@@ -46,8 +50,12 @@ import com.linkedin.restli.server.resources.CollectionResourceTaskTemplate;
 import io.opentelemetry.extension.annotations.WithSpan;
 import java.net.URISyntaxException;
 import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
@@ -60,11 +68,15 @@ import lombok.extern.slf4j.Slf4j;
 public class AspectResource extends CollectionResourceTaskTemplate<String, VersionedAspect> {
 
   private static final String ACTION_GET_TIMESERIES_ASPECT = "getTimeseriesAspectValues";
+  private static final String ACTION_GET_LATEST_TIMESERIES_ASPECT =
+      "getLatestTimeseriesAspectValues";
   private static final String ACTION_INGEST_PROPOSAL = "ingestProposal";
+  private static final String ACTION_BATCH_INGEST_PROPOSAL = "batchIngestProposal";
   private static final String ACTION_GET_COUNT = "getCount";
   private static final String PARAM_ENTITY = "entity";
   private static final String PARAM_ASPECT = "aspect";
   private static final String PARAM_PROPOSAL = "proposal";
+  private static final String PARAM_PROPOSALS = "proposals";
   private static final String PARAM_START_TIME_MILLIS = "startTimeMillis";
   private static final String PARAM_END_TIME_MILLIS = "endTimeMillis";
   private static final String PARAM_LATEST_VALUE = "latestValue";
@@ -205,6 +217,80 @@ public class AspectResource extends CollectionResourceTaskTemplate<String, Versi
         MetricRegistry.name(this.getClass(), "getTimeseriesAspectValues"));
   }
 
+  /**
+   * Returns the latest values of a timeseries aspect for each of the given urns in a single query.
+   */
+  @Action(name = ACTION_GET_LATEST_TIMESERIES_ASPECT)
+  @Nonnull
+  @WithSpan
+  public Task<GetLatestTimeseriesAspectValuesResponse> getLatestTimeseriesAspectValues(
+      @ActionParam(PARAM_URNS) @Nonnull String[] urnStrs,
+      @ActionParam(PARAM_ENTITY) @Nonnull String entityName,
+      @ActionParam(PARAM_ASPECT) @Nonnull String aspectName,
+      @ActionParam(PARAM_START_TIME_MILLIS) @Optional @Nullable Long startTimeMillis,
+      @ActionParam(PARAM_END_TIME_MILLIS) @Optional @Nullable Long endTimeMillis,
+      @ActionParam(PARAM_LIMIT) @Optional("1") int limit,
+      @ActionParam(PARAM_FILTER) @Optional @Nullable Filter filter,
+      @ActionParam(PARAM_SORT) @Optional @Nullable SortCriterion sort)
+      throws URISyntaxException {
+    log.info(
+        "Get latest Timeseries Aspect values for aspect {} for {} {} entities with limit {}.",
+        aspectName,
+        urnStrs.length,
+        entityName,
+        limit);
+    final Set<Urn> urns = new LinkedHashSet<>(urnStrs.length);
+    for (String urnStr : urnStrs) {
+      urns.add(Urn.createFromString(urnStr));
+    }
+    return RestliUtil.toTask(
+        () -> {
+          Authentication authentication = AuthenticationContext.getAuthentication();
+          if (Boolean.parseBoolean(System.getenv(REST_API_AUTHORIZATION_ENABLED_ENV))
+              && !isAuthorized(
+                  authentication,
+                  _authorizer,
+                  ImmutableList.of(PoliciesConfig.GET_TIMESERIES_ASPECT_PRIVILEGE),
+                  urns.stream()
+                      .map(
+                          urn ->
+                              java.util.Optional.of(
+                                  new EntitySpec(urn.getEntityType(), urn.toString())))
+                      .collect(Collectors.toList()))) {
+            throw new RestLiServiceException(
+                HttpStatus.S_401_UNAUTHORIZED,
+                "User is unauthorized to get timeseries aspects for " + urns);
+          }
+          GetLatestTimeseriesAspectValuesResponse response =
+              new GetLatestTimeseriesAspectValuesResponse();
+          response.setEntityName(entityName);
+          response.setAspectName(aspectName);
+          if (startTimeMillis != null) {
+            response.setStartTimeMillis(startTimeMillis);
+          }
+          if (endTimeMillis != null) {
+            response.setEndTimeMillis(endTimeMillis);
+          }
+          response.setLimit(limit);
+          EnvelopedAspectArrayMap values = new EnvelopedAspectArrayMap();
+          _timeseriesAspectService
+              .getLatestAspectValues(
+                  urns,
+                  entityName,
+                  aspectName,
+                  startTimeMillis,
+                  endTimeMillis,
+                  limit,
+                  filter,
+                  sort)
+              .forEach(
+                  (urn, aspects) -> values.put(urn.toString(), new EnvelopedAspectArray(aspects)));
+          response.setValues(values);
+          return response;
+        },
+        MetricRegistry.name(this.getClass(), "getLatestTimeseriesAspectValues"));
+  }
+
   @Action(name = ACTION_INGEST_PROPOSAL)
   @Nonnull
   @WithSpan
@@ -265,6 +351,76 @@ public class AspectResource extends CollectionResourceTaskTemplate<String, Versi
         MetricRegistry.name(this.getClass(), "ingestProposal"));
   }
 
+  /** Ingests a list of proposals as a single batch, returning the urn of each in request order. */
+  @Action(name = ACTION_BATCH_INGEST_PROPOSAL)
+  @Nonnull
+  @WithSpan
+  public Task<StringArray> batchIngestProposal(
+      @ActionParam(PARAM_PROPOSALS) @Nonnull MetadataChangeProposal[] metadataChangeProposals,
+      @ActionParam(PARAM_ASYNC) @Optional(UNSET) String async)
+      throws URISyntaxException {
+    log.info("BATCH INGEST PROPOSAL proposals: {}", metadataChangeProposals.length);
+
+    final boolean asyncBool;
+    if (UNSET.equals(async)) {
+      asyncBool = Boolean.parseBoolean(System.getenv(ASYNC_INGEST_DEFAULT_NAME));
+    } else {
+      asyncBool = Boolean.parseBoolean(async);
+    }
+
+    Authentication authentication = AuthenticationContext.getAuthentication();
+    final List<Urn> urns = new ArrayList<>(metadataChangeProposals.length);
+    for (MetadataChangeProposal metadataChangeProposal : metadataChangeProposals) {
+      com.linkedin.metadata.models.EntitySpec entitySpec =
+          _entityService.getEntityRegistry().getEntitySpec(metadataChangeProposal.getEntityType());
+      Urn urn =
+          EntityKeyUtils.getUrnFromProposal(metadataChangeProposal, entitySpec.getKeyAspectSpec());
+      if (Boolean.parseBoolean(System.getenv(REST_API_AUTHORIZATION_ENABLED_ENV))
+          && !isAuthorized(
+              authentication,
+              _authorizer,
+              ImmutableList.of(PoliciesConfig.EDIT_ENTITY_PRIVILEGE),
+              new EntitySpec(urn.getEntityType(), urn.toString()))) {
+        throw new RestLiServiceException(
+            HttpStatus.S_401_UNAUTHORIZED, "User is unauthorized to modify entity " + urn);
+      }
+      urns.add(urn);
+    }
+    String actorUrnStr = authentication.getActor().toUrnStr();
+    final AuditStamp auditStamp =
+        new AuditStamp().setTime(_clock.millis()).setActor(Urn.createFromString(actorUrnStr));
+
+    return RestliUtil.toTask(
+        () -> {
+          try {
+            final AspectsBatch batch =
+                AspectsBatchImpl.builder()
+                    .mcps(Arrays.asList(metadataChangeProposals), auditStamp, _entityService)
+                    .build();
+
+            Set<IngestResult> results = _entityService.ingestProposal(batch, asyncBool);
+
+            // Update runIds, only works for existing documents, so ES document must exist
+            for (IngestResult result : results) {
+              if (result.isProcessedMCL() || result.isUpdate()) {
+                BatchItem request = result.getRequest();
+                tryIndexRunId(
+                    result.getUrn(),
+                    request != null ? request.getSystemMetadata() : null,
+                    _entitySearchService);
+              }
+            }
+
+            StringArray resultUrns = new StringArray(urns.size());
+            urns.forEach(urn -> resultUrns.add(urn.toString()));
+            return resultUrns;
+          } catch (ValidationException e) {
+            throw new RestLiServiceException(HttpStatus.S_422_UNPROCESSABLE_ENTITY, e.getMessage());
+          }
+        },
+        MetricRegistry.name(this.getClass(), "batchIngestProposal"));
+  }
+
   @Action(name = ACTION_GET_COUNT)
   @Nonnull
   @WithSpan
@@ -33,6 +33,8 @@ import com.linkedin.metadata.query.filter.CriterionArray;
 import com.linkedin.metadata.query.filter.Filter;
 import com.linkedin.metadata.restli.RestliUtil;
 import com.linkedin.metadata.timeseries.TimeseriesAspectService;
+import com.linkedin.metadata.timeseries.elastic.rollup.UsageRollup;
+import com.linkedin.metadata.timeseries.elastic.rollup.UsageRollupService;
 import com.linkedin.metadata.timeseries.transformer.TimeseriesAspectTransformer;
 import com.linkedin.parseq.Task;
 import com.linkedin.restli.common.HttpStatus;
@@ -62,8 +64,10 @@ import io.opentelemetry.extension.annotations.WithSpan;
 import java.net.URISyntaxException;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -108,6 +112,10 @@ public class UsageStats extends SimpleResourceTemplate<UsageAggregation> {
   @Named("timeseriesAspectService")
   private TimeseriesAspectService _timeseriesAspectService;
 
+  @Inject
+  @Named("usageRollupService")
+  private UsageRollupService _usageRollupService;
+
   @Inject
   @Named("entityRegistry")
   private EntityRegistry _entityRegistry;
@@ -357,6 +365,44 @@ public class UsageStats extends SimpleResourceTemplate<UsageAggregation> {
     return aggregations;
   }
 
+  private UsageQueryResultAggregations getRolledUpAggregations(
+      @Nonnull Urn resourceUrn, long startTime, long endTime) {
+    UsageRollup usage = _usageRollupService.getUsage(resourceUrn, startTime, endTime);
+    UsageQueryResultAggregations aggregations = new UsageQueryResultAggregations();
+
+    List<UserUsageCounts> userUsageCounts =
+        usage.getUserCounts().entrySet().stream()
+            .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+            .map(
+                entry -> {
+                  UserUsageCounts userUsageCount =
+                      new UserUsageCounts()
+                          .setUser(UrnUtils.getUrn(entry.getKey()))
+                          .setCount(entry.getValue().intValue());
+                  String userEmail = usage.getUserEmails().get(entry.getKey());
+                  if (userEmail != null) {
+                    userUsageCount.setUserEmail(userEmail);
+                  }
+                  return userUsageCount;
+                })
+            .collect(Collectors.toList());
+    aggregations.setUsers(new UserUsageCountsArray(userUsageCounts));
+    aggregations.setUniqueUserCount(userUsageCounts.size());
+
+    List<FieldUsageCounts> fieldUsageCounts =
+        usage.getFieldCounts().entrySet().stream()
+            .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+            .map(
+                entry ->
+                    new FieldUsageCounts()
+                        .setFieldName(entry.getKey())
+                        .setCount(entry.getValue().intValue()))
+            .collect(Collectors.toList());
+    aggregations.setFields(new FieldUsageCountsArray(fieldUsageCounts));
+
+    return aggregations;
+  }
+
   @Action(name = ACTION_QUERY)
   @Nonnull
   @WithSpan
@@ -412,8 +458,14 @@ public class UsageStats extends SimpleResourceTemplate<UsageAggregation> {
           // 2. Get buckets.
           UsageAggregationArray buckets = getBuckets(filter, resource, duration);
 
-          // 3. Get aggregations.
-          UsageQueryResultAggregations aggregations = getAggregations(filter);
+          // 3. Get aggregations, from the usage rollups when the range is bounded.
+          UsageQueryResultAggregations aggregations =
+              startTime != null && _usageRollupService.isEnabled()
+                  ? getRolledUpAggregations(
+                      resourceUrn,
+                      startTime,
+                      endTime != null ? endTime : Instant.now().toEpochMilli())
+                  : getAggregations(filter);
 
           // 4. Compute totalSqlQuery count from the buckets itself.
           // We want to avoid issuing an additional query with a sum aggregation.
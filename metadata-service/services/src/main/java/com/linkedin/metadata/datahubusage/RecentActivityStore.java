@@ -0,0 +1,397 @@
+package com.linkedin.metadata.datahubusage;
+
+import com.codahale.metrics.Timer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Suppliers;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
+import com.linkedin.metadata.utils.metrics.MetricUtils;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.opensearch.OpenSearchStatusException;
+import org.opensearch.action.DocWriteRequest;
+import org.opensearch.action.get.GetRequest;
+import org.opensearch.action.get.GetResponse;
+import org.opensearch.action.index.IndexRequest;
+import org.opensearch.client.RequestOptions;
+import org.opensearch.client.RestHighLevelClient;
+import org.opensearch.client.indices.CreateIndexRequest;
+import org.opensearch.client.indices.GetIndexRequest;
+import org.opensearch.common.xcontent.XContentType;
+import org.opensearch.rest.RestStatus;
+import org.opensearch.search.aggregations.Aggregation;
+import org.opensearch.search.aggregations.bucket.terms.Terms;
+import org.opensearch.search.aggregations.metrics.NumericMetricsAggregation;
+
+/**
+ * Keeps the usage signals shown on the home page as one small document per user or per platform,
+ * so that recommendation sources read a single document instead of aggregating over the whole
+ * usage event index on every page load.
+ *
+ * <p>Usage events are folded into in-memory {@link TopValues} as they are consumed and merged into
+ * the persisted documents on every flush, using optimistic concurrency so several consumers can
+ * share the documents. Every document is bounded: recency signals keep the {@code maxEntries} most
+ * recent values and popularity keeps {@code popularCapacity} counters.
+ *
+ * <p>Documents only cover the events consumed since the store was enabled until they are seeded
+ * with the aggregation over the usage event index, see {@link #seed}.
+ */
+@Slf4j
+public class RecentActivityStore implements AutoCloseable {
+  public static final String INDEX_NAME = "datahub_usage_activity";
+  private static final String USAGE_INDEX_NAME = "datahub_usage_event";
+  private static final String GLOBAL = "global";
+  private static final String ACTIVITY = "activity";
+  private static final String ACTOR = "actorUrn";
+  private static final String VALUES = "values";
+  private static final String UPDATED_AT = "updatedAt";
+  private static final String TOTAL = "total";
+  private static final String SEEDED = "seeded";
+  private static final int MAX_WRITE_ATTEMPTS = 3;
+  private static final long INDEX_EXISTS_CACHE_SECONDS = 60;
+  private static final long CLOSE_TIMEOUT_SECONDS = 10;
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  public enum Activity {
+    RECENTLY_VIEWED(true, false),
+    RECENTLY_EDITED(false, false),
+    MOST_POPULAR(false, true),
+    RECENTLY_SEARCHED(true, false);
+
+    private final boolean perUser;
+    private final boolean counted;
+
+    Activity(boolean perUser, boolean counted) {
+      this.perUser = perUser;
+      this.counted = counted;
+    }
+  }
+
+  private final RestHighLevelClient searchClient;
+  private final String indexName;
+  @Getter private final boolean enabled;
+  private final int maxEntries;
+  private final int popularCapacity;
+  private final Supplier<Boolean> usageIndexExists;
+  private final Map<String, TopValues> pending = new ConcurrentHashMap<>();
+  private final ScheduledExecutorService flushExecutor =
+      Executors.newSingleThreadScheduledExecutor();
+  private volatile boolean indexCreated = false;
+
+  public RecentActivityStore(
+      @Nonnull RestHighLevelClient searchClient,
+      @Nonnull IndexConvention indexConvention,
+      boolean enabled,
+      int maxEntries,
+      int popularCapacity) {
+    this.searchClient = searchClient;
+    this.indexName = indexConvention.getIndexName(INDEX_NAME);
+    this.enabled = enabled;
+    this.maxEntries = maxEntries;
+    this.popularCapacity = popularCapacity;
+    String usageIndexName = indexConvention.getIndexName(USAGE_INDEX_NAME);
+    this.usageIndexExists =
+        Suppliers.memoizeWithExpiration(
+            () -> indexExists(usageIndexName), INDEX_EXISTS_CACHE_SECONDS, TimeUnit.SECONDS);
+  }
+
+  /** Periodically merge the recorded events into the persisted documents. */
+  public void startFlushing(long intervalSeconds) {
+    if (enabled) {
+      flushExecutor.scheduleWithFixedDelay(
+          this::flush, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+  }
+
+  /**
+   * Whether the usage event index exists. Cached for a minute, the home page checks it for every
+   * recommendation module.
+   */
+  public boolean isUsageIndexPresent() {
+    return usageIndexExists.get();
+  }
+
+  /** Fold a raw usage event into the pending signals. */
+  public void record(@Nonnull String usageEvent) {
+    if (!enabled) {
+      return;
+    }
+    JsonNode event;
+    try {
+      event = OBJECT_MAPPER.readTree(usageEvent);
+    } catch (IOException e) {
+      return;
+    }
+    DataHubUsageEventType type =
+        DataHubUsageEventType.getType(event.path(DataHubUsageEventConstants.TYPE).asText());
+    String actor = event.path(DataHubUsageEventConstants.ACTOR_URN).asText(null);
+    String entityUrn = event.path(DataHubUsageEventConstants.ENTITY_URN).asText(null);
+    String query = event.path(DataHubUsageEventConstants.QUERY).asText(null);
+    long timestamp = event.path(DataHubUsageEventConstants.TIMESTAMP).asLong(0);
+    if (type == null || actor == null) {
+      return;
+    }
+    switch (type) {
+      case ENTITY_VIEW_EVENT:
+        if (entityUrn != null) {
+          add(Activity.RECENTLY_VIEWED, actor, entityUrn, timestamp);
+          add(Activity.MOST_POPULAR, GLOBAL, entityUrn, timestamp);
+        }
+        break;
+      case ENTITY_ACTION_EVENT:
+        if (entityUrn != null) {
+          add(Activity.RECENTLY_EDITED, GLOBAL, entityUrn, timestamp);
+        }
+        break;
+      case SEARCH_RESULTS_VIEW_EVENT:
+        if (query != null && event.path(TOTAL).asLong(0) > 0) {
+          add(Activity.RECENTLY_SEARCHED, actor, query, timestamp);
+        }
+        break;
+      default:
+        break;
+    }
+  }
+
+  /**
+   * Top values of an activity, highest ranked first.
+   *
+   * @param activity the usage signal
+   * @param actor the user, ignored for platform wide activities
+   * @return empty if the store is disabled or its document for the key is missing or not seeded
+   *     yet, in which case callers fall back to aggregating over the usage event index
+   */
+  public Optional<List<String>> getTopValues(@Nonnull Activity activity, @Nullable Urn actor) {
+    if (!enabled || (activity.perUser && actor == null)) {
+      return Optional.empty();
+    }
+    String key = activity.perUser ? actor.toString() : GLOBAL;
+    try (Timer.Context ignored = MetricUtils.timer(this.getClass(), "getTopValues").time()) {
+      GetResponse response =
+          searchClient.get(
+              new GetRequest(indexName, documentId(activity, key)), RequestOptions.DEFAULT);
+      if (!response.isExists()) {
+        return Optional.empty();
+      }
+      JsonNode document = OBJECT_MAPPER.readTree(response.getSourceAsString());
+      if (!document.path(SEEDED).asBoolean(false)) {
+        return Optional.empty();
+      }
+      return Optional.of(
+          TopValues.fromJson(document.path(VALUES), capacity(activity), activity.counted)
+              .getValues());
+    } catch (IOException | OpenSearchStatusException e) {
+      log.warn("Failed to read {} for {}, falling back to aggregation", activity, key, e);
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Seed the document of an activity with the aggregation over the usage event index that was
+   * served while the document was missing or not seeded, so that it also covers the usage from
+   * before the store was enabled. Runs in the background, a document that keeps being updated
+   * concurrently is seeded on a later read and a document that is already seeded is left as is.
+   *
+   * @param activity the usage signal
+   * @param actor the user, ignored for platform wide activities
+   * @param aggregation terms of the values, with their last timestamp as the single value metric
+   *     sub aggregation of a bucket when ranked by recency
+   */
+  public void seed(@Nonnull Activity activity, @Nullable Urn actor, @Nonnull Terms aggregation) {
+    if (!enabled || (activity.perUser && actor == null)) {
+      return;
+    }
+    TopValues seeded = new TopValues(capacity(activity), activity.counted);
+    for (Terms.Bucket bucket : aggregation.getBuckets()) {
+      seeded.put(bucket.getKeyAsString(), bucket.getDocCount(), lastTimestamp(bucket));
+    }
+    String id = documentId(activity, activity.perUser ? actor.toString() : GLOBAL);
+    flushExecutor.execute(
+        () -> {
+          try {
+            ensureIndex();
+            write(id, seeded, true);
+          } catch (Exception e) {
+            MetricUtils.exceptionCounter(this.getClass(), "seed", e);
+            log.warn("Failed to seed recent activity {}", id, e);
+          }
+        });
+  }
+
+  /** Merge everything recorded since the last flush into the persisted documents. */
+  @VisibleForTesting
+  void flush() {
+    if (pending.isEmpty()) {
+      return;
+    }
+    try (Timer.Context ignored = MetricUtils.timer(this.getClass(), "flush").time()) {
+      ensureIndex();
+      for (String id : new ArrayList<>(pending.keySet())) {
+        TopValues delta = pending.remove(id);
+        if (delta == null) {
+          continue;
+        }
+        try {
+          write(id, delta, false);
+        } catch (Exception e) {
+          // Keep the events for the next flush
+          MetricUtils.exceptionCounter(this.getClass(), "flush", e);
+          log.warn("Failed to persist recent activity {}", id, e);
+          pending.merge(id, delta, RecentActivityStore::mergeInto);
+        }
+      }
+    } catch (Exception e) {
+      MetricUtils.exceptionCounter(this.getClass(), "flush", e);
+      log.error("Failed to persist recent activity", e);
+    }
+  }
+
+  @Override
+  public void close() {
+    flushExecutor.shutdown();
+    try {
+      // Let a running flush or seed finish before the last flush
+      flushExecutor.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    flush();
+  }
+
+  private void add(Activity activity, String key, String value, long timestamp) {
+    pending.compute(
+        documentId(activity, key),
+        (id, values) -> {
+          TopValues result =
+              values != null ? values : new TopValues(capacity(activity), activity.counted);
+          result.add(value, timestamp);
+          return result;
+        });
+  }
+
+  // Seeds hold values that may already be in the document, they are merged without adding up counts
+  private void write(String id, TopValues delta, boolean seed) throws IOException {
+    Activity activity = Activity.valueOf(id.substring(0, id.indexOf('|')));
+    String key = id.substring(id.indexOf('|') + 1);
+    for (int attempt = 1; ; attempt++) {
+      GetResponse current =
+          searchClient.get(new GetRequest(indexName, id), RequestOptions.DEFAULT);
+      TopValues merged = new TopValues(capacity(activity), activity.counted);
+      IndexRequest request = new IndexRequest(indexName).id(id);
+      boolean seeded = seed;
+      if (current.isExists()) {
+        JsonNode currentDocument = OBJECT_MAPPER.readTree(current.getSourceAsString());
+        if (seed && currentDocument.path(SEEDED).asBoolean(false)) {
+          // Seeded by an earlier read, the events consumed since are already in the document
+          return;
+        }
+        merged.merge(
+            TopValues.fromJson(currentDocument.path(VALUES), capacity(activity), activity.counted));
+        seeded |= currentDocument.path(SEEDED).asBoolean(false);
+        request.setIfSeqNo(current.getSeqNo()).setIfPrimaryTerm(current.getPrimaryTerm());
+      } else {
+        request.opType(DocWriteRequest.OpType.CREATE);
+      }
+      if (seed) {
+        merged.mergeMax(delta);
+      } else {
+        merged.merge(delta);
+      }
+
+      ObjectNode document = OBJECT_MAPPER.createObjectNode();
+      document.put(ACTIVITY, activity.name());
+      if (activity.perUser) {
+        document.put(ACTOR, key);
+      }
+      document.set(VALUES, merged.toJson());
+      document.put(SEEDED, seeded);
+      document.put(UPDATED_AT, System.currentTimeMillis());
+      request.source(OBJECT_MAPPER.writeValueAsString(document), XContentType.JSON);
+      try {
+        searchClient.index(request, RequestOptions.DEFAULT);
+        return;
+      } catch (OpenSearchStatusException e) {
+        // Another consumer updated the document since it was read
+        if (e.status() != RestStatus.CONFLICT || attempt >= MAX_WRITE_ATTEMPTS) {
+          throw e;
+        }
+      }
+    }
+  }
+
+  private void ensureIndex() throws IOException {
+    if (indexCreated || indexExists(indexName)) {
+      indexCreated = true;
+      return;
+    }
+    // Values are only ever read back by id, keep them out of the mappings
+    Map<String, Object> mappings =
+        Map.of(
+            "dynamic",
+            false,
+            "properties",
+            Map.of(
+                ACTIVITY, Map.of("type", "keyword"),
+                ACTOR, Map.of("type", "keyword"),
+                UPDATED_AT, Map.of("type", "date")));
+    try {
+      searchClient
+          .indices()
+          .create(new CreateIndexRequest(indexName).mapping(mappings), RequestOptions.DEFAULT);
+    } catch (OpenSearchStatusException e) {
+      if (e.status() != RestStatus.BAD_REQUEST) {
+        throw e;
+      }
+      // Created concurrently by another consumer
+    }
+    indexCreated = true;
+  }
+
+  private boolean indexExists(String name) {
+    try {
+      return searchClient.indices().exists(new GetIndexRequest(name), RequestOptions.DEFAULT);
+    } catch (IOException e) {
+      log.error("Failed to check whether index {} exists", name, e);
+      return false;
+    }
+  }
+
+  // Recency aggregations rank their buckets by a max timestamp sub aggregation
+  private static long lastTimestamp(Terms.Bucket bucket) {
+    for (Aggregation aggregation : bucket.getAggregations()) {
+      if (aggregation instanceof NumericMetricsAggregation.SingleValue) {
+        double value = ((NumericMetricsAggregation.SingleValue) aggregation).value();
+        return Double.isFinite(value) ? (long) value : 0;
+      }
+    }
+    return 0;
+  }
+
+  private int capacity(Activity activity) {
+    return activity.counted ? popularCapacity : maxEntries;
+  }
+
+  private static String documentId(Activity activity, String key) {
+    return activity.name() + "|" + key;
+  }
+
+  private static TopValues mergeInto(TopValues current, TopValues added) {
+    current.merge(added);
+    return current;
+  }
+}
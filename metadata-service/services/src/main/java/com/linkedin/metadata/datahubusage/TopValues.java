@@ -0,0 +1,154 @@
+package com.linkedin.metadata.datahubusage;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+
+/**
+ * Bounded set of the top values of one usage signal. Values are ranked by their last timestamp, or
+ * by their count when {@code counted}. Counted values follow the space saving algorithm: a new
+ * value that does not fit replaces the lowest ranked one and inherits its count, which keeps the
+ * most frequent values in a fixed amount of memory.
+ */
+class TopValues {
+  private static final String VALUE = "value";
+  private static final String COUNT = "count";
+  private static final String LAST_TIMESTAMP = "lastTimestamp";
+
+  private final int capacity;
+  private final boolean counted;
+  private final Map<String, Stats> values = new HashMap<>();
+
+  private static class Stats {
+    long count;
+    long lastTimestamp;
+
+    Stats(long count, long lastTimestamp) {
+      this.count = count;
+      this.lastTimestamp = lastTimestamp;
+    }
+  }
+
+  TopValues(int capacity, boolean counted) {
+    this.capacity = capacity;
+    this.counted = counted;
+  }
+
+  void add(@Nonnull String value, long timestamp) {
+    Stats stats = values.get(value);
+    if (stats != null) {
+      stats.count++;
+      stats.lastTimestamp = Math.max(stats.lastTimestamp, timestamp);
+      return;
+    }
+    long count = 1;
+    if (values.size() >= capacity) {
+      Map.Entry<String, Stats> lowest =
+          values.entrySet().stream().min(Map.Entry.comparingByValue(ranking())).get();
+      if (!counted && lowest.getValue().lastTimestamp > timestamp) {
+        // Older than everything kept, a late event
+        return;
+      }
+      values.remove(lowest.getKey());
+      count = counted ? lowest.getValue().count + 1 : 1;
+    }
+    values.put(value, new Stats(count, timestamp));
+  }
+
+  /** Add the counts and timestamps of {@code other}, then trim back to capacity. */
+  void merge(@Nonnull TopValues other) {
+    other.values.forEach(
+        (value, stats) ->
+            values.merge(
+                value,
+                new Stats(stats.count, stats.lastTimestamp),
+                (current, added) ->
+                    new Stats(
+                        current.count + added.count,
+                        Math.max(current.lastTimestamp, added.lastTimestamp))));
+    trim();
+  }
+
+  /**
+   * Keep the highest count and the latest timestamp of the values of both, then trim back to
+   * capacity. Unlike {@link #merge}, merging the same values twice changes nothing.
+   */
+  void mergeMax(@Nonnull TopValues other) {
+    other.values.forEach(
+        (value, stats) ->
+            values.merge(
+                value,
+                new Stats(stats.count, stats.lastTimestamp),
+                (current, added) ->
+                    new Stats(
+                        Math.max(current.count, added.count),
+                        Math.max(current.lastTimestamp, added.lastTimestamp))));
+    trim();
+  }
+
+  /** Set the count and last timestamp of a value, as aggregated elsewhere. */
+  void put(@Nonnull String value, long count, long lastTimestamp) {
+    values.put(value, new Stats(count, lastTimestamp));
+    trim();
+  }
+
+  boolean isEmpty() {
+    return values.isEmpty();
+  }
+
+  /** Values from highest to lowest ranked. */
+  List<String> getValues() {
+    return values.entrySet().stream()
+        .sorted(Map.Entry.<String, Stats>comparingByValue(ranking()).reversed())
+        .map(Map.Entry::getKey)
+        .collect(Collectors.toList());
+  }
+
+  ArrayNode toJson() {
+    ArrayNode array = JsonNodeFactory.instance.arrayNode();
+    values.forEach(
+        (value, stats) -> {
+          ObjectNode node = array.addObject();
+          node.put(VALUE, value);
+          node.put(COUNT, stats.count);
+          node.put(LAST_TIMESTAMP, stats.lastTimestamp);
+        });
+    return array;
+  }
+
+  static TopValues fromJson(@Nonnull JsonNode array, int capacity, boolean counted) {
+    TopValues topValues = new TopValues(capacity, counted);
+    array.forEach(
+        node ->
+            topValues.values.put(
+                node.get(VALUE).asText(),
+                new Stats(node.path(COUNT).asLong(1), node.path(LAST_TIMESTAMP).asLong(0))));
+    return topValues;
+  }
+
+  private void trim() {
+    if (values.size() > capacity) {
+      List<String> evicted =
+          values.entrySet().stream()
+              .sorted(Map.Entry.comparingByValue(ranking()))
+              .limit(values.size() - capacity)
+              .map(Map.Entry::getKey)
+              .collect(Collectors.toList());
+      evicted.forEach(values::remove);
+    }
+  }
+
+  private Comparator<Stats> ranking() {
+    Comparator<Stats> byRecency = Comparator.comparingLong(stats -> stats.lastTimestamp);
+    return counted
+        ? Comparator.<Stats>comparingLong(stats -> stats.count).thenComparing(byRecency)
+        : byRecency;
+  }
+}
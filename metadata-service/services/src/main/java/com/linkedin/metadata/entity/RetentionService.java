@@ -11,6 +11,7 @@ import com.linkedin.metadata.aspect.batch.AspectsBatch;
 import com.linkedin.metadata.aspect.batch.ChangeMCP;
 import com.linkedin.metadata.entity.retention.BulkApplyRetentionArgs;
 import com.linkedin.metadata.entity.retention.BulkApplyRetentionResult;
+import com.linkedin.metadata.entity.retention.RetentionCompactor;
 import com.linkedin.metadata.key.DataHubRetentionKey;
 import com.linkedin.metadata.utils.EntityKeyUtils;
 import com.linkedin.metadata.utils.GenericRecordUtils;
@@ -27,6 +28,8 @@ import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
 import lombok.SneakyThrows;
 import lombok.Value;
 
@@ -40,6 +43,12 @@ import lombok.Value;
 public abstract class RetentionService<U extends ChangeMCP> {
   protected static final String ALL = "*";
 
+  /**
+   * When set, retention triggered by writes is queued for background compaction instead of being
+   * applied inline with the write.
+   */
+  @Getter @Setter @Nullable private RetentionCompactor retentionCompactor;
+
   protected abstract EntityService<U> getEntityService();
 
   /**
@@ -163,12 +172,18 @@ public abstract class RetentionService<U extends ChangeMCP> {
   }
 
   /**
-   * Apply retention policies given the urn and aspect name
+   * Apply retention policies given the urn and aspect name. If a {@link RetentionCompactor} is
+   * configured the contexts are only recorded and retention is applied in the background.
    *
    * @param retentionContexts urn, aspect name, and additional context that could be used to apply
    *     retention
    */
   public void applyRetentionWithPolicyDefaults(@Nonnull List<RetentionContext> retentionContexts) {
+    if (retentionCompactor != null) {
+      retentionCompactor.enqueue(retentionContexts);
+      return;
+    }
+
     List<RetentionContext> withDefaults =
         retentionContexts.stream()
             .map(
@@ -203,6 +218,20 @@ public abstract class RetentionService<U extends ChangeMCP> {
    */
   protected abstract void applyRetention(List<RetentionContext> retentionContexts);
 
+  /**
+   * Apply the retention policy of a single urn and aspect, deleting at most {@code limit} rows.
+   * Used by the {@link RetentionCompactor} so that each call holds locks on a bounded number of
+   * rows. Implementations that cannot bound the delete apply the whole policy and return 0.
+   *
+   * @param retentionContext urn, aspect name and the retention policy to apply
+   * @param limit maximum number of rows to delete
+   * @return number of rows deleted, if equal to {@code limit} more rows may be eligible
+   */
+  public long compactRetention(@Nonnull RetentionContext retentionContext, int limit) {
+    applyRetention(List.of(retentionContext));
+    return 0;
+  }
+
   /**
    * Batch apply retention to all records that match the input entityName and aspectName
    *
@@ -0,0 +1,228 @@
+package com.linkedin.metadata.entity.retention;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Timer;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.RateLimiter;
+import com.linkedin.metadata.entity.RetentionService;
+import com.linkedin.metadata.entity.RetentionService.RetentionContext;
+import com.linkedin.metadata.utils.metrics.MetricUtils;
+import com.linkedin.retention.Retention;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nonnull;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Applies retention in the background instead of inline with ingestion.
+ *
+ * <p>Writes only record the (urn, aspect) keys that may have rows outside of their retention
+ * policy. A single worker thread drains those keys and deletes at most {@code batchSize} rows per
+ * call to {@link RetentionService#compactRetention(RetentionContext, int)}, re-queueing keys that
+ * still have eligible rows. Deletes are throttled to {@code rowsPerSecond} and the worker can be
+ * paused. The number of pending keys is bounded; once full, new keys are dropped and counted, they
+ * are picked up again on the next write to the aspect or by a bulk retention run.
+ */
+@Slf4j
+public class RetentionCompactor implements AutoCloseable {
+  private static final String BACKLOG_METRIC = "backlog";
+  private static final String ROWS_DELETED_METRIC = "rowsDeleted";
+
+  private final RetentionService<?> retentionService;
+  private final int batchSize;
+  private final int maxPendingKeys;
+  private final RateLimiter rateLimiter;
+  private final ScheduledExecutorService executorService;
+
+  private final Map<Key, RetentionContext> pending = new ConcurrentHashMap<>();
+  private final Queue<Key> queue = new ConcurrentLinkedQueue<>();
+  private final Map<String, AtomicLong> backlogByEntity = new ConcurrentHashMap<>();
+  private final AtomicBoolean paused = new AtomicBoolean(false);
+
+  public RetentionCompactor(
+      @Nonnull RetentionService<?> retentionService,
+      int batchSize,
+      int maxPendingKeys,
+      double rowsPerSecond,
+      long intervalMillis) {
+    this(retentionService, batchSize, maxPendingKeys, rowsPerSecond);
+    executorService.scheduleWithFixedDelay(
+        this::compact, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+  }
+
+  @VisibleForTesting
+  RetentionCompactor(
+      @Nonnull RetentionService<?> retentionService,
+      int batchSize,
+      int maxPendingKeys,
+      double rowsPerSecond) {
+    if (batchSize <= 0 || maxPendingKeys <= 0 || rowsPerSecond <= 0) {
+      throw new IllegalArgumentException(
+          "Retention compaction batchSize, maxPendingKeys and rowsPerSecond must be positive");
+    }
+    this.retentionService = retentionService;
+    this.batchSize = batchSize;
+    this.maxPendingKeys = maxPendingKeys;
+    this.rateLimiter = RateLimiter.create(rowsPerSecond);
+    this.executorService = Executors.newSingleThreadScheduledExecutor();
+    MetricUtils.gauge(
+        RetentionCompactor.class, BACKLOG_METRIC, () -> (Gauge<Integer>) pending::size);
+  }
+
+  /**
+   * Record the urn and aspect of each context as needing retention. Contexts for a key that is
+   * already pending are merged, keeping the highest known max version.
+   */
+  public void enqueue(@Nonnull List<RetentionContext> retentionContexts) {
+    for (RetentionContext context : retentionContexts) {
+      Key key = new Key(context.getUrn().toString(), context.getAspectName());
+      if (!pending.containsKey(key) && pending.size() >= maxPendingKeys) {
+        MetricUtils.counter(RetentionCompactor.class, "dropped").inc();
+        continue;
+      }
+      boolean[] added = {false};
+      pending.compute(
+          key,
+          (k, existing) -> {
+            if (existing == null) {
+              added[0] = true;
+              return context;
+            }
+            return newerOf(existing, context);
+          });
+      if (added[0]) {
+        queue.add(key);
+        backlog(context.getUrn().getEntityType()).incrementAndGet();
+      }
+    }
+  }
+
+  /** Stop deleting rows. Writes keep being recorded while paused. */
+  public void pause() {
+    paused.set(true);
+    log.info("Paused retention compaction with {} pending keys", pending.size());
+  }
+
+  public void resume() {
+    paused.set(false);
+    log.info("Resumed retention compaction with {} pending keys", pending.size());
+  }
+
+  public boolean isPaused() {
+    return paused.get();
+  }
+
+  public int getBacklog() {
+    return pending.size();
+  }
+
+  public long getBacklog(@Nonnull String entityName) {
+    AtomicLong backlog = backlogByEntity.get(entityName);
+    return backlog == null ? 0 : backlog.get();
+  }
+
+  /**
+   * Drain the keys that were pending when the run started. Keys with more eligible rows than one
+   * batch are queued again behind them so a single large aspect cannot starve the others.
+   */
+  @VisibleForTesting
+  void compact() {
+    // Retention policies rarely change, resolve each (entity, aspect) pair once per run
+    Map<String, Map<String, Retention>> policies = new HashMap<>();
+    int keys = queue.size();
+    for (int i = 0; i < keys && !paused.get(); i++) {
+      Key key = queue.poll();
+      if (key == null) {
+        break;
+      }
+      RetentionContext context = pending.remove(key);
+      if (context == null) {
+        continue;
+      }
+      String entityName = context.getUrn().getEntityType();
+      backlog(entityName).decrementAndGet();
+      try {
+        Retention retention =
+            context
+                .getRetentionPolicy()
+                .orElseGet(
+                    () ->
+                        policies
+                            .computeIfAbsent(entityName, name -> new HashMap<>())
+                            .computeIfAbsent(
+                                context.getAspectName(),
+                                aspect -> retentionService.getRetention(entityName, aspect)));
+        if (retention.data().isEmpty()) {
+          continue;
+        }
+
+        long deleted;
+        try (Timer.Context ignored =
+            MetricUtils.timer(RetentionCompactor.class, "compactRetention").time()) {
+          deleted =
+              retentionService.compactRetention(
+                  context.toBuilder().retentionPolicy(Optional.of(retention)).build(), batchSize);
+        }
+        // Pay for the rows actually deleted, most keys have none or a few rows to delete
+        rateLimiter.acquire((int) Math.max(1, deleted));
+        MetricUtils.counter(RetentionCompactor.class, ROWS_DELETED_METRIC).inc(deleted);
+        MetricUtils.counter(RetentionCompactor.class, entityName + "_" + ROWS_DELETED_METRIC)
+            .inc(deleted);
+
+        if (deleted >= batchSize) {
+          enqueue(List.of(context));
+        }
+      } catch (Exception e) {
+        MetricUtils.exceptionCounter(RetentionCompactor.class, "compactRetention", e);
+        log.error(
+            "Failed to apply retention to urn {} aspect {}", key.getUrn(), key.getAspect(), e);
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    executorService.shutdownNow();
+  }
+
+  private AtomicLong backlog(String entityName) {
+    return backlogByEntity.computeIfAbsent(
+        entityName,
+        name -> {
+          AtomicLong backlog = new AtomicLong();
+          MetricUtils.gauge(
+              RetentionCompactor.class,
+              name + "_" + BACKLOG_METRIC,
+              () -> (Gauge<Long>) backlog::get);
+          return backlog;
+        });
+  }
+
+  private static RetentionContext newerOf(RetentionContext existing, RetentionContext context) {
+    if (existing.getMaxVersion().isEmpty()) {
+      return existing;
+    }
+    if (context.getMaxVersion().isEmpty()
+        || context.getMaxVersion().get() > existing.getMaxVersion().get()) {
+      return context;
+    }
+    return existing;
+  }
+
+  @Value
+  private static class Key {
+    String urn;
+    String aspect;
+  }
+}
@@ -34,4 +34,18 @@ public interface GraphClient {
       @Nullable Integer count,
       int maxHops,
       String actor);
+
+  /**
+   * Returns the shortest lineage paths leading from an upstream entity down to a downstream entity
+   * in the DataHub graph
+   */
+  @Nonnull
+  LineagePathsResult getLineagePaths(
+      String rawUpstreamUrn,
+      String rawDownstreamUrn,
+      int maxHops,
+      int maxPaths,
+      @Nullable Long startTimeMillis,
+      @Nullable Long endTimeMillis,
+      String actor);
 }
@@ -7,8 +7,11 @@ import com.linkedin.metadata.query.filter.RelationshipDirection;
 import com.linkedin.metadata.query.filter.RelationshipFilter;
 import com.linkedin.metadata.query.filter.SortCriterion;
 import com.linkedin.metadata.search.utils.QueryUtils;
+import java.io.IOException;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -16,6 +19,7 @@ import java.util.Set;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import lombok.Value;
 import org.apache.commons.collections.CollectionUtils;
 
 public interface GraphService {
@@ -294,6 +298,55 @@ public interface GraphService {
     return result;
   }
 
+  /**
+   * Finds the shortest lineage paths leading from upstreamUrn down to downstreamUrn, of at most
+   * maxHops edges, by searching from both ends over the lineage relationships of the lineage
+   * registry.
+   *
+   * <p>Unless overridden, a frontier is expanded with one {@link #getLineage} call per entity
+   */
+  @Nonnull
+  default LineagePathsResult findLineagePaths(
+      @Nonnull Urn upstreamUrn,
+      @Nonnull Urn downstreamUrn,
+      int maxHops,
+      int maxPaths,
+      @Nullable Long startTimeMillis,
+      @Nullable Long endTimeMillis) {
+    final GraphFilters graphFilters =
+        new GraphFilters(new ArrayList<>(getLineageRegistry().getEntitiesWithLineage()));
+    return LineagePathFinder.findPaths(
+        upstreamUrn,
+        downstreamUrn,
+        maxHops,
+        maxPaths,
+        LineagePathFinder.DEFAULT_TIMEOUT_MILLIS,
+        (frontier, direction, remainingMillis) -> {
+          final Map<Urn, Set<Urn>> hops = new HashMap<>();
+          boolean truncated = false;
+          for (Urn urn : frontier) {
+            final List<LineageRelationship> relationships =
+                getLineage(
+                        urn,
+                        direction,
+                        graphFilters,
+                        0,
+                        LineagePathFinder.MAX_HOP_RESULTS,
+                        1,
+                        startTimeMillis,
+                        endTimeMillis)
+                    .getRelationships();
+            truncated |= relationships.size() >= LineagePathFinder.MAX_HOP_RESULTS;
+            hops.put(
+                urn,
+                relationships.stream()
+                    .map(LineageRelationship::getEntity)
+                    .collect(Collectors.toSet()));
+          }
+          return new LineagePathFinder.Hops(hops, truncated);
+        });
+  }
+
   /**
    * Removes the given node (if it exists) as well as all edges (incoming and outgoing) of the node.
    */
@@ -314,6 +367,19 @@ public interface GraphService {
       @Nonnull final List<String> relationshipTypes,
       @Nonnull final RelationshipFilter relationshipFilter);
 
+  /**
+   * Removes edges from the given node like {@link #removeEdgesFromNode}, except for the kept edges,
+   * but may return before they are deleted. Meant for cleaning up edges left behind by earlier
+   * writes, whose ids are not known, while the kept edges are written right after.
+   */
+  default void removeEdgesFromNodeAsync(
+      @Nonnull final Urn urn,
+      @Nonnull final List<String> relationshipTypes,
+      @Nonnull final RelationshipFilter relationshipFilter,
+      @Nonnull final Collection<Edge> keptEdges) {
+    removeEdgesFromNode(urn, relationshipTypes, relationshipFilter);
+  }
+
   void configure();
 
   /** Removes all edges and nodes from the graph. */
@@ -324,6 +390,48 @@ public interface GraphService {
     return false;
   }
 
+  /** Receives the edges of a lineage export as they are read. */
+  @FunctionalInterface
+  interface LineageHopConsumer {
+    /**
+     * @param degree hops between the exported entity and the reached entity
+     * @param fromUrn the entity the hop leaves from
+     * @param toUrn the entity the hop reaches
+     * @param edge the lineage edge between both
+     */
+    void accept(int degree, @Nonnull Urn fromUrn, @Nonnull Urn toUrn, @Nonnull Edge edge)
+        throws IOException;
+  }
+
+  @Value
+  class LineageExportResult {
+    int entities;
+    // Whether the export stopped at the most entities an export may visit
+    boolean truncated;
+  }
+
+  /** Whether or not this graph service can stream a lineage export */
+  default boolean supportsLineageExport() {
+    return false;
+  }
+
+  /**
+   * Hands every lineage edge within maxHops of the given entity to the consumer as it is read,
+   * without collecting the whole lineage first like {@link #getLineage} does. Only supported when
+   * {@link #supportsLineageExport()} is true.
+   */
+  default LineageExportResult exportLineage(
+      @Nonnull Urn entityUrn,
+      @Nonnull LineageDirection direction,
+      int maxHops,
+      @Nullable Long startTimeMillis,
+      @Nullable Long endTimeMillis,
+      @Nonnull LineageHopConsumer consumer)
+      throws IOException {
+    throw new UnsupportedOperationException(
+        String.format("%s does not support lineage export", getClass().getSimpleName()));
+  }
+
   @Nonnull
   RelatedEntitiesScrollResult scrollRelatedEntities(
       @Nullable List<String> sourceTypes,
@@ -0,0 +1,198 @@
+package com.linkedin.metadata.graph;
+
+import com.linkedin.common.urn.Urn;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import lombok.Value;
+
+/**
+ * Finds the shortest lineage paths from an upstream entity to a downstream entity with a
+ * bidirectional breadth first search: one frontier walks downstream from the upstream entity, the
+ * other walks upstream from the downstream entity, and the search stops at the first level where
+ * they meet. Each step expands the smaller frontier by a whole level, so a path query only touches
+ * the entities around the two ends instead of the whole downstream cone of the upstream entity.
+ */
+public class LineagePathFinder {
+
+  /** Upper bound of the entities a search remembers across both frontiers. */
+  public static final int MAX_VISITED_ENTITIES = 100000;
+
+  /** Lineage read per entity and hop by graph services that expand a frontier one at a time. */
+  public static final int MAX_HOP_RESULTS = 1000;
+
+  /** Time a search may take on graph services without a configured query timeout. */
+  public static final long DEFAULT_TIMEOUT_MILLIS = 30000;
+
+  /** Fetches one hop of lineage for a whole frontier. */
+  @FunctionalInterface
+  public interface Expander {
+    /**
+     * @param frontier the entities to hop from
+     * @param direction the direction to hop in
+     * @param remainingMillis time left for the search
+     * @return the entities one hop away
+     */
+    @Nonnull
+    Hops expand(
+        @Nonnull List<Urn> frontier, @Nonnull LineageDirection direction, long remainingMillis);
+  }
+
+  /** One hop of lineage for a frontier. */
+  @Value
+  public static class Hops {
+    // The entities one hop away, by the frontier entity they were reached from
+    Map<Urn, Set<Urn>> hops;
+    // Whether lineage was left out, a lookup failed, timed out or stopped at a result limit
+    boolean truncated;
+  }
+
+  /** One side of the search, the entities it reached and how. */
+  private static class Side {
+    private final LineageDirection direction;
+    private final Map<Urn, Integer> depths = new HashMap<>();
+    // Entities one hop closer to this side's origin, on some shortest path to them
+    private final Map<Urn, List<Urn>> previous = new HashMap<>();
+    private List<Urn> frontier;
+    private int depth = 0;
+
+    private Side(@Nonnull Urn origin, @Nonnull LineageDirection direction) {
+      this.direction = direction;
+      this.depths.put(origin, 0);
+      this.frontier = List.of(origin);
+    }
+  }
+
+  private LineagePathFinder() {}
+
+  /**
+   * @param upstreamUrn where the paths start
+   * @param downstreamUrn where the paths end
+   * @param maxHops longest path considered
+   * @param maxPaths number of shortest paths returned at most
+   * @param timeoutMillis time after which the search gives up, the result is then incomplete
+   */
+  @Nonnull
+  public static LineagePathsResult findPaths(
+      @Nonnull Urn upstreamUrn,
+      @Nonnull Urn downstreamUrn,
+      int maxHops,
+      int maxPaths,
+      long timeoutMillis,
+      @Nonnull Expander expander) {
+    if (upstreamUrn.equals(downstreamUrn)) {
+      return new LineagePathsResult(List.of(List.of(upstreamUrn.toString())), true, 1);
+    }
+    final long deadline = System.currentTimeMillis() + timeoutMillis;
+    final Side forward = new Side(upstreamUrn, LineageDirection.DOWNSTREAM);
+    final Side backward = new Side(downstreamUrn, LineageDirection.UPSTREAM);
+    // Paths found without some of the lineage may not be the shortest, or may miss some
+    boolean truncated = false;
+
+    while (forward.depth + backward.depth < maxHops
+        && !forward.frontier.isEmpty()
+        && !backward.frontier.isEmpty()) {
+      final long remainingMillis = deadline - System.currentTimeMillis();
+      if (remainingMillis <= 0
+          || forward.depths.size() + backward.depths.size() > MAX_VISITED_ENTITIES) {
+        return new LineagePathsResult(
+            Collections.emptyList(), false, forward.depths.size() + backward.depths.size());
+      }
+      final Side side = forward.frontier.size() <= backward.frontier.size() ? forward : backward;
+      final Side other = side == forward ? backward : forward;
+      final Hops hops = expander.expand(side.frontier, side.direction, remainingMillis);
+      truncated |= hops.isTruncated();
+      expand(side, hops.getHops());
+
+      // The shortest paths go through the newly reached entities the other side is closest to
+      int shortest = Integer.MAX_VALUE;
+      final List<Urn> meetings = new ArrayList<>();
+      for (Urn urn : side.frontier) {
+        final Integer otherDepth = other.depths.get(urn);
+        if (otherDepth == null || side.depth + otherDepth > shortest) {
+          continue;
+        }
+        if (side.depth + otherDepth < shortest) {
+          shortest = side.depth + otherDepth;
+          meetings.clear();
+        }
+        meetings.add(urn);
+      }
+      if (!meetings.isEmpty()) {
+        return new LineagePathsResult(
+            buildPaths(meetings, forward, backward, maxPaths),
+            !truncated,
+            forward.depths.size() + backward.depths.size());
+      }
+    }
+    return new LineagePathsResult(
+        Collections.emptyList(), !truncated, forward.depths.size() + backward.depths.size());
+  }
+
+  private static void expand(@Nonnull Side side, @Nonnull Map<Urn, Set<Urn>> hops) {
+    final int nextDepth = side.depth + 1;
+    final Set<Urn> next = new LinkedHashSet<>();
+    for (Urn from : side.frontier) {
+      for (Urn to : hops.getOrDefault(from, Collections.emptySet())) {
+        final Integer depth = side.depths.get(to);
+        if (depth == null) {
+          side.depths.put(to, nextDepth);
+          next.add(to);
+        }
+        if (depth == null || depth == nextDepth) {
+          side.previous.computeIfAbsent(to, urn -> new ArrayList<>()).add(from);
+        }
+      }
+    }
+    side.frontier = new ArrayList<>(next);
+    side.depth = nextDepth;
+  }
+
+  @Nonnull
+  private static List<List<String>> buildPaths(
+      @Nonnull List<Urn> meetings, @Nonnull Side forward, @Nonnull Side backward, int maxPaths) {
+    final List<List<String>> paths = new ArrayList<>();
+    for (Urn meeting : meetings) {
+      for (List<Urn> head : walk(meeting, forward, maxPaths)) {
+        Collections.reverse(head);
+        for (List<Urn> tail : walk(meeting, backward, maxPaths)) {
+          if (paths.size() >= maxPaths) {
+            return paths;
+          }
+          final List<String> path = new ArrayList<>(head.size() + tail.size() - 1);
+          head.forEach(urn -> path.add(urn.toString()));
+          tail.subList(1, tail.size()).forEach(urn -> path.add(urn.toString()));
+          paths.add(path);
+        }
+      }
+    }
+    return paths;
+  }
+
+  /** Up to {@code limit} shortest paths from an entity back to the origin of a side. */
+  @Nonnull
+  private static List<List<Urn>> walk(@Nonnull Urn urn, @Nonnull Side side, int limit) {
+    final List<Urn> previous = side.previous.get(urn);
+    if (previous == null) {
+      final List<Urn> path = new ArrayList<>();
+      path.add(urn);
+      return List.of(path);
+    }
+    final List<List<Urn>> paths = new ArrayList<>();
+    for (Urn before : previous) {
+      for (List<Urn> rest : walk(before, side, limit - paths.size())) {
+        rest.add(0, urn);
+        paths.add(rest);
+        if (paths.size() >= limit) {
+          return paths;
+        }
+      }
+    }
+    return paths;
+  }
+}
@@ -0,0 +1,17 @@
+package com.linkedin.metadata.graph;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/** Shortest lineage paths between two entities. */
+@AllArgsConstructor
+@Data
+public class LineagePathsResult {
+  // Urns from the upstream entity to the downstream entity, empty if none was found
+  List<List<String>> paths;
+  // Whether the search finished over all the lineage it hopped over. It gives up on graphs too
+  // large to search in time, and lineage lookups can fail or stop at a result limit
+  boolean complete;
+  int exploredEntities;
+}
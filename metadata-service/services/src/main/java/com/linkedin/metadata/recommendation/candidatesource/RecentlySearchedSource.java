@@ -5,6 +5,7 @@ import com.datahub.util.exception.ESQueryException;
 import com.linkedin.common.urn.Urn;
 import com.linkedin.metadata.datahubusage.DataHubUsageEventConstants;
 import com.linkedin.metadata.datahubusage.DataHubUsageEventType;
+import com.linkedin.metadata.datahubusage.RecentActivityStore;
 import com.linkedin.metadata.recommendation.RecommendationContent;
 import com.linkedin.metadata.recommendation.RecommendationParams;
 import com.linkedin.metadata.recommendation.RecommendationRenderType;
@@ -13,7 +14,6 @@ import com.linkedin.metadata.recommendation.ScenarioType;
 import com.linkedin.metadata.recommendation.SearchParams;
 import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
 import com.linkedin.metadata.utils.metrics.MetricUtils;
-import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -24,7 +24,6 @@ import org.opensearch.action.search.SearchRequest;
 import org.opensearch.action.search.SearchResponse;
 import org.opensearch.client.RequestOptions;
 import org.opensearch.client.RestHighLevelClient;
-import org.opensearch.client.indices.GetIndexRequest;
 import org.opensearch.index.query.BoolQueryBuilder;
 import org.opensearch.index.query.QueryBuilders;
 import org.opensearch.search.aggregations.AggregationBuilder;
@@ -38,6 +37,7 @@ import org.opensearch.search.builder.SearchSourceBuilder;
 public class RecentlySearchedSource implements RecommendationSource {
   private final RestHighLevelClient _searchClient;
   private final IndexConvention _indexConvention;
+  private final RecentActivityStore _recentActivityStore;
 
   private static final String DATAHUB_USAGE_INDEX = "datahub_usage_event";
   private static final String ENTITY_AGG_NAME = "entity";
@@ -61,29 +61,31 @@ public class RecentlySearchedSource implements RecommendationSource {
   @Override
   public boolean isEligible(
       @Nonnull Urn userUrn, @Nonnull RecommendationRequestContext requestContext) {
-    boolean analyticsEnabled = false;
-    try {
-      analyticsEnabled =
-          _searchClient
-              .indices()
-              .exists(
-                  new GetIndexRequest(_indexConvention.getIndexName(DATAHUB_USAGE_INDEX)),
-                  RequestOptions.DEFAULT);
-    } catch (IOException e) {
-      log.error("Failed to check whether DataHub usage index exists");
-    }
+    boolean analyticsEnabled = _recentActivityStore.isUsageIndexPresent();
     return requestContext.getScenario() == ScenarioType.SEARCH_BAR && analyticsEnabled;
   }
 
   @Override
   public List<RecommendationContent> getRecommendations(
       @Nonnull Urn userUrn, @Nonnull RecommendationRequestContext requestContext) {
+    Optional<List<String>> precomputed =
+        _recentActivityStore.getTopValues(RecentActivityStore.Activity.RECENTLY_SEARCHED, userUrn);
+    if (precomputed.isPresent()) {
+      return precomputed.get().stream()
+          .map(this::buildContent)
+          .filter(Optional::isPresent)
+          .map(Optional::get)
+          .limit(MAX_CONTENT)
+          .collect(Collectors.toList());
+    }
     SearchRequest searchRequest = buildSearchRequest(userUrn);
     try (Timer.Context ignored = MetricUtils.timer(this.getClass(), "getRecentlySearched").time()) {
       final SearchResponse searchResponse =
           _searchClient.search(searchRequest, RequestOptions.DEFAULT);
       // extract results
       ParsedTerms parsedTerms = searchResponse.getAggregations().get(ENTITY_AGG_NAME);
+      _recentActivityStore.seed(
+          RecentActivityStore.Activity.RECENTLY_SEARCHED, userUrn, parsedTerms);
       return parsedTerms.getBuckets().stream()
           .map(bucket -> buildContent(bucket.getKeyAsString()))
           .filter(Optional::isPresent)
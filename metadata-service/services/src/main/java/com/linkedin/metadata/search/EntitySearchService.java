@@ -52,6 +52,17 @@ public interface EntitySearchService {
    */
   void deleteDocument(@Nonnull String entityName, @Nonnull String docId);
 
+  /**
+   * Sets fields of the document of an entity, if the entity has a document. Used for fields
+   * computed outside of the entity's aspects, which must not create a document on their own.
+   *
+   * @param entityName name of the entity
+   * @param urn the urn of the entity
+   * @param fields the fields to set
+   */
+  void updateFieldsIfExists(
+      @Nonnull String entityName, @Nonnull Urn urn, @Nonnull Map<String, Object> fields);
+
   /**
    * Appends a run id to the list for a certain document
    *
@@ -11,7 +11,10 @@ import com.linkedin.timeseries.DeleteAspectValuesResult;
 import com.linkedin.timeseries.GenericTable;
 import com.linkedin.timeseries.GroupingBucket;
 import com.linkedin.timeseries.TimeseriesIndexSizeResult;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
@@ -112,6 +115,46 @@ public interface TimeseriesAspectService {
       @Nullable final Filter filter,
       @Nullable final SortCriterion sort);
 
+  /**
+   * Retrieve the latest Time-Series Aspects for each of a set of entities, sorted by the
+   * timestampMillis field descending. Implementations should answer this with a single query
+   * rather than one per entity, as it backs pages listing many entities at once.
+   *
+   * @param urns the urns of the entities to retrieve aspects for, all of the same entity type
+   * @param entityName the name of the entity to retrieve aspects for
+   * @param aspectName the name of the timeseries aspect to retrieve for the entities
+   * @param startTimeMillis the start of a time window in milliseconds, compared against the
+   *     standard timestampMillis field
+   * @param endTimeMillis the end of a time window in milliseconds, compared against the standard
+   *     timestampMillis field
+   * @param limit the maximum number of results to retrieve per entity
+   * @param filter a set of additional secondary filters to apply when finding the aspects
+   * @param sort the order that defines which aspects are the latest. If not provided, defaults to
+   *     timestampMillis descending.
+   * @return the latest aspects of each entity, entities with no aspects in the window are absent
+   */
+  @Nonnull
+  default Map<Urn, List<EnvelopedAspect>> getLatestAspectValues(
+      @Nonnull final Set<Urn> urns,
+      @Nonnull final String entityName,
+      @Nonnull final String aspectName,
+      @Nullable final Long startTimeMillis,
+      @Nullable final Long endTimeMillis,
+      final int limit,
+      @Nullable final Filter filter,
+      @Nullable final SortCriterion sort) {
+    Map<Urn, List<EnvelopedAspect>> results = new HashMap<>();
+    for (Urn urn : urns) {
+      List<EnvelopedAspect> values =
+          getAspectValues(
+              urn, entityName, aspectName, startTimeMillis, endTimeMillis, limit, filter, sort);
+      if (!values.isEmpty()) {
+        results.put(urn, values);
+      }
+    }
+    return results;
+  }
+
   /**
    * Perform a arbitrary aggregation query over a set of Time-Series aspects. This is used to answer
    * arbitrary questions about the Time-Series aspects that we have.
@@ -0,0 +1,212 @@
+package com.linkedin.metadata.datahubusage;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.common.urn.UrnUtils;
+import com.linkedin.metadata.utils.elasticsearch.IndexConventionImpl;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.opensearch.OpenSearchStatusException;
+import org.opensearch.action.DocWriteRequest;
+import org.opensearch.action.get.GetRequest;
+import org.opensearch.action.get.GetResponse;
+import org.opensearch.action.index.IndexRequest;
+import org.opensearch.action.index.IndexResponse;
+import org.opensearch.client.IndicesClient;
+import org.opensearch.client.RestHighLevelClient;
+import org.opensearch.client.indices.GetIndexRequest;
+import org.opensearch.rest.RestStatus;
+import org.opensearch.search.aggregations.Aggregations;
+import org.opensearch.search.aggregations.bucket.terms.Terms;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class RecentActivityStoreTest {
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+  private static final Urn ACTOR = UrnUtils.getUrn("urn:li:corpuser:datahub");
+  private static final String DATASET_1 = "urn:li:dataset:(urn:li:dataPlatform:hive,one,PROD)";
+  private static final String DATASET_2 = "urn:li:dataset:(urn:li:dataPlatform:hive,two,PROD)";
+  private static final String DATASET_3 = "urn:li:dataset:(urn:li:dataPlatform:hive,three,PROD)";
+  private static final String VIEWED_ID = "RECENTLY_VIEWED|" + ACTOR;
+  private static final String EDITED_ID = "RECENTLY_EDITED|global";
+  private static final String POPULAR_ID = "MOST_POPULAR|global";
+
+  private RestHighLevelClient client;
+  private RecentActivityStore store;
+
+  // Activity documents by id, with their sequence numbers and the writes attempted on them
+  private Map<String, String> documents;
+  private Map<String, Long> seqNos;
+  private Map<String, Integer> writeAttempts;
+  // Written by another consumer right before the next write of a document
+  private Map<String, String> concurrentWrites;
+  // Next writes that fail with a conflict, whatever their document
+  private int conflicts;
+
+  @BeforeMethod
+  public void setup() throws Exception {
+    client = mock(RestHighLevelClient.class);
+    IndicesClient indicesClient = mock(IndicesClient.class);
+    when(client.indices()).thenReturn(indicesClient);
+    when(indicesClient.exists(any(GetIndexRequest.class), any())).thenReturn(true);
+    mockDocuments();
+    store = new RecentActivityStore(client, new IndexConventionImpl(null), true, 3, 3);
+  }
+
+  @AfterMethod
+  public void teardown() {
+    store.close();
+  }
+
+  // Keeps activity documents in memory, with the conflicts of conditional writes
+  private void mockDocuments() throws Exception {
+    documents = new HashMap<>();
+    seqNos = new HashMap<>();
+    writeAttempts = new HashMap<>();
+    concurrentWrites = new HashMap<>();
+    conflicts = 0;
+    when(client.get(any(), any()))
+        .thenAnswer(
+            invocation -> {
+              String id = ((GetRequest) invocation.getArgument(0)).id();
+              GetResponse response = mock(GetResponse.class);
+              when(response.isExists()).thenReturn(documents.containsKey(id));
+              when(response.getSourceAsString()).thenReturn(documents.get(id));
+              when(response.getSeqNo()).thenReturn(seqNos.getOrDefault(id, -2L));
+              when(response.getPrimaryTerm()).thenReturn(1L);
+              return response;
+            });
+    when(client.index(any(), any()))
+        .thenAnswer(
+            invocation -> {
+              IndexRequest request = invocation.getArgument(0);
+              String id = request.id();
+              writeAttempts.merge(id, 1, Integer::sum);
+              String concurrentWrite = concurrentWrites.remove(id);
+              if (concurrentWrite != null) {
+                put(id, concurrentWrite);
+              }
+              boolean conflict =
+                  request.opType() == DocWriteRequest.OpType.CREATE
+                      ? documents.containsKey(id)
+                      : !seqNos.containsKey(id) || seqNos.get(id) != request.ifSeqNo();
+              if (conflict || conflicts > 0) {
+                conflicts = Math.max(0, conflicts - 1);
+                throw new OpenSearchStatusException("conflict", RestStatus.CONFLICT);
+              }
+              put(id, request.source().utf8ToString());
+              return mock(IndexResponse.class);
+            });
+  }
+
+  private void put(String id, String source) {
+    documents.put(id, source);
+    seqNos.merge(id, 0L, (seqNo, ignored) -> seqNo + 1);
+  }
+
+  private List<String> values(String id, boolean counted) throws Exception {
+    return TopValues.fromJson(OBJECT_MAPPER.readTree(documents.get(id)).path("values"), 3, counted)
+        .getValues();
+  }
+
+  private static String event(String type, String entityUrn, long timestamp) {
+    ObjectNode event = OBJECT_MAPPER.createObjectNode();
+    event.put(DataHubUsageEventConstants.TYPE, type);
+    event.put(DataHubUsageEventConstants.ACTOR_URN, ACTOR.toString());
+    event.put(DataHubUsageEventConstants.ENTITY_URN, entityUrn);
+    event.put(DataHubUsageEventConstants.TIMESTAMP, timestamp);
+    return event.toString();
+  }
+
+  private static Terms terms(Map<String, Long> counts) {
+    List<Terms.Bucket> buckets =
+        counts.entrySet().stream()
+            .map(
+                entry -> {
+                  Terms.Bucket bucket = mock(Terms.Bucket.class);
+                  when(bucket.getKeyAsString()).thenReturn(entry.getKey());
+                  when(bucket.getDocCount()).thenReturn(entry.getValue());
+                  when(bucket.getAggregations()).thenReturn(new Aggregations(List.of()));
+                  return bucket;
+                })
+            .collect(Collectors.toList());
+    Terms terms = mock(Terms.class);
+    doReturn(buckets).when(terms).getBuckets();
+    return terms;
+  }
+
+  @Test
+  public void testFlushRetriesConflictingWrite() throws Exception {
+    store.record(event("EntityViewEvent", DATASET_1, 1));
+    store.flush();
+    assertEquals(values(VIEWED_ID, false), List.of(DATASET_1));
+    // Not seeded yet, readers fall back to the aggregation
+    assertEquals(
+        store.getTopValues(RecentActivityStore.Activity.RECENTLY_VIEWED, ACTOR), Optional.empty());
+
+    // Another consumer writes the document between the read and the write of the next flush
+    ObjectNode concurrent = (ObjectNode) OBJECT_MAPPER.readTree(documents.get(VIEWED_ID));
+    concurrent.set(
+        "values",
+        OBJECT_MAPPER.readTree(
+            "[{\"value\":\"" + DATASET_3 + "\",\"count\":1,\"lastTimestamp\":3}]"));
+    concurrentWrites.put(VIEWED_ID, concurrent.toString());
+    store.record(event("EntityViewEvent", DATASET_2, 2));
+    store.flush();
+
+    assertEquals(writeAttempts.get(VIEWED_ID).intValue(), 3);
+    assertEquals(values(VIEWED_ID, false), List.of(DATASET_3, DATASET_2));
+
+    // Nothing is left to write
+    store.flush();
+    assertEquals(writeAttempts.get(VIEWED_ID).intValue(), 3);
+  }
+
+  @Test
+  public void testFlushKeepsEventsAfterRepeatedConflicts() throws Exception {
+    store.record(event("EntityActionEvent", DATASET_1, 1));
+    conflicts = 3;
+    store.flush();
+    assertEquals(writeAttempts.get(EDITED_ID).intValue(), 3);
+    assertFalse(documents.containsKey(EDITED_ID));
+
+    store.flush();
+    assertEquals(writeAttempts.get(EDITED_ID).intValue(), 4);
+    assertEquals(values(EDITED_ID, false), List.of(DATASET_1));
+  }
+
+  @Test
+  public void testSeedsOnlyOnce() throws Exception {
+    store.seed(
+        RecentActivityStore.Activity.MOST_POPULAR,
+        null,
+        terms(Map.of(DATASET_1, 5L, DATASET_2, 3L)));
+    // Served by another read before the first seed was written
+    store.seed(
+        RecentActivityStore.Activity.MOST_POPULAR,
+        null,
+        terms(Map.of(DATASET_1, 5L, DATASET_2, 3L, DATASET_3, 10L)));
+    store.record(event("EntityViewEvent", DATASET_2, 1));
+    store.record(event("EntityViewEvent", DATASET_2, 2));
+    store.record(event("EntityViewEvent", DATASET_2, 3));
+    // Waits for both seeds, then flushes
+    store.close();
+
+    assertEquals(writeAttempts.get(POPULAR_ID).intValue(), 2);
+    assertEquals(
+        store.getTopValues(RecentActivityStore.Activity.MOST_POPULAR, null),
+        Optional.of(List.of(DATASET_2, DATASET_1)));
+  }
+}
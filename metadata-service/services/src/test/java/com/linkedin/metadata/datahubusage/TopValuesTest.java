@@ -0,0 +1,66 @@
+package com.linkedin.metadata.datahubusage;
+
+import static org.testng.Assert.assertEquals;
+
+import java.util.List;
+import org.testng.annotations.Test;
+
+public class TopValuesTest {
+
+  @Test
+  public void testRecencyKeepsLatestValues() {
+    TopValues topValues = new TopValues(2, false);
+    topValues.add("a", 1);
+    topValues.add("b", 2);
+    topValues.add("c", 3);
+    // Late event older than everything kept
+    topValues.add("d", 0);
+    topValues.add("b", 4);
+
+    assertEquals(topValues.getValues(), List.of("b", "c"));
+  }
+
+  @Test
+  public void testCountedValuesInheritEvictedCount() {
+    TopValues topValues = new TopValues(2, true);
+    topValues.add("a", 1);
+    topValues.add("a", 2);
+    topValues.add("a", 3);
+    topValues.add("b", 4);
+    topValues.add("c", 5);
+
+    // c replaced b and inherited its count
+    assertEquals(topValues.getValues(), List.of("a", "c"));
+  }
+
+  @Test
+  public void testMergeTrimsToCapacity() {
+    TopValues current = new TopValues(2, true);
+    current.add("a", 1);
+    current.add("b", 2);
+    TopValues delta = new TopValues(2, true);
+    delta.add("b", 3);
+    delta.add("c", 4);
+
+    current.merge(delta);
+    assertEquals(current.getValues(), List.of("b", "c"));
+
+    TopValues roundTrip = TopValues.fromJson(current.toJson(), 2, true);
+    assertEquals(roundTrip.getValues(), List.of("b", "c"));
+  }
+
+  @Test
+  public void testMergeMaxDoesNotAddUp() {
+    TopValues current = new TopValues(2, true);
+    current.add("a", 1);
+    current.add("b", 2);
+    current.add("b", 3);
+    TopValues seed = new TopValues(2, true);
+    seed.put("a", 2, 0);
+
+    // Seeding twice with a count aggregated elsewhere ties a with b instead of passing it
+    current.mergeMax(seed);
+    current.mergeMax(seed);
+    assertEquals(current.getValues(), List.of("b", "a"));
+  }
+}
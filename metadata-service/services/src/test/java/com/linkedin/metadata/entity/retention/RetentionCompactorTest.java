@@ -0,0 +1,116 @@
+package com.linkedin.metadata.entity.retention;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import com.linkedin.common.urn.Urn;
+import com.linkedin.common.urn.UrnUtils;
+import com.linkedin.metadata.entity.RetentionService;
+import com.linkedin.metadata.entity.RetentionService.RetentionContext;
+import com.linkedin.retention.Retention;
+import com.linkedin.retention.VersionBasedRetention;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.mockito.ArgumentCaptor;
+import org.testng.annotations.Test;
+
+public class RetentionCompactorTest {
+
+  private static final Urn DATASET =
+      UrnUtils.getUrn("urn:li:dataset:(urn:li:dataPlatform:hive,db.table,PROD)");
+  private static final Urn CORP_USER = UrnUtils.getUrn("urn:li:corpuser:datahub");
+
+  private static RetentionContext context(Urn urn, long maxVersion) {
+    return RetentionContext.builder()
+        .urn(urn)
+        .aspectName("status")
+        .maxVersion(Optional.of(maxVersion))
+        .build();
+  }
+
+  private static RetentionService<?> retentionService() {
+    RetentionService<?> retentionService = mock(RetentionService.class);
+    when(retentionService.getRetention(any(), any()))
+        .thenReturn(new Retention().setVersion(new VersionBasedRetention().setMaxVersions(2)));
+    return retentionService;
+  }
+
+  @Test
+  public void testPendingKeysAreDeduplicated() {
+    RetentionService<?> retentionService = retentionService();
+    RetentionCompactor compactor = new RetentionCompactor(retentionService, 10, 10, 1000);
+
+    compactor.enqueue(List.of(context(DATASET, 3), context(DATASET, 5), context(CORP_USER, 2)));
+    assertEquals(compactor.getBacklog(), 2);
+    assertEquals(compactor.getBacklog("dataset"), 1);
+    assertEquals(compactor.getBacklog("corpuser"), 1);
+
+    compactor.compact();
+
+    ArgumentCaptor<RetentionContext> captor = ArgumentCaptor.forClass(RetentionContext.class);
+    verify(retentionService, times(2)).compactRetention(captor.capture(), eq(10));
+    assertEquals(captor.getAllValues().get(0).getMaxVersion(), Optional.of(5L));
+    assertEquals(compactor.getBacklog(), 0);
+    assertEquals(compactor.getBacklog("dataset"), 0);
+  }
+
+  @Test
+  public void testFullBatchIsRequeued() {
+    RetentionService<?> retentionService = retentionService();
+    when(retentionService.compactRetention(any(), anyInt())).thenReturn(10L, 3L);
+    RetentionCompactor compactor = new RetentionCompactor(retentionService, 10, 10, 1000);
+
+    compactor.enqueue(List.of(context(DATASET, 30)));
+    compactor.compact();
+    assertEquals(compactor.getBacklog(), 1);
+
+    compactor.compact();
+    assertEquals(compactor.getBacklog(), 0);
+    verify(retentionService, times(2)).compactRetention(any(), eq(10));
+  }
+
+  @Test
+  public void testPausedAndBoundedBacklog() {
+    RetentionService<?> retentionService = retentionService();
+    RetentionCompactor compactor = new RetentionCompactor(retentionService, 10, 1, 1000);
+
+    compactor.pause();
+    compactor.enqueue(List.of(context(DATASET, 3), context(CORP_USER, 3)));
+    compactor.compact();
+    assertEquals(compactor.getBacklog(), 1);
+    verify(retentionService, never()).compactRetention(any(), anyInt());
+
+    compactor.resume();
+    compactor.compact();
+    assertEquals(compactor.getBacklog(), 0);
+    verify(retentionService, times(1)).compactRetention(any(), anyInt());
+  }
+
+  @Test
+  public void testThrottlesRowsActuallyDeleted() {
+    RetentionService<?> retentionService = retentionService();
+    when(retentionService.compactRetention(any(), anyInt())).thenReturn(0L);
+    RetentionCompactor compactor = new RetentionCompactor(retentionService, 500, 100, 100);
+
+    compactor.enqueue(
+        IntStream.range(0, 50)
+            .mapToObj(i -> context(UrnUtils.getUrn("urn:li:corpuser:user" + i), 3))
+            .collect(Collectors.toList()));
+    long start = System.currentTimeMillis();
+    compactor.compact();
+
+    // Paying a whole batch per key would take 250 seconds at 100 rows per second
+    assertTrue(System.currentTimeMillis() - start < 5000);
+    verify(retentionService, times(50)).compactRetention(any(), eq(500));
+  }
+}
@@ -0,0 +1,137 @@
+package com.linkedin.metadata.graph;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import com.linkedin.common.urn.Urn;
+import com.linkedin.common.urn.UrnUtils;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.testng.annotations.Test;
+
+public class LineagePathFinderTest {
+
+  private static final Urn A = dataset("a");
+  private static final Urn B = dataset("b");
+  private static final Urn C = dataset("c");
+  private static final Urn D = dataset("d");
+  private static final Urn E = dataset("e");
+  private static final Urn F = dataset("f");
+
+  private final Map<Urn, Set<Urn>> downstreams = new HashMap<>();
+  private final Map<Urn, Set<Urn>> upstreams = new HashMap<>();
+
+  private static Urn dataset(String name) {
+    return UrnUtils.getUrn("urn:li:dataset:(urn:li:dataPlatform:hive," + name + ",PROD)");
+  }
+
+  private void edge(Urn upstream, Urn downstream) {
+    downstreams.computeIfAbsent(upstream, urn -> new LinkedHashSet<>()).add(downstream);
+    upstreams.computeIfAbsent(downstream, urn -> new LinkedHashSet<>()).add(upstream);
+  }
+
+  private LineagePathFinder.Expander expander() {
+    return expander(false);
+  }
+
+  private LineagePathFinder.Expander expander(boolean truncated) {
+    return (frontier, direction, remainingMillis) -> {
+      final Map<Urn, Set<Urn>> edges =
+          direction == LineageDirection.DOWNSTREAM ? downstreams : upstreams;
+      final Map<Urn, Set<Urn>> hops = new HashMap<>();
+      frontier.forEach(urn -> hops.put(urn, edges.getOrDefault(urn, Set.of())));
+      return new LineagePathFinder.Hops(hops, truncated);
+    };
+  }
+
+  private static List<String> path(Urn... urns) {
+    return List.of(urns).stream().map(Urn::toString).collect(Collectors.toList());
+  }
+
+  @Test
+  public void testShortestPath() {
+    edge(A, B);
+    edge(B, C);
+    edge(C, D);
+    edge(A, E);
+    edge(E, F);
+    edge(F, C);
+
+    LineagePathsResult result = LineagePathFinder.findPaths(A, D, 10, 10, 10000, expander());
+
+    assertTrue(result.isComplete());
+    assertEquals(result.getPaths(), List.of(path(A, B, C, D)));
+  }
+
+  @Test
+  public void testMultipleShortestPaths() {
+    edge(A, B);
+    edge(A, C);
+    edge(B, D);
+    edge(C, D);
+    edge(D, E);
+
+    LineagePathsResult result = LineagePathFinder.findPaths(A, E, 10, 10, 10000, expander());
+
+    assertTrue(result.isComplete());
+    assertEquals(new HashSet<>(result.getPaths()), Set.of(path(A, B, D, E), path(A, C, D, E)));
+
+    result = LineagePathFinder.findPaths(A, E, 10, 1, 10000, expander());
+    assertEquals(result.getPaths().size(), 1);
+  }
+
+  @Test
+  public void testNoPathWithinMaxHops() {
+    edge(A, B);
+    edge(B, C);
+    edge(C, D);
+
+    LineagePathsResult result = LineagePathFinder.findPaths(A, D, 2, 10, 10000, expander());
+    assertTrue(result.isComplete());
+    assertTrue(result.getPaths().isEmpty());
+
+    result = LineagePathFinder.findPaths(D, A, 10, 10, 10000, expander());
+    assertTrue(result.isComplete());
+    assertTrue(result.getPaths().isEmpty());
+
+    result = LineagePathFinder.findPaths(A, D, 3, 10, 10000, expander());
+    assertEquals(result.getPaths(), List.of(path(A, B, C, D)));
+  }
+
+  @Test
+  public void testSameEntity() {
+    LineagePathsResult result = LineagePathFinder.findPaths(A, A, 10, 10, 10000, expander());
+
+    assertTrue(result.isComplete());
+    assertEquals(result.getPaths(), List.of(path(A)));
+  }
+
+  @Test
+  public void testTimeout() {
+    edge(A, B);
+    edge(B, C);
+
+    LineagePathsResult result = LineagePathFinder.findPaths(A, C, 10, 10, 0, expander());
+
+    assertFalse(result.isComplete());
+    assertTrue(result.getPaths().isEmpty());
+  }
+
+  @Test
+  public void testTruncatedHops() {
+    edge(A, B);
+    edge(B, C);
+
+    // A lookup that left lineage out may have missed a shorter path
+    LineagePathsResult result = LineagePathFinder.findPaths(A, C, 10, 10, 10000, expander(true));
+
+    assertFalse(result.isComplete());
+    assertEquals(result.getPaths(), List.of(path(A, B, C)));
+  }
+}
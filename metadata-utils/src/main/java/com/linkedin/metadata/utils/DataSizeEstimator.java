@@ -0,0 +1,68 @@
+package com.linkedin.metadata.utils;
+
+import com.linkedin.data.ByteString;
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.template.DataTemplate;
+import java.util.Map;
+import javax.annotation.Nullable;
+
+/**
+ * Estimates the serialized size of Pegasus data by walking its structure, without rendering it to a
+ * String or byte array. The estimate tracks the length of the JSON encoding closely enough to be
+ * used as a cache weight.
+ */
+public class DataSizeEstimator {
+
+  private DataSizeEstimator() {}
+
+  // braces/brackets around a map or list
+  private static final int CONTAINER_OVERHEAD = 2;
+  // quotes around a key, the colon and the separating comma
+  private static final int MAP_ENTRY_OVERHEAD = 4;
+  // separating comma
+  private static final int LIST_ENTRY_OVERHEAD = 1;
+  // quotes around a string
+  private static final int STRING_OVERHEAD = 2;
+  private static final int NUMBER_SIZE = 8;
+  private static final int BOOLEAN_SIZE = 5;
+  private static final int NULL_SIZE = 4;
+
+  /**
+   * Estimates the size in bytes of a Pegasus data object, typically a {@link DataMap}, a {@link
+   * DataList} or a {@link DataTemplate} wrapping one.
+   */
+  public static long estimateSize(@Nullable Object data) {
+    if (data == null) {
+      return NULL_SIZE;
+    } else if (data instanceof DataMap) {
+      long size = CONTAINER_OVERHEAD;
+      for (Map.Entry<String, Object> entry : ((DataMap) data).entrySet()) {
+        size += MAP_ENTRY_OVERHEAD + entry.getKey().length() + estimateSize(entry.getValue());
+      }
+      return size;
+    } else if (data instanceof DataList) {
+      long size = CONTAINER_OVERHEAD;
+      for (Object item : (DataList) data) {
+        size += LIST_ENTRY_OVERHEAD + estimateSize(item);
+      }
+      return size;
+    } else if (data instanceof DataTemplate) {
+      return estimateSize(((DataTemplate<?>) data).data());
+    } else if (data instanceof String) {
+      return STRING_OVERHEAD + ((String) data).length();
+    } else if (data instanceof ByteString) {
+      return STRING_OVERHEAD + ((ByteString) data).length();
+    } else if (data instanceof Boolean) {
+      return BOOLEAN_SIZE;
+    } else if (data instanceof Number) {
+      return NUMBER_SIZE;
+    }
+    return STRING_OVERHEAD + data.toString().length();
+  }
+
+  /** Same as {@link #estimateSize(Object)}, clamped to an int for use as a cache weight. */
+  public static int estimateWeight(@Nullable Object data) {
+    return (int) Math.min(Integer.MAX_VALUE, estimateSize(data));
+  }
+}
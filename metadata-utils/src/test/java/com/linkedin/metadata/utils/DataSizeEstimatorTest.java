@@ -0,0 +1,51 @@
+package com.linkedin.metadata.utils;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.codec.JacksonDataCodec;
+import com.linkedin.data.template.StringArray;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import org.testng.annotations.Test;
+
+public class DataSizeEstimatorTest {
+
+  @Test
+  public void testEstimateTracksJsonLength() throws IOException {
+    DataList fields = new DataList();
+    for (int i = 0; i < 3; i++) {
+      fields.add(new DataMap(Map.of("fieldPath", "customer.field" + i, "nativeType", "VARCHAR")));
+    }
+    DataMap data = new DataMap();
+    data.put("schemaName", "customers");
+    data.put("version", 0L);
+    data.put("fields", fields);
+
+    long jsonLength = new JacksonDataCodec().mapToString(data).length();
+    long estimate = DataSizeEstimator.estimateSize(data);
+
+    // one extra separator is counted per container, and numbers have a fixed size
+    assertTrue(Math.abs(estimate - jsonLength) <= 16, estimate + " vs " + jsonLength);
+  }
+
+  @Test
+  public void testEstimateGrowsWithContent() {
+    DataMap small = new DataMap(Map.of("description", "short"));
+    DataMap large = new DataMap(Map.of("description", "a much much longer description"));
+
+    assertTrue(DataSizeEstimator.estimateSize(large) > DataSizeEstimator.estimateSize(small));
+  }
+
+  @Test
+  public void testEstimateTemplateMatchesData() {
+    StringArray array = new StringArray(List.of("urn:li:corpuser:a", "urn:li:corpuser:b"));
+
+    assertEquals(
+        DataSizeEstimator.estimateSize(array), DataSizeEstimator.estimateSize(array.data()));
+    assertEquals(DataSizeEstimator.estimateWeight(null), 4);
+  }
+}